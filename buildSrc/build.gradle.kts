@@ -26,6 +26,7 @@ object Versions {
     const val binaryCompatibilityValidator = "0.14.0"
     const val detekt = "1.20.0-RC2"
     const val dokka = "1.9.20"
+    const val jmhGradle = "0.7.2"
     const val kotlin = "1.9.20"
     const val ktlintGradle = "10.2.1"
     const val nexusPublish = "2.0.0"
@@ -36,6 +37,7 @@ object Plugins {
     const val binaryCompatibilityValidator = "org.jetbrains.kotlinx:binary-compatibility-validator:${Versions.binaryCompatibilityValidator}"
     const val detekt = "io.gitlab.arturbosch.detekt:detekt-gradle-plugin:${Versions.detekt}"
     const val dokka = "org.jetbrains.dokka:dokka-gradle-plugin:${Versions.dokka}"
+    const val jmhGradle = "me.champeau.jmh:jmh-gradle-plugin:${Versions.jmhGradle}"
     const val kotlinGradle = "org.jetbrains.kotlin:kotlin-gradle-plugin:${Versions.kotlin}"
     const val ktlintGradle = "org.jlleitschuh.gradle:ktlint-gradle:${Versions.ktlintGradle}"
     const val nexusPublish = "io.github.gradle-nexus:publish-plugin:${Versions.nexusPublish}"
@@ -45,6 +47,7 @@ object Plugins {
 dependencies {
     implementation(Plugins.detekt)
     implementation(Plugins.dokka)
+    implementation(Plugins.jmhGradle)
     implementation(Plugins.kotlinGradle)
     implementation(Plugins.ktlintGradle)
     implementation(Plugins.nexusPublish)
@@ -34,6 +34,7 @@ object Versions {
     const val jansi = "2.4.0"
     const val jgenhtml = "1.6"
     const val jline = "3.21.0"
+    const val jmh = "1.37"
     const val joda = "2.12.1"
     const val kotlinPoet = "1.11.0"
     const val kotlinxCollections = "0.3.5"
@@ -118,6 +119,7 @@ object Plugins {
     const val application = "org.gradle.application"
     const val detekt = "io.gitlab.arturbosch.detekt"
     const val dokka = "org.jetbrains.dokka"
+    const val jmh = "me.champeau.jmh"
     const val library = "org.gradle.java-library"
     const val kotlinLombok = "org.jetbrains.kotlin.plugin.lombok"
     const val testFixtures = "org.gradle.java-test-fixtures"
@@ -463,6 +463,90 @@ public abstract class AstVisitor<R, C> {
         return defaultVisit(node, ctx);
     }
 
+    /**
+     * TODO
+     * @param node TODO
+     * @param ctx TODO
+     * @return TODO
+     * @deprecated This feature is experimental and is subject to change.
+     */
+    @Deprecated
+    public R visitWindowFunctionTypeAggregate(WindowFunctionType.Aggregate node, C ctx) {
+        return defaultVisit(node, ctx);
+    }
+
+    /**
+     * TODO
+     * @param node TODO
+     * @param ctx TODO
+     * @return TODO
+     * @deprecated This feature is experimental and is subject to change.
+     */
+    @Deprecated
+    public R visitWindowFrameClause(WindowFrameClause node, C ctx) {
+        return defaultVisit(node, ctx);
+    }
+
+    /**
+     * TODO
+     * @param node TODO
+     * @param ctx TODO
+     * @return TODO
+     * @deprecated This feature is experimental and is subject to change.
+     */
+    @Deprecated
+    public R visitWindowFrameBoundUnboundedPreceding(WindowFrameBound.UnboundedPreceding node, C ctx) {
+        return defaultVisit(node, ctx);
+    }
+
+    /**
+     * TODO
+     * @param node TODO
+     * @param ctx TODO
+     * @return TODO
+     * @deprecated This feature is experimental and is subject to change.
+     */
+    @Deprecated
+    public R visitWindowFrameBoundPreceding(WindowFrameBound.Preceding node, C ctx) {
+        return defaultVisit(node, ctx);
+    }
+
+    /**
+     * TODO
+     * @param node TODO
+     * @param ctx TODO
+     * @return TODO
+     * @deprecated This feature is experimental and is subject to change.
+     */
+    @Deprecated
+    public R visitWindowFrameBoundCurrentRow(WindowFrameBound.CurrentRow node, C ctx) {
+        return defaultVisit(node, ctx);
+    }
+
+    /**
+     * TODO
+     * @param node TODO
+     * @param ctx TODO
+     * @return TODO
+     * @deprecated This feature is experimental and is subject to change.
+     */
+    @Deprecated
+    public R visitWindowFrameBoundFollowing(WindowFrameBound.Following node, C ctx) {
+        return defaultVisit(node, ctx);
+    }
+
+    /**
+     * TODO
+     * @param node TODO
+     * @param ctx TODO
+     * @return TODO
+     * @deprecated This feature is experimental and is subject to change.
+     */
+    @Deprecated
+    public R visitWindowFrameBoundUnboundedFollowing(WindowFrameBound.UnboundedFollowing node, C ctx) {
+        return defaultVisit(node, ctx);
+    }
+
     public R visitExprBag(ExprBag node, C ctx) {
         return defaultVisit(node, ctx);
     }
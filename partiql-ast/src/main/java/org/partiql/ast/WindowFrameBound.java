@@ -0,0 +1,181 @@
+package org.partiql.ast;
+
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import org.jetbrains.annotations.NotNull;
+import org.partiql.ast.expr.Expr;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents a bound of a window frame.
+ * @see WindowFrameClause#getStart()
+ * @see WindowFrameClause#getEnd()
+ * @deprecated This feature is experimental and is subject to change.
+ */
+@Deprecated
+public abstract class WindowFrameBound extends AstNode {
+
+    @NotNull
+    @Override
+    public List<AstNode> getChildren() {
+        return new ArrayList<>();
+    }
+
+    /**
+     * The UNBOUNDED PRECEDING bound, i.e. the first row of the partition.
+     * @deprecated This feature is experimental and is subject to change.
+     */
+    @Builder(builderClassName = "Builder")
+    @EqualsAndHashCode(callSuper = false)
+    @Deprecated
+    public static final class UnboundedPreceding extends WindowFrameBound {
+
+        /**
+         * Constructs an UNBOUNDED PRECEDING window frame bound.
+         * @deprecated This feature is experimental and is subject to change.
+         */
+        @Deprecated
+        public UnboundedPreceding() {}
+
+        @Override
+        public <R, C> R accept(@NotNull AstVisitor<R, C> visitor, C ctx) {
+            return visitor.visitWindowFrameBoundUnboundedPreceding(this, ctx);
+        }
+    }
+
+    /**
+     * The {@code <offset> PRECEDING} bound.
+     * @deprecated This feature is experimental and is subject to change.
+     */
+    @Builder(builderClassName = "Builder")
+    @EqualsAndHashCode(callSuper = false)
+    @Deprecated
+    public static final class Preceding extends WindowFrameBound {
+
+        @NotNull
+        private final Expr offset;
+
+        /**
+         * Constructs an {@code <offset> PRECEDING} window frame bound.
+         * @param offset the offset of the bound
+         * @deprecated This feature is experimental and is subject to change.
+         */
+        @Deprecated
+        public Preceding(@NotNull Expr offset) {
+            this.offset = offset;
+        }
+
+        /**
+         * Returns the offset of the bound.
+         * @return the offset of the bound
+         */
+        @NotNull
+        public Expr getOffset() {
+            return this.offset;
+        }
+
+        @NotNull
+        @Override
+        public List<AstNode> getChildren() {
+            List<AstNode> kids = new ArrayList<>();
+            kids.add(offset);
+            return kids;
+        }
+
+        @Override
+        public <R, C> R accept(@NotNull AstVisitor<R, C> visitor, C ctx) {
+            return visitor.visitWindowFrameBoundPreceding(this, ctx);
+        }
+    }
+
+    /**
+     * The CURRENT ROW bound.
+     * @deprecated This feature is experimental and is subject to change.
+     */
+    @Builder(builderClassName = "Builder")
+    @EqualsAndHashCode(callSuper = false)
+    @Deprecated
+    public static final class CurrentRow extends WindowFrameBound {
+
+        /**
+         * Constructs a CURRENT ROW window frame bound.
+         * @deprecated This feature is experimental and is subject to change.
+         */
+        @Deprecated
+        public CurrentRow() {}
+
+        @Override
+        public <R, C> R accept(@NotNull AstVisitor<R, C> visitor, C ctx) {
+            return visitor.visitWindowFrameBoundCurrentRow(this, ctx);
+        }
+    }
+
+    /**
+     * The {@code <offset> FOLLOWING} bound.
+     * @deprecated This feature is experimental and is subject to change.
+     */
+    @Builder(builderClassName = "Builder")
+    @EqualsAndHashCode(callSuper = false)
+    @Deprecated
+    public static final class Following extends WindowFrameBound {
+
+        @NotNull
+        private final Expr offset;
+
+        /**
+         * Constructs an {@code <offset> FOLLOWING} window frame bound.
+         * @param offset the offset of the bound
+         * @deprecated This feature is experimental and is subject to change.
+         */
+        @Deprecated
+        public Following(@NotNull Expr offset) {
+            this.offset = offset;
+        }
+
+        /**
+         * Returns the offset of the bound.
+         * @return the offset of the bound
+         */
+        @NotNull
+        public Expr getOffset() {
+            return this.offset;
+        }
+
+        @NotNull
+        @Override
+        public List<AstNode> getChildren() {
+            List<AstNode> kids = new ArrayList<>();
+            kids.add(offset);
+            return kids;
+        }
+
+        @Override
+        public <R, C> R accept(@NotNull AstVisitor<R, C> visitor, C ctx) {
+            return visitor.visitWindowFrameBoundFollowing(this, ctx);
+        }
+    }
+
+    /**
+     * The UNBOUNDED FOLLOWING bound, i.e. the last row of the partition.
+     * @deprecated This feature is experimental and is subject to change.
+     */
+    @Builder(builderClassName = "Builder")
+    @EqualsAndHashCode(callSuper = false)
+    @Deprecated
+    public static final class UnboundedFollowing extends WindowFrameBound {
+
+        /**
+         * Constructs an UNBOUNDED FOLLOWING window frame bound.
+         * @deprecated This feature is experimental and is subject to change.
+         */
+        @Deprecated
+        public UnboundedFollowing() {}
+
+        @Override
+        public <R, C> R accept(@NotNull AstVisitor<R, C> visitor, C ctx) {
+            return visitor.visitWindowFrameBoundUnboundedFollowing(this, ctx);
+        }
+    }
+}
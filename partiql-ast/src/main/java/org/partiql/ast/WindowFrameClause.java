@@ -0,0 +1,89 @@
+package org.partiql.ast;
+
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents the frame clause of a window specification, e.g. {@code ROWS BETWEEN 2 PRECEDING AND CURRENT ROW}.
+ * @see WindowSpecification#getFrameClause()
+ * @deprecated This feature is experimental and is subject to change.
+ */
+@Builder(builderClassName = "Builder")
+@EqualsAndHashCode(callSuper = false)
+@Deprecated
+public final class WindowFrameClause extends AstNode {
+
+    @NotNull
+    private final WindowFrameUnits units;
+
+    @NotNull
+    private final WindowFrameBound start;
+
+    @Nullable
+    private final WindowFrameBound end;
+
+    /**
+     * Constructs a new window frame clause.
+     * @param units the units of the window frame
+     * @param start the start of the window frame
+     * @param end the end of the window frame; null if the frame is specified by its start alone
+     */
+    public WindowFrameClause(
+            @NotNull WindowFrameUnits units,
+            @NotNull WindowFrameBound start,
+            @Nullable WindowFrameBound end
+    ) {
+        this.units = units;
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * Returns the units of the window frame.
+     * @return the units of the window frame
+     */
+    @NotNull
+    public WindowFrameUnits getUnits() {
+        return this.units;
+    }
+
+    /**
+     * Returns the start of the window frame.
+     * @return the start of the window frame
+     */
+    @NotNull
+    public WindowFrameBound getStart() {
+        return this.start;
+    }
+
+    /**
+     * Returns the end of the window frame. If null, the frame was specified by its start alone (e.g.
+     * {@code ROWS 2 PRECEDING}), and it ends at the current row.
+     * @return the end of the window frame
+     */
+    @Nullable
+    public WindowFrameBound getEnd() {
+        return this.end;
+    }
+
+    @NotNull
+    @Override
+    public List<AstNode> getChildren() {
+        List<AstNode> kids = new ArrayList<>();
+        kids.add(start);
+        if (end != null) {
+            kids.add(end);
+        }
+        return kids;
+    }
+
+    @Override
+    public <R, C> R accept(@NotNull AstVisitor<R, C> visitor, C ctx) {
+        return visitor.visitWindowFrameClause(this, ctx);
+    }
+}
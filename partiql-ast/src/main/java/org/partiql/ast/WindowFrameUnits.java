@@ -0,0 +1,89 @@
+package org.partiql.ast;
+
+import lombok.EqualsAndHashCode;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The units of a window frame.
+ * @see WindowFrameClause#getUnits()
+ * @deprecated This feature is experimental and is subject to change.
+ */
+@EqualsAndHashCode(callSuper = false)
+@Deprecated
+public final class WindowFrameUnits extends AstEnum {
+    /**
+     * The ROWS variant of the window frame units, whose bounds are offsets in rows from the current row.
+     */
+    public static final int ROWS = 0;
+
+    /**
+     * The RANGE variant of the window frame units, whose bounds are offsets from the current row's sort key.
+     */
+    public static final int RANGE = 1;
+
+    /**
+     * Constructs a new window frame units with the {@link #ROWS} code.
+     * @return a new window frame units with the {@link #ROWS} code
+     */
+    public static WindowFrameUnits ROWS() {
+        return new WindowFrameUnits(ROWS);
+    }
+
+    /**
+     * Constructs a new window frame units with the {@link #RANGE} code.
+     * @return a new window frame units with the {@link #RANGE} code
+     */
+    public static WindowFrameUnits RANGE() {
+        return new WindowFrameUnits(RANGE);
+    }
+
+    private final int code;
+
+    private WindowFrameUnits(int code) {
+        this.code = code;
+    }
+
+    @Override
+    public int code() {
+        return code;
+    }
+
+    @NotNull
+    @Override
+    public String name() {
+        switch (code) {
+            case ROWS: return "ROWS";
+            case RANGE: return "RANGE";
+            default: throw new IllegalStateException("Invalid code: " + code);
+        }
+    }
+
+    @NotNull
+    private static final int[] codes = {
+            ROWS,
+            RANGE
+    };
+
+    /**
+     * Returns the codes for the window frame units.
+     * @return the codes for the window frame units
+     */
+    @NotNull
+    public static int[] codes() {
+        return codes;
+    }
+
+    @NotNull
+    @Override
+    public List<AstNode> getChildren() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public <R, C> R accept(@NotNull AstVisitor<R, C> visitor, C ctx) {
+        return null;
+    }
+}
@@ -336,4 +336,68 @@ public abstract class WindowFunctionType extends AstNode {
             return visitor.visitWindowFunctionTypeLag(this, ctx);
         }
     }
+
+    /**
+     * Represents an aggregate function used as a window function, e.g. {@code SUM(x) OVER (...)}. The aggregate is
+     * computed over the window frame of each row.
+     * @see ExprWindowFunction#getFunctionType()
+     * @see WindowSpecification#getFrameClause()
+     * @deprecated This feature is experimental and is subject to change.
+     */
+    @Builder(builderClassName = "Builder")
+    @EqualsAndHashCode(callSuper = false)
+    @Deprecated
+    public static final class Aggregate extends WindowFunctionType {
+        @NotNull
+        private final String name;
+
+        @Nullable
+        private final Expr argument;
+
+        /**
+         * Constructs a new aggregate window function type.
+         * @param name the name of the aggregate function, e.g. {@code sum}
+         * @param argument the argument of the aggregate function; null for {@code COUNT(*)}
+         * @deprecated This feature is experimental and is subject to change.
+         */
+        @Deprecated
+        public Aggregate(@NotNull String name, @Nullable Expr argument) {
+            super();
+            this.name = name;
+            this.argument = argument;
+        }
+
+        /**
+         * Returns the name of the aggregate function.
+         * @return the name of the aggregate function
+         */
+        @NotNull
+        public String getName() {
+            return this.name;
+        }
+
+        /**
+         * Returns the argument of the aggregate function. This is null for {@code COUNT(*)}.
+         * @return the argument of the aggregate function
+         */
+        @Nullable
+        public Expr getArgument() {
+            return this.argument;
+        }
+
+        @NotNull
+        @Override
+        public List<AstNode> getChildren() {
+            List<AstNode> kids = new ArrayList<>();
+            if (argument != null) {
+                kids.add(argument);
+            }
+            return kids;
+        }
+
+        @Override
+        public <R, C> R accept(@NotNull AstVisitor<R, C> visitor, C ctx) {
+            return visitor.visitWindowFunctionTypeAggregate(this, ctx);
+        }
+    }
 }
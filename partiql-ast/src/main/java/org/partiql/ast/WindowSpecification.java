@@ -17,9 +17,6 @@ import java.util.List;
 @EqualsAndHashCode(callSuper = false)
 @Deprecated
 public final class WindowSpecification extends AstNode {
-    // TODO: In the future: @Nullable private final WindowFrameClause frameClause;
-    //  See: https://github.com/partiql/partiql-lang-kotlin/issues/1837
-
     @Nullable
     private final Identifier.Simple existingName;
 
@@ -29,6 +26,9 @@ public final class WindowSpecification extends AstNode {
     @Nullable
     private final OrderBy orderClause;
 
+    @Nullable
+    private final WindowFrameClause frameClause;
+
     /**
      * Constructs a new window specification.
      * @param existingName the existing name of the window specification
@@ -39,10 +39,27 @@ public final class WindowSpecification extends AstNode {
             @Nullable Identifier.Simple existingName,
             @Nullable List<WindowPartition> partitionClause,
             @Nullable OrderBy orderClause
+    ) {
+        this(existingName, partitionClause, orderClause, null);
+    }
+
+    /**
+     * Constructs a new window specification.
+     * @param existingName the existing name of the window specification
+     * @param partitionClause the partition clause of the window specification
+     * @param orderClause the order clause of the window specification
+     * @param frameClause the frame clause of the window specification
+     */
+    public WindowSpecification(
+            @Nullable Identifier.Simple existingName,
+            @Nullable List<WindowPartition> partitionClause,
+            @Nullable OrderBy orderClause,
+            @Nullable WindowFrameClause frameClause
     ) {
         this.existingName = existingName;
         this.partitionClause = partitionClause;
         this.orderClause = orderClause;
+        this.frameClause = frameClause;
     }
 
     /**
@@ -72,6 +89,15 @@ public final class WindowSpecification extends AstNode {
         return this.orderClause;
     }
 
+    /**
+     * Returns the frame clause of the window specification.
+     * @return the frame clause of the window specification
+     */
+    @Nullable
+    public WindowFrameClause getFrameClause() {
+        return this.frameClause;
+    }
+
     @NotNull
     @Override
     public List<AstNode> getChildren() {
@@ -85,6 +111,9 @@ public final class WindowSpecification extends AstNode {
         if (this.orderClause != null) {
             children.add(this.orderClause);
         }
+        if (this.frameClause != null) {
+            children.add(this.frameClause);
+        }
         return children;
     }
 
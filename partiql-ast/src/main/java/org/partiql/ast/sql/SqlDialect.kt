@@ -49,6 +49,8 @@ import org.partiql.ast.SetOpType
 import org.partiql.ast.SetQuantifier
 import org.partiql.ast.Sort
 import org.partiql.ast.WindowClause
+import org.partiql.ast.WindowFrameBound
+import org.partiql.ast.WindowFrameClause
 import org.partiql.ast.WindowFunctionNullTreatment
 import org.partiql.ast.WindowFunctionType
 import org.partiql.ast.WindowPartition
@@ -242,6 +244,14 @@ public abstract class SqlDialect : AstVisitor<SqlBlock, SqlBlock>() {
         return tail concat "ROW_NUMBER()"
     }
 
+    @Deprecated("This feature is experimental and is subject to change.")
+    override fun visitWindowFunctionTypeAggregate(node: WindowFunctionType.Aggregate, tail: SqlBlock): SqlBlock {
+        var t = tail concat "${node.name.uppercase()}("
+        val argument = node.argument
+        t = if (argument == null) t concat "*" else visitExpr(argument, t)
+        return t concat ")"
+    }
+
     @Deprecated("This feature is experimental and is subject to change.")
     override fun visitWindowFunctionTypeLead(node: WindowFunctionType.Lead, tail: SqlBlock): SqlBlock {
         return visitWindowFunctionTypeLeadOrLag("LEAD(", node.extent, node.offset, node.defaultValue, node.nullTreatment, tail)
@@ -278,12 +288,60 @@ public abstract class SqlDialect : AstVisitor<SqlBlock, SqlBlock>() {
             node.orderClause?.let { orderClause ->
                 t = visitOrderBy(orderClause, t)
             }
+
+            // Frame clause
+            node.frameClause?.let { frameClause ->
+                if (node.orderClause != null) {
+                    t = t concat " "
+                }
+                t = visitWindowFrameClause(frameClause, t)
+            }
             t = t concat ")"
         }
 
         return t
     }
 
+    @Deprecated("This feature is experimental and is subject to change.")
+    override fun visitWindowFrameClause(node: WindowFrameClause, tail: SqlBlock): SqlBlock {
+        var t = tail concat "${node.units.name()} "
+        val end = node.end
+        if (end == null) {
+            t = node.start.accept(this, t)
+        } else {
+            t = t concat "BETWEEN "
+            t = node.start.accept(this, t)
+            t = t concat " AND "
+            t = end.accept(this, t)
+        }
+        return t
+    }
+
+    @Deprecated("This feature is experimental and is subject to change.")
+    override fun visitWindowFrameBoundUnboundedPreceding(node: WindowFrameBound.UnboundedPreceding, tail: SqlBlock): SqlBlock {
+        return tail concat "UNBOUNDED PRECEDING"
+    }
+
+    @Deprecated("This feature is experimental and is subject to change.")
+    override fun visitWindowFrameBoundPreceding(node: WindowFrameBound.Preceding, tail: SqlBlock): SqlBlock {
+        return visitExprWrapped(node.offset, tail) concat " PRECEDING"
+    }
+
+    @Deprecated("This feature is experimental and is subject to change.")
+    override fun visitWindowFrameBoundCurrentRow(node: WindowFrameBound.CurrentRow, tail: SqlBlock): SqlBlock {
+        return tail concat "CURRENT ROW"
+    }
+
+    @Deprecated("This feature is experimental and is subject to change.")
+    override fun visitWindowFrameBoundFollowing(node: WindowFrameBound.Following, tail: SqlBlock): SqlBlock {
+        return visitExprWrapped(node.offset, tail) concat " FOLLOWING"
+    }
+
+    @Deprecated("This feature is experimental and is subject to change.")
+    override fun visitWindowFrameBoundUnboundedFollowing(node: WindowFrameBound.UnboundedFollowing, tail: SqlBlock): SqlBlock {
+        return tail concat "UNBOUNDED FOLLOWING"
+    }
+
     @Deprecated("This feature is experimental and is subject to change.")
     override fun visitWindowClause(node: WindowClause, tail: SqlBlock): SqlBlock {
         var t = tail concat "WINDOW "
@@ -340,6 +340,27 @@ public object Ast {
         return WindowSpecification(existingName, partitionClause, orderByClause)
     }
 
+    @JvmStatic
+    @Deprecated("This feature is experimental and is subject to change")
+    public fun windowSpecification(
+        existingName: Identifier.Simple?,
+        partitionClause: List<WindowPartition>?,
+        orderByClause: OrderBy?,
+        frameClause: WindowFrameClause?
+    ): WindowSpecification {
+        return WindowSpecification(existingName, partitionClause, orderByClause, frameClause)
+    }
+
+    @JvmStatic
+    @Deprecated("This feature is experimental and is subject to change")
+    public fun windowFrameClause(
+        units: WindowFrameUnits,
+        start: WindowFrameBound,
+        end: WindowFrameBound?
+    ): WindowFrameClause {
+        return WindowFrameClause(units, start, end)
+    }
+
     @JvmStatic
     @Deprecated("This feature is experimental and is subject to change")
     public fun windowPartition(columnReference: Identifier): WindowPartition {
@@ -834,13 +834,54 @@ public abstract class AstRewriter<C> : AstVisitor<AstNode, C>() {
         }
         val orderClause = node.orderClause?.let { visitOrderBy(it, ctx) as OrderBy }
         val name = node.existingName?.let { visitIdentifierSimple(it, ctx) as Identifier.Simple }
-        return if (partitionClause !== node.partitionClause || orderClause !== node.orderClause || name !== node.existingName) {
-            WindowSpecification(name, partitionClause, orderClause)
+        val frameClause = node.frameClause?.let { visitWindowFrameClause(it, ctx) as WindowFrameClause }
+        return if (partitionClause !== node.partitionClause || orderClause !== node.orderClause || name !== node.existingName || frameClause !== node.frameClause) {
+            WindowSpecification(name, partitionClause, orderClause, frameClause)
         } else {
             node
         }
     }
 
+    override fun visitWindowFrameClause(node: WindowFrameClause, ctx: C): AstNode {
+        val start = node.start.accept(this, ctx) as WindowFrameBound
+        val end = node.end?.let { it.accept(this, ctx) as WindowFrameBound }
+        return if (start !== node.start || end !== node.end) {
+            WindowFrameClause(node.units, start, end)
+        } else {
+            node
+        }
+    }
+
+    override fun visitWindowFrameBoundUnboundedPreceding(node: WindowFrameBound.UnboundedPreceding, ctx: C): AstNode {
+        return node
+    }
+
+    override fun visitWindowFrameBoundPreceding(node: WindowFrameBound.Preceding, ctx: C): AstNode {
+        val offset = visitExpr(node.offset, ctx) as Expr
+        return if (offset !== node.offset) {
+            WindowFrameBound.Preceding(offset)
+        } else {
+            node
+        }
+    }
+
+    override fun visitWindowFrameBoundCurrentRow(node: WindowFrameBound.CurrentRow, ctx: C): AstNode {
+        return node
+    }
+
+    override fun visitWindowFrameBoundFollowing(node: WindowFrameBound.Following, ctx: C): AstNode {
+        val offset = visitExpr(node.offset, ctx) as Expr
+        return if (offset !== node.offset) {
+            WindowFrameBound.Following(offset)
+        } else {
+            node
+        }
+    }
+
+    override fun visitWindowFrameBoundUnboundedFollowing(node: WindowFrameBound.UnboundedFollowing, ctx: C): AstNode {
+        return node
+    }
+
     override fun visitExprWindowFunction(node: ExprWindowFunction, ctx: C): AstNode {
         val functionType = visitWindowFunctionType(node.functionType, ctx) as WindowFunctionType
         val windowSpec = visitWindowSpecification(node.windowSpecification, ctx) as WindowSpecification
@@ -891,6 +932,15 @@ public abstract class AstRewriter<C> : AstVisitor<AstNode, C>() {
         return node
     }
 
+    override fun visitWindowFunctionTypeAggregate(node: WindowFunctionType.Aggregate, ctx: C): AstNode {
+        val argument = node.argument?.let { visitExpr(it, ctx) as Expr }
+        return if (argument !== node.argument) {
+            WindowFunctionType.Aggregate(node.name, argument)
+        } else {
+            node
+        }
+    }
+
     override fun visitWindowPartition(node: WindowPartition, ctx: C): AstNode {
         val identifier = visitIdentifier(node.columnReference, ctx) as Identifier
         return if (identifier !== node.columnReference) {
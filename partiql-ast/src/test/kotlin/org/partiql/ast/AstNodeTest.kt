@@ -128,6 +128,18 @@ class AstNodeTest {
         WindowFunctionType.Lag(lit(), null, null, null),
     ) // defaultValue null
 
+    @Test
+    fun windowFunctionTypeAggregate() = assertNullSafe(
+        @Suppress("DEPRECATION")
+        WindowFunctionType.Aggregate("count", null),
+    ) // argument null (COUNT(*))
+
+    @Test
+    fun windowFrameClause() = assertNullSafe(
+        @Suppress("DEPRECATION")
+        WindowFrameClause(WindowFrameUnits.ROWS(), WindowFrameBound.UnboundedPreceding(), null),
+    ) // end null
+
     @Test
     fun attributeConstraintNull() = assertNullSafe(Ast.columnConstraintNullable(name = null, isNullable = false))
 
@@ -302,7 +314,15 @@ class AstNodeTest {
             "org.partiql.ast.Sort",
             "org.partiql.ast.WindowClause",
             "org.partiql.ast.WindowClause.Definition",
+            "org.partiql.ast.WindowFrameBound.CurrentRow",
+            "org.partiql.ast.WindowFrameBound.Following",
+            "org.partiql.ast.WindowFrameBound.Preceding",
+            "org.partiql.ast.WindowFrameBound.UnboundedFollowing",
+            "org.partiql.ast.WindowFrameBound.UnboundedPreceding",
+            "org.partiql.ast.WindowFrameClause",
+            "org.partiql.ast.WindowFrameUnits",
             "org.partiql.ast.WindowFunctionNullTreatment",
+            "org.partiql.ast.WindowFunctionType.Aggregate",
             "org.partiql.ast.WindowFunctionType.CumeDist",
             "org.partiql.ast.WindowFunctionType.DenseRank",
             "org.partiql.ast.WindowFunctionType.Lag",
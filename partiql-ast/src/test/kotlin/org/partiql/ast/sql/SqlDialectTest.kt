@@ -79,6 +79,7 @@ import org.partiql.ast.Ast.setOp
 import org.partiql.ast.Ast.sort
 import org.partiql.ast.Ast.windowClause
 import org.partiql.ast.Ast.windowClauseDefinition
+import org.partiql.ast.Ast.windowFrameClause
 import org.partiql.ast.Ast.windowPartition
 import org.partiql.ast.Ast.windowSpecification
 import org.partiql.ast.AstNode
@@ -111,6 +112,8 @@ import org.partiql.ast.Select
 import org.partiql.ast.SetOpType
 import org.partiql.ast.SetQuantifier
 import org.partiql.ast.WindowClause
+import org.partiql.ast.WindowFrameBound
+import org.partiql.ast.WindowFrameUnits
 import org.partiql.ast.WindowFunctionNullTreatment
 import org.partiql.ast.WindowFunctionType
 import org.partiql.ast.With
@@ -4414,6 +4417,35 @@ class SqlDialectTest {
                     )
                 )
             ),
+            // Aggregate window functions with frame clauses
+            expect(
+                "SUM(price) OVER (ORDER BY date ASC NULLS LAST ROWS BETWEEN 2 PRECEDING AND CURRENT ROW)",
+                exprWindowFunction(
+                    type = WindowFunctionType.Aggregate("sum", v("price")),
+                    spec = windowSpecification(
+                        null,
+                        emptyList(),
+                        orderBy(listOf(sort(v("date"), Order.ASC(), Nulls.LAST()))),
+                        windowFrameClause(
+                            WindowFrameUnits.ROWS(),
+                            WindowFrameBound.Preceding(exprLit(intNum(2))),
+                            WindowFrameBound.CurrentRow()
+                        )
+                    )
+                )
+            ),
+            expect(
+                "COUNT(*) OVER (PARTITION BY ticker RANGE UNBOUNDED PRECEDING)",
+                exprWindowFunction(
+                    type = WindowFunctionType.Aggregate("count", null),
+                    spec = windowSpecification(
+                        null,
+                        listOf(windowPartition(Identifier.regular("ticker"))),
+                        null,
+                        windowFrameClause(WindowFrameUnits.RANGE(), WindowFrameBound.UnboundedPreceding(), null)
+                    )
+                )
+            ),
             // Window functions with multiple partitions
             expect(
                 "ROW_NUMBER() OVER (PARTITION BY ticker, month ORDER BY date ASC NULLS LAST)",
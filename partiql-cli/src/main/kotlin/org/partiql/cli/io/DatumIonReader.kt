@@ -5,6 +5,7 @@ import com.amazon.ion.IonType
 import com.amazon.ion.system.IonReaderBuilder
 import com.amazon.ion.system.IonTextWriterBuilder
 import com.amazon.ionelement.api.IonElement
+import org.partiql.spi.catalog.Projection
 import org.partiql.spi.types.PType
 import org.partiql.spi.value.Datum
 import org.partiql.spi.value.Entry
@@ -33,7 +34,8 @@ import java.time.ZoneOffset
  */
 class DatumIonReader(
     private val ionReader: IonReader,
-    private val sourceDataFormat: DatumIonReaderBuilder.SourceDataFormat
+    private val sourceDataFormat: DatumIonReaderBuilder.SourceDataFormat,
+    private val projection: Projection? = null,
 ) : AutoCloseable {
     private val MINUTES_PER_HOUR = 60
     private val INTERVAL_MAX_PRECISION = 9
@@ -51,10 +53,20 @@ class DatumIonReader(
         GRAPH_ANNOTATION("\$graph")
     }
 
+    /**
+     * The projection of the next struct to read; null if it is read entirely.
+     */
+    private var required: Projection? = null
+
+    /**
+     * True while reading a top-level value, whose elements are narrowed as records if it is a list.
+     */
+    private var top = false
+
     @Throws(IOException::class)
     fun read(): Datum {
         val value = if (ionReader.next() != null) {
-            fromIon(ionReader)
+            fromIonTop(ionReader)
         } else {
             throw IOException("End of File.")
         }
@@ -67,7 +79,7 @@ class DatumIonReader(
     fun readAll(): List<Datum> {
         val values = mutableListOf<Datum>()
         while (ionReader.next() != null) {
-            values.add(fromIon(ionReader))
+            values.add(fromIonTop(ionReader))
         }
         return values
     }
@@ -76,6 +88,15 @@ class DatumIonReader(
         ionReader.close()
     }
 
+    /**
+     * Reads a top-level value, narrowed to the [projection] (if any) like [Projection.apply].
+     */
+    private fun fromIonTop(reader: IonReader): Datum {
+        required = projection?.takeUnless { it.isAll }
+        top = true
+        return fromIon(reader)
+    }
+
     private fun fromIon(reader: IonReader): Datum {
         return when (sourceDataFormat) {
             DatumIonReaderBuilder.SourceDataFormat.IonGeneric -> fromIonGeneric(reader)
@@ -153,19 +174,18 @@ class DatumIonReader(
             IonType.CLOB -> Datum.clob(reader.newBytes())
             IonType.BLOB -> Datum.blob(reader.newBytes())
             IonType.LIST, IonType.SEXP -> {
-                reader.stepIn()
-                val elements = mutableListOf<Datum>().also { elements ->
-                    reader.loadEachValue {
-                        elements.add(fromIon(reader))
-                    }
-                }
-                reader.stepOut()
+                val elements = elements(reader)
                 Datum.array(elements)
             }
             IonType.STRUCT -> {
+                val projection = required
+                top = false
                 reader.stepIn()
                 val elements = mutableListOf<Field>().also { elements ->
                     reader.loadEachValue {
+                        // an unprojected field is skipped, without being decoded, by the next call to next()
+                        val child = if (projection == null) null else projection.getField(reader.fieldName) ?: return@loadEachValue
+                        required = child?.takeUnless { it.isAll }
                         elements.add(Field.of(reader.fieldName, fromIon(reader)))
                     }
                 }
@@ -232,16 +252,12 @@ class DatumIonReader(
             IonType.BLOB -> fromIonGeneric(reader)
             IonType.LIST -> {
                 if (partiQLAnnotation == PARTIQL_ANNOTATION.BAG_ANNOTATION) {
-                    reader.stepIn()
-                    val elements = mutableListOf<Datum>().also { elements ->
-                        reader.loadEachValue {
-                            elements.add(fromIon(reader))
-                        }
-                    }
-                    reader.stepOut()
+                    val elements = elements(reader)
                     Datum.bag(elements)
                 } else if (partiQLAnnotation == PARTIQL_ANNOTATION.MAP_ANNOTATION) {
                     val (keyType, valueType) = getMapTypes(annotations)
+                    required = null
+                    top = false
                     reader.stepIn()
                     val entries = mutableListOf<Entry>()
                     reader.loadEachValue {
@@ -260,25 +276,13 @@ class DatumIonReader(
                     reader.stepOut()
                     Datum.map(keyType, valueType, entries)
                 } else {
-                    reader.stepIn()
-                    val elements = mutableListOf<Datum>().also { elements ->
-                        reader.loadEachValue {
-                            elements.add(fromIon(reader))
-                        }
-                    }
-                    reader.stepOut()
+                    val elements = elements(reader)
                     Datum.array(elements)
                 }
             }
 
             IonType.SEXP -> {
-                reader.stepIn()
-                val elements = mutableListOf<Datum>().also { elements ->
-                    reader.loadEachValue {
-                        elements.add(fromIon(reader))
-                    }
-                }
-                reader.stepOut()
+                val elements = elements(reader)
                 Datum.array(elements)
             }
 
@@ -414,6 +418,22 @@ class DatumIonReader(
         }
     }
 
+    /**
+     * Reads the elements of the current list; the elements of a top-level list are narrowed as records.
+     */
+    private fun elements(reader: IonReader): List<Datum> {
+        val projection = if (top) required else null
+        top = false
+        reader.stepIn()
+        val elements = mutableListOf<Datum>()
+        while (reader.next() != null) {
+            required = projection
+            elements.add(fromIon(reader))
+        }
+        reader.stepOut()
+        return elements
+    }
+
     private fun <T> IonReader.loadEachValue(block: () -> T) {
         while (this.next() != null) {
             block()
@@ -501,6 +521,7 @@ class DatumIonReader(
 public class DatumIonReaderBuilder private constructor(
     private var sourceDataFormat: SourceDataFormat = SourceDataFormat.IonForPartiQL,
     private var ionReaderBuilder: IonReaderBuilder,
+    private var projection: Projection? = null,
 ) {
     public enum class SourceDataFormat {
         /**
@@ -537,7 +558,8 @@ public class DatumIonReaderBuilder private constructor(
     public fun build(inputStream: InputStream): DatumIonReader =
         DatumIonReader(
             ionReader = ionReaderBuilder.build(inputStream),
-            sourceDataFormat = sourceDataFormat
+            sourceDataFormat = sourceDataFormat,
+            projection = projection,
         )
 
     public fun build(ionElement: IonElement): DatumIonReader {
@@ -555,4 +577,11 @@ public class DatumIonReaderBuilder private constructor(
     public fun ionReaderBuilder(ionReaderBuilder: IonReaderBuilder): DatumIonReaderBuilder = this.apply {
         this.ionReaderBuilder = ionReaderBuilder
     }
+
+    /**
+     * Reads each value as a record narrowed to the given [projection]; fields which are not projected are skipped.
+     */
+    public fun projection(projection: Projection?): DatumIonReaderBuilder = this.apply {
+        this.projection = projection
+    }
 }
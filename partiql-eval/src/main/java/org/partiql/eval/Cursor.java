@@ -0,0 +1,58 @@
+package org.partiql.eval;
+
+import org.jetbrains.annotations.NotNull;
+import org.partiql.spi.errors.PRuntimeException;
+import org.partiql.spi.types.PType;
+import org.partiql.spi.value.Datum;
+
+import java.util.Iterator;
+
+/**
+ * A single-pass cursor over the result of a query.
+ * <p>
+ * If the result is a collection (e.g. the bag of a {@code SELECT}), the cursor returns its elements; the query's
+ * operators are opened once, and each element is computed when it is pulled, so results are never buffered.
+ * Otherwise, the cursor returns the single result value.
+ * <p>
+ * A cursor cannot be rewound. The operators are closed once the cursor is exhausted, when an error is raised, or when
+ * {@link #close()} is called, which allows consumers to abandon a result early.
+ *
+ * @see PartiQLVM#open(ExecutionPlan, org.partiql.spi.catalog.ExecutionCatalog[])
+ */
+public interface Cursor extends AutoCloseable, Iterator<Datum> {
+
+    /**
+     * Returns the type of the query result as inferred by the planner; for a collection, this is the collection type
+     * and the type of each element is given by {@link PType#getTypeParameter()}.
+     * @return the type of the query result
+     */
+    @NotNull
+    public PType getType();
+
+    /**
+     * Returns true if there are more values to be returned.
+     * @return true if there are more values to be returned
+     * @throws PRuntimeException if an error was encountered during execution
+     */
+    public boolean hasNext() throws PRuntimeException;
+
+    /**
+     * Returns the next value.
+     * @return the next value
+     * @throws PRuntimeException if an error was encountered during execution
+     * @throws java.util.NoSuchElementException if there are no more values
+     */
+    @NotNull
+    public Datum next() throws PRuntimeException;
+
+    /**
+     * Closes the query's operators; subsequent calls to {@link #hasNext()} return false. Calling this method more than
+     * once has no effect.
+     */
+    public void close();
+
+    @Override
+    default void remove() {
+        Iterator.super.remove();
+    }
+}
@@ -1,10 +1,13 @@
 package org.partiql.eval;
 
 import org.jetbrains.annotations.NotNull;
+import org.partiql.eval.internal.profile.Profiler;
 import org.partiql.eval.internal.vm.StandardVM;
+import org.partiql.eval.internal.vm.ValueCursor;
 import org.partiql.spi.Context;
 import org.partiql.spi.catalog.ExecutionCatalog;
 import org.partiql.spi.errors.PRuntimeException;
+import org.partiql.spi.types.PType;
 import org.partiql.spi.value.Datum;
 
 /**
@@ -43,6 +46,75 @@ public interface PartiQLVM {
     @NotNull
     Datum execute(@NotNull ExecutionPlan plan, @NotNull ExecutionCatalog[] catalogs, @NotNull Context ctx) throws PRuntimeException;
 
+    /**
+     * Opens a single-pass {@link Cursor} over the result of the plan, which streams the elements of a collection
+     * result without buffering them. The caller should close the cursor if it is not exhausted.
+     *
+     * @param plan     the compiled plan (immutable, cacheable, mode baked in)
+     * @param catalogs the execution catalogs indexed by catalog ID from the plan's symbol table
+     * @return a cursor over the query result
+     * @throws PRuntimeException if an error is encountered while opening the query's operators
+     */
+    @NotNull
+    default Cursor open(@NotNull ExecutionPlan plan, @NotNull ExecutionCatalog[] catalogs) throws PRuntimeException {
+        return open(plan, catalogs, Context.standard());
+    }
+
+    /**
+     * Opens a single-pass {@link Cursor} over the result of the plan with a context.
+     * <p>
+     * The default implementation iterates the result of {@link #execute(ExecutionPlan, ExecutionCatalog[], Context)},
+     * and does not know the result type.
+     *
+     * @param plan     the compiled plan (immutable, cacheable, mode baked in)
+     * @param catalogs the execution catalogs indexed by catalog ID from the plan's symbol table
+     * @param ctx      the execution context
+     * @return a cursor over the query result
+     * @throws PRuntimeException if an error is encountered while opening the query's operators
+     */
+    @NotNull
+    default Cursor open(@NotNull ExecutionPlan plan, @NotNull ExecutionCatalog[] catalogs, @NotNull Context ctx) throws PRuntimeException {
+        return new ValueCursor(() -> execute(plan, catalogs, ctx), PType.dynamic());
+    }
+
+    /**
+     * Executes the plan with every operator instrumented, then returns the measurements of each operator rather than
+     * the result, i.e. {@code EXPLAIN ANALYZE}. The result is read in full, including nested collections, and then
+     * discarded. Executions with {@link #execute} are not instrumented.
+     *
+     * @param plan     the compiled plan (immutable, cacheable, mode baked in)
+     * @param catalogs the execution catalogs indexed by catalog ID from the plan's symbol table
+     * @param ctx      the execution context
+     * @return the profile of the statement, whose children are the profiles of its operators
+     * @throws PRuntimeException if an error is encountered during execution
+     */
+    @NotNull
+    default Profile analyze(@NotNull ExecutionPlan plan, @NotNull ExecutionCatalog[] catalogs, @NotNull Context ctx) throws PRuntimeException {
+        return analyze(plan, catalogs, ctx, false);
+    }
+
+    /**
+     * Executes the plan with every operator instrumented, then returns the measurements of each operator rather than
+     * the result, i.e. {@code EXPLAIN ANALYZE}.
+     * <p>
+     * The default implementation cannot instrument the operators of this VM, so it reads the result of
+     * {@link #execute(ExecutionPlan, ExecutionCatalog[], Context)} in full and returns the profile of the statement
+     * alone, i.e. its rows, opens, time, and allocations, without children.
+     *
+     * @param plan        the compiled plan (immutable, cacheable, mode baked in)
+     * @param catalogs    the execution catalogs indexed by catalog ID from the plan's symbol table
+     * @param ctx         the execution context
+     * @param allocations true to also measure the bytes allocated by each operator, which is slower
+     * @return the profile of the statement, whose children are the profiles of its operators
+     * @throws PRuntimeException if an error is encountered during execution
+     */
+    @NotNull
+    default Profile analyze(@NotNull ExecutionPlan plan, @NotNull ExecutionCatalog[] catalogs, @NotNull Context ctx, boolean allocations) throws PRuntimeException {
+        Profiler profiler = new Profiler(allocations);
+        profiler.execute(() -> execute(plan, catalogs, ctx));
+        return profiler.getRoot();
+    }
+
     /**
      * Returns a standard PartiQLVM instance.
      *
@@ -0,0 +1,128 @@
+package org.partiql.eval;
+
+import org.jetbrains.annotations.NotNull;
+import org.partiql.spi.value.Datum;
+import org.partiql.spi.value.Field;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The measurements of an operator of an executed plan, and of the operators it evaluates; this is the result of
+ * {@link PartiQLVM#analyze}, i.e. {@code EXPLAIN ANALYZE}.
+ * <p>
+ * The root of a profile is the statement itself, whose rows are the elements of its result. Each other node is a
+ * relational operator, whose children are its inputs and the operators of the subqueries it evaluates. The time and
+ * the allocations of an operator include those of the scalar expressions it evaluates, and of its inputs; the result
+ * of a subquery may be read lazily, after the operator which evaluated it has produced its row.
+ */
+public interface Profile {
+
+    /**
+     * @return the name of the operator.
+     */
+    @NotNull
+    String getName();
+
+    /**
+     * @return the inputs of the operator, and the operators of the subqueries it evaluates.
+     */
+    @NotNull
+    List<Profile> getChildren();
+
+    /**
+     * @return the number of times the operator was opened; this is greater than one for an operator which is
+     * re-executed, such as that of a correlated subquery.
+     */
+    long getOpens();
+
+    /**
+     * @return the number of rows produced by the operator, over all of its executions.
+     */
+    long getRows();
+
+    /**
+     * @return the number of rows produced by the children of the operator.
+     */
+    default long getRowsIn() {
+        long rows = 0;
+        for (Profile child : getChildren()) {
+            rows += child.getRows();
+        }
+        return rows;
+    }
+
+    /**
+     * @return the time, in nanoseconds, spent opening, reading, and closing the operator.
+     */
+    long getTime();
+
+    /**
+     * @return the bytes allocated by the current thread while opening, reading, and closing the operator; -1 if
+     * allocations were not measured.
+     */
+    long getAllocatedBytes();
+
+    /**
+     * @return the profile as a struct of its measurements, with a list of the structs of its children.
+     */
+    @NotNull
+    default Datum toDatum() {
+        List<Field> fields = new ArrayList<>();
+        fields.add(Field.of("name", Datum.string(getName())));
+        fields.add(Field.of("opens", Datum.bigint(getOpens())));
+        fields.add(Field.of("rows", Datum.bigint(getRows())));
+        fields.add(Field.of("rows_in", Datum.bigint(getRowsIn())));
+        fields.add(Field.of("time_ns", Datum.bigint(getTime())));
+        if (getAllocatedBytes() >= 0) {
+            fields.add(Field.of("allocated_bytes", Datum.bigint(getAllocatedBytes())));
+        }
+        List<Datum> children = new ArrayList<>();
+        for (Profile child : getChildren()) {
+            children.add(child.toDatum());
+        }
+        fields.add(Field.of("children", Datum.array(children)));
+        return Datum.struct(fields);
+    }
+
+    /**
+     * @return the profile as an indented tree, with one line of measurements per operator.
+     */
+    @NotNull
+    default String toText() {
+        StringBuilder sb = new StringBuilder();
+        // pairs of a profile and its depth, in the order of their lines
+        Deque<Object[]> stack = new ArrayDeque<>();
+        stack.push(new Object[]{this, 0});
+        while (!stack.isEmpty()) {
+            Object[] next = stack.pop();
+            Profile profile = (Profile) next[0];
+            int depth = (int) next[1];
+            for (int i = 0; i < depth; i++) {
+                sb.append("  ");
+            }
+            if (depth > 0) {
+                sb.append("-> ");
+            }
+            sb.append(profile.getName());
+            sb.append(" (rows=").append(profile.getRows());
+            if (!profile.getChildren().isEmpty()) {
+                sb.append(", rows_in=").append(profile.getRowsIn());
+            }
+            sb.append(", opens=").append(profile.getOpens());
+            sb.append(String.format(Locale.ROOT, ", time=%.3f ms", profile.getTime() / 1e6));
+            if (profile.getAllocatedBytes() >= 0) {
+                sb.append(", allocated=").append(profile.getAllocatedBytes()).append(" B");
+            }
+            sb.append(")\n");
+            List<Profile> children = profile.getChildren();
+            for (int i = children.size() - 1; i >= 0; i--) {
+                stack.push(new Object[]{children.get(i), depth + 1});
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -1,7 +1,9 @@
 package org.partiql.eval;
 
 import org.jetbrains.annotations.NotNull;
+import org.partiql.eval.internal.vm.ValueCursor;
 import org.partiql.spi.errors.PRuntimeException;
+import org.partiql.spi.types.PType;
 import org.partiql.spi.value.Datum;
 
 /**
@@ -22,4 +24,15 @@ public interface Statement {
      */
     @NotNull
     public Datum execute() throws PRuntimeException;
+
+    /**
+     * Opens a single-pass {@link Cursor} over the result of the statement, which streams the elements of a collection
+     * result without buffering them. The caller should close the cursor if it is not exhausted.
+     * @return a cursor over the statement's result.
+     * @throws PRuntimeException if an error was encountered while opening the statement
+     */
+    @NotNull
+    default Cursor open() throws PRuntimeException {
+        return new ValueCursor(this::execute, PType.dynamic());
+    }
 }
@@ -1,13 +1,21 @@
 package org.partiql.eval
 
 import org.partiql.eval.internal.plan.ExecutionPlanImpl
+import org.partiql.eval.internal.vm.OperatorPool
 
 /**
  * An opaque, immutable, thread-safe execution plan.
  *
  * Produced by [org.partiql.eval.compiler.PartiQLCompiler.compile].
- * Executed by [PartiQLVM.execute].
+ * Executed by [PartiQLVM.execute], which reuses the operators of finished executions of the same plan; an instance
+ * should be cached and executed again, rather than compiled for each execution.
  *
  * This class has no public methods — internal structure may change without notice.
  */
-public class ExecutionPlan internal constructor(internal val impl: ExecutionPlanImpl)
+public class ExecutionPlan internal constructor(
+    internal val impl: ExecutionPlanImpl,
+    /**
+     * The idle operator trees of this plan.
+     */
+    internal val pool: OperatorPool = OperatorPool(),
+)
@@ -0,0 +1,256 @@
+package org.partiql.eval.internal.compiler
+
+import org.partiql.eval.internal.helpers.FunctionUtils
+import org.partiql.eval.internal.plan.PCollation
+import org.partiql.eval.internal.plan.PExpr
+import org.partiql.eval.internal.plan.PJoinType
+import org.partiql.eval.internal.plan.POrdering
+import org.partiql.eval.internal.plan.PRel
+import org.partiql.eval.internal.plan.PRuntimeFilter
+import org.partiql.plan.rel.RelType
+import org.partiql.spi.types.PType
+
+/**
+ * Plans an equi-join as a merge join when at least one of its inputs is already sorted by its join keys; the other
+ * input is sorted in the same order unless it is sorted already. Otherwise, the join is planned as a hash join.
+ *
+ * The join keys are the operands of the `=` conjuncts of the condition which reference only one side each. Equality is
+ * defined by [org.partiql.spi.value.Datum.comparator], so the keys of both inputs can be merged in that order, and
+ * hashed by [org.partiql.spi.value.Datum.hash]. A join without such keys is left as a nested-loop join.
+ */
+internal object EquiJoinPlanner {
+
+    /**
+     * @param lhsSize the number of columns of the [lhs]; the condition's columns past these are columns of the [rhs].
+     * @return the merge or hash join, or null if the join has no keys.
+     */
+    fun plan(lhs: PRel, rhs: PRel, lhsSize: Int, condition: PExpr, joinType: PJoinType, type: RelType?): PRel? {
+        val lhsKeys = mutableListOf<PExpr>()
+        val rhsKeys = mutableListOf<PExpr>()
+        val conjuncts = if (condition is PExpr.And) condition.args else listOf(condition)
+        for (conjunct in conjuncts) {
+            if (conjunct !is PExpr.Call || conjunct.fn.signature.name != FunctionUtils.OP_EQ || conjunct.args.size != 2) {
+                continue
+            }
+            val (a, b) = conjunct.args
+            val aSide = side(a, lhsSize) ?: continue
+            val bSide = side(b, lhsSize) ?: continue
+            if (aSide != bSide) {
+                lhsKeys.add(if (aSide) a else b)
+                rhsKeys.add(shift(if (aSide) b else a, lhsSize))
+            }
+        }
+        if (lhsKeys.isEmpty()) {
+            return null
+        }
+        val lhsOrder = order(lhs.ordering, lhsKeys)
+        val rhsOrder = order(rhs.ordering, rhsKeys)
+        return when {
+            lhsOrder != null -> {
+                val sorted = sort(rhs, rhsKeys, lhsOrder)
+                merge(lhs, sorted, lhsKeys, rhsKeys, lhsOrder, condition, joinType, type)
+            }
+            rhsOrder != null -> {
+                val sorted = sort(lhs, lhsKeys, rhsOrder)
+                merge(sorted, rhs, lhsKeys, rhsKeys, rhsOrder, condition, joinType, type)
+            }
+            else -> hash(lhs, rhs, lhsKeys, rhsKeys, condition, joinType, type)
+        }
+    }
+
+    /**
+     * Plans a hash join, which builds a runtime filter of the lhs by the keys of the rhs if the unmatched rows of the
+     * lhs are dropped by the join. The filter is pushed down the lhs as far as its keys can be rewritten.
+     */
+    private fun hash(
+        lhs: PRel,
+        rhs: PRel,
+        lhsKeys: List<PExpr>,
+        rhsKeys: List<PExpr>,
+        condition: PExpr,
+        joinType: PJoinType,
+        type: RelType?,
+    ): PRel {
+        if (joinType != PJoinType.INNER && joinType != PJoinType.RIGHT) {
+            return PRel.HashJoin(lhs, rhs, lhsKeys, rhsKeys, condition, joinType, type)
+        }
+        val filter = PRuntimeFilter()
+        val filtered = push(lhs, lhsKeys, filter)
+        return PRel.HashJoin(filtered, rhs, lhsKeys, rhsKeys, condition, joinType, type, filter)
+    }
+
+    /**
+     * @return the relation with the runtime filter on the given keys, as far below its root as the keys can be
+     * rewritten over the rows of its input, e.g. above its scan.
+     */
+    private fun push(rel: PRel, keys: List<PExpr>, filter: PRuntimeFilter): PRel {
+        val pushed = when (rel) {
+            is PRel.Filter -> rel.copy(input = push(rel.input, keys, filter))
+            is PRel.Sort -> rel.copy(input = push(rel.input, keys, filter))
+            is PRel.Distinct -> rel.copy(input = push(rel.input, keys, filter))
+            is PRel.Project -> project(rel.projections, keys)?.let { rel.copy(input = push(rel.input, it, filter)) }
+            is PRel.Scan -> scan(rel, keys, filter)
+            is PRel.Join -> if (rel.joinType == PJoinType.INNER) join(rel.lhs, rel.rhs, keys, filter) { l, r -> rel.copy(lhs = l, rhs = r) } else null
+            is PRel.HashJoin -> if (rel.joinType == PJoinType.INNER) join(rel.lhs, rel.rhs, keys, filter) { l, r -> rel.copy(lhs = l, rhs = r) } else null
+            is PRel.MergeJoin -> if (rel.joinType == PJoinType.INNER) join(rel.lhs, rel.rhs, keys, filter) { l, r -> rel.copy(lhs = l, rhs = r) } else null
+            else -> null
+        }
+        return pushed ?: PRel.RuntimeFilter(rel, keys, filter, rel.type)
+    }
+
+    /**
+     * A projected column is replaced by its expression, and a path into a projected struct by its field's expression,
+     * if that expression is as simple as a key.
+     */
+    private fun project(projections: List<PExpr>, keys: List<PExpr>): List<PExpr>? = keys.map { key ->
+        POrdering.rewrite(key) { expr ->
+            val replaced = when {
+                expr is PExpr.Var && expr.depth > 0 -> return@rewrite expr
+                expr is PExpr.Var -> projections.getOrNull(expr.offset)
+                expr is PExpr.PathKey -> field(projections, expr)
+                else -> null
+            }
+            replaced?.takeIf { simple(it) }
+        } ?: return null
+    }
+
+    /**
+     * @return the expression of the struct's field with the path's key, if the path's root is a projected struct.
+     */
+    private fun field(projections: List<PExpr>, path: PExpr.PathKey): PExpr? {
+        val root = path.root as? PExpr.Var ?: return null
+        val key = (path.key as? PExpr.Lit)?.value ?: return null
+        val struct = projections.getOrNull(root.offset) as? PExpr.Struct ?: return null
+        if (root.depth != 0 || key.isNull || key.isMissing || key.type.code() != PType.STRING) {
+            return null
+        }
+        val fields = struct.fields.filter { field ->
+            val name = (field.key as? PExpr.Lit)?.value ?: return null
+            !name.isNull && name.type.code() == PType.STRING && name.string == key.string
+        }
+        return fields.singleOrNull()?.value
+    }
+
+    /**
+     * The rows of a scan of a `SELECT VALUE` of a column are the column's values, so the filter is pushed into the
+     * select's input.
+     */
+    private fun scan(rel: PRel.Scan, keys: List<PExpr>, filter: PRuntimeFilter): PRel? {
+        val select = rel.expr as? PExpr.Select ?: return null
+        val constructor = select.constructor
+        if (rel.projection != null || constructor !is PExpr.Var || constructor.depth != 0) {
+            return null
+        }
+        val rewritten = keys.map { key ->
+            POrdering.rewrite(key) {
+                when {
+                    it is PExpr.Var && it.depth > 0 -> it
+                    it is PExpr.Var -> constructor
+                    else -> null
+                }
+            } ?: return null
+        }
+        return rel.copy(expr = select.copy(input = push(select.input, rewritten, filter)))
+    }
+
+    /**
+     * The filter is pushed into the side of an inner join which all of its keys reference.
+     */
+    private fun join(lhs: PRel, rhs: PRel, keys: List<PExpr>, filter: PRuntimeFilter, copy: (PRel, PRel) -> PRel): PRel? {
+        val lhsSize = lhs.type?.getFields()?.size ?: return null
+        val sides = keys.map { side(it, lhsSize) ?: return null }.toSet()
+        return when (sides.singleOrNull()) {
+            true -> copy(push(lhs, keys, filter), rhs)
+            false -> copy(lhs, push(rhs, keys.map { shift(it, lhsSize) }, filter))
+            else -> null
+        }
+    }
+
+    /**
+     * @return true if the expression is only variables, literals, paths, casts, and function calls.
+     */
+    private fun simple(expr: PExpr): Boolean = POrdering.rewrite(expr) { if (it is PExpr.Var) it else null } != null
+
+    /**
+     * The order of the keys, as the index of each key with its direction.
+     */
+    private class Order(val keys: List<Int>, val desc: List<Boolean>)
+
+    /**
+     * @return the order of the keys if the [ordering] sorts the rows by all of them, in any order and direction.
+     */
+    private fun order(ordering: List<PCollation>, keys: List<PExpr>): Order? {
+        if (ordering.size < keys.size) {
+            return null
+        }
+        val indexes = mutableListOf<Int>()
+        val desc = mutableListOf<Boolean>()
+        for (collation in ordering.subList(0, keys.size)) {
+            val i = keys.indices.firstOrNull { it !in indexes && POrdering.same(keys[it], collation.expr) } ?: return null
+            indexes.add(i)
+            desc.add(collation.desc)
+        }
+        return Order(indexes, desc)
+    }
+
+    /**
+     * @return the input, sorted by the keys in the given order unless it is sorted already.
+     */
+    private fun sort(input: PRel, keys: List<PExpr>, target: Order): PRel {
+        val existing = order(input.ordering, keys)
+        if (existing != null && existing.keys == target.keys && existing.desc == target.desc) {
+            return input
+        }
+        val collations = target.keys.mapIndexed { i, key -> PCollation(keys[key], target.desc[i], nullsLast = false) }
+        return PRel.Sort(input, collations, input.type)
+    }
+
+    private fun merge(
+        lhs: PRel,
+        rhs: PRel,
+        lhsKeys: List<PExpr>,
+        rhsKeys: List<PExpr>,
+        order: Order,
+        condition: PExpr,
+        joinType: PJoinType,
+        type: RelType?,
+    ): PRel = PRel.MergeJoin(
+        lhs = lhs,
+        rhs = rhs,
+        lhsKeys = order.keys.map { lhsKeys[it] },
+        rhsKeys = order.keys.map { rhsKeys[it] },
+        desc = order.desc,
+        condition = condition,
+        joinType = joinType,
+        type = type,
+    )
+
+    /**
+     * @return true if the expression references only the lhs, false if only the rhs, or null if it references both,
+     * neither, or cannot be rewritten.
+     */
+    private fun side(expr: PExpr, lhsSize: Int): Boolean? {
+        var lhs = false
+        var rhs = false
+        POrdering.rewrite(expr) {
+            if (it is PExpr.Var && it.depth == 0) {
+                if (it.offset < lhsSize) lhs = true else rhs = true
+                it
+            } else {
+                null
+            }
+        } ?: return null
+        return when {
+            lhs && !rhs -> true
+            rhs && !lhs -> false
+            else -> null
+        }
+    }
+
+    /**
+     * @return the rhs expression over the rows of the rhs alone.
+     */
+    private fun shift(expr: PExpr, lhsSize: Int): PExpr = POrdering.rewrite(expr) {
+        if (it is PExpr.Var && it.depth == 0) PExpr.Var(0, it.offset - lhsSize) else null
+    }!!
+}
@@ -3,8 +3,12 @@ package org.partiql.eval.internal.compiler
 import org.partiql.eval.ExprRelation
 import org.partiql.eval.ExprValue
 import org.partiql.eval.Mode
+import org.partiql.eval.WindowFunction
+import org.partiql.eval.internal.helpers.RuntimeFilter
 import org.partiql.eval.internal.helpers.checkInterrupted
+import org.partiql.eval.internal.metrics.ExecutionMetrics
 import org.partiql.eval.internal.operator.Aggregate
+import org.partiql.eval.internal.operator.primitive.ExprPrimitive
 import org.partiql.eval.internal.operator.rel.Collation
 import org.partiql.eval.internal.operator.rel.RelOpAggregate
 import org.partiql.eval.internal.operator.rel.RelOpCorrelateInner
@@ -18,20 +22,28 @@ import org.partiql.eval.internal.operator.rel.RelOpIntersectAll
 import org.partiql.eval.internal.operator.rel.RelOpIntersectDistinct
 import org.partiql.eval.internal.operator.rel.RelOpIterate
 import org.partiql.eval.internal.operator.rel.RelOpIteratePermissive
+import org.partiql.eval.internal.operator.rel.RelOpJoinHash
 import org.partiql.eval.internal.operator.rel.RelOpJoinInner
+import org.partiql.eval.internal.operator.rel.RelOpJoinMerge
 import org.partiql.eval.internal.operator.rel.RelOpJoinOuterFull
 import org.partiql.eval.internal.operator.rel.RelOpJoinOuterLeft
 import org.partiql.eval.internal.operator.rel.RelOpJoinOuterRight
 import org.partiql.eval.internal.operator.rel.RelOpLimit
+import org.partiql.eval.internal.operator.rel.RelOpMetrics
 import org.partiql.eval.internal.operator.rel.RelOpOffset
 import org.partiql.eval.internal.operator.rel.RelOpProject
+import org.partiql.eval.internal.operator.rel.RelOpRuntimeFilter
 import org.partiql.eval.internal.operator.rel.RelOpScan
+import org.partiql.eval.internal.operator.rel.RelOpScanMetrics
 import org.partiql.eval.internal.operator.rel.RelOpScanPermissive
 import org.partiql.eval.internal.operator.rel.RelOpSort
 import org.partiql.eval.internal.operator.rel.RelOpUnionAll
 import org.partiql.eval.internal.operator.rel.RelOpUnionDistinct
 import org.partiql.eval.internal.operator.rel.RelOpUnpivot
 import org.partiql.eval.internal.operator.rel.RelOpWindow
+import org.partiql.eval.internal.operator.rel.RelOpWindowParallel
+import org.partiql.eval.internal.operator.rex.CastTable
+import org.partiql.eval.internal.operator.rex.ExprAnd
 import org.partiql.eval.internal.operator.rex.ExprArray
 import org.partiql.eval.internal.operator.rex.ExprBag
 import org.partiql.eval.internal.operator.rex.ExprCall
@@ -39,21 +51,29 @@ import org.partiql.eval.internal.operator.rex.ExprCallDynamic
 import org.partiql.eval.internal.operator.rex.ExprCaseBranch
 import org.partiql.eval.internal.operator.rex.ExprCaseSearched
 import org.partiql.eval.internal.operator.rex.ExprCast
+import org.partiql.eval.internal.operator.rex.ExprCastDouble
+import org.partiql.eval.internal.operator.rex.ExprCastInteger
+import org.partiql.eval.internal.operator.rex.ExprCastStatic
 import org.partiql.eval.internal.operator.rex.ExprCoalesce
 import org.partiql.eval.internal.operator.rex.ExprError
+import org.partiql.eval.internal.operator.rex.ExprInCollection
+import org.partiql.eval.internal.operator.rex.ExprIndexLookup
 import org.partiql.eval.internal.operator.rex.ExprLit
 import org.partiql.eval.internal.operator.rex.ExprMapConstruct
 import org.partiql.eval.internal.operator.rex.ExprMapConstructDynamic
 import org.partiql.eval.internal.operator.rex.ExprMapConstructDynamicStrict
 import org.partiql.eval.internal.operator.rex.ExprMapConstructStrict
+import org.partiql.eval.internal.operator.rex.ExprMetrics
 import org.partiql.eval.internal.operator.rex.ExprMissing
 import org.partiql.eval.internal.operator.rex.ExprNullIf
+import org.partiql.eval.internal.operator.rex.ExprOr
 import org.partiql.eval.internal.operator.rex.ExprPathIndex
 import org.partiql.eval.internal.operator.rex.ExprPathKey
 import org.partiql.eval.internal.operator.rex.ExprPathSymbol
 import org.partiql.eval.internal.operator.rex.ExprPermissive
 import org.partiql.eval.internal.operator.rex.ExprPivot
 import org.partiql.eval.internal.operator.rex.ExprPivotPermissive
+import org.partiql.eval.internal.operator.rex.ExprProjection
 import org.partiql.eval.internal.operator.rex.ExprSelect
 import org.partiql.eval.internal.operator.rex.ExprSpread
 import org.partiql.eval.internal.operator.rex.ExprStructField
@@ -68,42 +88,149 @@ import org.partiql.eval.internal.plan.PCollation
 import org.partiql.eval.internal.plan.PExpr
 import org.partiql.eval.internal.plan.PJoinType
 import org.partiql.eval.internal.plan.PRel
+import org.partiql.eval.internal.plan.PRuntimeFilter
+import org.partiql.eval.internal.plan.PWindowFrame
+import org.partiql.eval.internal.profile.Profiler
+import org.partiql.eval.internal.vm.OperatorPool
 import org.partiql.eval.internal.window.WindowBuiltIns
+import org.partiql.eval.internal.window.WindowFrameCursor
+import org.partiql.plan.WindowFrame
+import org.partiql.spi.Context
 import org.partiql.spi.catalog.ExecutionCatalog
+import org.partiql.spi.catalog.Projection
+import org.partiql.spi.catalog.Table
+import org.partiql.spi.metrics.MetricsListener
 import org.partiql.spi.types.PType
+import java.util.IdentityHashMap
 
 /**
- * Compiles an [ExecutionPlanImpl] into a fresh physical operator tree.
- * Each invocation produces new operator instances — no shared mutable state.
+ * Compiles an [ExecutionPlanImpl] into a fresh physical operator tree, which is executed by one execution at a time;
+ * see [OperatorPool] for the reuse of a tree by later executions.
+ *
+ * @param profiler instruments the relational operators, if the plan is analyzed; null otherwise.
  */
 internal class OperatorCompiler(
     private val catalogs: Array<ExecutionCatalog>,
     private val mode: Mode,
+    context: Context = Context.standard(),
+    private val profiler: Profiler? = null,
 ) {
     private val MODE = mode.code()
+    private val parallelism = context.parallelism
+    private val memoryLimit = context.memoryLimit
+    private val spillDirectory = context.spillDirectory
 
-    fun compile(plan: ExecutionPlanImpl): ExprValue = compile(plan.root).catch()
+    // the listener of the context, unless it measures nothing
+    private val metrics = context.metricsListener.takeIf { it !== MetricsListener.none() }
+
+    // compiles statically typed scalar expressions to primitives, if enabled by the context
+    private val primitives = if (context.isSpecializedExpressions) PrimitiveCompiler(MODE == Mode.STRICT, ::compile) else null
+
+    // the runtime filters of the hash joins, each shared by its join and the operator which tests it
+    private val runtimeFilters = IdentityHashMap<PRuntimeFilter, RuntimeFilter>()
+
+    // the tables resolved by the operators, which must be resolved the same for the operators to be reused
+    private val tables = ArrayList<OperatorPool.Resolved>()
+
+    // false if an operator may produce a value which is evaluated lazily by its operators, e.g. a nested SELECT, which
+    // could then outlive the execution and share the operators with the next one
+    private var reusable = profiler == null
+
+    private val key = OperatorPool.Key(context)
+
+    fun compile(plan: ExecutionPlanImpl): ExprValue = compiling {
+        when (val root = plan.root) {
+            is PExpr.Select -> when (metrics) {
+                null -> compile(root)
+                else -> {
+                    val (input, constructor) = select(root)
+                    ExprSelect(input, constructor, root.ordered)
+                }
+            }
+            else -> when (metrics) {
+                null -> compile(root)
+                else -> ExprMetrics(compile(root).catch(), ExecutionMetrics(metrics), true)
+            }
+        }.catch()
+    }
+
+    /**
+     * Compiles the plan into the [OperatorPool.Operators] of an execution; the input and the constructor of a
+     * top-level `SELECT` are compiled directly, so that the rows are pulled by the caller rather than from a
+     * lazily-evaluated collection.
+     */
+    fun operators(plan: ExecutionPlanImpl): OperatorPool.Operators = compiling {
+        when (val root = plan.root) {
+            is PExpr.Select -> {
+                val (input, constructor) = select(root)
+                OperatorPool.Operators(null, input, constructor, tables.takeIf { reusable }, key)
+            }
+            else -> {
+                val value = when (metrics) {
+                    null -> compile(root)
+                    else -> ExprMetrics(compile(root).catch(), ExecutionMetrics(metrics), true)
+                }.catch()
+                OperatorPool.Operators(value, null, null, tables.takeIf { reusable }, key)
+            }
+        }
+    }
+
+    /**
+     * Compiles the input and the constructor of a top-level `SELECT`, whose execution is measured if the context has a
+     * metrics listener.
+     */
+    private fun select(root: PExpr.Select): Pair<ExprRelation, ExprValue> {
+        val input = compileRel(root.input)
+        val constructor = compile(root.constructor).catch()
+        if (metrics == null) {
+            return input to constructor
+        }
+        val execution = ExecutionMetrics(metrics)
+        return RelOpMetrics(input, execution) to ExprMetrics(constructor, execution, false)
+    }
+
+    /**
+     * Reports the time to compile the operators of a plan, if the context has a metrics listener.
+     */
+    private inline fun <T> compiling(compile: () -> T): T {
+        if (metrics == null) {
+            return compile()
+        }
+        val start = System.nanoTime()
+        val result = compile()
+        metrics.compiled(System.nanoTime() - start)
+        return result
+    }
 
     fun compile(expr: PExpr): ExprValue {
         checkInterrupted()
+        if (primitives != null) {
+            primitives.compile(expr)?.let { return ExprPrimitive(it) }
+        }
         return when (expr) {
             is PExpr.Lit -> ExprLit(expr.value)
             is PExpr.Var -> ExprVar(expr.depth, expr.offset)
-            is PExpr.TableRef -> {
-                val table = catalogs[expr.catalogId].getTable(expr.tableId)
-                ExprTable(table)
-            }
+            is PExpr.TableRef -> ExprTable(table(expr))
             is PExpr.TableDirect -> ExprTable(expr.table)
             is PExpr.Call -> {
                 val args = kotlin.Array(expr.args.size) { i -> compile(expr.args[i]).catch() }
                 ExprCall(expr.fn, args)
             }
+            is PExpr.InCollection -> ExprInCollection(compile(expr.value).catch(), expr.elements)
+            is PExpr.And -> {
+                val args = kotlin.Array(expr.args.size) { i -> compile(expr.args[i]).catch() }
+                ExprAnd(args, expr.overloads)
+            }
+            is PExpr.Or -> {
+                val args = kotlin.Array(expr.args.size) { i -> compile(expr.args[i]).catch() }
+                ExprOr(args, expr.overloads)
+            }
             is PExpr.DynamicCall -> {
                 val candidates = kotlin.Array(expr.overloads.size) { expr.overloads[it] }
                 val args = expr.args.map { compile(it).catch() }.toTypedArray()
                 ExprCallDynamic(expr.name, candidates, args)
             }
-            is PExpr.Cast -> ExprCast(compile(expr.operand), expr.target)
+            is PExpr.Cast -> compileCast(expr)
             is PExpr.Case -> {
                 val branches = expr.branches.map { ExprCaseBranch(compile(it.condition).catch(), compile(it.result)) }
                 val default = expr.default?.let { compile(it) }
@@ -139,6 +266,7 @@ internal class OperatorCompiler(
             }
             is PExpr.Spread -> ExprSpread(expr.args.map { compile(it) }.toTypedArray())
             is PExpr.Select -> {
+                reusable = false
                 val input = compileRel(expr.input)
                 val constructor = compile(expr.constructor).catch()
                 ExprSelect(input, constructor, expr.ordered)
@@ -169,15 +297,132 @@ internal class OperatorCompiler(
                 Mode.STRICT -> ExprError()
                 else -> error("Unsupported mode: $MODE")
             }
-            is PExpr.Custom -> expr.factory()
+            is PExpr.Custom -> {
+                reusable = false
+                expr.factory()
+            }
+        }
+    }
+
+    /**
+     * Resolves a cast when its operand's type is known, rather than for each value; an identity cast is elided, and
+     * casts to integers and to DOUBLE PRECISION are converted directly. A cast of a dynamic operand, or to a dynamic
+     * type, is looked up for each value.
+     */
+    private fun compileCast(expr: PExpr.Cast): ExprValue {
+        val operand = compile(expr.operand)
+        val source = expr.source.code()
+        val target = expr.target.code()
+        if (source == PType.DYNAMIC || target == PType.DYNAMIC) {
+            return ExprCast(operand, expr.target)
+        }
+        if (CastTable.isIdentity(expr.source, expr.target)) {
+            return operand
+        }
+        val cast = CastTable.get(source, target) ?: return ExprCast(operand, expr.target)
+        return when (target) {
+            PType.TINYINT, PType.SMALLINT, PType.INTEGER, PType.BIGINT -> when (source) {
+                PType.TINYINT, PType.SMALLINT, PType.INTEGER, PType.BIGINT, PType.STRING -> ExprCastInteger(operand, expr.target)
+                else -> ExprCastStatic(operand, source, expr.target, cast)
+            }
+            PType.DOUBLE -> when (source) {
+                PType.TINYINT, PType.SMALLINT, PType.INTEGER, PType.BIGINT, PType.NUMERIC, PType.DECIMAL, PType.REAL, PType.STRING -> ExprCastDouble(operand)
+                else -> ExprCastStatic(operand, source, expr.target, cast)
+            }
+            else -> ExprCastStatic(operand, source, expr.target, cast)
         }
     }
 
+    /**
+     * Resolves a table of the catalogs, and records it for [OperatorPool.Operators.resolves].
+     */
+    private fun table(expr: PExpr.TableRef): Table {
+        val table = catalogs[expr.catalogId].getTable(expr.tableId)
+        tables.add(OperatorPool.Resolved(expr.catalogId, expr.tableId, table))
+        return table
+    }
+
+    /**
+     * Compiles the input of a scan, narrowing each record to the given projection (if any).
+     */
+    private fun compile(expr: PExpr, projection: Projection?): ExprValue {
+        if (projection == null) {
+            return compile(expr)
+        }
+        return when (expr) {
+            is PExpr.TableRef -> ExprTable(table(expr), projection)
+            is PExpr.TableDirect -> ExprTable(expr.table, projection)
+            else -> ExprProjection(compile(expr), projection)
+        }
+    }
+
+    /**
+     * Compiles an index lookup into an expression which is scanned like the table itself.
+     */
+    private fun compileIndexScan(rel: PRel.IndexScan): ExprValue {
+        val table = when (val expr = rel.expr) {
+            is PExpr.TableRef -> table(expr)
+            is PExpr.TableDirect -> expr.table
+            else -> return compile(rel.expr, rel.projection)
+        }
+        return ExprIndexLookup(
+            table,
+            rel.index,
+            rel.key?.let { compile(it).catch() },
+            rel.lower?.let { compile(it).catch() },
+            rel.lowerInclusive,
+            rel.upper?.let { compile(it).catch() },
+            rel.upperInclusive,
+            rel.projection,
+        )
+    }
+
+    /**
+     * Compiles a relational operator, which is instrumented if the plan is analyzed, or if it is a scan of a table and
+     * the context has a metrics listener.
+     */
     fun compileRel(rel: PRel): ExprRelation {
         checkInterrupted()
+        val operator = when (profiler) {
+            null -> compileOperator(rel)
+            else -> profiler.profile { compileOperator(rel) }
+        }
+        return when (metrics) {
+            null -> operator
+            else -> scanMetrics(rel, operator, metrics)
+        }
+    }
+
+    /**
+     * Counts the rows read by a scan of a table.
+     */
+    private fun scanMetrics(rel: PRel, operator: ExprRelation, metrics: MetricsListener): ExprRelation {
+        val expr = when (rel) {
+            is PRel.Scan -> rel.expr
+            is PRel.IndexScan -> rel.expr
+            is PRel.Iterate -> rel.expr
+            else -> return operator
+        }
+        val table = when (expr) {
+            is PExpr.TableRef -> table(expr)
+            is PExpr.TableDirect -> expr.table
+            else -> return operator
+        }
+        return RelOpScanMetrics(operator, table.getName(), metrics)
+    }
+
+    private fun compileOperator(rel: PRel): ExprRelation {
         return when (rel) {
             is PRel.Scan -> {
-                val input = compile(rel.expr)
+                val input = compile(rel.expr, rel.projection)
+                when (MODE) {
+                    Mode.PERMISSIVE -> RelOpScanPermissive(input.catch())
+                    Mode.STRICT -> RelOpScan(input)
+                    else -> error("Unsupported mode: $MODE")
+                }
+            }
+            is PRel.IndexScan -> {
+                val input = compileIndexScan(rel)
                 when (MODE) {
                     Mode.PERMISSIVE -> RelOpScanPermissive(input.catch())
                     Mode.STRICT -> RelOpScan(input)
@@ -185,7 +430,7 @@ internal class OperatorCompiler(
                 }
             }
             is PRel.Iterate -> {
-                val input = compile(rel.expr)
+                val input = compile(rel.expr, rel.projection)
                 when (MODE) {
                     Mode.PERMISSIVE -> RelOpIteratePermissive(input.catch())
                     Mode.STRICT -> RelOpIterate(input)
@@ -215,6 +460,35 @@ internal class OperatorCompiler(
                     PJoinType.FULL -> RelOpJoinOuterFull(lhs, rhs, condition, lhsType, rhsType)
                 }
             }
+            is PRel.MergeJoin -> RelOpJoinMerge(
+                lhs = compileRel(rel.lhs),
+                rhs = compileRel(rel.rhs),
+                lhsKeys = rel.lhsKeys.map { compile(it) },
+                rhsKeys = rel.rhsKeys.map { compile(it) },
+                desc = rel.desc,
+                condition = compile(rel.condition),
+                joinType = rel.joinType,
+                lhsType = rel.lhs.type!!,
+                rhsType = rel.rhs.type!!,
+            )
+            is PRel.HashJoin -> RelOpJoinHash(
+                lhs = compileRel(rel.lhs),
+                rhs = compileRel(rel.rhs),
+                lhsKeys = rel.lhsKeys.map { compile(it) },
+                rhsKeys = rel.rhsKeys.map { compile(it) },
+                condition = compile(rel.condition),
+                joinType = rel.joinType,
+                lhsType = rel.lhs.type!!,
+                rhsType = rel.rhs.type!!,
+                memoryLimit = memoryLimit,
+                spillDirectory = spillDirectory,
+                filter = rel.filter?.let { runtimeFilter(it) },
+            )
+            is PRel.RuntimeFilter -> RelOpRuntimeFilter(
+                input = compileRel(rel.input),
+                keys = rel.keys.map { compile(it) },
+                filter = runtimeFilter(rel.filter),
+            )
             is PRel.Correlate -> {
                 val lhs = compileRel(rel.lhs)
                 val rhs = compileRel(rel.rhs)
@@ -234,9 +508,11 @@ internal class OperatorCompiler(
                 val groups = rel.groups.map { compile(it).catch() }
                 val aggs = rel.measures.map { measure ->
                     val args = measure.args.map { compile(it).catch() }
-                    Aggregate(measure.agg, args, measure.distinct)
+                    Aggregate(measure.agg, args, measure.distinct, measure.types)
                 }
-                RelOpAggregate(input, aggs, groups)
+                // the limit only applies where the context spills, as it does to the other operators
+                val limit = if (spillDirectory != null) memoryLimit else Long.MAX_VALUE
+                RelOpAggregate(input, aggs, groups, limit)
             }
             is PRel.Union -> {
                 val lhs = compileRel(rel.lhs)
@@ -257,22 +533,50 @@ internal class OperatorCompiler(
             is PRel.Custom -> rel.factory()
             is PRel.Window -> {
                 val input = compileRel(rel.input)
-                val functions = rel.functions.map { wf ->
-                    val args = wf.args.map { compile(it).catch() }
-                    WindowBuiltIns.get(wf.signature, args)
-                }
                 val partitionBy = rel.partitions.map { compile(it) }
                 val sortBy = rel.sorts.map { toCollation(it) }
                 val realSortBy = partitionBy.map { Collation(it, false, false) } + sortBy
                 val sorted = RelOpSort(input, realSortBy)
-                RelOpWindow(sorted, functions, partitionBy, sortBy)
+                when {
+                    // each worker evaluates its own instances of the functions, as they are stateful
+                    parallelism > 1 && partitionBy.isNotEmpty() -> RelOpWindowParallel(sorted, partitionBy, sortBy, parallelism) {
+                        compileWindowFunctions(rel, rel.sorts.map { toCollation(it) })
+                    }
+                    else -> RelOpWindow(sorted, compileWindowFunctions(rel, sortBy), partitionBy, sortBy)
+                }
             }
         }
     }
 
+    private fun compileWindowFunctions(rel: PRel.Window, sortBy: List<Collation>): List<WindowFunction> =
+        rel.functions.map { wf ->
+            val args = wf.args.map { compile(it).catch() }
+            WindowBuiltIns.get(wf.signature, args) { compileFrame(rel.frame, sortBy) }
+        }
+
+    private fun runtimeFilter(filter: PRuntimeFilter): RuntimeFilter = runtimeFilters.getOrPut(filter) { RuntimeFilter() }
+
     private fun toCollation(c: PCollation): Collation =
         Collation(compile(c.expr), c.desc, c.nullsLast)
 
+    /**
+     * Without a frame clause, the frame of a window with an ORDER BY is `RANGE BETWEEN UNBOUNDED PRECEDING AND CURRENT
+     * ROW`, and the frame of a window without one is the whole partition.
+     */
+    @Suppress("DEPRECATION")
+    private fun compileFrame(frame: PWindowFrame?, sortBy: List<Collation>): WindowFrameCursor {
+        if (frame == null) {
+            val start = WindowFrameCursor.Bound(WindowFrame.Bound.Type.UNBOUNDED_PRECEDING, null)
+            return when (sortBy.isEmpty()) {
+                true -> WindowFrameCursor(true, start, WindowFrameCursor.Bound(WindowFrame.Bound.Type.UNBOUNDED_FOLLOWING, null), null)
+                false -> WindowFrameCursor(false, start, WindowFrameCursor.Bound(WindowFrame.Bound.Type.CURRENT_ROW, null), null)
+            }
+        }
+        val start = WindowFrameCursor.Bound(frame.start.type, frame.start.offset?.let { compile(it).catch() })
+        val end = WindowFrameCursor.Bound(frame.end.type, frame.end.offset?.let { compile(it).catch() })
+        return WindowFrameCursor(frame.rows, start, end, sortBy.singleOrNull())
+    }
+
     private fun ExprValue.catch(): ExprValue = when (MODE) {
         Mode.PERMISSIVE -> ExprPermissive(this)
         Mode.STRICT -> this
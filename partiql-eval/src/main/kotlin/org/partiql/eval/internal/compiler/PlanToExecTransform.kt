@@ -5,13 +5,17 @@ import org.partiql.eval.ExprValue
 import org.partiql.eval.Mode
 import org.partiql.eval.compiler.Match
 import org.partiql.eval.compiler.Strategy
+import org.partiql.eval.internal.helpers.FunctionUtils
 import org.partiql.eval.internal.plan.ExecutionPlanImpl
 import org.partiql.eval.internal.plan.PCollation
 import org.partiql.eval.internal.plan.PExpr
 import org.partiql.eval.internal.plan.PJoinType
 import org.partiql.eval.internal.plan.PMeasure
+import org.partiql.eval.internal.plan.POrdering
 import org.partiql.eval.internal.plan.PRel
 import org.partiql.eval.internal.plan.PWindowFn
+import org.partiql.eval.internal.plan.PWindowFrame
+import org.partiql.eval.internal.plan.PWindowFrameBound
 import org.partiql.plan.Action
 import org.partiql.plan.Collation
 import org.partiql.plan.JoinType
@@ -19,6 +23,7 @@ import org.partiql.plan.Operand
 import org.partiql.plan.Operator
 import org.partiql.plan.OperatorVisitor
 import org.partiql.plan.Plan
+import org.partiql.plan.WindowFrame
 import org.partiql.plan.rel.Rel
 import org.partiql.plan.rel.RelAggregate
 import org.partiql.plan.rel.RelCorrelate
@@ -26,6 +31,7 @@ import org.partiql.plan.rel.RelDistinct
 import org.partiql.plan.rel.RelExcept
 import org.partiql.plan.rel.RelExclude
 import org.partiql.plan.rel.RelFilter
+import org.partiql.plan.rel.RelIndexScan
 import org.partiql.plan.rel.RelIntersect
 import org.partiql.plan.rel.RelIterate
 import org.partiql.plan.rel.RelJoin
@@ -62,6 +68,9 @@ import org.partiql.plan.rex.RexSubquery
 import org.partiql.plan.rex.RexTable
 import org.partiql.plan.rex.RexTableRef
 import org.partiql.plan.rex.RexVar
+import org.partiql.spi.function.FnOverload
+import org.partiql.spi.types.PType
+import org.partiql.spi.value.Datum
 
 /**
  * Transforms a public [Plan] into an internal [ExecutionPlanImpl].
@@ -77,7 +86,7 @@ internal class PlanToExecTransform(
             error("Only query statements are supported")
         }
         val root = visitRex(action.rex)
-        return ExecutionPlanImpl(root, mode)
+        return ExecutionPlanImpl(root, mode, action.rex.type.pType)
     }
 
     private fun visitRex(rex: Rex): PExpr {
@@ -143,11 +152,80 @@ internal class PlanToExecTransform(
 
     override fun visitCall(rex: RexCall, ctx: Unit): Any {
         val fn = rex.function
+        if (isLogical(rex, FunctionUtils.OP_AND)) {
+            return PExpr.And(operands(rex, FunctionUtils.OP_AND).map { visitRex(it) }, overloads(rex, FunctionUtils.OP_AND))
+        }
+        if (isLogical(rex, FunctionUtils.OP_OR)) {
+            return PExpr.Or(operands(rex, FunctionUtils.OP_OR).map { visitRex(it) }, overloads(rex, FunctionUtils.OP_OR))
+        }
+        // the built-in IN is evaluated by a membership test if its collection is constant
+        if (fn.signature.name == FunctionUtils.OP_IN_COLLECTION && rex.args.size == 2) {
+            constant(rex.args[1])?.let { return PExpr.InCollection(visitRex(rex.args[0]), it) }
+        }
         val args = rex.args.map { visitRex(it) }
         return PExpr.Call(fn, args)
     }
 
+    /**
+     * @return the elements of a constant collection, either a collection literal or a collection of literals.
+     */
+    private fun constant(rex: Rex): List<Datum>? {
+        val values = when (rex) {
+            is RexLit -> {
+                val datum = rex.datum
+                if (datum.isNull || datum.isMissing) return null
+                val code = datum.type.code()
+                if (code != PType.BAG && code != PType.ARRAY) return null
+                return datum.toList()
+            }
+            is RexArray -> rex.values
+            is RexBag -> rex.values
+            else -> return null
+        }
+        return values.map { (it as? RexLit)?.datum ?: return null }
+    }
+
+    /**
+     * @return true if the rex is a call of the built-in boolean `AND` (or `OR`), either resolved or dispatched.
+     */
+    private fun isLogical(rex: Rex, name: String): Boolean = when (rex) {
+        is RexCall -> {
+            val signature = rex.function.signature
+            signature.name == name && signature.parameters.size == 2 && signature.parameters.all { it.type.code() == PType.BOOL }
+        }
+        is RexDispatch -> rex.name == name && rex.args.size == 2
+        else -> false
+    }
+
+    /**
+     * Flattens a chain of nested `AND`s (or `OR`s) into its operands, in their original order.
+     */
+    private fun operands(rex: Rex, name: String): List<Rex> {
+        return when {
+            rex is RexCall && isLogical(rex, name) -> rex.args.flatMap { operands(it, name) }
+            rex is RexDispatch && isLogical(rex, name) -> rex.args.flatMap { operands(it, name) }
+            else -> listOf(rex)
+        }
+    }
+
+    /**
+     * @return the dispatched overloads within a chain of `AND`s (or `OR`s), for reporting non-boolean operands.
+     */
+    private fun overloads(rex: Rex, name: String): List<FnOverload> {
+        return when {
+            rex is RexCall && isLogical(rex, name) -> rex.args.flatMap { overloads(it, name) }.distinct()
+            rex is RexDispatch && isLogical(rex, name) -> (rex.functions + rex.args.flatMap { overloads(it, name) }).distinct()
+            else -> emptyList()
+        }
+    }
+
     override fun visitDispatch(rex: RexDispatch, ctx: Unit): Any {
+        if (isLogical(rex, FunctionUtils.OP_AND)) {
+            return PExpr.And(operands(rex, FunctionUtils.OP_AND).map { visitRex(it) }, overloads(rex, FunctionUtils.OP_AND))
+        }
+        if (isLogical(rex, FunctionUtils.OP_OR)) {
+            return PExpr.Or(operands(rex, FunctionUtils.OP_OR).map { visitRex(it) }, overloads(rex, FunctionUtils.OP_OR))
+        }
         return PExpr.DynamicCall(rex.name, rex.functions, rex.args.map { visitRex(it) })
     }
 
@@ -170,7 +248,7 @@ internal class PlanToExecTransform(
     }
 
     override fun visitCast(rex: RexCast, ctx: Unit): Any =
-        PExpr.Cast(visitRex(rex.operand), rex.target)
+        PExpr.Cast(visitRex(rex.operand), rex.operand.type.pType, rex.target)
 
     override fun visitCoalesce(rex: RexCoalesce, ctx: Unit): Any =
         PExpr.Coalesce(rex.args.map { visitRex(it) })
@@ -211,10 +289,23 @@ internal class PlanToExecTransform(
     // --- Rel ---
 
     override fun visitScan(rel: RelScan, ctx: Unit): Any =
-        PRel.Scan(visitRex(rel.rex), rel.type)
+        PRel.Scan(visitRex(rel.rex), rel.type, rel.projection)
+
+    override fun visitIndexScan(rel: RelIndexScan, ctx: Unit): Any =
+        PRel.IndexScan(
+            visitRex(rel.rex),
+            rel.index,
+            rel.key?.let { visitRex(it) },
+            rel.lower?.let { visitRex(it) },
+            rel.isLowerInclusive,
+            rel.upper?.let { visitRex(it) },
+            rel.isUpperInclusive,
+            rel.type,
+            rel.projection,
+        )
 
     override fun visitIterate(rel: RelIterate, ctx: Unit): Any =
-        PRel.Iterate(visitRex(rel.rex), rel.type)
+        PRel.Iterate(visitRex(rel.rex), rel.type, rel.projection)
 
     override fun visitUnpivot(rel: RelUnpivot, ctx: Unit): Any =
         PRel.Unpivot(visitRex(rel.rex), rel.type)
@@ -233,7 +324,11 @@ internal class PlanToExecTransform(
             JoinType.FULL -> PJoinType.FULL
             else -> error("Unsupported join type: ${rel.joinType}")
         }
-        return PRel.Join(visitRel(rel.left), visitRel(rel.right), visitRex(rel.condition), joinType, rel.type)
+        val lhs = visitRel(rel.left)
+        val rhs = visitRel(rel.right)
+        val condition = visitRex(rel.condition)
+        return EquiJoinPlanner.plan(lhs, rhs, rel.left.type.fields.size, condition, joinType, rel.type)
+            ?: PRel.Join(lhs, rhs, condition, joinType, rel.type)
     }
 
     override fun visitCorrelate(rel: RelCorrelate, ctx: Unit): Any {
@@ -245,8 +340,15 @@ internal class PlanToExecTransform(
         return PRel.Correlate(visitRel(rel.left), visitRel(rel.right), joinType, rel.type)
     }
 
-    override fun visitSort(rel: RelSort, ctx: Unit): Any =
-        PRel.Sort(visitRel(rel.input), rel.collations.map { toCollation(it) }, rel.type)
+    override fun visitSort(rel: RelSort, ctx: Unit): Any {
+        val input = visitRel(rel.input)
+        val collations = rel.collations.map { toCollation(it) }
+        // the input may already be sorted, e.g. by a merge join
+        if (POrdering.satisfies(input.ordering, collations)) {
+            return input
+        }
+        return PRel.Sort(input, collations, rel.type)
+    }
 
     override fun visitDistinct(rel: RelDistinct, ctx: Unit): Any =
         PRel.Distinct(visitRel(rel.input), rel.type)
@@ -261,7 +363,7 @@ internal class PlanToExecTransform(
         val input = visitRel(rel.input)
         val groups = rel.groups.map { visitRex(it) }
         val measures = rel.measures.map { m ->
-            PMeasure(m.agg, m.args.map { visitRex(it) }, m.isDistinct)
+            PMeasure(m.agg, m.args.map { visitRex(it) }, m.isDistinct, m.args.map { it.type.pType })
         }
         return PRel.Aggregate(input, measures, groups, rel.type)
     }
@@ -286,9 +388,16 @@ internal class PlanToExecTransform(
         }
         val partitions = rel.partitions.map { visitRex(it) }
         val sorts = rel.collations.map { toCollation(it) }
-        return PRel.Window(input, functions, partitions, sorts, rel.type)
+        val frame = rel.frame?.let { f ->
+            PWindowFrame(f.units.code() == WindowFrame.Units.ROWS, toFrameBound(f.start), toFrameBound(f.end))
+        }
+        return PRel.Window(input, functions, partitions, sorts, frame, rel.type)
     }
 
+    @Suppress("DEPRECATION")
+    private fun toFrameBound(bound: WindowFrame.Bound): PWindowFrameBound =
+        PWindowFrameBound(bound.type.code(), bound.offset?.let { visitRex(it) })
+
     override fun visitWith(rel: RelWith, ctx: Unit): Any = visitRel(rel.input)
 
     // --- Helpers ---
@@ -0,0 +1,171 @@
+package org.partiql.eval.internal.compiler
+
+import org.partiql.eval.ExprValue
+import org.partiql.eval.internal.helpers.FunctionUtils
+import org.partiql.eval.internal.operator.primitive.PrimitiveAnd
+import org.partiql.eval.internal.operator.primitive.PrimitiveArithmetic
+import org.partiql.eval.internal.operator.primitive.PrimitiveCase
+import org.partiql.eval.internal.operator.primitive.PrimitiveCast
+import org.partiql.eval.internal.operator.primitive.PrimitiveComparison
+import org.partiql.eval.internal.operator.primitive.PrimitiveExpr
+import org.partiql.eval.internal.operator.primitive.PrimitiveLeaf
+import org.partiql.eval.internal.operator.primitive.PrimitiveLiteral
+import org.partiql.eval.internal.operator.primitive.PrimitiveOr
+import org.partiql.eval.internal.operator.primitive.PrimitivePermissive
+import org.partiql.eval.internal.operator.rex.CastTable
+import org.partiql.eval.internal.plan.PExpr
+import org.partiql.spi.types.PType
+
+/**
+ * Compiles the statically typed scalar operators of an expression tree into a [PrimitiveExpr], whose intermediate
+ * values are primitives rather than [org.partiql.spi.value.Datum]s. These are the arithmetic operators and comparisons
+ * of integers and DOUBLE PRECISION, casts between them, `AND`, `OR`, and searched `CASE`; every other operand, such as
+ * a variable, a path, or a call of another function, is interpreted by [interpret] and read as a primitive of its
+ * static type.
+ *
+ * An expression is only compiled if its own operator can be, so that an expression whose types are only known when it
+ * is evaluated is always interpreted.
+ *
+ * @param strict true in strict mode; in permissive mode, a data exception of an operand is `MISSING` as it is for the
+ * interpreter.
+ * @param interpret compiles an operand for the interpreter.
+ */
+internal class PrimitiveCompiler(
+    private val strict: Boolean,
+    private val interpret: (PExpr) -> ExprValue,
+) {
+
+    /**
+     * @return the compiled expression; null if its operator is not compiled.
+     */
+    fun compile(expr: PExpr): PrimitiveExpr? = if (compiles(expr)) specialize(expr) else null
+
+    private fun specialize(expr: PExpr): PrimitiveExpr = when (expr) {
+        is PExpr.Call -> {
+            val signature = expr.fn.signature
+            val lhs = catch(operand(expr.args[0], signature.parameters[0].type))
+            val rhs = catch(operand(expr.args[1], signature.parameters[1].type))
+            when (val op = ARITHMETIC[signature.name]) {
+                null -> PrimitiveComparison(COMPARISON[signature.name]!!, lhs, rhs)
+                else -> PrimitiveArithmetic(op, expr.fn, lhs, rhs)
+            }
+        }
+        is PExpr.And -> PrimitiveAnd(Array(expr.args.size) { catch(typed(expr.args[it])) })
+        is PExpr.Or -> PrimitiveOr(Array(expr.args.size) { catch(typed(expr.args[it])) })
+        is PExpr.Case -> {
+            val conditions = Array(expr.branches.size) { catch(typed(expr.branches[it].condition)) }
+            val results = Array(expr.branches.size) { typed(expr.branches[it].result) }
+            PrimitiveCase(conditions, results, expr.default?.let { typed(it) }, results[0].type)
+        }
+        is PExpr.Cast -> PrimitiveCast(operand(expr.operand, expr.source), expr.target)
+        else -> error("Unexpected expression: $expr")
+    }
+
+    /**
+     * @return an operand of the given type, which is compiled if its operator has that type.
+     */
+    private fun operand(expr: PExpr, type: PType): PrimitiveExpr {
+        val operand = unwrap(expr)
+        if (operand is PExpr.Lit && operand.value.type.code() == type.code()) {
+            return PrimitiveLiteral(operand.value)
+        }
+        if (compiles(operand) && typeOf(operand)!!.code() == type.code()) {
+            return specialize(operand)
+        }
+        return PrimitiveLeaf(interpret(expr), type)
+    }
+
+    /**
+     * @return an operand whose type is known, see [typeOf].
+     */
+    private fun typed(expr: PExpr): PrimitiveExpr {
+        val operand = unwrap(expr)
+        return when {
+            operand is PExpr.Lit -> PrimitiveLiteral(operand.value)
+            compiles(operand) -> specialize(operand)
+            else -> PrimitiveLeaf(interpret(expr), typeOf(operand)!!)
+        }
+    }
+
+    private fun catch(expr: PrimitiveExpr): PrimitiveExpr = if (strict) expr else PrimitivePermissive(expr)
+
+    /**
+     * @return true if the operator of the expression is compiled.
+     */
+    private fun compiles(expr: PExpr): Boolean = when (expr) {
+        is PExpr.Call -> {
+            val signature = expr.fn.signature
+            val parameters = signature.parameters
+            val name = signature.name
+            when {
+                !signature.isNullCall || !signature.isMissingCall || parameters.size != 2 -> false
+                parameters[0].type.code() != parameters[1].type.code() -> false
+                PrimitiveExpr.kind(parameters[0].type.code()).let { it != PrimitiveExpr.LONG && it != PrimitiveExpr.DOUBLE } -> false
+                name in ARITHMETIC -> signature.returns.code() == parameters[0].type.code()
+                name in COMPARISON -> signature.returns.code() == PType.BOOL
+                else -> false
+            }
+        }
+        is PExpr.And -> expr.args.all { kindOf(it) == PrimitiveExpr.BOOL }
+        is PExpr.Or -> expr.args.all { kindOf(it) == PrimitiveExpr.BOOL }
+        is PExpr.Case -> {
+            val type = typeOf(expr.branches[0].result)
+            type != null &&
+                expr.branches.all { kindOf(it.condition) == PrimitiveExpr.BOOL && typeOf(it.result)?.code() == type.code() } &&
+                (expr.default == null || typeOf(expr.default)?.code() == type.code())
+        }
+        is PExpr.Cast -> {
+            val source = expr.source.code()
+            val target = expr.target.code()
+            !CastTable.isIdentity(expr.source, expr.target) &&
+                PrimitiveExpr.kind(source) == PrimitiveExpr.LONG &&
+                PrimitiveExpr.kind(target).let { it == PrimitiveExpr.LONG || it == PrimitiveExpr.DOUBLE }
+        }
+        else -> false
+    }
+
+    /**
+     * @return the type of an expression which is either compiled, a literal, or the result of a function or a cast of a
+     * primitive type; null if its type is not known.
+     */
+    private fun typeOf(expr: PExpr): PType? {
+        val operand = unwrap(expr)
+        val type = when (operand) {
+            is PExpr.Lit -> operand.value.type
+            is PExpr.Call -> operand.fn.signature.returns
+            is PExpr.Cast -> operand.target
+            is PExpr.And, is PExpr.Or -> if (compiles(operand)) PType.bool() else null
+            is PExpr.Case -> if (compiles(operand)) typeOf(operand.branches[0].result) else null
+            else -> null
+        }
+        return type?.takeIf { PrimitiveExpr.kind(it.code()) != PrimitiveExpr.NONE }
+    }
+
+    private fun kindOf(expr: PExpr): Int = typeOf(expr)?.let { PrimitiveExpr.kind(it.code()) } ?: PrimitiveExpr.NONE
+
+    /**
+     * @return the operand of an identity cast, which is elided.
+     */
+    private fun unwrap(expr: PExpr): PExpr = when {
+        expr is PExpr.Cast && CastTable.isIdentity(expr.source, expr.target) -> unwrap(expr.operand)
+        else -> expr
+    }
+
+    private companion object {
+
+        val ARITHMETIC = mapOf(
+            FunctionUtils.OP_PLUS to PrimitiveArithmetic.PLUS,
+            FunctionUtils.OP_MINUS to PrimitiveArithmetic.MINUS,
+            FunctionUtils.OP_TIMES to PrimitiveArithmetic.TIMES,
+            FunctionUtils.OP_DIVIDE to PrimitiveArithmetic.DIVIDE,
+            FunctionUtils.FN_MODULO to PrimitiveArithmetic.MODULO,
+        )
+
+        val COMPARISON = mapOf(
+            FunctionUtils.OP_LT to PrimitiveComparison.LT,
+            FunctionUtils.OP_LTE to PrimitiveComparison.LTE,
+            FunctionUtils.OP_GT to PrimitiveComparison.GT,
+            FunctionUtils.OP_GTE to PrimitiveComparison.GTE,
+        )
+    }
+}
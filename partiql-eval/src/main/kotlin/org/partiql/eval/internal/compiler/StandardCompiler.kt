@@ -1,12 +1,13 @@
 package org.partiql.eval.internal.compiler
 
-import org.partiql.eval.Environment
+import org.partiql.eval.Cursor
 import org.partiql.eval.ExecutionPlan
 import org.partiql.eval.Mode
 import org.partiql.eval.Statement
 import org.partiql.eval.compiler.PartiQLCompiler
 import org.partiql.eval.compiler.Strategy
-import org.partiql.eval.internal.helpers.PErrors
+import org.partiql.eval.internal.vm.OperatorPool
+import org.partiql.eval.internal.vm.StandardVM
 import org.partiql.plan.Plan
 import org.partiql.spi.Context
 import org.partiql.spi.catalog.ExecutionCatalog
@@ -41,19 +42,14 @@ internal class StandardCompiler(strategies: List<Strategy>) : PartiQLCompiler {
     override fun prepare(plan: Plan, mode: Mode, ctx: Context): Statement {
         try {
             val transform = PlanToExecTransform(strategies, mode)
-            val impl = transform.transform(plan)
-            val compiler = OperatorCompiler(emptyArray(), mode)
-            val root = compiler.compile(impl)
+            val executable = ExecutionPlan(transform.transform(plan), OperatorPool(sequential = true))
+            val vm = StandardVM()
+            // compile the operators now, so that the errors of compilation are raised by prepare
+            executable.pool.release(OperatorCompiler(emptyArray(), mode, ctx).operators(executable.impl))
             return object : Statement {
-                override fun execute(): Datum {
-                    return try {
-                        root.eval(Environment())
-                    } catch (e: PRuntimeException) {
-                        throw e
-                    } catch (t: Throwable) {
-                        throw PErrors.internalErrorException(t)
-                    }
-                }
+                override fun execute(): Datum = vm.execute(executable, emptyArray(), ctx)
+
+                override fun open(): Cursor = vm.open(executable, emptyArray(), ctx)
             }
         } catch (e: PRuntimeException) {
             throw e
@@ -68,18 +64,12 @@ internal class StandardCompiler(strategies: List<Strategy>) : PartiQLCompiler {
         try {
             PlanValidator.validate(plan)
             val transform = PlanToExecTransform(strategies, mode)
-            val impl = transform.transform(plan)
+            val executable = ExecutionPlan(transform.transform(plan))
+            val vm = StandardVM()
             return object : Statement {
-                override fun execute(): Datum {
-                    return try {
-                        val compiler = OperatorCompiler(catalogs, mode)
-                        compiler.compile(impl).eval(Environment())
-                    } catch (e: PRuntimeException) {
-                        throw e
-                    } catch (t: Throwable) {
-                        throw PErrors.internalErrorException(t)
-                    }
-                }
+                override fun execute(): Datum = vm.execute(executable, catalogs, ctx)
+
+                override fun open(): Cursor = vm.open(executable, catalogs, ctx)
             }
         } catch (e: PRuntimeException) {
             throw e
@@ -0,0 +1,271 @@
+package org.partiql.eval.internal.helpers
+
+import org.partiql.spi.types.PType
+import org.partiql.spi.value.Datum
+
+/**
+ * The set of argument tuples seen by a `DISTINCT` aggregate within one group.
+ *
+ * Tuples are hashed with [Datum.hash] and compared with [DatumArrayComparator], so that a tuple is distinct if it is
+ * not equal to any previous tuple under [Datum.comparator]. If the aggregate has a single argument whose type is known
+ * from the plan to be an integer, approximate numeric, or string, its values are kept in a specialized set of
+ * primitives (or strings) instead; such a set falls back to the general set if it sees a value of another type.
+ *
+ * Each set estimates the memory it retains, which the aggregate operator accumulates.
+ */
+internal abstract class DistinctSet {
+
+    /**
+     * The estimated number of bytes retained by the set.
+     */
+    var bytes: Long = BASE
+        protected set
+
+    /**
+     * @return true if the tuple was not in the set, i.e. if the tuple is distinct.
+     */
+    abstract fun add(args: Array<Datum>): Boolean
+
+    companion object {
+
+        private const val BASE = 64L
+
+        /**
+         * Creates a set for the arguments of the given types.
+         */
+        @JvmStatic
+        fun create(types: List<PType>): DistinctSet {
+            if (types.size != 1) {
+                return General()
+            }
+            return when (types[0].code()) {
+                PType.TINYINT, PType.SMALLINT, PType.INTEGER, PType.BIGINT -> Longs()
+                PType.REAL, PType.DOUBLE -> Doubles()
+                PType.CHAR, PType.VARCHAR, PType.STRING -> Strings()
+                else -> General()
+            }
+        }
+    }
+
+    /**
+     * A hash set of tuples of any type.
+     */
+    private class General : DistinctSet() {
+
+        private val seen = HashSet<Key>()
+
+        override fun add(args: Array<Datum>): Boolean {
+            if (!seen.add(Key(args))) {
+                return false
+            }
+            bytes += ENTRY + args.size * DATUM
+            return true
+        }
+
+        private class Key(private val values: Array<Datum>) {
+
+            private val hash = values.fold(1) { acc, v -> 31 * acc + Datum.hash(v) }
+
+            override fun hashCode(): Int = hash
+
+            override fun equals(other: Any?): Boolean {
+                return other is Key && hash == other.hash && DatumArrayComparator.compare(values, other.values) == 0
+            }
+        }
+
+        private companion object {
+            // the hash map node, the key, and the arguments array
+            const val ENTRY = 96L
+            const val DATUM = 32L
+        }
+    }
+
+    /**
+     * A set of the values of a single argument of a known type, which falls back to a [General] set if it sees a value
+     * of another type.
+     */
+    private abstract class Specialized : DistinctSet() {
+
+        private var general: General? = null
+
+        final override fun add(args: Array<Datum>): Boolean {
+            general?.let { return add(it, args) }
+            val value = args[0]
+            if (accepts(value.type.code())) {
+                return add(value)
+            }
+            val general = General()
+            for (v in values()) general.add(arrayOf(v))
+            this.general = general
+            clear()
+            return add(general, args)
+        }
+
+        private fun add(general: General, args: Array<Datum>): Boolean {
+            val added = general.add(args)
+            bytes = general.bytes
+            return added
+        }
+
+        abstract fun accepts(code: Int): Boolean
+
+        abstract fun add(value: Datum): Boolean
+
+        /**
+         * @return the values of the set, as datums which are equal to the added values.
+         */
+        abstract fun values(): Sequence<Datum>
+
+        abstract fun clear()
+    }
+
+    /**
+     * A set of integers, keyed by their value.
+     */
+    private class Longs : Specialized() {
+
+        private val keys = LongHashSet()
+
+        override fun accepts(code: Int): Boolean = when (code) {
+            PType.TINYINT, PType.SMALLINT, PType.INTEGER, PType.BIGINT -> true
+            else -> false
+        }
+
+        override fun add(value: Datum): Boolean {
+            val key = when (value.type.code()) {
+                PType.TINYINT -> value.byte.toLong()
+                PType.SMALLINT -> value.short.toLong()
+                PType.INTEGER -> value.int.toLong()
+                else -> value.long
+            }
+            val added = keys.add(key)
+            bytes = BASE + keys.bytes()
+            return added
+        }
+
+        override fun values(): Sequence<Datum> = keys.values().map { Datum.bigint(it) }
+
+        override fun clear() = keys.clear()
+    }
+
+    /**
+     * A set of approximate numerics, keyed by the bits of their double value; like [Double.compareTo], this considers
+     * every `NaN` equal, and `-0.0` distinct from `0.0`.
+     */
+    private class Doubles : Specialized() {
+
+        private val keys = LongHashSet()
+
+        override fun accepts(code: Int): Boolean = code == PType.REAL || code == PType.DOUBLE
+
+        override fun add(value: Datum): Boolean {
+            val double = if (value.type.code() == PType.REAL) value.float.toDouble() else value.double
+            val added = keys.add(java.lang.Double.doubleToLongBits(double))
+            bytes = BASE + keys.bytes()
+            return added
+        }
+
+        override fun values(): Sequence<Datum> = keys.values().map { Datum.doublePrecision(java.lang.Double.longBitsToDouble(it)) }
+
+        override fun clear() = keys.clear()
+    }
+
+    /**
+     * A set of character strings.
+     */
+    private class Strings : Specialized() {
+
+        private var keys = HashSet<String>()
+
+        override fun accepts(code: Int): Boolean = code == PType.CHAR || code == PType.VARCHAR || code == PType.STRING
+
+        override fun add(value: Datum): Boolean {
+            val string = value.string
+            if (!keys.add(string)) {
+                return false
+            }
+            bytes += ENTRY + 2L * string.length
+            return true
+        }
+
+        override fun values(): Sequence<Datum> = keys.asSequence().map { Datum.string(it) }
+
+        override fun clear() {
+            keys = HashSet()
+        }
+
+        private companion object {
+            // the hash map node and the string
+            const val ENTRY = 80L
+        }
+    }
+
+    /**
+     * An open-addressing hash set of longs, without boxing.
+     */
+    private class LongHashSet {
+
+        private var table = LongArray(INITIAL)
+        private var size = 0
+
+        // zero marks an empty slot, so it is tracked separately
+        private var zero = false
+
+        fun add(key: Long): Boolean {
+            if (key == 0L) {
+                if (zero) return false
+                zero = true
+                return true
+            }
+            val mask = table.size - 1
+            var i = mix(key) and mask
+            while (true) {
+                val k = table[i]
+                if (k == 0L) break
+                if (k == key) return false
+                i = (i + 1) and mask
+            }
+            table[i] = key
+            size++
+            if (size * 2 > table.size) {
+                grow()
+            }
+            return true
+        }
+
+        fun values(): Sequence<Long> = sequence {
+            if (zero) yield(0L)
+            for (k in table) if (k != 0L) yield(k)
+        }
+
+        fun bytes(): Long = 8L * table.size
+
+        fun clear() {
+            table = LongArray(INITIAL)
+            size = 0
+            zero = false
+        }
+
+        private fun grow() {
+            val old = table
+            table = LongArray(old.size * 2)
+            val mask = table.size - 1
+            for (k in old) {
+                if (k == 0L) continue
+                var i = mix(k) and mask
+                while (table[i] != 0L) i = (i + 1) and mask
+                table[i] = k
+            }
+        }
+
+        private fun mix(key: Long): Int {
+            var h = key * -0x61c8864680b583ebL
+            h = h xor (h ushr 32)
+            return h.toInt()
+        }
+
+        private companion object {
+            const val INITIAL = 16
+        }
+    }
+}
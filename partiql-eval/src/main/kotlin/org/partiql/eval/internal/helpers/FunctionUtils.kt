@@ -0,0 +1,38 @@
+package org.partiql.eval.internal.helpers
+
+/**
+ * The names of the built-in functions which the compiler recognizes, e.g. to evaluate them with specialized
+ * operators; these mirror the hidden operators of the planner's `FunctionUtils`.
+ */
+internal object FunctionUtils {
+
+    /**
+     * The internal system prefix is '\uFDEF', one of unicode's 'internal-use' non-characters, which the planner prefixes
+     * to the names of the functions which cannot be invoked via PartiQL text.
+     */
+    private const val SYSTEM_PREFIX_INTERNAL: String = "\uFDEF"
+
+    // The following are public functions, able to be directly invoked via PartiQL text.
+    const val FN_MODULO: String = "mod"
+
+    // The following are hidden operators, unable to be invoked via PartiQL text.
+    val OP_AND: String = hide("and")
+    val OP_OR: String = hide("or")
+    val OP_IN_COLLECTION: String = hide("in_collection")
+    val OP_PLUS: String = hide("plus")
+    val OP_MINUS: String = hide("minus")
+    val OP_DIVIDE: String = hide("divide")
+    val OP_TIMES: String = hide("times")
+    val OP_EQ: String = hide("eq")
+    val OP_GTE: String = hide("gte")
+    val OP_LTE: String = hide("lte")
+    val OP_GT: String = hide("gt")
+    val OP_LT: String = hide("lt")
+
+    /**
+     * Hides a function name by prefixing it with [SYSTEM_PREFIX_INTERNAL].
+     */
+    fun hide(name: String): String {
+        return SYSTEM_PREFIX_INTERNAL + name
+    }
+}
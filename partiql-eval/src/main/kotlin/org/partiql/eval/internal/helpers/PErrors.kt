@@ -174,6 +174,20 @@ internal object PErrors {
         return PRuntimeException(pError)
     }
 
+    /**
+     * Returns a PRuntimeException with code: [PError.MEMORY_LIMIT_EXCEEDED].
+     */
+    fun memoryLimitExceededException(limit: Long): PRuntimeException {
+        val pError = PError(
+            PError.MEMORY_LIMIT_EXCEEDED,
+            Severity.ERROR(),
+            PErrorKind.EXECUTION(),
+            null,
+            mapOf("LIMIT" to limit)
+        )
+        return PRuntimeException(pError)
+    }
+
     /**
      * Returns a PError with code: [PError.NUMERIC_VALUE_OUT_OF_RANGE].
      */
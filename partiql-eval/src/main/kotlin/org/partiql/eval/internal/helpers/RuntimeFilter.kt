@@ -0,0 +1,148 @@
+package org.partiql.eval.internal.helpers
+
+import org.partiql.spi.value.Datum
+
+/**
+ * A filter of the probe side of a hash join by the keys of its build side, which is built when the join has read its
+ * build side and is tested by an operator below the join on the probe side.
+ *
+ * The filter is a Bloom filter of the keys' hashes, with the least and greatest keys under [DatumArrayComparator]. A
+ * key fails the filter if it is outside of that range or is not in the Bloom filter, so it is not equal to any key of
+ * the build side; a key which passes may still not match. Keys are hashed with [Datum.hash], so equal keys of different
+ * types have the same hash.
+ *
+ * Until the filter is published, every key passes. The filter counts the keys it tests, and disables itself if it drops
+ * less than a [MIN_DROPPED] fraction of the keys in a window of [WINDOW] keys, as it would only slow down the probe side.
+ */
+internal class RuntimeFilter {
+
+    private var hashes = IntArray(64)
+    private var count = 0
+    private var min: Array<Datum>? = null
+    private var max: Array<Datum>? = null
+
+    private var bits: LongArray? = null
+    private var mask = 0
+    private var enabled = false
+
+    private var tested = 0
+    private var dropped = 0
+
+    /**
+     * Clears the filter, for a new build side; every key passes until the filter is published again.
+     */
+    fun reset() {
+        hashes = IntArray(64)
+        count = 0
+        min = null
+        max = null
+        bits = null
+        enabled = false
+        tested = 0
+        dropped = 0
+    }
+
+    /**
+     * Adds a key of the build side, which has no NULL or MISSING value.
+     */
+    fun add(keys: Array<Datum>) {
+        if (count == hashes.size) {
+            hashes = hashes.copyOf(count * 2)
+        }
+        hashes[count++] = hash(keys)
+        val min = min
+        val max = max
+        if (min == null || DatumArrayComparator.compare(keys, min) < 0) this.min = keys
+        if (max == null || DatumArrayComparator.compare(keys, max) > 0) this.max = keys
+    }
+
+    /**
+     * Builds the Bloom filter of the added keys, after which keys are tested against it.
+     */
+    fun publish() {
+        var size = MIN_BITS
+        while (size < count.toLong() * BITS_PER_KEY && size < MAX_BITS) {
+            size = size shl 1
+        }
+        val bits = LongArray(size / Long.SIZE_BITS)
+        mask = size - 1
+        for (i in 0 until count) {
+            var h = mix(hashes[i])
+            val step = step(h)
+            repeat(HASHES) {
+                val bit = h and mask
+                bits[bit ushr 6] = bits[bit ushr 6] or (1L shl bit)
+                h += step
+            }
+        }
+        this.bits = bits
+        hashes = IntArray(0)
+        enabled = true
+    }
+
+    /**
+     * @param keys the keys of a row of the probe side, or null if one of them is NULL or MISSING.
+     * @return false if the row cannot match a row of the build side.
+     */
+    fun test(keys: Array<Datum>?): Boolean {
+        if (!enabled) {
+            return true
+        }
+        val passed = keys != null && contains(keys)
+        tested++
+        if (!passed) dropped++
+        if (tested == WINDOW) {
+            if (dropped < WINDOW * MIN_DROPPED) enabled = false
+            tested = 0
+            dropped = 0
+        }
+        return passed
+    }
+
+    private fun contains(keys: Array<Datum>): Boolean {
+        val min = min ?: return false
+        val max = max ?: return false
+        if (DatumArrayComparator.compare(keys, min) < 0 || DatumArrayComparator.compare(keys, max) > 0) {
+            return false
+        }
+        val bits = bits!!
+        var h = mix(hash(keys))
+        val step = step(h)
+        repeat(HASHES) {
+            val bit = h and mask
+            if (bits[bit ushr 6] and (1L shl bit) == 0L) {
+                return false
+            }
+            h += step
+        }
+        return true
+    }
+
+    private companion object {
+
+        // about a 2% false positive rate
+        const val BITS_PER_KEY = 8
+        const val HASHES = 5
+        const val MIN_BITS = 1 shl 10
+        const val MAX_BITS = 1 shl 28
+
+        const val WINDOW = 4096
+        const val MIN_DROPPED = 0.1
+
+        fun hash(keys: Array<Datum>): Int = keys.fold(1) { acc, v -> 31 * acc + Datum.hash(v) }
+
+        fun mix(hash: Int): Int {
+            var h = hash
+            h = h xor (h ushr 16)
+            h *= -0x7a143595
+            h = h xor (h ushr 13)
+            h *= -0x3d4d51cb
+            return h xor (h ushr 16)
+        }
+
+        /**
+         * The step between the bits of a key, from its high bits; it is odd, so the bits are distinct.
+         */
+        fun step(h: Int): Int = (h ushr 17) or 1
+    }
+}
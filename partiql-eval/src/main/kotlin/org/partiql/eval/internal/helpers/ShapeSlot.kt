@@ -0,0 +1,34 @@
+package org.partiql.eval.internal.helpers
+
+import org.partiql.spi.value.Datum
+import org.partiql.spi.value.Shape
+
+/**
+ * Reads a field of a struct by name, caching the position of the field in the [Shape] of the last struct read. Records
+ * of a scan usually share one shape, in which case a field is read by its position rather than looked up by name.
+ *
+ * @param insensitive true if the field name is matched case-insensitively.
+ */
+internal class ShapeSlot(private val insensitive: Boolean) {
+
+    /**
+     * The last resolved position; it is replaced as a whole, so it is safe to share between threads.
+     */
+    private var cached: Slot? = null
+
+    /**
+     * @return the value of the first field with the given name; null if there is none.
+     */
+    fun get(struct: Datum, name: String): Datum? {
+        val shape = struct.shape ?: return if (insensitive) struct.getInsensitive(name) else struct.get(name)
+        var slot = cached
+        if (slot == null || slot.shape !== shape || slot.name != name) {
+            val index = if (insensitive) shape.indexOfInsensitive(name) else shape.indexOf(name)
+            slot = Slot(shape, name, index)
+            cached = slot
+        }
+        return if (slot.index < 0) null else struct.get(slot.index)
+    }
+
+    private class Slot(@JvmField val shape: Shape, @JvmField val name: String, @JvmField val index: Int)
+}
@@ -0,0 +1,27 @@
+package org.partiql.eval.internal.metrics
+
+import org.partiql.spi.metrics.MetricsListener
+
+/**
+ * Accumulates the execution time and the produced rows of one execution of a statement, which are reported to the
+ * listener at once when the result has been read.
+ */
+internal class ExecutionMetrics(private val listener: MetricsListener) {
+
+    @JvmField
+    var time: Long = 0
+
+    @JvmField
+    var rows: Long = 0
+
+    @JvmField
+    var bytes: Long = 0
+
+    fun report() {
+        listener.executed(time)
+        listener.produced(rows, bytes)
+        time = 0
+        rows = 0
+        bytes = 0
+    }
+}
@@ -2,6 +2,7 @@ package org.partiql.eval.internal.operator
 
 import org.partiql.eval.ExprValue
 import org.partiql.spi.function.Agg
+import org.partiql.spi.types.PType
 
 /**
  * Simple data class to hold a compile aggregation call.
@@ -9,5 +10,6 @@ import org.partiql.spi.function.Agg
 internal class Aggregate(
     val agg: Agg,
     val args: List<ExprValue>,
-    val distinct: Boolean
+    val distinct: Boolean,
+    val types: List<PType> = emptyList(),
 )
@@ -0,0 +1,36 @@
+package org.partiql.eval.internal.operator.primitive
+
+import org.partiql.eval.Environment
+import org.partiql.eval.ExprValue
+import org.partiql.spi.value.Datum
+
+/**
+ * Evaluates a [PrimitiveExpr], boxing only its result.
+ */
+internal class ExprPrimitive(private val expr: PrimitiveExpr) : ExprValue {
+
+    private val type = expr.type
+
+    override fun eval(env: Environment): Datum {
+        val frame = Frame()
+        return when (expr.kind) {
+            PrimitiveExpr.LONG -> {
+                val v = expr.long(env, frame)
+                if (frame.state == Frame.VALUE) PrimitiveExpr.box(v, type) else absent(frame)
+            }
+            PrimitiveExpr.DOUBLE -> {
+                val v = expr.double(env, frame)
+                if (frame.state == Frame.VALUE) Datum.doublePrecision(v) else absent(frame)
+            }
+            else -> {
+                val v = expr.bool(env, frame)
+                if (frame.state == Frame.VALUE) Datum.bool(v) else absent(frame)
+            }
+        }
+    }
+
+    private fun absent(frame: Frame): Datum = when (frame.state) {
+        Frame.NULL -> Datum.nullValue(type)
+        else -> Datum.missing(type)
+    }
+}
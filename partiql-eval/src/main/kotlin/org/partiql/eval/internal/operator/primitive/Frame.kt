@@ -0,0 +1,19 @@
+package org.partiql.eval.internal.operator.primitive
+
+/**
+ * The state of an evaluation of a [PrimitiveExpr], which reports whether the primitive value returned by an expression
+ * is absent. Each expression is entered with the [state] [VALUE], and sets it if its value is `NULL` or `MISSING`, in
+ * which case its return value is meaningless; an expression which reads the state of an operand resets it before
+ * evaluating the next.
+ */
+internal class Frame {
+
+    @JvmField
+    var state: Int = VALUE
+
+    internal companion object {
+        const val VALUE = 0
+        const val NULL = 1
+        const val MISSING = 2
+    }
+}
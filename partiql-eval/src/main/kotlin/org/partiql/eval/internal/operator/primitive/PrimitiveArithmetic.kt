@@ -0,0 +1,97 @@
+package org.partiql.eval.internal.operator.primitive
+
+import org.partiql.eval.Environment
+import org.partiql.spi.function.Fn
+import org.partiql.spi.value.Datum
+
+/**
+ * A binary arithmetic operator on two integers of the same type or two DOUBLE PRECISION values, which are computed as
+ * primitives. A result which does not fit in its type, and a division by zero, are computed by the [function] itself,
+ * so that it raises the same error as the interpreted function.
+ *
+ * @param op one of [PLUS], [MINUS], [TIMES], [DIVIDE], or [MODULO].
+ * @param function the built-in function of the operator, whose parameters and result have the type of the operands.
+ */
+internal class PrimitiveArithmetic(
+    private val op: Int,
+    private val function: Fn,
+    private val lhs: PrimitiveExpr,
+    private val rhs: PrimitiveExpr,
+) : PrimitiveExpr(function.signature.returns) {
+
+    private val code = type.code()
+
+    override fun long(env: Environment, frame: Frame): Long {
+        val a = lhs.long(env, frame)
+        val sa = frame.state
+        frame.state = Frame.VALUE
+        val b = rhs.long(env, frame)
+        val sb = frame.state
+        if (sa != Frame.VALUE || sb != Frame.VALUE) {
+            // MISSING takes precedence over NULL
+            frame.state = maxOf(sa, sb)
+            return 0
+        }
+        val result: Long
+        val exact: Boolean
+        when (op) {
+            PLUS -> {
+                result = a + b
+                exact = ((a xor result) and (b xor result)) >= 0
+            }
+            MINUS -> {
+                result = a - b
+                exact = ((a xor b) and (a xor result)) >= 0
+            }
+            TIMES -> {
+                result = a * b
+                exact = (a == 0L || (result / a == b && !(a == -1L && b == Long.MIN_VALUE)))
+            }
+            DIVIDE -> {
+                result = if (b == 0L) 0 else a / b
+                exact = b != 0L && !(a == Long.MIN_VALUE && b == -1L)
+            }
+            else -> {
+                result = if (b == 0L) 0 else a % b
+                exact = b != 0L
+            }
+        }
+        if (exact && fits(result, code)) {
+            return result
+        }
+        return unbox(invoke(box(a, lhs.type), box(b, rhs.type)), type)
+    }
+
+    override fun double(env: Environment, frame: Frame): Double {
+        val a = lhs.double(env, frame)
+        val sa = frame.state
+        frame.state = Frame.VALUE
+        val b = rhs.double(env, frame)
+        val sb = frame.state
+        if (sa != Frame.VALUE || sb != Frame.VALUE) {
+            frame.state = maxOf(sa, sb)
+            return 0.0
+        }
+        val result = when (op) {
+            PLUS -> a + b
+            MINUS -> a - b
+            TIMES -> a * b
+            DIVIDE -> if (b == 0.0) Double.NaN else a / b
+            else -> if (b == 0.0) Double.NaN else a % b
+        }
+        if (result.isFinite()) {
+            return result
+        }
+        return invoke(Datum.doublePrecision(a), Datum.doublePrecision(b)).double
+    }
+
+    private fun invoke(a: Datum, b: Datum): Datum = function.invoke(arrayOf(a, b))
+
+    internal companion object {
+        const val PLUS = 0
+        const val MINUS = 1
+        const val TIMES = 2
+        const val DIVIDE = 3
+        const val MODULO = 4
+    }
+}
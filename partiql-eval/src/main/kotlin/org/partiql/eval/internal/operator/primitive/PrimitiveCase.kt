@@ -0,0 +1,67 @@
+package org.partiql.eval.internal.operator.primitive
+
+import org.partiql.eval.Environment
+import org.partiql.spi.types.PType
+
+/**
+ * A searched `CASE` whose results all have the same primitive type, with the semantics of
+ * [org.partiql.eval.internal.operator.rex.ExprCaseSearched]; the result is `NULL` if no condition is true and there is
+ * no default.
+ */
+internal class PrimitiveCase(
+    private val conditions: Array<PrimitiveExpr>,
+    private val results: Array<PrimitiveExpr>,
+    private val default: PrimitiveExpr?,
+    type: PType,
+) : PrimitiveExpr(type) {
+
+    override fun long(env: Environment, frame: Frame): Long {
+        val i = search(env, frame)
+        return when {
+            i >= 0 -> results[i].long(env, frame)
+            default != null -> default.long(env, frame)
+            else -> {
+                frame.state = Frame.NULL
+                0
+            }
+        }
+    }
+
+    override fun double(env: Environment, frame: Frame): Double {
+        val i = search(env, frame)
+        return when {
+            i >= 0 -> results[i].double(env, frame)
+            default != null -> default.double(env, frame)
+            else -> {
+                frame.state = Frame.NULL
+                0.0
+            }
+        }
+    }
+
+    override fun bool(env: Environment, frame: Frame): Boolean {
+        val i = search(env, frame)
+        return when {
+            i >= 0 -> results[i].bool(env, frame)
+            default != null -> default.bool(env, frame)
+            else -> {
+                frame.state = Frame.NULL
+                false
+            }
+        }
+    }
+
+    /**
+     * @return the index of the first branch whose condition is true; -1 if there is none.
+     */
+    private fun search(env: Environment, frame: Frame): Int {
+        for (i in conditions.indices) {
+            val c = conditions[i].bool(env, frame)
+            if (frame.state == Frame.VALUE && c) {
+                return i
+            }
+            frame.state = Frame.VALUE
+        }
+        return -1
+    }
+}
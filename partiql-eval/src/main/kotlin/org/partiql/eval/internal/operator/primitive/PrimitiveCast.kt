@@ -0,0 +1,27 @@
+package org.partiql.eval.internal.operator.primitive
+
+import org.partiql.eval.Environment
+import org.partiql.eval.internal.helpers.PErrors
+import org.partiql.spi.types.PType
+
+/**
+ * A CAST of an integer to another integer type or to DOUBLE PRECISION, with the semantics of
+ * [org.partiql.eval.internal.operator.rex.ExprCastInteger] and [org.partiql.eval.internal.operator.rex.ExprCastDouble].
+ */
+internal class PrimitiveCast(private val operand: PrimitiveExpr, target: PType) : PrimitiveExpr(target) {
+
+    private val code = target.code()
+
+    override fun long(env: Environment, frame: Frame): Long {
+        val value = operand.long(env, frame)
+        if (frame.state != Frame.VALUE || fits(value, code)) {
+            return value
+        }
+        throw PErrors.numericOutOfRangeException(value.toString(), type)
+    }
+
+    override fun double(env: Environment, frame: Frame): Double {
+        val value = operand.long(env, frame)
+        return value.toDouble()
+    }
+}
@@ -0,0 +1,68 @@
+package org.partiql.eval.internal.operator.primitive
+
+import org.partiql.eval.Environment
+import org.partiql.spi.types.PType
+
+/**
+ * A comparison of two integers or two DOUBLE PRECISION values, which are compared as primitives.
+ *
+ * @param op one of [LT], [LTE], [GT], or [GTE].
+ */
+internal class PrimitiveComparison(
+    private val op: Int,
+    private val lhs: PrimitiveExpr,
+    private val rhs: PrimitiveExpr,
+) : PrimitiveExpr(PType.bool()) {
+
+    override fun bool(env: Environment, frame: Frame): Boolean {
+        val c = when (lhs.kind) {
+            LONG -> {
+                val a = lhs.long(env, frame)
+                val sa = frame.state
+                frame.state = Frame.VALUE
+                val b = rhs.long(env, frame)
+                if (absent(sa, frame)) return false
+                a.compareTo(b)
+            }
+            else -> {
+                val a = lhs.double(env, frame)
+                val sa = frame.state
+                frame.state = Frame.VALUE
+                val b = rhs.double(env, frame)
+                if (absent(sa, frame)) return false
+                // NaN is neither less nor greater than another value
+                when {
+                    a < b -> -1
+                    a > b -> 1
+                    a == b -> 0
+                    else -> return false
+                }
+            }
+        }
+        return when (op) {
+            LT -> c < 0
+            LTE -> c <= 0
+            GT -> c > 0
+            else -> c >= 0
+        }
+    }
+
+    /**
+     * @return true if either operand is absent, in which case the state of the frame is that of the result.
+     */
+    private fun absent(sa: Int, frame: Frame): Boolean {
+        val sb = frame.state
+        if (sa == Frame.VALUE && sb == Frame.VALUE) {
+            return false
+        }
+        frame.state = maxOf(sa, sb)
+        return true
+    }
+
+    internal companion object {
+        const val LT = 0
+        const val LTE = 1
+        const val GT = 2
+        const val GTE = 3
+    }
+}
@@ -0,0 +1,83 @@
+package org.partiql.eval.internal.operator.primitive
+
+import org.partiql.eval.Environment
+import org.partiql.spi.types.PType
+import org.partiql.spi.value.Datum
+
+/**
+ * A statically typed scalar expression which is evaluated to a primitive value rather than to a [Datum], so that the
+ * intermediate values of an expression tree are neither boxed nor dispatched on their type. An expression of an
+ * integer type is evaluated by [long], of DOUBLE PRECISION by [double], and of BOOL by [bool]; whether its value is
+ * absent is reported through the [Frame].
+ *
+ * @property type the type of the value.
+ */
+internal abstract class PrimitiveExpr(@JvmField val type: PType) {
+
+    @JvmField
+    val kind: Int = kind(type.code())
+
+    open fun long(env: Environment, frame: Frame): Long = throw IllegalStateException("Expected an integer expression, found $type")
+
+    open fun double(env: Environment, frame: Frame): Double = throw IllegalStateException("Expected a DOUBLE PRECISION expression, found $type")
+
+    open fun bool(env: Environment, frame: Frame): Boolean = throw IllegalStateException("Expected a BOOL expression, found $type")
+
+    internal companion object {
+
+        const val NONE = -1
+        const val LONG = 0
+        const val DOUBLE = 1
+        const val BOOL = 2
+
+        /**
+         * @return the primitive which a value of the given type is evaluated to; [NONE] if it is not evaluated to one.
+         */
+        @JvmStatic
+        fun kind(code: Int): Int = when (code) {
+            PType.TINYINT, PType.SMALLINT, PType.INTEGER, PType.BIGINT -> LONG
+            PType.DOUBLE -> DOUBLE
+            PType.BOOL -> BOOL
+            else -> NONE
+        }
+
+        /**
+         * @return true if the integer fits in the integer type.
+         */
+        @JvmStatic
+        fun fits(value: Long, code: Int): Boolean = when (code) {
+            PType.TINYINT -> value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE
+            PType.SMALLINT -> value >= Short.MIN_VALUE && value <= Short.MAX_VALUE
+            PType.INTEGER -> value >= Int.MIN_VALUE && value <= Int.MAX_VALUE
+            else -> true
+        }
+
+        /**
+         * @return the integer as a value of the integer type, which it fits in.
+         */
+        @JvmStatic
+        fun box(value: Long, type: PType): Datum = when (type.code()) {
+            PType.TINYINT -> Datum.tinyint(value.toByte())
+            PType.SMALLINT -> Datum.smallint(value.toShort())
+            PType.INTEGER -> Datum.integer(value.toInt())
+            else -> Datum.bigint(value)
+        }
+
+        /**
+         * @return the value of an integer datum which is neither `NULL` nor `MISSING`.
+         */
+        @JvmStatic
+        fun unbox(value: Datum, type: PType): Long = when (value.type.code()) {
+            PType.TINYINT -> value.byte.toLong()
+            PType.SMALLINT -> value.short.toLong()
+            PType.INTEGER -> value.int.toLong()
+            PType.BIGINT -> value.long
+            else -> when (type.code()) {
+                PType.TINYINT -> value.byte.toLong()
+                PType.SMALLINT -> value.short.toLong()
+                PType.INTEGER -> value.int.toLong()
+                else -> value.long
+            }
+        }
+    }
+}
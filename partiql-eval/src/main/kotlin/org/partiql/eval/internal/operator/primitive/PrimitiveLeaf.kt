@@ -0,0 +1,40 @@
+package org.partiql.eval.internal.operator.primitive
+
+import org.partiql.eval.Environment
+import org.partiql.eval.ExprValue
+import org.partiql.spi.types.PType
+import org.partiql.spi.value.Datum
+
+/**
+ * An operand which is interpreted, such as a variable or a path, whose value is read as a primitive of its static type.
+ */
+internal class PrimitiveLeaf(private val expr: ExprValue, type: PType) : PrimitiveExpr(type) {
+
+    override fun long(env: Environment, frame: Frame): Long {
+        val value = eval(env, frame) ?: return 0
+        return unbox(value, type)
+    }
+
+    override fun double(env: Environment, frame: Frame): Double {
+        val value = eval(env, frame) ?: return 0.0
+        return value.double
+    }
+
+    override fun bool(env: Environment, frame: Frame): Boolean {
+        val value = eval(env, frame) ?: return false
+        return value.boolean
+    }
+
+    private fun eval(env: Environment, frame: Frame): Datum? {
+        val value = expr.eval(env)
+        if (value.isMissing) {
+            frame.state = Frame.MISSING
+            return null
+        }
+        if (value.isNull) {
+            frame.state = Frame.NULL
+            return null
+        }
+        return value
+    }
+}
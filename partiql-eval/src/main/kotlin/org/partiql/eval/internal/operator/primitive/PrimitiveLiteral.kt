@@ -0,0 +1,35 @@
+package org.partiql.eval.internal.operator.primitive
+
+import org.partiql.eval.Environment
+import org.partiql.spi.value.Datum
+
+/**
+ * A literal of a primitive type.
+ */
+internal class PrimitiveLiteral(value: Datum) : PrimitiveExpr(value.type) {
+
+    private val state = when {
+        value.isMissing -> Frame.MISSING
+        value.isNull -> Frame.NULL
+        else -> Frame.VALUE
+    }
+
+    private val long = if (state == Frame.VALUE && kind == LONG) unbox(value, type) else 0
+    private val double = if (state == Frame.VALUE && kind == DOUBLE) value.double else 0.0
+    private val bool = if (state == Frame.VALUE && kind == BOOL) value.boolean else false
+
+    override fun long(env: Environment, frame: Frame): Long {
+        frame.state = state
+        return long
+    }
+
+    override fun double(env: Environment, frame: Frame): Double {
+        frame.state = state
+        return double
+    }
+
+    override fun bool(env: Environment, frame: Frame): Boolean {
+        frame.state = state
+        return bool
+    }
+}
@@ -0,0 +1,29 @@
+package org.partiql.eval.internal.operator.primitive
+
+import org.partiql.eval.Environment
+import org.partiql.spi.types.PType
+
+/**
+ * An n-ary `OR` of BOOL operands, with the semantics of [org.partiql.eval.internal.operator.rex.ExprOr].
+ */
+internal class PrimitiveOr(
+    private val args: Array<PrimitiveExpr>,
+) : PrimitiveExpr(PType.bool()) {
+
+    override fun bool(env: Environment, frame: Frame): Boolean {
+        var unknown = false
+        for (i in args.indices) {
+            val v = args[i].bool(env, frame)
+            if (frame.state != Frame.VALUE) {
+                unknown = true
+                frame.state = Frame.VALUE
+            } else if (v) {
+                return true
+            }
+        }
+        if (unknown) {
+            frame.state = Frame.NULL
+        }
+        return false
+    }
+}
@@ -0,0 +1,49 @@
+package org.partiql.eval.internal.operator.primitive
+
+import org.partiql.eval.Environment
+import org.partiql.eval.internal.operator.rex.ExprPermissive
+import org.partiql.spi.errors.PRuntimeException
+import org.partiql.spi.value.InvalidOperationException
+
+/**
+ * An operand whose data exceptions are `MISSING`, with the semantics of [ExprPermissive].
+ */
+internal class PrimitivePermissive(private val expr: PrimitiveExpr) : PrimitiveExpr(expr.type) {
+
+    override fun long(env: Environment, frame: Frame): Long = try {
+        expr.long(env, frame)
+    } catch (e: PRuntimeException) {
+        missing(e, frame)
+        0
+    } catch (e: InvalidOperationException) {
+        frame.state = Frame.MISSING
+        0
+    }
+
+    override fun double(env: Environment, frame: Frame): Double = try {
+        expr.double(env, frame)
+    } catch (e: PRuntimeException) {
+        missing(e, frame)
+        0.0
+    } catch (e: InvalidOperationException) {
+        frame.state = Frame.MISSING
+        0.0
+    }
+
+    override fun bool(env: Environment, frame: Frame): Boolean = try {
+        expr.bool(env, frame)
+    } catch (e: PRuntimeException) {
+        missing(e, frame)
+        false
+    } catch (e: InvalidOperationException) {
+        frame.state = Frame.MISSING
+        false
+    }
+
+    private fun missing(e: PRuntimeException, frame: Frame) {
+        if (!ExprPermissive.isDataException(e)) {
+            throw e
+        }
+        frame.state = Frame.MISSING
+    }
+}
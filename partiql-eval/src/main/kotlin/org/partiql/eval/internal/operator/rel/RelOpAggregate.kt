@@ -5,23 +5,40 @@ import org.partiql.eval.ExprRelation
 import org.partiql.eval.ExprValue
 import org.partiql.eval.Row
 import org.partiql.eval.internal.helpers.DatumArrayComparator
+import org.partiql.eval.internal.helpers.DistinctSet
+import org.partiql.eval.internal.helpers.PErrors
 import org.partiql.eval.internal.helpers.checkInterrupted
 import org.partiql.eval.internal.operator.Aggregate
 import org.partiql.spi.function.Accumulator
 import org.partiql.spi.value.Datum
+import java.util.Collections
 import java.util.TreeMap
-import java.util.TreeSet
 
+/**
+ * Hash aggregation, which reads its [input] into one set of accumulators per group.
+ *
+ * The sets of values seen by `DISTINCT` aggregates cannot be spilled, so once their estimated size exceeds the
+ * [memoryLimit], the aggregation fails with [org.partiql.spi.errors.PError.MEMORY_LIMIT_EXCEEDED].
+ *
+ * @param memoryLimit the number of bytes the sets of `DISTINCT` aggregates may retain, across all groups.
+ */
 internal class RelOpAggregate(
     private val input: ExprRelation,
     private val aggregates: List<Aggregate>,
     private val groups: List<ExprValue>,
+    private val memoryLimit: Long = Long.MAX_VALUE,
 ) : ExprRelation {
 
     private lateinit var records: Iterator<Row>
 
     private val aggregationMap = TreeMap<Array<Datum>, List<AccumulatorWrapper>>(DatumArrayComparator)
 
+    /**
+     * The estimated number of bytes retained by the sets of values seen by `DISTINCT` aggregates, across all groups.
+     */
+    internal var distinctBytes: Long = 0
+        private set
+
     /**
      * Wraps an [Accumulator] to help with filtering distinct values.
      *
@@ -30,7 +47,7 @@ internal class RelOpAggregate(
     class AccumulatorWrapper(
         val delegate: Accumulator,
         val args: List<ExprValue>,
-        val seen: TreeSet<Array<Datum>>?
+        val seen: DistinctSet?
     )
 
     override fun open(env: Environment) {
@@ -53,7 +70,7 @@ internal class RelOpAggregate(
                     AccumulatorWrapper(
                         delegate = it.agg.accumulator,
                         args = it.args,
-                        seen = if (it.distinct) TreeSet(DatumArrayComparator) else null
+                        seen = if (it.distinct) DistinctSet.create(it.types) else null
                     )
                 }
             }
@@ -69,8 +86,15 @@ internal class RelOpAggregate(
                     argument
                 }
                 // Skip over aggregation if DISTINCT and SEEN
-                if (function.seen != null && (function.seen.add(arguments).not())) {
-                    return@forEachIndexed
+                if (function.seen != null) {
+                    val bytes = function.seen.bytes
+                    if (!function.seen.add(arguments)) {
+                        return@forEachIndexed
+                    }
+                    distinctBytes += function.seen.bytes - bytes
+                    if (distinctBytes > memoryLimit) {
+                        throw PErrors.memoryLimitExceededException(memoryLimit)
+                    }
                 }
                 accumulators[index].delegate.next(arguments)
             }
@@ -107,7 +131,9 @@ internal class RelOpAggregate(
     }
 
     override fun close() {
+        records = Collections.emptyIterator()
         aggregationMap.clear()
+        distinctBytes = 0
         input.close()
     }
 }
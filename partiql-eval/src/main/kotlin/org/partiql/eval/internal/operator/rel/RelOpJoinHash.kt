@@ -0,0 +1,394 @@
+package org.partiql.eval.internal.operator.rel
+
+import org.partiql.eval.Environment
+import org.partiql.eval.ExprRelation
+import org.partiql.eval.ExprValue
+import org.partiql.eval.Row
+import org.partiql.eval.internal.helpers.DatumArrayComparator
+import org.partiql.eval.internal.helpers.RuntimeFilter
+import org.partiql.eval.internal.helpers.ValueUtility.isTrue
+import org.partiql.eval.internal.helpers.checkInterrupted
+import org.partiql.eval.internal.plan.PJoinType
+import org.partiql.eval.internal.spill.DatumCodec
+import org.partiql.eval.internal.spill.SpillDirectory
+import org.partiql.eval.internal.spill.SpillFile
+import org.partiql.plan.rel.RelType
+import org.partiql.spi.value.Datum
+import java.nio.file.Path
+import java.util.BitSet
+
+/**
+ * Grace hash join, for inner, left, right, and full outer equi-joins.
+ *
+ * The [rhs] is read into a hash table of its keys, then each row of the [lhs] is joined with the rows of the [rhs]
+ * with the same keys; the [condition] is evaluated on each of those pairs, as it may have conjuncts other than the
+ * equality of the keys. A row whose keys have a NULL or MISSING value never matches; it is only padded for an outer
+ * join.
+ *
+ * If there is a [spillDirectory] and the estimated size of the hash table exceeds the [memoryLimit], both inputs are
+ * partitioned by the hash of their keys into temporary files, and each partition of the [rhs] is joined with the same partition of the [lhs]. A
+ * partition which still exceeds the [memoryLimit] is partitioned again by other bits of the hash, unless all of its
+ * rows have the same bits, e.g. because they have the same keys; such a partition is joined in memory. The files are
+ * deleted when the join completes, fails, or is closed. Without a [spillDirectory], the hash table is held in memory
+ * whatever its size.
+ *
+ * If either input is empty, the keys of the other are not evaluated, as a nested-loop join would not evaluate its
+ * condition; in strict mode, they could raise errors. The other input is then only read to pad its rows for an outer
+ * join. The [lhs] is opened first to find whether it is empty.
+ *
+ * If the join has a runtime [filter], the filter is built from the keys of the [rhs] and published before the [lhs] is
+ * read past its first row, so that the operator which tests it can drop the rows of the [lhs] which cannot match; every
+ * row passes the filter until it is published.
+ *
+ * @param lhsKeys the keys of the [lhs], evaluated on its rows.
+ * @param rhsKeys the keys of the [rhs], evaluated on its rows.
+ * @param memoryLimit the number of bytes the hash table may retain before the inputs are spilled.
+ * @param spillDirectory the directory of the temporary files, or null if the inputs are never spilled.
+ * @param filter the runtime filter of the [lhs], if the unmatched rows of the [lhs] are dropped.
+ */
+internal class RelOpJoinHash(
+    private val lhs: ExprRelation,
+    private val rhs: ExprRelation,
+    private val lhsKeys: List<ExprValue>,
+    private val rhsKeys: List<ExprValue>,
+    private val condition: ExprValue,
+    joinType: PJoinType,
+    lhsType: RelType,
+    rhsType: RelType,
+    private val memoryLimit: Long,
+    private val spillDirectory: Path?,
+    private val filter: RuntimeFilter? = null,
+) : RelOpPeeking() {
+
+    private val lhsOuter = joinType == PJoinType.LEFT || joinType == PJoinType.FULL
+    private val rhsOuter = joinType == PJoinType.RIGHT || joinType == PJoinType.FULL
+
+    private val lhsPadded: Row = padding(lhsType)
+    private val rhsPadded: Row = padding(rhsType)
+
+    private lateinit var env: Environment
+    private lateinit var iterator: Iterator<Row>
+    private var directory: SpillDirectory? = null
+    private var lhsOpen = false
+
+    override fun openPeeking(env: Environment) {
+        this.env = env
+        filter?.reset()
+        rhs.open(env)
+        iterator = implementation()
+    }
+
+    override fun peek(): Row? {
+        return when (iterator.hasNext()) {
+            true -> iterator.next()
+            false -> null
+        }
+    }
+
+    override fun closePeeking() {
+        if (lhsOpen) lhs.close()
+        lhsOpen = false
+        rhs.close()
+        cleanup()
+        iterator = emptyList<Row>().iterator()
+    }
+
+    /**
+     * GRACE HASH JOIN
+     *
+     * Algorithm:
+     * ```
+     * if lhs is empty:
+     *   pad the rows of rhs, without evaluating their keys
+     * for each row of rhs:
+     *   add the row to the table, or to its partition's file once the table is spilled
+     *   if the table exceeds the memory limit:
+     *     spill the table into 16 partitions by the hash of its keys
+     * publish the runtime filter of the keys of rhs, if any
+     * if the table is not spilled:
+     *   for each row of lhs:
+     *     probe the table with the row
+     * else:
+     *   partition the rows of lhs by the hash of their keys
+     *   for each pair of partitions:
+     *     join them, partitioning them again if the rhs partition exceeds the memory limit
+     * ```
+     * The unmatched rows of an outer side are padded after they are probed, or after the table is probed.
+     */
+    private fun implementation() = iterator {
+        try {
+            lhs.open(env)
+            lhsOpen = true
+            if (!lhs.hasNext()) {
+                if (rhsOuter) {
+                    while (rhs.hasNext()) {
+                        checkInterrupted()
+                        yield(lhsPadded.concat(rhs.next()))
+                    }
+                }
+                return@iterator
+            }
+            val table = Table()
+            var partitions: Array<SpillFile>? = null
+            while (rhs.hasNext()) {
+                checkInterrupted()
+                val row = rhs.next()
+                val keys = keys(row, rhsKeys)
+                if (keys == null) {
+                    if (rhsOuter) yield(lhsPadded.concat(row))
+                    continue
+                }
+                filter?.add(keys)
+                val spilled = partitions
+                if (spilled != null) {
+                    spilled[partition(Key(keys), 0)].write(keys, row.values)
+                    continue
+                }
+                table.add(keys, row)
+                if (spillDirectory != null && table.bytes > memoryLimit) {
+                    partitions = spill(table)
+                }
+            }
+            filter?.publish()
+            val builds = partitions
+            if (builds == null && table.isEmpty()) {
+                if (!lhsOuter) {
+                    return@iterator
+                }
+                while (lhs.hasNext()) {
+                    checkInterrupted()
+                    yield(lhs.next().concat(rhsPadded))
+                }
+                return@iterator
+            }
+            if (builds == null) {
+                while (lhs.hasNext()) {
+                    checkInterrupted()
+                    val row = lhs.next()
+                    probe(table, keys(row, lhsKeys), row)
+                }
+                if (rhsOuter) unmatched(table)
+                return@iterator
+            }
+            val probes = Array(FANOUT) { directory().newFile() }
+            while (lhs.hasNext()) {
+                checkInterrupted()
+                val row = lhs.next()
+                val keys = keys(row, lhsKeys)
+                if (keys == null) {
+                    if (lhsOuter) yield(row.concat(rhsPadded))
+                    continue
+                }
+                probes[partition(Key(keys), 0)].write(keys, row.values)
+            }
+            for (i in 0 until FANOUT) {
+                builds[i].finish()
+                probes[i].finish()
+                join(builds[i], probes[i], 1)
+            }
+        } finally {
+            cleanup()
+        }
+    }
+
+    /**
+     * Joins a partition of the rhs with the same partition of the lhs; the partitions' rows have the same hash bits
+     * up to the given [level].
+     */
+    private suspend fun SequenceScope<Row>.join(build: SpillFile, probe: SpillFile, level: Int) {
+        if (build.count == 0L || probe.count == 0L) {
+            if (lhsOuter) for (record in probe.read()) yield(Row(record.values).concat(rhsPadded))
+            if (rhsOuter) for (record in build.read()) yield(lhsPadded.concat(Row(record.values)))
+            build.delete()
+            probe.delete()
+            return
+        }
+        if (build.bytes > memoryLimit && level < LEVELS) {
+            val builds = repartition(build, level)
+            if (builds.none { it.count == build.count }) {
+                val probes = repartition(probe, level)
+                build.delete()
+                probe.delete()
+                for (i in 0 until FANOUT) {
+                    join(builds[i], probes[i], level + 1)
+                }
+                return
+            }
+            // the rows are skewed; another level would not divide them either
+            builds.forEach { it.delete() }
+        }
+        val table = Table()
+        for (record in build.read()) {
+            checkInterrupted()
+            table.add(record.keys, Row(record.values))
+        }
+        build.delete()
+        for (record in probe.read()) {
+            checkInterrupted()
+            probe(table, record.keys, Row(record.values))
+        }
+        probe.delete()
+        if (rhsOuter) unmatched(table)
+    }
+
+    /**
+     * Yields the row of the lhs joined with each row of the table which matches it, or the row padded if none match.
+     */
+    private suspend fun SequenceScope<Row>.probe(table: Table, keys: Array<Datum>?, row: Row) {
+        var matched = false
+        val bucket = if (keys == null) null else table.get(keys)
+        if (bucket != null) {
+            for (i in bucket.rows.indices) {
+                checkInterrupted()
+                val joined = row.concat(bucket.rows[i])
+                if (condition.eval(env.push(joined)).isTrue()) {
+                    matched = true
+                    bucket.matched.set(i)
+                    yield(joined)
+                }
+            }
+        }
+        if (!matched && lhsOuter) yield(row.concat(rhsPadded))
+    }
+
+    /**
+     * Yields the rows of the table which matched no row of the lhs, padded.
+     */
+    private suspend fun SequenceScope<Row>.unmatched(table: Table) {
+        for (bucket in table.buckets()) {
+            for (i in bucket.rows.indices) {
+                if (!bucket.matched[i]) yield(lhsPadded.concat(bucket.rows[i]))
+            }
+        }
+    }
+
+    /**
+     * @return the table's rows, written to the files of their partitions at the first level.
+     */
+    private fun spill(table: Table): Array<SpillFile> {
+        val files = Array(FANOUT) { directory().newFile() }
+        for ((key, bucket) in table.entries()) {
+            val file = files[partition(key, 0)]
+            for (row in bucket.rows) {
+                file.write(key.values, row.values)
+            }
+        }
+        table.clear()
+        return files
+    }
+
+    /**
+     * @return the file's records, written to the files of their partitions at the given level.
+     */
+    private fun repartition(file: SpillFile, level: Int): Array<SpillFile> {
+        val files = Array(FANOUT) { directory().newFile() }
+        for (record in file.read()) {
+            checkInterrupted()
+            files[partition(Key(record.keys), level)].write(record.keys, record.values)
+        }
+        files.forEach { it.finish() }
+        return files
+    }
+
+    private fun directory(): SpillDirectory = directory ?: SpillDirectory(spillDirectory!!, "partiql-join-").also { directory = it }
+
+    private fun cleanup() {
+        directory?.close()
+        directory = null
+    }
+
+    /**
+     * @return the values of the keys, or null if one of them is NULL or MISSING.
+     */
+    private fun keys(row: Row, keys: List<ExprValue>): Array<Datum>? {
+        val rowEnv = env.push(row)
+        val values = Array(keys.size) { keys[it].eval(rowEnv) }
+        return if (values.any { it.isNull || it.isMissing }) null else values
+    }
+
+    private fun padding(type: RelType): Row {
+        val fields = type.getFields()
+        return Row(fields.indices.map { Datum.nullValue(fields[it].type) }.toTypedArray())
+    }
+
+    /**
+     * The values of a row's keys, hashed with [Datum.hash] and compared with [DatumArrayComparator].
+     */
+    private class Key(val values: Array<Datum>) {
+
+        private val hash = values.fold(1) { acc, v -> 31 * acc + Datum.hash(v) }
+
+        override fun hashCode(): Int = hash
+
+        override fun equals(other: Any?): Boolean {
+            return other is Key && hash == other.hash && DatumArrayComparator.compare(values, other.values) == 0
+        }
+    }
+
+    /**
+     * The rows of the rhs with the same keys, and which of them matched a row of the lhs.
+     */
+    private class Bucket {
+        val rows = ArrayList<Row>(1)
+        val matched = BitSet()
+    }
+
+    /**
+     * A hash table of the rows of the rhs by their keys, which estimates the memory it retains.
+     */
+    private class Table {
+
+        private val buckets = HashMap<Key, Bucket>()
+
+        var bytes: Long = 0
+            private set
+
+        fun add(keys: Array<Datum>, row: Row) {
+            val bucket = buckets.getOrPut(Key(keys)) {
+                bytes += ENTRY + DatumCodec.estimate(keys)
+                Bucket()
+            }
+            bucket.rows.add(row)
+            bytes += REFERENCE + DatumCodec.estimate(row.values)
+        }
+
+        fun get(keys: Array<Datum>): Bucket? = buckets[Key(keys)]
+
+        fun isEmpty(): Boolean = buckets.isEmpty()
+
+        fun buckets(): Collection<Bucket> = buckets.values
+
+        fun entries(): Set<Map.Entry<Key, Bucket>> = buckets.entries
+
+        fun clear() {
+            buckets.clear()
+            bytes = 0
+        }
+    }
+
+    private companion object {
+
+        // the hash map node, the key, and the bucket
+        const val ENTRY = 128L
+        const val REFERENCE = 8L
+
+        // the number of partitions, and of the hash bits which select them at each level
+        const val BITS = 4
+        const val FANOUT = 1 shl BITS
+        const val LEVELS = Int.SIZE_BITS / BITS
+
+        /**
+         * @return the partition of the key at the given level; the key's hash is mixed first, as a hash of a few
+         * integers varies only in its lowest bits.
+         */
+        fun partition(key: Key, level: Int): Int {
+            var h = key.hashCode()
+            h = h xor (h ushr 16)
+            h *= -0x7a143595
+            h = h xor (h ushr 13)
+            h *= -0x3d4d51cb
+            h = h xor (h ushr 16)
+            return (h ushr (BITS * level)) and (FANOUT - 1)
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package org.partiql.eval.internal.operator.rel
+
+import org.partiql.eval.Environment
+import org.partiql.eval.ExprRelation
+import org.partiql.eval.ExprValue
+import org.partiql.eval.Row
+import org.partiql.eval.internal.helpers.ValueUtility.isTrue
+import org.partiql.eval.internal.helpers.checkInterrupted
+import org.partiql.eval.internal.plan.PJoinType
+import org.partiql.plan.rel.RelType
+import org.partiql.spi.value.Datum
+
+/**
+ * Merge join of two inputs which are both sorted by their join keys, for inner, left, right, and full outer equi-joins.
+ *
+ * Both inputs are read once, in step. The rows of the [rhs] with the same keys are buffered, and each row of the [lhs]
+ * with those keys is joined with them; the [condition] is evaluated on each of those pairs, as it may have conjuncts
+ * other than the equality of the keys. A row whose keys have a NULL or MISSING value never matches; it is only padded
+ * for an outer join.
+ *
+ * @param lhsKeys the keys of the [lhs], evaluated on its rows.
+ * @param rhsKeys the keys of the [rhs], evaluated on its rows.
+ * @param desc whether each key is sorted in descending order on both sides.
+ */
+internal class RelOpJoinMerge(
+    private val lhs: ExprRelation,
+    private val rhs: ExprRelation,
+    private val lhsKeys: List<ExprValue>,
+    private val rhsKeys: List<ExprValue>,
+    private val desc: List<Boolean>,
+    private val condition: ExprValue,
+    joinType: PJoinType,
+    lhsType: RelType,
+    rhsType: RelType,
+) : RelOpPeeking() {
+
+    private val lhsOuter = joinType == PJoinType.LEFT || joinType == PJoinType.FULL
+    private val rhsOuter = joinType == PJoinType.RIGHT || joinType == PJoinType.FULL
+
+    private val lhsPadded: Row = padding(lhsType)
+    private val rhsPadded: Row = padding(rhsType)
+
+    private val comparator = Datum.comparator()
+
+    private lateinit var env: Environment
+    private lateinit var iterator: Iterator<Row>
+
+    override fun openPeeking(env: Environment) {
+        this.env = env
+        lhs.open(env)
+        rhs.open(env)
+        iterator = implementation()
+    }
+
+    override fun peek(): Row? {
+        return when (iterator.hasNext()) {
+            true -> iterator.next()
+            false -> null
+        }
+    }
+
+    override fun closePeeking() {
+        lhs.close()
+        rhs.close()
+        iterator = emptyList<Row>().iterator()
+    }
+
+    /**
+     * A row with the values of its keys; the keys are null if one of them is NULL or MISSING.
+     */
+    private class Keyed(val row: Row, val keys: Array<Datum>?)
+
+    /**
+     * MERGE JOIN
+     *
+     * Algorithm:
+     * ```
+     * l, r = first(lhs), first(rhs)
+     * while l:
+     *   skip the rows of rhs with keys less than l.keys
+     *   group = the rows of rhs with keys equal to l.keys
+     *   for each row of lhs with keys equal to l.keys:
+     *     for each row of group:
+     *       if (condition matches):
+     *         yield(lhsRecord + rhsRecord)
+     * ```
+     * The unmatched rows of an outer side are padded as they are passed.
+     */
+    private fun implementation() = iterator {
+        var l = next(lhs, lhsKeys)
+        var r = next(rhs, rhsKeys)
+        while (l != null) {
+            checkInterrupted()
+            val keys = l.keys
+            if (keys == null) {
+                if (lhsOuter) yield(l.row.concat(rhsPadded))
+                l = next(lhs, lhsKeys)
+                continue
+            }
+            // skip the rhs rows which precede the lhs row
+            while (r != null && (r.keys == null || compare(r.keys!!, keys) < 0)) {
+                if (rhsOuter) yield(lhsPadded.concat(r.row))
+                r = next(rhs, rhsKeys)
+            }
+            if (r == null || compare(r.keys!!, keys) > 0) {
+                if (lhsOuter) yield(l.row.concat(rhsPadded))
+                l = next(lhs, lhsKeys)
+                continue
+            }
+            // buffer the rhs rows with the same keys
+            val group = mutableListOf<Row>()
+            while (r != null && r.keys != null && compare(r.keys!!, keys) == 0) {
+                checkInterrupted()
+                group.add(r.row)
+                r = next(rhs, rhsKeys)
+            }
+            val matched = BooleanArray(group.size)
+            while (l != null && l.keys != null && compare(l.keys!!, keys) == 0) {
+                var lhsMatched = false
+                for (i in group.indices) {
+                    checkInterrupted()
+                    val row = l.row.concat(group[i])
+                    if (condition.eval(env.push(row)).isTrue()) {
+                        lhsMatched = true
+                        matched[i] = true
+                        yield(row)
+                    }
+                }
+                if (!lhsMatched && lhsOuter) yield(l.row.concat(rhsPadded))
+                l = next(lhs, lhsKeys)
+            }
+            if (rhsOuter) {
+                for (i in group.indices) {
+                    if (!matched[i]) yield(lhsPadded.concat(group[i]))
+                }
+            }
+        }
+        if (rhsOuter) {
+            while (r != null) {
+                checkInterrupted()
+                yield(lhsPadded.concat(r.row))
+                r = next(rhs, rhsKeys)
+            }
+        }
+    }
+
+    private fun next(input: ExprRelation, keys: List<ExprValue>): Keyed? {
+        if (!input.hasNext()) {
+            return null
+        }
+        val row = input.next()
+        val rowEnv = env.push(row)
+        val values = Array(keys.size) { keys[it].eval(rowEnv) }
+        val absent = values.any { it.isNull || it.isMissing }
+        return Keyed(row, if (absent) null else values)
+    }
+
+    private fun compare(l: Array<Datum>, r: Array<Datum>): Int {
+        for (i in l.indices) {
+            val cmp = comparator.compare(l[i], r[i])
+            if (cmp != 0) {
+                return if (desc[i]) -cmp else cmp
+            }
+        }
+        return 0
+    }
+
+    private fun padding(type: RelType): Row {
+        val fields = type.getFields()
+        return Row(fields.indices.map { Datum.nullValue(fields[it].type) }.toTypedArray())
+    }
+}
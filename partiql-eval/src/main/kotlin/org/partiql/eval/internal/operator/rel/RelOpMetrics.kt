@@ -0,0 +1,52 @@
+package org.partiql.eval.internal.operator.rel
+
+import org.partiql.eval.Environment
+import org.partiql.eval.ExprRelation
+import org.partiql.eval.Row
+import org.partiql.eval.internal.metrics.ExecutionMetrics
+
+/**
+ * Measures the time spent reading the input of a statement's `SELECT`, which is reported when the input is closed.
+ */
+internal class RelOpMetrics(
+    private val input: ExprRelation,
+    private val metrics: ExecutionMetrics,
+) : ExprRelation {
+
+    override fun open(env: Environment) {
+        val start = System.nanoTime()
+        try {
+            input.open(env)
+        } finally {
+            metrics.time += System.nanoTime() - start
+        }
+    }
+
+    override fun hasNext(): Boolean {
+        val start = System.nanoTime()
+        try {
+            return input.hasNext()
+        } finally {
+            metrics.time += System.nanoTime() - start
+        }
+    }
+
+    override fun next(): Row {
+        val start = System.nanoTime()
+        try {
+            return input.next()
+        } finally {
+            metrics.time += System.nanoTime() - start
+        }
+    }
+
+    override fun close() {
+        val start = System.nanoTime()
+        try {
+            input.close()
+        } finally {
+            metrics.time += System.nanoTime() - start
+            metrics.report()
+        }
+    }
+}
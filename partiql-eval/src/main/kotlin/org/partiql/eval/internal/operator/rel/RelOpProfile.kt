@@ -0,0 +1,65 @@
+package org.partiql.eval.internal.operator.rel
+
+import org.partiql.eval.Environment
+import org.partiql.eval.ExprRelation
+import org.partiql.eval.Row
+import org.partiql.eval.internal.profile.ProfileNode
+import org.partiql.eval.internal.profile.Profiler
+
+/**
+ * Measures the rows, opens, time, and allocations of an operator, for `EXPLAIN ANALYZE`.
+ */
+internal class RelOpProfile(
+    private val input: ExprRelation,
+    private val node: ProfileNode,
+    private val profiler: Profiler,
+) : ExprRelation {
+
+    override fun open(env: Environment) {
+        val time = System.nanoTime()
+        val allocated = profiler.allocated()
+        node.opens++
+        try {
+            input.open(env)
+        } finally {
+            measure(time, allocated)
+        }
+    }
+
+    override fun hasNext(): Boolean {
+        val time = System.nanoTime()
+        val allocated = profiler.allocated()
+        try {
+            return input.hasNext()
+        } finally {
+            measure(time, allocated)
+        }
+    }
+
+    override fun next(): Row {
+        val time = System.nanoTime()
+        val allocated = profiler.allocated()
+        try {
+            val row = input.next()
+            node.rows++
+            return row
+        } finally {
+            measure(time, allocated)
+        }
+    }
+
+    override fun close() {
+        val time = System.nanoTime()
+        val allocated = profiler.allocated()
+        try {
+            input.close()
+        } finally {
+            measure(time, allocated)
+        }
+    }
+
+    private fun measure(time: Long, allocated: Long) {
+        node.time += System.nanoTime() - time
+        node.allocated += profiler.allocated() - allocated
+    }
+}
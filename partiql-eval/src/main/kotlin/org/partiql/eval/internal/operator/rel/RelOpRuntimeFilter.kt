@@ -0,0 +1,54 @@
+package org.partiql.eval.internal.operator.rel
+
+import org.partiql.eval.Environment
+import org.partiql.eval.ExprRelation
+import org.partiql.eval.ExprValue
+import org.partiql.eval.Row
+import org.partiql.eval.internal.helpers.RuntimeFilter
+import org.partiql.spi.errors.PRuntimeException
+
+/**
+ * Drops the rows of the probe side of a hash join which cannot match a row of its build side, as tested by the join's
+ * [filter], before they reach the join.
+ *
+ * A row whose keys fail to evaluate is kept; the join evaluates them again, and raises the error if it is reached.
+ *
+ * @param keys the keys of the join's probe side, evaluated on the rows of this operator's input.
+ */
+internal class RelOpRuntimeFilter(
+    private val input: ExprRelation,
+    private val keys: List<ExprValue>,
+    private val filter: RuntimeFilter,
+) : RelOpPeeking() {
+
+    private lateinit var env: Environment
+
+    override fun openPeeking(env: Environment) {
+        this.env = env
+        input.open(env)
+    }
+
+    override fun peek(): Row? {
+        for (row in input) {
+            if (test(row)) {
+                return row
+            }
+        }
+        return null
+    }
+
+    override fun closePeeking() {
+        input.close()
+    }
+
+    private fun test(row: Row): Boolean {
+        val rowEnv = env.push(row)
+        val values = try {
+            Array(keys.size) { keys[it].eval(rowEnv) }
+        } catch (e: PRuntimeException) {
+            return true
+        }
+        val absent = values.any { it.isNull || it.isMissing }
+        return filter.test(if (absent) null else values)
+    }
+}
@@ -0,0 +1,38 @@
+package org.partiql.eval.internal.operator.rel
+
+import org.partiql.eval.Environment
+import org.partiql.eval.ExprRelation
+import org.partiql.eval.Row
+import org.partiql.spi.catalog.Name
+import org.partiql.spi.metrics.MetricsListener
+
+/**
+ * Counts the rows read by a scan of a table, which are reported when the scan is closed.
+ */
+internal class RelOpScanMetrics(
+    private val input: ExprRelation,
+    private val table: Name,
+    private val listener: MetricsListener,
+) : ExprRelation {
+
+    private var rows: Long = 0
+
+    override fun open(env: Environment) {
+        rows = 0
+        input.open(env)
+    }
+
+    override fun hasNext(): Boolean = input.hasNext()
+
+    override fun next(): Row {
+        val row = input.next()
+        rows++
+        return row
+    }
+
+    override fun close() {
+        input.close()
+        listener.scanned(table, rows)
+        rows = 0
+    }
+}
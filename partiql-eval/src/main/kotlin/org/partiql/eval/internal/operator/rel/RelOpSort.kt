@@ -70,6 +70,7 @@ internal class RelOpSort(
 
     override fun close() {
         init = false
+        records = Collections.emptyIterator()
         input.close()
     }
 }
@@ -0,0 +1,173 @@
+package org.partiql.eval.internal.operator.rel
+
+import org.partiql.eval.Environment
+import org.partiql.eval.ExprRelation
+import org.partiql.eval.ExprValue
+import org.partiql.eval.Row
+import org.partiql.eval.WindowFunction
+import org.partiql.eval.internal.helpers.PErrors
+import org.partiql.spi.errors.PError
+import org.partiql.spi.errors.PErrorKind
+import org.partiql.spi.errors.PRuntimeException
+import org.partiql.spi.errors.Severity
+import java.util.concurrent.ArrayBlockingQueue
+import java.util.concurrent.Callable
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.Future
+import java.util.concurrent.LinkedBlockingQueue
+import java.util.concurrent.ThreadFactory
+import java.util.concurrent.ThreadPoolExecutor
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Like [RelOpWindow], but the partitions are evaluated by a pool of [parallelism] worker threads.
+ *
+ * The partitions are read on the calling thread, and small partitions are batched into a single task. At most twice
+ * [parallelism] tasks are in flight, so that the number of materialized partitions is bounded. The results are emitted
+ * in the order of the partitions, so the output is the same as the output of [RelOpWindow].
+ *
+ * Assume input has been sorted.
+ *
+ * @param functions creates a new instance of the window functions; each worker has its own instance, as the functions
+ * are stateful.
+ */
+internal class RelOpWindowParallel(
+    input: ExprRelation,
+    partitionBy: List<ExprValue>,
+    sortBy: List<Collation>,
+    private val parallelism: Int,
+    functions: () -> List<WindowFunction>,
+) : RelOpPeeking() {
+
+    private companion object {
+
+        /**
+         * The minimum number of rows of a task; smaller partitions are batched together.
+         */
+        const val BATCH_SIZE = 1024
+
+        /**
+         * Names the worker threads.
+         */
+        val THREAD_ID = AtomicInteger()
+    }
+
+    private val partitions = WindowPartitionReader(input, partitionBy, sortBy)
+
+    /**
+     * The instances of the window functions, which are taken by a worker for the duration of a task.
+     */
+    private val workers = ArrayBlockingQueue<List<WindowFunction>>(parallelism).also { queue ->
+        repeat(parallelism) { queue.add(functions()) }
+    }
+
+    private var executor: ThreadPoolExecutor? = null
+
+    /**
+     * The tasks that have been submitted, in the order of their partitions.
+     */
+    private val pending = ArrayDeque<Future<List<Row>>>()
+
+    private var results: Iterator<Row> = emptyList<Row>().iterator()
+
+    private var exhausted = false
+
+    private lateinit var _env: Environment
+
+    override fun openPeeking(env: Environment) {
+        partitions.open(env)
+        this._env = env
+        results = emptyList<Row>().iterator()
+        exhausted = false
+    }
+
+    override fun peek(): Row? {
+        while (!results.hasNext()) {
+            submit()
+            val task = pending.removeFirstOrNull() ?: return null
+            results = await(task).iterator()
+        }
+        return results.next()
+    }
+
+    override fun closePeeking() {
+        pending.forEach { it.cancel(true) }
+        pending.clear()
+        executor?.shutdownNow()
+        executor = null
+        results = emptyList<Row>().iterator()
+        partitions.close()
+    }
+
+    /**
+     * Reads the input until [pending] is full or the input is exhausted.
+     */
+    private fun submit() {
+        while (!exhausted && pending.size < parallelism * 2) {
+            val batch = mutableListOf<WindowPartitionReader.Partition>()
+            var rows = 0L
+            while (rows < BATCH_SIZE) {
+                val partition = partitions.next()
+                if (partition == null) {
+                    exhausted = true
+                    break
+                }
+                batch.add(partition)
+                rows += partition.size()
+            }
+            if (batch.isEmpty()) {
+                break
+            }
+            val env = _env
+            pending.addLast(executor().submit(Callable { evaluate(batch, env) }))
+        }
+    }
+
+    /**
+     * Evaluates the window functions over each partition of the [batch]; this runs on a worker thread.
+     */
+    private fun evaluate(batch: List<WindowPartitionReader.Partition>, env: Environment): List<Row> {
+        val functions = workers.take()
+        try {
+            val rows = ArrayList<Row>()
+            for (partition in batch) {
+                if (Thread.currentThread().isInterrupted) {
+                    break
+                }
+                functions.forEach { it.reset(partition) }
+                for (i in 0 until partition.size()) {
+                    rows.add(partition.produceResult(i, functions, env))
+                }
+            }
+            return rows
+        } finally {
+            workers.put(functions)
+        }
+    }
+
+    private fun await(task: Future<List<Row>>): List<Row> {
+        try {
+            return task.get()
+        } catch (e: InterruptedException) {
+            throw PRuntimeException(PError(PError.INTERRUPTED, Severity.ERROR(), PErrorKind.EXECUTION(), null, emptyMap()))
+        } catch (e: ExecutionException) {
+            when (val cause = e.cause) {
+                is PRuntimeException -> throw cause
+                else -> throw PErrors.internalErrorException(cause ?: e)
+            }
+        }
+    }
+
+    private fun executor(): ThreadPoolExecutor {
+        executor?.let { return it }
+        val factory = ThreadFactory { runnable ->
+            Thread(runnable, "partiql-window-${THREAD_ID.incrementAndGet()}").apply { isDaemon = true }
+        }
+        val pool = ThreadPoolExecutor(parallelism, parallelism, 30L, TimeUnit.SECONDS, LinkedBlockingQueue(), factory)
+        // the threads of an unclosed relation do not outlive it
+        pool.allowCoreThreadTimeOut(true)
+        executor = pool
+        return pool
+    }
+}
@@ -0,0 +1,155 @@
+package org.partiql.eval.internal.operator.rel
+
+import org.partiql.eval.Environment
+import org.partiql.eval.ExprRelation
+import org.partiql.eval.ExprValue
+import org.partiql.eval.Row
+import org.partiql.eval.WindowFunction
+import org.partiql.eval.WindowPartition
+import org.partiql.eval.internal.helpers.DatumArrayComparator
+import org.partiql.eval.internal.helpers.checkInterrupted
+
+/**
+ * Reads the partitions of a window's input, which has been sorted by the partition keys then by the sort keys.
+ *
+ * Each partition is materialized, along with its ordering groups, i.e. the runs of rows with the same sort keys.
+ * A partition is held in memory in its entirety, as the window functions read its rows by position; it is not
+ * spilled to disk, so a single partition must fit in memory whatever the memory limit of the context.
+ */
+internal class WindowPartitionReader(
+    private val input: ExprRelation,
+    private val partitionBy: List<ExprValue>,
+    private val sortBy: List<Collation>,
+) {
+
+    private companion object {
+        private val comparator = DatumArrayComparator
+    }
+
+    private lateinit var env: Environment
+
+    /**
+     * When lazily creating the partition, we need to step out-of-bounds from the current partition to know
+     * whether we are in a new partition. So, we need to put the out-of-bounds row into a place to be used
+     * when creating the next partition.
+     */
+    private var leftoverRow: Row? = null
+
+    fun open(env: Environment) {
+        input.open(env)
+        this.env = env
+        leftoverRow = null
+    }
+
+    fun close() {
+        input.close()
+    }
+
+    /**
+     * @return the next partition of the input, or null if the input has been exhausted.
+     */
+    fun next(): Partition? {
+        // Create new partition's first row
+        var partitionCreationIndex = 0L
+        val partition = Partition()
+        val firstRow = when {
+            leftoverRow != null -> {
+                val tempRow = leftoverRow!!
+                leftoverRow = null
+                tempRow
+            }
+            else -> when (input.hasNext()) {
+                true -> input.next()
+                false -> return null
+            }
+        }
+        var previousInfoIndex = partition.add(OrderingInfo(partitionCreationIndex))
+        partition.add(firstRow, previousInfoIndex)
+        val newEnv = env.push(firstRow)
+        val firstRowPartitionKeys = Array(partitionBy.size) { partitionBy[it].eval(newEnv) }
+        var previousRowSortKeys = Array(sortBy.size) { sortBy[it].expr.eval(newEnv) }
+
+        // Add partition's remaining rows
+        while (input.hasNext()) {
+            checkInterrupted()
+            partitionCreationIndex++
+            val nextRow = input.next()
+            val nextEnv = env.push(nextRow)
+
+            // Stop (and save spillover row) if at next partition
+            val nextPartitionKeys = Array(partitionBy.size) { partitionBy[it].eval(nextEnv) }
+            val isNewPartition = comparator.compare(firstRowPartitionKeys, nextPartitionKeys) != 0
+            if (isNewPartition) {
+                leftoverRow = nextRow
+                break
+            }
+
+            // Add next row to partition and update ordering info (if we have reached the next sort group)
+            val nextSortKeys = Array(sortBy.size) { sortBy[it].expr.eval(nextEnv) }
+            val isNewSortGroup = comparator.compare(previousRowSortKeys, nextSortKeys) != 0
+            if (isNewSortGroup) {
+                partition.getOrderingInfo(previousInfoIndex).orderingEnd = partitionCreationIndex - 1
+                previousRowSortKeys = nextSortKeys
+                val nextInfo = OrderingInfo(partitionCreationIndex)
+                previousInfoIndex = partition.add(nextInfo)
+            }
+            partition.add(nextRow, previousInfoIndex)
+        }
+        partition.getOrderingInfo(previousInfoIndex).orderingEnd = partition.size() - 1
+        return partition
+    }
+
+    internal class Partition : WindowPartition {
+        private val rows: MutableList<Row> = mutableListOf()
+        private val orderingInfo: MutableList<OrderingInfo> = mutableListOf()
+        private val orderingMap = mutableListOf<Int>()
+
+        fun add(row: Row, info: Int): Int {
+            val toReturn = rows.size
+            rows.add(row)
+            orderingMap.add(info)
+            return toReturn
+        }
+
+        override operator fun get(index: Long): Row {
+            return rows[index.toInt()]
+        }
+
+        fun add(info: OrderingInfo): Int {
+            val toReturn = orderingInfo.size
+            orderingInfo.add(info)
+            return toReturn
+        }
+
+        fun getOrderingInfo(infoIndex: Int): OrderingInfo {
+            return orderingInfo[infoIndex]
+        }
+
+        fun getInfo(index: Int): OrderingInfo {
+            return orderingInfo[orderingMap[index]]
+        }
+
+        override fun size(): Long {
+            return rows.size.toLong()
+        }
+
+        /**
+         * This produces the result of the row at [index], i.e. the row followed by the results of the [functions],
+         * which have been reset with this partition.
+         */
+        fun produceResult(index: Long, functions: List<WindowFunction>, env: Environment): Row {
+            val row = get(index)
+            val info = getInfo(index.toInt())
+            val newEnv = env.push(row)
+            val results = Array(functions.size) { functions[it].eval(newEnv, info.orderingStart, info.orderingEnd) }
+            return row.concat(Row.of(*results))
+        }
+    }
+
+    internal class OrderingInfo(
+        start: Long,
+    ) {
+        var orderingStart: Long = start
+        var orderingEnd: Long = 0
+    }
+}
@@ -86,6 +86,38 @@ internal object CastTable {
         }
     }
 
+    /**
+     * Returns the cast from the [source] type code to the [target] type code, or null if the cast is not supported.
+     * Unlike [cast], the returned function does not handle null and missing values, nor wrap unexpected errors.
+     */
+    public fun get(source: Int, target: Int): ((Datum, PType) -> Datum)? = _table[source][target]
+
+    /**
+     * Returns true if a cast from the [source] type to the [target] type returns its input unchanged, in which case the
+     * cast of an operand of the [source] type may be elided.
+     */
+    public fun isIdentity(source: PType, target: PType): Boolean = source.code() in IDENTITY_TYPES && source == target
+
+    /**
+     * Returns the value of a string of at most 18 decimal digits, with an optional sign, or null if the string must be
+     * parsed as any other number. This is the common case of casting a string to an exact numeric type.
+     */
+    public fun longFromString(str: String): Long? {
+        val start = if (str.isNotEmpty() && (str[0] == '-' || str[0] == '+')) 1 else 0
+        if (str.length == start || str.length - start > 18) {
+            return null
+        }
+        var value = 0L
+        for (i in start until str.length) {
+            val digit = str[i] - '0'
+            if (digit < 0 || digit > 9) {
+                return null
+            }
+            value = value * 10 + digit
+        }
+        return if (str[0] == '-') -value else value
+    }
+
     private val TYPES = PType.codes()
     private val SIZE = TYPES.size
     private val TYPE_NAME_MAX_LENGTH = TYPES.maxOf { it.toString().length }
@@ -585,6 +617,9 @@ internal object CastTable {
 
     private val TEXT_TYPES = setOf(STRING, CHAR, VARCHAR, CLOB)
 
+    // the types whose cast to themselves is registered as the identity
+    private val IDENTITY_TYPES = setOf(BOOL, TINYINT, SMALLINT, INTEGER, BIGINT, REAL, DOUBLE, STRING, STRUCT, ROW, BAG, ARRAY, VARIANT)
+
     private fun register(source: Int, target: Int, cast: (Datum, PType) -> Datum) {
         _table[source][target] = cast
     }
@@ -0,0 +1,39 @@
+package org.partiql.eval.internal.operator.rex
+
+import org.partiql.eval.Environment
+import org.partiql.eval.ExprValue
+import org.partiql.spi.types.PType
+import org.partiql.spi.value.Datum
+
+/**
+ * Implementation of a CAST of a number or a string to DOUBLE PRECISION, which converts the operand directly rather than
+ * looking up the cast in the [CastTable]. Any other value is cast by the [CastTable].
+ *
+ * @param operand
+ */
+internal class ExprCastDouble(private val operand: ExprValue) : ExprValue {
+
+    private val target = PType.doublePrecision()
+
+    override fun eval(env: Environment): Datum {
+        val value = operand.eval(env)
+        if (value.isNull) {
+            return Datum.nullValue(target)
+        }
+        if (value.isMissing) {
+            return Datum.missing(target)
+        }
+        val double = when (value.type.code()) {
+            PType.TINYINT -> value.byte.toDouble()
+            PType.SMALLINT -> value.short.toDouble()
+            PType.INTEGER -> value.int.toDouble()
+            PType.BIGINT -> value.long.toDouble()
+            PType.NUMERIC, PType.DECIMAL -> value.bigDecimal.toDouble()
+            PType.REAL -> value.float.toDouble()
+            PType.DOUBLE -> return value
+            PType.STRING -> CastTable.longFromString(value.string)?.toDouble() ?: return CastTable.cast(value, target)
+            else -> return CastTable.cast(value, target)
+        }
+        return Datum.doublePrecision(double)
+    }
+}
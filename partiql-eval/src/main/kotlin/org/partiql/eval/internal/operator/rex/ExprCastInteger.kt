@@ -0,0 +1,61 @@
+package org.partiql.eval.internal.operator.rex
+
+import org.partiql.eval.Environment
+import org.partiql.eval.ExprValue
+import org.partiql.eval.internal.helpers.PErrors
+import org.partiql.spi.types.PType
+import org.partiql.spi.value.Datum
+
+/**
+ * Implementation of a CAST of an exact integer or a string to TINYINT, SMALLINT, INT, or BIGINT, which reads the
+ * operand as a long rather than looking up the cast in the [CastTable]. Any other value is cast by the [CastTable].
+ *
+ * @param operand
+ * @param target an integer type.
+ */
+internal class ExprCastInteger(
+    private val operand: ExprValue,
+    private val target: PType,
+) : ExprValue {
+
+    private val code = target.code()
+
+    override fun eval(env: Environment): Datum {
+        val value = operand.eval(env)
+        if (value.isNull) {
+            return Datum.nullValue(target)
+        }
+        if (value.isMissing) {
+            return Datum.missing(target)
+        }
+        val long = when (value.type.code()) {
+            PType.TINYINT -> value.byte.toLong()
+            PType.SMALLINT -> value.short.toLong()
+            PType.INTEGER -> value.int.toLong()
+            PType.BIGINT -> value.long
+            PType.STRING -> CastTable.longFromString(value.string) ?: return CastTable.cast(value, target)
+            else -> return CastTable.cast(value, target)
+        }
+        return when (code) {
+            PType.TINYINT -> {
+                if (long < Byte.MIN_VALUE || long > Byte.MAX_VALUE) {
+                    throw PErrors.numericOutOfRangeException(long.toString(), PType.tinyint())
+                }
+                Datum.tinyint(long.toByte())
+            }
+            PType.SMALLINT -> {
+                if (long < Short.MIN_VALUE || long > Short.MAX_VALUE) {
+                    throw PErrors.numericOutOfRangeException(long.toString(), PType.smallint())
+                }
+                Datum.smallint(long.toShort())
+            }
+            PType.INTEGER -> {
+                if (long < Int.MIN_VALUE || long > Int.MAX_VALUE) {
+                    throw PErrors.numericOutOfRangeException(long.toString(), PType.integer())
+                }
+                Datum.integer(long.toInt())
+            }
+            else -> Datum.bigint(long)
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package org.partiql.eval.internal.operator.rex
+
+import org.partiql.eval.Environment
+import org.partiql.eval.ExprValue
+import org.partiql.eval.internal.helpers.PErrors
+import org.partiql.spi.errors.PRuntimeException
+import org.partiql.spi.types.PType
+import org.partiql.spi.value.Datum
+
+/**
+ * Implementation of a CAST expression whose operand type is known when the plan is compiled, so the cast is looked up
+ * once rather than for each value. A value of another type than [source] is cast by the [CastTable].
+ *
+ * @param operand
+ * @param source the type code of the operand.
+ * @param target
+ * @param cast the cast from [source] to [target].
+ */
+internal class ExprCastStatic(
+    private val operand: ExprValue,
+    private val source: Int,
+    private val target: PType,
+    private val cast: (Datum, PType) -> Datum,
+) : ExprValue {
+
+    override fun eval(env: Environment): Datum {
+        val value = operand.eval(env)
+        if (value.isNull) {
+            return Datum.nullValue(target)
+        }
+        if (value.isMissing) {
+            return Datum.missing(target)
+        }
+        if (value.type.code() != source) {
+            return CastTable.cast(value, target)
+        }
+        return try {
+            cast.invoke(value, target)
+        } catch (e: PRuntimeException) {
+            throw e
+        } catch (t: Throwable) {
+            throw PErrors.internalErrorException(t)
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package org.partiql.eval.internal.operator.rex
+
+import org.partiql.eval.Environment
+import org.partiql.eval.ExprValue
+import org.partiql.eval.internal.helpers.DatumUtils.lowerSafe
+import org.partiql.spi.types.PType
+import org.partiql.spi.value.Datum
+import java.math.BigDecimal
+
+/**
+ * Implementation of `value IN collection` where the collection is a constant, e.g. a list of literals.
+ *
+ * The elements are indexed once, when the expression is compiled, so that each evaluation is a membership test rather
+ * than a scan of the collection. Elements which compare equal under [Datum.comparator] share a hash key: integers and
+ * integral decimals become [Long]s, other decimals become [BigDecimal]s without trailing zeros, text values become
+ * [String]s, and booleans become [Boolean]s. Elements of any other type (e.g. approximate numerics, datetimes, or
+ * collections) are kept in an array sorted by the comparator, which is searched with a binary search.
+ *
+ * The result follows the same three-valued logic as `in_collection`: `FALSE` if the collection is empty, otherwise
+ * `TRUE` if an element equals the value, otherwise `NULL` if the value or any element is unknown, otherwise `FALSE`.
+ *
+ * @property value the left-hand side.
+ * @param elements the elements of the collection.
+ */
+internal class ExprInCollection(
+    private val value: ExprValue,
+    elements: Iterable<Datum>,
+) : ExprValue {
+
+    private val comparator = Datum.comparator()
+
+    private var empty = true
+
+    private var unknown = false
+
+    /**
+     * The hash keys of the hashable elements.
+     */
+    private val keys = HashSet<Any>()
+
+    /**
+     * The elements without a hash key, sorted by the comparator.
+     */
+    private val others: Array<Datum>
+
+    /**
+     * Every known element, sorted by the comparator; only used to probe for values without a hash key.
+     */
+    private val all: Array<Datum>
+
+    init {
+        val others = mutableListOf<Datum>()
+        val all = mutableListOf<Datum>()
+        for (element in elements) {
+            empty = false
+            val e = element.lowerSafe()
+            if (e.isNull || e.isMissing) {
+                unknown = true
+                continue
+            }
+            all.add(e)
+            val key = key(e)
+            if (key != null) keys.add(key) else others.add(e)
+        }
+        this.others = others.sortedWith(comparator).toTypedArray()
+        this.all = all.sortedWith(comparator).toTypedArray()
+    }
+
+    override fun eval(env: Environment): Datum {
+        if (empty) {
+            return Datum.bool(false)
+        }
+        val v = value.eval(env).lowerSafe()
+        if (v.isNull || v.isMissing) {
+            return Datum.nullValue(PType.bool())
+        }
+        val key = key(v)
+        val found = when {
+            // a hashable value may still equal an element without a hash key, e.g. 1 and 1e0
+            key != null -> keys.contains(key) || (others.isNotEmpty() && others.binarySearch(v, comparator) >= 0)
+            else -> all.binarySearch(v, comparator) >= 0
+        }
+        return when {
+            found -> Datum.bool(true)
+            unknown -> Datum.nullValue(PType.bool())
+            else -> Datum.bool(false)
+        }
+    }
+
+    /**
+     * @return the hash key of a known value, or null if its type has no hash key.
+     */
+    private fun key(value: Datum): Any? = when (value.type.code()) {
+        PType.TINYINT -> value.byte.toLong()
+        PType.SMALLINT -> value.short.toLong()
+        PType.INTEGER -> value.int.toLong()
+        PType.BIGINT -> value.long
+        PType.NUMERIC, PType.DECIMAL -> number(value.bigDecimal)
+        PType.CHAR, PType.VARCHAR, PType.STRING -> value.string
+        PType.BOOL -> value.boolean
+        else -> null
+    }
+
+    /**
+     * @return the key of an exact numeric; integral values share the [Long] key of the equal integer.
+     */
+    private fun number(value: BigDecimal): Any {
+        if (value.signum() == 0) {
+            return 0L
+        }
+        val stripped = value.stripTrailingZeros()
+        if (stripped.scale() <= 0) {
+            val integer = stripped.toBigIntegerExact()
+            if (integer.bitLength() < 64) {
+                return integer.toLong()
+            }
+        }
+        return stripped
+    }
+}
@@ -0,0 +1,62 @@
+package org.partiql.eval.internal.operator.rex
+
+import org.partiql.eval.Environment
+import org.partiql.eval.ExprValue
+import org.partiql.eval.internal.helpers.DatumUtils.lowerSafe
+import org.partiql.spi.catalog.Index
+import org.partiql.spi.catalog.Projection
+import org.partiql.spi.catalog.Table
+import org.partiql.spi.value.Datum
+
+/**
+ * Looks up the records of a [Table] in one of its [Index]es, either for a key or for a pair of bounds.
+ *
+ * If the table no longer has the named index, this returns all of the table's records; the filter above the lookup
+ * still applies the original predicate.
+ *
+ * @constructor
+ *
+ * @param table the indexed table.
+ * @param index the name of the index.
+ * @param key the key of an equality lookup, or null for a range lookup.
+ * @param lower the lower bound of a range lookup, or null.
+ * @param lowerInclusive true if the lower bound is inclusive.
+ * @param upper the upper bound of a range lookup, or null.
+ * @param upperInclusive true if the upper bound is inclusive.
+ * @param projection the referenced fields of each record, if the table is scanned with a pruned projection.
+ */
+internal class ExprIndexLookup(
+    table: Table,
+    index: String,
+    key: ExprValue?,
+    lower: ExprValue?,
+    lowerInclusive: Boolean,
+    upper: ExprValue?,
+    upperInclusive: Boolean,
+    projection: Projection?,
+) : ExprValue {
+
+    // DO NOT USE FINAL
+    private var _table = table
+    private var _index: Index? = table.getIndexes().firstOrNull { it.name == index }
+    private var _key = key
+    private var _lower = lower
+    private var _lowerInclusive = lowerInclusive
+    private var _upper = upper
+    private var _upperInclusive = upperInclusive
+    private var _projection = projection
+
+    override fun eval(env: Environment): Datum {
+        val index = _index ?: return _projection?.let { _table.getDatum(it) } ?: _table.getDatum()
+        val key = _key
+        val records = if (key != null) {
+            index.lookup(key.eval(env).lowerSafe())
+        } else {
+            val lower = _lower?.eval(env)?.lowerSafe()
+            val upper = _upper?.eval(env)?.lowerSafe()
+            index.range(lower, _lowerInclusive, upper, _upperInclusive)
+        }
+        val projection = _projection ?: return records
+        return projection.apply(records)
+    }
+}
@@ -0,0 +1,33 @@
+package org.partiql.eval.internal.operator.rex
+
+import org.partiql.eval.Environment
+import org.partiql.eval.ExprValue
+import org.partiql.eval.internal.metrics.ExecutionMetrics
+import org.partiql.eval.internal.spill.DatumCodec
+import org.partiql.spi.value.Datum
+
+/**
+ * Measures the time to evaluate, and the size of, each element of a statement's result.
+ *
+ * @param report true if the expression is the statement itself, whose single value is reported once it is evaluated;
+ * false if it is the constructor of a `SELECT`, whose elements are reported when its input is closed.
+ */
+internal class ExprMetrics(
+    private val input: ExprValue,
+    private val metrics: ExecutionMetrics,
+    private val report: Boolean,
+) : ExprValue {
+
+    override fun eval(env: Environment): Datum {
+        val start = System.nanoTime()
+        val value = input.eval(env)
+        metrics.time += System.nanoTime() - start
+        metrics.rows++
+        // nested collections may be evaluated lazily, so they are not read again
+        metrics.bytes += DatumCodec.estimate(value, collections = false)
+        if (report) {
+            metrics.report()
+        }
+        return value
+    }
+}
@@ -0,0 +1,52 @@
+package org.partiql.eval.internal.operator.rex
+
+import org.partiql.eval.Environment
+import org.partiql.eval.ExprValue
+import org.partiql.eval.internal.helpers.DatumUtils.lowerSafe
+import org.partiql.eval.internal.helpers.PErrors
+import org.partiql.spi.function.FnOverload
+import org.partiql.spi.types.PType
+import org.partiql.spi.value.Datum
+
+/**
+ * Implementation of an n-ary `OR`, which evaluates its operands in order and stops at the first `TRUE`.
+ *
+ * The remaining operands are skipped once the result is known, in both strict and permissive mode, so neither their
+ * errors nor their types are checked; a non-boolean operand which is evaluated is a type error.
+ *
+ * The result follows SQL's three-valued logic, where both `NULL` and `MISSING` are unknown: `TRUE` if any operand is
+ * `TRUE`, otherwise `NULL` if any operand is unknown, otherwise `FALSE`.
+ *
+ * @property args the flattened operands of a chain of `OR`s.
+ * @property overloads the dynamically dispatched `OR` overloads, which are reported if an operand is not a boolean.
+ */
+internal class ExprOr(
+    private var args: Array<ExprValue>,
+    private var overloads: List<FnOverload>,
+) : ExprValue {
+
+    override fun eval(env: Environment): Datum {
+        var unknown = false
+        for (i in args.indices) {
+            val v = eval(i, env)
+            if (v.isNull || v.isMissing) {
+                unknown = true
+            } else if (v.boolean) {
+                return Datum.bool(true)
+            }
+        }
+        return if (unknown) Datum.nullValue(PType.bool()) else Datum.bool(false)
+    }
+
+    private fun eval(i: Int, env: Environment): Datum {
+        val v = args[i].eval(env).lowerSafe()
+        if (!v.isNull && !v.isMissing && v.type.code() != PType.BOOL) {
+            throw PErrors.functionTypeMismatchException(NAME, arrayOf(v.type), overloads)
+        }
+        return v
+    }
+
+    private companion object {
+        const val NAME = "or"
+    }
+}
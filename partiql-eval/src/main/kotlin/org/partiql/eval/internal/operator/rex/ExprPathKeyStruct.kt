@@ -3,6 +3,7 @@ package org.partiql.eval.internal.operator.rex
 import org.partiql.eval.Environment
 import org.partiql.eval.ExprValue
 import org.partiql.eval.internal.helpers.PErrors
+import org.partiql.eval.internal.helpers.ShapeSlot
 import org.partiql.eval.internal.helpers.ValueUtility.check
 import org.partiql.eval.internal.helpers.ValueUtility.checkStruct
 import org.partiql.spi.types.PType
@@ -13,6 +14,8 @@ internal class ExprPathKeyStruct(
     @JvmField val key: ExprValue
 ) : ExprValue {
 
+    private val slot = ShapeSlot(insensitive = false)
+
     override fun eval(env: Environment): Datum {
         return evalWithInput(root.eval(env), env)
     }
@@ -25,6 +28,6 @@ internal class ExprPathKeyStruct(
         }
 
         val keyString = k.string
-        return checkedRoot.get(keyString) ?: throw PErrors.pathKeyFailureException()
+        return slot.get(checkedRoot, keyString) ?: throw PErrors.pathKeyFailureException()
     }
 }
@@ -14,24 +14,35 @@ internal class ExprPermissive(private var expr: ExprValue) :
         return try {
             expr.eval(env)
         } catch (e: PRuntimeException) {
-            val code = e.error.code()
-            when (code) {
-                PError.FUNCTION_NOT_FOUND,
-                PError.FUNCTION_TYPE_MISMATCH,
-                PError.CARDINALITY_VIOLATION,
-                PError.NUMERIC_VALUE_OUT_OF_RANGE,
-                PError.PATH_INDEX_NEVER_SUCCEEDS,
-                PError.PATH_SYMBOL_NEVER_SUCCEEDS,
-                PError.TYPE_UNEXPECTED,
-                PError.UNDEFINED_CAST,
-                PError.INVALID_CHAR_VALUE_FOR_CAST,
-                PError.PATH_KEY_NEVER_SUCCEEDS,
-                PError.MAP_KEY_NOT_FOUND,
-                PError.MAP_KEY_TYPE_MISMATCH -> Datum.missing()
+            when (isDataException(e)) {
+                true -> Datum.missing()
                 else -> throw e
             }
         } catch (e: InvalidOperationException) {
             Datum.missing()
         }
     }
+
+    internal companion object {
+
+        /**
+         * @return true if the error is a data exception, which is `MISSING` in permissive mode.
+         */
+        @JvmStatic
+        fun isDataException(e: PRuntimeException): Boolean = when (e.error.code()) {
+            PError.FUNCTION_NOT_FOUND,
+            PError.FUNCTION_TYPE_MISMATCH,
+            PError.CARDINALITY_VIOLATION,
+            PError.NUMERIC_VALUE_OUT_OF_RANGE,
+            PError.PATH_INDEX_NEVER_SUCCEEDS,
+            PError.PATH_SYMBOL_NEVER_SUCCEEDS,
+            PError.TYPE_UNEXPECTED,
+            PError.UNDEFINED_CAST,
+            PError.INVALID_CHAR_VALUE_FOR_CAST,
+            PError.PATH_KEY_NEVER_SUCCEEDS,
+            PError.MAP_KEY_NOT_FOUND,
+            PError.MAP_KEY_TYPE_MISMATCH -> true
+            else -> false
+        }
+    }
 }
@@ -0,0 +1,23 @@
+package org.partiql.eval.internal.operator.rex
+
+import org.partiql.eval.Environment
+import org.partiql.eval.ExprValue
+import org.partiql.spi.catalog.Projection
+import org.partiql.spi.value.Datum
+
+/**
+ * Narrows the records of a scanned value to the referenced fields of a [Projection].
+ *
+ * @constructor
+ *
+ * @param input the scanned value.
+ * @param projection the referenced fields of each record.
+ */
+internal class ExprProjection(input: ExprValue, projection: Projection) : ExprValue {
+
+    // DO NOT USE FINAL
+    private var _input = input
+    private var _projection = projection
+
+    override fun eval(env: Environment): Datum = _projection.apply(_input.eval(env))
+}
@@ -2,6 +2,7 @@ package org.partiql.eval.internal.operator.rex
 
 import org.partiql.eval.Environment
 import org.partiql.eval.ExprValue
+import org.partiql.spi.catalog.Projection
 import org.partiql.spi.catalog.Table
 import org.partiql.spi.value.Datum
 
@@ -11,11 +12,16 @@ import org.partiql.spi.value.Datum
  * @constructor
  *
  * @param table
+ * @param projection the referenced fields of each record, if the table is scanned with a pruned projection.
  */
-internal class ExprTable(table: Table) : ExprValue {
+internal class ExprTable(table: Table, projection: Projection? = null) : ExprValue {
 
     // DO NOT USE FINAL
     private var _table = table
+    private var _projection = projection
 
-    override fun eval(env: Environment): Datum = _table.getDatum()
+    override fun eval(env: Environment): Datum {
+        val projection = _projection ?: return _table.getDatum()
+        return _table.getDatum(projection)
+    }
 }
@@ -1,5 +1,6 @@
 package org.partiql.eval.internal.plan
 
 import org.partiql.eval.Mode
+import org.partiql.spi.types.PType
 
-internal data class ExecutionPlanImpl(val root: PExpr, val mode: Mode)
+internal data class ExecutionPlanImpl(val root: PExpr, val mode: Mode, val type: PType = PType.dynamic())
@@ -13,8 +13,11 @@ internal sealed class PExpr {
     data class TableRef(val catalogId: Int, val tableId: Int) : PExpr()
     data class TableDirect(val table: Table) : PExpr()
     data class Call(val fn: Fn, val args: List<PExpr>) : PExpr()
+    data class And(val args: List<PExpr>, val overloads: List<FnOverload>) : PExpr()
+    data class Or(val args: List<PExpr>, val overloads: List<FnOverload>) : PExpr()
+    data class InCollection(val value: PExpr, val elements: List<Datum>) : PExpr()
     data class DynamicCall(val name: String, val overloads: List<FnOverload>, val args: List<PExpr>) : PExpr()
-    data class Cast(val operand: PExpr, val target: PType) : PExpr()
+    data class Cast(val operand: PExpr, val source: PType, val target: PType) : PExpr()
     data class Case(val branches: List<Branch>, val default: PExpr?) : PExpr()
     data class Branch(val condition: PExpr, val result: PExpr)
     data class NullIf(val v1: PExpr, val v2: PExpr) : PExpr()
@@ -0,0 +1,140 @@
+package org.partiql.eval.internal.plan
+
+import org.partiql.spi.types.PType
+import org.partiql.spi.value.Datum
+
+/**
+ * Derives the order of a relation's rows from its operators, e.g. a sort, and the operators above it which preserve
+ * the order of their input. The collations of an operator's input are rewritten over the operator's rows; a collation
+ * which cannot be rewritten, e.g. because its column is not projected, ends the ordering.
+ */
+internal object POrdering {
+
+    private val comparator = Datum.comparator()
+
+    fun of(rel: PRel): List<PCollation> = when (rel) {
+        is PRel.Sort -> rel.collations
+        is PRel.Filter -> rel.input.ordering
+        is PRel.Limit -> rel.input.ordering
+        is PRel.Offset -> rel.input.ordering
+        is PRel.Distinct -> rel.input.ordering
+        is PRel.RuntimeFilter -> rel.input.ordering
+        is PRel.Project -> project(rel.input.ordering, rel.projections)
+        is PRel.Scan -> scan(rel.expr)
+        // the rows of the lhs are not reordered by these joins, and the lhs is a prefix of their rows
+        is PRel.Join -> if (preservesLhs(rel.joinType)) rel.lhs.ordering else emptyList()
+        is PRel.MergeJoin -> if (preservesLhs(rel.joinType)) rel.lhs.ordering else emptyList()
+        is PRel.Correlate -> if (preservesLhs(rel.joinType)) rel.lhs.ordering else emptyList()
+        is PRel.Window -> rel.partitions.map { PCollation(it, desc = false, nullsLast = false) } + rel.sorts
+        else -> emptyList()
+    }
+
+    /**
+     * @return true if the [ordering] sorts the rows by the [collations], i.e. a sort by the [collations] is redundant.
+     */
+    fun satisfies(ordering: List<PCollation>, collations: List<PCollation>): Boolean {
+        return collations.size <= ordering.size && collations.indices.all {
+            val o = ordering[it]
+            val c = collations[it]
+            o.desc == c.desc && o.nullsLast == c.nullsLast && same(o.expr, c.expr)
+        }
+    }
+
+    /**
+     * @return true if the expressions are the same, for the expressions which are rewritten by [rewrite]; literals are
+     * compared by value, as [Datum] does not implement [equals].
+     */
+    fun same(a: PExpr, b: PExpr): Boolean = when {
+        a is PExpr.Var && b is PExpr.Var -> a == b
+        a is PExpr.Lit && b is PExpr.Lit -> a.value.type == b.value.type && comparator.compare(a.value, b.value) == 0
+        a is PExpr.PathKey && b is PExpr.PathKey -> same(a.root, b.root) && same(a.key, b.key)
+        a is PExpr.PathIndex && b is PExpr.PathIndex -> same(a.root, b.root) && same(a.index, b.index)
+        a is PExpr.PathSymbol && b is PExpr.PathSymbol -> a.symbol == b.symbol && same(a.root, b.root)
+        a is PExpr.Cast && b is PExpr.Cast -> a.target == b.target && same(a.operand, b.operand)
+        a is PExpr.Call && b is PExpr.Call -> a.fn === b.fn && a.args.size == b.args.size && a.args.indices.all { same(a.args[it], b.args[it]) }
+        else -> false
+    }
+
+    /**
+     * Rewrites an expression over the current row, replacing the sub-expressions which are mapped by [replace]. Only
+     * variables, literals, paths, casts, and function calls are rewritten.
+     *
+     * @return the rewritten expression, or null if it references the current row other than through [replace].
+     */
+    fun rewrite(expr: PExpr, replace: (PExpr) -> PExpr?): PExpr? {
+        replace(expr)?.let { return it }
+        return when (expr) {
+            is PExpr.Lit -> expr
+            is PExpr.PathKey -> PExpr.PathKey(rewrite(expr.root, replace) ?: return null, rewrite(expr.key, replace) ?: return null)
+            is PExpr.PathIndex -> PExpr.PathIndex(rewrite(expr.root, replace) ?: return null, rewrite(expr.index, replace) ?: return null)
+            is PExpr.PathSymbol -> PExpr.PathSymbol(rewrite(expr.root, replace) ?: return null, expr.symbol)
+            is PExpr.Cast -> PExpr.Cast(rewrite(expr.operand, replace) ?: return null, expr.source, expr.target)
+            is PExpr.Call -> PExpr.Call(expr.fn, expr.args.map { rewrite(it, replace) ?: return null })
+            else -> null
+        }
+    }
+
+    private fun preservesLhs(joinType: PJoinType): Boolean = joinType == PJoinType.INNER || joinType == PJoinType.LEFT
+
+    private fun rewrite(collations: List<PCollation>, replace: (PExpr) -> PExpr?): List<PCollation> {
+        val rewritten = mutableListOf<PCollation>()
+        for (collation in collations) {
+            val expr = rewrite(collation.expr, replace) ?: break
+            rewritten.add(collation.copy(expr = expr))
+        }
+        return rewritten
+    }
+
+    /**
+     * A projected expression is replaced by its column, and by a path into its column for a struct's field.
+     */
+    private fun project(ordering: List<PCollation>, projections: List<PExpr>): List<PCollation> {
+        if (ordering.isEmpty()) {
+            return ordering
+        }
+        return rewrite(ordering) { expr ->
+            var column: PExpr? = null
+            for ((i, projection) in projections.withIndex()) {
+                column = when {
+                    same(projection, expr) -> PExpr.Var(0, i)
+                    projection is PExpr.Struct -> field(projection, expr)?.let { PExpr.PathKey(PExpr.Var(0, i), PExpr.Lit(Datum.string(it))) }
+                    else -> null
+                }
+                if (column != null) {
+                    break
+                }
+            }
+            column
+        }
+    }
+
+    /**
+     * @return the key of the struct's field whose value is the expression; the keys must be distinct string literals.
+     */
+    private fun field(struct: PExpr.Struct, expr: PExpr): String? {
+        val keys = struct.fields.map { field ->
+            val key = (field.key as? PExpr.Lit)?.value ?: return null
+            if (key.isNull || key.type.code() != PType.STRING) return null
+            key.string
+        }
+        if (keys.toSet().size != keys.size) {
+            return null
+        }
+        val i = struct.fields.indexOfFirst { same(it.value, expr) }
+        return if (i < 0) null else keys[i]
+    }
+
+    /**
+     * The rows of a scan of a `SELECT VALUE` of a column are the column's values, in the order of the select's input.
+     */
+    private fun scan(expr: PExpr): List<PCollation> {
+        if (expr !is PExpr.Select) {
+            return emptyList()
+        }
+        val constructor = expr.constructor
+        if (constructor !is PExpr.Var || constructor.depth != 0) {
+            return emptyList()
+        }
+        return rewrite(expr.input.ordering) { if (it == constructor) PExpr.Var(0, 0) else null }
+    }
+}
@@ -4,17 +4,56 @@ import org.partiql.eval.ExprRelation
 import org.partiql.plan.Exclusion
 import org.partiql.plan.WindowFunctionSignature
 import org.partiql.plan.rel.RelType
+import org.partiql.spi.catalog.Projection
 import org.partiql.spi.function.Agg
+import org.partiql.spi.types.PType
 
 internal sealed class PRel {
     abstract val type: RelType?
 
-    data class Scan(val expr: PExpr, override val type: RelType? = null) : PRel()
-    data class Iterate(val expr: PExpr, override val type: RelType? = null) : PRel()
+    /**
+     * The order of this relation's rows, as collations over its rows; this is empty when the order is unknown.
+     */
+    val ordering: List<PCollation> by lazy { POrdering.of(this) }
+
+    data class Scan(val expr: PExpr, override val type: RelType? = null, val projection: Projection? = null) : PRel()
+    data class IndexScan(
+        val expr: PExpr,
+        val index: String,
+        val key: PExpr?,
+        val lower: PExpr?,
+        val lowerInclusive: Boolean,
+        val upper: PExpr?,
+        val upperInclusive: Boolean,
+        override val type: RelType? = null,
+        val projection: Projection? = null,
+    ) : PRel()
+    data class Iterate(val expr: PExpr, override val type: RelType? = null, val projection: Projection? = null) : PRel()
     data class Unpivot(val expr: PExpr, override val type: RelType? = null) : PRel()
     data class Filter(val input: PRel, val predicate: PExpr, override val type: RelType? = null) : PRel()
     data class Project(val input: PRel, val projections: List<PExpr>, override val type: RelType? = null) : PRel()
     data class Join(val lhs: PRel, val rhs: PRel, val condition: PExpr, val joinType: PJoinType, override val type: RelType? = null) : PRel()
+    data class MergeJoin(
+        val lhs: PRel,
+        val rhs: PRel,
+        val lhsKeys: List<PExpr>,
+        val rhsKeys: List<PExpr>,
+        val desc: List<Boolean>,
+        val condition: PExpr,
+        val joinType: PJoinType,
+        override val type: RelType? = null,
+    ) : PRel()
+    data class HashJoin(
+        val lhs: PRel,
+        val rhs: PRel,
+        val lhsKeys: List<PExpr>,
+        val rhsKeys: List<PExpr>,
+        val condition: PExpr,
+        val joinType: PJoinType,
+        override val type: RelType? = null,
+        val filter: PRuntimeFilter? = null,
+    ) : PRel()
+    data class RuntimeFilter(val input: PRel, val keys: List<PExpr>, val filter: PRuntimeFilter, override val type: RelType? = null) : PRel()
     data class Correlate(val lhs: PRel, val rhs: PRel, val joinType: PJoinType, override val type: RelType? = null) : PRel()
     data class Sort(val input: PRel, val collations: List<PCollation>, override val type: RelType? = null) : PRel()
     data class Distinct(val input: PRel, override val type: RelType? = null) : PRel()
@@ -25,12 +64,20 @@ internal sealed class PRel {
     data class Intersect(val lhs: PRel, val rhs: PRel, val all: Boolean, override val type: RelType? = null) : PRel()
     data class Except(val lhs: PRel, val rhs: PRel, val all: Boolean, override val type: RelType? = null) : PRel()
     data class Exclude(val input: PRel, val exclusions: List<Exclusion>, override val type: RelType? = null) : PRel()
-    data class Window(val input: PRel, val functions: List<PWindowFn>, val partitions: List<PExpr>, val sorts: List<PCollation>, override val type: RelType? = null) : PRel()
+    data class Window(val input: PRel, val functions: List<PWindowFn>, val partitions: List<PExpr>, val sorts: List<PCollation>, val frame: PWindowFrame? = null, override val type: RelType? = null) : PRel()
     class Custom(val factory: () -> ExprRelation, override val type: RelType? = null) : PRel()
 }
 
 internal data class PCollation(val expr: PExpr, val desc: Boolean, val nullsLast: Boolean)
-internal data class PMeasure(val agg: Agg, val args: List<PExpr>, val distinct: Boolean)
+internal data class PMeasure(val agg: Agg, val args: List<PExpr>, val distinct: Boolean, val types: List<PType> = emptyList())
 internal data class PWindowFn(val signature: WindowFunctionSignature, val args: List<PExpr>)
+internal data class PWindowFrame(val rows: Boolean, val start: PWindowFrameBound, val end: PWindowFrameBound)
+internal data class PWindowFrameBound(val type: Int, val offset: PExpr?)
 
 internal enum class PJoinType { INNER, LEFT, RIGHT, FULL }
+
+/**
+ * Identifies the runtime filter which a [PRel.HashJoin] builds and a [PRel.RuntimeFilter] below it tests; it is
+ * compared by identity.
+ */
+internal class PRuntimeFilter
@@ -0,0 +1,37 @@
+package org.partiql.eval.internal.profile
+
+import org.partiql.eval.Profile
+
+/**
+ * The mutable measurements of an operator, which are accumulated by its [org.partiql.eval.internal.operator.rel.RelOpProfile].
+ */
+internal class ProfileNode(
+    private val name: String,
+    private val children: List<Profile>,
+    private val allocations: Boolean,
+) : Profile {
+
+    @JvmField
+    var opens: Long = 0
+
+    @JvmField
+    var rows: Long = 0
+
+    @JvmField
+    var time: Long = 0
+
+    @JvmField
+    var allocated: Long = 0
+
+    override fun getName(): String = name
+
+    override fun getChildren(): List<Profile> = children
+
+    override fun getOpens(): Long = opens
+
+    override fun getRows(): Long = rows
+
+    override fun getTime(): Long = time
+
+    override fun getAllocatedBytes(): Long = if (allocations) allocated else -1
+}
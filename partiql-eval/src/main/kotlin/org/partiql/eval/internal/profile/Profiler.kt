@@ -0,0 +1,109 @@
+package org.partiql.eval.internal.profile
+
+import org.partiql.eval.ExprRelation
+import org.partiql.eval.Profile
+import org.partiql.eval.internal.operator.rel.RelOpProfile
+import org.partiql.spi.types.PType
+import org.partiql.spi.value.Datum
+import java.lang.management.ManagementFactory
+
+/**
+ * Instruments the relational operators of a plan as they are compiled, for `EXPLAIN ANALYZE`. Each operator is wrapped
+ * in a [RelOpProfile], and its [ProfileNode] is a child of the node of the operator which was being compiled when it
+ * was, i.e. of its parent operator, or of the operator which evaluates its subquery.
+ *
+ * A plan which is not analyzed is compiled without a profiler, so that its operators are not wrapped at all.
+ *
+ * @param allocations true to measure the bytes allocated by the current thread, if the JVM supports it.
+ */
+internal class Profiler(allocations: Boolean) {
+
+    private val threads: com.sun.management.ThreadMXBean? = if (allocations) threads() else null
+
+    // the children of the operators being compiled, the first of which is the statement itself
+    private val stack = ArrayDeque<MutableList<Profile>>().apply { addLast(mutableListOf()) }
+
+    /**
+     * The profile of the statement itself.
+     */
+    val root = ProfileNode("Statement", stack.first(), threads != null)
+
+    /**
+     * Compiles an operator, whose children are compiled by [compile] as well, and wraps it.
+     */
+    fun profile(compile: () -> ExprRelation): ExprRelation {
+        val children = mutableListOf<Profile>()
+        stack.addLast(children)
+        val operator = try {
+            compile()
+        } finally {
+            stack.removeLast()
+        }
+        val node = ProfileNode(name(operator), children, threads != null)
+        stack.last().add(node)
+        return RelOpProfile(operator, node, this)
+    }
+
+    /**
+     * Measures the execution of the statement, whose result is read in full.
+     */
+    fun execute(statement: () -> Datum) {
+        val time = System.nanoTime()
+        val allocated = allocated()
+        root.opens++
+        val result = statement()
+        if (result.type.code() == PType.BAG || result.type.code() == PType.ARRAY) {
+            if (!result.isNull && !result.isMissing) {
+                for (element in result) {
+                    drain(element)
+                    root.rows++
+                }
+            }
+        } else {
+            drain(result)
+            root.rows++
+        }
+        root.time += System.nanoTime() - time
+        root.allocated += allocated() - allocated
+    }
+
+    /**
+     * @return the bytes allocated by the current thread so far; 0 if allocations are not measured.
+     */
+    fun allocated(): Long = threads?.getThreadAllocatedBytes(Thread.currentThread().id) ?: 0
+
+    /**
+     * Reads the nested collections of a value, which may be evaluated lazily.
+     */
+    private fun drain(value: Datum) {
+        if (value.isNull || value.isMissing) {
+            return
+        }
+        when (value.type.code()) {
+            PType.BAG, PType.ARRAY -> value.forEach { drain(it) }
+            PType.STRUCT, PType.ROW -> value.fields.forEach { drain(it.value) }
+            else -> {}
+        }
+    }
+
+    private companion object {
+
+        /**
+         * @return the name of an operator, e.g. `JoinHash` for a [org.partiql.eval.internal.operator.rel.RelOpJoinHash].
+         */
+        fun name(operator: ExprRelation): String = operator.javaClass.simpleName.removePrefix("RelOp").ifEmpty { "Custom" }
+
+        fun threads(): com.sun.management.ThreadMXBean? = try {
+            val threads = ManagementFactory.getThreadMXBean() as? com.sun.management.ThreadMXBean
+            if (threads != null && threads.isThreadAllocatedMemorySupported) {
+                threads.isThreadAllocatedMemoryEnabled = true
+                threads
+            } else {
+                null
+            }
+        } catch (e: LinkageError) {
+            // not a HotSpot-based JVM
+            null
+        }
+    }
+}
@@ -0,0 +1,365 @@
+package org.partiql.eval.internal.spill
+
+import org.partiql.spi.types.IntervalCode
+import org.partiql.spi.types.PType
+import org.partiql.spi.types.PTypeField
+import org.partiql.spi.value.Datum
+import org.partiql.spi.value.Entry
+import org.partiql.spi.value.Field
+import java.io.DataInput
+import java.io.DataOutput
+import java.math.BigDecimal
+import java.math.BigInteger
+import java.time.LocalDate
+import java.time.LocalDateTime
+import java.time.LocalTime
+import java.time.OffsetDateTime
+import java.time.OffsetTime
+import java.time.ZoneOffset
+
+/**
+ * A compact binary encoding of datums, for the rows which an operator spills to temporary files.
+ *
+ * Each datum is written as a tag (a value, NULL, or MISSING), its type with the type's parameters, then its value, so
+ * the datum read back has the same type as the datum written. Scalars are written with [DataOutput] primitives, e.g. a
+ * timestamp is its epoch day and its nanosecond of day. Collections and structs are written with their size, so they
+ * are materialized first. Variants are written as their packed Ion text.
+ *
+ * This encoding is only read by the process which wrote it, so it has no version.
+ */
+internal object DatumCodec {
+
+    private const val VALUE = 0
+    private const val NULL = 1
+    private const val MISSING = 2
+
+    fun writeRow(output: DataOutput, values: Array<Datum>) {
+        output.writeInt(values.size)
+        for (value in values) {
+            write(output, value)
+        }
+    }
+
+    fun readRow(input: DataInput): Array<Datum> {
+        val size = input.readInt()
+        return Array(size) { read(input) }
+    }
+
+    fun write(output: DataOutput, datum: Datum) {
+        val type = datum.type
+        when {
+            datum.isMissing -> output.writeByte(MISSING)
+            datum.isNull -> output.writeByte(NULL)
+            else -> output.writeByte(VALUE)
+        }
+        writeType(output, type)
+        if (!datum.isNull && !datum.isMissing) {
+            writeValue(output, datum, type)
+        }
+    }
+
+    fun read(input: DataInput): Datum {
+        val tag = input.readByte().toInt()
+        val type = readType(input)
+        return when (tag) {
+            MISSING -> Datum.missing(type)
+            NULL -> Datum.nullValue(type)
+            else -> readValue(input, type)
+        }
+    }
+
+    /**
+     * @return the estimated number of bytes retained by the values in memory.
+     */
+    fun estimate(values: Array<Datum>): Long {
+        var bytes = ROW + REFERENCE * values.size
+        for (value in values) {
+            bytes += estimate(value)
+        }
+        return bytes
+    }
+
+    /**
+     * @param collections false to not read the elements of nested collections, which may be evaluated lazily.
+     * @return the estimated number of bytes retained by the value in memory.
+     */
+    fun estimate(datum: Datum, collections: Boolean = true): Long {
+        if (datum.isNull || datum.isMissing) {
+            return DATUM
+        }
+        return when (datum.type.code()) {
+            PType.NUMERIC, PType.DECIMAL -> DATUM + BIG
+            PType.CHAR, PType.VARCHAR, PType.STRING -> DATUM + OBJECT + 2L * datum.string.length
+            PType.CLOB, PType.BLOB -> DATUM + OBJECT + datum.bytes.size
+            PType.ARRAY, PType.BAG -> when (collections) {
+                true -> DATUM + OBJECT + datum.sumOf { REFERENCE + estimate(it) }
+                false -> DATUM + OBJECT
+            }
+            PType.STRUCT, PType.ROW -> DATUM + OBJECT + datum.fields.asSequence().sumOf { OBJECT + 2L * it.name.length + estimate(it.value, collections) }
+            PType.MAP -> DATUM + OBJECT + datum.entries.asSequence().sumOf { OBJECT + estimate(it.key, collections) + estimate(it.value, collections) }
+            PType.VARIANT -> DATUM + BIG
+            else -> DATUM
+        }
+    }
+
+    // the sizes of a row, an object header, a reference, a datum, and a datum's boxed big number
+    private const val ROW = 32L
+    private const val OBJECT = 16L
+    private const val REFERENCE = 8L
+    private const val DATUM = 24L
+    private const val BIG = 48L
+
+    private fun writeType(output: DataOutput, type: PType) {
+        val code = type.code()
+        output.writeByte(code)
+        when (code) {
+            PType.NUMERIC, PType.DECIMAL -> {
+                output.writeInt(type.precision)
+                output.writeInt(type.scale)
+            }
+            PType.CHAR, PType.VARCHAR, PType.CLOB, PType.BLOB -> output.writeInt(type.length)
+            PType.TIME, PType.TIMEZ, PType.TIMESTAMP, PType.TIMESTAMPZ -> output.writeInt(type.precision)
+            PType.ARRAY, PType.BAG -> writeType(output, type.typeParameter)
+            PType.ROW -> {
+                val fields = type.fields
+                output.writeInt(fields.size)
+                for (field in fields) {
+                    writeString(output, field.name)
+                    writeType(output, field.type)
+                }
+            }
+            PType.MAP -> {
+                writeType(output, type.keyType)
+                writeType(output, type.valueType)
+            }
+            PType.INTERVAL_YM -> {
+                output.writeByte(type.intervalCode)
+                output.writeInt(type.precision)
+            }
+            PType.INTERVAL_DT -> {
+                output.writeByte(type.intervalCode)
+                output.writeInt(type.precision)
+                output.writeInt(type.fractionalPrecision)
+            }
+        }
+    }
+
+    private fun readType(input: DataInput): PType {
+        return when (val code = input.readByte().toInt()) {
+            PType.NUMERIC -> PType.numeric(input.readInt(), input.readInt())
+            PType.DECIMAL -> PType.decimal(input.readInt(), input.readInt())
+            PType.CHAR -> PType.character(input.readInt())
+            PType.VARCHAR -> PType.varchar(input.readInt())
+            PType.CLOB -> PType.clob(input.readInt())
+            PType.BLOB -> PType.blob(input.readInt())
+            PType.TIME -> PType.time(input.readInt())
+            PType.TIMEZ -> PType.timez(input.readInt())
+            PType.TIMESTAMP -> PType.timestamp(input.readInt())
+            PType.TIMESTAMPZ -> PType.timestampz(input.readInt())
+            PType.ARRAY -> PType.array(readType(input))
+            PType.BAG -> PType.bag(readType(input))
+            PType.ROW -> {
+                val size = input.readInt()
+                PType.row(List(size) { PTypeField.of(readString(input), readType(input)) })
+            }
+            PType.MAP -> PType.map(readType(input), readType(input))
+            PType.INTERVAL_YM -> {
+                val interval = input.readByte().toInt()
+                val precision = input.readInt()
+                when (interval) {
+                    IntervalCode.YEAR -> PType.intervalYear(precision)
+                    IntervalCode.MONTH -> PType.intervalMonth(precision)
+                    else -> PType.intervalYearMonth(precision)
+                }
+            }
+            PType.INTERVAL_DT -> {
+                val interval = input.readByte().toInt()
+                val precision = input.readInt()
+                val fractional = input.readInt()
+                when (interval) {
+                    IntervalCode.DAY -> PType.intervalDay(precision)
+                    IntervalCode.HOUR -> PType.intervalHour(precision)
+                    IntervalCode.MINUTE -> PType.intervalMinute(precision)
+                    IntervalCode.SECOND -> PType.intervalSecond(precision, fractional)
+                    IntervalCode.DAY_HOUR -> PType.intervalDayHour(precision)
+                    IntervalCode.DAY_MINUTE -> PType.intervalDayMinute(precision)
+                    IntervalCode.DAY_SECOND -> PType.intervalDaySecond(precision, fractional)
+                    IntervalCode.HOUR_MINUTE -> PType.intervalHourMinute(precision)
+                    IntervalCode.HOUR_SECOND -> PType.intervalHourSecond(precision, fractional)
+                    else -> PType.intervalMinuteSecond(precision, fractional)
+                }
+            }
+            else -> PType.of(code)
+        }
+    }
+
+    private fun writeValue(output: DataOutput, datum: Datum, type: PType) {
+        when (type.code()) {
+            PType.BOOL -> output.writeBoolean(datum.boolean)
+            PType.TINYINT -> output.writeByte(datum.byte.toInt())
+            PType.SMALLINT -> output.writeShort(datum.short.toInt())
+            PType.INTEGER -> output.writeInt(datum.int)
+            PType.BIGINT -> output.writeLong(datum.long)
+            PType.NUMERIC, PType.DECIMAL -> {
+                val value = datum.bigDecimal
+                writeBytes(output, value.unscaledValue().toByteArray())
+                output.writeInt(value.scale())
+            }
+            PType.REAL -> output.writeFloat(datum.float)
+            PType.DOUBLE -> output.writeDouble(datum.double)
+            PType.CHAR, PType.VARCHAR, PType.STRING -> writeString(output, datum.string)
+            PType.CLOB, PType.BLOB -> writeBytes(output, datum.bytes)
+            PType.DATE -> output.writeLong(datum.localDate.toEpochDay())
+            PType.TIME -> output.writeLong(datum.localTime.toNanoOfDay())
+            PType.TIMEZ -> {
+                val value = datum.offsetTime
+                output.writeLong(value.toLocalTime().toNanoOfDay())
+                output.writeInt(value.offset.totalSeconds)
+            }
+            PType.TIMESTAMP -> writeDateTime(output, datum.localDateTime)
+            PType.TIMESTAMPZ -> {
+                val value = datum.offsetDateTime
+                writeDateTime(output, value.toLocalDateTime())
+                output.writeInt(value.offset.totalSeconds)
+            }
+            PType.ARRAY, PType.BAG -> {
+                val elements = datum.toList()
+                output.writeInt(elements.size)
+                for (element in elements) {
+                    write(output, element)
+                }
+            }
+            PType.STRUCT, PType.ROW -> {
+                val fields = datum.fields.asSequence().toList()
+                output.writeInt(fields.size)
+                for (field in fields) {
+                    writeString(output, field.name)
+                    write(output, field.value)
+                }
+            }
+            PType.MAP -> {
+                val entries = datum.entries.asSequence().toList()
+                output.writeInt(entries.size)
+                for (entry in entries) {
+                    write(output, entry.key)
+                    write(output, entry.value)
+                }
+            }
+            PType.INTERVAL_YM -> {
+                output.writeInt(datum.years)
+                output.writeInt(datum.months)
+            }
+            PType.INTERVAL_DT -> {
+                output.writeInt(datum.days)
+                output.writeInt(datum.hours)
+                output.writeInt(datum.minutes)
+                output.writeInt(datum.seconds)
+                output.writeInt(datum.nanos)
+            }
+            PType.VARIANT -> writeBytes(output, datum.pack(Charsets.UTF_8))
+            else -> throw IllegalStateException("Cannot spill a value of type $type")
+        }
+    }
+
+    private fun readValue(input: DataInput, type: PType): Datum {
+        return when (type.code()) {
+            PType.BOOL -> Datum.bool(input.readBoolean())
+            PType.TINYINT -> Datum.tinyint(input.readByte())
+            PType.SMALLINT -> Datum.smallint(input.readShort())
+            PType.INTEGER -> Datum.integer(input.readInt())
+            PType.BIGINT -> Datum.bigint(input.readLong())
+            PType.NUMERIC -> Datum.numeric(readDecimal(input), type.precision, type.scale)
+            PType.DECIMAL -> Datum.decimal(readDecimal(input), type.precision, type.scale)
+            PType.REAL -> Datum.real(input.readFloat())
+            PType.DOUBLE -> Datum.doublePrecision(input.readDouble())
+            PType.CHAR -> Datum.character(readString(input), type.length)
+            PType.VARCHAR -> Datum.varchar(readString(input), type.length)
+            PType.STRING -> Datum.string(readString(input))
+            PType.CLOB -> Datum.clob(readBytes(input), type.length)
+            PType.BLOB -> Datum.blob(readBytes(input), type.length)
+            PType.DATE -> Datum.date(LocalDate.ofEpochDay(input.readLong()))
+            PType.TIME -> Datum.time(LocalTime.ofNanoOfDay(input.readLong()), type.precision)
+            PType.TIMEZ -> {
+                val time = LocalTime.ofNanoOfDay(input.readLong())
+                Datum.timez(OffsetTime.of(time, ZoneOffset.ofTotalSeconds(input.readInt())), type.precision)
+            }
+            PType.TIMESTAMP -> Datum.timestamp(readDateTime(input), type.precision)
+            PType.TIMESTAMPZ -> {
+                val dateTime = readDateTime(input)
+                Datum.timestampz(OffsetDateTime.of(dateTime, ZoneOffset.ofTotalSeconds(input.readInt())), type.precision)
+            }
+            PType.ARRAY -> Datum.array(List(input.readInt()) { read(input) })
+            PType.BAG -> Datum.bag(List(input.readInt()) { read(input) })
+            PType.STRUCT -> Datum.struct(List(input.readInt()) { Field.of(readString(input), read(input)) })
+            PType.ROW -> Datum.row(type.fields.toList(), List(input.readInt()) { Field.of(readString(input), read(input)) })
+            PType.MAP -> Datum.map(type.keyType, type.valueType, List(input.readInt()) { Entry.of(read(input), read(input)) })
+            PType.INTERVAL_YM -> {
+                val years = input.readInt()
+                val months = input.readInt()
+                when (type.intervalCode) {
+                    IntervalCode.YEAR -> Datum.intervalYear(years, type.precision)
+                    IntervalCode.MONTH -> Datum.intervalMonth(years * 12 + months, type.precision)
+                    else -> Datum.intervalYearMonth(years, months, type.precision)
+                }
+            }
+            PType.INTERVAL_DT -> readIntervalDayTime(input, type)
+            PType.VARIANT -> Datum.ion(String(readBytes(input), Charsets.UTF_8))
+            else -> throw IllegalStateException("Cannot read a spilled value of type $type")
+        }
+    }
+
+    private fun readIntervalDayTime(input: DataInput, type: PType): Datum {
+        val days = input.readInt()
+        val hours = input.readInt()
+        val minutes = input.readInt()
+        val seconds = input.readInt()
+        val nanos = input.readInt()
+        val p = type.precision
+        val f = type.fractionalPrecision
+        // a datum normalizes its fields, so the leading field of its type is the total of the larger fields
+        val totalHours = days * 24 + hours
+        val totalMinutes = totalHours * 60 + minutes
+        return when (type.intervalCode) {
+            IntervalCode.DAY -> Datum.intervalDay(days, p)
+            IntervalCode.HOUR -> Datum.intervalHour(totalHours, p)
+            IntervalCode.MINUTE -> Datum.intervalMinute(totalMinutes, p)
+            IntervalCode.SECOND -> Datum.intervalSecond(totalMinutes * 60 + seconds, nanos, p, f)
+            IntervalCode.DAY_HOUR -> Datum.intervalDayHour(days, hours, p)
+            IntervalCode.DAY_MINUTE -> Datum.intervalDayMinute(days, hours, minutes, p)
+            IntervalCode.DAY_SECOND -> Datum.intervalDaySecond(days, hours, minutes, seconds, nanos, p, f)
+            IntervalCode.HOUR_MINUTE -> Datum.intervalHourMinute(totalHours, minutes, p)
+            IntervalCode.HOUR_SECOND -> Datum.intervalHourSecond(totalHours, minutes, seconds, nanos, p, f)
+            else -> Datum.intervalMinuteSecond(totalMinutes, seconds, nanos, p, f)
+        }
+    }
+
+    private fun writeDateTime(output: DataOutput, value: LocalDateTime) {
+        output.writeLong(value.toLocalDate().toEpochDay())
+        output.writeLong(value.toLocalTime().toNanoOfDay())
+    }
+
+    private fun readDateTime(input: DataInput): LocalDateTime {
+        val date = LocalDate.ofEpochDay(input.readLong())
+        return LocalDateTime.of(date, LocalTime.ofNanoOfDay(input.readLong()))
+    }
+
+    private fun readDecimal(input: DataInput): BigDecimal {
+        val unscaled = BigInteger(readBytes(input))
+        return BigDecimal(unscaled, input.readInt())
+    }
+
+    private fun writeString(output: DataOutput, value: String) = writeBytes(output, value.toByteArray(Charsets.UTF_8))
+
+    private fun readString(input: DataInput): String = String(readBytes(input), Charsets.UTF_8)
+
+    private fun writeBytes(output: DataOutput, value: ByteArray) {
+        output.writeInt(value.size)
+        output.write(value)
+    }
+
+    private fun readBytes(input: DataInput): ByteArray {
+        val bytes = ByteArray(input.readInt())
+        input.readFully(bytes)
+        return bytes
+    }
+}
@@ -0,0 +1,43 @@
+package org.partiql.eval.internal.spill
+
+import java.io.IOException
+import java.io.UncheckedIOException
+import java.nio.file.Files
+import java.nio.file.Path
+
+/**
+ * A temporary directory, under the [parent] directory, for the files which an operator spills. The directory is created
+ * when the first file is, and [close] closes the files and deletes the directory with its files.
+ *
+ * @param parent the spill directory of the context, see [org.partiql.spi.Context.getSpillDirectory].
+ * @param prefix the prefix of the name of the directory.
+ */
+internal class SpillDirectory(private val parent: Path, private val prefix: String) : AutoCloseable {
+
+    private var path: Path? = null
+    private val files = mutableListOf<SpillFile>()
+
+    /**
+     * @return a new, empty, file in this directory.
+     */
+    fun newFile(): SpillFile {
+        try {
+            val dir = path ?: Files.createTempDirectory(parent, prefix).also { path = it }
+            val file = SpillFile(Files.createTempFile(dir, "partition-", ".bin"))
+            files.add(file)
+            return file
+        } catch (e: IOException) {
+            throw UncheckedIOException(e)
+        }
+    }
+
+    override fun close() {
+        val dir = path ?: return
+        path = null
+        for (file in files) {
+            file.delete()
+        }
+        files.clear()
+        Files.deleteIfExists(dir)
+    }
+}
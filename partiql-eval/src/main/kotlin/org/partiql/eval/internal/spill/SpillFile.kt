@@ -0,0 +1,102 @@
+package org.partiql.eval.internal.spill
+
+import org.partiql.spi.value.Datum
+import java.io.BufferedInputStream
+import java.io.BufferedOutputStream
+import java.io.DataInputStream
+import java.io.DataOutputStream
+import java.io.IOException
+import java.io.UncheckedIOException
+import java.nio.file.Files
+import java.nio.file.Path
+
+/**
+ * A file of spilled records, each the values of a row's keys and the values of the row, encoded by [DatumCodec].
+ *
+ * The records are written, then the file is [finish]ed and its records are read back any number of times. The file
+ * tracks the number of its records and their estimated size in memory, so that an operator can decide whether to read
+ * them all into memory. Files are created and deleted by their [SpillDirectory].
+ */
+internal class SpillFile(private val path: Path) {
+
+    /**
+     * A spilled row with the values of its keys.
+     */
+    class Record(val keys: Array<Datum>, val values: Array<Datum>)
+
+    /**
+     * The number of records in the file.
+     */
+    var count: Long = 0
+        private set
+
+    /**
+     * The estimated number of bytes the records retain in memory.
+     */
+    var bytes: Long = 0
+        private set
+
+    private var output: DataOutputStream? = null
+    private var input: DataInputStream? = null
+
+    fun write(keys: Array<Datum>, values: Array<Datum>) {
+        val output = output ?: open()
+        try {
+            DatumCodec.writeRow(output, keys)
+            DatumCodec.writeRow(output, values)
+        } catch (e: IOException) {
+            throw UncheckedIOException(e)
+        }
+        count++
+        bytes += DatumCodec.estimate(keys) + DatumCodec.estimate(values)
+    }
+
+    /**
+     * Flushes and closes the written records.
+     */
+    fun finish() {
+        output?.close()
+        output = null
+    }
+
+    /**
+     * @return the records of the file, in the order they were written; the file is read as the records are iterated.
+     */
+    fun read(): Iterator<Record> = iterator {
+        if (count == 0L) {
+            return@iterator
+        }
+        input?.close()
+        val input = DataInputStream(BufferedInputStream(Files.newInputStream(path), BUFFER))
+        this@SpillFile.input = input
+        try {
+            for (i in 0 until count) {
+                yield(Record(DatumCodec.readRow(input), DatumCodec.readRow(input)))
+            }
+        } finally {
+            input.close()
+            this@SpillFile.input = null
+        }
+    }
+
+    /**
+     * Closes the file's streams and deletes the file.
+     */
+    fun delete() {
+        output?.close()
+        output = null
+        input?.close()
+        input = null
+        Files.deleteIfExists(path)
+    }
+
+    private fun open(): DataOutputStream {
+        val output = DataOutputStream(BufferedOutputStream(Files.newOutputStream(path), BUFFER))
+        this.output = output
+        return output
+    }
+
+    private companion object {
+        const val BUFFER = 64 * 1024
+    }
+}
@@ -0,0 +1,139 @@
+package org.partiql.eval.internal.vm
+
+import org.partiql.eval.ExprRelation
+import org.partiql.eval.ExprValue
+import org.partiql.spi.Context
+import org.partiql.spi.catalog.ExecutionCatalog
+import org.partiql.spi.catalog.Table
+
+/**
+ * The operator trees of a plan whose executions have finished, so that a later execution can reuse one rather than
+ * compile the plan again.
+ *
+ * A tree is leased by one execution at a time, and is returned once that execution has read its result without error;
+ * a tree whose execution fails or is abandoned is dropped. The operators reset their state when they are opened, so a
+ * returned tree is as good as a new one. A tree is only leased by an execution whose catalogs resolve the same tables,
+ * and whose context compiles the same operators.
+ *
+ * This class is thread-safe.
+ *
+ * @property sequential true to keep a tree which cannot be pooled, e.g. one with a nested `SELECT`, for the next
+ * execution once its own has finished. A statement prepared without catalogs compiles its tree once, and evaluates it
+ * again for each execution; the lazily evaluated values of an execution may then be read after the next one starts.
+ */
+internal class OperatorPool(private val sequential: Boolean = false) {
+
+    private val idle = ArrayDeque<Operators>(CAPACITY)
+
+    /**
+     * The idle tree which cannot be pooled, if [sequential].
+     */
+    private var kept: Operators? = null
+
+    /**
+     * @return an idle tree which may be executed with the given catalogs and context, or null if there is none.
+     */
+    fun lease(catalogs: Array<ExecutionCatalog>, context: Context): Operators? {
+        while (true) {
+            // the tables are resolved outside the lock, as the catalogs are free to do anything
+            val candidate = synchronized(this) { idle.removeLastOrNull() } ?: return keptFor(context)
+            if (candidate.key.matches(context) && candidate.resolves(catalogs)) {
+                return candidate
+            }
+            // the catalogs or the context differ, so the tree is unlikely to be leased again
+        }
+    }
+
+    /**
+     * @return the kept tree, if the context compiles the same operators.
+     */
+    private fun keptFor(context: Context): Operators? {
+        val candidate = synchronized(this) { kept.also { kept = null } } ?: return null
+        return candidate.takeIf { it.key.matches(context) }
+    }
+
+    /**
+     * Returns a tree whose execution has read its result without error; the tree is dropped if it cannot be reused,
+     * or if the pool is full.
+     */
+    fun release(operators: Operators) {
+        if (operators.tables == null) {
+            if (sequential) {
+                synchronized(this) { kept = kept ?: operators }
+            }
+            return
+        }
+        synchronized(this) {
+            if (idle.size < CAPACITY) {
+                idle.addLast(operators)
+            }
+        }
+    }
+
+    /**
+     * A compiled operator tree; a plan whose root is a `SELECT` has an [input] and a [constructor], and any other plan
+     * has a [value].
+     *
+     * @property value the root of the plan, if it is not a `SELECT`.
+     * @property input the input of the top-level `SELECT`.
+     * @property constructor the constructor of the top-level `SELECT`, evaluated for each row.
+     * @property tables the tables resolved by the operators, or null if the tree cannot be reused.
+     * @property key the settings of the context of the operators.
+     */
+    internal class Operators(
+        @JvmField val value: ExprValue?,
+        @JvmField val input: ExprRelation?,
+        @JvmField val constructor: ExprValue?,
+        @JvmField val tables: List<Resolved>?,
+        @JvmField val key: Key,
+    ) {
+
+        /**
+         * @return true if the catalogs resolve each table of the operators to the same table.
+         */
+        fun resolves(catalogs: Array<ExecutionCatalog>): Boolean {
+            val tables = tables ?: return false
+            for (table in tables) {
+                if (table.catalogId >= catalogs.size || catalogs[table.catalogId].getTable(table.tableId) !== table.table) {
+                    return false
+                }
+            }
+            return true
+        }
+    }
+
+    /**
+     * A table resolved by an operator.
+     */
+    internal class Resolved(
+        @JvmField val catalogId: Int,
+        @JvmField val tableId: Int,
+        @JvmField val table: Table,
+    )
+
+    /**
+     * The settings of a context which change the operators compiled from a plan.
+     */
+    internal class Key(context: Context) {
+
+        private val parallelism = context.parallelism
+        private val memoryLimit = context.memoryLimit
+        private val spillDirectory = context.spillDirectory
+        private val specialized = context.isSpecializedExpressions
+        private val metrics = context.metricsListener
+
+        fun matches(context: Context): Boolean = parallelism == context.parallelism &&
+            memoryLimit == context.memoryLimit &&
+            spillDirectory == context.spillDirectory &&
+            specialized == context.isSpecializedExpressions &&
+            metrics === context.metricsListener
+    }
+
+    private companion object {
+
+        /**
+         * The maximum number of idle trees, which bounds the trees kept for concurrent executions of a plan.
+         */
+        const val CAPACITY = 8
+    }
+}
@@ -0,0 +1,83 @@
+package org.partiql.eval.internal.vm
+
+import org.partiql.eval.Cursor
+import org.partiql.eval.Environment
+import org.partiql.eval.ExprRelation
+import org.partiql.eval.ExprValue
+import org.partiql.eval.internal.helpers.PErrors
+import org.partiql.spi.errors.PRuntimeException
+import org.partiql.spi.types.PType
+import org.partiql.spi.value.Datum
+
+/**
+ * A [Cursor] over the elements of a `SELECT`, which pulls each row from the operator tree as it is requested.
+ *
+ * The relation is opened when the cursor is created, and closed when it is exhausted, fails, or is closed.
+ *
+ * @property input the `SELECT` input relation.
+ * @property constructor the `SELECT` constructor, evaluated for each row.
+ * @property type the planner-inferred result type.
+ * @property exhausted invoked once every row has been read without error, after the relation is closed; it is not
+ * invoked if the cursor fails, or is closed before it is exhausted.
+ */
+internal class RelationCursor(
+    private val input: ExprRelation,
+    private val constructor: ExprValue,
+    private val type: PType,
+    private val exhausted: Runnable? = null,
+) : Cursor {
+
+    private val env = Environment()
+    private var open = false
+
+    init {
+        guard { input.open(env) }
+        open = true
+    }
+
+    override fun getType(): PType = type
+
+    override fun hasNext(): Boolean {
+        if (!open) {
+            return false
+        }
+        val hasNext = guard { input.hasNext() }
+        if (!hasNext) {
+            close()
+            exhausted?.run()
+        }
+        return hasNext
+    }
+
+    override fun next(): Datum {
+        if (!hasNext()) {
+            throw NoSuchElementException()
+        }
+        return guard {
+            val row = input.next()
+            constructor.eval(env.push(row))
+        }
+    }
+
+    override fun close() {
+        if (open) {
+            open = false
+            input.close()
+        }
+    }
+
+    /**
+     * Closes the relation if [block] fails, and wraps unexpected failures as internal errors.
+     */
+    private inline fun <T> guard(block: () -> T): T {
+        try {
+            return block()
+        } catch (e: PRuntimeException) {
+            close()
+            throw e
+        } catch (t: Throwable) {
+            close()
+            throw PErrors.internalErrorException(t)
+        }
+    }
+}
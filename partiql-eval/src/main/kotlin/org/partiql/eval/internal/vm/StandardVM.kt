@@ -1,19 +1,26 @@
 package org.partiql.eval.internal.vm
 
+import org.partiql.eval.Cursor
 import org.partiql.eval.Environment
 import org.partiql.eval.ExecutionPlan
 import org.partiql.eval.PartiQLVM
+import org.partiql.eval.Profile
 import org.partiql.eval.internal.compiler.OperatorCompiler
 import org.partiql.eval.internal.helpers.PErrors
+import org.partiql.eval.internal.plan.PExpr
+import org.partiql.eval.internal.profile.Profiler
 import org.partiql.spi.Context
 import org.partiql.spi.catalog.ExecutionCatalog
 import org.partiql.spi.errors.PRuntimeException
 import org.partiql.spi.value.Datum
+import java.util.concurrent.atomic.AtomicReference
 
 /**
  * Standard implementation of [PartiQLVM].
  *
- * Each call to [execute] builds a fresh operator tree from the plan — no shared mutable state between executions.
+ * Each call to [execute] or [open] leases an operator tree of the plan, which no other execution uses until this one has
+ * read its result; the tree of a previous execution is reused if there is one, otherwise the plan is compiled. See
+ * [OperatorPool]. The operators of [analyze] are always compiled, and never reused.
  */
 internal class StandardVM : PartiQLVM {
 
@@ -22,15 +29,128 @@ internal class StandardVM : PartiQLVM {
     }
 
     override fun execute(plan: ExecutionPlan, catalogs: Array<ExecutionCatalog>, ctx: Context): Datum {
+        try {
+            val operators = lease(plan, catalogs, ctx)
+            val value = operators.value
+            if (value != null) {
+                val result = value.eval(Environment())
+                plan.pool.release(operators)
+                return result
+            }
+            val elements = Elements(plan, catalogs, ctx, operators)
+            return when ((plan.impl.root as PExpr.Select).ordered) {
+                true -> Datum.array(elements)
+                false -> Datum.bag(elements)
+            }
+        } catch (e: PRuntimeException) {
+            throw e
+        } catch (t: Throwable) {
+            throw PErrors.internalErrorException(t)
+        }
+    }
+
+    override fun analyze(plan: ExecutionPlan, catalogs: Array<ExecutionCatalog>, ctx: Context, allocations: Boolean): Profile {
         try {
             val impl = plan.impl
-            val compiler = OperatorCompiler(catalogs, impl.mode)
+            val profiler = Profiler(allocations)
+            val compiler = OperatorCompiler(catalogs, impl.mode, ctx, profiler)
             val root = compiler.compile(impl)
-            return root.eval(Environment())
+            profiler.execute { root.eval(Environment()) }
+            return profiler.root
+        } catch (e: PRuntimeException) {
+            throw e
+        } catch (t: Throwable) {
+            throw PErrors.internalErrorException(t)
+        }
+    }
+
+    override fun open(plan: ExecutionPlan, catalogs: Array<ExecutionCatalog>, ctx: Context): Cursor {
+        try {
+            val operators = lease(plan, catalogs, ctx)
+            val value = operators.value
+            if (value != null) {
+                return ValueCursor(
+                    {
+                        val result = value.eval(Environment())
+                        plan.pool.release(operators)
+                        result
+                    },
+                    plan.impl.type
+                )
+            }
+            return RelationCursor(operators.input!!, operators.constructor!!, plan.impl.type) { plan.pool.release(operators) }
         } catch (e: PRuntimeException) {
             throw e
         } catch (t: Throwable) {
             throw PErrors.internalErrorException(t)
         }
     }
+
+    /**
+     * @return an idle operator tree of the plan for the catalogs and the context, or else a new one.
+     */
+    private fun lease(plan: ExecutionPlan, catalogs: Array<ExecutionCatalog>, ctx: Context): OperatorPool.Operators {
+        return plan.pool.lease(catalogs, ctx) ?: OperatorCompiler(catalogs, plan.impl.mode, ctx).operators(plan.impl)
+    }
+
+    /**
+     * The elements of a top-level `SELECT`, which are pulled from an operator tree for each iteration; the first
+     * iteration uses the tree leased by the execution, and later ones lease another.
+     */
+    private inner class Elements(
+        private val plan: ExecutionPlan,
+        private val catalogs: Array<ExecutionCatalog>,
+        private val ctx: Context,
+        operators: OperatorPool.Operators,
+    ) : Iterable<Datum> {
+
+        private val first = AtomicReference(operators)
+
+        override fun iterator(): Iterator<Datum> {
+            val operators = first.getAndSet(null) ?: lease(plan, catalogs, ctx)
+            return Rows(plan.pool, operators)
+        }
+    }
+
+    /**
+     * The rows of an operator tree, which is returned to the pool once they have all been read.
+     */
+    private class Rows(
+        private val pool: OperatorPool,
+        private val operators: OperatorPool.Operators,
+    ) : Iterator<Datum> {
+
+        private val input = operators.input!!
+        private val constructor = operators.constructor!!
+        private val env = Environment()
+        private var open = false
+        private var done = false
+
+        override fun hasNext(): Boolean {
+            if (done) {
+                return false
+            }
+            open()
+            val hasNext = input.hasNext()
+            if (!hasNext) {
+                done = true
+                input.close()
+                pool.release(operators)
+            }
+            return hasNext
+        }
+
+        override fun next(): Datum {
+            open()
+            val row = input.next()
+            return constructor.eval(env.push(row))
+        }
+
+        private fun open() {
+            if (!open) {
+                input.open(env)
+                open = true
+            }
+        }
+    }
 }
@@ -0,0 +1,76 @@
+package org.partiql.eval.internal.vm
+
+import org.partiql.eval.Cursor
+import org.partiql.eval.internal.helpers.PErrors
+import org.partiql.spi.errors.PRuntimeException
+import org.partiql.spi.types.PType
+import org.partiql.spi.value.Datum
+import java.util.function.Supplier
+
+/**
+ * A [Cursor] over a query result which is computed as a [Datum]; for a collection, this returns its elements,
+ * otherwise the value itself.
+ *
+ * The value is computed on the first call to [hasNext]. Elements of a lazily-evaluated collection are still computed
+ * one at a time, but its operators are only released once the collection is exhausted.
+ *
+ * @property value computes the query result.
+ * @property type the planner-inferred result type, or dynamic if unknown.
+ */
+internal class ValueCursor(
+    private val value: Supplier<Datum>,
+    private val type: PType,
+) : Cursor {
+
+    private var values: Iterator<Datum>? = null
+    private var closed = false
+
+    override fun getType(): PType = type
+
+    override fun hasNext(): Boolean {
+        if (closed) {
+            return false
+        }
+        return try {
+            values().hasNext()
+        } catch (e: PRuntimeException) {
+            close()
+            throw e
+        } catch (t: Throwable) {
+            close()
+            throw PErrors.internalErrorException(t)
+        }
+    }
+
+    override fun next(): Datum {
+        if (!hasNext()) {
+            throw NoSuchElementException()
+        }
+        return try {
+            values().next()
+        } catch (e: PRuntimeException) {
+            close()
+            throw e
+        } catch (t: Throwable) {
+            close()
+            throw PErrors.internalErrorException(t)
+        }
+    }
+
+    override fun close() {
+        closed = true
+        values = null
+    }
+
+    private fun values(): Iterator<Datum> {
+        values?.let { return it }
+        val datum = value.get()
+        val iterator = when {
+            datum.isNull || datum.isMissing -> listOf(datum).iterator()
+            datum.type.code() == PType.BAG || datum.type.code() == PType.ARRAY -> datum.iterator()
+            else -> listOf(datum).iterator()
+        }
+        values = iterator
+        return iterator
+    }
+}
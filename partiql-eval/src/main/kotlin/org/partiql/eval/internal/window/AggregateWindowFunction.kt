@@ -0,0 +1,91 @@
+package org.partiql.eval.internal.window
+
+import org.partiql.eval.Environment
+import org.partiql.eval.ExprValue
+import org.partiql.eval.WindowFunction
+import org.partiql.eval.WindowPartition
+import org.partiql.eval.internal.helpers.DatumUtils.lowerSafe
+import org.partiql.spi.value.Datum
+
+/**
+ * Base class for aggregate window functions such as `SUM(x) OVER (...)`, which are computed over each row's frame.
+ *
+ * As the frame slides through the partition, rows enter it at its end and leave it at its start; implementations
+ * update their state incrementally on [add] and [remove] rather than recomputing the aggregate over the whole frame, so
+ * a partition is aggregated in linear time regardless of the size of the frames.
+ *
+ * @param argument the argument of the aggregate; null for `COUNT(*)`.
+ */
+internal abstract class AggregateWindowFunction(
+    private val argument: ExprValue?,
+    private val frame: WindowFrameCursor,
+) : WindowFunction {
+
+    private lateinit var partition: WindowPartition
+
+    /**
+     * The argument values of the rows in the aggregate's state, which are the rows `[lo, hi)` of the partition.
+     */
+    private val values = ArrayDeque<Datum>()
+    private var lo: Long = 0L
+    private var hi: Long = 0L
+
+    /**
+     * Adds the argument value of the row at [index] to the aggregate.
+     */
+    abstract fun add(index: Long, value: Datum)
+
+    /**
+     * Removes the argument value of the row at [index], which is the oldest row of the aggregate.
+     */
+    abstract fun remove(index: Long, value: Datum)
+
+    /**
+     * Clears the aggregate.
+     */
+    abstract fun clear()
+
+    /**
+     * @return the aggregate of the values which have been added and not removed.
+     */
+    abstract fun value(): Datum
+
+    override fun reset(partition: WindowPartition) {
+        this.partition = partition
+        frame.reset(partition)
+        values.clear()
+        lo = 0L
+        hi = 0L
+        clear()
+    }
+
+    override fun eval(env: Environment, orderingGroupStart: Long, orderingGroupEnd: Long): Datum {
+        frame.next(env, orderingGroupStart, orderingGroupEnd)
+        val start = frame.frameStart
+        val end = frame.frameEnd
+        while (lo < start && lo < hi) {
+            remove(lo, values.removeFirst())
+            lo++
+        }
+        // rows between the previous frame and this one are skipped
+        if (lo < start) {
+            lo = start
+            hi = start
+        }
+        while (hi < end) {
+            val value = argument?.eval(env.push(partition[hi]))?.lowerSafe() ?: COUNT_STAR
+            values.addLast(value)
+            add(hi, value)
+            hi++
+        }
+        return value()
+    }
+
+    private companion object {
+
+        /**
+         * The argument value of each row for `COUNT(*)`.
+         */
+        val COUNT_STAR: Datum = Datum.bool(true)
+    }
+}
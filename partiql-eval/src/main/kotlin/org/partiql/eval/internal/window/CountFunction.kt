@@ -0,0 +1,33 @@
+package org.partiql.eval.internal.window
+
+import org.partiql.eval.ExprValue
+import org.partiql.spi.value.Datum
+
+/**
+ * The COUNT aggregate window function; `COUNT(*)` has no argument and counts every row of the frame.
+ */
+internal class CountFunction(
+    argument: ExprValue?,
+    frame: WindowFrameCursor,
+) : AggregateWindowFunction(argument, frame) {
+
+    private var count: Long = 0L
+
+    override fun add(index: Long, value: Datum) {
+        if (!value.isNull && !value.isMissing) {
+            count++
+        }
+    }
+
+    override fun remove(index: Long, value: Datum) {
+        if (!value.isNull && !value.isMissing) {
+            count--
+        }
+    }
+
+    override fun clear() {
+        count = 0L
+    }
+
+    override fun value(): Datum = Datum.bigint(count)
+}
@@ -0,0 +1,54 @@
+package org.partiql.eval.internal.window
+
+import org.partiql.eval.ExprValue
+import org.partiql.spi.types.PType
+import org.partiql.spi.value.Datum
+
+/**
+ * The MIN and MAX aggregate window functions.
+ *
+ * This keeps a monotonic deque of the frame's candidate rows: a row is dropped from the back of the deque once a later
+ * row's value is at least as good, since the later row leaves the frame after it. The front of the deque is the result,
+ * and each row is added and removed at most once.
+ */
+internal class MinMaxFunction(
+    argument: ExprValue?,
+    frame: WindowFrameCursor,
+    max: Boolean,
+    private val type: PType,
+) : AggregateWindowFunction(argument, frame) {
+
+    private val comparator: Comparator<Datum> = if (max) Datum.comparator().reversed() else Datum.comparator()
+
+    private val indexes = ArrayDeque<Long>()
+    private val candidates = ArrayDeque<Datum>()
+
+    override fun add(index: Long, value: Datum) {
+        if (value.isNull || value.isMissing) {
+            return
+        }
+        while (candidates.isNotEmpty() && comparator.compare(candidates.last(), value) >= 0) {
+            candidates.removeLast()
+            indexes.removeLast()
+        }
+        candidates.addLast(value)
+        indexes.addLast(index)
+    }
+
+    override fun remove(index: Long, value: Datum) {
+        if (indexes.isNotEmpty() && indexes.first() == index) {
+            indexes.removeFirst()
+            candidates.removeFirst()
+        }
+    }
+
+    override fun clear() {
+        indexes.clear()
+        candidates.clear()
+    }
+
+    override fun value(): Datum = when {
+        candidates.isEmpty() -> Datum.nullValue(type)
+        else -> candidates.first()
+    }
+}
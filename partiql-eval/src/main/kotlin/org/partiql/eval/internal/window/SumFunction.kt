@@ -0,0 +1,248 @@
+package org.partiql.eval.internal.window
+
+import org.partiql.eval.ExprValue
+import org.partiql.eval.internal.helpers.PErrors
+import org.partiql.spi.types.PType
+import org.partiql.spi.value.Datum
+import java.math.BigDecimal
+import java.math.MathContext
+import java.math.RoundingMode
+
+/**
+ * The SUM and AVG aggregate window functions, which return the same results as the SUM and AVG aggregations.
+ *
+ * Exact numbers are summed with exact arithmetic, so a row leaving the frame is subtracted from the sum; the sum is kept
+ * in a [Long] until it overflows. Approximate numbers cannot be subtracted without losing precision (and infinities
+ * cannot be subtracted at all), so they are kept in an [ApproximateSum], which is a queue whose sum is maintained in
+ * amortized constant time per row.
+ *
+ * @param type the return type of the function; for [PType.DYNAMIC], the type of the result depends on the types of the
+ * frame's values, as for the dynamic SUM and AVG aggregations.
+ */
+internal class SumFunction(
+    argument: ExprValue?,
+    frame: WindowFrameCursor,
+    private val avg: Boolean,
+    private val type: PType,
+) : AggregateWindowFunction(argument, frame) {
+
+    /**
+     * The number of values of the frame, by type.
+     */
+    private var integers: Long = 0L
+    private var decimals: Long = 0L
+    private var approximates: Long = 0L
+
+    /**
+     * The sum of the frame's exact values, which is [longSum] until it overflows.
+     */
+    private var longSum: Long = 0L
+    private var bigSum: BigDecimal? = null
+
+    private val approximateSum = ApproximateSum()
+
+    override fun add(index: Long, value: Datum) {
+        if (value.isNull || value.isMissing) {
+            return
+        }
+        when (value.type.code()) {
+            PType.TINYINT -> {
+                integers++
+                addExact(value.byte.toLong(), true)
+            }
+            PType.SMALLINT -> {
+                integers++
+                addExact(value.short.toLong(), true)
+            }
+            PType.INTEGER -> {
+                integers++
+                addExact(value.int.toLong(), true)
+            }
+            PType.BIGINT -> {
+                decimals++
+                addExact(value.long, true)
+            }
+            PType.DECIMAL, PType.NUMERIC -> {
+                decimals++
+                addExact(value.bigDecimal)
+            }
+            PType.REAL -> {
+                approximates++
+                approximateSum.push(value.float.toDouble())
+            }
+            PType.DOUBLE -> {
+                approximates++
+                approximateSum.push(value.double)
+            }
+            else -> throw PErrors.unexpectedTypeException(value.type, NUMBERS)
+        }
+    }
+
+    override fun remove(index: Long, value: Datum) {
+        if (value.isNull || value.isMissing) {
+            return
+        }
+        when (value.type.code()) {
+            PType.TINYINT -> {
+                integers--
+                addExact(value.byte.toLong(), false)
+            }
+            PType.SMALLINT -> {
+                integers--
+                addExact(value.short.toLong(), false)
+            }
+            PType.INTEGER -> {
+                integers--
+                addExact(value.int.toLong(), false)
+            }
+            PType.BIGINT -> {
+                decimals--
+                addExact(value.long, false)
+            }
+            PType.DECIMAL, PType.NUMERIC -> {
+                decimals--
+                addExact(value.bigDecimal.negate())
+            }
+            PType.REAL, PType.DOUBLE -> {
+                approximates--
+                approximateSum.pop()
+            }
+        }
+    }
+
+    override fun clear() {
+        integers = 0L
+        decimals = 0L
+        approximates = 0L
+        longSum = 0L
+        bigSum = null
+        approximateSum.clear()
+    }
+
+    override fun value(): Datum {
+        val count = integers + decimals + approximates
+        if (count == 0L) {
+            return Datum.nullValue(type)
+        }
+        return when (type.code()) {
+            PType.BIGINT -> bigint()
+            PType.REAL -> Datum.real(approximate(count).toFloat())
+            PType.DOUBLE -> Datum.doublePrecision(approximate(count))
+            PType.NUMERIC -> Datum.numeric(exact(count))
+            PType.DECIMAL -> decimal(exact(count))
+            else -> when {
+                approximates > 0 -> Datum.doublePrecision(approximate(count))
+                decimals > 0 || avg -> decimal(exact(count))
+                else -> bigint()
+            }
+        }
+    }
+
+    private fun addExact(value: Long, add: Boolean) {
+        val big = bigSum
+        if (big == null) {
+            try {
+                longSum = if (add) Math.addExact(longSum, value) else Math.subtractExact(longSum, value)
+                return
+            } catch (e: ArithmeticException) {
+                // fall back to BigDecimal
+            }
+        }
+        val sum = big ?: BigDecimal.valueOf(longSum)
+        bigSum = if (add) sum.add(BigDecimal.valueOf(value)) else sum.subtract(BigDecimal.valueOf(value))
+    }
+
+    private fun addExact(value: BigDecimal) {
+        bigSum = (bigSum ?: BigDecimal.valueOf(longSum)).add(value)
+    }
+
+    private fun exactSum(): BigDecimal = bigSum ?: BigDecimal.valueOf(longSum)
+
+    /**
+     * @return the sum or the average of the frame's exact values.
+     */
+    private fun exact(count: Long): BigDecimal = when (avg) {
+        true -> exactSum().divide(BigDecimal.valueOf(count), MATH_CONTEXT)
+        false -> exactSum().round(MATH_CONTEXT)
+    }
+
+    /**
+     * @return the sum or the average of the frame's values, as a double.
+     */
+    private fun approximate(count: Long): Double {
+        val sum = exactSum().toDouble() + approximateSum.sum()
+        return if (avg) sum / count.toDouble() else sum
+    }
+
+    private fun bigint(): Datum {
+        val sum = exactSum()
+        return try {
+            Datum.bigint(sum.longValueExact())
+        } catch (e: ArithmeticException) {
+            throw PErrors.numericOutOfRangeException(sum.toString(), PType.bigint())
+        }
+    }
+
+    private fun decimal(value: BigDecimal): Datum = when (avg) {
+        true -> Datum.decimal(value)
+        false -> Datum.decimal(value, value.precision(), value.scale())
+    }
+
+    /**
+     * A FIFO queue of doubles, which maintains the sum of its elements in amortized constant time per element.
+     *
+     * Elements are pushed onto the back stack, whose running sum is kept. When the front stack is empty on [pop], the
+     * back stack is moved onto it, and each element of the front stack stores the sum of itself and of the elements above
+     * it. The queue's sum is the sum of the front stack's top and of the back stack.
+     */
+    private class ApproximateSum {
+
+        private var back = DoubleArray(16)
+        private var backSize = 0
+        private var backSum = 0.0
+
+        private var front = DoubleArray(16)
+        private var frontSize = 0
+
+        fun push(value: Double) {
+            if (backSize == back.size) {
+                back = back.copyOf(backSize * 2)
+            }
+            back[backSize++] = value
+            backSum += value
+        }
+
+        fun pop() {
+            if (frontSize == 0) {
+                if (front.size < backSize) {
+                    front = DoubleArray(back.size)
+                }
+                // the newest element is at the bottom of the front stack
+                var sum = 0.0
+                for (i in backSize - 1 downTo 0) {
+                    sum += back[i]
+                    front[frontSize++] = sum
+                }
+                backSize = 0
+                backSum = 0.0
+            }
+            frontSize--
+        }
+
+        fun sum(): Double = when (frontSize) {
+            0 -> backSum
+            else -> front[frontSize - 1] + backSum
+        }
+
+        fun clear() {
+            backSize = 0
+            backSum = 0.0
+            frontSize = 0
+        }
+    }
+
+    private companion object {
+        val MATH_CONTEXT = MathContext(38, RoundingMode.HALF_EVEN)
+        val NUMBERS = listOf(PType.bigint(), PType.decimal(38, 19), PType.doublePrecision())
+    }
+}
@@ -5,7 +5,11 @@ import org.partiql.eval.WindowFunction
 import org.partiql.plan.WindowFunctionSignature
 
 internal object WindowBuiltIns {
-    fun get(signature: WindowFunctionSignature, arguments: List<ExprValue>): WindowFunction {
+
+    /**
+     * @param frame creates the frame cursor of an aggregate window function.
+     */
+    fun get(signature: WindowFunctionSignature, arguments: List<ExprValue>, frame: () -> WindowFrameCursor): WindowFunction {
         return when (signature.name) {
             "row_number" -> RowNumberFunction()
             "rank" -> RankFunction()
@@ -28,6 +32,11 @@ internal object WindowBuiltIns {
             "first_value" -> TODO()
             "last_value" -> TODO()
             "nth_value" -> TODO()
+            "count" -> CountFunction(arguments.firstOrNull(), frame())
+            "sum" -> SumFunction(arguments[0], frame(), false, signature.returnType)
+            "avg" -> SumFunction(arguments[0], frame(), true, signature.returnType)
+            "min" -> MinMaxFunction(arguments[0], frame(), false, signature.returnType)
+            "max" -> MinMaxFunction(arguments[0], frame(), true, signature.returnType)
             else -> throw IllegalArgumentException("Unknown window function: ${signature.name}")
         }
     }
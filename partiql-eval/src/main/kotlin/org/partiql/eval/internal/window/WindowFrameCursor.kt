@@ -0,0 +1,228 @@
+package org.partiql.eval.internal.window
+
+import org.partiql.eval.Environment
+import org.partiql.eval.ExprValue
+import org.partiql.eval.WindowPartition
+import org.partiql.eval.internal.helpers.DatumUtils.lowerSafe
+import org.partiql.eval.internal.helpers.PErrors
+import org.partiql.eval.internal.helpers.ValueUtility.getBigIntCoerced
+import org.partiql.eval.internal.operator.rel.Collation
+import org.partiql.plan.WindowFrame
+import org.partiql.spi.types.PType
+import org.partiql.spi.value.Datum
+import java.math.BigDecimal
+
+/**
+ * Computes the frame of each row of a partition, i.e. the rows `[start, end)` which an aggregate window function is
+ * computed over.
+ *
+ * Rows are visited in order, and neither end of the frame ever moves backwards, so an [AggregateWindowFunction] adds
+ * and removes each row of the partition at most once. The offsets of the bounds are evaluated once per partition.
+ *
+ * @param rows true for a ROWS frame; false for a RANGE frame.
+ * @param sortKey the single sort key of a RANGE frame whose bounds have an offset.
+ */
+internal class WindowFrameCursor(
+    private val rows: Boolean,
+    private val start: Bound,
+    private val end: Bound,
+    private val sortKey: Collation?,
+) {
+
+    /**
+     * @param type a [WindowFrame.Bound.Type] code.
+     * @param offset the offset of a PRECEDING or FOLLOWING bound.
+     */
+    internal class Bound(@JvmField val type: Int, @JvmField val offset: ExprValue?)
+
+    /**
+     * The first row of the current row's frame.
+     */
+    var frameStart: Long = 0L
+        private set
+
+    /**
+     * One past the last row of the current row's frame; this is never less than [frameStart].
+     */
+    var frameEnd: Long = 0L
+        private set
+
+    private lateinit var partition: WindowPartition
+    private var position: Long = -1L
+    private var size: Long = 0L
+
+    private var startOffset: Datum? = null
+    private var endOffset: Datum? = null
+
+    /**
+     * The sort keys of a RANGE frame, which are evaluated as the bounds pass over them.
+     */
+    private var keys: Array<Datum?> = emptyArray()
+    private var startCursor: Long = 0L
+    private var endCursor: Long = 0L
+
+    private val comparator: Comparator<Datum>? = sortKey?.let {
+        val nullsFirst = Datum.comparator(true)
+        val nullsLast = Datum.comparator(false)
+        // DESC_NULLS_FIRST(l, r) == ASC_NULLS_LAST(r, l)
+        // DESC_NULLS_LAST(l, r) == ASC_NULLS_FIRST(r, l)
+        when {
+            !it.desc && !it.last -> nullsFirst
+            !it.desc && it.last -> nullsLast
+            it.desc && !it.last -> nullsLast.reversed()
+            else -> nullsFirst.reversed()
+        }
+    }
+
+    fun reset(partition: WindowPartition) {
+        this.partition = partition
+        position = -1L
+        size = partition.size()
+        startOffset = null
+        endOffset = null
+        keys = if (!rows && sortKey != null) arrayOfNulls(size.toInt()) else emptyArray()
+        startCursor = 0L
+        endCursor = 0L
+        frameStart = 0L
+        frameEnd = 0L
+    }
+
+    /**
+     * Moves to the next row of the partition, and computes its frame.
+     * @param env the environment of the current row.
+     * @param orderingGroupStart the first row of the current row's peers.
+     * @param orderingGroupEnd the last row of the current row's peers.
+     */
+    fun next(env: Environment, orderingGroupStart: Long, orderingGroupEnd: Long) {
+        if (position == -1L) {
+            startOffset = start.offset?.let { offset(it, env) }
+            endOffset = end.offset?.let { offset(it, env) }
+        }
+        position++
+        val s = bound(start, startOffset, true, env, orderingGroupStart, orderingGroupEnd).coerceIn(0L, size)
+        val e = bound(end, endOffset, false, env, orderingGroupStart, orderingGroupEnd).coerceIn(0L, size)
+        frameStart = s
+        frameEnd = maxOf(s, e)
+    }
+
+    private fun bound(bound: Bound, offset: Datum?, isStart: Boolean, env: Environment, groupStart: Long, groupEnd: Long): Long {
+        return when (bound.type) {
+            WindowFrame.Bound.Type.UNBOUNDED_PRECEDING -> 0L
+            WindowFrame.Bound.Type.UNBOUNDED_FOLLOWING -> size
+            WindowFrame.Bound.Type.CURRENT_ROW -> when {
+                rows -> if (isStart) position else position + 1
+                else -> if (isStart) groupStart else groupEnd + 1
+            }
+            WindowFrame.Bound.Type.PRECEDING, WindowFrame.Bound.Type.FOLLOWING -> {
+                val following = bound.type == WindowFrame.Bound.Type.FOLLOWING
+                when {
+                    rows -> {
+                        // offsets beyond the partition are equivalent to the partition's size
+                        val k = minOf(offset!!.long, size + 1)
+                        val row = if (following) position + k else position - k
+                        if (isStart) row else row + 1
+                    }
+                    else -> rangeBound(offset!!, following, isStart, env, groupStart, groupEnd)
+                }
+            }
+            else -> throw IllegalStateException("Unexpected window frame bound: ${bound.type}")
+        }
+    }
+
+    /**
+     * The start of a RANGE frame is the first row whose sort key is not before `key -/+ offset` in the sort order, and its
+     * end is the first row whose sort key is after `key -/+ offset`. If the current row's sort key is null, the bound is
+     * that of the current row's peers, i.e. the rows whose sort key is null.
+     */
+    private fun rangeBound(offset: Datum, following: Boolean, isStart: Boolean, env: Environment, groupStart: Long, groupEnd: Long): Long {
+        val key = key(position, env)
+        if (key.isNull || key.isMissing) {
+            return if (isStart) {
+                startCursor = groupStart
+                groupStart
+            } else {
+                endCursor = groupEnd + 1
+                groupEnd + 1
+            }
+        }
+        // the offset moves towards the end of the partition if the frame's bound FOLLOWS the current row
+        val add = following != sortKey!!.desc
+        val target = shift(key, offset, add)
+        val cmp = comparator!!
+        if (isStart) {
+            while (startCursor < size && cmp.compare(key(startCursor, env), target) < 0) {
+                startCursor++
+            }
+            return startCursor
+        } else {
+            while (endCursor < size && cmp.compare(key(endCursor, env), target) <= 0) {
+                endCursor++
+            }
+            return endCursor
+        }
+    }
+
+    private fun key(index: Long, env: Environment): Datum {
+        val i = index.toInt()
+        return keys[i] ?: sortKey!!.expr.eval(env.push(partition[index])).lowerSafe().also { keys[i] = it }
+    }
+
+    /**
+     * The offset of a ROWS frame is a non-negative integer; the offset of a RANGE frame is a non-negative number.
+     */
+    private fun offset(expr: ExprValue, env: Environment): Datum {
+        val value = expr.eval(env).lowerSafe()
+        if (value.isNull || value.isMissing) {
+            throw PErrors.unexpectedTypeException(value.type, listOf(PType.bigint()))
+        }
+        if (rows) {
+            val k = value.getBigIntCoerced()
+            if (k.signum() < 0 || k.bitLength() >= Long.SIZE_BITS) {
+                throw PErrors.numericOutOfRangeException(k.toString(), PType.bigint())
+            }
+            return Datum.bigint(k.toLong())
+        }
+        val negative = when (value.type.code()) {
+            PType.REAL, PType.DOUBLE -> value.toDouble() < 0.0
+            else -> value.toBigDecimal().signum() < 0
+        }
+        if (negative) {
+            throw PErrors.numericOutOfRangeException(value.toString(), value.type)
+        }
+        return value
+    }
+
+    private fun shift(key: Datum, offset: Datum, add: Boolean): Datum {
+        val approx = key.type.code() == PType.REAL || key.type.code() == PType.DOUBLE ||
+            offset.type.code() == PType.REAL || offset.type.code() == PType.DOUBLE
+        return if (approx) {
+            val k = key.toDouble()
+            val o = offset.toDouble()
+            Datum.doublePrecision(if (add) k + o else k - o)
+        } else {
+            val k = key.toBigDecimal()
+            val o = offset.toBigDecimal()
+            val v = (if (add) k.add(o) else k.subtract(o)).let { if (it.scale() < 0) it.setScale(0) else it }
+            Datum.decimal(v, maxOf(v.precision(), v.scale()), v.scale())
+        }
+    }
+
+    private fun Datum.toBigDecimal(): BigDecimal = when (type.code()) {
+        PType.TINYINT -> BigDecimal.valueOf(byte.toLong())
+        PType.SMALLINT -> BigDecimal.valueOf(short.toLong())
+        PType.INTEGER -> BigDecimal.valueOf(int.toLong())
+        PType.BIGINT -> BigDecimal.valueOf(long)
+        PType.DECIMAL, PType.NUMERIC -> bigDecimal
+        else -> throw PErrors.unexpectedTypeException(type, NUMBERS)
+    }
+
+    private fun Datum.toDouble(): Double = when (type.code()) {
+        PType.REAL -> float.toDouble()
+        PType.DOUBLE -> double
+        else -> toBigDecimal().toDouble()
+    }
+
+    private companion object {
+        val NUMBERS = listOf(PType.bigint(), PType.decimal(38, 19), PType.doublePrecision())
+    }
+}
@@ -1,11 +1,25 @@
 package org.partiql.eval.internal
 
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import org.junit.jupiter.api.io.TempDir
 import org.junit.jupiter.api.parallel.Execution
 import org.junit.jupiter.api.parallel.ExecutionMode
 import org.junit.jupiter.params.ParameterizedTest
 import org.junit.jupiter.params.provider.MethodSource
+import org.partiql.eval.Mode
+import org.partiql.eval.compiler.PartiQLCompiler
+import org.partiql.parser.PartiQLParser
+import org.partiql.planner.PartiQLPlanner
+import org.partiql.spi.Context
+import org.partiql.spi.catalog.Session
+import org.partiql.spi.errors.PError
+import org.partiql.spi.errors.PRuntimeException
 import org.partiql.spi.value.Datum
 import org.partiql.spi.value.Field
+import java.math.BigDecimal
+import java.nio.file.Path
+import kotlin.test.assertEquals
 
 class AggregateTests {
 
@@ -49,6 +63,31 @@ class AggregateTests {
     @Execution(ExecutionMode.CONCURRENT)
     fun testDistinct(tc: SuccessTestCase) = tc.run()
 
+    @Test
+    fun distinctSetsAreBoundedByTheMemoryLimit(@TempDir tmp: Path) {
+        val values = (0 until 100).joinToString { "{'v': 'value $it'}" }
+        val query = "SELECT VALUE COUNT(DISTINCT t.v) FROM << $values >> AS t"
+        val spilling = object : Context {
+            override fun getMemoryLimit(): Long = 1024
+            override fun getSpillDirectory(): Path = tmp
+        }
+        val e = assertThrows<PRuntimeException> { count(query, spilling) }
+        assertEquals(PError.MEMORY_LIMIT_EXCEEDED, e.error.code())
+        // the limit only applies where the context spills
+        val inMemory = object : Context {
+            override fun getMemoryLimit(): Long = 1024
+        }
+        assertEquals(100, count(query, inMemory))
+        assertEquals(100, count(query, Context.standard()))
+    }
+
+    private fun count(query: String, ctx: Context): Long {
+        val statement = PartiQLParser.standard().parse(query).statements[0]
+        val plan = PartiQLPlanner.standard().plan(statement, Session.empty()).plan
+        val result = PartiQLCompiler.standard().prepare(plan, Mode.STRICT(), ctx).execute()
+        return result.single().long
+    }
+
     companion object {
 
         @JvmStatic
@@ -127,6 +166,21 @@ class AggregateTests {
                     Datum.struct(Field.of("_1", Datum.integer(6)))
                 )
             ),
+            SuccessTestCase(
+                name = "SUM of BIGINT values beyond the range of BIGINT",
+                input = "SELECT VALUE SUM(CAST(t.v AS BIGINT)) FROM << {'v': 9223372036854775807}, {'v': 9223372036854775807}, {'v': 1} >> AS t",
+                expected = Datum.bagVararg(Datum.decimal(BigDecimal("18446744073709551615")))
+            ),
+            SuccessTestCase(
+                name = "SUM of DECIMAL values",
+                input = "SELECT VALUE SUM(CAST(t.v AS DECIMAL(10, 2))) FROM << {'v': 1.25}, {'v': 2.5}, {'v': 3} >> AS t",
+                expected = Datum.bagVararg(Datum.decimal(BigDecimal("6.75")))
+            ),
+            SuccessTestCase(
+                name = "AVG of DECIMAL values",
+                input = "SELECT VALUE AVG(CAST(t.v AS DECIMAL(10, 2))) FROM << {'v': 1.25}, {'v': 2.5}, {'v': 3} >> AS t",
+                expected = Datum.bagVararg(Datum.decimal(BigDecimal("2.25")))
+            ),
         )
 
         @JvmStatic
@@ -298,6 +352,35 @@ class AggregateTests {
                     Datum.struct(Field.of("_1", Datum.bigint(2)))
                 )
             ),
+            SuccessTestCase(
+                name = "COUNT DISTINCT of equal numbers of different types",
+                input = "SELECT COUNT(DISTINCT t.v) FROM << {'v': 1}, {'v': 1.0}, {'v': 1.00}, {'v': CAST(1 AS DOUBLE PRECISION)}, {'v': 2.5} >> AS t",
+                expected = Datum.bagVararg(
+                    Datum.struct(Field.of("_1", Datum.bigint(2)))
+                )
+            ),
+            SuccessTestCase(
+                name = "COUNT DISTINCT of strings per group",
+                input = "SELECT t.g, COUNT(DISTINCT t.v) AS n FROM << {'g': 1, 'v': 'a'}, {'g': 1, 'v': 'a'}, {'g': 1, 'v': 'b'}, {'g': 2, 'v': 'a'}, {'g': 2, 'v': NULL} >> AS t GROUP BY t.g",
+                expected = Datum.bagVararg(
+                    Datum.struct(Field.of("g", Datum.integer(1)), Field.of("n", Datum.bigint(2))),
+                    Datum.struct(Field.of("g", Datum.integer(2)), Field.of("n", Datum.bigint(1))),
+                )
+            ),
+            SuccessTestCase(
+                name = "SUM DISTINCT of integers and doubles",
+                input = "SELECT SUM(DISTINCT t.v) AS s, COUNT(DISTINCT CAST(t.v AS DOUBLE PRECISION)) AS n FROM << {'v': 1}, {'v': 2}, {'v': 2}, {'v': 3} >> AS t",
+                expected = Datum.bagVararg(
+                    Datum.struct(Field.of("s", Datum.integer(6)), Field.of("n", Datum.bigint(3)))
+                )
+            ),
+            SuccessTestCase(
+                name = "COUNT DISTINCT of collections",
+                input = "SELECT COUNT(DISTINCT t.v) FROM << {'v': [1, 2]}, {'v': [1.0, 2]}, {'v': {'a': 1, 'b': 2}}, {'v': {'b': 2, 'a': 1}} >> AS t",
+                expected = Datum.bagVararg(
+                    Datum.struct(Field.of("_1", Datum.bigint(2)))
+                )
+            ),
         )
     }
 }
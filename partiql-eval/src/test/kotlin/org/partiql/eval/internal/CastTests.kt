@@ -0,0 +1,149 @@
+package org.partiql.eval.internal
+
+import org.junit.jupiter.api.assertThrows
+import org.junit.jupiter.params.ParameterizedTest
+import org.junit.jupiter.params.provider.MethodSource
+import org.partiql.eval.Mode
+import org.partiql.eval.compiler.PartiQLCompiler
+import org.partiql.parser.PartiQLParser
+import org.partiql.planner.PartiQLPlanner
+import org.partiql.spi.catalog.Catalog
+import org.partiql.spi.catalog.Name
+import org.partiql.spi.catalog.Session
+import org.partiql.spi.catalog.Table
+import org.partiql.spi.errors.PRuntimeException
+import org.partiql.spi.types.PType
+import org.partiql.spi.types.PTypeField
+import org.partiql.spi.value.Datum
+import org.partiql.spi.value.Field
+import java.math.BigDecimal
+import kotlin.test.assertEquals
+
+/**
+ * Casts of operands whose type is known when the plan is compiled, which are resolved by the compiler rather than for
+ * each value.
+ */
+class CastTests {
+
+    private val parser = PartiQLParser.standard()
+    private val planner = PartiQLPlanner.standard()
+    private val compiler = PartiQLCompiler.standard()
+
+    @ParameterizedTest
+    @MethodSource("successes")
+    fun castsTypedOperands(case: Case) {
+        for (mode in listOf(Mode.PERMISSIVE(), Mode.STRICT())) {
+            val actual = execute(case.input, mode)
+            assertEquals(case.expected.type.code(), actual.type.code(), "Expected the type of ${case.expected}: ${case.input}")
+            assertEquals(case.expected.isNull, actual.isNull, case.input)
+            assert(actual.isNull || Datum.comparator(true, true).compare(case.expected, actual) == 0) {
+                buildString {
+                    appendLine("Query    : ${case.input}")
+                    appendLine("Expected : ${case.expected}")
+                    appendLine("Actual   : $actual")
+                }
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("failures")
+    fun rejectsValuesOutOfRange(input: String) {
+        assertThrows<PRuntimeException> { execute(input, Mode.STRICT()) }
+        assert(execute(input, Mode.PERMISSIVE()).isMissing) { input }
+    }
+
+    private fun execute(input: String, mode: Mode): Datum {
+        val statement = parser.parse("SELECT VALUE $input FROM v AS v").statements[0]
+        val plan = planner.plan(statement, SESSION).plan
+        val result = DatumMaterialize.materialize(compiler.prepare(plan, mode).execute())
+        return result.single()
+    }
+
+    class Case(val input: String, val expected: Datum) {
+        override fun toString(): String = input
+    }
+
+    companion object {
+
+        private val TYPE = PType.row(
+            PTypeField.of("ti", PType.tinyint()),
+            PTypeField.of("si", PType.smallint()),
+            PTypeField.of("i", PType.integer()),
+            PTypeField.of("b", PType.bigint()),
+            PTypeField.of("d", PType.decimal(5, 2)),
+            PTypeField.of("r", PType.real()),
+            PTypeField.of("s", PType.string()),
+            PTypeField.of("h", PType.string()),
+            PTypeField.of("n", PType.integer()),
+        )
+
+        private val SESSION = Session.builder()
+            .catalog("memory")
+            .catalogs(
+                Catalog.builder()
+                    .name("memory")
+                    .define(
+                        Table.standard(
+                            Name.of("v"),
+                            PType.bag(TYPE),
+                            Datum.bagVararg(
+                                Datum.row(
+                                    TYPE.fields.toList(),
+                                    listOf(
+                                        Field.of("ti", Datum.tinyint(7)),
+                                        Field.of("si", Datum.smallint(300)),
+                                        Field.of("i", Datum.integer(-70000)),
+                                        Field.of("b", Datum.bigint(5_000_000_000)),
+                                        Field.of("d", Datum.decimal(BigDecimal("12.50"), 5, 2)),
+                                        Field.of("r", Datum.real(1.5f)),
+                                        Field.of("s", Datum.string("-42")),
+                                        Field.of("h", Datum.string("0x1F")),
+                                        Field.of("n", Datum.nullValue(PType.integer())),
+                                    )
+                                )
+                            )
+                        )
+                    )
+                    .build()
+            )
+            .build()
+
+        @JvmStatic
+        fun successes() = listOf(
+            // identity casts are elided
+            Case("CAST(v.i AS INT)", Datum.integer(-70000)),
+            Case("CAST(v.s AS STRING)", Datum.string("-42")),
+            // integers
+            Case("CAST(v.ti AS SMALLINT)", Datum.smallint(7)),
+            Case("CAST(v.ti AS BIGINT)", Datum.bigint(7)),
+            Case("CAST(v.i AS BIGINT)", Datum.bigint(-70000)),
+            Case("CAST(v.b / 1000 AS INT)", Datum.integer(5_000_000)),
+            Case("CAST(v.s AS INT)", Datum.integer(-42)),
+            Case("CAST(v.s AS BIGINT)", Datum.bigint(-42)),
+            Case("CAST(v.h AS INT)", Datum.integer(31)),
+            Case("CAST(v.d AS INT)", Datum.integer(12)),
+            Case("CAST(v.n AS BIGINT)", Datum.nullValue(PType.bigint())),
+            // approximate numbers
+            Case("CAST(v.i AS DOUBLE PRECISION)", Datum.doublePrecision(-70000.0)),
+            Case("CAST(v.d AS DOUBLE PRECISION)", Datum.doublePrecision(12.5)),
+            Case("CAST(v.r AS DOUBLE PRECISION)", Datum.doublePrecision(1.5)),
+            Case("CAST(v.s AS DOUBLE PRECISION)", Datum.doublePrecision(-42.0)),
+            Case("CAST(v.i AS REAL)", Datum.real(-70000f)),
+            // other casts
+            Case("CAST(v.i AS DECIMAL(10, 1))", Datum.decimal(BigDecimal("-70000.0"), 10, 1)),
+            Case("CAST(v.s AS DECIMAL(5, 1))", Datum.decimal(BigDecimal("-42.0"), 5, 1)),
+            Case("CAST(v.d AS STRING)", Datum.string("12.50")),
+            Case("CAST(v.ti AS VARCHAR(3))", Datum.varchar("7", 3)),
+            Case("CAST(v.i AS BOOL)", Datum.bool(true)),
+        )
+
+        @JvmStatic
+        fun failures() = listOf(
+            "CAST(v.si AS TINYINT)",
+            "CAST(v.i AS SMALLINT)",
+            "CAST(v.b AS INT)",
+            "CAST(v.s AS TINYINT) + CAST(v.i AS TINYINT)",
+        )
+    }
+}
@@ -0,0 +1,137 @@
+package org.partiql.eval.internal
+
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import org.partiql.eval.Cursor
+import org.partiql.eval.Mode
+import org.partiql.eval.PartiQLVM
+import org.partiql.eval.compiler.PartiQLCompiler
+import org.partiql.parser.PartiQLParser
+import org.partiql.planner.PartiQLPlanner
+import org.partiql.spi.catalog.Catalog
+import org.partiql.spi.catalog.Session
+import org.partiql.spi.catalog.Table
+import org.partiql.spi.errors.PRuntimeException
+import org.partiql.spi.types.PType
+import org.partiql.spi.value.Datum
+import org.partiql.spi.value.Field
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.test.assertTrue
+
+/**
+ * Tests streaming query results with [Cursor].
+ */
+class CursorTests {
+
+    private val parser = PartiQLParser.standard()
+    private val compiler = PartiQLCompiler.standard()
+    private val vm = PartiQLVM.standard()
+
+    /**
+     * The number of records of `t` which have been read.
+     */
+    private var reads = 0
+
+    private val records = Iterable {
+        val n = 1_000_000
+        var i = 0
+        object : Iterator<Datum> {
+            override fun hasNext(): Boolean = i < n
+            override fun next(): Datum {
+                reads++
+                return Datum.struct(Field.of("a", Datum.integer(i++)), Field.of("b", Datum.string("b")))
+            }
+        }
+    }
+
+    private val session = Session.builder()
+        .catalog("memory")
+        .catalogs(
+            Catalog.builder()
+                .name("memory")
+                .define(Table.builder().name("t").datum(Datum.bag(records)).build())
+                .build()
+        )
+        .build()
+
+    private fun open(query: String, mode: Mode = Mode.STRICT()): Cursor {
+        val statement = parser.parse(query).statements[0]
+        val result = PartiQLPlanner.builder().useRefs().build().plan(statement, session)
+        val plan = compiler.compile(result.plan, mode)
+        return vm.open(plan, buildExecutionCatalogs(result.symbols, session))
+    }
+
+    @Test
+    fun rowsArePulledOnDemand() {
+        open("SELECT VALUE t.a FROM t").use { cursor ->
+            assertEquals(PType.BAG, cursor.type.code())
+            // the table has no schema
+            assertEquals(PType.DYNAMIC, cursor.type.typeParameter.code())
+            for (i in 0 until 5) {
+                assertTrue(cursor.hasNext())
+                assertEquals(i, cursor.next().int)
+            }
+            assertTrue(reads <= 6, "read $reads records")
+        }
+    }
+
+    @Test
+    fun closedCursorIsExhausted() {
+        val cursor = open("SELECT t.a FROM t WHERE t.a > 10")
+        assertEquals(11, cursor.next().fields.next().value.int)
+        cursor.close()
+        assertFalse(cursor.hasNext())
+        assertThrows<NoSuchElementException> { cursor.next() }
+        cursor.close()
+    }
+
+    @Test
+    fun cursorMatchesExecute() {
+        val query = "SELECT t.a * 2 AS x FROM t WHERE t.a < 100 ORDER BY t.a DESC"
+        val statement = parser.parse(query).statements[0]
+        val result = PartiQLPlanner.builder().useRefs().build().plan(statement, session)
+        val plan = compiler.compile(result.plan, Mode.STRICT())
+        val expected = vm.execute(plan, buildExecutionCatalogs(result.symbols, session)).toList()
+        val actual = vm.open(plan, buildExecutionCatalogs(result.symbols, session)).use { it.asSequence().toList() }
+        assertEquals(100, actual.size)
+        assertEquals(PType.ARRAY, vm.open(plan, buildExecutionCatalogs(result.symbols, session)).use { it.type.code() })
+        for (i in expected.indices) {
+            assertEquals(0, Datum.comparator().compare(expected[i], actual[i]))
+        }
+    }
+
+    @Test
+    fun scalarResultIsSingleValue() {
+        open("1 + 1").use { cursor ->
+            assertEquals(PType.INTEGER, cursor.type.code())
+            assertEquals(2, cursor.next().int)
+            assertFalse(cursor.hasNext())
+        }
+    }
+
+    @Test
+    fun errorClosesCursor() {
+        open("SELECT VALUE 10 / (5 - t.a) FROM t").use { cursor ->
+            assertEquals(2, cursor.next().int)
+            cursor.next()
+            cursor.next()
+            cursor.next()
+            cursor.next()
+            assertThrows<PRuntimeException> { cursor.next() }
+            assertFalse(cursor.hasNext())
+        }
+    }
+
+    @Test
+    fun statementCursor() {
+        val statement = parser.parse("SELECT VALUE t.a FROM t").statements[0]
+        val plan = PartiQLPlanner.standard().plan(statement, session).plan
+        @Suppress("DEPRECATION")
+        compiler.prepare(plan, Mode.PERMISSIVE()).open().use { cursor ->
+            assertEquals(0, cursor.next().int)
+            assertEquals(1, cursor.next().int)
+        }
+        assertTrue(reads <= 3, "read $reads records")
+    }
+}
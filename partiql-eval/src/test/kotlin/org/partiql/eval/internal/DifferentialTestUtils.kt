@@ -0,0 +1,99 @@
+package org.partiql.eval.internal
+
+import org.partiql.eval.ExecutionPlan
+import org.partiql.eval.Mode
+import org.partiql.eval.PartiQLVM
+import org.partiql.eval.Statement
+import org.partiql.eval.compiler.PartiQLCompiler
+import org.partiql.eval.internal.compiler.PlanToExecTransform
+import org.partiql.eval.internal.plan.PExpr
+import org.partiql.eval.internal.plan.PRel
+import org.partiql.parser.PartiQLParser
+import org.partiql.planner.PartiQLPlanner
+import org.partiql.planner.builder.PartiQLPlannerBuilder
+import org.partiql.spi.Context
+import org.partiql.spi.catalog.Session
+import org.partiql.spi.value.Datum
+import java.lang.reflect.Modifier
+
+/**
+ * Asserts that [actual] is the same as [expected], in the sense of [Datum.comparator], for the given [query].
+ */
+internal fun assertSameResult(query: String, expected: Datum, actual: Datum) {
+    assert(Datum.comparator(true, true).compare(expected, actual) == 0) {
+        buildString {
+            appendLine("Query    : $query")
+            appendLine("Expected : $expected")
+            appendLine("Actual   : $actual")
+        }
+    }
+}
+
+/**
+ * Executes [query] on both paths of the compiler, i.e. the [Statement] prepared from a plan, and the [ExecutionPlan] of
+ * a plan with references which is executed by the VM, and asserts that both paths have the same result.
+ *
+ * @param ctx the context of both executions.
+ * @param outcome evaluates each path, e.g. to compare the errors which they raise.
+ * @param configure configures the planner of both paths, e.g. to enable an optimization.
+ * @return the result of the prepared [Statement].
+ */
+internal fun executeBothPaths(
+    query: String,
+    session: Session,
+    mode: Mode,
+    ctx: Context = Context.standard(),
+    outcome: (() -> Datum) -> Datum = { it() },
+    configure: PartiQLPlannerBuilder.() -> PartiQLPlannerBuilder = { this },
+): Datum {
+    val statement = PartiQLParser.standard().parse(query).statements[0]
+    val compiler = PartiQLCompiler.standard()
+    // Old path
+    val plan = PartiQLPlanner.builder().configure().build().plan(statement, session).plan
+    val result = outcome { DatumMaterialize.materialize(compiler.prepare(plan, mode, ctx).execute()) }
+    // VM path
+    val refResult = PartiQLPlanner.builder().useRefs().configure().build().plan(statement, session)
+    val vmResult = outcome {
+        val execPlan = compiler.compile(refResult.plan, mode)
+        val catalogs = buildExecutionCatalogs(refResult.symbols, session)
+        DatumMaterialize.materialize(PartiQLVM.standard().execute(execPlan, catalogs, ctx))
+    }
+    assertSameResult("[VM PATH] $query", result, vmResult)
+    return result
+}
+
+/**
+ * @param configure configures the planner, e.g. to enable an optimization.
+ * @return the root of the execution plan of [query], e.g. to assert which operators an optimization chose.
+ */
+internal fun executionPlan(
+    query: String,
+    session: Session,
+    mode: Mode = Mode.STRICT(),
+    configure: PartiQLPlannerBuilder.() -> PartiQLPlannerBuilder = { this },
+): PExpr {
+    val statement = PartiQLParser.standard().parse(query).statements[0]
+    val plan = PartiQLPlanner.builder().configure().build().plan(statement, session).plan
+    return PlanToExecTransform(emptyList(), mode).transform(plan).root
+}
+
+/**
+ * @return the expressions and relations of this execution plan, in pre-order.
+ */
+internal fun PExpr.nodes(): List<Any> = mutableListOf<Any>().also { collect(this, it) }
+
+private fun collect(node: Any?, acc: MutableList<Any>) {
+    when {
+        node is List<*> -> node.forEach { collect(it, acc) }
+        node != null && node.javaClass.name.startsWith("org.partiql.eval.internal.plan.") -> {
+            if (node is PExpr || node is PRel) {
+                acc.add(node)
+            }
+            for (field in node.javaClass.declaredFields) {
+                if (Modifier.isStatic(field.modifiers)) continue
+                field.isAccessible = true
+                collect(field.get(node), acc)
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package org.partiql.eval.internal
+
+import org.junit.jupiter.api.Test
+import org.partiql.eval.ExecutionPlan
+import org.partiql.eval.Mode
+import org.partiql.eval.PartiQLVM
+import org.partiql.eval.Profile
+import org.partiql.eval.compiler.PartiQLCompiler
+import org.partiql.parser.PartiQLParser
+import org.partiql.planner.PartiQLPlanner
+import org.partiql.spi.Context
+import org.partiql.spi.catalog.Catalog
+import org.partiql.spi.catalog.ExecutionCatalog
+import org.partiql.spi.catalog.Name
+import org.partiql.spi.catalog.Session
+import org.partiql.spi.catalog.Table
+import org.partiql.spi.value.Datum
+import org.partiql.spi.value.Field
+import kotlin.test.assertEquals
+import kotlin.test.assertTrue
+
+/**
+ * Tests of the measurements of [PartiQLVM.analyze].
+ */
+class ExplainAnalyzeTests {
+
+    private val parser = PartiQLParser.standard()
+    private val planner = PartiQLPlanner.builder().useRefs().build()
+    private val compiler = PartiQLCompiler.standard()
+    private val vm = PartiQLVM.standard()
+
+    @Test
+    fun countsRowsOfEachOperator() {
+        val profile = analyze("SELECT t.a FROM t WHERE t.a > 1")
+        assertEquals("Statement", profile.name)
+        assertEquals(2, profile.rows)
+        val filter = find(profile, "Filter").single()
+        assertEquals(3, filter.rowsIn)
+        assertEquals(2, filter.rows)
+        val scan = find(profile, "Scan").single()
+        assertEquals(3, scan.rows)
+        assertEquals(1, scan.opens)
+        assertEquals(-1, profile.allocatedBytes)
+    }
+
+    @Test
+    fun countsOpensOfCorrelatedSubqueries() {
+        val profile = analyze("SELECT t.a, (SELECT VALUE u.b FROM u WHERE u.b = t.a) AS s FROM t")
+        val scans = find(profile, "Scan").associateBy { it.opens }
+        assertEquals(3, scans[1]!!.rows)
+        // the subquery is executed once per row of t
+        assertEquals(12, scans[3]!!.rows)
+        assertEquals(3, find(profile, "Filter").single().rows)
+    }
+
+    @Test
+    fun measuresAllocations() {
+        val profile = analyze("SELECT t.a FROM t ORDER BY t.a DESC", allocations = true)
+        assertTrue(profile.allocatedBytes > 0)
+        assertTrue(find(profile, "Sort").single().allocatedBytes >= 0)
+    }
+
+    @Test
+    fun formatsTextAndStructs() {
+        val profile = analyze("SELECT t.a FROM t WHERE t.a > 1")
+        val lines = profile.toText().lines().filter { it.isNotEmpty() }
+        assertEquals(find(profile) { true }.size, lines.size)
+        assertTrue(lines[0].startsWith("Statement (rows=2"), lines[0])
+        assertTrue(lines.any { it.trim().startsWith("-> Filter (rows=2, rows_in=3, opens=1") }, lines.joinToString("\n"))
+        val struct = profile.toDatum()
+        assertEquals("Statement", struct.get("name").string)
+        assertEquals(2, struct.get("rows").long)
+        assertEquals(profile.children.size, struct.get("children").count())
+    }
+
+    @Test
+    fun otherVMsProfileTheStatement() {
+        // a VM which only implements execute
+        val other = object : PartiQLVM {
+            override fun execute(plan: ExecutionPlan, catalogs: Array<ExecutionCatalog>): Datum = vm.execute(plan, catalogs)
+            override fun execute(plan: ExecutionPlan, catalogs: Array<ExecutionCatalog>, ctx: Context): Datum = vm.execute(plan, catalogs, ctx)
+        }
+        val profile = analyze("SELECT t.a FROM t WHERE t.a > 1", vm = other)
+        assertEquals("Statement", profile.name)
+        assertEquals(2, profile.rows)
+        assertEquals(1, profile.opens)
+        assertTrue(profile.children.isEmpty())
+    }
+
+    /**
+     * @return the nodes of the profile, in pre-order, with the given name.
+     */
+    private fun find(profile: Profile, name: String): List<Profile> = find(profile) { it.name == name }
+
+    private fun find(profile: Profile, predicate: (Profile) -> Boolean): List<Profile> {
+        val nodes = profile.children.flatMap { find(it, predicate) }
+        return if (predicate(profile)) listOf(profile) + nodes else nodes
+    }
+
+    private fun analyze(query: String, allocations: Boolean = false, vm: PartiQLVM = this.vm): Profile {
+        val statement = parser.parse(query).statements[0]
+        val result = planner.plan(statement, SESSION)
+        val plan = compiler.compile(result.plan, Mode.STRICT())
+        return vm.analyze(plan, buildExecutionCatalogs(result.symbols, SESSION), Context.standard(), allocations)
+    }
+
+    private companion object {
+
+        val T = Datum.bagVararg(
+            Datum.struct(Field.of("a", Datum.integer(1))),
+            Datum.struct(Field.of("a", Datum.integer(2))),
+            Datum.struct(Field.of("a", Datum.integer(3))),
+        )
+
+        val U = Datum.bagVararg(
+            Datum.struct(Field.of("b", Datum.integer(2))),
+            Datum.struct(Field.of("b", Datum.integer(3))),
+            Datum.struct(Field.of("b", Datum.integer(3))),
+            Datum.struct(Field.of("b", Datum.integer(4))),
+        )
+
+        val SESSION = Session.builder()
+            .catalog("memory")
+            .catalogs(
+                Catalog.builder()
+                    .name("memory")
+                    .define(Table.standard(Name.of("t"), T))
+                    .define(Table.standard(Name.of("u"), U))
+                    .build()
+            )
+            .build()
+    }
+}
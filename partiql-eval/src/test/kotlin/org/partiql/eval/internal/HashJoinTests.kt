@@ -0,0 +1,221 @@
+package org.partiql.eval.internal
+
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import org.junit.jupiter.params.ParameterizedTest
+import org.junit.jupiter.params.provider.MethodSource
+import org.partiql.eval.Mode
+import org.partiql.eval.compiler.PartiQLCompiler
+import org.partiql.eval.internal.compiler.PlanToExecTransform
+import org.partiql.parser.PartiQLParser
+import org.partiql.planner.PartiQLPlanner
+import org.partiql.spi.Context
+import org.partiql.spi.catalog.Catalog
+import org.partiql.spi.catalog.Name
+import org.partiql.spi.catalog.Session
+import org.partiql.spi.catalog.Table
+import org.partiql.spi.types.PType
+import org.partiql.spi.value.Datum
+import org.partiql.spi.value.Field
+import java.io.File
+import java.math.BigDecimal
+import java.nio.file.Path
+import java.time.LocalDate
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.test.assertTrue
+
+/**
+ * Asserts that equi-joins, which are hash joins, produce the same results as the nested-loop joins of the same inputs
+ * on conditions which are not equalities, both in memory and when the inputs are spilled to disk. The inner and right
+ * joins also filter their lhs at runtime.
+ */
+class HashJoinTests {
+
+    @TempDir
+    lateinit var tmp: Path
+
+    private val parser = PartiQLParser.standard()
+    private val planner = PartiQLPlanner.standard()
+    private val compiler = PartiQLCompiler.standard()
+
+    @ParameterizedTest
+    @MethodSource("cases")
+    fun sameResultAsNestedLoop(case: Case) {
+        val hashed = case.query.replace("{ON}", case.equi)
+        val nested = case.query.replace("{ON}", case.nested)
+        assertTrue(plan(hashed).contains("HashJoin("), "Expected a hash join: $hashed")
+        assertFalse(plan(nested).contains("HashJoin("), "Expected a nested-loop join: $nested")
+        val filtered = !hashed.contains("LEFT JOIN") && !hashed.contains("FULL JOIN")
+        assertEquals(filtered, plan(hashed).contains("RuntimeFilter("), "Expected a runtime filter: $hashed")
+        for (mode in listOf(Mode.PERMISSIVE(), Mode.STRICT())) {
+            val expected = execute(nested, mode, Context.standard())
+            for (limit in listOf(Context.standard().memoryLimit, 4096L, 0L)) {
+                val actual = execute(hashed, mode, spilling(limit))
+                assert(Datum.comparator(true, true).compare(expected, actual) == 0) {
+                    buildString {
+                        appendLine("Query    : $hashed")
+                        appendLine("Limit    : $limit")
+                        appendLine("Expected : $expected")
+                        appendLine("Actual   : $actual")
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    fun runtimeFilterIsPushedToScan() {
+        val query = "SELECT x.v AS xv, y.v AS yv FROM (SELECT l.k AS k, l.v AS v FROM l WHERE l.v > 10) AS x JOIN r AS y ON x.k = y.k"
+        val plan = plan(query)
+        // the filter is below the subquery's projection and its WHERE
+        assertTrue(plan.contains("Filter(input=RuntimeFilter(input=Scan("), plan)
+    }
+
+    @Test
+    fun spilledFilesAreDeleted() {
+        val query = "SELECT x.v AS xv, y.v AS yv FROM l AS x JOIN r AS y ON x.k = y.k"
+        val before = spillDirectories()
+        val statement = parser.parse(query).statements[0]
+        val plan = planner.plan(statement, SESSION).plan
+        val result = compiler.prepare(plan, Mode.STRICT(), spilling(0)).execute()
+        val iterator = result.iterator()
+        assertTrue(iterator.hasNext())
+        iterator.next()
+        assertTrue((spillDirectories() - before).isNotEmpty(), "Expected the join to spill")
+        while (iterator.hasNext()) iterator.next()
+        assertTrue((spillDirectories() - before).isEmpty(), "Expected the spilled files to be deleted")
+    }
+
+    @Test
+    fun nothingIsSpilledWithoutSpillDirectory() {
+        val query = "SELECT x.v AS xv, y.v AS yv FROM l AS x JOIN r AS y ON x.k = y.k"
+        val before = spillDirectories(File(System.getProperty("java.io.tmpdir")))
+        val inMemory = object : Context {
+            override fun getMemoryLimit(): Long = 0
+        }
+        val actual = execute(query, Mode.STRICT(), inMemory)
+        assertTrue((spillDirectories(File(System.getProperty("java.io.tmpdir"))) - before).isEmpty(), "Expected no spill")
+        assertEquals(0, Datum.comparator(true, true).compare(execute(query, Mode.STRICT(), spilling(0)), actual))
+    }
+
+    @Test
+    fun emptyInputDoesNotEvaluateKeysOfTheOther() {
+        // x.absent and y.absent are errors in strict mode, and a nested-loop join would never evaluate them
+        val lhs = "(SELECT l.k AS k, l.v AS v FROM l WHERE l.v < 0)"
+        val rhs = "(SELECT r.k AS k, r.v AS v FROM r WHERE r.v < 0)"
+        for (join in listOf("JOIN", "LEFT JOIN", "RIGHT JOIN", "FULL JOIN")) {
+            val lhsOuter = join == "LEFT JOIN" || join == "FULL JOIN"
+            val rhsOuter = join == "RIGHT JOIN" || join == "FULL JOIN"
+            // an empty build side
+            assertSameAsNestedLoop("SELECT x.v AS xv, y.v AS yv FROM l AS x $join $rhs AS y ON {ON}", "x.absent", "y.k", if (lhsOuter) L.size else 0)
+            // an empty probe side
+            assertSameAsNestedLoop("SELECT x.v AS xv, y.v AS yv FROM $lhs AS x $join r AS y ON {ON}", "x.k", "y.absent", if (rhsOuter) R.size else 0)
+        }
+    }
+
+    private fun assertSameAsNestedLoop(query: String, lhsKey: String, rhsKey: String, count: Int) {
+        val hashed = query.replace("{ON}", "$lhsKey = $rhsKey")
+        val nested = query.replace("{ON}", "NOT ($lhsKey <> $rhsKey)")
+        assertTrue(plan(hashed).contains("HashJoin("), "Expected a hash join: $hashed")
+        val expected = execute(nested, Mode.STRICT(), Context.standard())
+        val actual = execute(hashed, Mode.STRICT(), Context.standard())
+        assertEquals(0, Datum.comparator(true, true).compare(expected, actual), hashed)
+        assertEquals(count, actual.count(), hashed)
+    }
+
+    private fun spillDirectories(parent: File = tmp.toFile()): Set<String> {
+        return parent.list { _, name -> name.startsWith("partiql-join-") }?.toSet() ?: emptySet()
+    }
+
+    /**
+     * @return a context which spills to [tmp] once a hash table exceeds the given number of bytes.
+     */
+    private fun spilling(bytes: Long) = object : Context {
+        override fun getMemoryLimit(): Long = bytes
+        override fun getSpillDirectory(): Path = tmp
+    }
+
+    private fun plan(query: String): String {
+        val statement = parser.parse(query).statements[0]
+        val plan = planner.plan(statement, SESSION).plan
+        return PlanToExecTransform(emptyList(), Mode.STRICT()).transform(plan).root.toString()
+    }
+
+    private fun execute(query: String, mode: Mode, ctx: Context): Datum {
+        val statement = parser.parse(query).statements[0]
+        val plan = planner.plan(statement, SESSION).plan
+        return DatumMaterialize.materialize(compiler.prepare(plan, mode, ctx).execute())
+    }
+
+    class Case(val query: String, val equi: String, val nested: String) {
+        override fun toString(): String = "${query.replace("{ON}", equi)} [$nested]"
+    }
+
+    companion object {
+
+        private fun row(k: Datum, g: Int, v: Int, p: Datum): Datum = Datum.struct(
+            Field.of("k", k),
+            Field.of("g", Datum.integer(g)),
+            Field.of("v", Datum.integer(v)),
+            Field.of("p", p),
+        )
+
+        // a payload of several types, which are spilled with the rows
+        private fun payload(i: Int): Datum = when (i % 4) {
+            0 -> Datum.string("s".repeat(i))
+            1 -> Datum.date(LocalDate.ofEpochDay(i.toLong()))
+            2 -> Datum.array(listOf(Datum.decimal(BigDecimal.valueOf(i.toLong(), 2), 9, 2), Datum.nullValue()))
+            else -> Datum.struct(Field.of("i", Datum.bigint(i.toLong())))
+        }
+
+        // duplicate keys on both sides, a key shared by many rows, NULL keys on both sides, and keys of different types
+        private val L = (0 until 300).map { i ->
+            val k = when {
+                i % 17 == 0 -> Datum.nullValue(PType.integer())
+                i % 5 == 0 -> Datum.integer(-1)
+                else -> Datum.integer(i % 53)
+            }
+            row(k, i % 2, i, payload(i))
+        }
+
+        private val R = (0 until 200).map { i ->
+            val k = when {
+                i % 19 == 0 -> Datum.missing()
+                i % 4 == 0 -> Datum.integer(-1)
+                i % 3 == 0 -> Datum.decimal(BigDecimal.valueOf((i % 61).toLong()), 2, 0)
+                else -> Datum.bigint((i % 61).toLong())
+            }
+            row(k, i % 3, i, payload(i))
+        }
+
+        private val SESSION = Session.builder()
+            .catalog("memory")
+            .catalogs(
+                Catalog.builder()
+                    .name("memory")
+                    .define(Table.standard(Name.of("l"), Datum.bag(L)))
+                    .define(Table.standard(Name.of("r"), Datum.bag(R)))
+                    .build()
+            )
+            .build()
+
+        @JvmStatic
+        fun cases(): List<Case> {
+            val lhs = listOf("l", "(SELECT l.k AS k, l.g AS g, l.v AS v, l.p AS p FROM l WHERE l.v > 10)")
+            val joins = listOf("JOIN", "LEFT JOIN", "RIGHT JOIN", "FULL JOIN")
+            val conditions = listOf(
+                "x.k = y.k" to "NOT (x.k <> y.k)",
+                "y.k = x.k AND x.v < y.v" to "NOT (x.k <> y.k) AND x.v < y.v",
+                "x.k = y.k AND x.g = y.g" to "NOT (x.k <> y.k) AND NOT (x.g <> y.g)",
+            )
+            return lhs.flatMap { l ->
+                joins.flatMap { join ->
+                    conditions.map { (equi, nested) ->
+                        Case("SELECT x.v AS xv, y.v AS yv, x.p AS xp, y.p AS yp FROM $l AS x $join r AS y ON {ON}", equi, nested)
+                    }
+                }
+            }
+        }
+    }
+}
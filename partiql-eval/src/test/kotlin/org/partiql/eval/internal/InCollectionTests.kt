@@ -49,6 +49,11 @@ class InCollectionTests {
     @Execution(ExecutionMode.CONCURRENT)
     fun inCollectionWithGlobalsTests(tc: SuccessTestCase) = tc.run()
 
+    @ParameterizedTest
+    @MethodSource("constantInCollectionCases")
+    @Execution(ExecutionMode.CONCURRENT)
+    fun constantInCollectionTests(tc: SuccessTestCase) = tc.run()
+
     companion object {
 
         // =============================================================================
@@ -605,5 +610,115 @@ class InCollectionTests {
                 )
             ),
         )
+    
+        // =============================================================================
+        // IN with a constant RHS — evaluated by a membership test
+        // =============================================================================
+        private val SKUS = (0 until 5000).joinToString(", ") { "'sku$it'" }
+
+        @JvmStatic
+        fun constantInCollectionCases() = listOf(
+            SuccessTestCase(
+                name = "Constant IN — decimal equals integer",
+                input = "1.00 IN (3, 2, 1);",
+                expected = Datum.bool(true)
+            ),
+            SuccessTestCase(
+                name = "Constant IN — integer equals decimal",
+                input = "2 IN (1.5, 2.0);",
+                expected = Datum.bool(true)
+            ),
+            SuccessTestCase(
+                name = "Constant IN — large integer equals decimal",
+                input = "9223372036854775807 IN (9223372036854775807.00);",
+                expected = Datum.bool(true)
+            ),
+            SuccessTestCase(
+                name = "Constant IN — fractional decimal",
+                input = "1.50 IN (1.5, 2);",
+                expected = Datum.bool(true)
+            ),
+            SuccessTestCase(
+                name = "Constant IN — double equals integer",
+                input = "CAST(2 AS DOUBLE PRECISION) IN (1, 2, 3);",
+                expected = Datum.bool(true)
+            ),
+            SuccessTestCase(
+                name = "Constant IN — integer equals double",
+                input = "3 IN (1, CAST(3 AS DOUBLE PRECISION));",
+                expected = Datum.bool(true)
+            ),
+            SuccessTestCase(
+                name = "Constant IN — double no match",
+                input = "CAST(2.5 AS DOUBLE PRECISION) IN (1, 2, 3);",
+                expected = Datum.bool(false)
+            ),
+            SuccessTestCase(
+                name = "Constant IN — char equals string",
+                input = "CAST('a' AS CHAR(1)) IN ('b', 'a');",
+                expected = Datum.bool(true)
+            ),
+            SuccessTestCase(
+                name = "Constant IN — number does not equal string",
+                input = "1 IN ('1', true);",
+                expected = Datum.bool(false)
+            ),
+            SuccessTestCase(
+                name = "Constant IN — date",
+                input = "DATE '2024-01-02' IN (DATE '2024-01-01', DATE '2024-01-02');",
+                expected = Datum.bool(true)
+            ),
+            SuccessTestCase(
+                name = "Constant IN — nested collection",
+                input = "[1, 2] IN ([1], [1, 2]);",
+                expected = Datum.bool(true)
+            ),
+            SuccessTestCase(
+                name = "Constant IN — null element, match",
+                input = "1 IN (1, NULL);",
+                expected = Datum.bool(true)
+            ),
+            SuccessTestCase(
+                name = "Constant IN — null element, no match",
+                input = "2 IN (1, NULL);",
+                expected = Datum.nullValue(PType.bool())
+            ),
+            SuccessTestCase(
+                name = "Constant IN — missing element, no match",
+                input = "2 IN (1, MISSING);",
+                expected = Datum.nullValue(PType.bool())
+            ),
+            SuccessTestCase(
+                name = "Constant IN — null value",
+                input = "NULL IN (1, 2);",
+                expected = Datum.nullValue(PType.bool())
+            ),
+            SuccessTestCase(
+                name = "Constant IN — missing value",
+                input = "MISSING IN (1, 2);",
+                expected = Datum.nullValue(PType.bool())
+            ),
+            SuccessTestCase(
+                name = "Constant IN — large list, match",
+                input = "'sku4321' IN ($SKUS);",
+                expected = Datum.bool(true)
+            ),
+            SuccessTestCase(
+                name = "Constant NOT IN — large list, no match",
+                input = "'sku5000' NOT IN ($SKUS);",
+                expected = Datum.bool(true)
+            ),
+            SuccessTestCase(
+                name = "Constant IN — filter over a table",
+                input = "SELECT VALUE t.a FROM t WHERE t.a IN (3, 1.0, 'x', NULL);",
+                expected = Datum.bagVararg(Datum.bigint(1), Datum.bigint(3)),
+                globals = listOf(
+                    Global(
+                        name = "t",
+                        value = """[{"a": 1}, {"a": 2}, {"a": 3}, {"a": "y"}, {"b": 4}]"""
+                    )
+                )
+            ),
+        )
     }
 }
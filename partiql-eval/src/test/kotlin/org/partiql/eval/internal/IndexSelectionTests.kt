@@ -0,0 +1,136 @@
+package org.partiql.eval.internal
+
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.params.ParameterizedTest
+import org.junit.jupiter.params.provider.MethodSource
+import org.partiql.eval.Mode
+import org.partiql.eval.internal.plan.PRel
+import org.partiql.spi.catalog.Catalog
+import org.partiql.spi.catalog.Session
+import org.partiql.spi.catalog.Table
+import org.partiql.spi.errors.PRuntimeException
+import org.partiql.spi.types.PType
+import org.partiql.spi.types.PTypeField
+import org.partiql.spi.value.Datum
+import org.partiql.spi.value.Field
+import java.math.BigDecimal
+import kotlin.test.assertFalse
+import kotlin.test.assertNotNull
+import kotlin.test.assertNull
+import kotlin.test.assertTrue
+
+/**
+ * Asserts that queries over indexed tables produce the same results with and without index lookups.
+ */
+class IndexSelectionTests {
+
+    @ParameterizedTest
+    @MethodSource("queries")
+    fun sameResultWithIndexes(query: String) {
+        for (mode in listOf(Mode.PERMISSIVE(), Mode.STRICT())) {
+            val expected = execute(query, mode, indexes = false)
+            val actual = execute(query, mode, indexes = true)
+            assertSameResult(query, expected, actual)
+        }
+    }
+
+    @Test
+    fun equalityIsAHashLookup() {
+        val query = "SELECT orders.o FROM orders WHERE orders.c = 2"
+        val nodes = executionPlan(query, SESSION) { useIndexes() }.nodes()
+        val lookup = nodes.filterIsInstance<PRel.IndexScan>().single()
+        assertNotNull(lookup.key)
+        assertTrue(nodes.none { it is PRel.Scan })
+        assertTrue(executionPlan(query, SESSION) { useIndexes(false) }.nodes().none { it is PRel.IndexScan })
+    }
+
+    @Test
+    fun rangeIsASortedLookup() {
+        val query = "SELECT orders.o FROM orders WHERE orders.o >= 10 AND orders.o < 15"
+        val lookup = executionPlan(query, SESSION) { useIndexes() }.nodes().filterIsInstance<PRel.IndexScan>().single()
+        assertNull(lookup.key)
+        assertNotNull(lookup.lower)
+        assertTrue(lookup.lowerInclusive)
+        assertNotNull(lookup.upper)
+        assertFalse(lookup.upperInclusive)
+    }
+
+    @Test
+    fun typedColumnIsALookup() {
+        val query = "SELECT c.name FROM customers AS c WHERE c.id = 3"
+        val lookup = executionPlan(query, SESSION) { useIndexes() }.nodes().filterIsInstance<PRel.IndexScan>().single()
+        assertNotNull(lookup.key)
+    }
+
+    private fun execute(query: String, mode: Mode, indexes: Boolean): Datum {
+        return executeBothPaths(query, SESSION, mode, outcome = ::outcome) { useIndexes(indexes) }
+    }
+
+    /**
+     * Errors are compared by their code, since a lookup must raise the same errors as a scan in strict mode.
+     */
+    private fun outcome(block: () -> Datum): Datum = try {
+        block()
+    } catch (e: PRuntimeException) {
+        Datum.string("error: ${e.error.code()}")
+    }
+
+    companion object {
+
+        private fun struct(vararg fields: Pair<String, Datum>): Datum {
+            return Datum.struct(fields.map { Field.of(it.first, it.second) })
+        }
+
+        // orders.c references customers.id; some orders have a null or a non-integer customer
+        private val ORDERS = Table.builder()
+            .name("orders")
+            .datum(
+                Datum.bag(
+                    (0 until 40).map {
+                        val c = when (it % 10) {
+                            7 -> Datum.nullValue()
+                            8 -> Datum.string("c${it % 3}")
+                            9 -> Datum.decimal(BigDecimal("${it % 5}.0"), 2, 1)
+                            else -> Datum.integer(it % 5)
+                        }
+                        struct("o" to Datum.integer(it), "c" to c)
+                    }
+                )
+            )
+            .hashIndex("c")
+            .sortedIndex("o")
+            .build()
+
+        // customers has a schema, so that the typer casts its columns to DYNAMIC in comparisons
+        private val CUSTOMERS = Table.builder()
+            .name("customers")
+            .schema(PType.bag(PType.row(PTypeField.of("id", PType.integer()), PTypeField.of("name", PType.string()))))
+            .datum(Datum.bag((0 until 5).map { struct("id" to Datum.integer(it), "name" to Datum.string("n$it")) }))
+            .sortedIndex("id")
+            .build()
+
+        private val SESSION = Session.builder()
+            .catalog("memory")
+            .catalogs(Catalog.builder().name("memory").define(ORDERS).define(CUSTOMERS).build())
+            .build()
+
+        @JvmStatic
+        fun queries() = listOf(
+            "SELECT orders.o FROM orders WHERE orders.c = 2",
+            "SELECT orders.o FROM orders WHERE orders.c = 2.00",
+            "SELECT orders.o FROM orders WHERE orders.c = 'c1'",
+            "SELECT orders.o FROM orders WHERE orders.c = NULL",
+            "SELECT orders.o FROM orders WHERE orders.c = 2 AND orders.o > 20",
+            "SELECT orders.o FROM orders WHERE orders.o >= 10 AND orders.o < 15",
+            "SELECT orders.o FROM orders WHERE orders.o BETWEEN 30 AND 35",
+            "SELECT orders.o FROM orders WHERE 5 > orders.o",
+            "SELECT c.name FROM customers AS c WHERE c.id = 3",
+            "SELECT c.name FROM customers AS c WHERE c.id > 1 AND c.id <= 3",
+            "SELECT c.name, o.o FROM customers AS c JOIN orders AS o ON o.c = c.id",
+            "SELECT c.name, o.o FROM customers AS c, orders AS o WHERE c.id = o.c AND o.o < 20",
+            "SELECT o.o, c.name FROM orders AS o JOIN customers AS c ON c.id = o.c + 1",
+            "SELECT c.name, COUNT(*) AS n FROM customers AS c JOIN orders AS o ON o.c = c.id GROUP BY c.name",
+            "SELECT o.o FROM orders AS o WHERE o.c = (SELECT VALUE c.id FROM customers AS c WHERE c.name = 'n3')",
+        )
+    }
+}
@@ -0,0 +1,105 @@
+package org.partiql.eval.internal
+
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.params.ParameterizedTest
+import org.junit.jupiter.params.provider.MethodSource
+import org.partiql.eval.Mode
+import org.partiql.eval.internal.plan.PExpr
+import org.partiql.eval.internal.plan.PRel
+import org.partiql.spi.catalog.Catalog
+import org.partiql.spi.catalog.ColumnStatistics
+import org.partiql.spi.catalog.Session
+import org.partiql.spi.catalog.Table
+import org.partiql.spi.catalog.TableStatistics
+import org.partiql.spi.value.Datum
+import org.partiql.spi.value.Field
+import kotlin.test.assertEquals
+import kotlin.test.assertTrue
+
+/**
+ * Asserts that queries over tables with statistics produce the same results with and without join reordering.
+ */
+class JoinReorderingTests {
+
+    @ParameterizedTest
+    @MethodSource("queries")
+    fun sameResultWithReordering(query: String) {
+        for (mode in listOf(Mode.PERMISSIVE(), Mode.STRICT())) {
+            val expected = execute(query, mode, reorder = false)
+            val actual = execute(query, mode, reorder = true)
+            assertSameResult(query, expected, actual)
+        }
+    }
+
+    @Test
+    fun smallestIntermediateResultsAreJoinedFirst() {
+        val query = queries()[0]
+        val reordered = executionPlan(query, SESSION) { reorderJoins() }.nodes()
+        assertEquals(listOf("mid", "small", "big"), scans(reordered))
+        // every join of the chain is on a conjunct of the WHERE clause
+        assertEquals(2, reordered.filterIsInstance<PRel.HashJoin>().size)
+        assertTrue(reordered.none { it is PRel.Join || it is PRel.Filter })
+        val written = executionPlan(query, SESSION) { reorderJoins(false) }.nodes()
+        assertEquals(listOf("big", "mid", "small"), scans(written))
+    }
+
+    private fun execute(query: String, mode: Mode, reorder: Boolean): Datum {
+        return executeBothPaths(query, SESSION, mode) { reorderJoins(reorder) }
+    }
+
+    /**
+     * @return the names of the scanned tables, in the order of the plan.
+     */
+    private fun scans(nodes: List<Any>): List<String> {
+        return nodes.filterIsInstance<PExpr.TableDirect>().map { it.table.getName().getName() }
+    }
+
+    companion object {
+
+        private fun struct(vararg fields: Pair<String, Datum>): Datum {
+            return Datum.struct(fields.map { Field.of(it.first, it.second) })
+        }
+
+        private fun distinct(n: Long) = ColumnStatistics.builder().distinctCount(n).build()
+
+        private fun table(name: String, rows: List<Datum>, statistics: TableStatistics): Table {
+            return Table.builder().name(name).datum(Datum.bag(rows)).statistics(statistics).build()
+        }
+
+        // big.m references mid.id, and mid.s references small.id
+        private val BIG = table(
+            "big",
+            (0 until 60).map { struct("v" to Datum.integer(it), "m" to Datum.integer(it % 12)) },
+            TableStatistics.builder().rowCount(60).column("m", distinct(12)).build(),
+        )
+
+        private val MID = table(
+            "mid",
+            (0 until 12).map { struct("id" to Datum.integer(it), "s" to Datum.integer(it % 3)) },
+            TableStatistics.builder().rowCount(12).column("id", distinct(12)).column("s", distinct(3)).build(),
+        )
+
+        private val SMALL = table(
+            "small",
+            (0 until 3).map { struct("id" to Datum.integer(it), "k" to Datum.string("k$it")) },
+            TableStatistics.builder().rowCount(3).column("id", distinct(3)).build(),
+        )
+
+        private val SESSION = Session.builder()
+            .catalog("memory")
+            .catalogs(Catalog.builder().name("memory").define(BIG).define(MID).define(SMALL).build())
+            .build()
+
+        @JvmStatic
+        fun queries() = listOf(
+            "SELECT big.v, mid.id, small.k FROM big, mid, small WHERE big.m = mid.id AND mid.s = small.id",
+            "SELECT * FROM big, mid, small WHERE big.m = mid.id AND mid.s = small.id AND small.k = 'k1'",
+            "SELECT big.v FROM big JOIN mid ON big.m = mid.id JOIN small ON mid.s = small.id WHERE big.v < 30",
+            "SELECT VALUE [big.v, small.id] FROM big, mid, small WHERE big.m = mid.id AND mid.s = small.id AND mid.id > 5",
+            "SELECT small.k, COUNT(*) AS n FROM big, mid, small WHERE big.m = mid.id AND mid.s = small.id GROUP BY small.k",
+            "SELECT big.v FROM small, big, mid WHERE big.m = mid.id AND mid.s = small.id ORDER BY big.v",
+            "SELECT big.v FROM big, mid, small WHERE big.m = mid.id AND small.id = 0 AND mid.s = small.id AND true",
+            "SELECT COUNT(*) AS n FROM big, mid, small",
+        )
+    }
+}
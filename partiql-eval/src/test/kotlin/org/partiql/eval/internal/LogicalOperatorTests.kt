@@ -0,0 +1,208 @@
+package org.partiql.eval.internal
+
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.params.ParameterizedTest
+import org.junit.jupiter.params.provider.MethodSource
+import org.partiql.eval.Mode
+import org.partiql.eval.internal.plan.PExpr
+import org.partiql.spi.catalog.Catalog
+import org.partiql.spi.catalog.Session
+import org.partiql.spi.catalog.Table
+import org.partiql.spi.errors.PError
+import org.partiql.spi.errors.PRuntimeException
+import org.partiql.spi.types.PType
+import org.partiql.spi.value.Datum
+import org.partiql.spi.value.Field
+import kotlin.test.assertEquals
+import kotlin.test.assertSame
+
+/**
+ * Tests the n-ary, short-circuiting evaluation of AND and OR.
+ */
+class LogicalOperatorTests {
+
+    @ParameterizedTest
+    @MethodSource("values")
+    fun threeValuedLogic(tc: Case) {
+        for (mode in listOf(Mode.PERMISSIVE(), Mode.STRICT())) {
+            for (order in listOf(false, true)) {
+                val actual = execute(tc.query, mode, order)
+                assertSameResult(tc.query, tc.expected, actual)
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("truthTable")
+    fun truthTable(tc: Case) = threeValuedLogic(tc)
+
+    @ParameterizedTest
+    @MethodSource("shortCircuits")
+    fun shortCircuit(tc: ModeCase) {
+        for ((mode, expected) in listOf(Mode.PERMISSIVE() to tc.permissive, Mode.STRICT() to tc.strict)) {
+            val actual = execute(tc.query, mode, order = false)
+            assertSameResult("${tc.query} ($mode)", expected, actual)
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("queries")
+    fun sameResultWithOrderedPredicates(query: String) {
+        for (mode in listOf(Mode.PERMISSIVE(), Mode.STRICT())) {
+            val expected = execute(query, mode, order = false)
+            val actual = execute(query, mode, order = true)
+            assertSameResult(query, expected, actual)
+        }
+    }
+
+    @Test
+    fun chainsAreEvaluatedByOneOperator() {
+        val query = "SELECT t.a FROM t WHERE t.a < 5 AND t.b = true AND t.a > 0 OR t.a = 8 OR t.a = 9"
+        val nodes = executionPlan(query, SESSION).nodes()
+        val or = nodes.filterIsInstance<PExpr.Or>().single()
+        assertEquals(3, or.args.size)
+        val and = nodes.filterIsInstance<PExpr.And>().single()
+        assertEquals(3, and.args.size)
+        assertSame(and, or.args[0])
+    }
+
+    private fun execute(query: String, mode: Mode, order: Boolean): Datum {
+        return executeBothPaths(query, SESSION, mode, outcome = ::outcome) { orderPredicates(order) }
+    }
+
+    /**
+     * Errors are compared by their code, since strict mode must raise the same errors in either order.
+     */
+    private fun outcome(block: () -> Datum): Datum = try {
+        block()
+    } catch (e: PRuntimeException) {
+        Datum.string("error: ${e.error.code()}")
+    }
+
+    class Case(val query: String, val expected: Datum) {
+        override fun toString(): String = query
+    }
+
+    /**
+     * A query whose result depends on the mode, e.g. because it evaluates a non-boolean operand.
+     */
+    class ModeCase(val query: String, val permissive: Datum, val strict: Datum) {
+        override fun toString(): String = query
+    }
+
+    companion object {
+
+        private fun struct(vararg fields: Pair<String, Datum>): Datum {
+            return Datum.struct(fields.map { Field.of(it.first, it.second) })
+        }
+
+        // t.b is true, false, null, absent, or a string
+        private val T = Table.builder()
+            .name("t")
+            .datum(
+                Datum.bag(
+                    (0 until 10).map {
+                        when (it % 5) {
+                            0 -> struct("a" to Datum.integer(it), "b" to Datum.bool(true))
+                            1 -> struct("a" to Datum.integer(it), "b" to Datum.bool(false))
+                            2 -> struct("a" to Datum.integer(it), "b" to Datum.nullValue())
+                            3 -> struct("a" to Datum.integer(it))
+                            else -> struct("a" to Datum.integer(it), "b" to Datum.string("x"))
+                        }
+                    }
+                )
+            )
+            .build()
+
+        private val SESSION = Session.builder()
+            .catalog("memory")
+            .catalogs(Catalog.builder().name("memory").define(T).build())
+            .build()
+
+        private val NULL = Datum.nullValue(PType.bool())
+
+        @JvmStatic
+        fun values() = listOf(
+            Case("true AND true AND true", Datum.bool(true)),
+            Case("true AND NULL AND true", NULL),
+            Case("true AND MISSING", NULL),
+            Case("NULL AND false AND MISSING", Datum.bool(false)),
+            Case("false OR false OR false", Datum.bool(false)),
+            Case("false OR MISSING", NULL),
+            Case("NULL OR true OR MISSING", Datum.bool(true)),
+            Case("(true AND (true AND (true AND false)))", Datum.bool(false)),
+            Case("(false OR (false OR (false OR true)))", Datum.bool(true)),
+        )
+
+        private val TRUTH_VALUES = listOf("true", "false", "NULL", "MISSING")
+
+        /**
+         * Every pair of truth values, where both `NULL` and `MISSING` are unknown, and an unknown result is a `NULL`.
+         */
+        @JvmStatic
+        fun truthTable(): List<Case> {
+            val cases = mutableListOf<Case>()
+            for (lhs in TRUTH_VALUES) {
+                for (rhs in TRUTH_VALUES) {
+                    val operands = listOf(lhs, rhs)
+                    val unknown = operands.any { it == "NULL" || it == "MISSING" }
+                    val and = when {
+                        "false" in operands -> Datum.bool(false)
+                        unknown -> NULL
+                        else -> Datum.bool(true)
+                    }
+                    val or = when {
+                        "true" in operands -> Datum.bool(true)
+                        unknown -> NULL
+                        else -> Datum.bool(false)
+                    }
+                    cases.add(Case("$lhs AND $rhs", and))
+                    cases.add(Case("$lhs OR $rhs", or))
+                }
+            }
+            return cases
+        }
+
+        /**
+         * The operands after a decisive one are skipped in both modes, while a non-boolean operand which is evaluated is
+         * `MISSING` in permissive mode and an error in strict mode.
+         */
+        @JvmStatic
+        fun shortCircuits() = listOf(
+            ModeCase("SELECT VALUE false AND t.b FROM t WHERE t.a = 4", bag(Datum.bool(false)), bag(Datum.bool(false))),
+            ModeCase("SELECT VALUE true OR t.b FROM t WHERE t.a = 4", bag(Datum.bool(true)), bag(Datum.bool(true))),
+            ModeCase("SELECT VALUE t.b AND false FROM t WHERE t.a = 4", bag(Datum.missing()), error(PError.FUNCTION_TYPE_MISMATCH)),
+            ModeCase("SELECT VALUE t.b OR true FROM t WHERE t.a = 4", bag(Datum.missing()), error(PError.FUNCTION_TYPE_MISMATCH)),
+            ModeCase("SELECT VALUE NULL AND t.b FROM t WHERE t.a = 4", bag(Datum.missing()), error(PError.FUNCTION_TYPE_MISMATCH)),
+            ModeCase("SELECT VALUE false AND 1 / 0 > 0 FROM t WHERE t.a = 4", bag(Datum.bool(false)), bag(Datum.bool(false))),
+            ModeCase("SELECT VALUE true OR 1 / 0 > 0 FROM t WHERE t.a = 4", bag(Datum.bool(true)), bag(Datum.bool(true))),
+            ModeCase("SELECT VALUE true AND 1 / 0 > 0 FROM t WHERE t.a = 4", error(PError.DIVISION_BY_ZERO), error(PError.DIVISION_BY_ZERO)),
+            // a subquery or LIKE after a decisive operand is not evaluated, where it would divide by zero
+            ModeCase("SELECT VALUE false AND EXISTS (SELECT * FROM t AS u WHERE 1 / (u.a - u.a) > 0) FROM t WHERE t.a = 4", bag(Datum.bool(false)), bag(Datum.bool(false))),
+            ModeCase("SELECT VALUE true OR EXISTS (SELECT * FROM t AS u WHERE 1 / (u.a - u.a) > 0) FROM t WHERE t.a = 4", bag(Datum.bool(true)), bag(Datum.bool(true))),
+            ModeCase("SELECT VALUE true AND EXISTS (SELECT * FROM t AS u WHERE 1 / (u.a - u.a) > 0) FROM t WHERE t.a = 4", error(PError.DIVISION_BY_ZERO), error(PError.DIVISION_BY_ZERO)),
+            ModeCase("SELECT VALUE false AND CAST(1 / (t.a - 4) AS STRING) LIKE 'x%' FROM t WHERE t.a = 4", bag(Datum.bool(false)), bag(Datum.bool(false))),
+            ModeCase("SELECT VALUE true OR CAST(1 / (t.a - 4) AS STRING) LIKE 'x%' FROM t WHERE t.a = 4", bag(Datum.bool(true)), bag(Datum.bool(true))),
+            ModeCase("SELECT VALUE true AND CAST(1 / (t.a - 4) AS STRING) LIKE 'x%' FROM t WHERE t.a = 4", error(PError.DIVISION_BY_ZERO), error(PError.DIVISION_BY_ZERO)),
+        )
+
+        private fun bag(value: Datum): Datum = Datum.bag(listOf(value))
+
+        private fun error(code: Int): Datum = Datum.string("error: $code")
+
+        /**
+         * Queries whose operands are booleans, or unknown, so that their results do not depend on the order of the
+         * operands; `t.b = true` is `FALSE` where `t.b` is a string.
+         */
+        @JvmStatic
+        fun queries() = listOf(
+            "SELECT t.a FROM t WHERE t.b = true AND t.a > 2",
+            "SELECT t.a FROM t WHERE t.a > 2 OR t.b = true",
+            "SELECT t.a FROM t WHERE t.a < 5 AND t.b = true AND t.a > 0",
+            "SELECT t.a, t.b = true AND t.a > 3 AS x, t.b = true OR t.a > 3 AS y FROM t",
+            "SELECT t.a FROM t WHERE t.a = 1 OR (t.b = true AND t.a LIKE 'x%')",
+            "SELECT t.a FROM t WHERE t.a < 3 AND EXISTS (SELECT * FROM t AS u WHERE u.a = t.a AND u.a > 1)",
+            "SELECT t.a FROM t WHERE t.a > 1 AND 1 / (t.a - 5) > 0",
+        )
+    }
+}
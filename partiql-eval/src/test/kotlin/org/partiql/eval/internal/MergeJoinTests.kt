@@ -0,0 +1,135 @@
+package org.partiql.eval.internal
+
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.params.ParameterizedTest
+import org.junit.jupiter.params.provider.MethodSource
+import org.partiql.eval.Mode
+import org.partiql.eval.internal.plan.PRel
+import org.partiql.spi.catalog.Catalog
+import org.partiql.spi.catalog.Name
+import org.partiql.spi.catalog.Session
+import org.partiql.spi.catalog.Table
+import org.partiql.spi.types.PType
+import org.partiql.spi.value.Datum
+import org.partiql.spi.value.Field
+import java.math.BigDecimal
+import kotlin.test.assertEquals
+import kotlin.test.assertTrue
+
+/**
+ * Asserts that joins of sorted inputs, which are merge joins, produce the same results as the hash joins of the same
+ * inputs when they are not sorted.
+ */
+class MergeJoinTests {
+
+    @ParameterizedTest
+    @MethodSource("cases")
+    fun sameResultAsHashJoin(case: Case) {
+        val merged = case.query.replace("{L}", case.lhs).replace("{R}", case.rhs)
+        val hashed = case.query.replace("{L}", UNSORTED_L).replace("{R}", UNSORTED_R)
+        assertEquals(1, nodes(merged).filterIsInstance<PRel.MergeJoin>().size, "Expected a merge join: $merged")
+        val hashedNodes = nodes(hashed)
+        assertTrue(hashedNodes.none { it is PRel.MergeJoin }, "Expected a hash join: $hashed")
+        assertEquals(1, hashedNodes.filterIsInstance<PRel.HashJoin>().size, "Expected a hash join: $hashed")
+        for (mode in listOf(Mode.PERMISSIVE(), Mode.STRICT())) {
+            val expected = execute(hashed, mode)
+            val actual = execute(merged, mode)
+            assertSameResult(merged, expected, actual)
+        }
+    }
+
+    @Test
+    fun redundantSortIsRemoved() {
+        val query = "SELECT x.k AS k, y.v AS v FROM $SORTED_L AS x JOIN $UNSORTED_R AS y ON x.k = y.k ORDER BY x.k"
+        val nodes = nodes(query)
+        // the only sorts are the lhs subquery's and the merge join's sort of the rhs
+        assertEquals(1, nodes.filterIsInstance<PRel.MergeJoin>().size)
+        assertEquals(2, nodes.filterIsInstance<PRel.Sort>().size, "$nodes")
+        val result = execute(query, Mode.STRICT()).toList().map { it.get("k") }
+        val comparator = Datum.comparator()
+        assertTrue(result.zipWithNext().all { (a, b) -> comparator.compare(a, b) <= 0 })
+    }
+
+    @Test
+    fun descendingInputIsMergedDescending() {
+        val query = "SELECT x.v AS xv, y.v AS yv FROM $SORTED_L_DESC AS x JOIN $UNSORTED_R AS y ON x.k = y.k"
+        val join = nodes(query).filterIsInstance<PRel.MergeJoin>().single()
+        assertEquals(listOf(true), join.desc)
+    }
+
+    private fun nodes(query: String): List<Any> = executionPlan(query, SESSION).nodes()
+
+    private fun execute(query: String, mode: Mode): Datum = executeBothPaths(query, SESSION, mode)
+
+    class Case(val query: String, val lhs: String, val rhs: String) {
+        override fun toString(): String = query
+    }
+
+    companion object {
+
+        private const val SORTED_L = "(SELECT l.k AS k, l.g AS g, l.v AS v FROM l ORDER BY l.k)"
+        private const val SORTED_L_DESC = "(SELECT l.k AS k, l.g AS g, l.v AS v FROM l ORDER BY l.k DESC)"
+        private const val SORTED_R = "(SELECT r.k AS k, r.g AS g, r.v AS v FROM r ORDER BY r.k)"
+        private const val UNSORTED_L = "(SELECT l.k AS k, l.g AS g, l.v AS v FROM l)"
+        private const val UNSORTED_R = "(SELECT r.k AS k, r.g AS g, r.v AS v FROM r)"
+
+        private fun row(k: Datum, g: Int, v: Int): Datum = Datum.struct(
+            Field.of("k", k),
+            Field.of("g", Datum.integer(g)),
+            Field.of("v", Datum.integer(v)),
+        )
+
+        // duplicate keys on both sides, NULL keys on both sides, and keys of different numeric types
+        private val L = (0 until 40).map { i ->
+            val k = if (i % 9 == 0) Datum.nullValue(PType.integer()) else Datum.integer(i % 7)
+            row(k, i % 2, i)
+        }
+
+        private val R = (0 until 30).map { i ->
+            val k = when {
+                i % 8 == 0 -> Datum.nullValue(PType.decimal(2, 0))
+                i % 3 == 0 -> Datum.decimal(BigDecimal.valueOf((i % 9).toLong()), 2, 0)
+                else -> Datum.integer(i % 9)
+            }
+            row(k, i % 3, i)
+        }
+
+        private val SESSION = Session.builder()
+            .catalog("memory")
+            .catalogs(
+                Catalog.builder()
+                    .name("memory")
+                    .define(Table.standard(Name.of("l"), Datum.bag(L)))
+                    .define(Table.standard(Name.of("r"), Datum.bag(R)))
+                    .build()
+            )
+            .build()
+
+        @JvmStatic
+        fun cases() = listOf(
+            Case("SELECT x.v AS xv, y.v AS yv FROM {L} AS x JOIN {R} AS y ON x.k = y.k", SORTED_L, SORTED_R),
+            Case("SELECT x.v AS xv, y.v AS yv FROM {L} AS x LEFT JOIN {R} AS y ON x.k = y.k", SORTED_L, SORTED_R),
+            Case("SELECT x.v AS xv, y.v AS yv FROM {L} AS x RIGHT JOIN {R} AS y ON x.k = y.k", SORTED_L, SORTED_R),
+            Case("SELECT x.v AS xv, y.v AS yv FROM {L} AS x FULL JOIN {R} AS y ON x.k = y.k", SORTED_L, SORTED_R),
+            // only one input is sorted
+            Case("SELECT x.v AS xv, y.v AS yv FROM {L} AS x JOIN {R} AS y ON x.k = y.k", SORTED_L, UNSORTED_R),
+            Case("SELECT x.v AS xv, y.v AS yv FROM {L} AS x FULL JOIN {R} AS y ON y.k = x.k", UNSORTED_L, SORTED_R),
+            // conjuncts other than the keys' equality
+            Case("SELECT x.v AS xv, y.v AS yv FROM {L} AS x JOIN {R} AS y ON x.k = y.k AND x.v < y.v", SORTED_L, SORTED_R),
+            Case("SELECT x.v AS xv, y.v AS yv FROM {L} AS x LEFT JOIN {R} AS y ON x.k = y.k AND x.v < y.v", SORTED_L, SORTED_R),
+            Case("SELECT x.v AS xv, y.v AS yv FROM {L} AS x FULL JOIN {R} AS y ON x.v > y.v AND y.k = x.k", SORTED_L, SORTED_R),
+            // descending order
+            Case(
+                "SELECT x.v AS xv, y.v AS yv FROM {L} AS x LEFT JOIN {R} AS y ON x.k = y.k",
+                SORTED_L_DESC,
+                SORTED_R,
+            ),
+            // several keys, sorted in a different order than they are compared
+            Case(
+                "SELECT x.v AS xv, y.v AS yv FROM {L} AS x FULL JOIN {R} AS y ON x.k = y.k AND x.g = y.g",
+                "(SELECT l.k AS k, l.g AS g, l.v AS v FROM l ORDER BY l.g, l.k DESC)",
+                UNSORTED_R,
+            ),
+        )
+    }
+}
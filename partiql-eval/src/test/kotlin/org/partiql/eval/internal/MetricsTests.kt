@@ -0,0 +1,123 @@
+package org.partiql.eval.internal
+
+import org.junit.jupiter.api.Test
+import org.partiql.eval.Mode
+import org.partiql.eval.PartiQLVM
+import org.partiql.eval.compiler.PartiQLCompiler
+import org.partiql.parser.PartiQLParser
+import org.partiql.planner.PartiQLPlanner
+import org.partiql.spi.Context
+import org.partiql.spi.catalog.Catalog
+import org.partiql.spi.catalog.Name
+import org.partiql.spi.catalog.Session
+import org.partiql.spi.catalog.Table
+import org.partiql.spi.metrics.MetricsListener
+import org.partiql.spi.metrics.MetricsRecorder
+import org.partiql.spi.types.PType
+import org.partiql.spi.value.Datum
+import org.partiql.spi.value.Field
+import kotlin.test.assertEquals
+import kotlin.test.assertTrue
+
+/**
+ * Tests of the measurements reported to the [MetricsListener] of a [Context].
+ */
+class MetricsTests {
+
+    private val parser = PartiQLParser.standard()
+    private val planner = PartiQLPlanner.builder().useRefs().build()
+    private val compiler = PartiQLCompiler.standard()
+    private val vm = PartiQLVM.standard()
+
+    @Test
+    fun reportsEachPhase() {
+        val metrics = MetricsRecorder()
+        val result = execute("SELECT t.a FROM t WHERE t.a > 1", metrics)
+        assertEquals(2, result.count())
+        assertEquals(1, metrics.parseTime.count)
+        // SELECT t.a FROM t WHERE t.a > 1
+        assertEquals(12, metrics.tokens.max)
+        assertEquals(1, metrics.planTime.count)
+        assertTrue(metrics.operators.max > 0)
+        assertEquals(1, metrics.compileTime.count)
+        assertEquals(1, metrics.executeTime.count)
+        assertEquals(3, metrics.getScannedRows(Name.of("t")))
+        assertEquals(2, metrics.producedRows)
+        assertTrue(metrics.producedBytes > 0)
+    }
+
+    @Test
+    fun countsRowsScannedBySubqueries() {
+        val metrics = MetricsRecorder()
+        val result = execute("SELECT t.a, (SELECT VALUE u.b FROM u WHERE u.b = t.a) AS s FROM t", metrics)
+        assertEquals(3, result.count())
+        assertEquals(3, metrics.getScannedRows(Name.of("t")))
+        assertEquals(12, metrics.getScannedRows(Name.of("u")))
+        assertEquals(3, metrics.producedRows)
+    }
+
+    @Test
+    fun reportsScalarStatements() {
+        val metrics = MetricsRecorder()
+        execute("1 + 2", metrics)
+        assertEquals(1, metrics.executeTime.count)
+        assertEquals(1, metrics.producedRows)
+        assertTrue(metrics.getScannedRows().isEmpty())
+    }
+
+    @Test
+    fun reportsCursors() {
+        val metrics = MetricsRecorder()
+        val statement = parser.parse("SELECT VALUE t.a FROM t", context(metrics)).statements[0]
+        val result = planner.plan(statement, SESSION, context(metrics))
+        val plan = compiler.compile(result.plan, Mode.STRICT())
+        vm.open(plan, buildExecutionCatalogs(result.symbols, SESSION), context(metrics)).use { cursor ->
+            assertTrue(cursor.hasNext())
+            cursor.next()
+        }
+        assertEquals(1, metrics.executeTime.count)
+        assertEquals(1, metrics.producedRows)
+        assertEquals(1, metrics.getScannedRows(Name.of("t")))
+    }
+
+    private fun execute(query: String, metrics: MetricsListener): List<Datum> {
+        val ctx = context(metrics)
+        val statement = parser.parse(query, ctx).statements[0]
+        val result = planner.plan(statement, SESSION, ctx)
+        val plan = compiler.compile(result.plan, Mode.STRICT())
+        val datum = vm.execute(plan, buildExecutionCatalogs(result.symbols, SESSION), ctx)
+        val value = DatumMaterialize.materialize(datum)
+        return if (value.type.code() == PType.BAG) value.toList() else listOf(value)
+    }
+
+    private fun context(metrics: MetricsListener) = object : Context {
+        override fun getMetricsListener(): MetricsListener = metrics
+    }
+
+    private companion object {
+
+        val T = Datum.bagVararg(
+            Datum.struct(Field.of("a", Datum.integer(1))),
+            Datum.struct(Field.of("a", Datum.integer(2))),
+            Datum.struct(Field.of("a", Datum.integer(3))),
+        )
+
+        val U = Datum.bagVararg(
+            Datum.struct(Field.of("b", Datum.integer(2))),
+            Datum.struct(Field.of("b", Datum.integer(3))),
+            Datum.struct(Field.of("b", Datum.integer(3))),
+            Datum.struct(Field.of("b", Datum.integer(4))),
+        )
+
+        val SESSION = Session.builder()
+            .catalog("memory")
+            .catalogs(
+                Catalog.builder()
+                    .name("memory")
+                    .define(Table.standard(Name.of("t"), T))
+                    .define(Table.standard(Name.of("u"), U))
+                    .build()
+            )
+            .build()
+    }
+}
@@ -0,0 +1,187 @@
+package org.partiql.eval.internal
+
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import org.partiql.eval.ExecutionPlan
+import org.partiql.eval.Mode
+import org.partiql.eval.PartiQLVM
+import org.partiql.eval.Statement
+import org.partiql.eval.compiler.PartiQLCompiler
+import org.partiql.parser.PartiQLParser
+import org.partiql.planner.PartiQLPlanner
+import org.partiql.spi.Context
+import org.partiql.spi.catalog.Catalog
+import org.partiql.spi.catalog.ExecutionCatalog
+import org.partiql.spi.catalog.Name
+import org.partiql.spi.catalog.Session
+import org.partiql.spi.catalog.Table
+import org.partiql.spi.errors.PRuntimeException
+import org.partiql.spi.metrics.MetricsListener
+import org.partiql.spi.metrics.MetricsRecorder
+import org.partiql.spi.value.Datum
+import org.partiql.spi.value.Field
+import kotlin.test.assertEquals
+
+/**
+ * Tests of the reuse of the operators of an [ExecutionPlan] by later executions.
+ */
+class OperatorReuseTests {
+
+    private val parser = PartiQLParser.standard()
+    private val planner = PartiQLPlanner.builder().useRefs().build()
+    private val compiler = PartiQLCompiler.standard()
+    private val vm = PartiQLVM.standard()
+
+    private val metrics = MetricsRecorder()
+
+    private val ctx = object : Context {
+        override fun getMetricsListener(): MetricsListener = metrics
+    }
+
+    @Test
+    fun executionsReuseOperators() {
+        val (plan, catalogs) = prepare("SELECT VALUE t.a FROM t WHERE t.a > 1 ORDER BY t.a DESC")
+        repeat(3) {
+            assertEquals(listOf(3, 2), values(vm.execute(plan, catalogs, ctx)))
+        }
+        assertEquals(1, metrics.compileTime.count)
+        repeat(3) {
+            assertEquals(listOf(3, 2), vm.open(plan, catalogs, ctx).use { cursor -> cursor.asSequence().map { it.int }.toList() })
+        }
+        assertEquals(1, metrics.compileTime.count)
+        assertEquals(6, metrics.executeTime.count)
+    }
+
+    @Test
+    fun scalarExecutionsReuseOperators() {
+        val (plan, catalogs) = prepare("SELECT COUNT(*) AS n FROM t")
+        repeat(3) {
+            val result = vm.execute(plan, catalogs, ctx)
+            assertEquals(3, result.single().get("n").long)
+        }
+        assertEquals(1, metrics.compileTime.count)
+    }
+
+    @Test
+    fun unfinishedExecutionsDoNotShareOperators() {
+        val (plan, catalogs) = prepare("SELECT VALUE t.a FROM t")
+        val first = vm.execute(plan, catalogs, ctx).iterator()
+        val second = vm.execute(plan, catalogs, ctx).iterator()
+        val values = mutableListOf<Int>()
+        while (first.hasNext() && second.hasNext()) {
+            values.add(first.next().int)
+            values.add(second.next().int)
+        }
+        assertEquals(listOf(1, 1, 2, 2, 3, 3), values)
+        assertEquals(2, metrics.compileTime.count)
+    }
+
+    @Test
+    fun resultCanBeReadAgain() {
+        val (plan, catalogs) = prepare("SELECT VALUE t.a FROM t")
+        val result = vm.execute(plan, catalogs, ctx)
+        assertEquals(listOf(1, 2, 3), values(result))
+        assertEquals(listOf(1, 2, 3), values(result))
+        assertEquals(1, metrics.compileTime.count)
+    }
+
+    @Test
+    fun differentTablesAreCompiledAgain() {
+        val (plan, catalogs) = prepare("SELECT VALUE t.a FROM t")
+        assertEquals(listOf(1, 2, 3), values(vm.execute(plan, catalogs, ctx)))
+        val other = Table.standard(Name.of("t"), Datum.bagVararg(row(7)))
+        assertEquals(listOf(7), values(vm.execute(plan, arrayOf(ExecutionCatalog { other }), ctx)))
+        assertEquals(2, metrics.compileTime.count)
+    }
+
+    @Test
+    fun failedExecutionsDropOperators() {
+        val (plan, catalogs) = prepare("SELECT VALUE 6 / (t.a - 2) FROM t")
+        repeat(2) {
+            assertThrows<PRuntimeException> { values(vm.execute(plan, catalogs, ctx)) }
+        }
+        assertEquals(2, metrics.compileTime.count)
+    }
+
+    @Test
+    fun nestedSelectsAreCompiledForEachExecution() {
+        // the value of a nested SELECT is evaluated lazily by its operators, which could outlive the execution
+        val (plan, catalogs) = prepare("SELECT t.a, (SELECT VALUE u.a FROM t AS u WHERE u.a < t.a) AS s FROM t")
+        repeat(2) {
+            assertEquals(3, vm.execute(plan, catalogs, ctx).count())
+        }
+        assertEquals(2, metrics.compileTime.count)
+    }
+
+    @Test
+    fun cursorsClosedEarlyDropOperators() {
+        val (plan, catalogs) = prepare("SELECT VALUE t.a FROM t")
+        vm.open(plan, catalogs, ctx).use { cursor -> assertEquals(1, cursor.next().int) }
+        repeat(2) {
+            assertEquals(listOf(1, 2, 3), vm.open(plan, catalogs, ctx).use { cursor -> cursor.asSequence().map { it.int }.toList() })
+        }
+        assertEquals(2, metrics.compileTime.count)
+    }
+
+    @Test
+    fun statementsWithoutCatalogsReuseOperators() {
+        val statement = statement("SELECT VALUE t.a FROM t WHERE t.a > 1")
+        assertEquals(1, metrics.compileTime.count)
+        repeat(2) {
+            assertEquals(listOf(2, 3), values(statement.execute()))
+            assertEquals(listOf(2, 3), statement.open().use { cursor -> cursor.asSequence().map { it.int }.toList() })
+        }
+        assertEquals(1, metrics.compileTime.count)
+    }
+
+    @Test
+    fun statementsWithoutCatalogsReuseOperatorsOfNestedSelects() {
+        // the tree cannot be pooled, but is kept for the next execution as it was compiled once by prepare
+        val statement = statement("SELECT t.a, (SELECT VALUE u.a FROM t AS u WHERE u.a < t.a) AS s FROM t")
+        repeat(2) {
+            assertEquals(3, statement.execute().count())
+        }
+        assertEquals(1, metrics.compileTime.count)
+    }
+
+    @Test
+    fun unfinishedStatementsWithoutCatalogsDoNotShareOperators() {
+        val statement = statement("SELECT VALUE t.a FROM t")
+        val first = statement.execute().iterator()
+        val second = statement.open()
+        val values = mutableListOf<Int>()
+        while (first.hasNext() && second.hasNext()) {
+            values.add(first.next().int)
+            values.add(second.next().int)
+        }
+        assertEquals(listOf(1, 1, 2, 2, 3, 3), values)
+        assertEquals(2, metrics.compileTime.count)
+    }
+
+    private fun statement(query: String): Statement {
+        val statement = parser.parse(query).statements[0]
+        val plan = PartiQLPlanner.standard().plan(statement, SESSION).plan
+        return compiler.prepare(plan, Mode.STRICT(), ctx)
+    }
+
+    private fun prepare(query: String): Pair<ExecutionPlan, Array<ExecutionCatalog>> {
+        val statement = parser.parse(query).statements[0]
+        val result = planner.plan(statement, SESSION)
+        val plan = compiler.compile(result.plan, Mode.STRICT())
+        return plan to buildExecutionCatalogs(result.symbols, SESSION)
+    }
+
+    private fun values(result: Datum): List<Int> = result.map { it.int }
+
+    private companion object {
+
+        fun row(a: Int): Datum = Datum.struct(Field.of("a", Datum.integer(a)))
+
+        val T = Table.standard(Name.of("t"), Datum.bagVararg(row(1), row(2), row(3)))
+
+        val SESSION: Session = Session.builder()
+            .catalog("memory")
+            .catalogs(Catalog.builder().name("memory").define(T).build())
+            .build()
+    }
+}
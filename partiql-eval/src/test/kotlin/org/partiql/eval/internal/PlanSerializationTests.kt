@@ -0,0 +1,190 @@
+package org.partiql.eval.internal
+
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import org.junit.jupiter.params.ParameterizedTest
+import org.junit.jupiter.params.provider.MethodSource
+import org.partiql.eval.Mode
+import org.partiql.eval.compiler.PartiQLCompiler
+import org.partiql.parser.PartiQLParser
+import org.partiql.plan.Plan
+import org.partiql.plan.PlanReader
+import org.partiql.plan.PlanWriter
+import org.partiql.planner.PartiQLPlanner
+import org.partiql.spi.catalog.Catalog
+import org.partiql.spi.catalog.Name
+import org.partiql.spi.catalog.Session
+import org.partiql.spi.catalog.Table
+import org.partiql.spi.errors.PRuntimeException
+import org.partiql.spi.types.PType
+import org.partiql.spi.types.PTypeField
+import org.partiql.spi.value.Datum
+import org.partiql.spi.value.Field
+import java.math.BigDecimal
+import kotlin.test.assertContentEquals
+import kotlin.test.assertEquals
+import kotlin.test.assertTrue
+
+/**
+ * Asserts that a plan read back from its serialized form produces the same results as the plan which was written, and
+ * is written again as the same bytes.
+ */
+class PlanSerializationTests {
+
+    private val parser = PartiQLParser.standard()
+    private val planner = PartiQLPlanner.standard()
+    private val compiler = PartiQLCompiler.standard()
+
+    @ParameterizedTest
+    @MethodSource("queries")
+    fun roundTrip(query: String) {
+        val plan = plan(query)
+        val bytes = PlanWriter.toByteArray(plan)
+        val read = PlanReader.fromByteArray(bytes, SESSION)
+        assertContentEquals(bytes, PlanWriter.toByteArray(read), "Expected the same bytes: $query")
+        for (mode in listOf(Mode.PERMISSIVE(), Mode.STRICT())) {
+            val expected = try {
+                execute(plan, mode)
+            } catch (e: PRuntimeException) {
+                val actual = assertThrows<PRuntimeException> { execute(read, mode) }
+                assertEquals(e.error.code(), actual.error.code(), "Expected the same error: $query")
+                continue
+            }
+            val actual = execute(read, mode)
+            assert(Datum.comparator(true, true).compare(expected, actual) == 0) {
+                buildString {
+                    appendLine("Query    : $query")
+                    appendLine("Expected : $expected")
+                    appendLine("Actual   : $actual")
+                }
+            }
+        }
+    }
+
+    @Test
+    fun rejectsOtherFormats() {
+        val bytes = PlanWriter.toByteArray(plan("SELECT VALUE t.a FROM t AS t"))
+        val format = bytes.copyOf()
+        format[5] = 99
+        val e = assertThrows<IllegalArgumentException> { PlanReader.fromByteArray(format, SESSION) }
+        assertTrue(e.message!!.contains("format"), e.message)
+        assertThrows<IllegalArgumentException> { PlanReader.fromByteArray(byteArrayOf(1, 2, 3, 4), SESSION) }
+    }
+
+    @Test
+    fun rejectsUnboundTables() {
+        val bytes = PlanWriter.toByteArray(plan("SELECT VALUE t.a FROM t AS t"))
+        val session = Session.builder()
+            .catalog("memory")
+            .catalogs(Catalog.builder().name("memory").build())
+            .build()
+        val e = assertThrows<IllegalArgumentException> { PlanReader.fromByteArray(bytes, session) }
+        assertTrue(e.message!!.contains("Table"), e.message)
+    }
+
+    @Test
+    fun bindsTablesOfTheReadersSession() {
+        val bytes = PlanWriter.toByteArray(plan("SELECT VALUE x.a FROM t AS x WHERE x.a > 1"))
+        val session = Session.builder()
+            .catalog("memory")
+            .catalogs(
+                Catalog.builder()
+                    .name("memory")
+                    .define(Table.standard(Name.of("t"), Datum.bagVararg(row(5, "e", null))))
+                    .build()
+            )
+            .build()
+        val actual = execute(PlanReader.fromByteArray(bytes, session), Mode.STRICT())
+        val expected = Datum.bagVararg(Datum.integer(5))
+        assert(Datum.comparator(true, true).compare(expected, actual) == 0) { "Actual: $actual" }
+    }
+
+    private fun plan(query: String): Plan {
+        val statement = parser.parse(query).statements[0]
+        return planner.plan(statement, SESSION).plan
+    }
+
+    private fun execute(plan: Plan, mode: Mode): Datum {
+        return DatumMaterialize.materialize(compiler.prepare(plan, mode).execute())
+    }
+
+    companion object {
+
+        private fun row(a: Int, b: String, c: Datum?): Datum {
+            val fields = mutableListOf(Field.of("a", Datum.integer(a)), Field.of("b", Datum.string(b)))
+            if (c != null) fields.add(Field.of("c", c))
+            return Datum.struct(fields)
+        }
+
+        private val T = listOf(
+            row(1, "a", Datum.array(listOf(Datum.integer(1), Datum.integer(2)))),
+            row(2, "b", Datum.nullValue()),
+            row(2, "c", null),
+            row(3, "d", Datum.struct(Field.of("x", Datum.integer(1)), Field.of("y", Datum.integer(2)))),
+        )
+
+        private val TYPED = PType.bag(PType.row(PTypeField.of("k", PType.integer()), PTypeField.of("v", PType.decimal(5, 2))))
+
+        private val SESSION = Session.builder()
+            .catalog("memory")
+            .catalogs(
+                Catalog.builder()
+                    .name("memory")
+                    .define(Table.standard(Name.of("t"), Datum.bag(T)))
+                    .define(
+                        Table.standard(
+                            Name.of("typed"),
+                            TYPED,
+                            Datum.bag(
+                                (1..6).map {
+                                    Datum.row(
+                                        TYPED.typeParameter.fields.toList(),
+                                        listOf(Field.of("k", Datum.integer(it % 3)), Field.of("v", Datum.decimal(BigDecimal(it).movePointLeft(1), 5, 2))),
+                                    )
+                                }
+                            )
+                        )
+                    )
+                    .build()
+            )
+            .build()
+
+        @JvmStatic
+        fun queries() = listOf(
+            "1 + 2 * 3",
+            "CAST('1.50' AS DECIMAL(5, 2)) + 1",
+            "CAST(1 AS VARCHAR)",
+            "[1, 'two', 3.0e0, NULL, MISSING, {'a': <<true>>}, DATE '2020-01-01', TIME '12:00:00', TIMESTAMP '2020-01-01 00:00:00']",
+            "INTERVAL '1-2' YEAR TO MONTH",
+            "SELECT t.a, t.b FROM t AS t WHERE t.a > 1 ORDER BY t.b DESC NULLS LAST",
+            "SELECT VALUE t.a * 2 FROM t AS t LIMIT 2 OFFSET 1",
+            "SELECT DISTINCT t.a FROM t AS t",
+            "SELECT t.a AS a, COUNT(*) AS n, SUM(t.a) AS s FROM t AS t GROUP BY t.a",
+            "SELECT COUNT(DISTINCT t.a) AS n FROM t AS t",
+            "SELECT y.k AS k, SUM(y.v) AS s, MAX(y.v) AS m FROM typed AS y GROUP BY y.k",
+            "SELECT y.k + 1 AS k, y.v * 2 AS v, ABS(y.v - 1) AS d FROM typed AS y",
+            "SELECT x.b AS b, y.v AS v FROM t AS x JOIN typed AS y ON x.a = y.k",
+            "SELECT x.b AS b, y.v AS v FROM t AS x LEFT JOIN typed AS y ON x.a < y.k",
+            "SELECT x.b AS b, e AS e FROM t AS x, x.c AS e",
+            "SELECT * EXCLUDE t.c FROM t AS t",
+            "SELECT t.a AS a, CASE WHEN t.a = 1 THEN 'one' WHEN t.a = 2 THEN 'two' ELSE 'many' END AS s FROM t AS t",
+            "SELECT t.a AS a, CASE t.b WHEN 'a' THEN 1 END AS s FROM t AS t",
+            "SELECT COALESCE(t.c, 'none') AS c, NULLIF(t.a, 2) AS n FROM t AS t",
+            "SELECT t.c[0] AS i, t.c.x AS x, t.c['y'] AS y, t.\"b\" AS b FROM t AS t",
+            "SELECT VALUE t.a FROM t AS t WHERE t.a IN (SELECT VALUE y.k FROM typed AS y)",
+            "SELECT VALUE t.a FROM t AS t WHERE EXISTS (SELECT * FROM typed AS y WHERE y.k = t.a)",
+            "SELECT t.a AS a, (SELECT VALUE COUNT(*) FROM typed AS y WHERE y.k = t.a) AS n FROM t AS t",
+            "SELECT y.k AS a FROM typed AS y UNION SELECT y.k + 1 AS a FROM typed AS y",
+            "(SELECT VALUE y.k FROM typed AS y) EXCEPT ALL (SELECT VALUE y.k FROM typed AS y WHERE y.v > 0.3)",
+            "SELECT y.k AS a FROM typed AS y INTERSECT SELECT y.k AS a FROM typed AS y WHERE y.v > 0.3",
+            "PIVOT t.a AT t.b FROM t AS t",
+            "SELECT k AS k, v AS v FROM UNPIVOT {'a': 1, 'b': 2} AS v AT k",
+            "SELECT t.a AS a, t.b AS b, ROW_NUMBER() OVER (PARTITION BY t.a ORDER BY t.b) AS r FROM t AS t",
+            "SELECT y.k AS k, SUM(y.v) OVER (ORDER BY y.v ROWS BETWEEN 1 PRECEDING AND CURRENT ROW) AS s FROM typed AS y",
+            "WITH x AS (SELECT VALUE t.a FROM t AS t) SELECT VALUE v FROM x AS v",
+            "SELECT VALUE { 'a': t.a, 'b': t.b } FROM t AS t",
+            "SELECT VALUE TUPLEUNION(t, { 'z': 1 }) FROM t AS t",
+            "SELECT VALUE UPPER(t.b) || '!' FROM t AS t WHERE t.b LIKE '%a%' OR t.a BETWEEN 2 AND 3",
+        )
+    }
+}
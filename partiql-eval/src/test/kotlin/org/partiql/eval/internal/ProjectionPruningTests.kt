@@ -0,0 +1,123 @@
+package org.partiql.eval.internal
+
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.params.ParameterizedTest
+import org.junit.jupiter.params.provider.MethodSource
+import org.partiql.eval.Mode
+import org.partiql.eval.PartiQLVM
+import org.partiql.eval.compiler.PartiQLCompiler
+import org.partiql.parser.PartiQLParser
+import org.partiql.planner.PartiQLPlanner
+import org.partiql.spi.catalog.Catalog
+import org.partiql.spi.catalog.Name
+import org.partiql.spi.catalog.Projection
+import org.partiql.spi.catalog.Session
+import org.partiql.spi.catalog.Table
+import org.partiql.spi.value.Datum
+import org.partiql.spi.value.Field
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.test.assertTrue
+
+/**
+ * Asserts that queries planned with projection pruning produce the same results as without it.
+ */
+class ProjectionPruningTests {
+
+    private val parser = PartiQLParser.standard()
+    private val compiler = PartiQLCompiler.standard()
+    private val vm = PartiQLVM.standard()
+
+    @ParameterizedTest
+    @MethodSource("queries")
+    fun sameResultWithPruning(query: String) {
+        for (mode in listOf(Mode.PERMISSIVE(), Mode.STRICT())) {
+            val expected = execute(query, mode, prune = false)
+            val actual = execute(query, mode, prune = true)
+            assertSameResult(query, expected, actual)
+        }
+    }
+
+    @Test
+    fun scanIsNarrowedToTheReferencedPaths() {
+        val query = "SELECT t.a, t.B.c FROM t WHERE t.B.d > 10"
+        val pruned = executionPlan(query, SESSION) { pruneProjections() }.toString()
+        assertTrue(pruned.contains("projection=Projection{a, b.c, b.d}"), pruned)
+        val unpruned = executionPlan(query, SESSION) { pruneProjections(false) }.toString()
+        assertFalse(unpruned.contains("projection=Projection"), unpruned)
+    }
+
+    @Test
+    fun connectorReceivesProjection() {
+        val requested = mutableListOf<Projection>()
+        val table = object : Table {
+            override fun getName(): Name = Name.of("t")
+            override fun getDatum(): Datum = T
+            override fun getDatum(projection: Projection): Datum {
+                requested.add(projection)
+                return super.getDatum(projection)
+            }
+        }
+        val session = session(table)
+        val statement = parser.parse("SELECT t.a, t.b.c FROM t").statements[0]
+        val result = PartiQLPlanner.builder().useRefs().pruneProjections().build().plan(statement, session)
+        val plan = compiler.compile(result.plan, Mode.STRICT())
+        val actual = DatumMaterialize.materialize(vm.execute(plan, buildExecutionCatalogs(result.symbols, session)))
+        assertEquals(listOf(Projection.of(listOf(listOf("a"), listOf("b", "c")))), requested)
+        assertEquals(3, actual.iterator().asSequence().count())
+    }
+
+    private fun execute(query: String, mode: Mode, prune: Boolean): Datum {
+        return executeBothPaths(query, SESSION, mode) { pruneProjections(prune) }
+    }
+
+    companion object {
+
+        private fun session(vararg tables: Table): Session {
+            val catalog = Catalog.builder().name("memory")
+            tables.forEach { catalog.define(it) }
+            return Session.builder()
+                .catalog("memory")
+                .catalogs(catalog.build())
+                .build()
+        }
+
+        private fun struct(vararg fields: Pair<String, Datum>): Datum {
+            return Datum.struct(fields.map { Field.of(it.first, it.second) })
+        }
+
+        private fun record(i: Int) = struct(
+            "a" to Datum.integer(i),
+            "B" to struct("c" to Datum.string("c${i % 2}"), "d" to Datum.integer(i * 10)),
+            "items" to Datum.array(listOf(struct("x" to Datum.integer(i)), struct("x" to Datum.integer(i + 1)))),
+            "wide" to Datum.string("w$i"),
+        )
+
+        private val T = Datum.bag((1..3).map { record(it) })
+
+        private val U = Datum.bag((2..4).map { record(it) })
+
+        private val SESSION = session(Table.standard(Name.of("t"), T), Table.standard(Name.of("u"), U))
+
+        @JvmStatic
+        fun queries() = listOf(
+            "SELECT t.a, t.B.c FROM t",
+            "SELECT t.a, t.b.C, t['wide'] AS w FROM t",
+            "SELECT VALUE t FROM t",
+            "SELECT * FROM t",
+            "SELECT COUNT(*) AS n FROM t",
+            "SELECT t.B.c AS c, SUM(t.a) AS s FROM t GROUP BY t.B.c",
+            "SELECT t.a FROM t WHERE t.B.d > 10 ORDER BY t.wide DESC",
+            "SELECT DISTINCT t.B.c FROM t",
+            "SELECT t.a, u.wide FROM t JOIN u ON t.a = u.a",
+            "SELECT t.a, u.wide FROM t LEFT JOIN u ON t.a = u.a",
+            "SELECT x.a, i.x FROM t AS x, x.items AS i",
+            "SELECT x.a, i FROM t AS x, x.items AS i AT n WHERE n > 0",
+            "SELECT t.a, (SELECT VALUE u.wide FROM u WHERE u.a = t.a) AS w FROM t",
+            "SELECT t.a, RANK() OVER (PARTITION BY t.B.c ORDER BY t.B.d) AS r FROM t",
+            "PIVOT t.a AT t.B.c FROM t",
+            "SELECT t.a FROM t LIMIT 2 OFFSET 1",
+            "SELECT t.B FROM t",
+        )
+    }
+}
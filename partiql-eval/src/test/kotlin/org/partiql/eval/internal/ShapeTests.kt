@@ -0,0 +1,84 @@
+package org.partiql.eval.internal
+
+import org.junit.jupiter.params.ParameterizedTest
+import org.junit.jupiter.params.provider.MethodSource
+import org.partiql.eval.Mode
+import org.partiql.eval.compiler.PartiQLCompiler
+import org.partiql.parser.PartiQLParser
+import org.partiql.planner.PartiQLPlanner
+import org.partiql.spi.catalog.Catalog
+import org.partiql.spi.catalog.Name
+import org.partiql.spi.catalog.Session
+import org.partiql.spi.catalog.Table
+import org.partiql.spi.value.Datum
+import org.partiql.spi.value.Field
+import org.partiql.spi.value.Shape
+
+/**
+ * Path expressions over structs with a [Shape], whose fields are read by a position cached for the shape of the last
+ * struct; the records alternate between shapes, and structs without a shape, so that the cached position is replaced.
+ */
+class ShapeTests {
+
+    private val parser = PartiQLParser.standard()
+    private val planner = PartiQLPlanner.standard()
+    private val compiler = PartiQLCompiler.standard()
+
+    @ParameterizedTest
+    @MethodSource("cases")
+    fun readsFieldsOfShapedStructs(case: Case) {
+        val statement = parser.parse(case.input).statements[0]
+        val plan = planner.plan(statement, SESSION).plan
+        for (mode in listOf(Mode.PERMISSIVE(), Mode.STRICT())) {
+            val actual = DatumMaterialize.materialize(compiler.prepare(plan, mode).execute())
+            assert(Datum.comparator(true, true).compare(case.expected, actual) == 0) {
+                buildString {
+                    appendLine("Query    : ${case.input}")
+                    appendLine("Expected : ${case.expected}")
+                    appendLine("Actual   : $actual")
+                }
+            }
+        }
+    }
+
+    class Case(val input: String, val expected: Datum) {
+        override fun toString(): String = input
+    }
+
+    companion object {
+
+        private val AB = Shape.of("a", "b")
+        private val BA = Shape.of("B", "a")
+
+        private val SESSION = Session.builder()
+            .catalog("memory")
+            .catalogs(
+                Catalog.builder()
+                    .name("memory")
+                    .define(
+                        Table.standard(
+                            Name.of("t"),
+                            Datum.bagVararg(
+                                Datum.struct(AB, Datum.integer(1), Datum.string("x")),
+                                Datum.struct(AB, Datum.integer(2), Datum.string("y")),
+                                Datum.struct(BA, Datum.string("z"), Datum.integer(3)),
+                                Datum.struct(Field.of("a", Datum.integer(4)), Field.of("b", Datum.string("w"))),
+                                Datum.struct(AB, Datum.integer(5), Datum.string("v")),
+                            )
+                        )
+                    )
+                    .build()
+            )
+            .build()
+
+        private fun bag(vararg values: Datum) = Datum.bagVararg(*values)
+
+        @JvmStatic
+        fun cases() = listOf(
+            Case("SELECT VALUE t.a FROM t AS t", bag(Datum.integer(1), Datum.integer(2), Datum.integer(3), Datum.integer(4), Datum.integer(5))),
+            Case("SELECT VALUE t.b FROM t AS t", bag(Datum.string("x"), Datum.string("y"), Datum.string("z"), Datum.string("w"), Datum.string("v"))),
+            Case("SELECT VALUE t['b'] FROM t AS t WHERE t.a <> 3", bag(Datum.string("x"), Datum.string("y"), Datum.string("w"), Datum.string("v"))),
+            Case("SELECT VALUE t.\"B\" FROM t AS t WHERE t.a = 3", bag(Datum.string("z"))),
+        )
+    }
+}
@@ -0,0 +1,149 @@
+package org.partiql.eval.internal
+
+import org.junit.jupiter.params.ParameterizedTest
+import org.junit.jupiter.params.provider.MethodSource
+import org.partiql.eval.Mode
+import org.partiql.eval.compiler.PartiQLCompiler
+import org.partiql.parser.PartiQLParser
+import org.partiql.plan.Plan
+import org.partiql.planner.PartiQLPlanner
+import org.partiql.spi.Context
+import org.partiql.spi.catalog.Catalog
+import org.partiql.spi.catalog.Name
+import org.partiql.spi.catalog.Session
+import org.partiql.spi.catalog.Table
+import org.partiql.spi.errors.PRuntimeException
+import org.partiql.spi.types.PType
+import org.partiql.spi.types.PTypeField
+import org.partiql.spi.value.Datum
+import org.partiql.spi.value.Field
+import kotlin.test.assertEquals
+
+/**
+ * Differential tests of expressions compiled to primitives (see [Context.isSpecializedExpressions]), which must have
+ * the same results and errors as the interpreter.
+ */
+class SpecializedExpressionTests {
+
+    private val parser = PartiQLParser.standard()
+    private val planner = PartiQLPlanner.standard()
+    private val compiler = PartiQLCompiler.standard()
+
+    private val specialized = object : Context {
+        override fun isSpecializedExpressions(): Boolean = true
+    }
+
+    @ParameterizedTest
+    @MethodSource("queries")
+    fun matchesTheInterpreter(query: String) {
+        val statement = parser.parse(query).statements[0]
+        val plan = planner.plan(statement, SESSION).plan
+        for (mode in listOf(Mode.PERMISSIVE(), Mode.STRICT())) {
+            val expected = try {
+                execute(plan, mode, Context.standard())
+            } catch (e: PRuntimeException) {
+                val actual = kotlin.runCatching { execute(plan, mode, specialized) }
+                val error = actual.exceptionOrNull() as? PRuntimeException
+                assertEquals(e.error.code(), error?.error?.code(), "Expected the same error in $mode: $query, found $actual")
+                continue
+            }
+            val actual = execute(plan, mode, specialized)
+            assert(Datum.comparator(true, true).compare(expected, actual) == 0) {
+                buildString {
+                    appendLine("Query    : $query ($mode)")
+                    appendLine("Expected : $expected")
+                    appendLine("Actual   : $actual")
+                }
+            }
+            assertEquals(types(expected), types(actual), query)
+        }
+    }
+
+    private fun execute(plan: Plan, mode: Mode, context: Context): Datum {
+        return DatumMaterialize.materialize(compiler.prepare(plan, mode, context).execute())
+    }
+
+    /**
+     * @return the types of the non-null values of a collection of structs or scalars.
+     */
+    private fun types(value: Datum): List<List<Int>> = value.map { row ->
+        val values = if (row.type.code() == PType.STRUCT) row.fields.asSequence().map { it.value } else sequenceOf(row)
+        values.filter { !it.isNull && !it.isMissing }.map { it.type.code() }.toList()
+    }
+
+    companion object {
+
+        private val TYPE = PType.row(
+            PTypeField.of("ti", PType.tinyint()),
+            PTypeField.of("si", PType.smallint()),
+            PTypeField.of("i", PType.integer()),
+            PTypeField.of("b", PType.bigint()),
+            PTypeField.of("d", PType.doublePrecision()),
+            PTypeField.of("f", PType.bool()),
+        )
+
+        private fun row(ti: Int?, si: Int?, i: Int?, b: Long?, d: Double?, f: Boolean?): Datum = Datum.row(
+            TYPE.fields.toList(),
+            listOf(
+                Field.of("ti", ti?.let { Datum.tinyint(it.toByte()) } ?: Datum.nullValue(PType.tinyint())),
+                Field.of("si", si?.let { Datum.smallint(it.toShort()) } ?: Datum.nullValue(PType.smallint())),
+                Field.of("i", i?.let { Datum.integer(it) } ?: Datum.nullValue(PType.integer())),
+                Field.of("b", b?.let { Datum.bigint(it) } ?: Datum.nullValue(PType.bigint())),
+                Field.of("d", d?.let { Datum.doublePrecision(it) } ?: Datum.nullValue(PType.doublePrecision())),
+                Field.of("f", f?.let { Datum.bool(it) } ?: Datum.nullValue(PType.bool())),
+            )
+        )
+
+        private val ROWS = listOf(
+            row(1, 2, 3, 4, 1.5, true),
+            row(-7, 300, -70000, 5_000_000_000, -0.25, false),
+            row(127, 32767, Int.MAX_VALUE, Long.MAX_VALUE, 1e308, true),
+            row(-128, -32768, Int.MIN_VALUE, Long.MIN_VALUE, -0.0, false),
+            row(0, 0, 0, 0, 0.0, null),
+            row(null, null, null, null, null, null),
+            row(1, -1, -1, -1, Double.NaN, true),
+        )
+
+        private val SESSION = Session.builder()
+            .catalog("memory")
+            .catalogs(
+                Catalog.builder()
+                    .name("memory")
+                    .define(Table.standard(Name.of("v"), PType.bag(TYPE), Datum.bag(ROWS)))
+                    .define(Table.standard(Name.of("u"), Datum.bagVararg(Datum.struct(Field.of("i", Datum.integer(1))), Datum.struct())))
+                    .build()
+            )
+            .build()
+
+        @JvmStatic
+        fun queries() = listOf(
+            // arithmetic, with overflows and division by zero
+            "SELECT v.i + 1 AS x, v.i - 1 AS y, v.i * 2 AS z FROM v AS v",
+            "SELECT v.ti + v.ti AS x, v.si * v.si AS y, v.ti - 1 AS z FROM v AS v",
+            "SELECT v.b + v.b AS x, v.b - 1 AS y, v.b * v.b AS z, v.b * -1 AS w FROM v AS v",
+            "SELECT v.i / v.i AS x FROM v AS v",
+            "SELECT v.i / 2 AS x, v.i % 3 AS y, v.b / -1 AS z FROM v AS v WHERE v.i <> 0",
+            "SELECT v.b % v.b AS x FROM v AS v WHERE v.b <> 0",
+            "SELECT (v.i + 1) * (v.i - 1) / 3 AS x FROM v AS v WHERE v.i BETWEEN -100000 AND 100000",
+            "SELECT v.ti / v.ti AS x FROM v AS v WHERE v.ti <> 0",
+            "SELECT v.d + 1.5e0 AS x, v.d * v.d AS y, v.d - v.d AS z FROM v AS v",
+            "SELECT v.d / v.d AS x FROM v AS v",
+            "SELECT v.d % 2e0 AS x FROM v AS v WHERE v.d <> 0e0",
+            // comparisons and boolean logic
+            "SELECT v.i < v.b AS x, v.si >= v.ti AS y, v.d > 0e0 AS z, v.d <= 1e0 AS w FROM v AS v",
+            "SELECT VALUE v.i FROM v AS v WHERE v.i > 0 AND v.b < 10",
+            "SELECT v.i > 0 AND v.f AS x, v.i > 0 OR v.f AS y, v.f OR v.b + 1 > 0 AS z FROM v AS v",
+            "SELECT v.i > 0 AND v.ti + v.ti > 0 AS x, v.i < 0 OR v.ti + v.ti > 0 AS y FROM v AS v",
+            "SELECT v.i = 3 AND v.d < 2e0 AS x FROM v AS v",
+            // CASE and casts
+            "SELECT CASE WHEN v.i > 0 THEN v.i * 2 WHEN v.i < 0 THEN -v.i ELSE 0 END AS x FROM v AS v",
+            "SELECT CASE WHEN v.f THEN v.d WHEN v.ti + v.ti > 0 THEN 1e0 END AS x FROM v AS v",
+            "SELECT CAST(v.b AS INT) AS x FROM v AS v",
+            "SELECT CAST(v.i AS SMALLINT) + 1 AS x, CAST(v.si AS BIGINT) * 3 AS y, CAST(v.i AS DOUBLE PRECISION) / 2e0 AS z FROM v AS v",
+            "SELECT CAST(v.ti AS INT) + v.i AS x FROM v AS v",
+            // dynamic operands are interpreted
+            "SELECT u.i + 1 AS x, u.i > 0 AS y FROM u AS u",
+            "SELECT v.i + u.i AS x FROM v AS v, u AS u",
+        )
+    }
+}
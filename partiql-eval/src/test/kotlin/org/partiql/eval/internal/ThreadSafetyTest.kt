@@ -137,6 +137,54 @@ class ThreadSafetyTest {
         }
     }
 
+    @RepeatedTest(5)
+    fun concurrentExecutionsReuseOperators() {
+        // the catalogs resolve the same tables for each execution, so that the operators of each one can be reused
+        val query = """
+            SELECT o.product_id, SUM(o.quantity) AS quantity
+            FROM orders AS o
+            JOIN products AS p ON o.product_id = p.id
+            GROUP BY o.product_id
+            ORDER BY o.product_id
+        """.trimIndent()
+        val orders = Datum.bagVararg(
+            *(1..100).map { struct("product_id" to Datum.integer(it % 4), "quantity" to Datum.integer(it)) }.toTypedArray()
+        )
+        val products = Datum.bagVararg(
+            *(0..3).map { struct("id" to Datum.integer(it)) }.toTypedArray()
+        )
+        val catalog = Catalog.builder()
+            .name("store")
+            .define(Table.standard(Name.of("orders"), orders))
+            .define(Table.standard(Name.of("products"), products))
+            .build()
+        val session = Session.builder()
+            .catalog("store")
+            .catalogs(catalog)
+            .build()
+
+        val ast = parser.parse(query).statements[0]
+        val result = planner.plan(ast, session)
+        val execPlan = compiler.compile(result.plan, Mode.STRICT())
+        val catalogs = buildExecutionCatalogs(result.symbols, session)
+        // the sums of 4, 8, .., 100, of 1, 5, .., 97, of 2, 6, .., 98, and of 3, 7, .., 99
+        val expected = listOf(1300L, 1225L, 1250L, 1275L)
+
+        val executor = Executors.newFixedThreadPool(8)
+        try {
+            val futures = (1..8).map {
+                CompletableFuture.supplyAsync({
+                    (1..50).map {
+                        vm.execute(execPlan, catalogs).map { row -> row.get("quantity").long }
+                    }
+                }, executor)
+            }
+            futures.flatMap { it.get() }.forEach { assertEquals(expected, it) }
+        } finally {
+            executor.shutdown()
+        }
+    }
+
     private fun struct(vararg fields: Pair<String, Datum>): Datum {
         val f = fields.map { (k, v) -> org.partiql.spi.value.Field.of(k, v) }
         return Datum.struct(f)
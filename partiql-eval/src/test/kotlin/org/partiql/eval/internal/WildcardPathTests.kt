@@ -446,9 +446,11 @@ class WildcardPathTests {
                     )
                 )
             ),
-            FailureTestCase(
-                name = "true OR expr with missing_field.* in strict mode should error",
+            // OR stops at the first TRUE in strict mode too, so the erroneous operand is not evaluated
+            SuccessTestCase(
+                name = "true OR expr with missing_field.* in strict mode returns true",
                 input = "true OR (SIZE(SELECT x FROM payload.barcode_knowledge.* AS x) > 0)",
+                expected = Datum.bool(true),
                 mode = Mode.STRICT(),
                 globals = listOf(
                     Global(
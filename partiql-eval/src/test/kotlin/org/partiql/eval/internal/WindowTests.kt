@@ -1,15 +1,29 @@
 package org.partiql.eval.internal
 
 import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
 import org.junit.jupiter.api.parallel.Execution
 import org.junit.jupiter.api.parallel.ExecutionMode
 import org.junit.jupiter.params.ParameterizedTest
 import org.junit.jupiter.params.provider.MethodSource
 import org.partiql.eval.Mode
+import org.partiql.eval.internal.compiler.OperatorCompiler
+import org.partiql.eval.internal.operator.rel.RelOpWindow
+import org.partiql.eval.internal.operator.rel.RelOpWindowParallel
+import org.partiql.eval.internal.plan.PRel
+import org.partiql.spi.Context
+import org.partiql.spi.catalog.Catalog
+import org.partiql.spi.catalog.Name
+import org.partiql.spi.catalog.Session
+import org.partiql.spi.catalog.Table
+import org.partiql.spi.errors.PRuntimeException
 import org.partiql.spi.types.PType
 import org.partiql.spi.value.Datum
 import org.partiql.spi.value.Field
+import java.math.BigDecimal
 import java.time.LocalDate
+import kotlin.test.assertEquals
+import kotlin.test.assertIs
 
 /**
  * This test file tests window functions/clause.
@@ -26,6 +40,76 @@ class WindowTests {
     @Execution(ExecutionMode.CONCURRENT)
     fun failureTests(tc: FailureTestCase) = tc.run()
 
+    @Test
+    fun parallelPartitions() {
+        // partitions of various sizes, so that both small batched partitions and large partitions are evaluated
+        val rows = (0 until 5000).map { i ->
+            Datum.struct(
+                Field.of("id", Datum.integer(i)),
+                Field.of("grp", Datum.integer(if (i < 2000) 0 else i % 97)),
+                Field.of("val", Datum.integer((i * 31) % 100)),
+            )
+        }
+        val query = """
+            SELECT
+                t.id AS _id,
+                RANK() OVER (PARTITION BY t.grp ORDER BY t.val) AS _rank,
+                LAG(t.id, 1, -1) OVER (PARTITION BY t.grp ORDER BY t.val, t.id) AS _lag,
+                SUM(t.val) OVER (PARTITION BY t.grp ORDER BY t.val, t.id ROWS BETWEEN 3 PRECEDING AND 2 FOLLOWING) AS _sum
+            FROM t AS t
+            ORDER BY t.grp, t.id
+        """.trimIndent()
+        val serial = executeWindow(query, rows, Context.standard())
+        val parallel = executeWindow(query, rows, parallelism(4))
+        assertEquals(5000, serial.size)
+        assertSameResult(query, Datum.array(serial), Datum.array(parallel))
+    }
+
+    @Test
+    fun partitionedWindowsAreCompiledToTheParallelOperator() {
+        val session = session(emptyList())
+        val partitioned = window("SELECT RANK() OVER (PARTITION BY t.grp ORDER BY t.val) AS r FROM t AS t", session)
+        assertIs<RelOpWindowParallel>(OperatorCompiler(emptyArray(), Mode.STRICT(), parallelism(4)).compileRel(partitioned))
+        assertIs<RelOpWindow>(OperatorCompiler(emptyArray(), Mode.STRICT(), Context.standard()).compileRel(partitioned))
+        // a window without partitions is a single partition, which is evaluated serially
+        val unpartitioned = window("SELECT RANK() OVER (ORDER BY t.val) AS r FROM t AS t", session)
+        assertIs<RelOpWindow>(OperatorCompiler(emptyArray(), Mode.STRICT(), parallelism(4)).compileRel(unpartitioned))
+    }
+
+    @Test
+    fun parallelPartitionsFailure() {
+        val rows = (0 until 100).map { i ->
+            Datum.struct(Field.of("grp", Datum.integer(i % 10)), Field.of("val", Datum.integer(i)))
+        }
+        val query = "SELECT SUM(t.val) OVER (PARTITION BY t.grp ORDER BY t.val ROWS (0 - 1) PRECEDING) AS _sum FROM t AS t"
+        assertThrows<PRuntimeException> {
+            executeWindow(query, rows, parallelism(4))
+        }
+    }
+
+    private fun parallelism(n: Int) = object : Context {
+        override fun getParallelism(): Int = n
+    }
+
+    private fun executeWindow(query: String, rows: List<Datum>, ctx: Context): List<Datum> {
+        return executeBothPaths(query, session(rows), Mode.STRICT(), ctx).toList()
+    }
+
+    private fun window(query: String, session: Session): PRel.Window {
+        return executionPlan(query, session).nodes().filterIsInstance<PRel.Window>().single()
+    }
+
+    private fun session(rows: List<Datum>): Session {
+        val catalog = Catalog.builder()
+            .name("memory")
+            .define(Table.standard(Name.of("t"), Datum.bag(rows)))
+            .build()
+        return Session.builder()
+            .catalog("memory")
+            .catalogs(catalog)
+            .build()
+    }
+
     /**
      * This is used just for debugging purposes.
      */
@@ -363,8 +447,116 @@ class WindowTests {
                     )
                 ),
             ),
+            SuccessTestCase(
+                name = "Aggregates over a sliding ROWS frame",
+                mode = Mode.STRICT(),
+                globals = globals,
+                input = """
+                    SELECT
+                        t.id AS _id,
+                        SUM(t.age) OVER _w AS _sum,
+                        COUNT(*) OVER _w AS _count,
+                        MIN(t.age) OVER _w AS _min,
+                        MAX(t.age) OVER _w AS _max
+                    FROM employee AS t
+                    WINDOW _w AS (PARTITION BY t.department ORDER BY t.age, t.name ROWS BETWEEN 1 PRECEDING AND 1 FOLLOWING);
+                """.trimIndent(),
+                expected = Datum.bagVararg(
+                    rowOfAggregates(6, 72, 2, 32, 40),
+                    rowOfAggregates(0, 72, 2, 32, 40),
+                    rowOfAggregates(5, 55, 2, 25, 30),
+                    rowOfAggregates(3, 85, 3, 25, 30),
+                    rowOfAggregates(9, 92, 3, 30, 32),
+                    rowOfAggregates(7, 97, 3, 30, 35),
+                    rowOfAggregates(2, 67, 2, 32, 35),
+                    rowOfAggregates(1, 56, 2, 28, 28),
+                    rowOfAggregates(4, 85, 3, 28, 29),
+                    rowOfAggregates(8, 57, 2, 28, 29),
+                ),
+            ),
+            SuccessTestCase(
+                name = "Aggregates over a RANGE frame with an offset",
+                mode = Mode.STRICT(),
+                globals = globals,
+                input = """
+                    SELECT
+                        t.id AS _id,
+                        SUM(t.age) OVER _w AS _sum,
+                        COUNT(*) OVER _w AS _count
+                    FROM employee AS t
+                    WINDOW _w AS (PARTITION BY t.department ORDER BY t.age RANGE BETWEEN 2 PRECEDING AND CURRENT ROW);
+                """.trimIndent(),
+                expected = Datum.bagVararg(
+                    rowOfAggregates(6, 32, 1),
+                    rowOfAggregates(0, 40, 1),
+                    rowOfAggregates(5, 25, 1),
+                    rowOfAggregates(3, 60, 2),
+                    rowOfAggregates(9, 60, 2),
+                    rowOfAggregates(7, 92, 3),
+                    rowOfAggregates(2, 35, 1),
+                    rowOfAggregates(1, 56, 2),
+                    rowOfAggregates(4, 56, 2),
+                    rowOfAggregates(8, 85, 3),
+                ),
+            ),
+            SuccessTestCase(
+                name = "Aggregates over the default frames",
+                mode = Mode.STRICT(),
+                globals = globals,
+                input = """
+                    SELECT
+                        t.id AS _id,
+                        SUM(t.age) OVER (PARTITION BY t.department ORDER BY t.age) AS _sum,
+                        AVG(t.age) OVER (PARTITION BY t.department) AS _avg
+                    FROM employee AS t;
+                """.trimIndent(),
+                expected = Datum.bagVararg(
+                    rowOfRunningSum(6, 32, "36"),
+                    rowOfRunningSum(0, 72, "36"),
+                    rowOfRunningSum(5, 25, "30.4"),
+                    rowOfRunningSum(3, 85, "30.4"),
+                    rowOfRunningSum(9, 85, "30.4"),
+                    rowOfRunningSum(7, 117, "30.4"),
+                    rowOfRunningSum(2, 152, "30.4"),
+                    rowOfRunningSum(1, 56, "28.333333333333333333333333333333333333"),
+                    rowOfRunningSum(4, 56, "28.333333333333333333333333333333333333"),
+                    rowOfRunningSum(8, 85, "28.333333333333333333333333333333333333"),
+                ),
+            ),
         )
 
+        /**
+         * @param id The employee's id
+         * @param sum The sum of the ages in the employee's frame
+         * @param count The number of rows in the employee's frame
+         * @param minMax The minimum and maximum ages in the employee's frame, if any
+         */
+        private fun rowOfAggregates(id: Int, sum: Long, count: Long, vararg minMax: Int): Datum {
+            val fields = mutableListOf(
+                Field.of("_id", Datum.integer(id)),
+                Field.of("_sum", Datum.bigint(sum)),
+                Field.of("_count", Datum.bigint(count)),
+            )
+            if (minMax.isNotEmpty()) {
+                fields.add(Field.of("_min", Datum.integer(minMax[0])))
+                fields.add(Field.of("_max", Datum.integer(minMax[1])))
+            }
+            return Datum.struct(fields)
+        }
+
+        /**
+         * @param id The employee's id
+         * @param sum The sum of the ages of the employee's department, up to and including the employee's age
+         * @param avg The average age of the employee's department
+         */
+        private fun rowOfRunningSum(id: Int, sum: Long, avg: String): Datum {
+            return Datum.struct(
+                Field.of("_id", Datum.integer(id)),
+                Field.of("_sum", Datum.bigint(sum)),
+                Field.of("_avg", Datum.decimal(BigDecimal(avg))),
+            )
+        }
+
         /**
          * @param id The employee's id
          * @param rank The employee's rank within their department
@@ -507,6 +699,16 @@ class WindowTests {
                     FROM employee AS t;
                 """.trimIndent(),
             ),
+            FailureTestCase(
+                name = "Negative ROWS frame offset",
+                mode = Mode.STRICT(),
+                globals = globals,
+                input = """
+                    SELECT
+                        SUM(t.age) OVER (PARTITION BY t.department ORDER BY t.age ROWS (0 - 1) PRECEDING) AS _sum
+                    FROM employee AS t;
+                """.trimIndent(),
+            ),
         )
     }
 }
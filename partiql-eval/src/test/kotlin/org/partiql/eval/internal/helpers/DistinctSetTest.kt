@@ -0,0 +1,81 @@
+package org.partiql.eval.internal.helpers
+
+import org.junit.jupiter.api.Test
+import org.partiql.spi.types.PType
+import org.partiql.spi.value.Datum
+import java.math.BigDecimal
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.test.assertTrue
+
+class DistinctSetTest {
+
+    private fun DistinctSet.add(vararg args: Datum): Boolean = add(arrayOf(*args))
+
+    @Test
+    fun integers() {
+        val set = DistinctSet.create(listOf(PType.integer()))
+        assertTrue(set.add(Datum.integer(0)))
+        assertTrue(set.add(Datum.integer(1)))
+        assertFalse(set.add(Datum.bigint(1)))
+        assertFalse(set.add(Datum.smallint(0)))
+        // many keys grow the table
+        val before = set.bytes
+        for (i in 2 until 1000) assertTrue(set.add(Datum.integer(i)))
+        for (i in 0 until 1000) assertFalse(set.add(Datum.integer(i)))
+        assertTrue(set.bytes > before)
+    }
+
+    @Test
+    fun integersFallBackForOtherTypes() {
+        val set = DistinctSet.create(listOf(PType.bigint()))
+        assertTrue(set.add(Datum.bigint(1)))
+        assertTrue(set.add(Datum.bigint(2)))
+        // a decimal equal to a previous integer is not distinct
+        assertFalse(set.add(Datum.decimal(BigDecimal("2.0"), 2, 1)))
+        assertTrue(set.add(Datum.decimal(BigDecimal("2.5"), 2, 1)))
+        assertFalse(set.add(Datum.bigint(1)))
+        assertTrue(set.add(Datum.bigint(3)))
+    }
+
+    @Test
+    fun doubles() {
+        val set = DistinctSet.create(listOf(PType.doublePrecision()))
+        assertTrue(set.add(Datum.doublePrecision(1.5)))
+        assertFalse(set.add(Datum.real(1.5f)))
+        assertTrue(set.add(Datum.doublePrecision(Double.NaN)))
+        assertFalse(set.add(Datum.doublePrecision(0.0 / 0.0)))
+        assertTrue(set.add(Datum.doublePrecision(0.0)))
+        assertTrue(set.add(Datum.string("x")))
+        assertFalse(set.add(Datum.bigint(0)))
+    }
+
+    @Test
+    fun strings() {
+        val set = DistinctSet.create(listOf(PType.string()))
+        assertTrue(set.add(Datum.string("a")))
+        assertFalse(set.add(Datum.varchar("a", 1)))
+        assertTrue(set.add(Datum.string("b")))
+        assertTrue(set.add(Datum.integer(1)))
+        assertFalse(set.add(Datum.string("b")))
+    }
+
+    @Test
+    fun tuples() {
+        val set = DistinctSet.create(listOf(PType.integer(), PType.string()))
+        assertTrue(set.add(Datum.integer(1), Datum.string("a")))
+        assertFalse(set.add(Datum.bigint(1), Datum.string("a")))
+        assertTrue(set.add(Datum.integer(1), Datum.string("b")))
+    }
+
+    @Test
+    fun memoryGrowsWithDistinctValues() {
+        val set = DistinctSet.create(listOf(PType.string()))
+        val empty = set.bytes
+        set.add(Datum.string("abc"))
+        val one = set.bytes
+        assertTrue(one > empty)
+        set.add(Datum.string("abc"))
+        assertEquals(one, set.bytes)
+    }
+}
@@ -0,0 +1,60 @@
+package org.partiql.eval.internal.helpers
+
+import org.junit.jupiter.api.Test
+import org.partiql.spi.value.Datum
+import java.math.BigDecimal
+import kotlin.test.assertFalse
+import kotlin.test.assertTrue
+
+class RuntimeFilterTest {
+
+    private fun RuntimeFilter.test(vararg keys: Datum): Boolean = test(arrayOf(*keys))
+
+    @Test
+    fun passesEveryKeyUntilPublished() {
+        val filter = RuntimeFilter()
+        filter.add(arrayOf(Datum.integer(1)))
+        assertTrue(filter.test(Datum.integer(2)))
+        assertTrue(filter.test(null))
+    }
+
+    @Test
+    fun dropsKeysNotInBuildSide() {
+        val filter = RuntimeFilter()
+        for (i in 0 until 1000 step 2) filter.add(arrayOf(Datum.integer(i)))
+        filter.publish()
+        // no false negatives, including equal keys of other types
+        for (i in 0 until 1000 step 2) assertTrue(filter.test(Datum.integer(i)))
+        assertTrue(filter.test(Datum.bigint(10)))
+        assertTrue(filter.test(Datum.decimal(BigDecimal("10.0"), 3, 1)))
+        // keys outside of the range, and absent keys, are dropped
+        assertFalse(filter.test(Datum.integer(-1)))
+        assertFalse(filter.test(Datum.integer(1000)))
+        assertFalse(filter.test(null))
+        // few false positives within the range
+        val passed = (1 until 1000 step 2).count { filter.test(Datum.integer(it)) }
+        assertTrue(passed < 50, "$passed false positives")
+    }
+
+    @Test
+    fun emptyBuildSideDropsEveryKey() {
+        val filter = RuntimeFilter()
+        filter.publish()
+        assertFalse(filter.test(Datum.integer(0)))
+    }
+
+    @Test
+    fun disablesItselfWhenNotSelective() {
+        val filter = RuntimeFilter()
+        for (i in 0 until 100) filter.add(arrayOf(Datum.integer(i)))
+        filter.publish()
+        // every key matches, so the filter is not selective
+        repeat(4096) { filter.test(Datum.integer(it % 100)) }
+        assertTrue(filter.test(Datum.integer(-1)))
+        // a reset filter passes keys until it is published again
+        filter.reset()
+        filter.add(arrayOf(Datum.integer(0)))
+        filter.publish()
+        assertFalse(filter.test(Datum.integer(-1)))
+    }
+}
@@ -0,0 +1,87 @@
+package org.partiql.eval.internal.spill
+
+import org.junit.jupiter.api.Test
+import org.partiql.spi.types.PType
+import org.partiql.spi.types.PTypeField
+import org.partiql.spi.value.Datum
+import org.partiql.spi.value.Entry
+import org.partiql.spi.value.Field
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
+import java.io.DataInputStream
+import java.io.DataOutputStream
+import java.math.BigDecimal
+import java.time.LocalDate
+import java.time.LocalDateTime
+import java.time.LocalTime
+import java.time.OffsetDateTime
+import java.time.OffsetTime
+import java.time.ZoneOffset
+import kotlin.test.assertEquals
+import kotlin.test.assertTrue
+
+class DatumCodecTest {
+
+    private val comparator = Datum.comparator(true, true)
+
+    @Test
+    fun roundTrip() {
+        val offset = ZoneOffset.ofHoursMinutes(-5, -30)
+        val values = arrayOf(
+            Datum.bool(true),
+            Datum.tinyint(-3),
+            Datum.smallint(300),
+            Datum.integer(Int.MIN_VALUE),
+            Datum.bigint(Long.MAX_VALUE),
+            Datum.numeric(BigDecimal("-12345678901234567890.123"), 38, 3),
+            Datum.decimal(BigDecimal("2.50"), 5, 2),
+            Datum.real(1.5f),
+            Datum.doublePrecision(Double.NaN),
+            Datum.character("ab", 4),
+            Datum.varchar("héllo", 10),
+            Datum.string("😀"),
+            Datum.clob("clob".toByteArray(), 8),
+            Datum.blob(byteArrayOf(0, -1, 127), 3),
+            Datum.date(LocalDate.of(1999, 12, 31)),
+            Datum.time(LocalTime.of(23, 59, 59, 999_999_999), 9),
+            Datum.timez(OffsetTime.of(LocalTime.of(1, 2, 3), offset), 0),
+            Datum.timestamp(LocalDateTime.of(2020, 2, 29, 12, 0, 0, 1000), 6),
+            Datum.timestampz(OffsetDateTime.of(LocalDateTime.of(1970, 1, 1, 0, 0), offset), 3),
+            Datum.intervalYearMonth(2, 11, 2),
+            Datum.intervalMonth(14, 3),
+            Datum.intervalDaySecond(1, 2, 3, 4, 500, 2, 6),
+            Datum.intervalMinute(-90, 4),
+            Datum.intervalHour(30, 2),
+            Datum.intervalMinuteSecond(61, 5, 0, 3, 0),
+            Datum.array(listOf(Datum.integer(1), Datum.nullValue(PType.string()), Datum.missing())),
+            Datum.bag(listOf(Datum.bag(emptyList()), Datum.array(listOf(Datum.string("x"))))),
+            Datum.struct(Field.of("a", Datum.integer(1)), Field.of("a", Datum.string("dup")), Field.of("b", Datum.struct())),
+            Datum.row(
+                listOf(PTypeField.of("x", PType.integer()), PTypeField.of("y", PType.string())),
+                listOf(Field.of("x", Datum.integer(1)), Field.of("y", Datum.string("y"))),
+            ),
+            Datum.map(PType.string(), PType.integer(), listOf(Entry.of(Datum.string("k"), Datum.integer(7)))),
+            Datum.ion("{a: [1, 2.5, \"three\"]}"),
+            Datum.nullValue(PType.decimal(10, 2)),
+            Datum.missing(PType.integer()),
+        )
+        val bytes = ByteArrayOutputStream()
+        DataOutputStream(bytes).use { DatumCodec.writeRow(it, values) }
+        val actual = DataInputStream(ByteArrayInputStream(bytes.toByteArray())).use { DatumCodec.readRow(it) }
+        assertEquals(values.size, actual.size)
+        for (i in values.indices) {
+            val expected = values[i]
+            assertEquals(expected.type, actual[i].type, "type of $expected")
+            assertEquals(expected.isNull, actual[i].isNull)
+            assertEquals(expected.isMissing, actual[i].isMissing)
+            assertEquals(0, comparator.compare(expected, actual[i]), "value of $expected")
+        }
+    }
+
+    @Test
+    fun estimateGrowsWithValues() {
+        val small = DatumCodec.estimate(arrayOf(Datum.integer(1)))
+        val large = DatumCodec.estimate(arrayOf(Datum.integer(1), Datum.string("x".repeat(1000))))
+        assertTrue(large > small + 2000)
+    }
+}
@@ -993,12 +993,25 @@ windowFunction: funcType=windowFunctionType OVER spec=windowNameOrSpecification;
  *   <rank function type> <left paren> <right paren>
  *   | ROW_NUMBER <left paren> <right paren>
  *   | <lead or lag function>
+ *   | <aggregate function>
  *   | and more...
  */
 windowFunctionType
     : rankFunctionType PAREN_LEFT PAREN_RIGHT # WindowFunctionTypeRank
     | ROW_NUMBER PAREN_LEFT PAREN_RIGHT       # WindowFunctionTypeRowNumber
     | leadOrLagFunction                       # WindowFunctionTypeLeadOrLag
+    | aggregateWindowFunction                 # WindowFunctionTypeAggregate
+    ;
+
+/**
+ * EBNF 2023 (subset):
+ * <aggregate function> ::= COUNT <left paren> <asterisk> <right paren> | <general set function>
+ * <general set function> ::= <set function type> <left paren> <value expression> <right paren>
+ * <set function type> ::= AVG | MAX | MIN | SUM | COUNT
+ */
+aggregateWindowFunction
+    : func=COUNT PAREN_LEFT ASTERISK PAREN_RIGHT
+    | func=(COUNT|SUM|AVG|MIN|MAX) PAREN_LEFT arg=expr PAREN_RIGHT
     ;
 
 /**
@@ -1048,17 +1061,43 @@ windowNameOrSpecification
  * <window specification> ::= <left paren> <window specification details> <right paren>
  * <window specification details> ::= [ <existing window name> ] [ <window partition clause> ] [ <window order clause> ] [ <window frame clause> ]
  * <existing window name> ::= <window name>
- * <window frame clause> ::= ...
  */
 windowSpecification
     : PAREN_LEFT
         existingWindowName=symbolPrimitive?
         partition=windowPartitionClause?
         order=orderByClause?
-        // TODO: windowFrameClause. https://github.com/partiql/partiql-lang-kotlin/issues/1837
+        frame=windowFrameClause?
         PAREN_RIGHT
     ;
 
+/**
+ * EBNF 2023 (without the <window frame exclusion>):
+ * <window frame clause> ::= <window frame units> <window frame extent>
+ * <window frame units> ::= ROWS | RANGE
+ * <window frame extent> ::= <window frame start> | <window frame between>
+ * <window frame between> ::= BETWEEN <window frame bound 1> AND <window frame bound 2>
+ */
+windowFrameClause
+    : units=(ROWS|RANGE) start=windowFrameBound
+    | units=(ROWS|RANGE) BETWEEN start=windowFrameBound AND end=windowFrameBound
+    ;
+
+/**
+ * EBNF 2023:
+ * <window frame bound> ::= <window frame start> | UNBOUNDED FOLLOWING | <window frame following>
+ * <window frame start> ::= UNBOUNDED PRECEDING | <window frame preceding> | CURRENT ROW
+ * <window frame preceding> ::= <unsigned value specification> PRECEDING
+ * <window frame following> ::= <unsigned value specification> FOLLOWING
+ */
+windowFrameBound
+    : UNBOUNDED PRECEDING               # WindowFrameBoundUnboundedPreceding
+    | offset=exprPrimary PRECEDING      # WindowFrameBoundPreceding
+    | CURRENT ROW                       # WindowFrameBoundCurrentRow
+    | offset=exprPrimary FOLLOWING      # WindowFrameBoundFollowing
+    | UNBOUNDED FOLLOWING               # WindowFrameBoundUnboundedFollowing
+    ;
+
 /**
  * <window partition clause> ::= PARTITION BY <window partition column reference list>
  * <window partition column reference list> ::= <window partition column reference> [ { <comma> <window partition column reference> }... ]
@@ -1193,6 +1232,10 @@ nonReserved
     /* PartiQL */
     | EXCLUDED | EXISTS
     | SIZE
+    /* Non-reserved, as per SQL:2023 */
+    | FOLLOWING | PRECEDING | UNBOUNDED
+    /* Reserved in SQL:2023, but not reserved to keep `range` usable as an identifier */
+    | RANGE
     /* Other words not in above */
     | ANY | SOME
     ;
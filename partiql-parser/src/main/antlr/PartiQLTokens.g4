@@ -118,6 +118,7 @@ FALSE: 'FALSE';
 FETCH: 'FETCH';
 FIRST: 'FIRST';
 FLOAT: 'FLOAT';
+FOLLOWING: 'FOLLOWING'; // Non-reserved, as per SQL:2023
 FOR: 'FOR';
 FOREIGN: 'FOREIGN';
 FOUND: 'FOUND';
@@ -197,6 +198,7 @@ PARTITION: 'PARTITION'; // Reserved, as per SQL:2023
 PERCENT_RANK: 'PERCENT_RANK'; // Non-reserved, as per SQL:2023
 PLACING: 'PLACING';
 POSITION: 'POSITION';
+PRECEDING: 'PRECEDING'; // Non-reserved, as per SQL:2023
 PRECISION: 'PRECISION';
 PREPARE: 'PREPARE';
 PRESERVE: 'PRESERVE';
@@ -205,6 +207,7 @@ PRIOR: 'PRIOR';
 PRIVILEGES: 'PRIVILEGES';
 PROCEDURE: 'PROCEDURE';
 PUBLIC: 'PUBLIC';
+RANGE: 'RANGE'; // Reserved in SQL:2023, but non-reserved in PartiQL
 RANK: 'RANK'; // Non-reserved, as per SQL:2023
 READ: 'READ';
 REAL: 'REAL';
@@ -252,6 +255,7 @@ TRANSLATE: 'TRANSLATE';
 TRANSLATION: 'TRANSLATION';
 TRIM: 'TRIM';
 TRUE: 'TRUE';
+UNBOUNDED: 'UNBOUNDED'; // Non-reserved, as per SQL:2023
 UNION: 'UNION';
 UNIQUE: 'UNIQUE';
 UNKNOWN: 'UNKNOWN';
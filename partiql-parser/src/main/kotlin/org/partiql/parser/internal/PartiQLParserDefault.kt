@@ -174,6 +174,9 @@ import org.partiql.ast.SetQuantifier
 import org.partiql.ast.Sort
 import org.partiql.ast.Statement
 import org.partiql.ast.WindowClause
+import org.partiql.ast.WindowFrameBound
+import org.partiql.ast.WindowFrameClause
+import org.partiql.ast.WindowFrameUnits
 import org.partiql.ast.WindowFunctionNullTreatment
 import org.partiql.ast.WindowFunctionType
 import org.partiql.ast.WindowPartition
@@ -223,6 +226,7 @@ import org.partiql.spi.errors.PError
 import org.partiql.spi.errors.PErrorKind
 import org.partiql.spi.errors.PErrorListener
 import org.partiql.spi.errors.PRuntimeException
+import org.partiql.spi.metrics.MetricsListener
 import java.math.BigInteger
 import java.nio.channels.ClosedByInterruptException
 import java.nio.charset.StandardCharsets
@@ -250,7 +254,7 @@ internal class PartiQLParserDefault : PartiQLParser {
     @Throws(PRuntimeException::class)
     override fun parse(source: String, ctx: Context): PartiQLParser.Result {
         try {
-            return parse(source, ctx.errorListener)
+            return parse(source, ctx.errorListener, ctx.metricsListener)
         } catch (e: PRuntimeException) {
             throw e
         } catch (throwable: Throwable) {
@@ -268,16 +272,27 @@ internal class PartiQLParserDefault : PartiQLParser {
      * To reduce latency costs, the [PartiQLParserDefault] attempts to use [PredictionMode.SLL] and falls back to
      * [PredictionMode.LL] if a [ParseCancellationException] is thrown by the [BailErrorStrategy].
      */
-    private fun parse(source: String, listener: PErrorListener): PartiQLParser.Result = try {
-        parse(source, PredictionMode.SLL, listener)
-    } catch (ex: ParseCancellationException) {
-        parse(source, PredictionMode.LL, listener)
+    private fun parse(source: String, listener: PErrorListener, metrics: MetricsListener): PartiQLParser.Result {
+        // without a listener, nothing is timed
+        val start = if (metrics !== MetricsListener.none()) System.nanoTime() else 0L
+        return try {
+            parse(source, PredictionMode.SLL, listener, metrics, start)
+        } catch (ex: ParseCancellationException) {
+            parse(source, PredictionMode.LL, listener, metrics, start)
+        }
     }
 
     /**
-     * Parses an input string [source] using the given prediction mode.
+     * Parses an input string [source] using the given prediction mode, then reports the time since [start] to the
+     * [metrics], unless they are [MetricsListener.none].
      */
-    private fun parse(source: String, mode: PredictionMode, listener: PErrorListener): PartiQLParser.Result {
+    private fun parse(
+        source: String,
+        mode: PredictionMode,
+        listener: PErrorListener,
+        metrics: MetricsListener,
+        start: Long,
+    ): PartiQLParser.Result {
         val tokens = createTokenStream(source, listener)
         val parser = InterruptibleParser(tokens)
         parser.reset()
@@ -289,7 +304,12 @@ internal class PartiQLParserDefault : PartiQLParser {
             else -> throw IllegalArgumentException("Unsupported parser mode: $mode")
         }
         val tree = parser.statements()
-        return Visitor.translate(tokens, tree, listener)
+        val result = Visitor.translate(tokens, tree, listener)
+        if (metrics !== MetricsListener.none()) {
+            // excluding EOF
+            metrics.parsed(System.nanoTime() - start, tokens.numberOfOnChannelTokens - 1)
+        }
+        return result
     }
 
     private fun createTokenStream(source: String, listener: PErrorListener): CountingTokenStream {
@@ -2034,6 +2054,20 @@ internal class PartiQLParserDefault : PartiQLParser {
             WindowFunctionType.RowNumber()
         }
 
+        override fun visitWindowFunctionTypeAggregate(ctx: GeneratedParser.WindowFunctionTypeAggregateContext) = translate(ctx) {
+            val func = ctx.aggregateWindowFunction()
+            val name = when (func.func.type) {
+                GeneratedLexer.COUNT -> "count"
+                GeneratedLexer.SUM -> "sum"
+                GeneratedLexer.AVG -> "avg"
+                GeneratedLexer.MIN -> "min"
+                GeneratedLexer.MAX -> "max"
+                else -> throw error(ctx, "Expected one of: COUNT, SUM, AVG, MIN, MAX")
+            }
+            val argument = func.arg?.let { visitExpr(it) }
+            WindowFunctionType.Aggregate(name, argument)
+        }
+
         override fun visitWindowFunctionNullTreatment(ctx: GeneratedParser.WindowFunctionNullTreatmentContext) = translate(ctx) {
             when {
                 ctx.RESPECT() != null -> WindowFunctionNullTreatment.RESPECT_NULLS()
@@ -2069,7 +2103,52 @@ internal class PartiQLParserDefault : PartiQLParser {
                 it.col.map { visitWindowPartitionColumnReference(it) }
             }
             val orderClause = ctx.order?.let { visitOrderByClause(it) }
-            WindowSpecification(existingName, partitionClause, orderClause)
+            val frameClause = ctx.frame?.let { visitWindowFrameClause(it) }
+            WindowSpecification(existingName, partitionClause, orderClause, frameClause)
+        }
+
+        override fun visitWindowFrameClause(ctx: GeneratedParser.WindowFrameClauseContext) = translate(ctx) {
+            val units = when (ctx.units.type) {
+                GeneratedLexer.ROWS -> WindowFrameUnits.ROWS()
+                GeneratedLexer.RANGE -> WindowFrameUnits.RANGE()
+                else -> throw error(ctx, "Expected one of: ROWS, RANGE")
+            }
+            val start = visitAs<WindowFrameBound>(ctx.start)
+            val end = ctx.end?.let { visitAs<WindowFrameBound>(it) }
+            // The frame may not start after its end, e.g. BETWEEN CURRENT ROW AND 1 PRECEDING.
+            if (frameBoundOrdinal(start) > frameBoundOrdinal(end ?: WindowFrameBound.CurrentRow()) || start is WindowFrameBound.UnboundedFollowing || end is WindowFrameBound.UnboundedPreceding) {
+                throw error(ctx, "Invalid window frame bounds")
+            }
+            WindowFrameClause(units, start, end)
+        }
+
+        private fun frameBoundOrdinal(bound: WindowFrameBound): Int = when (bound) {
+            is WindowFrameBound.UnboundedPreceding -> 0
+            is WindowFrameBound.Preceding -> 1
+            is WindowFrameBound.CurrentRow -> 2
+            is WindowFrameBound.Following -> 3
+            is WindowFrameBound.UnboundedFollowing -> 4
+            else -> throw IllegalStateException("Unexpected window frame bound: $bound")
+        }
+
+        override fun visitWindowFrameBoundUnboundedPreceding(ctx: GeneratedParser.WindowFrameBoundUnboundedPrecedingContext) = translate(ctx) {
+            WindowFrameBound.UnboundedPreceding()
+        }
+
+        override fun visitWindowFrameBoundPreceding(ctx: GeneratedParser.WindowFrameBoundPrecedingContext) = translate(ctx) {
+            WindowFrameBound.Preceding(visitAs<Expr>(ctx.offset))
+        }
+
+        override fun visitWindowFrameBoundCurrentRow(ctx: GeneratedParser.WindowFrameBoundCurrentRowContext) = translate(ctx) {
+            WindowFrameBound.CurrentRow()
+        }
+
+        override fun visitWindowFrameBoundFollowing(ctx: GeneratedParser.WindowFrameBoundFollowingContext) = translate(ctx) {
+            WindowFrameBound.Following(visitAs<Expr>(ctx.offset))
+        }
+
+        override fun visitWindowFrameBoundUnboundedFollowing(ctx: GeneratedParser.WindowFrameBoundUnboundedFollowingContext) = translate(ctx) {
+            WindowFrameBound.UnboundedFollowing()
         }
 
         override fun visitWindowNameOrSpec1(ctx: GeneratedParser.WindowNameOrSpec1Context) = translate(ctx) {
@@ -0,0 +1,121 @@
+package org.partiql.parser.internal
+
+import org.junit.jupiter.api.Test
+import org.partiql.ast.Ast.exprLit
+import org.partiql.ast.Ast.exprPath
+import org.partiql.ast.Ast.exprPathStepField
+import org.partiql.ast.Ast.exprVarRef
+import org.partiql.ast.Ast.exprWindowFunction
+import org.partiql.ast.Ast.from
+import org.partiql.ast.Ast.fromExpr
+import org.partiql.ast.Ast.orderBy
+import org.partiql.ast.Ast.query
+import org.partiql.ast.Ast.queryBodySFW
+import org.partiql.ast.Ast.selectItemExpr
+import org.partiql.ast.Ast.selectList
+import org.partiql.ast.Ast.sort
+import org.partiql.ast.Ast.windowFrameClause
+import org.partiql.ast.Ast.windowSpecification
+import org.partiql.ast.AstNode
+import org.partiql.ast.FromType
+import org.partiql.ast.Identifier
+import org.partiql.ast.Literal.intNum
+import org.partiql.ast.WindowFrameBound
+import org.partiql.ast.WindowFrameClause
+import org.partiql.ast.WindowFrameUnits
+import org.partiql.ast.WindowFunctionType
+import org.partiql.ast.expr.Expr
+import org.partiql.ast.expr.ExprQuerySet
+import kotlin.test.assertEquals
+
+/**
+ * Tests the window frame clause, and that its non-reserved keywords remain usable as identifiers.
+ */
+class PartiQLParserWindowFrameTests {
+
+    private val parser = PartiQLParserDefault()
+
+    @Test
+    fun rangeAsVariable() = assertExpression(
+        "range",
+        query(v("range"))
+    )
+
+    @Test
+    fun rangeAsPathStep() = assertExpression(
+        "t.range",
+        query(exprPath(v("t"), listOf(exprPathStepField(Identifier.Simple.regular("range")))))
+    )
+
+    @Test
+    fun rangeAsAlias() = assertExpression(
+        "SELECT t.a AS range FROM t",
+        query(
+            ExprQuerySet(
+                queryBodySFW(
+                    selectList(listOf(selectItemExpr(path("t", "a"), Identifier.Simple.regular("range")))),
+                    from(listOf(fromExpr(v("t"), FromType.SCAN()))),
+                ),
+                null,
+                null,
+                null,
+            )
+        )
+    )
+
+    @Test
+    fun rangeFrame() = assertExpression(
+        "SUM(x) OVER (ORDER BY x RANGE BETWEEN 1 PRECEDING AND CURRENT ROW)",
+        query(
+            sum(
+                "x",
+                windowFrameClause(
+                    WindowFrameUnits.RANGE(),
+                    WindowFrameBound.Preceding(exprLit(intNum(1))),
+                    WindowFrameBound.CurrentRow()
+                )
+            )
+        )
+    )
+
+    @Test
+    fun rangeFrameOverRangeColumn() = assertExpression(
+        "SUM(range) OVER (ORDER BY range RANGE UNBOUNDED PRECEDING)",
+        query(sum("range", windowFrameClause(WindowFrameUnits.RANGE(), WindowFrameBound.UnboundedPreceding(), null)))
+    )
+
+    @Test
+    fun rowsFrame() = assertExpression(
+        "SUM(x) OVER (ORDER BY x ROWS BETWEEN UNBOUNDED PRECEDING AND 2 FOLLOWING)",
+        query(
+            sum(
+                "x",
+                windowFrameClause(
+                    WindowFrameUnits.ROWS(),
+                    WindowFrameBound.UnboundedPreceding(),
+                    WindowFrameBound.Following(exprLit(intNum(2)))
+                )
+            )
+        )
+    )
+
+    private fun v(name: String): Expr = exprVarRef(Identifier.regular(name), false)
+
+    private fun path(root: String, step: String): Expr =
+        exprPath(v(root), listOf(exprPathStepField(Identifier.Simple.regular(step))))
+
+    /**
+     * @return `SUM(<column>) OVER (ORDER BY <column> <frame>)`.
+     */
+    private fun sum(column: String, frame: WindowFrameClause): Expr = exprWindowFunction(
+        type = WindowFunctionType.Aggregate("sum", v(column)),
+        spec = windowSpecification(null, null, orderBy(listOf(sort(v(column)))), frame)
+    )
+
+    private fun assertExpression(input: String, expected: AstNode) {
+        val result = parser.parse(input)
+        assertEquals(1, result.statements.size)
+        val actual = result.statements[0]
+        assertEquals(expected, actual)
+    }
+}
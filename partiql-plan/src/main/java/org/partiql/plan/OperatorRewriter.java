@@ -7,6 +7,7 @@ import org.partiql.plan.rel.RelWith;
 import org.partiql.plan.rex.*;
 import org.partiql.plan.rex.RexCase.Branch;
 import org.partiql.plan.rex.RexStruct.Field;
+import org.partiql.spi.types.PTypeField;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -177,6 +178,27 @@ public abstract class OperatorRewriter<C> implements OperatorVisitor<Operator, C
         return rel;
     }
 
+    @Override
+    public Operator visitIndexScan(@NotNull RelIndexScan rel, C ctx) {
+        // rewrite rex
+        Rex rex = rel.getRex();
+        Rex rex_new = visit(rex, ctx, Rex.class);
+        // rewrite key and bounds
+        Rex key = rel.getKey();
+        Rex key_new = key != null ? visit(key, ctx, Rex.class) : null;
+        Rex lower = rel.getLower();
+        Rex lower_new = lower != null ? visit(lower, ctx, Rex.class) : null;
+        Rex upper = rel.getUpper();
+        Rex upper_new = upper != null ? visit(upper, ctx, Rex.class) : null;
+        // rewrite index scan
+        if (rex != rex_new || key != key_new || lower != lower_new || upper != upper_new) {
+            RelIndexScan newOp = rel.copy(rex_new, key_new, lower_new, upper_new);
+            newOp.setType(rel.getType());
+            return newOp;
+        }
+        return rel;
+    }
+
     @Override
     public Operator visitIntersect(@NotNull RelIntersect rel, C ctx) {
         // rewrite left
@@ -201,7 +223,8 @@ public abstract class OperatorRewriter<C> implements OperatorVisitor<Operator, C
         Rex rex_new = visit(rex, ctx, Rex.class);
         // rewrite iterate
         if (rex != rex_new) {
-            RelIterate newOp = operators.iterate(rex_new);
+            // preserve the pruned projection, if any
+            RelIterate newOp = rel.getProjection() != null ? rel.copy(rex_new) : operators.iterate(rex_new);
             newOp.setType(rel.getType());
             return newOp;
         }
@@ -292,7 +315,8 @@ public abstract class OperatorRewriter<C> implements OperatorVisitor<Operator, C
         Rex rex_new = visit(rex, ctx, Rex.class);
         // rewrite scan
         if (rex != rex_new) {
-            RelScan newOp = operators.scan(rex_new);
+            // preserve the pruned projection, if any
+            RelScan newOp = rel.getProjection() != null ? rel.copy(rex_new) : operators.scan(rex_new);
             newOp.setType(rel.getType());
             return newOp;
         }
@@ -365,6 +389,32 @@ public abstract class OperatorRewriter<C> implements OperatorVisitor<Operator, C
         return element;
     }
 
+    @Override
+    public Operator visitWindow(@NotNull RelWindow rel, C ctx) {
+        // rewrite input
+        Rel input = rel.getInput();
+        Rel input_new = visit(input, ctx, Rel.class);
+        // rewrite partitions
+        List<Rex> partitions = rel.getPartitions();
+        List<Rex> partitions_new = visitAll(partitions, ctx, this::visitRex);
+        // rewrite collations
+        List<Collation> collations = rel.getCollations();
+        List<Collation> collations_new = visitAll(collations, ctx, this::visitCollation);
+        // rewrite window
+        if (input != input_new || partitions != partitions_new || collations != collations_new) {
+            // the window function bindings are the trailing output fields
+            PTypeField[] fields = rel.getType().getFields();
+            List<String> bindings = new ArrayList<>();
+            for (int i = input.getType().getDegree(); i < fields.length; i++) {
+                bindings.add(fields[i].getName());
+            }
+            RelWindow newOp = RelWindow.create(rel.getName(), input_new, bindings, rel.getWindowFunctions(), collations_new, partitions_new, rel.getFrame());
+            newOp.setType(rel.getType());
+            return newOp;
+        }
+        return rel;
+    }
+
     @Override
     public Operator visitUnpivot(@NotNull RelUnpivot rel, C ctx) {
         Rex rex = rel.getRex();
@@ -7,6 +7,7 @@ import org.partiql.plan.rel.RelDistinct;
 import org.partiql.plan.rel.RelExcept;
 import org.partiql.plan.rel.RelExclude;
 import org.partiql.plan.rel.RelFilter;
+import org.partiql.plan.rel.RelIndexScan;
 import org.partiql.plan.rel.RelIntersect;
 import org.partiql.plan.rel.RelIterate;
 import org.partiql.plan.rel.RelJoin;
@@ -100,6 +101,10 @@ public interface OperatorVisitor<R, C> {
         return defaultVisit(rel, ctx);
     }
 
+    default R visitIndexScan(@NotNull RelIndexScan rel, C ctx) {
+        return defaultVisit(rel, ctx);
+    }
+
     default R visitIntersect(@NotNull RelIntersect rel, C ctx) {
         return defaultVisit(rel, ctx);
     }
@@ -0,0 +1,195 @@
+package org.partiql.plan;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.partiql.plan.rex.Rex;
+import org.partiql.spi.Enum;
+import org.partiql.spi.UnsupportedCodeException;
+
+/**
+ * Represents the frame of a window, which is the set of rows of the current row's partition that an aggregate window
+ * function is computed over.
+ * @see org.partiql.plan.rel.RelWindow#getFrame()
+ * @deprecated This feature is experimental and is subject to change.
+ */
+@Deprecated
+public final class WindowFrame {
+
+    private final Units units;
+    private final Bound start;
+    private final Bound end;
+
+    /**
+     * Constructs a new {@link WindowFrame}.
+     * @param units the units of the frame's bounds
+     * @param start the start of the frame
+     * @param end the end of the frame
+     */
+    public WindowFrame(@NotNull Units units, @NotNull Bound start, @NotNull Bound end) {
+        this.units = units;
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * Returns the units of the frame's bounds.
+     * @return ROWS or RANGE
+     */
+    @NotNull
+    public Units getUnits() {
+        return this.units;
+    }
+
+    /**
+     * Returns the start of the frame.
+     * @return the start of the frame
+     */
+    @NotNull
+    public Bound getStart() {
+        return this.start;
+    }
+
+    /**
+     * Returns the end of the frame.
+     * @return the end of the frame
+     */
+    @NotNull
+    public Bound getEnd() {
+        return this.end;
+    }
+
+    /**
+     * Window frame units.
+     */
+    public static final class Units extends Enum {
+
+        private Units(int code) {
+            super(code);
+        }
+
+        public static final int ROWS = 0;
+        public static final int RANGE = 1;
+
+        @NotNull
+        public static Units ROWS() {
+            return new Units(ROWS);
+        }
+
+        @NotNull
+        public static Units RANGE() {
+            return new Units(RANGE);
+        }
+
+        @NotNull
+        @Override
+        public String name() throws UnsupportedCodeException {
+            int code = code();
+            switch (code) {
+                case ROWS:
+                    return "ROWS";
+                case RANGE:
+                    return "RANGE";
+                default:
+                    throw new UnsupportedCodeException(code);
+            }
+        }
+    }
+
+    /**
+     * A bound of a window frame.
+     */
+    public static final class Bound {
+
+        private final Type type;
+        private final Rex offset;
+
+        /**
+         * Constructs a new {@link Bound}.
+         * @param type the type of the bound
+         * @param offset the offset of a PRECEDING or FOLLOWING bound; null otherwise
+         */
+        public Bound(@NotNull Type type, @Nullable Rex offset) {
+            this.type = type;
+            this.offset = offset;
+        }
+
+        /**
+         * Returns the type of the bound.
+         * @return the type of the bound
+         */
+        @NotNull
+        public Type getType() {
+            return this.type;
+        }
+
+        /**
+         * Returns the offset of a PRECEDING or FOLLOWING bound.
+         * @return the offset of the bound; null for UNBOUNDED PRECEDING, CURRENT ROW, and UNBOUNDED FOLLOWING
+         */
+        @Nullable
+        public Rex getOffset() {
+            return this.offset;
+        }
+
+        /**
+         * Window frame bound type.
+         */
+        public static final class Type extends Enum {
+
+            private Type(int code) {
+                super(code);
+            }
+
+            public static final int UNBOUNDED_PRECEDING = 0;
+            public static final int PRECEDING = 1;
+            public static final int CURRENT_ROW = 2;
+            public static final int FOLLOWING = 3;
+            public static final int UNBOUNDED_FOLLOWING = 4;
+
+            @NotNull
+            public static Type UNBOUNDED_PRECEDING() {
+                return new Type(UNBOUNDED_PRECEDING);
+            }
+
+            @NotNull
+            public static Type PRECEDING() {
+                return new Type(PRECEDING);
+            }
+
+            @NotNull
+            public static Type CURRENT_ROW() {
+                return new Type(CURRENT_ROW);
+            }
+
+            @NotNull
+            public static Type FOLLOWING() {
+                return new Type(FOLLOWING);
+            }
+
+            @NotNull
+            public static Type UNBOUNDED_FOLLOWING() {
+                return new Type(UNBOUNDED_FOLLOWING);
+            }
+
+            @NotNull
+            @Override
+            public String name() throws UnsupportedCodeException {
+                int code = code();
+                switch (code) {
+                    case UNBOUNDED_PRECEDING:
+                        return "UNBOUNDED_PRECEDING";
+                    case PRECEDING:
+                        return "PRECEDING";
+                    case CURRENT_ROW:
+                        return "CURRENT_ROW";
+                    case FOLLOWING:
+                        return "FOLLOWING";
+                    case UNBOUNDED_FOLLOWING:
+                        return "UNBOUNDED_FOLLOWING";
+                    default:
+                        throw new UnsupportedCodeException(code);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package org.partiql.plan.rel;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.partiql.plan.Operand;
+import org.partiql.plan.OperatorVisitor;
+import org.partiql.plan.rex.Rex;
+import org.partiql.spi.catalog.Index;
+import org.partiql.spi.catalog.Projection;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Logical index lookup abstract base class; a scan of the records of a table which are returned by one of the
+ * table's {@link Index}es, either for a key (equality) or for a pair of bounds (range).
+ * <p>
+ * An index lookup may return a superset of the matching records, so it is always planned beneath a filter with the
+ * original predicate. The key and bounds are evaluated like the rex of a {@link RelScan}, with an empty row in scope;
+ * within the right-hand side of a {@link RelCorrelate}, they may reference the left-hand row (index nested-loop join).
+ */
+public abstract class RelIndexScan extends RelBase {
+
+    /**
+     * Creates a new {@link RelIndexScan} instance for an equality lookup.
+     *
+     * @param rex the table (operand 0)
+     * @param index the name of the table's index
+     * @param key the lookup key (operand 1)
+     * @param projection fields of each record referenced by the query, or null if all fields are required
+     * @return new {@link RelIndexScan} instance
+     */
+    @NotNull
+    public static RelIndexScan create(@NotNull Rex rex, @NotNull String index, @NotNull Rex key, @Nullable Projection projection) {
+        return new Impl(rex, index, key, null, false, null, false, projection);
+    }
+
+    /**
+     * Creates a new {@link RelIndexScan} instance for a range lookup; at least one bound must be given.
+     *
+     * @param rex the table (operand 0)
+     * @param index the name of the table's index
+     * @param lower the lower bound, or null if unbounded
+     * @param lowerInclusive true if the lower bound is inclusive
+     * @param upper the upper bound, or null if unbounded
+     * @param upperInclusive true if the upper bound is inclusive
+     * @param projection fields of each record referenced by the query, or null if all fields are required
+     * @return new {@link RelIndexScan} instance
+     */
+    @NotNull
+    public static RelIndexScan create(@NotNull Rex rex, @NotNull String index, @Nullable Rex lower, boolean lowerInclusive, @Nullable Rex upper, boolean upperInclusive, @Nullable Projection projection) {
+        if (lower == null && upper == null) {
+            throw new IllegalArgumentException("An index range lookup requires at least one bound");
+        }
+        return new Impl(rex, index, null, lower, lowerInclusive, upper, upperInclusive, projection);
+    }
+
+    /**
+     * Gets the table rex (operand 0).
+     * @return the table rex (operand 0)
+     */
+    @NotNull
+    public abstract Rex getRex();
+
+    /**
+     * @return the name of the index within the table's {@link org.partiql.spi.catalog.Table#getIndexes()}.
+     */
+    @NotNull
+    public abstract String getIndex();
+
+    /**
+     * @return the key of an equality lookup, or null if this is a range lookup.
+     */
+    @Nullable
+    public abstract Rex getKey();
+
+    /**
+     * @return the lower bound of a range lookup, or null if unbounded or if this is an equality lookup.
+     */
+    @Nullable
+    public abstract Rex getLower();
+
+    /**
+     * @return true if the lower bound is inclusive.
+     */
+    public abstract boolean isLowerInclusive();
+
+    /**
+     * @return the upper bound of a range lookup, or null if unbounded or if this is an equality lookup.
+     */
+    @Nullable
+    public abstract Rex getUpper();
+
+    /**
+     * @return true if the upper bound is inclusive.
+     */
+    public abstract boolean isUpperInclusive();
+
+    /**
+     * Gets the fields of each record which are referenced by the query; computed by the planner's projection pruning.
+     * @return the required fields, or null if all fields are required
+     */
+    @Nullable
+    public abstract Projection getProjection();
+
+    @NotNull
+    @Override
+    protected final RelType type() {
+        throw new UnsupportedOperationException("Derive type is not implemented");
+    }
+
+    @NotNull
+    @Override
+    protected final List<Operand> operands() {
+        List<Operand> operands = new ArrayList<>();
+        operands.add(Operand.single(getRex()));
+        Rex key = getKey();
+        if (key != null) {
+            operands.add(Operand.single(key));
+        }
+        Rex lower = getLower();
+        if (lower != null) {
+            operands.add(Operand.single(lower));
+        }
+        Rex upper = getUpper();
+        if (upper != null) {
+            operands.add(Operand.single(upper));
+        }
+        return operands;
+    }
+
+    @Override
+    public <R, C> R accept(@NotNull OperatorVisitor<R, C> visitor, C ctx) {
+        return visitor.visitIndexScan(this, ctx);
+    }
+
+    /**
+     * Copies this lookup with new expressions; a null key or bound must remain null.
+     *
+     * @param rex the table
+     * @param key the lookup key, or null for a range lookup
+     * @param lower the lower bound, or null
+     * @param upper the upper bound, or null
+     * @return new {@link RelIndexScan} instance
+     */
+    @NotNull
+    public abstract RelIndexScan copy(@NotNull Rex rex, @Nullable Rex key, @Nullable Rex lower, @Nullable Rex upper);
+
+    private static class Impl extends RelIndexScan {
+
+        private final Rex rex;
+        private final String index;
+        private final Rex key;
+        private final Rex lower;
+        private final boolean lowerInclusive;
+        private final Rex upper;
+        private final boolean upperInclusive;
+        private final Projection projection;
+
+        private Impl(Rex rex, String index, Rex key, Rex lower, boolean lowerInclusive, Rex upper, boolean upperInclusive, Projection projection) {
+            this.rex = rex;
+            this.index = index;
+            this.key = key;
+            this.lower = lower;
+            this.lowerInclusive = lowerInclusive;
+            this.upper = upper;
+            this.upperInclusive = upperInclusive;
+            this.projection = projection;
+        }
+
+        @NotNull
+        @Override
+        public Rex getRex() {
+            return rex;
+        }
+
+        @NotNull
+        @Override
+        public String getIndex() {
+            return index;
+        }
+
+        @Nullable
+        @Override
+        public Rex getKey() {
+            return key;
+        }
+
+        @Nullable
+        @Override
+        public Rex getLower() {
+            return lower;
+        }
+
+        @Override
+        public boolean isLowerInclusive() {
+            return lowerInclusive;
+        }
+
+        @Nullable
+        @Override
+        public Rex getUpper() {
+            return upper;
+        }
+
+        @Override
+        public boolean isUpperInclusive() {
+            return upperInclusive;
+        }
+
+        @Nullable
+        @Override
+        public Projection getProjection() {
+            return projection;
+        }
+
+        @NotNull
+        @Override
+        public RelIndexScan copy(@NotNull Rex rex, @Nullable Rex key, @Nullable Rex lower, @Nullable Rex upper) {
+            return new Impl(rex, index, key, lower, lowerInclusive, upper, upperInclusive, projection);
+        }
+    }
+}
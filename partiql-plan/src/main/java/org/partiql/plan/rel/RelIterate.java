@@ -1,9 +1,11 @@
 package org.partiql.plan.rel;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.partiql.plan.Operand;
 import org.partiql.plan.OperatorVisitor;
 import org.partiql.plan.rex.Rex;
+import org.partiql.spi.catalog.Projection;
 
 import java.util.List;
 
@@ -20,7 +22,19 @@ public abstract class RelIterate extends RelBase {
      */
     @NotNull
     public static RelIterate create(@NotNull Rex rex) {
-        return new Impl(rex);
+        return new Impl(rex, null);
+    }
+
+    /**
+     * Creates a new {@link RelIterate} instance which only requires the given fields of each record.
+     *
+     * @param rex input rex (operand 0)
+     * @param projection fields of each record referenced by the query, or null if all fields are required
+     * @return new {@link RelIterate} instance
+     */
+    @NotNull
+    public static RelIterate create(@NotNull Rex rex, @Nullable Projection projection) {
+        return new Impl(rex, projection);
     }
 
     /**
@@ -30,6 +44,15 @@ public abstract class RelIterate extends RelBase {
     @NotNull
     public abstract Rex getRex();
 
+    /**
+     * Gets the fields of each record which are referenced by the query; computed by the planner's projection pruning.
+     * @return the required fields, or null if all fields are required
+     */
+    @Nullable
+    public Projection getProjection() {
+        return null;
+    }
+
     @NotNull
     @Override
     protected final RelType type() {
@@ -54,9 +77,11 @@ public abstract class RelIterate extends RelBase {
     private static class Impl extends RelIterate {
 
         private final Rex rex;
+        private final Projection projection;
 
-        private Impl(Rex rex) {
+        private Impl(Rex rex, Projection projection) {
             this.rex = rex;
+            this.projection = projection;
         }
 
         @NotNull
@@ -65,10 +90,16 @@ public abstract class RelIterate extends RelBase {
             return rex;
         }
 
+        @Nullable
+        @Override
+        public Projection getProjection() {
+            return projection;
+        }
+
         @NotNull
         @Override
         public RelIterate copy(@NotNull Rex rex) {
-            return new Impl(rex);
+            return new Impl(rex, projection);
         }
     }
 }
@@ -1,9 +1,11 @@
 package org.partiql.plan.rel;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.partiql.plan.Operand;
 import org.partiql.plan.OperatorVisitor;
 import org.partiql.plan.rex.Rex;
+import org.partiql.spi.catalog.Projection;
 
 import java.util.List;
 
@@ -19,7 +21,19 @@ public abstract class RelScan extends RelBase {
      */
     @NotNull
     public static RelScan create(@NotNull Rex rex) {
-        return new Impl(rex);
+        return new Impl(rex, null);
+    }
+
+    /**
+     * Creates a new {@link RelScan} instance which only requires the given fields of each record.
+     *
+     * @param rex input rex (operand 0)
+     * @param projection fields of each record referenced by the query, or null if all fields are required
+     * @return new {@link RelScan} instance
+     */
+    @NotNull
+    public static RelScan create(@NotNull Rex rex, @Nullable Projection projection) {
+        return new Impl(rex, projection);
     }
 
     /**
@@ -29,6 +43,15 @@ public abstract class RelScan extends RelBase {
     @NotNull
     public abstract Rex getRex();
 
+    /**
+     * Gets the fields of each record which are referenced by the query; computed by the planner's projection pruning.
+     * @return the required fields, or null if all fields are required
+     */
+    @Nullable
+    public Projection getProjection() {
+        return null;
+    }
+
     @NotNull
     @Override
     protected final RelType type() {
@@ -53,9 +76,11 @@ public abstract class RelScan extends RelBase {
     private static class Impl extends RelScan {
 
         private final Rex rex;
+        private final Projection projection;
 
-        private Impl(Rex rex) {
+        private Impl(Rex rex, Projection projection) {
             this.rex = rex;
+            this.projection = projection;
         }
 
         @NotNull
@@ -64,10 +89,16 @@ public abstract class RelScan extends RelBase {
             return rex;
         }
 
+        @Nullable
+        @Override
+        public Projection getProjection() {
+            return projection;
+        }
+
         @NotNull
         @Override
         public RelScan copy(@NotNull Rex rex) {
-            return new Impl(rex);
+            return new Impl(rex, projection);
         }
     }
 }
@@ -1,9 +1,11 @@
 package org.partiql.plan.rel;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.partiql.plan.Collation;
 import org.partiql.plan.Operand;
 import org.partiql.plan.OperatorVisitor;
+import org.partiql.plan.WindowFrame;
 import org.partiql.plan.WindowFunctionNode;
 import org.partiql.plan.rex.Rex;
 import org.partiql.spi.types.PType;
@@ -46,7 +48,30 @@ public abstract class RelWindow extends RelBase {
             @NotNull List<Collation> collations,
             @NotNull List<Rex> partitions
     ) {
-        return new Impl(name, input, windowFunctionBindings, windowFunctions, collations, partitions);
+        return new Impl(name, input, windowFunctionBindings, windowFunctions, collations, partitions, null);
+    }
+
+    /**
+     * Creates a new {@link RelWindow} instance.
+     *
+     * @param input the input
+     * @param windowFunctions the window functions to apply
+     * @param collations the collations to sort by
+     * @param partitions the partitions to partition by
+     * @param frame the frame of the aggregate window functions; null for the default frame
+     * @return new {@link RelWindow} instance
+     */
+    @NotNull
+    public static RelWindow create(
+            String name,
+            @NotNull Rel input,
+            @NotNull List<String> windowFunctionBindings,
+            @NotNull List<WindowFunctionNode> windowFunctions,
+            @NotNull List<Collation> collations,
+            @NotNull List<Rex> partitions,
+            @Nullable WindowFrame frame
+    ) {
+        return new Impl(name, input, windowFunctionBindings, windowFunctions, collations, partitions, frame);
     }
 
     /**
@@ -83,6 +108,14 @@ public abstract class RelWindow extends RelBase {
     @NotNull
     public abstract List<Rex> getPartitions();
 
+    /**
+     * Returns the frame of the aggregate window functions. If null, the frame is the default frame: from the start of
+     * the partition to the last peer of the current row when there are collations, and the whole partition otherwise.
+     * @return the frame of the aggregate window functions
+     */
+    @Nullable
+    public abstract WindowFrame getFrame();
+
     @NotNull
     @Override
     protected final List<Operand> operands() {
@@ -104,14 +137,16 @@ public abstract class RelWindow extends RelBase {
         private final List<String> windowFunctionBindings;
         private final List<WindowFunctionNode> windowFunctions;
         private final List<Rex> partitions;
+        private final WindowFrame frame;
 
-        private Impl(String name, Rel input, List<String> windowFunctionBindings, List<WindowFunctionNode> windowFunctions, List<Collation> collations, List<Rex> partitions) {
+        private Impl(String name, Rel input, List<String> windowFunctionBindings, List<WindowFunctionNode> windowFunctions, List<Collation> collations, List<Rex> partitions, WindowFrame frame) {
             this.name  = name;
             this.input = input;
             this.collations = collations;
             this.windowFunctionBindings = windowFunctionBindings;
             this.windowFunctions = windowFunctions;
             this.partitions = partitions;
+            this.frame = frame;
         }
 
         @Override
@@ -141,6 +176,12 @@ public abstract class RelWindow extends RelBase {
             return partitions;
         }
 
+        @Nullable
+        @Override
+        public WindowFrame getFrame() {
+            return frame;
+        }
+
         @NotNull
         @Override
         protected final RelType type() {
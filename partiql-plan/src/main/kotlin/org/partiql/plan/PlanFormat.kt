@@ -0,0 +1,403 @@
+package org.partiql.plan
+
+import org.partiql.spi.types.IntervalCode
+import org.partiql.spi.types.PType
+import org.partiql.spi.types.PTypeField
+import org.partiql.spi.value.Datum
+import org.partiql.spi.value.Entry
+import org.partiql.spi.value.Field
+import java.io.DataInput
+import java.io.DataOutput
+import java.math.BigDecimal
+import java.math.BigInteger
+import java.time.LocalDate
+import java.time.LocalDateTime
+import java.time.LocalTime
+import java.time.OffsetDateTime
+import java.time.OffsetTime
+import java.time.ZoneOffset
+
+/**
+ * The binary format of a [Plan], which is written by [PlanWriter] and read by [PlanReader].
+ *
+ * A plan is written as a header, i.e. the [MAGIC] number, the [FORMAT] version, and the plan's [Version], followed by
+ * its action. Each operator is written as its tag, its type, then its fields in the order of its factory's parameters;
+ * lists are written with their size, and nullable fields with a leading boolean. Functions and aggregations are written
+ * by their names and signatures, and tables by their names, so they are bound again when the plan is read. Types are
+ * written with their parameters, and literals with their types.
+ *
+ * Any change to the encoding of an existing operator increments the [FORMAT], as a reader rejects other versions.
+ */
+internal object PlanFormat {
+
+    // "PQLP"
+    const val MAGIC = 0x50514C50
+    const val FORMAT = 1
+
+    // ACTIONS
+
+    const val QUERY = 0
+
+    // REL OPERATORS
+
+    const val REL_AGGREGATE = 1
+    const val REL_CORRELATE = 2
+    const val REL_DISTINCT = 3
+    const val REL_EXCEPT = 4
+    const val REL_EXCLUDE = 5
+    const val REL_FILTER = 6
+    const val REL_INDEX_SCAN = 7
+    const val REL_INTERSECT = 8
+    const val REL_ITERATE = 9
+    const val REL_JOIN = 10
+    const val REL_LIMIT = 11
+    const val REL_OFFSET = 12
+    const val REL_PROJECT = 13
+    const val REL_SCAN = 14
+    const val REL_SORT = 15
+    const val REL_UNION = 16
+    const val REL_UNPIVOT = 17
+    const val REL_WINDOW = 18
+    const val REL_WITH = 19
+
+    // REX OPERATORS
+
+    const val REX_ARRAY = 1
+    const val REX_BAG = 2
+    const val REX_CALL = 3
+    const val REX_CASE = 4
+    const val REX_CAST = 5
+    const val REX_COALESCE = 6
+    const val REX_DISPATCH = 7
+    const val REX_ERROR = 8
+    const val REX_LIT = 9
+    const val REX_MAP = 10
+    const val REX_MAP_DYNAMIC = 11
+    const val REX_NULL_IF = 12
+    const val REX_PATH_INDEX = 13
+    const val REX_PATH_KEY = 14
+    const val REX_PATH_SYMBOL = 15
+    const val REX_PIVOT = 16
+    const val REX_SELECT = 17
+    const val REX_SPREAD = 18
+    const val REX_STRUCT = 19
+    const val REX_SUBQUERY = 20
+    const val REX_SUBQUERY_COMP = 21
+    const val REX_SUBQUERY_IN = 22
+    const val REX_SUBQUERY_TEST = 23
+    const val REX_TABLE = 24
+    const val REX_TABLE_REF = 25
+    const val REX_VAR = 26
+
+    // EXCLUSION ITEMS
+
+    const val EXCLUDE_COLL_INDEX = 0
+    const val EXCLUDE_COLL_WILDCARD = 1
+    const val EXCLUDE_STRUCT_KEY = 2
+    const val EXCLUDE_STRUCT_SYMBOL = 3
+    const val EXCLUDE_STRUCT_WILDCARD = 4
+
+    // DATUMS
+
+    private const val VALUE = 0
+    private const val NULL = 1
+    private const val MISSING = 2
+
+    /**
+     * @param metas whether the type's metas are written, as they are for the types of operators but not of literals.
+     */
+    fun writeType(output: DataOutput, type: PType, metas: Boolean = true) {
+        val code = type.code()
+        output.writeByte(code)
+        when (code) {
+            PType.NUMERIC, PType.DECIMAL -> {
+                output.writeInt(type.precision)
+                output.writeInt(type.scale)
+            }
+            PType.CHAR, PType.VARCHAR, PType.CLOB, PType.BLOB -> output.writeInt(type.length)
+            PType.TIME, PType.TIMEZ, PType.TIMESTAMP, PType.TIMESTAMPZ -> output.writeInt(type.precision)
+            PType.ARRAY, PType.BAG -> writeType(output, type.typeParameter, metas)
+            PType.ROW -> {
+                val fields = type.fields
+                output.writeInt(fields.size)
+                for (field in fields) {
+                    writeString(output, field.name)
+                    writeType(output, field.type, metas)
+                }
+            }
+            PType.MAP -> {
+                writeType(output, type.keyType, metas)
+                writeType(output, type.valueType, metas)
+            }
+            PType.INTERVAL_YM -> {
+                output.writeByte(type.intervalCode)
+                output.writeInt(type.precision)
+            }
+            PType.INTERVAL_DT -> {
+                output.writeByte(type.intervalCode)
+                output.writeInt(type.precision)
+                output.writeInt(type.fractionalPrecision)
+            }
+        }
+        if (!metas) {
+            return
+        }
+        // e.g. whether the length of a CAST's target was specified
+        val flags = type.metas.filterValues { it is Boolean }
+        output.writeInt(flags.size)
+        for ((key, value) in flags) {
+            writeString(output, key)
+            output.writeBoolean(value as Boolean)
+        }
+    }
+
+    fun readType(input: DataInput, metas: Boolean = true): PType {
+        val type = when (val code = input.readByte().toInt()) {
+            PType.NUMERIC -> PType.numeric(input.readInt(), input.readInt())
+            PType.DECIMAL -> PType.decimal(input.readInt(), input.readInt())
+            PType.CHAR -> PType.character(input.readInt())
+            PType.VARCHAR -> PType.varchar(input.readInt())
+            PType.CLOB -> PType.clob(input.readInt())
+            PType.BLOB -> PType.blob(input.readInt())
+            PType.TIME -> PType.time(input.readInt())
+            PType.TIMEZ -> PType.timez(input.readInt())
+            PType.TIMESTAMP -> PType.timestamp(input.readInt())
+            PType.TIMESTAMPZ -> PType.timestampz(input.readInt())
+            PType.ARRAY -> PType.array(readType(input, metas))
+            PType.BAG -> PType.bag(readType(input, metas))
+            PType.ROW -> {
+                val size = input.readInt()
+                PType.row(List(size) { PTypeField.of(readString(input), readType(input, metas)) })
+            }
+            PType.MAP -> PType.map(readType(input, metas), readType(input, metas))
+            PType.INTERVAL_YM -> {
+                val interval = input.readByte().toInt()
+                val precision = input.readInt()
+                when (interval) {
+                    IntervalCode.YEAR -> PType.intervalYear(precision)
+                    IntervalCode.MONTH -> PType.intervalMonth(precision)
+                    else -> PType.intervalYearMonth(precision)
+                }
+            }
+            PType.INTERVAL_DT -> {
+                val interval = input.readByte().toInt()
+                val precision = input.readInt()
+                val fractional = input.readInt()
+                when (interval) {
+                    IntervalCode.DAY -> PType.intervalDay(precision)
+                    IntervalCode.HOUR -> PType.intervalHour(precision)
+                    IntervalCode.MINUTE -> PType.intervalMinute(precision)
+                    IntervalCode.SECOND -> PType.intervalSecond(precision, fractional)
+                    IntervalCode.DAY_HOUR -> PType.intervalDayHour(precision)
+                    IntervalCode.DAY_MINUTE -> PType.intervalDayMinute(precision)
+                    IntervalCode.DAY_SECOND -> PType.intervalDaySecond(precision, fractional)
+                    IntervalCode.HOUR_MINUTE -> PType.intervalHourMinute(precision)
+                    IntervalCode.HOUR_SECOND -> PType.intervalHourSecond(precision, fractional)
+                    else -> PType.intervalMinuteSecond(precision, fractional)
+                }
+            }
+            else -> PType.of(code)
+        }
+        if (!metas) {
+            return type
+        }
+        type.metas.clear()
+        repeat(input.readInt()) {
+            type.metas[readString(input)] = input.readBoolean()
+        }
+        return type
+    }
+
+    fun writeDatum(output: DataOutput, datum: Datum) {
+        val type = datum.type
+        when {
+            datum.isMissing -> output.writeByte(MISSING)
+            datum.isNull -> output.writeByte(NULL)
+            else -> output.writeByte(VALUE)
+        }
+        writeType(output, type, metas = false)
+        if (!datum.isNull && !datum.isMissing) {
+            writeValue(output, datum, type)
+        }
+    }
+
+    fun readDatum(input: DataInput): Datum {
+        val tag = input.readByte().toInt()
+        val type = readType(input, metas = false)
+        return when (tag) {
+            MISSING -> Datum.missing(type)
+            NULL -> Datum.nullValue(type)
+            else -> readValue(input, type)
+        }
+    }
+
+    fun writeString(output: DataOutput, value: String) = writeBytes(output, value.toByteArray(Charsets.UTF_8))
+
+    fun readString(input: DataInput): String = String(readBytes(input), Charsets.UTF_8)
+
+    private fun writeValue(output: DataOutput, datum: Datum, type: PType) {
+        when (type.code()) {
+            PType.BOOL -> output.writeBoolean(datum.boolean)
+            PType.TINYINT -> output.writeByte(datum.byte.toInt())
+            PType.SMALLINT -> output.writeShort(datum.short.toInt())
+            PType.INTEGER -> output.writeInt(datum.int)
+            PType.BIGINT -> output.writeLong(datum.long)
+            PType.NUMERIC, PType.DECIMAL -> {
+                val value = datum.bigDecimal
+                writeBytes(output, value.unscaledValue().toByteArray())
+                output.writeInt(value.scale())
+            }
+            PType.REAL -> output.writeFloat(datum.float)
+            PType.DOUBLE -> output.writeDouble(datum.double)
+            PType.CHAR, PType.VARCHAR, PType.STRING -> writeString(output, datum.string)
+            PType.CLOB, PType.BLOB -> writeBytes(output, datum.bytes)
+            PType.DATE -> output.writeLong(datum.localDate.toEpochDay())
+            PType.TIME -> output.writeLong(datum.localTime.toNanoOfDay())
+            PType.TIMEZ -> {
+                val value = datum.offsetTime
+                output.writeLong(value.toLocalTime().toNanoOfDay())
+                output.writeInt(value.offset.totalSeconds)
+            }
+            PType.TIMESTAMP -> writeDateTime(output, datum.localDateTime)
+            PType.TIMESTAMPZ -> {
+                val value = datum.offsetDateTime
+                writeDateTime(output, value.toLocalDateTime())
+                output.writeInt(value.offset.totalSeconds)
+            }
+            PType.ARRAY, PType.BAG -> {
+                val elements = datum.toList()
+                output.writeInt(elements.size)
+                for (element in elements) {
+                    writeDatum(output, element)
+                }
+            }
+            PType.STRUCT, PType.ROW -> {
+                val fields = datum.fields.asSequence().toList()
+                output.writeInt(fields.size)
+                for (field in fields) {
+                    writeString(output, field.name)
+                    writeDatum(output, field.value)
+                }
+            }
+            PType.MAP -> {
+                val entries = datum.entries.asSequence().toList()
+                output.writeInt(entries.size)
+                for (entry in entries) {
+                    writeDatum(output, entry.key)
+                    writeDatum(output, entry.value)
+                }
+            }
+            PType.INTERVAL_YM -> {
+                output.writeInt(datum.years)
+                output.writeInt(datum.months)
+            }
+            PType.INTERVAL_DT -> {
+                output.writeInt(datum.days)
+                output.writeInt(datum.hours)
+                output.writeInt(datum.minutes)
+                output.writeInt(datum.seconds)
+                output.writeInt(datum.nanos)
+            }
+            PType.VARIANT -> writeBytes(output, datum.pack(Charsets.UTF_8))
+            else -> throw IllegalArgumentException("Cannot write a literal of type $type")
+        }
+    }
+
+    private fun readValue(input: DataInput, type: PType): Datum {
+        return when (type.code()) {
+            PType.BOOL -> Datum.bool(input.readBoolean())
+            PType.TINYINT -> Datum.tinyint(input.readByte())
+            PType.SMALLINT -> Datum.smallint(input.readShort())
+            PType.INTEGER -> Datum.integer(input.readInt())
+            PType.BIGINT -> Datum.bigint(input.readLong())
+            PType.NUMERIC -> Datum.numeric(readDecimal(input), type.precision, type.scale)
+            PType.DECIMAL -> Datum.decimal(readDecimal(input), type.precision, type.scale)
+            PType.REAL -> Datum.real(input.readFloat())
+            PType.DOUBLE -> Datum.doublePrecision(input.readDouble())
+            PType.CHAR -> Datum.character(readString(input), type.length)
+            PType.VARCHAR -> Datum.varchar(readString(input), type.length)
+            PType.STRING -> Datum.string(readString(input))
+            PType.CLOB -> Datum.clob(readBytes(input), type.length)
+            PType.BLOB -> Datum.blob(readBytes(input), type.length)
+            PType.DATE -> Datum.date(LocalDate.ofEpochDay(input.readLong()))
+            PType.TIME -> Datum.time(LocalTime.ofNanoOfDay(input.readLong()), type.precision)
+            PType.TIMEZ -> {
+                val time = LocalTime.ofNanoOfDay(input.readLong())
+                Datum.timez(OffsetTime.of(time, ZoneOffset.ofTotalSeconds(input.readInt())), type.precision)
+            }
+            PType.TIMESTAMP -> Datum.timestamp(readDateTime(input), type.precision)
+            PType.TIMESTAMPZ -> {
+                val dateTime = readDateTime(input)
+                Datum.timestampz(OffsetDateTime.of(dateTime, ZoneOffset.ofTotalSeconds(input.readInt())), type.precision)
+            }
+            PType.ARRAY -> Datum.array(List(input.readInt()) { readDatum(input) })
+            PType.BAG -> Datum.bag(List(input.readInt()) { readDatum(input) })
+            PType.STRUCT -> Datum.struct(List(input.readInt()) { Field.of(readString(input), readDatum(input)) })
+            PType.ROW -> Datum.row(type.fields.toList(), List(input.readInt()) { Field.of(readString(input), readDatum(input)) })
+            PType.MAP -> Datum.map(type.keyType, type.valueType, List(input.readInt()) { Entry.of(readDatum(input), readDatum(input)) })
+            PType.INTERVAL_YM -> {
+                val years = input.readInt()
+                val months = input.readInt()
+                when (type.intervalCode) {
+                    IntervalCode.YEAR -> Datum.intervalYear(years, type.precision)
+                    IntervalCode.MONTH -> Datum.intervalMonth(years * 12 + months, type.precision)
+                    else -> Datum.intervalYearMonth(years, months, type.precision)
+                }
+            }
+            PType.INTERVAL_DT -> readIntervalDayTime(input, type)
+            PType.VARIANT -> Datum.ion(String(readBytes(input), Charsets.UTF_8))
+            else -> throw IllegalArgumentException("Cannot read a literal of type $type")
+        }
+    }
+
+    private fun readIntervalDayTime(input: DataInput, type: PType): Datum {
+        val days = input.readInt()
+        val hours = input.readInt()
+        val minutes = input.readInt()
+        val seconds = input.readInt()
+        val nanos = input.readInt()
+        val p = type.precision
+        val f = type.fractionalPrecision
+        // a datum normalizes its fields, so the leading field of its type is the total of the larger fields
+        val totalHours = days * 24 + hours
+        val totalMinutes = totalHours * 60 + minutes
+        return when (type.intervalCode) {
+            IntervalCode.DAY -> Datum.intervalDay(days, p)
+            IntervalCode.HOUR -> Datum.intervalHour(totalHours, p)
+            IntervalCode.MINUTE -> Datum.intervalMinute(totalMinutes, p)
+            IntervalCode.SECOND -> Datum.intervalSecond(totalMinutes * 60 + seconds, nanos, p, f)
+            IntervalCode.DAY_HOUR -> Datum.intervalDayHour(days, hours, p)
+            IntervalCode.DAY_MINUTE -> Datum.intervalDayMinute(days, hours, minutes, p)
+            IntervalCode.DAY_SECOND -> Datum.intervalDaySecond(days, hours, minutes, seconds, nanos, p, f)
+            IntervalCode.HOUR_MINUTE -> Datum.intervalHourMinute(totalHours, minutes, p)
+            IntervalCode.HOUR_SECOND -> Datum.intervalHourSecond(totalHours, minutes, seconds, nanos, p, f)
+            else -> Datum.intervalMinuteSecond(totalMinutes, seconds, nanos, p, f)
+        }
+    }
+
+    private fun writeDateTime(output: DataOutput, value: LocalDateTime) {
+        output.writeLong(value.toLocalDate().toEpochDay())
+        output.writeLong(value.toLocalTime().toNanoOfDay())
+    }
+
+    private fun readDateTime(input: DataInput): LocalDateTime {
+        val date = LocalDate.ofEpochDay(input.readLong())
+        return LocalDateTime.of(date, LocalTime.ofNanoOfDay(input.readLong()))
+    }
+
+    private fun readDecimal(input: DataInput): BigDecimal {
+        val unscaled = BigInteger(readBytes(input))
+        return BigDecimal(unscaled, input.readInt())
+    }
+
+    private fun writeBytes(output: DataOutput, value: ByteArray) {
+        output.writeInt(value.size)
+        output.write(value)
+    }
+
+    private fun readBytes(input: DataInput): ByteArray {
+        val bytes = ByteArray(input.readInt())
+        input.readFully(bytes)
+        return bytes
+    }
+}
@@ -0,0 +1,442 @@
+package org.partiql.plan
+
+import org.partiql.plan.PlanFormat.readDatum
+import org.partiql.plan.PlanFormat.readString
+import org.partiql.plan.PlanFormat.readType
+import org.partiql.plan.rel.Rel
+import org.partiql.plan.rel.RelAggregate
+import org.partiql.plan.rel.RelCorrelate
+import org.partiql.plan.rel.RelDistinct
+import org.partiql.plan.rel.RelExcept
+import org.partiql.plan.rel.RelExclude
+import org.partiql.plan.rel.RelFilter
+import org.partiql.plan.rel.RelIndexScan
+import org.partiql.plan.rel.RelIntersect
+import org.partiql.plan.rel.RelIterate
+import org.partiql.plan.rel.RelJoin
+import org.partiql.plan.rel.RelLimit
+import org.partiql.plan.rel.RelOffset
+import org.partiql.plan.rel.RelProject
+import org.partiql.plan.rel.RelScan
+import org.partiql.plan.rel.RelSort
+import org.partiql.plan.rel.RelType
+import org.partiql.plan.rel.RelUnion
+import org.partiql.plan.rel.RelUnpivot
+import org.partiql.plan.rel.RelWindow
+import org.partiql.plan.rel.RelWith
+import org.partiql.plan.rex.Rex
+import org.partiql.plan.rex.RexArray
+import org.partiql.plan.rex.RexBag
+import org.partiql.plan.rex.RexCall
+import org.partiql.plan.rex.RexCase
+import org.partiql.plan.rex.RexCast
+import org.partiql.plan.rex.RexCoalesce
+import org.partiql.plan.rex.RexDispatch
+import org.partiql.plan.rex.RexError
+import org.partiql.plan.rex.RexLit
+import org.partiql.plan.rex.RexMap
+import org.partiql.plan.rex.RexMapDynamic
+import org.partiql.plan.rex.RexNullIf
+import org.partiql.plan.rex.RexPathIndex
+import org.partiql.plan.rex.RexPathKey
+import org.partiql.plan.rex.RexPathSymbol
+import org.partiql.plan.rex.RexPivot
+import org.partiql.plan.rex.RexSelect
+import org.partiql.plan.rex.RexSpread
+import org.partiql.plan.rex.RexStruct
+import org.partiql.plan.rex.RexSubquery
+import org.partiql.plan.rex.RexSubqueryComp
+import org.partiql.plan.rex.RexSubqueryIn
+import org.partiql.plan.rex.RexSubqueryTest
+import org.partiql.plan.rex.RexTable
+import org.partiql.plan.rex.RexTableRef
+import org.partiql.plan.rex.RexType
+import org.partiql.plan.rex.RexVar
+import org.partiql.spi.catalog.Catalog
+import org.partiql.spi.catalog.Name
+import org.partiql.spi.catalog.Projection
+import org.partiql.spi.catalog.Session
+import org.partiql.spi.catalog.Table
+import org.partiql.spi.function.Agg
+import org.partiql.spi.function.Fn
+import org.partiql.spi.function.FnOverload
+import org.partiql.spi.function.RoutineSignature
+import org.partiql.spi.types.PType
+import org.partiql.spi.types.PTypeField
+import java.io.ByteArrayInputStream
+import java.io.DataInput
+import java.io.DataInputStream
+import java.io.InputStream
+
+/**
+ * Reads a [Plan] which was written by [PlanWriter], binding its functions, aggregations, and tables to the catalogs of
+ * a [Session].
+ *
+ * A function or an aggregation is bound to the first overload of the same name, in the catalogs of the session's path,
+ * whose instance for the plan's argument types has the same parameter and return types as the one which was written. A
+ * table is bound to the table of the same name in the session's current catalog, or else in the catalogs of its path.
+ * Tables referenced by identifiers ([RexTableRef]) are not bound, as they are resolved by the plan's [SymbolTable].
+ *
+ * The plan is rejected if it was written in another format version or for another plan [Version], or if any of its
+ * references cannot be bound; a plan written before the catalogs changed should then be planned again.
+ */
+public object PlanReader {
+
+    /**
+     * Reads a plan from the input; the input is not closed.
+     *
+     * @param input the input to read from.
+     * @param session the session whose catalogs the plan's functions, aggregations, and tables are bound to.
+     * @return the plan.
+     * @throws IllegalArgumentException if the input is not a plan of a supported version, or a reference of the plan
+     * cannot be bound.
+     */
+    @JvmStatic
+    public fun read(input: InputStream, session: Session): Plan {
+        return Reader(DataInputStream(input), session).plan()
+    }
+
+    /**
+     * @param bytes the bytes of the plan, as returned by [PlanWriter.toByteArray].
+     * @param session the session whose catalogs the plan's functions, aggregations, and tables are bound to.
+     * @return the plan.
+     * @throws IllegalArgumentException if the bytes are not a plan of a supported version, or a reference of the plan
+     * cannot be bound.
+     */
+    @JvmStatic
+    public fun fromByteArray(bytes: ByteArray, session: Session): Plan {
+        return read(ByteArrayInputStream(bytes), session)
+    }
+
+    private class Reader(private val input: DataInput, private val session: Session) {
+
+        /**
+         * The catalogs which references are bound to, in the order they are searched.
+         */
+        private val catalogs: List<Catalog> by lazy {
+            val names = listOf(session.getCatalog()) + session.getPath().mapNotNull { it.firstOrNull() }
+            names.distinct().mapNotNull { session.getCatalogs().getCatalog(it) }
+        }
+
+        fun plan(): Plan {
+            if (input.readInt() != PlanFormat.MAGIC) {
+                throw IllegalArgumentException("Input is not a serialized plan")
+            }
+            val format = input.readUnsignedShort()
+            if (format != PlanFormat.FORMAT) {
+                throw IllegalArgumentException("Unsupported plan format $format, expected ${PlanFormat.FORMAT}")
+            }
+            val version = input.readInt()
+            if (version != Version.V1) {
+                throw IllegalArgumentException("Unsupported plan version $version, expected ${Version.V1()}")
+            }
+            return when (val action = input.readUnsignedByte()) {
+                PlanFormat.QUERY -> {
+                    val rex = rex()
+                    val query = Action.Query { rex }
+                    Plan { query }
+                }
+                else -> throw IllegalArgumentException("Unknown plan action $action")
+            }
+        }
+
+        @Suppress("DEPRECATION")
+        fun rel(): Rel {
+            val tag = input.readUnsignedByte()
+            val type = relType()
+            val rel: Rel = when (tag) {
+                PlanFormat.REL_AGGREGATE -> {
+                    val relInput = rel()
+                    val measures = list {
+                        val signature = signature()
+                        val args = rexes()
+                        RelAggregate.measure(agg(signature, args), args, input.readBoolean())
+                    }
+                    RelAggregate.create(relInput, measures, rexes())
+                }
+                PlanFormat.REL_CORRELATE -> RelCorrelate.create(rel(), rel(), joinType())
+                PlanFormat.REL_DISTINCT -> RelDistinct.create(rel())
+                PlanFormat.REL_EXCEPT -> RelExcept.create(rel(), rel(), input.readBoolean())
+                PlanFormat.REL_EXCLUDE -> {
+                    val relInput = rel()
+                    val exclusions = list {
+                        val variable = rex() as? RexVar ?: throw IllegalArgumentException("Exclusion root is not a variable")
+                        Exclusion(variable, list { exclusion() })
+                    }
+                    RelExclude.create(relInput, exclusions)
+                }
+                PlanFormat.REL_FILTER -> RelFilter.create(rel(), rex())
+                PlanFormat.REL_INDEX_SCAN -> {
+                    val rex = rex()
+                    val index = readString(input)
+                    val key = optional { rex() }
+                    val lower = optional { rex() }
+                    val lowerInclusive = input.readBoolean()
+                    val upper = optional { rex() }
+                    val upperInclusive = input.readBoolean()
+                    val projection = optional { projection() }
+                    when (key) {
+                        null -> RelIndexScan.create(rex, index, lower, lowerInclusive, upper, upperInclusive, projection)
+                        else -> RelIndexScan.create(rex, index, key, projection)
+                    }
+                }
+                PlanFormat.REL_INTERSECT -> RelIntersect.create(rel(), rel(), input.readBoolean())
+                PlanFormat.REL_ITERATE -> RelIterate.create(rex(), optional { projection() })
+                PlanFormat.REL_JOIN -> RelJoin.create(rel(), rel(), rex(), joinType())
+                PlanFormat.REL_LIMIT -> RelLimit.create(rel(), rex())
+                PlanFormat.REL_OFFSET -> RelOffset.create(rel(), rex())
+                PlanFormat.REL_PROJECT -> RelProject.create(rel(), rexes())
+                PlanFormat.REL_SCAN -> RelScan.create(rex(), optional { projection() })
+                PlanFormat.REL_SORT -> RelSort.create(rel(), list { collation() })
+                PlanFormat.REL_UNION -> RelUnion.create(rel(), rel(), input.readBoolean())
+                PlanFormat.REL_UNPIVOT -> RelUnpivot.create(rex())
+                PlanFormat.REL_WINDOW -> {
+                    val name = optional { readString(input) }
+                    val relInput = rel()
+                    val functions = list {
+                        val signature = WindowFunctionSignature(readString(input), list { readType(input) }, readType(input), input.readBoolean())
+                        WindowFunctionNode(signature, rexes())
+                    }
+                    val collations = list { collation() }
+                    val partitions = rexes()
+                    val frame = optional { frame() }
+                    val bindings = type.fields.takeLast(functions.size).map { it.name }
+                    RelWindow.create(name, relInput, bindings, functions, collations, partitions, frame)
+                }
+                PlanFormat.REL_WITH -> RelWith.create(rel(), list { WithListElement(readString(input), rex()) })
+                else -> throw IllegalArgumentException("Unknown relational operator $tag")
+            }
+            rel.type = type
+            return rel
+        }
+
+        fun rex(): Rex {
+            val tag = input.readUnsignedByte()
+            val type = readType(input)
+            val rex: Rex = when (tag) {
+                PlanFormat.REX_ARRAY -> RexArray.create(rexes())
+                PlanFormat.REX_BAG -> RexBag.create(rexes())
+                PlanFormat.REX_CALL -> {
+                    val signature = signature()
+                    val args = rexes()
+                    RexCall.create(fn(signature, args), args)
+                }
+                PlanFormat.REX_CASE -> {
+                    val match = optional { rex() }
+                    val branches = list { RexCase.branch(rex(), rex()) }
+                    RexCase.create(match, branches, optional { rex() })
+                }
+                PlanFormat.REX_CAST -> RexCast.create(rex(), readType(input))
+                PlanFormat.REX_COALESCE -> RexCoalesce.create(rexes())
+                PlanFormat.REX_DISPATCH -> {
+                    val name = readString(input)
+                    val functions = list { overload(readString(input), list { readType(input) }) }
+                    RexDispatch.create(name, functions, rexes())
+                }
+                PlanFormat.REX_ERROR -> RexError.create()
+                PlanFormat.REX_LIT -> RexLit.create(readDatum(input))
+                PlanFormat.REX_MAP -> RexMap.create(readType(input), readType(input), list { RexMap.entry(rex(), rex()) })
+                PlanFormat.REX_MAP_DYNAMIC -> RexMapDynamic.create(list { RexMap.entry(rex(), rex()) })
+                PlanFormat.REX_NULL_IF -> RexNullIf.create(rex(), rex())
+                PlanFormat.REX_PATH_INDEX -> RexPathIndex.create(rex(), rex())
+                PlanFormat.REX_PATH_KEY -> RexPathKey.create(rex(), rex())
+                PlanFormat.REX_PATH_SYMBOL -> RexPathSymbol.create(rex(), readString(input))
+                PlanFormat.REX_PIVOT -> RexPivot.create(rel(), rex(), rex())
+                PlanFormat.REX_SELECT -> RexSelect.create(rel(), rex())
+                PlanFormat.REX_SPREAD -> RexSpread.create(rexes())
+                PlanFormat.REX_STRUCT -> RexStruct.create(list { RexStruct.field(rex(), rex()) })
+                PlanFormat.REX_SUBQUERY -> RexSubquery.create(rel(), rex(), input.readBoolean())
+                PlanFormat.REX_SUBQUERY_COMP -> {
+                    val rel = rel()
+                    val args = rexes()
+                    RexSubqueryComp.create(rel, args, comparison(), quantifier())
+                }
+                PlanFormat.REX_SUBQUERY_IN -> RexSubqueryIn.create(rel(), rexes())
+                PlanFormat.REX_SUBQUERY_TEST -> RexSubqueryTest.create(rel(), test())
+                PlanFormat.REX_TABLE -> RexTable.create(table(name()))
+                PlanFormat.REX_TABLE_REF -> RexTableRef.create(input.readInt(), input.readInt(), type)
+                PlanFormat.REX_VAR -> RexVar.create(input.readInt(), input.readInt(), type)
+                else -> throw IllegalArgumentException("Unknown scalar operator $tag")
+            }
+            rex.type = RexType.of(type)
+            return rex
+        }
+
+        private fun relType(): RelType {
+            val fields = list { PTypeField.of(readString(input), readType(input)) }
+            val properties = if (input.readBoolean()) RelType.ORDERED else 0
+            return RelType.of(fields.toTypedArray(), properties)
+        }
+
+        private fun rexes(): List<Rex> = list { rex() }
+
+        private fun signature(): Signature = Signature(readString(input), list { readType(input) }, readType(input))
+
+        /**
+         * @return the instance of a function overload whose signature is the given signature.
+         */
+        private fun fn(signature: Signature, args: List<Rex>): Fn {
+            for (catalog in catalogs) {
+                for (overload in catalog.getFunctions(session, signature.name)) {
+                    if (overload.signature.arity != signature.parameters.size) continue
+                    val instance = signature.instances(args) { overload.getInstance(it) }
+                        .firstOrNull { signature.matches(it.signature) }
+                    if (instance != null) return instance
+                }
+            }
+            throw IllegalArgumentException("Function $signature is not defined in the session's catalogs")
+        }
+
+        /**
+         * @return the instance of an aggregation overload whose signature is the given signature.
+         */
+        private fun agg(signature: Signature, args: List<Rex>): Agg {
+            for (catalog in catalogs) {
+                for (overload in catalog.getAggregations(session, signature.name)) {
+                    if (overload.signature.arity != signature.parameters.size) continue
+                    val instance = signature.instances(args) { overload.getInstance(it) }
+                        .firstOrNull { signature.matches(it.signature) }
+                    if (instance != null) return instance
+                }
+            }
+            throw IllegalArgumentException("Aggregation $signature is not defined in the session's catalogs")
+        }
+
+        /**
+         * @return the function overload with the given name and parameter types, for a dynamic dispatch.
+         */
+        private fun overload(name: String, parameters: List<PType>): FnOverload {
+            for (catalog in catalogs) {
+                val overload = catalog.getFunctions(session, name).firstOrNull { it.signature.parameterTypes == parameters }
+                if (overload != null) return overload
+            }
+            throw IllegalArgumentException("Function $name(${parameters.joinToString()}) is not defined in the session's catalogs")
+        }
+
+        private fun table(name: Name): Table {
+            for (catalog in catalogs) {
+                val table = catalog.getTable(session, name)
+                if (table != null) return table
+            }
+            throw IllegalArgumentException("Table $name is not defined in the session's catalogs")
+        }
+
+        private fun name(): Name = Name.of(list { readString(input) })
+
+        private fun projection(): Projection = Projection.of(list { list { readString(input) } })
+
+        private fun collation(): Collation {
+            val column = rex()
+            val order = when (val code = input.readUnsignedByte()) {
+                Collation.Order.ASC -> Collation.Order.ASC()
+                Collation.Order.DESC -> Collation.Order.DESC()
+                else -> throw IllegalArgumentException("Unknown collation order $code")
+            }
+            val nulls = when (val code = input.readUnsignedByte()) {
+                Collation.Nulls.FIRST -> Collation.Nulls.FIRST()
+                Collation.Nulls.LAST -> Collation.Nulls.LAST()
+                else -> throw IllegalArgumentException("Unknown collation null ordering $code")
+            }
+            return object : Collation {
+                override fun getColumn(): Rex = column
+                override fun getOrder(): Collation.Order = order
+                override fun getNulls(): Collation.Nulls = nulls
+            }
+        }
+
+        private fun frame(): WindowFrame {
+            val units = when (val code = input.readUnsignedByte()) {
+                WindowFrame.Units.ROWS -> WindowFrame.Units.ROWS()
+                WindowFrame.Units.RANGE -> WindowFrame.Units.RANGE()
+                else -> throw IllegalArgumentException("Unknown window frame units $code")
+            }
+            return WindowFrame(units, bound(), bound())
+        }
+
+        private fun bound(): WindowFrame.Bound {
+            val type = when (val code = input.readUnsignedByte()) {
+                WindowFrame.Bound.Type.UNBOUNDED_PRECEDING -> WindowFrame.Bound.Type.UNBOUNDED_PRECEDING()
+                WindowFrame.Bound.Type.PRECEDING -> WindowFrame.Bound.Type.PRECEDING()
+                WindowFrame.Bound.Type.CURRENT_ROW -> WindowFrame.Bound.Type.CURRENT_ROW()
+                WindowFrame.Bound.Type.FOLLOWING -> WindowFrame.Bound.Type.FOLLOWING()
+                WindowFrame.Bound.Type.UNBOUNDED_FOLLOWING -> WindowFrame.Bound.Type.UNBOUNDED_FOLLOWING()
+                else -> throw IllegalArgumentException("Unknown window frame bound $code")
+            }
+            return WindowFrame.Bound(type, optional { rex() })
+        }
+
+        private fun exclusion(): Exclusion.Item {
+            val tag = input.readUnsignedByte()
+            val index = if (tag == PlanFormat.EXCLUDE_COLL_INDEX) input.readInt() else 0
+            val key = if (tag == PlanFormat.EXCLUDE_STRUCT_KEY || tag == PlanFormat.EXCLUDE_STRUCT_SYMBOL) readString(input) else ""
+            val items = list { exclusion() }
+            return when (tag) {
+                PlanFormat.EXCLUDE_COLL_INDEX -> Exclusion.collIndex(index, items)
+                PlanFormat.EXCLUDE_COLL_WILDCARD -> Exclusion.collWildcard(items)
+                PlanFormat.EXCLUDE_STRUCT_KEY -> Exclusion.structKey(key, items)
+                PlanFormat.EXCLUDE_STRUCT_SYMBOL -> Exclusion.structSymbol(key, items)
+                PlanFormat.EXCLUDE_STRUCT_WILDCARD -> Exclusion.structWildCard(items)
+                else -> throw IllegalArgumentException("Unknown exclusion $tag")
+            }
+        }
+
+        private fun joinType(): JoinType = when (val code = input.readUnsignedByte()) {
+            JoinType.INNER -> JoinType.INNER()
+            JoinType.LEFT -> JoinType.LEFT()
+            JoinType.RIGHT -> JoinType.RIGHT()
+            JoinType.FULL -> JoinType.FULL()
+            else -> throw IllegalArgumentException("Unknown join type $code")
+        }
+
+        private fun comparison(): RexSubqueryComp.Comparison = when (val code = input.readUnsignedByte()) {
+            RexSubqueryComp.Comparison.EQ -> RexSubqueryComp.Comparison.EQ()
+            RexSubqueryComp.Comparison.NE -> RexSubqueryComp.Comparison.NE()
+            RexSubqueryComp.Comparison.LT -> RexSubqueryComp.Comparison.LT()
+            RexSubqueryComp.Comparison.LE -> RexSubqueryComp.Comparison.LE()
+            RexSubqueryComp.Comparison.GT -> RexSubqueryComp.Comparison.GT()
+            RexSubqueryComp.Comparison.GE -> RexSubqueryComp.Comparison.GE()
+            else -> throw IllegalArgumentException("Unknown subquery comparison $code")
+        }
+
+        private fun quantifier(): RexSubqueryComp.Quantifier = when (val code = input.readUnsignedByte()) {
+            RexSubqueryComp.Quantifier.ANY -> RexSubqueryComp.Quantifier.ANY()
+            RexSubqueryComp.Quantifier.ALL -> RexSubqueryComp.Quantifier.ALL()
+            RexSubqueryComp.Quantifier.SOME -> RexSubqueryComp.Quantifier.SOME()
+            else -> throw IllegalArgumentException("Unknown subquery quantifier $code")
+        }
+
+        private fun test(): RexSubqueryTest.Test = when (val code = input.readUnsignedByte()) {
+            RexSubqueryTest.Test.EXISTS -> RexSubqueryTest.Test.EXISTS()
+            RexSubqueryTest.Test.UNIQUE -> RexSubqueryTest.Test.UNIQUE()
+            else -> throw IllegalArgumentException("Unknown subquery test $code")
+        }
+
+        private inline fun <T> list(read: () -> T): List<T> {
+            val size = input.readInt()
+            return List(size) { read() }
+        }
+
+        private inline fun <T> optional(read: () -> T): T? = if (input.readBoolean()) read() else null
+    }
+
+    /**
+     * The signature of a function or an aggregation, as it was written.
+     */
+    private class Signature(val name: String, val parameters: List<PType>, val returns: PType) {
+
+        /**
+         * @return the instances of an overload for the types of the arguments, or else for the types of the parameters;
+         * they differ only if an overload's parameter types depend on its argument types.
+         */
+        fun <T : Any> instances(args: List<Rex>, getInstance: (Array<PType>) -> T?): Sequence<T> = sequence {
+            getInstance(args.map { it.type.pType }.toTypedArray())?.let { yield(it) }
+            getInstance(parameters.toTypedArray())?.let { yield(it) }
+        }
+
+        fun matches(signature: RoutineSignature): Boolean {
+            return signature.parameters.map { it.type } == parameters && signature.returns == returns
+        }
+
+        override fun toString(): String = "$name(${parameters.joinToString()}) -> $returns"
+    }
+}
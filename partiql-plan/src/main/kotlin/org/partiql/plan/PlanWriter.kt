@@ -0,0 +1,478 @@
+package org.partiql.plan
+
+import org.partiql.plan.PlanFormat.writeDatum
+import org.partiql.plan.PlanFormat.writeString
+import org.partiql.plan.PlanFormat.writeType
+import org.partiql.plan.rel.Rel
+import org.partiql.plan.rel.RelAggregate
+import org.partiql.plan.rel.RelCorrelate
+import org.partiql.plan.rel.RelDistinct
+import org.partiql.plan.rel.RelExcept
+import org.partiql.plan.rel.RelExclude
+import org.partiql.plan.rel.RelFilter
+import org.partiql.plan.rel.RelIndexScan
+import org.partiql.plan.rel.RelIntersect
+import org.partiql.plan.rel.RelIterate
+import org.partiql.plan.rel.RelJoin
+import org.partiql.plan.rel.RelLimit
+import org.partiql.plan.rel.RelOffset
+import org.partiql.plan.rel.RelProject
+import org.partiql.plan.rel.RelScan
+import org.partiql.plan.rel.RelSort
+import org.partiql.plan.rel.RelType
+import org.partiql.plan.rel.RelUnion
+import org.partiql.plan.rel.RelUnpivot
+import org.partiql.plan.rel.RelWindow
+import org.partiql.plan.rel.RelWith
+import org.partiql.plan.rex.Rex
+import org.partiql.plan.rex.RexArray
+import org.partiql.plan.rex.RexBag
+import org.partiql.plan.rex.RexCall
+import org.partiql.plan.rex.RexCase
+import org.partiql.plan.rex.RexCast
+import org.partiql.plan.rex.RexCoalesce
+import org.partiql.plan.rex.RexDispatch
+import org.partiql.plan.rex.RexError
+import org.partiql.plan.rex.RexLit
+import org.partiql.plan.rex.RexMap
+import org.partiql.plan.rex.RexMapDynamic
+import org.partiql.plan.rex.RexNullIf
+import org.partiql.plan.rex.RexPathIndex
+import org.partiql.plan.rex.RexPathKey
+import org.partiql.plan.rex.RexPathSymbol
+import org.partiql.plan.rex.RexPivot
+import org.partiql.plan.rex.RexSelect
+import org.partiql.plan.rex.RexSpread
+import org.partiql.plan.rex.RexStruct
+import org.partiql.plan.rex.RexSubquery
+import org.partiql.plan.rex.RexSubqueryComp
+import org.partiql.plan.rex.RexSubqueryIn
+import org.partiql.plan.rex.RexSubqueryTest
+import org.partiql.plan.rex.RexTable
+import org.partiql.plan.rex.RexTableRef
+import org.partiql.plan.rex.RexVar
+import org.partiql.spi.catalog.Name
+import org.partiql.spi.catalog.Projection
+import org.partiql.spi.function.RoutineSignature
+import java.io.ByteArrayOutputStream
+import java.io.DataOutput
+import java.io.DataOutputStream
+import java.io.OutputStream
+
+/**
+ * Writes a [Plan] in a stable binary format, so that a query can be planned once and executed by another process
+ * without being parsed or planned again; see [PlanReader].
+ *
+ * The plan's operators and types are written in full, while its functions, aggregations, and tables are written by
+ * their names and signatures only, as they are bound again to the catalogs of the reader's session.
+ */
+public object PlanWriter {
+
+    /**
+     * Writes the plan to the output; the output is flushed, but not closed.
+     *
+     * @param plan the plan to write.
+     * @param output the output to write to.
+     * @throws IllegalArgumentException if the plan has an action, an operator, or a literal which cannot be written.
+     */
+    @JvmStatic
+    public fun write(plan: Plan, output: OutputStream) {
+        val data = DataOutputStream(output)
+        Writer(data).plan(plan)
+        data.flush()
+    }
+
+    /**
+     * @param plan the plan to write.
+     * @return the bytes of the plan.
+     * @throws IllegalArgumentException if the plan has an action, an operator, or a literal which cannot be written.
+     */
+    @JvmStatic
+    public fun toByteArray(plan: Plan): ByteArray {
+        val bytes = ByteArrayOutputStream()
+        write(plan, bytes)
+        return bytes.toByteArray()
+    }
+
+    private class Writer(private val out: DataOutput) {
+
+        fun plan(plan: Plan) {
+            out.writeInt(PlanFormat.MAGIC)
+            out.writeShort(PlanFormat.FORMAT)
+            out.writeInt(plan.version.code())
+            when (val action = plan.action) {
+                is Action.Query -> {
+                    out.writeByte(PlanFormat.QUERY)
+                    rex(action.rex)
+                }
+                else -> throw IllegalArgumentException("Cannot write a plan with action ${action::class.java.name}")
+            }
+        }
+
+        @Suppress("DEPRECATION")
+        fun rel(rel: Rel) {
+            when (rel) {
+                is RelAggregate -> {
+                    header(PlanFormat.REL_AGGREGATE, rel)
+                    rel(rel.input)
+                    list(rel.measures) {
+                        routine(it.agg.signature)
+                        rexes(it.args)
+                        out.writeBoolean(it.isDistinct)
+                    }
+                    rexes(rel.groups)
+                }
+                is RelCorrelate -> {
+                    header(PlanFormat.REL_CORRELATE, rel)
+                    rel(rel.left)
+                    rel(rel.right)
+                    out.writeByte(rel.joinType.code())
+                }
+                is RelDistinct -> {
+                    header(PlanFormat.REL_DISTINCT, rel)
+                    rel(rel.input)
+                }
+                is RelExcept -> {
+                    header(PlanFormat.REL_EXCEPT, rel)
+                    rel(rel.left)
+                    rel(rel.right)
+                    out.writeBoolean(rel.isAll)
+                }
+                is RelExclude -> {
+                    header(PlanFormat.REL_EXCLUDE, rel)
+                    rel(rel.input)
+                    list(rel.exclusions) {
+                        rex(it.getVar())
+                        list(it.getItems()) { item -> exclusion(item) }
+                    }
+                }
+                is RelFilter -> {
+                    header(PlanFormat.REL_FILTER, rel)
+                    rel(rel.input)
+                    rex(rel.predicate)
+                }
+                is RelIndexScan -> {
+                    header(PlanFormat.REL_INDEX_SCAN, rel)
+                    rex(rel.rex)
+                    writeString(out, rel.index)
+                    optional(rel.key) { rex(it) }
+                    optional(rel.lower) { rex(it) }
+                    out.writeBoolean(rel.isLowerInclusive)
+                    optional(rel.upper) { rex(it) }
+                    out.writeBoolean(rel.isUpperInclusive)
+                    optional(rel.projection) { projection(it) }
+                }
+                is RelIntersect -> {
+                    header(PlanFormat.REL_INTERSECT, rel)
+                    rel(rel.left)
+                    rel(rel.right)
+                    out.writeBoolean(rel.isAll)
+                }
+                is RelIterate -> {
+                    header(PlanFormat.REL_ITERATE, rel)
+                    rex(rel.rex)
+                    optional(rel.projection) { projection(it) }
+                }
+                is RelJoin -> {
+                    header(PlanFormat.REL_JOIN, rel)
+                    rel(rel.left)
+                    rel(rel.right)
+                    rex(rel.condition)
+                    out.writeByte(rel.joinType.code())
+                }
+                is RelLimit -> {
+                    header(PlanFormat.REL_LIMIT, rel)
+                    rel(rel.input)
+                    rex(rel.limit)
+                }
+                is RelOffset -> {
+                    header(PlanFormat.REL_OFFSET, rel)
+                    rel(rel.input)
+                    rex(rel.offset)
+                }
+                is RelProject -> {
+                    header(PlanFormat.REL_PROJECT, rel)
+                    rel(rel.input)
+                    rexes(rel.projections)
+                }
+                is RelScan -> {
+                    header(PlanFormat.REL_SCAN, rel)
+                    rex(rel.rex)
+                    optional(rel.projection) { projection(it) }
+                }
+                is RelSort -> {
+                    header(PlanFormat.REL_SORT, rel)
+                    rel(rel.input)
+                    list(rel.collations) { collation(it) }
+                }
+                is RelUnion -> {
+                    header(PlanFormat.REL_UNION, rel)
+                    rel(rel.left)
+                    rel(rel.right)
+                    out.writeBoolean(rel.isAll)
+                }
+                is RelUnpivot -> {
+                    header(PlanFormat.REL_UNPIVOT, rel)
+                    rex(rel.rex)
+                }
+                is RelWindow -> {
+                    // the bindings of the window functions are the last fields of the window's type
+                    header(PlanFormat.REL_WINDOW, rel)
+                    optional(rel.name) { writeString(out, it) }
+                    rel(rel.input)
+                    list(rel.windowFunctions) {
+                        val signature = it.signature
+                        writeString(out, signature.name)
+                        list(signature.parameterTypes) { type -> writeType(out, type) }
+                        writeType(out, signature.returnType)
+                        out.writeBoolean(signature.isIgnoreNulls)
+                        rexes(it.arguments)
+                    }
+                    list(rel.collations) { collation(it) }
+                    rexes(rel.partitions)
+                    optional(rel.frame) { frame ->
+                        out.writeByte(frame.units.code())
+                        for (bound in listOf(frame.start, frame.end)) {
+                            out.writeByte(bound.type.code())
+                            optional(bound.offset) { rex(it) }
+                        }
+                    }
+                }
+                is RelWith -> {
+                    header(PlanFormat.REL_WITH, rel)
+                    rel(rel.input)
+                    list(rel.elements) {
+                        writeString(out, it.name)
+                        rex(it.representation)
+                    }
+                }
+                else -> throw IllegalArgumentException("Cannot write the operator ${rel::class.java.name}")
+            }
+        }
+
+        fun rex(rex: Rex) {
+            when (rex) {
+                is RexArray -> {
+                    header(PlanFormat.REX_ARRAY, rex)
+                    rexes(rex.values)
+                }
+                is RexBag -> {
+                    header(PlanFormat.REX_BAG, rex)
+                    rexes(rex.values)
+                }
+                is RexCall -> {
+                    header(PlanFormat.REX_CALL, rex)
+                    routine(rex.function.signature)
+                    rexes(rex.args)
+                }
+                is RexCase -> {
+                    header(PlanFormat.REX_CASE, rex)
+                    optional(rex.match) { rex(it) }
+                    list(rex.branches) {
+                        rex(it.condition)
+                        rex(it.result)
+                    }
+                    optional(rex.default) { rex(it) }
+                }
+                is RexCast -> {
+                    header(PlanFormat.REX_CAST, rex)
+                    rex(rex.operand)
+                    writeType(out, rex.target)
+                }
+                is RexCoalesce -> {
+                    header(PlanFormat.REX_COALESCE, rex)
+                    rexes(rex.args)
+                }
+                is RexDispatch -> {
+                    header(PlanFormat.REX_DISPATCH, rex)
+                    writeString(out, rex.name)
+                    list(rex.functions) {
+                        writeString(out, it.signature.name)
+                        list(it.signature.parameterTypes) { type -> writeType(out, type) }
+                    }
+                    rexes(rex.args)
+                }
+                is RexError -> header(PlanFormat.REX_ERROR, rex)
+                is RexLit -> {
+                    header(PlanFormat.REX_LIT, rex)
+                    writeDatum(out, rex.datum)
+                }
+                is RexMap -> {
+                    header(PlanFormat.REX_MAP, rex)
+                    writeType(out, rex.keyType)
+                    writeType(out, rex.valueType)
+                    list(rex.entries) { entry(it) }
+                }
+                is RexMapDynamic -> {
+                    header(PlanFormat.REX_MAP_DYNAMIC, rex)
+                    list(rex.entries) { entry(it) }
+                }
+                is RexNullIf -> {
+                    header(PlanFormat.REX_NULL_IF, rex)
+                    rex(rex.v1)
+                    rex(rex.v2)
+                }
+                is RexPathIndex -> {
+                    header(PlanFormat.REX_PATH_INDEX, rex)
+                    rex(rex.operand)
+                    rex(rex.index)
+                }
+                is RexPathKey -> {
+                    header(PlanFormat.REX_PATH_KEY, rex)
+                    rex(rex.operand)
+                    rex(rex.key)
+                }
+                is RexPathSymbol -> {
+                    header(PlanFormat.REX_PATH_SYMBOL, rex)
+                    rex(rex.operand)
+                    writeString(out, rex.symbol)
+                }
+                is RexPivot -> {
+                    header(PlanFormat.REX_PIVOT, rex)
+                    rel(rex.input)
+                    rex(rex.key)
+                    rex(rex.value)
+                }
+                is RexSelect -> {
+                    header(PlanFormat.REX_SELECT, rex)
+                    rel(rex.input)
+                    rex(rex.constructor)
+                }
+                is RexSpread -> {
+                    header(PlanFormat.REX_SPREAD, rex)
+                    rexes(rex.args)
+                }
+                is RexStruct -> {
+                    header(PlanFormat.REX_STRUCT, rex)
+                    list(rex.fields) {
+                        rex(it.key)
+                        rex(it.value)
+                    }
+                }
+                is RexSubquery -> {
+                    header(PlanFormat.REX_SUBQUERY, rex)
+                    rel(rex.input)
+                    rex(rex.constructor)
+                    out.writeBoolean(rex.isScalar)
+                }
+                is RexSubqueryComp -> {
+                    header(PlanFormat.REX_SUBQUERY_COMP, rex)
+                    rel(rex.input)
+                    rexes(rex.args)
+                    out.writeByte(rex.comparison.code())
+                    out.writeByte(rex.quantifier.code())
+                }
+                is RexSubqueryIn -> {
+                    header(PlanFormat.REX_SUBQUERY_IN, rex)
+                    rel(rex.input)
+                    rexes(rex.args)
+                }
+                is RexSubqueryTest -> {
+                    header(PlanFormat.REX_SUBQUERY_TEST, rex)
+                    rel(rex.input)
+                    out.writeByte(rex.test.code())
+                }
+                is RexTable -> {
+                    header(PlanFormat.REX_TABLE, rex)
+                    name(rex.table.getName())
+                }
+                is RexTableRef -> {
+                    header(PlanFormat.REX_TABLE_REF, rex)
+                    out.writeInt(rex.catalogId)
+                    out.writeInt(rex.tableId)
+                }
+                is RexVar -> {
+                    header(PlanFormat.REX_VAR, rex)
+                    out.writeInt(rex.scope)
+                    out.writeInt(rex.offset)
+                }
+                else -> throw IllegalArgumentException("Cannot write the operator ${rex::class.java.name}")
+            }
+        }
+
+        private fun header(tag: Int, rel: Rel) {
+            out.writeByte(tag)
+            relType(rel.type)
+        }
+
+        private fun header(tag: Int, rex: Rex) {
+            out.writeByte(tag)
+            writeType(out, rex.type.pType)
+        }
+
+        private fun relType(type: RelType) {
+            list(type.fields.toList()) {
+                writeString(out, it.name)
+                writeType(out, it.type)
+            }
+            out.writeBoolean(type.isOrdered)
+        }
+
+        private fun rexes(rexes: Collection<Rex>) = list(rexes) { rex(it) }
+
+        /**
+         * A function or an aggregation, by its name, the types of its parameters, and its return type.
+         */
+        private fun routine(signature: RoutineSignature) {
+            writeString(out, signature.name)
+            list(signature.parameters) { writeType(out, it.type) }
+            writeType(out, signature.returns)
+        }
+
+        private fun name(name: Name) {
+            list(name.toList()) { writeString(out, it) }
+        }
+
+        private fun projection(projection: Projection) {
+            list(projection.paths) { path ->
+                list(path) { writeString(out, it) }
+            }
+        }
+
+        private fun collation(collation: Collation) {
+            rex(collation.column)
+            out.writeByte(collation.order.code())
+            out.writeByte(collation.nulls.code())
+        }
+
+        private fun entry(entry: RexMap.Entry) {
+            rex(entry.key)
+            rex(entry.value)
+        }
+
+        private fun exclusion(item: Exclusion.Item) {
+            when (item) {
+                is Exclusion.CollIndex -> {
+                    out.writeByte(PlanFormat.EXCLUDE_COLL_INDEX)
+                    out.writeInt(item.getIndex())
+                }
+                is Exclusion.CollWildcard -> out.writeByte(PlanFormat.EXCLUDE_COLL_WILDCARD)
+                is Exclusion.StructKey -> {
+                    out.writeByte(PlanFormat.EXCLUDE_STRUCT_KEY)
+                    writeString(out, item.getKey())
+                }
+                is Exclusion.StructSymbol -> {
+                    out.writeByte(PlanFormat.EXCLUDE_STRUCT_SYMBOL)
+                    writeString(out, item.getSymbol())
+                }
+                is Exclusion.StructWildcard -> out.writeByte(PlanFormat.EXCLUDE_STRUCT_WILDCARD)
+                else -> throw IllegalArgumentException("Cannot write the exclusion ${item::class.java.name}")
+            }
+            list(item.getItems()) { exclusion(it) }
+        }
+
+        private inline fun <T> list(values: Collection<T>, write: (T) -> Unit) {
+            out.writeInt(values.size)
+            for (value in values) {
+                write(value)
+            }
+        }
+
+        private inline fun <T : Any> optional(value: T?, write: (T) -> Unit) {
+            out.writeBoolean(value != null)
+            if (value != null) {
+                write(value)
+            }
+        }
+    }
+}
@@ -18,7 +18,11 @@ import org.partiql.planner.internal.SqlPlanner
  */
 public class PartiQLPlannerBuilder {
 
-    private val flags: MutableSet<PlannerFlag> = mutableSetOf(PlannerFlag.FORCE_INLINE_WITH_CLAUSE)
+    private val flags: MutableSet<PlannerFlag> = mutableSetOf(
+        PlannerFlag.FORCE_INLINE_WITH_CLAUSE,
+        PlannerFlag.REORDER_JOINS,
+        PlannerFlag.USE_INDEXES,
+    )
     private val passes: MutableList<PartiQLPlannerPass> = mutableListOf()
 
     /**
@@ -95,4 +99,69 @@ public class PartiQLPlannerBuilder {
         }
         return this
     }
+
+    /**
+     * Enable projection pruning.
+     *
+     * When enabled, the planner computes which fields of each scanned record are referenced by the query and attaches
+     * them to the scan operators as a [org.partiql.spi.catalog.Projection]; fields which are never referenced are not
+     * carried through joins, sorts, or aggregations, and are passed to [org.partiql.spi.catalog.Table.getDatum].
+     */
+    public fun pruneProjections(enable: Boolean = true): PartiQLPlannerBuilder {
+        if (enable) {
+            flags.add(PlannerFlag.PRUNE_PROJECTIONS)
+        } else {
+            flags.remove(PlannerFlag.PRUNE_PROJECTIONS)
+        }
+        return this
+    }
+
+    /**
+     * Enable cost-based join ordering; enabled by default.
+     *
+     * When enabled, chains of inner joins are reordered to minimize their estimated intermediate cardinalities, which
+     * are derived from [org.partiql.spi.catalog.Table.getStatistics]. Joins over tables without statistics keep their
+     * syntactic order.
+     */
+    public fun reorderJoins(enable: Boolean = true): PartiQLPlannerBuilder {
+        if (enable) {
+            flags.add(PlannerFlag.REORDER_JOINS)
+        } else {
+            flags.remove(PlannerFlag.REORDER_JOINS)
+        }
+        return this
+    }
+
+    /**
+     * Enable index lookups; enabled by default.
+     *
+     * When enabled, filtered scans and the inner side of equi-joins are replaced with lookups into the indexes of the
+     * scanned tables, see [org.partiql.spi.catalog.Table.getIndexes].
+     */
+    public fun useIndexes(enable: Boolean = true): PartiQLPlannerBuilder {
+        if (enable) {
+            flags.add(PlannerFlag.USE_INDEXES)
+        } else {
+            flags.remove(PlannerFlag.USE_INDEXES)
+        }
+        return this
+    }
+
+    /**
+     * Enable cost-based ordering of `AND` and `OR` operands.
+     *
+     * When enabled, the operands of each chain of `AND`s (or `OR`s) are ordered by their estimated evaluation cost,
+     * cheapest first, so that evaluation short-circuits before the expensive operands (e.g. subqueries or `LIKE`).
+     * As the operands after a decisive one are not evaluated, the result of a reordered chain may differ where an
+     * operand is not a boolean or raises an error, e.g. `t.x > 0 OR t.s` over a string `t.s` is `TRUE` where `t.x` is
+     * positive, but is `MISSING` (or an error in strict mode) once `t.s` is evaluated first.
+     */
+    public fun orderPredicates(enable: Boolean = true): PartiQLPlannerBuilder {
+        if (enable) {
+            flags.add(PlannerFlag.ORDER_PREDICATES)
+        } else {
+            flags.remove(PlannerFlag.ORDER_PREDICATES)
+        }
+        return this
+    }
 }
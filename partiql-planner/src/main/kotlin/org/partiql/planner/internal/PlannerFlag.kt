@@ -31,5 +31,29 @@ internal enum class PlannerFlag {
      * Functions and aggregates are always embedded directly (they are stateless/thread-safe).
      * Only tables need ref-based resolution since their data may change between executions.
      */
-    USE_REFS
+    USE_REFS,
+
+    /**
+     * When set, the planner attaches the referenced paths of each scanned record to the scan operators so that
+     * records are narrowed as early as possible and connectors may avoid decoding unreferenced fields.
+     */
+    PRUNE_PROJECTIONS,
+
+    /**
+     * When set, the planner reorders chains of inner joins by the cardinalities estimated from table statistics.
+     * Joins over tables without statistics keep their syntactic order. By default, this flag is included.
+     */
+    REORDER_JOINS,
+
+    /**
+     * When set, the planner replaces filtered scans and the inner side of equi-joins with lookups into the scanned
+     * tables' indexes, see [org.partiql.spi.catalog.Table.getIndexes]. By default, this flag is included.
+     */
+    USE_INDEXES,
+
+    /**
+     * When set, the planner orders the operands of each chain of `AND`s and `OR`s by their estimated evaluation cost so
+     * that short-circuiting skips the expensive operands.
+     */
+    ORDER_PREDICATES,
 }
@@ -1,17 +1,27 @@
 package org.partiql.planner.internal
 
+import org.partiql.ast.Explain
 import org.partiql.ast.Statement
 import org.partiql.plan.Action
+import org.partiql.plan.Operator
+import org.partiql.plan.OperatorVisitor
 import org.partiql.plan.Operators
 import org.partiql.plan.Plan
 import org.partiql.planner.PartiQLPlanner
 import org.partiql.planner.PartiQLPlanner.Result
 import org.partiql.planner.PartiQLPlannerPass
+import org.partiql.planner.internal.stats.CardinalityEstimator
+import org.partiql.planner.internal.stats.ExplainPrinter
+import org.partiql.planner.internal.stats.TableResolver
 import org.partiql.planner.internal.transforms.AstToPlan
+import org.partiql.planner.internal.transforms.IndexSelection
+import org.partiql.planner.internal.transforms.JoinReordering
 import org.partiql.planner.internal.transforms.NormalizeFromSource
 import org.partiql.planner.internal.transforms.NormalizeGroupBy
 import org.partiql.planner.internal.transforms.OrderByAliasSupport
 import org.partiql.planner.internal.transforms.PlanTransform
+import org.partiql.planner.internal.transforms.PredicateOrdering
+import org.partiql.planner.internal.transforms.ProjectionPruning
 import org.partiql.planner.internal.transforms.SymbolTableBuilder
 import org.partiql.planner.internal.typer.PlanTyper
 import org.partiql.spi.Context
@@ -20,7 +30,9 @@ import org.partiql.spi.errors.PError
 import org.partiql.spi.errors.PErrorKind
 import org.partiql.spi.errors.PErrorListener
 import org.partiql.spi.errors.PRuntimeException
+import org.partiql.spi.metrics.MetricsListener
 import org.partiql.spi.types.PType
+import org.partiql.spi.value.Datum
 
 /**
  * Default PartiQL logical query planner.
@@ -34,6 +46,11 @@ internal class SqlPlanner(
      * Then default planner logic.
      */
     override fun plan(statement: Statement, session: Session, ctx: Context): Result {
+        if (statement is Explain) {
+            return explain(statement, session, ctx)
+        }
+        // without a listener, nothing is timed
+        val start = if (ctx.metricsListener !== MetricsListener.none()) System.nanoTime() else 0L
         try {
             // 0. Initialize the planning environment
             val env = Env(session, ctx.errorListener)
@@ -54,10 +71,35 @@ internal class SqlPlanner(
             val transformResult = PlanTransform(flags, useRefs).transform(internal, ctx.errorListener)
             var plan = transformResult.plan
 
-            // 5. Apply all passes
+            // 5. Reorder inner joins by their estimated cardinalities
+            if (flags.contains(PlannerFlag.REORDER_JOINS)) {
+                val estimator = CardinalityEstimator(TableResolver(session, transformResult.symbols))
+                plan = JoinReordering.apply(plan, estimator)
+            }
+
+            // 6. Narrow scanned records to their referenced paths
+            if (flags.contains(PlannerFlag.PRUNE_PROJECTIONS)) {
+                plan = ProjectionPruning.apply(plan)
+            }
+
+            // 7. Replace filtered scans and the inner side of equi-joins with index lookups
+            if (flags.contains(PlannerFlag.USE_INDEXES)) {
+                plan = IndexSelection.apply(plan, TableResolver(session, transformResult.symbols))
+            }
+
+            // 8. Evaluate the cheapest operands of AND and OR first
+            if (flags.contains(PlannerFlag.ORDER_PREDICATES)) {
+                plan = PredicateOrdering.apply(plan)
+            }
+
+            // 9. Apply all passes
             for (pass in passes) {
                 plan = pass.apply(plan, ctx)
             }
+            val metrics = ctx.metricsListener
+            if (metrics !== MetricsListener.none()) {
+                metrics.planned(System.nanoTime() - start, OperatorCounter.count(plan))
+            }
             return Result(plan, transformResult.symbols)
         } catch (e: PRuntimeException) {
             throw e
@@ -66,6 +108,19 @@ internal class SqlPlanner(
         }
     }
 
+    /**
+     * Plans the explained statement, returning a plan whose result is the string rendering of its operators.
+     */
+    private fun explain(statement: Explain, session: Session, ctx: Context): Result {
+        val result = plan(statement.statement, session, ctx)
+        val action = result.plan.action as? Action.Query ?: return result
+        val tables = TableResolver(session, result.symbols)
+        val text = ExplainPrinter(tables, CardinalityEstimator(tables)).print(action.rex)
+        val query = Action.Query { Operators.STANDARD.lit(Datum.string(text)) }
+        val plan = Plan { query }
+        return Result(plan, result.symbols)
+    }
+
     /**
      * AST normalization
      */
@@ -78,6 +133,28 @@ internal class SqlPlanner(
         return ast
     }
 
+    /**
+     * Counts the operators of a plan which are reachable through their operands.
+     */
+    private class OperatorCounter : OperatorVisitor<Unit, Unit?> {
+
+        private var count = 0
+
+        override fun defaultReturn(operator: Operator, ctx: Unit?) {
+            count++
+        }
+
+        companion object {
+
+            fun count(plan: Plan): Int {
+                val query = plan.action as? Action.Query ?: return 0
+                val counter = OperatorCounter()
+                query.rex.accept(counter, null)
+                return counter.count
+            }
+        }
+    }
+
     /**
      * Create a plan with a query action and error node.
      *
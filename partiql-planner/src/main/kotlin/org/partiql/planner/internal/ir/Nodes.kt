@@ -36,6 +36,8 @@ import org.partiql.planner.internal.ir.builder.RelOpSortSpecBuilder
 import org.partiql.planner.internal.ir.builder.RelOpUnionBuilder
 import org.partiql.planner.internal.ir.builder.RelOpUnpivotBuilder
 import org.partiql.planner.internal.ir.builder.RelOpWindowBuilder
+import org.partiql.planner.internal.ir.builder.RelOpWindowFrameBoundBuilder
+import org.partiql.planner.internal.ir.builder.RelOpWindowFrameBuilder
 import org.partiql.planner.internal.ir.builder.RelOpWindowWindowFunctionBuilder
 import org.partiql.planner.internal.ir.builder.RelOpWithBuilder
 import org.partiql.planner.internal.ir.builder.RelOpWithWithListElementBuilder
@@ -903,7 +905,8 @@ internal data class Rel(
             @JvmField internal val input: Rel,
             @JvmField internal val functions: List<WindowFunction>,
             @JvmField internal val partitions: List<Rex>,
-            @JvmField internal val sorts: List<Sort.Spec>
+            @JvmField internal val sorts: List<Sort.Spec>,
+            @JvmField internal val frame: Frame? = null,
         ) : Op() {
             public override val children: List<PlanNode> by lazy {
                 val kids = mutableListOf<PlanNode?>()
@@ -911,11 +914,20 @@ internal data class Rel(
                 kids.addAll(functions)
                 kids.addAll(partitions)
                 kids.addAll(sorts)
+                frame?.let { kids.add(it) }
                 kids.filterNotNull()
             }
 
             override fun <R, C> accept(visitor: PlanVisitor<R, C>, ctx: C): R = visitor.visitRelOpWindow(this, ctx)
 
+            internal enum class FrameUnits {
+                ROWS, RANGE,
+            }
+
+            internal enum class FrameBoundType {
+                UNBOUNDED_PRECEDING, PRECEDING, CURRENT_ROW, FOLLOWING, UNBOUNDED_FOLLOWING,
+            }
+
             internal companion object {
                 @JvmStatic
                 internal fun builder(): RelOpWindowBuilder = RelOpWindowBuilder()
@@ -942,6 +954,46 @@ internal data class Rel(
                     internal fun builder(): RelOpWindowWindowFunctionBuilder = RelOpWindowWindowFunctionBuilder()
                 }
             }
+
+            internal data class Frame(
+                @JvmField internal val units: FrameUnits,
+                @JvmField internal val start: FrameBound,
+                @JvmField internal val end: FrameBound,
+            ) : PlanNode() {
+                public override val children: List<PlanNode> by lazy {
+                    val kids = mutableListOf<PlanNode?>()
+                    kids.add(start)
+                    kids.add(end)
+                    kids.filterNotNull()
+                }
+
+                public override fun <R, C> accept(visitor: PlanVisitor<R, C>, ctx: C): R =
+                    visitor.visitRelOpWindowFrame(this, ctx)
+
+                internal companion object {
+                    @JvmStatic
+                    internal fun builder(): RelOpWindowFrameBuilder = RelOpWindowFrameBuilder()
+                }
+            }
+
+            internal data class FrameBound(
+                @JvmField internal val type: FrameBoundType,
+                @JvmField internal val offset: Rex?,
+            ) : PlanNode() {
+                public override val children: List<PlanNode> by lazy {
+                    val kids = mutableListOf<PlanNode?>()
+                    offset?.let { kids.add(it) }
+                    kids.filterNotNull()
+                }
+
+                public override fun <R, C> accept(visitor: PlanVisitor<R, C>, ctx: C): R =
+                    visitor.visitRelOpWindowFrameBound(this, ctx)
+
+                internal companion object {
+                    @JvmStatic
+                    internal fun builder(): RelOpWindowFrameBoundBuilder = RelOpWindowFrameBoundBuilder()
+                }
+            }
         }
 
         internal data class Filter(
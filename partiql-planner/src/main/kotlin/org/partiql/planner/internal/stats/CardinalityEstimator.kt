@@ -0,0 +1,331 @@
+package org.partiql.planner.internal.stats
+
+import org.partiql.plan.JoinType
+import org.partiql.plan.rel.Rel
+import org.partiql.plan.rel.RelAggregate
+import org.partiql.plan.rel.RelCorrelate
+import org.partiql.plan.rel.RelDistinct
+import org.partiql.plan.rel.RelExcept
+import org.partiql.plan.rel.RelExclude
+import org.partiql.plan.rel.RelFilter
+import org.partiql.plan.rel.RelIndexScan
+import org.partiql.plan.rel.RelIntersect
+import org.partiql.plan.rel.RelJoin
+import org.partiql.plan.rel.RelLimit
+import org.partiql.plan.rel.RelOffset
+import org.partiql.plan.rel.RelProject
+import org.partiql.plan.rel.RelScan
+import org.partiql.plan.rel.RelSort
+import org.partiql.plan.rel.RelUnion
+import org.partiql.plan.rel.RelWindow
+import org.partiql.plan.rex.Rex
+import org.partiql.plan.rex.RexCall
+import org.partiql.plan.rex.RexCast
+import org.partiql.plan.rex.RexDispatch
+import org.partiql.plan.rex.RexLit
+import org.partiql.plan.rex.RexPathKey
+import org.partiql.plan.rex.RexPathSymbol
+import org.partiql.plan.rex.RexVar
+import org.partiql.planner.internal.util.FunctionUtils
+import org.partiql.spi.catalog.ColumnStatistics
+import org.partiql.spi.catalog.TableStatistics
+import org.partiql.spi.types.PType
+import org.partiql.spi.value.Datum
+import java.util.IdentityHashMap
+
+/**
+ * Estimates the number of rows produced by relational operators from the [TableStatistics] of scanned tables.
+ *
+ * Row counts come from the statistics of each scanned table, and predicate selectivities are derived from column
+ * statistics (distinct counts, null fractions, and min/max bounds) when available, or from fixed defaults otherwise.
+ * An operator's estimate is unknown (null) if any of its inputs has no statistics.
+ *
+ * @property tables resolves the table of a scan's rex.
+ */
+internal class CardinalityEstimator(private val tables: TableResolver) {
+
+    /**
+     * A field of a scanned table's records.
+     */
+    internal class Column(val statistics: TableStatistics, val path: List<String>) {
+
+        fun statistics(): ColumnStatistics? = if (path.isEmpty()) null else statistics.getColumn(path)
+    }
+
+    private val rows = IdentityHashMap<Rel, Double?>()
+
+    /**
+     * @return the estimated number of rows produced by [rel], or null if unknown.
+     */
+    fun rows(rel: Rel): Double? {
+        if (rows.containsKey(rel)) {
+            return rows[rel]
+        }
+        val estimate = estimate(rel)
+        rows[rel] = estimate
+        return estimate
+    }
+
+    private fun estimate(rel: Rel): Double? = when (rel) {
+        is RelScan -> tables.resolve(rel.rex)?.getStatistics()?.rowCount?.toDouble()
+        is RelIndexScan -> lookup(rel)
+        is RelCorrelate -> {
+            val lhs = rows(rel.left)
+            val rhs = rows(rel.right)
+            when {
+                lhs == null || rhs == null -> null
+                rel.joinType.code() == JoinType.INNER -> lhs * rhs
+                rel.joinType.code() == JoinType.LEFT -> lhs * maxOf(rhs, 1.0)
+                else -> null
+            }
+        }
+        is RelFilter -> rows(rel.input)?.let { it * selectivity(rel.predicate) { k -> column(rel.input, k) } }
+        is RelJoin -> {
+            val lhs = rows(rel.left)
+            val rhs = rows(rel.right)
+            if (lhs == null || rhs == null) {
+                null
+            } else {
+                val degree = rel.left.type.degree
+                val s = selectivity(rel.condition) { k -> if (k < degree) column(rel.left, k) else column(rel.right, k - degree) }
+                val inner = lhs * rhs * s
+                when (rel.joinType.code()) {
+                    JoinType.LEFT -> maxOf(inner, lhs)
+                    JoinType.RIGHT -> maxOf(inner, rhs)
+                    JoinType.FULL -> maxOf(inner, lhs + rhs)
+                    else -> inner
+                }
+            }
+        }
+        is RelProject -> rows(rel.input)
+        is RelSort -> rows(rel.input)
+        is RelWindow -> rows(rel.input)
+        is RelExclude -> rows(rel.input)
+        is RelDistinct -> rows(rel.input)
+        is RelLimit -> rows(rel.input)?.let { n -> long(rel.limit)?.let { minOf(n, it.toDouble()) } ?: n }
+        is RelOffset -> rows(rel.input)?.let { n -> long(rel.offset)?.let { maxOf(0.0, n - it) } ?: n }
+        is RelAggregate -> when {
+            rel.groups.isEmpty() -> 1.0
+            else -> rows(rel.input)?.let { n ->
+                // the number of groups is at most the product of the distinct counts of the keys
+                var groups = 1.0
+                for (key in rel.groups) {
+                    val ndv = column(key) { k -> column(rel.input, k) }?.statistics()?.distinctCount ?: -1
+                    if (ndv < 0) {
+                        groups = n
+                        break
+                    }
+                    groups *= maxOf(ndv, 1).toDouble()
+                }
+                minOf(n, groups)
+            }
+        }
+        is RelUnion -> sum(rows(rel.left), rows(rel.right))
+        is RelIntersect -> min(rows(rel.left), rows(rel.right))
+        is RelExcept -> rows(rel.left)
+        else -> null
+    }
+
+    /**
+     * Estimates the records returned by an index lookup; for a lookup within a correlate, this is per left-hand row.
+     */
+    private fun lookup(rel: RelIndexScan): Double? {
+        val table = tables.resolve(rel.rex) ?: return null
+        val statistics = table.getStatistics() ?: return null
+        val rows = statistics.rowCount.toDouble()
+        if (rel.key == null) {
+            return rows * DEFAULT_RANGE
+        }
+        val path = table.getIndexes().firstOrNull { it.name == rel.index }?.path
+        val column = path?.let { statistics.getColumn(it) }
+        val ndv = column?.distinctCount ?: -1
+        return if (ndv > 0) rows * nonNull(column) / ndv else rows * DEFAULT_EQUALITY
+    }
+
+    /**
+     * Returns the scanned field which is the i-th column of [rel], if known.
+     */
+    fun column(rel: Rel, i: Int): Column? = when (rel) {
+        is RelScan -> if (i == 0) tables.resolve(rel.rex)?.getStatistics()?.let { Column(it, emptyList()) } else null
+        is RelIndexScan -> if (i == 0) tables.resolve(rel.rex)?.getStatistics()?.let { Column(it, emptyList()) } else null
+        is RelFilter -> column(rel.input, i)
+        is RelSort -> column(rel.input, i)
+        is RelLimit -> column(rel.input, i)
+        is RelOffset -> column(rel.input, i)
+        is RelDistinct -> column(rel.input, i)
+        is RelExclude -> column(rel.input, i)
+        is RelWindow -> if (i < rel.input.type.degree) column(rel.input, i) else null
+        is RelJoin -> {
+            val degree = rel.left.type.degree
+            if (i < degree) column(rel.left, i) else column(rel.right, i - degree)
+        }
+        is RelCorrelate -> {
+            val degree = rel.left.type.degree
+            if (i < degree) column(rel.left, i) else if (rel.right is RelIndexScan) column(rel.right, i - degree) else null
+        }
+        is RelProject -> rel.projections.getOrNull(i)?.let { column(it) { k -> column(rel.input, k) } }
+        else -> null
+    }
+
+    /**
+     * Returns the scanned field referenced by [rex] if it is a chain of field steps over a column of the input row.
+     */
+    fun column(rex: Rex, columns: (Int) -> Column?): Column? {
+        val steps = mutableListOf<String>()
+        var curr = rex
+        while (true) {
+            curr = when (curr) {
+                is RexCast -> curr.operand
+                is RexPathSymbol -> {
+                    steps.add(curr.symbol)
+                    curr.operand
+                }
+                is RexPathKey -> {
+                    steps.add(string(curr.key) ?: return null)
+                    curr.operand
+                }
+                is RexVar -> {
+                    if (curr.scope != 0) return null
+                    val column = columns(curr.offset) ?: return null
+                    return Column(column.statistics, column.path + steps.reversed())
+                }
+                else -> return null
+            }
+        }
+    }
+
+    /**
+     * Estimates the fraction of rows for which [predicate] is true.
+     *
+     * @param predicate a predicate over the input row.
+     * @param columns resolves the columns of the input row.
+     */
+    fun selectivity(predicate: Rex, columns: (Int) -> Column?): Double {
+        if (predicate is RexLit) {
+            val datum = predicate.datum
+            return when {
+                datum.isNull || datum.isMissing -> 0.0
+                datum.type.code() == PType.BOOL -> if (datum.boolean) 1.0 else 0.0
+                else -> DEFAULT
+            }
+        }
+        val args = args(predicate) ?: return DEFAULT
+        return when (name(predicate)) {
+            FunctionUtils.OP_AND -> args.fold(1.0) { acc, arg -> acc * selectivity(arg, columns) }
+            FunctionUtils.OP_OR -> args.fold(0.0) { acc, arg ->
+                val s = selectivity(arg, columns)
+                acc + s - acc * s
+            }
+            FunctionUtils.OP_NOT -> if (args.size == 1) 1.0 - selectivity(args[0], columns) else DEFAULT
+            FunctionUtils.OP_EQ -> if (args.size == 2) equality(args[0], args[1], columns) else DEFAULT_EQUALITY
+            FunctionUtils.OP_LT, FunctionUtils.OP_LTE -> if (args.size == 2) range(args[0], args[1], true, columns) else DEFAULT_RANGE
+            FunctionUtils.OP_GT, FunctionUtils.OP_GTE -> if (args.size == 2) range(args[0], args[1], false, columns) else DEFAULT_RANGE
+            FunctionUtils.OP_IS_NULL, FunctionUtils.OP_IS_MISSING -> {
+                val fraction = args.singleOrNull()?.let { column(it, columns) }?.statistics()?.nullFraction ?: -1.0
+                if (fraction < 0) DEFAULT_EQUALITY else fraction
+            }
+            else -> DEFAULT
+        }
+    }
+
+    private fun equality(lhs: Rex, rhs: Rex, columns: (Int) -> Column?): Double {
+        val l = column(lhs, columns)?.statistics()
+        val r = column(rhs, columns)?.statistics()
+        // |A JOIN B ON A.x = B.y| = |A| * |B| / max(ndv(A.x), ndv(B.y))
+        val ndv = maxOf(l?.distinctCount ?: -1, r?.distinctCount ?: -1)
+        if (ndv <= 0) {
+            return DEFAULT_EQUALITY
+        }
+        return nonNull(l) * nonNull(r) / ndv
+    }
+
+    /**
+     * Estimates `lhs < rhs` (or `lhs > rhs` if not [less]) using the min/max bounds of a column compared to a literal.
+     */
+    private fun range(lhs: Rex, rhs: Rex, less: Boolean, columns: (Int) -> Column?): Double {
+        var column = column(lhs, columns)
+        var literal = rhs
+        var below = less
+        if (column == null) {
+            column = column(rhs, columns) ?: return DEFAULT_RANGE
+            literal = lhs
+            below = !less
+        }
+        val statistics = column.statistics() ?: return DEFAULT_RANGE
+        val value = (literal as? RexLit)?.datum?.let { number(it) } ?: return DEFAULT_RANGE
+        val min = statistics.min?.let { number(it) } ?: return DEFAULT_RANGE
+        val max = statistics.max?.let { number(it) } ?: return DEFAULT_RANGE
+        if (max <= min) {
+            return DEFAULT_RANGE
+        }
+        val fraction = if (below) (value - min) / (max - min) else (max - value) / (max - min)
+        return fraction.coerceIn(0.0, 1.0) * nonNull(statistics)
+    }
+
+    private fun nonNull(statistics: ColumnStatistics?): Double {
+        val fraction = statistics?.nullFraction ?: -1.0
+        return if (fraction < 0) 1.0 else 1.0 - fraction
+    }
+
+    private fun name(rex: Rex): String? = when (rex) {
+        is RexCall -> rex.function.signature.name
+        is RexDispatch -> rex.name
+        else -> null
+    }
+
+    private fun args(rex: Rex): List<Rex>? = when (rex) {
+        is RexCall -> rex.args
+        is RexDispatch -> rex.args
+        else -> null
+    }
+
+    private fun string(rex: Rex): String? {
+        val datum = (rex as? RexLit)?.datum ?: return null
+        if (datum.isNull || datum.isMissing) return null
+        return when (datum.type.code()) {
+            PType.STRING, PType.VARCHAR, PType.CHAR -> datum.string
+            else -> null
+        }
+    }
+
+    private fun long(rex: Rex): Long? {
+        val datum = (rex as? RexLit)?.datum ?: return null
+        return number(datum)?.toLong()
+    }
+
+    private fun number(datum: Datum): Double? {
+        if (datum.isNull || datum.isMissing) return null
+        return when (datum.type.code()) {
+            PType.TINYINT -> datum.byte.toDouble()
+            PType.SMALLINT -> datum.short.toDouble()
+            PType.INTEGER -> datum.int.toDouble()
+            PType.BIGINT -> datum.long.toDouble()
+            PType.REAL -> datum.float.toDouble()
+            PType.DOUBLE -> datum.double
+            PType.DECIMAL, PType.NUMERIC -> datum.bigDecimal.toDouble()
+            else -> null
+        }
+    }
+
+    private fun sum(a: Double?, b: Double?): Double? = if (a == null || b == null) null else a + b
+
+    private fun min(a: Double?, b: Double?): Double? = if (a == null || b == null) null else minOf(a, b)
+
+    private companion object {
+
+        /**
+         * Selectivity of an equality predicate without column statistics.
+         */
+        const val DEFAULT_EQUALITY = 0.1
+
+        /**
+         * Selectivity of a range predicate without column statistics.
+         */
+        const val DEFAULT_RANGE = 1.0 / 3.0
+
+        /**
+         * Selectivity of any other predicate.
+         */
+        const val DEFAULT = 0.5
+    }
+}
@@ -0,0 +1,113 @@
+package org.partiql.planner.internal.stats
+
+import org.partiql.plan.JoinType
+import org.partiql.plan.rel.Rel
+import org.partiql.plan.rel.RelAggregate
+import org.partiql.plan.rel.RelCorrelate
+import org.partiql.plan.rel.RelDistinct
+import org.partiql.plan.rel.RelExcept
+import org.partiql.plan.rel.RelExclude
+import org.partiql.plan.rel.RelFilter
+import org.partiql.plan.rel.RelIndexScan
+import org.partiql.plan.rel.RelIntersect
+import org.partiql.plan.rel.RelIterate
+import org.partiql.plan.rel.RelJoin
+import org.partiql.plan.rel.RelLimit
+import org.partiql.plan.rel.RelOffset
+import org.partiql.plan.rel.RelProject
+import org.partiql.plan.rel.RelScan
+import org.partiql.plan.rel.RelSort
+import org.partiql.plan.rel.RelUnion
+import org.partiql.plan.rel.RelUnpivot
+import org.partiql.plan.rel.RelWindow
+import org.partiql.plan.rel.RelWith
+import org.partiql.plan.rex.Rex
+import org.partiql.plan.rex.RexPivot
+import org.partiql.plan.rex.RexSelect
+import org.partiql.plan.rex.RexSubquery
+
+/**
+ * Renders the relational operators of a query as an indented tree, one operator per line, annotated with the
+ * estimated number of rows of each operator (or `?` if unknown).
+ *
+ * ```
+ * Select
+ *   Project (rows=100)
+ *     Join INNER (rows=100)
+ *       Scan "a" (rows=10)
+ *       Scan "b" (rows=1000)
+ * ```
+ */
+internal class ExplainPrinter(
+    private val tables: TableResolver,
+    private val estimator: CardinalityEstimator,
+) {
+
+    fun print(rex: Rex): String {
+        val sb = StringBuilder()
+        rex(rex, sb, 0)
+        return sb.toString().trimEnd()
+    }
+
+    private fun rex(rex: Rex, sb: StringBuilder, depth: Int) {
+        val (name, input) = when (rex) {
+            is RexSelect -> "Select" to rex.input
+            is RexSubquery -> "Subquery" to rex.input
+            is RexPivot -> "Pivot" to rex.input
+            else -> {
+                line(sb, depth, "Expression")
+                return
+            }
+        }
+        line(sb, depth, name)
+        rel(input, sb, depth + 1)
+    }
+
+    private fun rel(rel: Rel, sb: StringBuilder, depth: Int) {
+        val rows = estimator.rows(rel)?.let { Math.round(it).toString() } ?: "?"
+        line(sb, depth, "${name(rel)} (rows=$rows)")
+        for (operand in rel.operands) {
+            for (op in operand) {
+                if (op is Rel) rel(op, sb, depth + 1)
+            }
+        }
+    }
+
+    private fun name(rel: Rel): String = when (rel) {
+        is RelScan -> tables.name(rel.rex)?.let { "Scan $it" } ?: "Scan"
+        is RelIndexScan -> {
+            val lookup = if (rel.key != null) "=" else "range"
+            (tables.name(rel.rex)?.let { "IndexScan $it" } ?: "IndexScan") + " ${rel.index} $lookup"
+        }
+        is RelIterate -> "Iterate"
+        is RelUnpivot -> "Unpivot"
+        is RelFilter -> "Filter"
+        is RelProject -> "Project"
+        is RelJoin -> "Join ${joinType(rel.joinType.code())}"
+        is RelCorrelate -> "Correlate ${joinType(rel.joinType.code())}"
+        is RelAggregate -> "Aggregate"
+        is RelWindow -> "Window"
+        is RelSort -> "Sort"
+        is RelLimit -> "Limit"
+        is RelOffset -> "Offset"
+        is RelDistinct -> "Distinct"
+        is RelExclude -> "Exclude"
+        is RelUnion -> if (rel.isAll) "Union ALL" else "Union"
+        is RelIntersect -> if (rel.isAll) "Intersect ALL" else "Intersect"
+        is RelExcept -> if (rel.isAll) "Except ALL" else "Except"
+        is RelWith -> "With"
+        else -> rel.javaClass.simpleName
+    }
+
+    private fun joinType(code: Int): String = when (code) {
+        JoinType.LEFT -> "LEFT"
+        JoinType.RIGHT -> "RIGHT"
+        JoinType.FULL -> "FULL"
+        else -> "INNER"
+    }
+
+    private fun line(sb: StringBuilder, depth: Int, text: String) {
+        repeat(depth) { sb.append("  ") }
+        sb.append(text).append('\n')
+    }
+}
@@ -0,0 +1,43 @@
+package org.partiql.planner.internal.stats
+
+import org.partiql.plan.SymbolTable
+import org.partiql.plan.rex.Rex
+import org.partiql.plan.rex.RexTable
+import org.partiql.plan.rex.RexTableRef
+import org.partiql.spi.catalog.Name
+import org.partiql.spi.catalog.Session
+import org.partiql.spi.catalog.Table
+
+/**
+ * Resolves the [Table] referenced by a table rex, for both embedded tables and integer-referenced tables.
+ *
+ * @property session the session used to plan the statement.
+ * @property symbols the symbols of integer-referenced tables.
+ */
+internal class TableResolver(
+    private val session: Session,
+    private val symbols: SymbolTable,
+) {
+
+    /**
+     * @return the referenced table, or null if [rex] is not a table reference or the table cannot be found.
+     */
+    fun resolve(rex: Rex): Table? = when (rex) {
+        is RexTable -> rex.table
+        is RexTableRef -> {
+            val name = name(rex)
+            val catalog = session.getCatalogs().getCatalog(symbols.getCatalogName(rex.catalogId))
+            if (name == null || catalog == null) null else catalog.getTable(session, name)
+        }
+        else -> null
+    }
+
+    /**
+     * @return the name of the referenced table, or null if [rex] is not a table reference.
+     */
+    fun name(rex: Rex): Name? = when (rex) {
+        is RexTable -> rex.table.getName()
+        is RexTableRef -> symbols.getTables(rex.catalogId).firstOrNull { it.id == rex.tableId }?.name
+        else -> null
+    }
+}
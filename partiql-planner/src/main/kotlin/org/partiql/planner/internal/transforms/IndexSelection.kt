@@ -0,0 +1,306 @@
+package org.partiql.planner.internal.transforms
+
+import org.partiql.plan.Action
+import org.partiql.plan.JoinType
+import org.partiql.plan.Operator
+import org.partiql.plan.OperatorRewriter
+import org.partiql.plan.Operators
+import org.partiql.plan.Plan
+import org.partiql.plan.rel.Rel
+import org.partiql.plan.rel.RelCorrelate
+import org.partiql.plan.rel.RelFilter
+import org.partiql.plan.rel.RelIndexScan
+import org.partiql.plan.rel.RelJoin
+import org.partiql.plan.rel.RelScan
+import org.partiql.plan.rel.RelType
+import org.partiql.plan.rex.Rex
+import org.partiql.plan.rex.RexCall
+import org.partiql.plan.rex.RexCast
+import org.partiql.plan.rex.RexDispatch
+import org.partiql.plan.rex.RexLit
+import org.partiql.plan.rex.RexPathKey
+import org.partiql.plan.rex.RexPathSymbol
+import org.partiql.plan.rex.RexPivot
+import org.partiql.plan.rex.RexSelect
+import org.partiql.plan.rex.RexSubquery
+import org.partiql.plan.rex.RexSubqueryComp
+import org.partiql.plan.rex.RexSubqueryIn
+import org.partiql.plan.rex.RexSubqueryTest
+import org.partiql.plan.rex.RexVar
+import org.partiql.planner.internal.stats.TableResolver
+import org.partiql.planner.internal.util.FunctionUtils
+import org.partiql.spi.catalog.Index
+import org.partiql.spi.types.PType
+
+/**
+ * Replaces scans with lookups into the scanned table's [Index]es.
+ *
+ *  - A filter over a scan, `RelFilter(RelScan(t), p)`, becomes `RelFilter(RelIndexScan(t, k), p)` if a conjunct of `p`
+ *    compares an indexed path of `t` to an expression `k` which does not depend on the scanned row. Equality lookups are
+ *    preferred; otherwise, range conjuncts (`<`, `<=`, `>`, `>=`, `BETWEEN`) on the path of a sorted index are combined.
+ *  - An inner join whose right-hand side is a scan, `RelJoin(l, RelScan(t), c)`, becomes the index nested-loop join
+ *    `RelFilter(RelCorrelate(l, RelIndexScan(t, k)), c)` if a conjunct of `c` (or of a filter directly above the join)
+ *    equates an indexed path of `t` with an expression `k` over the left-hand row.
+ *
+ * The original predicates are kept above each lookup, since an index may return a superset of the matching records.
+ * Conjuncts containing subqueries are never used as lookup keys.
+ */
+internal object IndexSelection {
+
+    fun apply(plan: Plan, tables: TableResolver): Plan {
+        val action = plan.action as? Action.Query ?: return plan
+        val rex = Rewriter(tables).visit(action.rex, Unit, Rex::class.java)
+        if (rex === action.rex) {
+            return plan
+        }
+        val query = Action.Query { rex }
+        return Plan { query }
+    }
+
+    /**
+     * A comparison of the scanned path with an expression; `bound` is null for equality.
+     */
+    private class Comparison(val path: List<String>, val rex: Rex, val bound: Bound?)
+
+    private enum class Bound(val lower: Boolean, val inclusive: Boolean) {
+        LT(false, false),
+        LTE(false, true),
+        GT(true, false),
+        GTE(true, true),
+    }
+
+    private class Rewriter(private val tables: TableResolver) : OperatorRewriter<Unit>() {
+
+        private val operators = Operators.STANDARD
+
+        override fun visitFilter(rel: RelFilter, ctx: Unit): Operator {
+            val filter = super.visitFilter(rel, ctx) as RelFilter
+            val input = filter.input
+            val rewritten = when {
+                input is RelScan -> lookup(input, conjuncts(filter.predicate))
+                input is RelJoin && input.joinType.code() == JoinType.INNER -> {
+                    join(input, conjuncts(input.condition) + conjuncts(filter.predicate))
+                }
+                else -> null
+            } ?: return filter
+            return filter(rewritten, filter.predicate, filter.type)
+        }
+
+        override fun visitJoin(rel: RelJoin, ctx: Unit): Operator {
+            val join = super.visitJoin(rel, ctx) as RelJoin
+            if (join.joinType.code() != JoinType.INNER) {
+                return join
+            }
+            return join(join, conjuncts(join.condition)) ?: join
+        }
+
+        /**
+         * Replaces a filtered scan with an index lookup, where the conjuncts are over the scanned row.
+         */
+        private fun lookup(scan: RelScan, conjuncts: List<Rex>): Rel? {
+            val indexes = tables.resolve(scan.rex)?.getIndexes() ?: return null
+            if (indexes.isEmpty()) {
+                return null
+            }
+            val comparisons = conjuncts.flatMap { comparisons(it, 0) }
+            // equality lookups on any index
+            for (c in comparisons) {
+                if (c.bound != null) continue
+                val index = indexes.firstOrNull { matches(it, c.path) } ?: continue
+                return scan(scan, RelIndexScan.create(scan.rex, index.name, c.rex, scan.projection))
+            }
+            // range lookups on sorted indexes
+            for (index in indexes) {
+                if (!index.isSorted) continue
+                val lower = comparisons.firstOrNull { it.bound?.lower == true && matches(index, it.path) }
+                val upper = comparisons.firstOrNull { it.bound?.lower == false && matches(index, it.path) }
+                if (lower == null && upper == null) continue
+                val indexScan = RelIndexScan.create(
+                    scan.rex,
+                    index.name,
+                    lower?.rex,
+                    lower?.bound?.inclusive ?: false,
+                    upper?.rex,
+                    upper?.bound?.inclusive ?: false,
+                    scan.projection,
+                )
+                return scan(scan, indexScan)
+            }
+            return null
+        }
+
+        /**
+         * Replaces an inner join with an index nested-loop join, where the conjuncts are over the joined row.
+         */
+        private fun join(join: RelJoin, conjuncts: List<Rex>): Rel? {
+            val scan = join.right as? RelScan ?: return null
+            val indexes = tables.resolve(scan.rex)?.getIndexes() ?: return null
+            if (indexes.isEmpty()) {
+                return null
+            }
+            val degree = join.left.type.degree
+            for (c in conjuncts.flatMap { comparisons(it, degree) }) {
+                if (c.bound != null) continue
+                val index = indexes.firstOrNull { matches(it, c.path) } ?: continue
+                // the key is evaluated within the right-hand side of the correlate, where the left-hand row is scope 1
+                val key = Shift.apply(c.rex)
+                val indexScan = scan(scan, RelIndexScan.create(scan.rex, index.name, key, scan.projection))
+                val correlate = RelCorrelate.create(join.left, indexScan, JoinType.INNER())
+                correlate.type = join.type
+                val condition = join.condition
+                if (condition is RexLit && condition.datum.type.code() == PType.BOOL && !condition.datum.isNull && condition.datum.boolean) {
+                    return correlate
+                }
+                return filter(correlate, condition, join.type)
+            }
+            return null
+        }
+
+        private fun scan(scan: RelScan, indexScan: RelIndexScan): RelIndexScan {
+            indexScan.type = scan.type
+            return indexScan
+        }
+
+        private fun filter(input: Rel, predicate: Rex, type: RelType): Rel {
+            val filter = operators.filter(input, predicate)
+            filter.type = type
+            return filter
+        }
+
+        private fun matches(index: Index, path: List<String>): Boolean {
+            val indexed = index.path
+            return indexed.size == path.size && indexed.indices.all { indexed[it].equals(path[it], ignoreCase = true) }
+        }
+
+        /**
+         * Returns the comparisons of a path over the given column with expressions over the columns before it.
+         */
+        private fun comparisons(rex: Rex, column: Int): List<Comparison> {
+            val name = name(rex) ?: return emptyList()
+            val args = args(rex) ?: return emptyList()
+            if (name == FunctionUtils.OP_BETWEEN && args.size == 3) {
+                val path = path(args[0], column) ?: return emptyList()
+                if (!independent(args[1], column) || !independent(args[2], column)) return emptyList()
+                return listOf(Comparison(path, args[1], Bound.GTE), Comparison(path, args[2], Bound.LTE))
+            }
+            if (args.size != 2) {
+                return emptyList()
+            }
+            val bound = when (name) {
+                FunctionUtils.OP_EQ -> null
+                FunctionUtils.OP_LT -> Bound.LT
+                FunctionUtils.OP_LTE -> Bound.LTE
+                FunctionUtils.OP_GT -> Bound.GT
+                FunctionUtils.OP_GTE -> Bound.GTE
+                else -> return emptyList()
+            }
+            path(args[0], column)?.let { path ->
+                if (independent(args[1], column)) return listOf(Comparison(path, args[1], bound))
+            }
+            path(args[1], column)?.let { path ->
+                if (independent(args[0], column)) return listOf(Comparison(path, args[0], bound?.let { flip(it) }))
+            }
+            return emptyList()
+        }
+
+        private fun flip(bound: Bound): Bound = when (bound) {
+            Bound.LT -> Bound.GT
+            Bound.LTE -> Bound.GTE
+            Bound.GT -> Bound.LT
+            Bound.GTE -> Bound.LTE
+        }
+
+        /**
+         * Splits a predicate into its conjuncts.
+         */
+        private fun conjuncts(rex: Rex): List<Rex> {
+            val name = name(rex)
+            val args = args(rex)
+            return when {
+                args != null && name == FunctionUtils.OP_AND -> args.flatMap { conjuncts(it) }
+                else -> listOf(rex)
+            }
+        }
+
+        /**
+         * @return the field steps if the rex is a chain of field steps over the given column of the input row; a cast to
+         * DYNAMIC, which the typer places around the typed operands of comparisons, is the identity and is skipped.
+         */
+        private fun path(rex: Rex, column: Int): List<String>? {
+            val steps = mutableListOf<String>()
+            var curr = rex
+            while (true) {
+                curr = when (curr) {
+                    is RexCast -> {
+                        if (curr.target.code() != PType.DYNAMIC) return null
+                        curr.operand
+                    }
+                    is RexPathSymbol -> {
+                        steps.add(curr.symbol)
+                        curr.operand
+                    }
+                    is RexPathKey -> {
+                        val datum = (curr.key as? RexLit)?.datum ?: return null
+                        if (datum.isNull || datum.isMissing) return null
+                        val code = datum.type.code()
+                        if (code != PType.STRING && code != PType.VARCHAR && code != PType.CHAR) return null
+                        steps.add(datum.string)
+                        curr.operand
+                    }
+                    is RexVar -> {
+                        if (curr.scope != 0 || curr.offset != column || steps.isEmpty()) return null
+                        return steps.reversed()
+                    }
+                    else -> return null
+                }
+            }
+        }
+
+        /**
+         * @return true if the rex only references the input row's columns before the given column, and has no subqueries.
+         */
+        private fun independent(rex: Rex, column: Int): Boolean {
+            var independent = true
+            val visitor = object : OperatorRewriter<Unit>() {
+                override fun visitVar(rex: RexVar, ctx: Unit): Operator {
+                    if (rex.scope == 0 && rex.offset >= column) independent = false
+                    return rex
+                }
+                override fun visitSelect(rex: RexSelect, ctx: Unit): Operator = dependent(rex)
+                override fun visitSubquery(rex: RexSubquery, ctx: Unit): Operator = dependent(rex)
+                override fun visitSubqueryComp(rex: RexSubqueryComp, ctx: Unit): Operator = dependent(rex)
+                override fun visitSubqueryIn(rex: RexSubqueryIn, ctx: Unit): Operator = dependent(rex)
+                override fun visitSubqueryTest(rex: RexSubqueryTest, ctx: Unit): Operator = dependent(rex)
+                override fun visitPivot(rex: RexPivot, ctx: Unit): Operator = dependent(rex)
+                private fun dependent(rex: Rex): Operator {
+                    independent = false
+                    return rex
+                }
+            }
+            visitor.visit(rex, Unit, Rex::class.java)
+            return independent
+        }
+
+        private fun name(rex: Rex): String? = when (rex) {
+            is RexCall -> rex.function.signature.name
+            is RexDispatch -> rex.name
+            else -> null
+        }
+
+        private fun args(rex: Rex): List<Rex>? = when (rex) {
+            is RexCall -> rex.args
+            is RexDispatch -> rex.args
+            else -> null
+        }
+    }
+
+    /**
+     * Moves every variable one scope outwards, for expressions which are evaluated with an additional row in scope.
+     */
+    private object Shift : OperatorRewriter<Unit>() {
+
+        fun apply(rex: Rex): Rex = visit(rex, Unit, Rex::class.java)
+
+        override fun visitVar(rex: RexVar, ctx: Unit): Operator = RexVar.create(rex.scope + 1, rex.offset, rex.type.pType)
+    }
+}
@@ -0,0 +1,377 @@
+package org.partiql.planner.internal.transforms
+
+import org.partiql.plan.Action
+import org.partiql.plan.JoinType
+import org.partiql.plan.Operator
+import org.partiql.plan.OperatorRewriter
+import org.partiql.plan.Operators
+import org.partiql.plan.Plan
+import org.partiql.plan.rel.Rel
+import org.partiql.plan.rel.RelFilter
+import org.partiql.plan.rel.RelJoin
+import org.partiql.plan.rel.RelType
+import org.partiql.plan.rex.Rex
+import org.partiql.plan.rex.RexCall
+import org.partiql.plan.rex.RexDispatch
+import org.partiql.plan.rex.RexLit
+import org.partiql.plan.rex.RexPivot
+import org.partiql.plan.rex.RexSelect
+import org.partiql.plan.rex.RexSubquery
+import org.partiql.plan.rex.RexSubqueryComp
+import org.partiql.plan.rex.RexSubqueryIn
+import org.partiql.plan.rex.RexSubqueryTest
+import org.partiql.plan.rex.RexVar
+import org.partiql.planner.internal.stats.CardinalityEstimator
+import org.partiql.planner.internal.util.FunctionUtils
+import org.partiql.spi.types.PType
+import org.partiql.spi.types.PTypeField
+import org.partiql.spi.value.Datum
+
+/**
+ * Reorders chains of inner joins using the estimated cardinalities of [CardinalityEstimator].
+ *
+ * A chain is a tree of [JoinType.INNER] joins, optionally beneath a filter, such as the plan of
+ * `FROM a, b, c WHERE a.x = b.x AND b.y = c.y`. The join conditions and the filter's conjuncts are collected over the
+ * columns of the chain's leaves, then a dynamic program over the subsets of leaves finds the left-deep join order which
+ * minimizes the sum of the estimated intermediate cardinalities. A conjunct over the columns of one leaf filters that
+ * leaf, and any other conjunct is re-attached to the first join at which all of its columns are available. Conjuncts of
+ * the filter which contain subqueries stay in a filter above the chain. A projection above the reordered joins restores
+ * the original column order.
+ *
+ * A chain is left as is if any leaf has no statistics, if it has more than [MAX_LEAVES] leaves, or if a join
+ * condition contains a subquery. If no order is estimated to be cheaper than the syntactic one, a chain beneath a
+ * filter is rebuilt in its syntactic order so that the filter's conjuncts become join conditions rather than filters of
+ * cross products; any other chain is left as is.
+ */
+internal object JoinReordering {
+
+    /**
+     * The largest chain to reorder; the search is exponential in the number of leaves.
+     */
+    private const val MAX_LEAVES = 10
+
+    fun apply(plan: Plan, estimator: CardinalityEstimator): Plan {
+        val action = plan.action as? Action.Query ?: return plan
+        val rex = Rewriter(estimator).visit(action.rex, Unit, Rex::class.java)
+        if (rex === action.rex) {
+            return plan
+        }
+        val query = Action.Query { rex }
+        return Plan { query }
+    }
+
+    /**
+     * A predicate over the concatenated columns of all leaves of a chain.
+     *
+     * @property rex the predicate, referencing global column offsets.
+     * @property leaves the bitset of the leaves referenced by the predicate.
+     */
+    private class Conjunct(val rex: Rex, val leaves: Int)
+
+    /**
+     * The leaves of a chain and their column offsets within the chain's row.
+     */
+    private class Chain(val leaves: List<Rel>) {
+
+        val offsets: IntArray = IntArray(leaves.size)
+        val fields: List<PTypeField>
+
+        init {
+            val fields = mutableListOf<PTypeField>()
+            for ((i, leaf) in leaves.withIndex()) {
+                offsets[i] = fields.size
+                fields.addAll(leaf.type.fields)
+            }
+            this.fields = fields
+        }
+
+        fun leaf(column: Int): Int {
+            var i = offsets.size - 1
+            while (offsets[i] > column) i--
+            return i
+        }
+    }
+
+    private class Rewriter(private val estimator: CardinalityEstimator) : OperatorRewriter<Unit>() {
+
+        private val operators = Operators.STANDARD
+
+        override fun visitFilter(rel: RelFilter, ctx: Unit): Operator {
+            val input = rel.input
+            if (input is RelJoin && input.joinType.code() == JoinType.INNER) {
+                reorder(input, listOf(rel.predicate), rel.type)?.let { return it }
+            }
+            return super.visitFilter(rel, ctx)
+        }
+
+        override fun visitJoin(rel: RelJoin, ctx: Unit): Operator {
+            if (rel.joinType.code() == JoinType.INNER) {
+                reorder(rel, emptyList(), rel.type)?.let { return it }
+            }
+            return super.visitJoin(rel, ctx)
+        }
+
+        /**
+         * @return the reordered chain, or null if the chain should keep its syntactic order.
+         */
+        private fun reorder(root: RelJoin, predicates: List<Rex>, type: RelType): Rel? {
+            // flatten the chain, collecting each join condition over global column offsets
+            val leaves = mutableListOf<Rel>()
+            val conditions = mutableListOf<Pair<Rex, Int>>()
+            flatten(root, leaves, conditions)
+            if (leaves.size < 2 || leaves.size > MAX_LEAVES || (leaves.size == 2 && predicates.isEmpty())) {
+                return null
+            }
+            val chain = Chain(leaves)
+            val rows = DoubleArray(leaves.size)
+            for ((i, leaf) in leaves.withIndex()) {
+                rows[i] = estimator.rows(leaf) ?: return null
+            }
+            val conjuncts = mutableListOf<Conjunct>()
+            try {
+                for ((condition, offset) in conditions) {
+                    conjuncts(Remapper(chain.fields.size) { it + offset }.apply(condition), chain, conjuncts)
+                }
+            } catch (e: Unremappable) {
+                return null
+            }
+            // the filter's conjuncts with subqueries stay above the chain, over its original column order
+            val residuals = mutableListOf<Rex>()
+            var pushed = false
+            for (predicate in predicates.flatMap { split(it) }) {
+                try {
+                    conjuncts(Remapper(chain.fields.size) { it }.apply(predicate), chain, conjuncts)
+                    pushed = true
+                } catch (e: Unremappable) {
+                    residuals.add(visit(predicate, Unit, Rex::class.java))
+                }
+            }
+            val selectivities = conjuncts.map { c ->
+                estimator.selectivity(c.rex) { g ->
+                    val i = chain.leaf(g)
+                    estimator.column(leaves[i], g - chain.offsets[i])
+                }
+            }
+            val order = search(rows, conjuncts, selectivities)
+                ?: if (pushed) IntArray(leaves.size) { it } else return null
+            var rel = build(chain, order, conjuncts)
+            if (order.withIndex().all { (k, i) -> k == i }) {
+                rel.type = type
+            } else {
+                // restore the original column order
+                val positions = IntArray(chain.fields.size)
+                var k = 0
+                for (i in order) {
+                    for (j in leaves[i].type.fields.indices) {
+                        positions[chain.offsets[i] + j] = k++
+                    }
+                }
+                val projections = chain.fields.mapIndexed { g, field ->
+                    operators.variable(0, positions[g], field.type)
+                }
+                rel = operators.project(rel, projections)
+                rel.type = type
+            }
+            for (residual in residuals) {
+                rel = operators.filter(rel, residual)
+                rel.type = type
+            }
+            return rel
+        }
+
+        /**
+         * Collects the leaves of an inner join chain; each condition is paired with the offset of its join's columns.
+         */
+        private fun flatten(rel: Rel, leaves: MutableList<Rel>, conditions: MutableList<Pair<Rex, Int>>) {
+            if (rel is RelJoin && rel.joinType.code() == JoinType.INNER) {
+                val offset = leaves.sumOf { it.type.degree }
+                flatten(rel.left, leaves, conditions)
+                flatten(rel.right, leaves, conditions)
+                conditions.add(rel.condition to offset)
+            } else {
+                leaves.add(visitRel(rel, Unit))
+            }
+        }
+
+        /**
+         * Splits a predicate into its conjuncts, dropping those which are trivially true.
+         */
+        private fun conjuncts(rex: Rex, chain: Chain, acc: MutableList<Conjunct>) {
+            for (conjunct in split(rex)) {
+                var leaves = 0
+                Columns { leaves = leaves or (1 shl chain.leaf(it)) }.visit(conjunct, Unit, Rex::class.java)
+                acc.add(Conjunct(conjunct, leaves))
+            }
+        }
+
+        private fun split(rex: Rex): List<Rex> {
+            if (rex is RexLit && rex.datum.type.code() == PType.BOOL && !rex.datum.isNull && rex.datum.boolean) {
+                return emptyList()
+            }
+            val args = when {
+                rex is RexCall && rex.function.signature.name == FunctionUtils.OP_AND -> rex.args
+                rex is RexDispatch && rex.name == FunctionUtils.OP_AND -> rex.args
+                else -> null
+            }
+            return args?.flatMap { split(it) } ?: listOf(rex)
+        }
+
+        /**
+         * Finds the cheapest left-deep order of the leaves, or null if it is no cheaper than the syntactic order.
+         */
+        private fun search(rows: DoubleArray, conjuncts: List<Conjunct>, selectivities: List<Double>): IntArray? {
+            val n = rows.size
+            val all = (1 shl n) - 1
+            // estimated cardinality of joining each subset of leaves
+            val cardinality = DoubleArray(all + 1)
+            for (s in 1..all) {
+                var c = 1.0
+                for (i in 0 until n) {
+                    if (s and (1 shl i) != 0) c *= rows[i]
+                }
+                for ((j, conjunct) in conjuncts.withIndex()) {
+                    if (conjunct.leaves != 0 && conjunct.leaves and s == conjunct.leaves) c *= selectivities[j]
+                }
+                cardinality[s] = c
+            }
+            // cost of a left-deep plan is the sum of its intermediate cardinalities
+            val cost = DoubleArray(all + 1) { Double.POSITIVE_INFINITY }
+            val last = IntArray(all + 1) { -1 }
+            for (i in 0 until n) {
+                cost[1 shl i] = 0.0
+                last[1 shl i] = i
+            }
+            for (s in 1..all) {
+                if (Integer.bitCount(s) < 2) continue
+                for (i in 0 until n) {
+                    val bit = 1 shl i
+                    if (s and bit == 0) continue
+                    val c = cost[s xor bit] + cardinality[s]
+                    // prefer the smaller right-hand side on ties since it is the materialized side
+                    if (c < cost[s] || (c == cost[s] && rows[i] < rows[last[s]])) {
+                        cost[s] = c
+                        last[s] = i
+                    }
+                }
+            }
+            var syntactic = 0.0
+            for (k in 2..n) {
+                syntactic += cardinality[(1 shl k) - 1]
+            }
+            if (cost[all] >= syntactic) {
+                return null
+            }
+            val order = IntArray(n)
+            var s = all
+            for (k in n - 1 downTo 0) {
+                order[k] = last[s]
+                s = s xor (1 shl last[s])
+            }
+            return order
+        }
+
+        /**
+         * Builds the left-deep joins of the given order. Each conjunct over one leaf filters that leaf, and any other
+         * is placed at the first join where it applies.
+         */
+        private fun build(chain: Chain, order: IntArray, conjuncts: List<Conjunct>): Rel {
+            val placed = BooleanArray(conjuncts.size)
+            val inputs = chain.leaves.mapIndexed { i, leaf ->
+                var input = leaf
+                for ((j, conjunct) in conjuncts.withIndex()) {
+                    if (conjunct.leaves == 1 shl i) {
+                        placed[j] = true
+                        val predicate = Remapper(chain.fields.size) { it - chain.offsets[i] }.apply(conjunct.rex)
+                        input = operators.filter(input, predicate)
+                        input.type = leaf.type
+                    }
+                }
+                input
+            }
+            val positions = IntArray(chain.fields.size) { -1 }
+            val fields = mutableListOf<PTypeField>()
+            fun add(i: Int) {
+                val leaf = chain.leaves[i]
+                for (j in leaf.type.fields.indices) {
+                    positions[chain.offsets[i] + j] = fields.size
+                    fields.add(leaf.type.fields[j])
+                }
+            }
+            var rel = inputs[order[0]]
+            var available = 1 shl order[0]
+            add(order[0])
+            for (k in 1 until order.size) {
+                val i = order[k]
+                available = available or (1 shl i)
+                add(i)
+                val type = RelType.of(*fields.toTypedArray())
+                val applicable = mutableListOf<Rex>()
+                for ((j, conjunct) in conjuncts.withIndex()) {
+                    if (!placed[j] && conjunct.leaves and available == conjunct.leaves) {
+                        placed[j] = true
+                        applicable.add(Remapper(chain.fields.size) { positions[it] }.apply(conjunct.rex))
+                    }
+                }
+                val condition = applicable.firstOrNull() ?: operators.lit(Datum.bool(true))
+                rel = operators.join(rel, inputs[i], condition, JoinType.INNER())
+                rel.type = type
+                for (predicate in applicable.drop(1)) {
+                    rel = operators.filter(rel, predicate)
+                    rel.type = type
+                }
+            }
+            return rel
+        }
+    }
+
+    /**
+     * Thrown by [Remapper] for an expression whose columns it cannot rewrite, so that the expression keeps its place;
+     * any other exception is an error of the plan and propagates.
+     */
+    private class Unremappable(message: String) : Exception(message)
+
+    /**
+     * Rewrites the input row's column offsets; subqueries are not supported as they reference the row at other scopes.
+     */
+    private class Remapper(private val degree: Int, private val mapping: (Int) -> Int) : OperatorRewriter<Unit>() {
+
+        fun apply(rex: Rex): Rex = visit(rex, Unit, Rex::class.java)
+
+        override fun visitVar(rex: RexVar, ctx: Unit): Operator {
+            if (rex.scope != 0) {
+                return rex
+            }
+            if (rex.offset < 0 || rex.offset >= degree) {
+                throw Unremappable("Column ${rex.offset} is out of range")
+            }
+            return RexVar.create(0, mapping(rex.offset), rex.type.pType)
+        }
+
+        override fun visitSelect(rex: RexSelect, ctx: Unit): Operator = unsupported(rex)
+
+        override fun visitSubquery(rex: RexSubquery, ctx: Unit): Operator = unsupported(rex)
+
+        override fun visitSubqueryComp(rex: RexSubqueryComp, ctx: Unit): Operator = unsupported(rex)
+
+        override fun visitSubqueryIn(rex: RexSubqueryIn, ctx: Unit): Operator = unsupported(rex)
+
+        override fun visitSubqueryTest(rex: RexSubqueryTest, ctx: Unit): Operator = unsupported(rex)
+
+        override fun visitPivot(rex: RexPivot, ctx: Unit): Operator = unsupported(rex)
+
+        private fun unsupported(rex: Rex): Nothing {
+            throw Unremappable("Unsupported operator ${rex.javaClass.simpleName}")
+        }
+    }
+
+    /**
+     * Visits the columns of the input row referenced by an expression.
+     */
+    private class Columns(private val action: (Int) -> Unit) : OperatorRewriter<Unit>() {
+
+        override fun visitVar(rex: RexVar, ctx: Unit): Operator {
+            if (rex.scope == 0) action(rex.offset)
+            return rex
+        }
+    }
+}
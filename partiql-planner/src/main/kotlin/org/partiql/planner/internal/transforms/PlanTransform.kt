@@ -7,6 +7,7 @@ import org.partiql.plan.JoinType
 import org.partiql.plan.Operators
 import org.partiql.plan.Plan
 import org.partiql.plan.SymbolTable
+import org.partiql.plan.WindowFrame
 import org.partiql.plan.WindowFunctionNode
 import org.partiql.plan.WindowFunctionSignature
 import org.partiql.plan.WithListElement
@@ -281,9 +282,31 @@ internal class PlanTransform(private val flags: Set<PlannerFlag>, private val us
                 node.functions.map { visitRelOpWindowWindowFunction(it, ctx) },
                 collations,
                 partitions,
+                node.frame?.let { frame(it) },
             )
         }
 
+        @Suppress("DEPRECATION")
+        private fun frame(node: Rel.Op.Window.Frame): WindowFrame {
+            val units = when (node.units) {
+                Rel.Op.Window.FrameUnits.ROWS -> WindowFrame.Units.ROWS()
+                Rel.Op.Window.FrameUnits.RANGE -> WindowFrame.Units.RANGE()
+            }
+            return WindowFrame(units, frameBound(node.start), frameBound(node.end))
+        }
+
+        @Suppress("DEPRECATION")
+        private fun frameBound(node: Rel.Op.Window.FrameBound): WindowFrame.Bound {
+            val type = when (node.type) {
+                Rel.Op.Window.FrameBoundType.UNBOUNDED_PRECEDING -> WindowFrame.Bound.Type.UNBOUNDED_PRECEDING()
+                Rel.Op.Window.FrameBoundType.PRECEDING -> WindowFrame.Bound.Type.PRECEDING()
+                Rel.Op.Window.FrameBoundType.CURRENT_ROW -> WindowFrame.Bound.Type.CURRENT_ROW()
+                Rel.Op.Window.FrameBoundType.FOLLOWING -> WindowFrame.Bound.Type.FOLLOWING()
+                Rel.Op.Window.FrameBoundType.UNBOUNDED_FOLLOWING -> WindowFrame.Bound.Type.UNBOUNDED_FOLLOWING()
+            }
+            return WindowFrame.Bound(type, node.offset?.let { visitRex(it, it.type) })
+        }
+
         override fun visitRelOpWindowWindowFunction(node: Rel.Op.Window.WindowFunction, ctx: PType): WindowFunctionNode {
             val signature = WindowFunctionSignature(node.name, node.parameterTypes!!, node.returnType!!, node.isIgnoreNulls)
             val args = node.args.map { visitRex(it, it.type) }
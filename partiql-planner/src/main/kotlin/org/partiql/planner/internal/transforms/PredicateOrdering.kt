@@ -0,0 +1,113 @@
+package org.partiql.planner.internal.transforms
+
+import org.partiql.plan.Action
+import org.partiql.plan.Operator
+import org.partiql.plan.OperatorRewriter
+import org.partiql.plan.Plan
+import org.partiql.plan.rel.Rel
+import org.partiql.plan.rex.Rex
+import org.partiql.plan.rex.RexCall
+import org.partiql.plan.rex.RexCast
+import org.partiql.plan.rex.RexDispatch
+import org.partiql.plan.rex.RexLit
+import org.partiql.plan.rex.RexVar
+import org.partiql.planner.internal.util.FunctionUtils
+
+/**
+ * Orders the operands of each chain of `AND`s (or `OR`s) by their estimated evaluation cost, cheapest first, so that
+ * the evaluator's short-circuiting skips the expensive operands as often as possible.
+ *
+ * The cost of an expression is a rough count of the work needed to evaluate it: literals are free, variables and path
+ * steps are cheap, function calls cost more when dispatched at runtime or when they match patterns (`LIKE`), and
+ * subqueries are the most expensive. Operands with equal costs keep their original order.
+ *
+ * Reordering does not change the result under three-valued logic, but it may where an operand is not a boolean or
+ * raises an error, as the operands after a decisive one are not evaluated.
+ */
+internal object PredicateOrdering {
+
+    private const val CALL = 2
+    private const val DISPATCH = 3
+    private const val PATTERN = 20
+    private const val SUBQUERY = 1000
+
+    fun apply(plan: Plan): Plan {
+        val action = plan.action as? Action.Query ?: return plan
+        val rex = Rewriter.visit(action.rex, Unit, Rex::class.java)
+        if (rex === action.rex) {
+            return plan
+        }
+        val query = Action.Query { rex }
+        return Plan { query }
+    }
+
+    private object Rewriter : OperatorRewriter<Unit>() {
+
+        override fun visitCall(rex: RexCall, ctx: Unit): Operator {
+            val call = super.visitCall(rex, ctx) as RexCall
+            val name = call.function.signature.name
+            if (call.args.size != 2 || (name != FunctionUtils.OP_AND && name != FunctionUtils.OP_OR)) {
+                return call
+            }
+            val operands = operands(call, name)
+            val ordered = operands.sortedBy { cost(it) }
+            if (ordered == operands) {
+                return call
+            }
+            return ordered.reduce { acc, next -> RexCall.create(call.function, listOf(acc, next)) }
+        }
+
+        override fun visitDispatch(rex: RexDispatch, ctx: Unit): Operator {
+            val dispatch = super.visitDispatch(rex, ctx) as RexDispatch
+            val name = dispatch.name
+            if (dispatch.args.size != 2 || (name != FunctionUtils.OP_AND && name != FunctionUtils.OP_OR)) {
+                return dispatch
+            }
+            val operands = operands(dispatch, name)
+            val ordered = operands.sortedBy { cost(it) }
+            if (ordered == operands) {
+                return dispatch
+            }
+            return ordered.reduce { acc, next -> RexDispatch.create(name, dispatch.functions, listOf(acc, next)) }
+        }
+
+        /**
+         * Flattens a chain of calls (or dispatches) of the same logical operator into its operands, in order.
+         */
+        private fun operands(rex: Rex, name: String): List<Rex> = when {
+            rex is RexCall && rex.args.size == 2 && rex.function.signature.name == name -> {
+                rex.args.flatMap { operands(it, name) }
+            }
+            rex is RexDispatch && rex.args.size == 2 && rex.name == name -> rex.args.flatMap { operands(it, name) }
+            else -> listOf(rex)
+        }
+    }
+
+    /**
+     * Estimates the cost of evaluating an expression, see [PredicateOrdering].
+     */
+    private fun cost(operator: Operator): Int {
+        if (operator is Rel) {
+            return SUBQUERY
+        }
+        var cost = when (operator) {
+            is RexLit -> 0
+            is RexVar -> 1
+            is RexCall -> if (pattern(operator.function.signature.name)) PATTERN else CALL
+            is RexDispatch -> if (pattern(operator.name)) PATTERN else DISPATCH
+            is RexCast -> CALL
+            else -> 1
+        }
+        for (operand in operator.operands) {
+            for (child in operand) {
+                cost += cost(child)
+                if (cost >= SUBQUERY) {
+                    return SUBQUERY
+                }
+            }
+        }
+        return cost
+    }
+
+    private fun pattern(name: String): Boolean = name == FunctionUtils.OP_LIKE || name == FunctionUtils.OP_LIKE_ESCAPE
+}
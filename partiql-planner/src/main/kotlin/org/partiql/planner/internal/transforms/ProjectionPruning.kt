@@ -0,0 +1,469 @@
+package org.partiql.planner.internal.transforms
+
+import org.partiql.plan.Action
+import org.partiql.plan.Operator
+import org.partiql.plan.OperatorRewriter
+import org.partiql.plan.Plan
+import org.partiql.plan.rel.Rel
+import org.partiql.plan.rel.RelAggregate
+import org.partiql.plan.rel.RelCorrelate
+import org.partiql.plan.rel.RelDistinct
+import org.partiql.plan.rel.RelExcept
+import org.partiql.plan.rel.RelExclude
+import org.partiql.plan.rel.RelFilter
+import org.partiql.plan.rel.RelIntersect
+import org.partiql.plan.rel.RelIterate
+import org.partiql.plan.rel.RelJoin
+import org.partiql.plan.rel.RelLimit
+import org.partiql.plan.rel.RelOffset
+import org.partiql.plan.rel.RelProject
+import org.partiql.plan.rel.RelScan
+import org.partiql.plan.rel.RelSort
+import org.partiql.plan.rel.RelUnion
+import org.partiql.plan.rel.RelUnpivot
+import org.partiql.plan.rel.RelWindow
+import org.partiql.plan.rex.Rex
+import org.partiql.plan.rex.RexArray
+import org.partiql.plan.rex.RexBag
+import org.partiql.plan.rex.RexCall
+import org.partiql.plan.rex.RexCase
+import org.partiql.plan.rex.RexCast
+import org.partiql.plan.rex.RexCoalesce
+import org.partiql.plan.rex.RexDispatch
+import org.partiql.plan.rex.RexError
+import org.partiql.plan.rex.RexLit
+import org.partiql.plan.rex.RexMap
+import org.partiql.plan.rex.RexMapDynamic
+import org.partiql.plan.rex.RexNullIf
+import org.partiql.plan.rex.RexPathIndex
+import org.partiql.plan.rex.RexPathKey
+import org.partiql.plan.rex.RexPathSymbol
+import org.partiql.plan.rex.RexPivot
+import org.partiql.plan.rex.RexSelect
+import org.partiql.plan.rex.RexSpread
+import org.partiql.plan.rex.RexStruct
+import org.partiql.plan.rex.RexSubquery
+import org.partiql.plan.rex.RexTable
+import org.partiql.plan.rex.RexTableRef
+import org.partiql.plan.rex.RexVar
+import org.partiql.spi.catalog.Projection
+import org.partiql.spi.types.PType
+import java.util.IdentityHashMap
+
+/**
+ * Computes which paths of each scanned record are referenced by a query, and attaches them as a [Projection] to the
+ * [RelScan] and [RelIterate] operators so that records are narrowed where they enter the plan. Narrowed records are
+ * then carried through joins, sorts, and aggregations in place of the full records.
+ *
+ * The analysis walks the plan top-down. Each relation receives the demand over its output columns from its consumer
+ * and derives the demand over its input's columns from its own expressions. A column which is only accessed through
+ * field steps (`x.a.b` or `x['a']`) demands just those paths; any other use of a column demands the whole value.
+ *
+ * Expressions are evaluated against a stack of rows (see [RexVar]) where scope 0 is the operator's input row; the
+ * analysis mirrors this with a stack of demands so that correlated references are attributed to the right relation.
+ *
+ * This pass is conservative; if the plan contains an operator it does not understand, the plan is returned unchanged.
+ */
+internal object ProjectionPruning {
+
+    fun apply(plan: Plan): Plan {
+        val action = plan.action as? Action.Query ?: return plan
+        val demands = try {
+            Analyzer().analyze(action.rex)
+        } catch (e: Unprunable) {
+            return plan
+        }
+        if (demands.isEmpty()) {
+            return plan
+        }
+        val rex = Rewriter(demands).visit(action.rex, Unit, Rex::class.java)
+        if (rex === action.rex) {
+            return plan
+        }
+        val query = Action.Query { rex }
+        return Plan { query }
+    }
+
+    /**
+     * Thrown by the analysis for a plan it does not understand, so that [apply] returns the plan unchanged; any other
+     * exception is an error of the plan and propagates.
+     */
+    private class Unprunable(message: String) : Exception(message)
+
+    /**
+     * A tree of referenced paths; a node is a leaf once its entire value is referenced.
+     */
+    private class Demand {
+
+        private var all = false
+        private val children = mutableMapOf<String, Demand>()
+
+        fun all() {
+            all = true
+            children.clear()
+        }
+
+        fun add(path: List<String>) {
+            var node = this
+            for (step in path) {
+                if (node.all) return
+                node = node.children.getOrPut(step.lowercase()) { Demand() }
+            }
+            node.all()
+        }
+
+        fun merge(other: Demand) {
+            if (all) return
+            if (other.all) {
+                all()
+                return
+            }
+            for ((k, v) in other.children) {
+                children.getOrPut(k) { Demand() }.merge(v)
+            }
+        }
+
+        /**
+         * @return the projection of this demand, or null if the whole value is referenced.
+         */
+        fun toProjection(): Projection? {
+            if (all) return null
+            val paths = mutableListOf<List<String>>()
+            collect(mutableListOf(), paths)
+            return Projection.of(paths)
+        }
+
+        private fun collect(prefix: MutableList<String>, acc: MutableList<List<String>>) {
+            if (all) {
+                acc.add(prefix.toList())
+                return
+            }
+            for ((k, v) in children) {
+                prefix.add(k)
+                v.collect(prefix, acc)
+                prefix.removeAt(prefix.size - 1)
+            }
+        }
+    }
+
+    /**
+     * The demand over the columns of a relation.
+     */
+    private class Columns(degree: Int) {
+
+        private val columns = arrayOfNulls<Demand>(degree)
+
+        val size: Int
+            get() = columns.size
+
+        operator fun get(i: Int): Demand {
+            if (i < 0 || i >= columns.size) {
+                throw Unprunable("Column $i is out of range")
+            }
+            return columns[i] ?: Demand().also { columns[i] = it }
+        }
+
+        fun all() {
+            for (i in columns.indices) get(i).all()
+        }
+
+        /**
+         * @return the demand of the i-th column, or an empty demand if it is never referenced.
+         */
+        fun getOrEmpty(i: Int): Demand = columns[i] ?: Demand()
+
+        companion object {
+
+            /**
+             * The (empty) row of operators whose expressions are evaluated without an input row.
+             */
+            fun empty() = Columns(0)
+        }
+    }
+
+    /**
+     * Computes the demand of each [RelScan] and [RelIterate]; frames are ordered from innermost (scope 0) outwards.
+     */
+    private class Analyzer {
+
+        private val leaves = IdentityHashMap<Rel, Demand>()
+
+        fun analyze(rex: Rex): Map<Rel, Projection> {
+            rex(rex, emptyList())
+            val projections = IdentityHashMap<Rel, Projection>()
+            for ((rel, demand) in leaves) {
+                val projection = demand.toProjection() ?: continue
+                projections[rel] = projection
+            }
+            return projections
+        }
+
+        private fun degree(rel: Rel): Int = rel.type.degree
+
+        private fun leaf(rel: Rel, demand: Demand) {
+            val existing = leaves[rel]
+            if (existing == null) {
+                leaves[rel] = Demand().also { it.merge(demand) }
+            } else {
+                existing.merge(demand)
+            }
+        }
+
+        private fun rel(rel: Rel, demand: Columns, outer: List<Columns>) {
+            when (rel) {
+                is RelScan -> {
+                    rex(rel.rex, listOf(Columns.empty()) + outer)
+                    leaf(rel, demand.getOrEmpty(0))
+                }
+                is RelIterate -> {
+                    rex(rel.rex, listOf(Columns.empty()) + outer)
+                    leaf(rel, demand.getOrEmpty(0))
+                }
+                is RelUnpivot -> rex(rel.rex, listOf(Columns.empty()) + outer)
+                is RelFilter -> {
+                    val frames = listOf(demand) + outer
+                    rex(rel.predicate, frames)
+                    rel(rel.input, demand, outer)
+                }
+                is RelSort -> {
+                    val frames = listOf(demand) + outer
+                    rel.collations.forEach { rex(it.column, frames) }
+                    rel(rel.input, demand, outer)
+                }
+                is RelLimit -> {
+                    rex(rel.limit, listOf(Columns.empty()) + outer)
+                    rel(rel.input, demand, outer)
+                }
+                is RelOffset -> {
+                    rex(rel.offset, listOf(Columns.empty()) + outer)
+                    rel(rel.input, demand, outer)
+                }
+                is RelProject -> {
+                    val input = Columns(degree(rel.input))
+                    val frames = listOf(input) + outer
+                    rel.projections.forEach { rex(it, frames) }
+                    rel(rel.input, input, outer)
+                }
+                is RelAggregate -> {
+                    val input = Columns(degree(rel.input))
+                    val frames = listOf(input) + outer
+                    rel.measures.forEach { m -> m.args.forEach { rex(it, frames) } }
+                    rel.groups.forEach { rex(it, frames) }
+                    rel(rel.input, input, outer)
+                }
+                is RelWindow -> {
+                    // output is the input row followed by the window function results
+                    val input = Columns(degree(rel.input))
+                    for (i in 0 until input.size) {
+                        input[i].merge(demand.getOrEmpty(i))
+                    }
+                    val frames = listOf(input) + outer
+                    rel.partitions.forEach { rex(it, frames) }
+                    rel.collations.forEach { rex(it.column, frames) }
+                    rel.windowFunctions.forEach { f -> f.arguments.forEach { rex(it, frames) } }
+                    rel.frame?.let { f -> listOfNotNull(f.start.offset, f.end.offset).forEach { rex(it, frames) } }
+                    rel(rel.input, input, outer)
+                }
+                is RelJoin -> {
+                    val lhs = Columns(degree(rel.left))
+                    val rhs = Columns(degree(rel.right))
+                    val joined = Joined(lhs, rhs)
+                    for (i in 0 until demand.size) {
+                        joined[i].merge(demand.getOrEmpty(i))
+                    }
+                    rex(rel.condition, listOf(joined.columns()) + outer)
+                    joined.flush()
+                    rel(rel.left, lhs, outer)
+                    rel(rel.right, rhs, outer)
+                }
+                is RelCorrelate -> {
+                    val lhs = Columns(degree(rel.left))
+                    val rhs = Columns(degree(rel.right))
+                    val joined = Joined(lhs, rhs)
+                    for (i in 0 until demand.size) {
+                        joined[i].merge(demand.getOrEmpty(i))
+                    }
+                    joined.flush()
+                    // the right-hand side is evaluated with the left-hand row in scope
+                    rel(rel.right, rhs, listOf(lhs) + outer)
+                    rel(rel.left, lhs, outer)
+                }
+                is RelDistinct, is RelExclude -> {
+                    // distinct compares whole rows, and exclusions are applied to whole values
+                    val input = Columns(degree(rel.input(0)))
+                    input.all()
+                    rel(rel.input(0), input, outer)
+                }
+                is RelUnion, is RelIntersect, is RelExcept -> {
+                    for (operand in rel.operands) {
+                        for (op in operand) {
+                            val input = Columns(degree(op as Rel))
+                            input.all()
+                            rel(op, input, outer)
+                        }
+                    }
+                }
+                else -> throw Unprunable("Unsupported operator ${rel.javaClass.simpleName}")
+            }
+        }
+
+        private fun Rel.input(i: Int): Rel = operands[i].first() as Rel
+
+        private fun rex(rex: Rex, frames: List<Columns>) {
+            val path = path(rex)
+            if (path != null) {
+                val (v, steps) = path
+                frame(v, frames)[v.offset].add(steps)
+                return
+            }
+            when (rex) {
+                is RexVar -> frame(rex, frames)[rex.offset].all()
+                is RexLit, is RexError, is RexTable, is RexTableRef -> Unit
+                is RexPathSymbol -> rex(rex.operand, frames)
+                is RexPathKey -> {
+                    rex(rex.operand, frames)
+                    rex(rex.key, frames)
+                }
+                is RexPathIndex -> {
+                    rex(rex.operand, frames)
+                    rex(rex.index, frames)
+                }
+                is RexCall -> rex.args.forEach { rex(it, frames) }
+                is RexDispatch -> rex.args.forEach { rex(it, frames) }
+                is RexCast -> rex(rex.operand, frames)
+                is RexCoalesce -> rex.args.forEach { rex(it, frames) }
+                is RexNullIf -> {
+                    rex(rex.v1, frames)
+                    rex(rex.v2, frames)
+                }
+                is RexCase -> {
+                    rex.match?.let { rex(it, frames) }
+                    rex.branches.forEach {
+                        rex(it.condition, frames)
+                        rex(it.result, frames)
+                    }
+                    rex.default?.let { rex(it, frames) }
+                }
+                is RexArray -> rex.values.forEach { rex(it, frames) }
+                is RexBag -> rex.values.forEach { rex(it, frames) }
+                is RexStruct -> rex.fields.forEach {
+                    rex(it.key, frames)
+                    rex(it.value, frames)
+                }
+                is RexMap -> rex.entries.forEach {
+                    rex(it.key, frames)
+                    rex(it.value, frames)
+                }
+                is RexMapDynamic -> rex.entries.forEach {
+                    rex(it.key, frames)
+                    rex(it.value, frames)
+                }
+                is RexSpread -> rex.args.forEach { rex(it, frames) }
+                is RexSelect -> {
+                    val input = Columns(degree(rex.input))
+                    rex(rex.constructor, listOf(input) + frames)
+                    rel(rex.input, input, frames)
+                }
+                is RexSubquery -> {
+                    val input = Columns(degree(rex.input))
+                    rex(rex.constructor, listOf(input) + frames)
+                    rel(rex.input, input, frames)
+                }
+                is RexPivot -> {
+                    val input = Columns(degree(rex.input))
+                    val inner = listOf(input) + frames
+                    rex(rex.key, inner)
+                    rex(rex.value, inner)
+                    rel(rex.input, input, frames)
+                }
+                else -> throw Unprunable("Unsupported operator ${rex.javaClass.simpleName}")
+            }
+        }
+
+        private fun frame(v: RexVar, frames: List<Columns>): Columns {
+            if (v.scope < 0 || v.scope >= frames.size) {
+                throw Unprunable("Variable scope ${v.scope} is out of range")
+            }
+            return frames[v.scope]
+        }
+
+        /**
+         * @return the variable and field steps if the rex is a chain of field steps over a variable, else null.
+         */
+        private fun path(rex: Rex): Pair<RexVar, List<String>>? {
+            val steps = mutableListOf<String>()
+            var curr = rex
+            while (true) {
+                curr = when (curr) {
+                    is RexPathSymbol -> {
+                        steps.add(curr.symbol)
+                        curr.operand
+                    }
+                    is RexPathKey -> {
+                        val key = curr.key as? RexLit ?: return null
+                        val datum = key.datum
+                        if (datum.isNull || datum.isMissing) return null
+                        val code = datum.type.code()
+                        if (code != PType.STRING && code != PType.VARCHAR && code != PType.CHAR) return null
+                        steps.add(datum.string)
+                        curr.operand
+                    }
+                    is RexVar -> {
+                        if (steps.isEmpty()) return null
+                        return curr to steps.reversed()
+                    }
+                    else -> return null
+                }
+            }
+        }
+    }
+
+    /**
+     * Demand over the concatenation of two rows, split across the left and right columns.
+     */
+    private class Joined(private val lhs: Columns, private val rhs: Columns) {
+
+        private val columns = Columns(lhs.size + rhs.size)
+
+        operator fun get(i: Int): Demand = columns[i]
+
+        fun columns(): Columns = columns
+
+        fun flush() {
+            for (i in 0 until lhs.size) {
+                lhs[i].merge(columns.getOrEmpty(i))
+            }
+            for (i in 0 until rhs.size) {
+                rhs[i].merge(columns.getOrEmpty(lhs.size + i))
+            }
+        }
+    }
+
+    /**
+     * Replaces each pruned [RelScan] and [RelIterate] with a copy which carries its [Projection].
+     */
+    private class Rewriter(private val projections: Map<Rel, Projection>) : OperatorRewriter<Unit>() {
+
+        override fun visitScan(rel: RelScan, ctx: Unit): Operator {
+            val projection = projections[rel]
+            val rewritten = super.visitScan(rel, ctx) as RelScan
+            if (projection == null) {
+                return rewritten
+            }
+            val scan = RelScan.create(rewritten.rex, projection)
+            scan.type = rel.type
+            return scan
+        }
+
+        override fun visitIterate(rel: RelIterate, ctx: Unit): Operator {
+            val projection = projections[rel]
+            val rewritten = super.visitIterate(rel, ctx) as RelIterate
+            if (projection == null) {
+                return rewritten
+            }
+            val iterate = RelIterate.create(rewritten.rex, projection)
+            iterate.type = rel.type
+            return iterate
+        }
+    }
+}
@@ -42,6 +42,9 @@ import org.partiql.ast.SelectValue
 import org.partiql.ast.SetOpType
 import org.partiql.ast.SetQuantifier
 import org.partiql.ast.Sort
+import org.partiql.ast.WindowFrameBound
+import org.partiql.ast.WindowFrameClause
+import org.partiql.ast.WindowFrameUnits
 import org.partiql.ast.WindowFunctionNullTreatment
 import org.partiql.ast.WindowFunctionType
 import org.partiql.ast.WindowFunctionType.Lag
@@ -83,6 +86,8 @@ import org.partiql.planner.internal.ir.relOpSort
 import org.partiql.planner.internal.ir.relOpSortSpec
 import org.partiql.planner.internal.ir.relOpUnpivot
 import org.partiql.planner.internal.ir.relOpWindow
+import org.partiql.planner.internal.ir.relOpWindowFrame
+import org.partiql.planner.internal.ir.relOpWindowFrameBound
 import org.partiql.planner.internal.ir.relOpWindowWindowFunction
 import org.partiql.planner.internal.ir.relOpWith
 import org.partiql.planner.internal.ir.relOpWithWithListElement
@@ -554,7 +559,7 @@ internal object RelConverter {
                 // We currently don't support creating windows from windows.
                 // If an existing name exists, we need to make sure that we aren't partitioning/sorting against it.
                 if (spec.existingName != null) {
-                    if (spec.orderClause != null || spec.partitionClause != null) {
+                    if (spec.orderClause != null || spec.partitionClause != null || spec.frameClause != null) {
                         env.listener.report(PErrors.featureNotSupported("Window referencing other window"))
                     }
                     windows.addFunctionWithWindowRef(spec.existingName!!.text, function, bindingName)
@@ -575,7 +580,8 @@ internal object RelConverter {
                 val functionBindings = window.functionBindings.map { relBinding(it, PType.dynamic().toCType(), null) }
                 val newSchema = current.type.schema + functionBindings
                 val type = relType(newSchema, emptySet())
-                val op = relOpWindow(window.name, current, functionNodes, partitions, orderBy)
+                val frame = window.spec.frameClause?.let { convertWindowFrame(it, orderBy.size) }
+                val op = relOpWindow(window.name, current, functionNodes, partitions, orderBy, frame)
                 rel(type, op)
             }
             return Pair(sel, rel)
@@ -650,6 +656,33 @@ internal object RelConverter {
             return relOpSortSpec(rex, order)
         }
 
+        /**
+         * A frame without an end, e.g. `ROWS 2 PRECEDING`, ends at the current row.
+         */
+        private fun convertWindowFrame(frame: WindowFrameClause, nSorts: Int): Rel.Op.Window.Frame {
+            val units = when (frame.units.code()) {
+                WindowFrameUnits.ROWS -> Rel.Op.Window.FrameUnits.ROWS
+                WindowFrameUnits.RANGE -> Rel.Op.Window.FrameUnits.RANGE
+                else -> error("Unexpected WindowFrameUnits type: ${frame.units}")
+            }
+            val start = convertWindowFrameBound(frame.start)
+            val end = frame.end?.let { convertWindowFrameBound(it) } ?: relOpWindowFrameBound(Rel.Op.Window.FrameBoundType.CURRENT_ROW, null)
+            // The offset of a RANGE frame is relative to the value of the single sort key.
+            if (units == Rel.Op.Window.FrameUnits.RANGE && (start.offset != null || end.offset != null) && nSorts != 1) {
+                env.listener.report(PErrors.featureNotSupported("RANGE window frame with an offset and $nSorts sort keys"))
+            }
+            return relOpWindowFrame(units, start, end)
+        }
+
+        private fun convertWindowFrameBound(bound: WindowFrameBound): Rel.Op.Window.FrameBound = when (bound) {
+            is WindowFrameBound.UnboundedPreceding -> relOpWindowFrameBound(Rel.Op.Window.FrameBoundType.UNBOUNDED_PRECEDING, null)
+            is WindowFrameBound.Preceding -> relOpWindowFrameBound(Rel.Op.Window.FrameBoundType.PRECEDING, bound.offset.toRex(env))
+            is WindowFrameBound.CurrentRow -> relOpWindowFrameBound(Rel.Op.Window.FrameBoundType.CURRENT_ROW, null)
+            is WindowFrameBound.Following -> relOpWindowFrameBound(Rel.Op.Window.FrameBoundType.FOLLOWING, bound.offset.toRex(env))
+            is WindowFrameBound.UnboundedFollowing -> relOpWindowFrameBound(Rel.Op.Window.FrameBoundType.UNBOUNDED_FOLLOWING, null)
+            else -> error("Unexpected WindowFrameBound type: $bound")
+        }
+
         private fun convertWindowFunction(node: ExprWindowFunction): Rel.Op.Window.WindowFunction {
             return when (val windowType = node.functionType) {
                 // No args
@@ -690,6 +723,11 @@ internal object RelConverter {
                     val args = listOf(extent, offset, default)
                     relOpWindowWindowFunction(name, args, isIgnoreNulls, null, null)
                 }
+                is WindowFunctionType.Aggregate -> {
+                    // COUNT(*) has no arguments
+                    val args = windowType.argument?.let { listOf(it.toRex(env)) } ?: emptyList()
+                    relOpWindowWindowFunction(windowType.name, args, false, null, null)
+                }
                 else -> {
                     val cause = IllegalStateException("Unexpected WindowFunctionType type: $windowType")
                     env.listener.report(PErrors.internalError(cause))
@@ -310,8 +310,15 @@ internal class PlanTyper(private val env: Env, config: Context, private val flag
                 val rex = it.rex.type(input.type.schema, outer)
                 it.copy(rex = rex)
             }
+            // type frame offsets like a limit expression, as they are evaluated once per partition
+            // TODO: Assert expression doesn't contain locals or upvalues.
+            val frame = node.frame?.let { frame ->
+                val start = frame.start.copy(offset = frame.start.offset?.type(input.type.schema, outer, Strategy.GLOBAL))
+                val end = frame.end.copy(offset = frame.end.offset?.type(input.type.schema, outer, Strategy.GLOBAL))
+                frame.copy(start = start, end = end)
+            }
             val schema = ctx!!.copyWithSchema(input.type.schema.map { it.type } + functions.map { it.returnType!! })
-            val window = relOpWindow(node.name, input, functions, partitions, sorts)
+            val window = relOpWindow(node.name, input, functions, partitions, sorts, frame)
             return rel(schema, window)
         }
 
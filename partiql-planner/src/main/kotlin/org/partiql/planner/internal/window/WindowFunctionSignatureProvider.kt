@@ -12,7 +12,8 @@ internal object WindowFunctionSignatureProvider {
 
     /**
      * Returns the [WindowFunctionSignature] for the given window function name and arguments.
-     * For now, we only support RANK (0 args), DENSE_RANK (0 args), ROW_NUMBER (0 args), LAG (3 args), and LEAD (3 args).
+     * For now, we only support RANK (0 args), DENSE_RANK (0 args), ROW_NUMBER (0 args), LAG (3 args), LEAD (3 args), and
+     * the aggregates COUNT (0 or 1 args), SUM, AVG, MIN, and MAX (1 arg).
      * @param name the name of the window function.
      * @param args the arguments to the window function.
      * @return null if unable to create a signature.
@@ -23,6 +24,12 @@ internal object WindowFunctionSignatureProvider {
                 "rank" -> RANK
                 "dense_rank" -> DENSE_RANK
                 "row_number" -> ROW_NUMBER
+                "count" -> COUNT_STAR
+                else -> null
+            }
+            1 -> when (val n = name.lowercase()) {
+                "count" -> WindowFunctionSignature(n, listOf(args[0].type), PType.bigint(), false)
+                "sum", "avg", "min", "max" -> aggregate(n, args[0])
                 else -> null
             }
             3 -> when (val n = name.lowercase()) {
@@ -36,6 +43,35 @@ internal object WindowFunctionSignatureProvider {
     private val RANK = WindowFunctionSignature("rank", emptyList(), PType.bigint(), false)
     private val DENSE_RANK = WindowFunctionSignature("dense_rank", emptyList(), PType.bigint(), false)
     private val ROW_NUMBER = WindowFunctionSignature("row_number", emptyList(), PType.bigint(), false)
+    private val COUNT_STAR = WindowFunctionSignature("count", emptyList(), PType.bigint(), false)
+    private val DECIMAL = PType.decimal(38, 19)
+
+    /**
+     * Creates the signature of an aggregate window function, whose return type is that of the corresponding aggregation.
+     * @return null if the argument's type is not supported by the aggregate.
+     */
+    private fun aggregate(name: String, arg: Rex): WindowFunctionSignature? {
+        val type = arg.type
+        val returnType = when (name) {
+            "min", "max" -> type
+            "sum" -> when (type.code()) {
+                PType.TINYINT, PType.SMALLINT, PType.INTEGER -> PType.bigint()
+                PType.BIGINT, PType.DECIMAL -> DECIMAL
+                PType.NUMERIC -> PType.numeric(38, 19)
+                PType.REAL -> PType.real()
+                PType.DOUBLE -> PType.doublePrecision()
+                PType.DYNAMIC -> PType.dynamic()
+                else -> null
+            }
+            else -> when (type.code()) {
+                PType.TINYINT, PType.SMALLINT, PType.INTEGER, PType.BIGINT, PType.DECIMAL, PType.NUMERIC -> DECIMAL
+                PType.REAL, PType.DOUBLE -> PType.doublePrecision()
+                PType.DYNAMIC -> PType.dynamic()
+                else -> null
+            }
+        } ?: return null
+        return WindowFunctionSignature(name, listOf(type), returnType, false)
+    }
 
     /**
      * Creates the LAG window function signature. We use the [DynamicTyper] since the output of lag/lead is the "common supertype" (as
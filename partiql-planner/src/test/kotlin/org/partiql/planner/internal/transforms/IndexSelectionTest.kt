@@ -0,0 +1,173 @@
+package org.partiql.planner.internal.transforms
+
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertFalse
+import org.junit.jupiter.api.Assertions.assertNotNull
+import org.junit.jupiter.api.Assertions.assertNull
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+import org.partiql.parser.PartiQLParser
+import org.partiql.plan.Action
+import org.partiql.plan.Operator
+import org.partiql.plan.rel.RelCorrelate
+import org.partiql.plan.rel.RelFilter
+import org.partiql.plan.rel.RelIndexScan
+import org.partiql.plan.rel.RelScan
+import org.partiql.plan.rex.RexLit
+import org.partiql.planner.PartiQLPlanner
+import org.partiql.spi.catalog.Catalog
+import org.partiql.spi.catalog.Session
+import org.partiql.spi.catalog.Table
+import org.partiql.spi.types.PType
+import org.partiql.spi.types.PTypeField
+import org.partiql.spi.value.Datum
+
+/**
+ * Tests the replacement of scans with index lookups.
+ */
+internal class IndexSelectionTest {
+
+    private val parser = PartiQLParser.standard()
+
+    /**
+     * Table `t` has a hash index on `a` and a sorted index on `b`; table `u` has no indexes. Table `v` is `t` with a
+     * schema of integers.
+     */
+    private val session = Session.builder()
+        .catalog("memory")
+        .catalogs(
+            Catalog.builder()
+                .name("memory")
+                .define(Table.builder().name("t").datum(Datum.bagVararg()).hashIndex("a").sortedIndex("b").build())
+                .define(Table.builder().name("u").datum(Datum.bagVararg()).build())
+                .define(
+                    Table.builder()
+                        .name("v")
+                        .schema(
+                            PType.bag(PType.row(PTypeField.of("a", PType.integer()), PTypeField.of("b", PType.integer())))
+                        )
+                        .datum(Datum.bagVararg())
+                        .hashIndex("a")
+                        .sortedIndex("b")
+                        .build()
+                )
+                .build()
+        )
+        .build()
+
+    private fun plan(query: String, indexes: Boolean = true): Operator {
+        val statement = parser.parse(query).statements[0]
+        val planner = PartiQLPlanner.builder().useIndexes(indexes).build()
+        val plan = planner.plan(statement, session).plan
+        return (plan.action as Action.Query).rex
+    }
+
+    private inline fun <reified T : Operator> find(operator: Operator): T? = find(operator, T::class.java)
+
+    private fun <T : Operator> find(operator: Operator, clazz: Class<T>): T? {
+        if (clazz.isInstance(operator)) {
+            return clazz.cast(operator)
+        }
+        for (operand in operator.operands) {
+            for (child in operand) {
+                find(child, clazz)?.let { return it }
+            }
+        }
+        // subqueries are within predicates
+        if (operator is RelFilter) {
+            return find(operator.predicate, clazz)
+        }
+        return null
+    }
+
+    @Test
+    fun equalityUsesHashIndex() {
+        val scan = find<RelIndexScan>(plan("SELECT t.b FROM t WHERE t.a = 1"))
+        assertNotNull(scan)
+        assertEquals("hash_a", scan!!.index)
+        assertNotNull(scan.key)
+        // the predicate is kept above the lookup
+        assertNotNull(find<RelFilter>(plan("SELECT t.b FROM t WHERE t.a = 1")))
+    }
+
+    @Test
+    fun equalityIsPreferredOverRange() {
+        val scan = find<RelIndexScan>(plan("SELECT * FROM t WHERE t.b > 2 AND 3 = t.a"))!!
+        assertEquals("hash_a", scan.index)
+    }
+
+    @Test
+    fun rangeUsesSortedIndex() {
+        val scan = find<RelIndexScan>(plan("SELECT * FROM t WHERE t.b >= 2 AND t.b < 5"))!!
+        assertEquals("sorted_b", scan.index)
+        assertNull(scan.key)
+        assertTrue(scan.isLowerInclusive)
+        assertFalse(scan.isUpperInclusive)
+        assertEquals(2, (scan.lower as RexLit).datum.int)
+        assertEquals(5, (scan.upper as RexLit).datum.int)
+    }
+
+    @Test
+    fun betweenUsesSortedIndex() {
+        val scan = find<RelIndexScan>(plan("SELECT * FROM t WHERE t.b BETWEEN 2 AND 5"))!!
+        assertTrue(scan.isLowerInclusive && scan.isUpperInclusive)
+        assertNotNull(scan.lower)
+        assertNotNull(scan.upper)
+    }
+
+    @Test
+    fun typedColumnsUseIndexes() {
+        assertEquals("hash_a", find<RelIndexScan>(plan("SELECT v.b FROM v WHERE v.a = 1"))!!.index)
+        assertEquals("sorted_b", find<RelIndexScan>(plan("SELECT v.a FROM v WHERE v.b < 5"))!!.index)
+    }
+
+    @Test
+    fun correlatedSubqueryUsesIndex() {
+        val scan = find<RelIndexScan>(plan("SELECT u.x FROM u WHERE 1 < (SELECT COUNT(*) FROM v WHERE v.a = u.x)"))
+        assertEquals("hash_a", scan!!.index)
+    }
+
+    @Test
+    fun rangeDoesNotUseHashIndex() {
+        assertNull(find<RelIndexScan>(plan("SELECT * FROM t WHERE t.a > 2")))
+    }
+
+    @Test
+    fun keyMustNotDependOnScannedRow() {
+        assertNull(find<RelIndexScan>(plan("SELECT * FROM t WHERE t.a = t.b")))
+        assertNull(find<RelIndexScan>(plan("SELECT * FROM t WHERE t.a = (SELECT VALUE 1 FROM u)")))
+    }
+
+    @Test
+    fun joinUsesIndexNestedLoop() {
+        val operator = plan("SELECT u.x, t.b FROM u JOIN t ON u.x = t.a")
+        val correlate = find<RelCorrelate>(operator)
+        assertNotNull(correlate)
+        assertTrue(correlate!!.left is RelScan)
+        assertEquals("hash_a", (correlate.right as RelIndexScan).index)
+    }
+
+    @Test
+    fun commaJoinUsesIndexNestedLoop() {
+        val correlate = find<RelCorrelate>(plan("SELECT u.x FROM u, t WHERE t.a = u.x + 1"))
+        assertNotNull(correlate)
+        assertTrue(correlate!!.right is RelIndexScan)
+    }
+
+    @Test
+    fun outerJoinIsNotRewritten() {
+        assertNull(find<RelIndexScan>(plan("SELECT u.x, t.b FROM u LEFT JOIN t ON u.x = t.a")))
+    }
+
+    @Test
+    fun noLookupsWhenDisabled() {
+        assertNull(find<RelIndexScan>(plan("SELECT * FROM t WHERE t.a = 1", indexes = false)))
+        assertNull(find<RelCorrelate>(plan("SELECT u.x FROM u JOIN t ON u.x = t.a", indexes = false)))
+    }
+
+    @Test
+    fun explainShowsIndexScan() {
+        val text = (plan("EXPLAIN SELECT * FROM t WHERE t.a = 1") as RexLit).datum.string
+        assertTrue(text.contains("IndexScan \"t\" hash_a ="), text)
+    }
+}
@@ -0,0 +1,174 @@
+package org.partiql.planner.internal.transforms
+
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+import org.partiql.parser.PartiQLParser
+import org.partiql.plan.Action
+import org.partiql.plan.Operator
+import org.partiql.plan.rel.RelFilter
+import org.partiql.plan.rel.RelJoin
+import org.partiql.plan.rel.RelScan
+import org.partiql.plan.rex.RexLit
+import org.partiql.plan.rex.RexTable
+import org.partiql.planner.PartiQLPlanner
+import org.partiql.spi.catalog.Catalog
+import org.partiql.spi.catalog.ColumnStatistics
+import org.partiql.spi.catalog.Session
+import org.partiql.spi.catalog.Table
+import org.partiql.spi.catalog.TableStatistics
+import org.partiql.spi.value.Datum
+
+/**
+ * Tests the order of inner joins planned with and without table statistics.
+ */
+internal class JoinReorderingTest {
+
+    private val parser = PartiQLParser.standard()
+
+    private fun table(name: String, statistics: TableStatistics?): Table {
+        val builder = Table.builder().name(name).datum(Datum.bagVararg())
+        if (statistics != null) {
+            builder.statistics(statistics)
+        }
+        return builder.build()
+    }
+
+    private fun id(distinctCount: Long) = ColumnStatistics.builder().distinctCount(distinctCount).build()
+
+    /**
+     * Tables `big`, `mid`, `small` where `big.m = mid.id` and `mid.s = small.id` are foreign keys.
+     */
+    private fun session(statistics: Boolean): Session {
+        val big = TableStatistics.builder().rowCount(1_000_000).column("m", id(10_000)).column("v", id(1_000_000)).build()
+        val mid = TableStatistics.builder().rowCount(10_000).column("id", id(10_000)).column("s", id(10)).build()
+        val small = TableStatistics.builder()
+            .rowCount(10)
+            .column("id", id(10))
+            .column(
+                "k",
+                ColumnStatistics.builder().distinctCount(10).min(Datum.integer(0)).max(Datum.integer(100)).build()
+            )
+            .build()
+        return Session.builder()
+            .catalog("memory")
+            .catalogs(
+                Catalog.builder()
+                    .name("memory")
+                    .define(table("big", big.takeIf { statistics }))
+                    .define(table("mid", mid.takeIf { statistics }))
+                    .define(table("small", small.takeIf { statistics }))
+                    .build()
+            )
+            .build()
+    }
+
+    private fun plan(query: String, statistics: Boolean = true, reorder: Boolean = true): Operator {
+        val statement = parser.parse(query).statements[0]
+        val planner = PartiQLPlanner.builder().reorderJoins(reorder).build()
+        val plan = planner.plan(statement, session(statistics)).plan
+        return (plan.action as Action.Query).rex
+    }
+
+    /**
+     * @return the names of the scanned tables in the order of a pre-order traversal.
+     */
+    private fun scans(operator: Operator, acc: MutableList<String> = mutableListOf()): List<String> {
+        if (operator is RelScan) {
+            acc.add(((operator.rex as RexTable).table.getName().getName()))
+        }
+        for (operand in operator.operands) {
+            for (child in operand) {
+                scans(child, acc)
+            }
+        }
+        return acc
+    }
+
+    /**
+     * @return the join operators in the order of a pre-order traversal.
+     */
+    private fun joins(operator: Operator, acc: MutableList<RelJoin> = mutableListOf()): List<RelJoin> {
+        if (operator is RelJoin) {
+            acc.add(operator)
+        }
+        for (operand in operator.operands) {
+            for (child in operand) {
+                joins(child, acc)
+            }
+        }
+        return acc
+    }
+
+    private val chain = "SELECT big.v, small.id FROM big, mid, small WHERE big.m = mid.id AND mid.s = small.id AND small.k < 10"
+
+    @Test
+    fun smallestIntermediateResultsAreJoinedFirst() {
+        assertEquals(listOf("mid", "small", "big"), scans(plan(chain)))
+    }
+
+    @Test
+    fun syntacticOrderWithoutStatistics() {
+        assertEquals(listOf("big", "mid", "small"), scans(plan(chain, statistics = false)))
+    }
+
+    @Test
+    fun syntacticOrderWhenDisabled() {
+        assertEquals(listOf("big", "mid", "small"), scans(plan(chain, reorder = false)))
+    }
+
+    @Test
+    fun explicitJoinConditionsAreReordered() {
+        val query = "SELECT big.v FROM big JOIN mid ON big.m = mid.id JOIN small ON mid.s = small.id WHERE small.k < 10"
+        assertEquals(listOf("mid", "small", "big"), scans(plan(query)))
+    }
+
+    @Test
+    fun singleTableConjunctsFilterTheirScan() {
+        val filters = joins(plan(chain)).flatMap { listOf(it.left, it.right) }.filterIsInstance<RelFilter>()
+        assertEquals(listOf("small"), filters.flatMap { scans(it) })
+    }
+
+    @Test
+    fun subqueryConjunctsStayAboveTheReorderedChain() {
+        val query = "$chain AND mid.id < (SELECT MAX(s.id) FROM small AS s)"
+        val plan = plan(query)
+        assertEquals(listOf("mid", "small", "big"), scans(plan))
+        assertTrue(joins(plan).none { it.condition is RexLit }, "a join is a cross product")
+    }
+
+    @Test
+    fun filterConjunctsAreJoinConditionsInSyntacticOrder() {
+        val query = "SELECT big.v FROM small, mid, big WHERE small.id = mid.s AND mid.id = big.m"
+        val plan = plan(query)
+        assertEquals(listOf("small", "mid", "big"), scans(plan))
+        assertTrue(joins(plan).none { it.condition is RexLit }, "a join is a cross product")
+    }
+
+    @Test
+    fun filterConjunctsAreJoinConditionsOfTwoTables() {
+        val plan = plan("SELECT big.v FROM mid, big WHERE mid.id = big.m")
+        assertTrue(joins(plan).single().condition !is RexLit, "the join is a cross product")
+    }
+
+    @Test
+    fun outerJoinsAreNotReordered() {
+        val query = "SELECT big.v FROM big LEFT JOIN mid ON big.m = mid.id LEFT JOIN small ON mid.s = small.id"
+        assertEquals(listOf("big", "mid", "small"), scans(plan(query)))
+    }
+
+    @Test
+    fun explainShowsEstimatedRows() {
+        val text = (plan("EXPLAIN $chain") as RexLit).datum.string
+        assertTrue(text.contains("Scan \"big\" (rows=1000000)"), text)
+        assertTrue(text.contains("Scan \"small\" (rows=10)"), text)
+        // (10 rows of small * 10% with k < 10) * (10000 rows of mid / 10) * (1000000 rows of big / 10000)
+        assertTrue(text.contains("Join INNER (rows=100000)"), text)
+    }
+
+    @Test
+    fun explainShowsUnknownRowsWithoutStatistics() {
+        val text = (plan("EXPLAIN $chain", statistics = false) as RexLit).datum.string
+        assertTrue(text.contains("Scan \"big\" (rows=?)"), text)
+    }
+}
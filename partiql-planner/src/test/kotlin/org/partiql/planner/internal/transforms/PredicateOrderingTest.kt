@@ -0,0 +1,123 @@
+package org.partiql.planner.internal.transforms
+
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+import org.partiql.parser.PartiQLParser
+import org.partiql.plan.Action
+import org.partiql.plan.Operator
+import org.partiql.plan.rel.RelFilter
+import org.partiql.plan.rex.Rex
+import org.partiql.plan.rex.RexCall
+import org.partiql.plan.rex.RexDispatch
+import org.partiql.planner.PartiQLPlanner
+import org.partiql.planner.internal.util.FunctionUtils
+import org.partiql.spi.catalog.Catalog
+import org.partiql.spi.catalog.Session
+import org.partiql.spi.catalog.Table
+import org.partiql.spi.value.Datum
+
+/**
+ * Tests the cost-based ordering of AND/OR operands.
+ */
+internal class PredicateOrderingTest {
+
+    private val parser = PartiQLParser.standard()
+
+    private val session = Session.builder()
+        .catalog("memory")
+        .catalogs(
+            Catalog.builder()
+                .name("memory")
+                .define(Table.builder().name("t").datum(Datum.bagVararg()).build())
+                .build()
+        )
+        .build()
+
+    private fun predicate(query: String, order: Boolean = true): Rex {
+        val statement = parser.parse(query).statements[0]
+        val planner = PartiQLPlanner.builder().orderPredicates(order).build()
+        val plan = planner.plan(statement, session).plan
+        return find((plan.action as Action.Query).rex)!!.predicate
+    }
+
+    /**
+     * @return the function names of the operands of the query's filter predicate, in order.
+     */
+    private fun operands(query: String, order: Boolean = true): List<String?> {
+        val predicate = predicate(query, order)
+        return flatten(predicate, name(predicate)!!).map { name(it) }
+    }
+
+    private fun find(operator: Operator): RelFilter? {
+        if (operator is RelFilter) {
+            return operator
+        }
+        for (operand in operator.operands) {
+            for (child in operand) {
+                find(child)?.let { return it }
+            }
+        }
+        return null
+    }
+
+    private fun flatten(rex: Rex, name: String): List<Rex> {
+        if (name(rex) != name) {
+            return listOf(rex)
+        }
+        return args(rex).flatMap { flatten(it, name) }
+    }
+
+    private fun name(rex: Rex): String? = when (rex) {
+        is RexCall -> rex.function.signature.name
+        is RexDispatch -> rex.name
+        else -> null
+    }
+
+    private fun args(rex: Rex): List<Rex> = when (rex) {
+        is RexCall -> rex.args
+        is RexDispatch -> rex.args
+        else -> emptyList()
+    }
+
+    @Test
+    fun cheapConjunctIsFirst() {
+        val operands = operands("SELECT * FROM t WHERE t.s LIKE '%x%' AND t.a = 1")
+        assertEquals(listOf(FunctionUtils.OP_EQ, FunctionUtils.OP_LIKE), operands)
+    }
+
+    @Test
+    fun syntacticOrderWithoutFlag() {
+        val operands = operands("SELECT * FROM t WHERE t.s LIKE '%x%' AND t.a = 1", order = false)
+        assertEquals(listOf(FunctionUtils.OP_LIKE, FunctionUtils.OP_EQ), operands)
+    }
+
+    @Test
+    fun chainsAreFlattenedAndStable() {
+        val operands = operands("SELECT * FROM t WHERE t.s LIKE 'a%' OR (t.a = 1 OR t.b = 2) OR t.c = 3")
+        assertEquals(listOf(FunctionUtils.OP_EQ, FunctionUtils.OP_EQ, FunctionUtils.OP_EQ, FunctionUtils.OP_LIKE), operands)
+    }
+
+    @Test
+    fun subqueriesAreLast() {
+        val query = "SELECT * FROM t WHERE EXISTS (SELECT * FROM t AS u WHERE u.a = 2) AND t.s LIKE 'a%' AND t.a = 1"
+        val operands = operands(query)
+        assertEquals(3, operands.size)
+        assertEquals(listOf(FunctionUtils.OP_EQ, FunctionUtils.OP_LIKE), operands.take(2))
+    }
+
+    @Test
+    fun ordersNestedChains() {
+        val or = flatten(predicate("SELECT * FROM t WHERE (t.s LIKE 'a%' AND t.a = 1) OR t.x = 0"), FunctionUtils.OP_OR)
+        assertEquals(FunctionUtils.OP_EQ, name(or[0]))
+        val and = flatten(or[1], FunctionUtils.OP_AND).map { name(it) }
+        assertEquals(listOf(FunctionUtils.OP_EQ, FunctionUtils.OP_LIKE), and)
+    }
+
+    @Test
+    fun pathsBeforeCalls() {
+        val and = flatten(predicate("SELECT * FROM t WHERE t.a = 1 AND t.b"), FunctionUtils.OP_AND)
+        assertEquals(2, and.size)
+        assertTrue(and[0] !is RexCall && and[0] !is RexDispatch)
+    }
+}
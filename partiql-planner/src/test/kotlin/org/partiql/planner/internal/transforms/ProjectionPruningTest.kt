@@ -0,0 +1,142 @@
+package org.partiql.planner.internal.transforms
+
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertNull
+import org.junit.jupiter.api.Test
+import org.partiql.parser.PartiQLParser
+import org.partiql.plan.Action
+import org.partiql.plan.Operator
+import org.partiql.plan.rel.RelIterate
+import org.partiql.plan.rel.RelProject
+import org.partiql.plan.rel.RelScan
+import org.partiql.plan.rex.RexSelect
+import org.partiql.plan.rex.RexStruct
+import org.partiql.planner.PartiQLPlanner
+import org.partiql.spi.catalog.Catalog
+import org.partiql.spi.catalog.Name
+import org.partiql.spi.catalog.Projection
+import org.partiql.spi.catalog.Session
+import org.partiql.spi.catalog.Table
+import org.partiql.spi.value.Datum
+
+/**
+ * Tests the projections attached to scans when the planner is built with `pruneProjections()`.
+ */
+internal class ProjectionPruningTest {
+
+    private val parser = PartiQLParser.standard()
+
+    private val session = Session.builder()
+        .catalog("memory")
+        .catalogs(
+            Catalog.builder()
+                .name("memory")
+                .define(Table.standard(Name.of("t"), Datum.bagVararg()))
+                .define(Table.standard(Name.of("u"), Datum.bagVararg()))
+                .build()
+        )
+        .build()
+
+    /**
+     * @return the projection of each scan in the order of a pre-order traversal.
+     */
+    private fun projections(query: String, prune: Boolean = true): List<Projection?> {
+        val statement = parser.parse(query).statements[0]
+        val planner = PartiQLPlanner.builder().pruneProjections(prune).build()
+        val plan = planner.plan(statement, session).plan
+        val projections = mutableListOf<Projection?>()
+        collect((plan.action as Action.Query).rex, projections)
+        return projections
+    }
+
+    private fun collect(operator: Operator, acc: MutableList<Projection?>) {
+        when (operator) {
+            is RelScan -> acc.add(operator.projection)
+            is RelIterate -> acc.add(operator.projection)
+            is RelProject -> operator.projections.forEach { collect(it, acc) }
+            is RexSelect -> collect(operator.constructor, acc)
+            is RexStruct -> operator.fields.forEach { collect(it.value, acc) }
+        }
+        for (operand in operator.operands) {
+            for (child in operand) {
+                collect(child, acc)
+            }
+        }
+    }
+
+    private fun projection(vararg paths: String): Projection = Projection.of(paths.map { it.split('.') })
+
+    @Test
+    fun scanIsNarrowedToReferencedPaths() {
+        val actual = projections("SELECT t.a, t.b.c FROM t")
+        assertEquals(listOf(projection("a", "b.c")), actual)
+    }
+
+    @Test
+    fun pathsAreCaseInsensitive() {
+        val actual = projections("SELECT t.a, t.\"A\", t['B'].c FROM t")
+        assertEquals(listOf(projection("a", "b.c")), actual)
+    }
+
+    @Test
+    fun shorterPathSubsumesLongerPath() {
+        val actual = projections("SELECT t.b, t.b.c FROM t")
+        assertEquals(listOf(projection("b")), actual)
+    }
+
+    @Test
+    fun pathsFromAllClausesAreCollected() {
+        val actual = projections("SELECT t.a FROM t WHERE t.b > 0 ORDER BY t.c")
+        assertEquals(listOf(projection("a", "b", "c")), actual)
+    }
+
+    @Test
+    fun aggregateKeepsGroupAndArgumentPaths() {
+        val actual = projections("SELECT t.k AS k, SUM(t.v) AS s FROM t GROUP BY t.k")
+        assertEquals(listOf(projection("k", "v")), actual)
+    }
+
+    @Test
+    fun unreferencedRecordIsNarrowedToNothing() {
+        val actual = projections("SELECT COUNT(*) AS n FROM t")
+        assertEquals(listOf(projection()), actual)
+    }
+
+    @Test
+    fun joinSplitsPathsAcrossInputs() {
+        val actual = projections("SELECT t.a FROM t JOIN u ON t.id = u.id WHERE u.b > 0")
+        assertEquals(listOf(projection("a", "id"), projection("b", "id")), actual)
+    }
+
+    @Test
+    fun correlatedReferencesAreAttributedToOuterScan() {
+        val actual = projections("SELECT t.a, (SELECT VALUE u.b FROM u WHERE u.id = t.id) AS b FROM t")
+        assertEquals(2, actual.size)
+        assertEquals(setOf(projection("a", "id"), projection("b", "id")), actual.toSet())
+    }
+
+    @Test
+    fun unnestIsNarrowed() {
+        val actual = projections("SELECT x.a, i.b FROM t AS x, x.items AS i")
+        assertEquals(listOf(projection("a", "items"), projection("b")), actual)
+    }
+
+    @Test
+    fun wholeVariableReferenceDisablesPruning() {
+        assertEquals(listOf<Projection?>(null), projections("SELECT VALUE t FROM t"))
+        assertEquals(listOf<Projection?>(null), projections("SELECT * FROM t"))
+        assertEquals(listOf<Projection?>(null), projections("SELECT t.a FROM t WHERE t IS NOT NULL"))
+    }
+
+    @Test
+    fun distinctOverSelectListIsNarrowed() {
+        val actual = projections("SELECT DISTINCT t.a FROM t")
+        assertEquals(listOf(projection("a")), actual)
+    }
+
+    @Test
+    fun pruningIsDisabledByDefault() {
+        val actual = projections("SELECT t.a FROM t", prune = false)
+        assertNull(actual.single())
+    }
+}
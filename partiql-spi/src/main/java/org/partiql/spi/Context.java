@@ -1,7 +1,11 @@
 package org.partiql.spi;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.partiql.spi.errors.PErrorListener;
+import org.partiql.spi.metrics.MetricsListener;
+
+import java.nio.file.Path;
 
 /**
  * Represents a common set of arguments across multiple major PartiQL components.
@@ -19,6 +23,57 @@ public interface Context {
         return PErrorListener.abortOnError();
     }
 
+    /**
+     * The default utilizes {@link MetricsListener#none()}, for which nothing is measured.
+     * @return the registered {@link MetricsListener}.
+     */
+    @NotNull
+    default MetricsListener getMetricsListener() {
+        return MetricsListener.none();
+    }
+
+    /**
+     * The maximum number of threads that an operator may use to evaluate independent parts of its input, such as the
+     * partitions of a window. The default is 1, which evaluates everything on the calling thread.
+     * @return the degree of parallelism.
+     */
+    default int getParallelism() {
+        return 1;
+    }
+
+    /**
+     * The estimated number of bytes of rows that an operator may hold in memory, such as the build side of a hash join,
+     * before it spills them to temporary files in the {@link Context#getSpillDirectory()}. The limit only applies if
+     * there is a spill directory; otherwise, the rows are held in memory whatever their size. State which cannot be
+     * spilled, such as the sets of values seen by {@code DISTINCT} aggregates, is an error
+     * ({@link org.partiql.spi.errors.PError#MEMORY_LIMIT_EXCEEDED}) once it exceeds the limit. The default is 256 MiB.
+     * @return the memory limit, in bytes.
+     */
+    default long getMemoryLimit() {
+        return 256L * 1024 * 1024;
+    }
+
+    /**
+     * The directory in which an operator may create temporary files for the rows it spills once it exceeds the
+     * {@link Context#getMemoryLimit()}. Each operator creates its files in a new subdirectory, which it deletes when
+     * it completes, fails, or is closed. The default is null, for which nothing is spilled.
+     * @return the spill directory, or null to hold every row in memory.
+     */
+    @Nullable
+    default Path getSpillDirectory() {
+        return null;
+    }
+
+    /**
+     * Whether the scalar expressions whose types are known when a plan is compiled, such as arithmetic and comparisons
+     * of numbers, are compiled to evaluate primitive values rather than interpreted over boxed values. Any other
+     * expression is interpreted either way, and the results are the same. The default is false.
+     * @return true to compile statically typed expressions.
+     */
+    default boolean isSpecializedExpressions() {
+        return false;
+    }
+
     /**
      * The default utilizes {@link PErrorListener#abortOnError()} for the {@link Context#getErrorListener()}.
      * @return the default implementation of {@link Context}.
@@ -0,0 +1,148 @@
+package org.partiql.spi.catalog;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.partiql.spi.value.Datum;
+
+/**
+ * Optional statistics of a single field of a {@link Table}'s records.
+ * <p>
+ * Every statistic is optional; unknown statistics are reported as -1 (counts and fractions) or null (bounds).
+ *
+ * @see TableStatistics
+ */
+public final class ColumnStatistics {
+
+    private final long distinctCount;
+
+    private final double nullFraction;
+
+    @Nullable
+    private final Datum min;
+
+    @Nullable
+    private final Datum max;
+
+    private ColumnStatistics(long distinctCount, double nullFraction, @Nullable Datum min, @Nullable Datum max) {
+        this.distinctCount = distinctCount;
+        this.nullFraction = nullFraction;
+        this.min = min;
+        this.max = max;
+    }
+
+    /**
+     * @return the estimated number of distinct non-null values, or -1 if unknown.
+     */
+    public long getDistinctCount() {
+        return distinctCount;
+    }
+
+    /**
+     * @return the estimated fraction of records where the field is null or missing, in [0, 1], or -1 if unknown.
+     */
+    public double getNullFraction() {
+        return nullFraction;
+    }
+
+    /**
+     * @return the smallest value of the field, or null if unknown.
+     */
+    @Nullable
+    public Datum getMin() {
+        return min;
+    }
+
+    /**
+     * @return the largest value of the field, or null if unknown.
+     */
+    @Nullable
+    public Datum getMax() {
+        return max;
+    }
+
+    /**
+     * @return a new {@link Builder}.
+     */
+    @NotNull
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public String toString() {
+        return "ColumnStatistics{distinctCount=" + distinctCount + ", nullFraction=" + nullFraction + ", min=" + min + ", max=" + max + "}";
+    }
+
+    /**
+     * A builder for {@link ColumnStatistics}.
+     */
+    public static final class Builder {
+
+        private long distinctCount = -1;
+
+        private double nullFraction = -1;
+
+        @Nullable
+        private Datum min = null;
+
+        @Nullable
+        private Datum max = null;
+
+        private Builder() {
+        }
+
+        /**
+         * @param distinctCount the estimated number of distinct non-null values; must not be negative.
+         * @return this builder.
+         */
+        @NotNull
+        public Builder distinctCount(long distinctCount) {
+            if (distinctCount < 0) {
+                throw new IllegalArgumentException("Distinct count must not be negative: " + distinctCount);
+            }
+            this.distinctCount = distinctCount;
+            return this;
+        }
+
+        /**
+         * @param nullFraction the estimated fraction of null or missing values, in [0, 1].
+         * @return this builder.
+         */
+        @NotNull
+        public Builder nullFraction(double nullFraction) {
+            if (!(nullFraction >= 0 && nullFraction <= 1)) {
+                throw new IllegalArgumentException("Null fraction must be in [0, 1]: " + nullFraction);
+            }
+            this.nullFraction = nullFraction;
+            return this;
+        }
+
+        /**
+         * @param min the smallest value.
+         * @return this builder.
+         */
+        @NotNull
+        public Builder min(@NotNull Datum min) {
+            this.min = min;
+            return this;
+        }
+
+        /**
+         * @param max the largest value.
+         * @return this builder.
+         */
+        @NotNull
+        public Builder max(@NotNull Datum max) {
+            this.max = max;
+            return this;
+        }
+
+        /**
+         * @return a new {@link ColumnStatistics} instance.
+         */
+        @NotNull
+        public ColumnStatistics build() {
+            return new ColumnStatistics(distinctCount, nullFraction, min, max);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package org.partiql.spi.catalog;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.partiql.spi.value.Datum;
+
+import java.util.List;
+
+/**
+ * A secondary index over the value at a path within each record of a {@link Table}.
+ * <p>
+ * The planner replaces scans filtered by an equality (or, for sorted indexes, a range) predicate on the indexed path
+ * with index lookups, and the inner side of equi-joins with index nested-loop lookups. The planner always keeps the
+ * original predicate above the lookup, so a lookup may return a superset of the matching records — e.g. records whose
+ * indexed value is absent, null, or of a type the index does not order — but must never omit a matching record.
+ *
+ * @see Table#getIndexes()
+ */
+public interface Index {
+
+    /**
+     * @return the name of the index, unique within its table.
+     */
+    @NotNull
+    String getName();
+
+    /**
+     * @return the path of the indexed value within each record, e.g. {@code ["user", "id"]} for {@code t.user.id}.
+     */
+    @NotNull
+    List<String> getPath();
+
+    /**
+     * @return true if the index supports range lookups, see {@link #range(Datum, boolean, Datum, boolean)}.
+     */
+    boolean isSorted();
+
+    /**
+     * Returns the records whose indexed value equals the key.
+     *
+     * @param key the lookup key.
+     * @return a collection of the matching records.
+     */
+    @NotNull
+    Datum lookup(@NotNull Datum key);
+
+    /**
+     * Returns the records whose indexed value is within the given bounds; only supported by sorted indexes.
+     *
+     * @param lower the lower bound, or null if unbounded.
+     * @param lowerInclusive true if the lower bound is inclusive.
+     * @param upper the upper bound, or null if unbounded.
+     * @param upperInclusive true if the upper bound is inclusive.
+     * @return a collection of the matching records.
+     */
+    @NotNull
+    default Datum range(@Nullable Datum lower, boolean lowerInclusive, @Nullable Datum upper, boolean upperInclusive) {
+        throw new UnsupportedOperationException("Index " + getName() + " does not support range lookups");
+    }
+}
@@ -0,0 +1,347 @@
+package org.partiql.spi.catalog;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.partiql.spi.types.PType;
+import org.partiql.spi.value.Datum;
+import org.partiql.spi.value.Field;
+import org.partiql.spi.value.Shape;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A projection describes the subset of a record's fields that a query actually references.
+ * <p>
+ * The planner computes a projection for each scanned variable whose value is only ever accessed through field paths,
+ * e.g. {@code SELECT t.a, t.b.c FROM tbl AS t} references the paths {@code a} and {@code b.c} of each record in
+ * {@code tbl}. Connectors may use it to avoid decoding unreferenced fields, see {@link Table#getDatum(Projection)}.
+ * <p>
+ * A projection is a tree of field names. A node without children means the entire value at that path is required.
+ * Field names are matched case-insensitively, so a projection always retains every field which any case-sensitive
+ * or case-insensitive path step could have resolved to.
+ */
+public final class Projection {
+
+    /**
+     * Required fields keyed by lowercase name; null means the entire value is required.
+     */
+    @Nullable
+    private final Map<String, Projection> fields;
+
+    private static final Projection ALL = new Projection(null);
+
+    /**
+     * The narrowing of the last shaped record, as records are usually homogeneous; a race only recomputes it.
+     */
+    @Nullable
+    private volatile Narrowing lastNarrowing;
+
+    /**
+     * The shape of the last narrowed record without a shape.
+     */
+    @Nullable
+    private volatile Shape lastShape;
+
+    private Projection(@Nullable Map<String, Projection> fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * Creates a projection from the given paths; each path is a list of field names from the root of a record.
+     * <p>
+     * An empty path means the entire record is required. If one path is a prefix of another, the shorter path wins.
+     *
+     * @param paths the required field paths.
+     * @return a new {@link Projection} instance.
+     */
+    @NotNull
+    public static Projection of(@NotNull Collection<List<String>> paths) {
+        Map<String, Object> root = new LinkedHashMap<>();
+        for (List<String> path : paths) {
+            if (path.isEmpty()) {
+                return ALL;
+            }
+            insert(root, path, 0);
+        }
+        return build(root);
+    }
+
+    /**
+     * @return true if the entire value is required, i.e. nothing may be pruned.
+     */
+    public boolean isAll() {
+        return fields == null;
+    }
+
+    /**
+     * @return the (lowercase) names of the required fields, or an empty set if {@link #isAll()}.
+     */
+    @NotNull
+    public Set<String> getFieldNames() {
+        if (fields == null) {
+            return Collections.emptySet();
+        }
+        return Collections.unmodifiableSet(fields.keySet());
+    }
+
+    /**
+     * Returns the nested projection for the given field name (case-insensitive).
+     *
+     * @param name the field name.
+     * @return the nested projection, or null if the field is not required. Returns this projection if {@link #isAll()}.
+     */
+    @Nullable
+    public Projection getField(@NotNull String name) {
+        if (fields == null) {
+            return this;
+        }
+        return fields.get(name.toLowerCase());
+    }
+
+    /**
+     * @return the required paths from the root of a record; the result is a single empty path if {@link #isAll()}.
+     */
+    @NotNull
+    public List<List<String>> getPaths() {
+        List<List<String>> paths = new ArrayList<>();
+        collect(new ArrayList<>(), paths);
+        return paths;
+    }
+
+    /**
+     * Narrows the given value to this projection.
+     * <p>
+     * Collections ({@link PType#BAG} and {@link PType#ARRAY}) are narrowed lazily element-wise since each element is a
+     * record; any other value is narrowed as a single record. Only {@link PType#STRUCT} values are ever rebuilt; values
+     * of other types, including absent values, are returned as-is so that path navigation over them behaves exactly as
+     * it would have over the original value.
+     *
+     * @param value the value (or collection of records) to narrow.
+     * @return the narrowed value.
+     */
+    @NotNull
+    public Datum apply(@NotNull Datum value) {
+        if (fields == null || value.isNull() || value.isMissing()) {
+            return value;
+        }
+        switch (value.getType().code()) {
+            case PType.BAG:
+                return Datum.bag(() -> narrowAll(value.iterator()));
+            case PType.ARRAY:
+                return Datum.array(() -> narrowAll(value.iterator()));
+            default:
+                return narrow(value);
+        }
+    }
+
+    /**
+     * Narrows a single record; only structs are rebuilt, retaining every field whose lowercase name is projected.
+     * <p>
+     * The narrowed records are shaped structs. For a shaped record, the positions of the retained fields and the
+     * narrowed shape are computed once per shape; for any other record, the narrowed shape is shared with the previous
+     * record if it has the same field names.
+     */
+    @NotNull
+    private Datum narrow(@NotNull Datum value) {
+        if (fields == null || value.isNull() || value.isMissing() || value.getType().code() != PType.STRUCT) {
+            return value;
+        }
+        Shape shape = value.getShape();
+        if (shape != null) {
+            Narrowing narrowing = narrowing(shape);
+            if (narrowing.identity) {
+                return value;
+            }
+            int[] positions = narrowing.positions;
+            Datum[] values = new Datum[positions.length];
+            for (int i = 0; i < positions.length; i++) {
+                values[i] = narrowing.children[i].narrow(value.get(positions[i]));
+            }
+            return Datum.struct(narrowing.shape, values);
+        }
+        List<String> names = new ArrayList<>(fields.size());
+        List<Datum> values = new ArrayList<>(fields.size());
+        Iterator<Field> it = value.getFields();
+        while (it.hasNext()) {
+            Field field = it.next();
+            Projection child = fields.get(field.getName().toLowerCase());
+            if (child != null) {
+                names.add(field.getName());
+                values.add(child.narrow(field.getValue()));
+            }
+        }
+        Shape narrowed = lastShape;
+        if (narrowed == null || !narrowed.matches(names)) {
+            narrowed = Shape.of(names);
+            lastShape = narrowed;
+        }
+        return Datum.struct(narrowed, values.toArray(new Datum[0]));
+    }
+
+    /**
+     * @return the narrowing of records of the given shape.
+     */
+    @NotNull
+    private Narrowing narrowing(@NotNull Shape shape) {
+        Narrowing narrowing = lastNarrowing;
+        if (narrowing != null && narrowing.input == shape) {
+            return narrowing;
+        }
+        narrowing = new Narrowing(shape, fields);
+        lastNarrowing = narrowing;
+        return narrowing;
+    }
+
+    /**
+     * The fields of records of one shape which are retained by a projection.
+     */
+    private static final class Narrowing {
+
+        @NotNull
+        private final Shape input;
+
+        /**
+         * The positions of the retained fields in the input shape.
+         */
+        @NotNull
+        private final int[] positions;
+
+        /**
+         * The projections of the retained fields.
+         */
+        @NotNull
+        private final Projection[] children;
+
+        /**
+         * The shape of the narrowed records.
+         */
+        @NotNull
+        private final Shape shape;
+
+        /**
+         * True if every field is retained whole, so that a record is its own narrowing.
+         */
+        private final boolean identity;
+
+        private Narrowing(@NotNull Shape input, @NotNull Map<String, Projection> fields) {
+            List<Integer> positions = new ArrayList<>();
+            List<Projection> children = new ArrayList<>();
+            List<String> names = new ArrayList<>();
+            boolean whole = true;
+            for (int i = 0; i < input.size(); i++) {
+                String name = input.getName(i);
+                Projection child = fields.get(name.toLowerCase());
+                if (child != null) {
+                    positions.add(i);
+                    children.add(child);
+                    names.add(name);
+                    whole = whole && child.isAll();
+                }
+            }
+            this.input = input;
+            this.positions = new int[positions.size()];
+            for (int i = 0; i < this.positions.length; i++) {
+                this.positions[i] = positions.get(i);
+            }
+            this.children = children.toArray(new Projection[0]);
+            this.shape = Shape.of(names);
+            this.identity = whole && this.positions.length == input.size();
+        }
+    }
+
+    @NotNull
+    private Iterator<Datum> narrowAll(@NotNull Iterator<Datum> values) {
+        return new Iterator<Datum>() {
+            @Override
+            public boolean hasNext() {
+                return values.hasNext();
+            }
+
+            @Override
+            public Datum next() {
+                return narrow(values.next());
+            }
+        };
+    }
+
+    private void collect(@NotNull List<String> prefix, @NotNull List<List<String>> acc) {
+        if (fields == null) {
+            acc.add(new ArrayList<>(prefix));
+            return;
+        }
+        for (Map.Entry<String, Projection> entry : fields.entrySet()) {
+            prefix.add(entry.getKey());
+            entry.getValue().collect(prefix, acc);
+            prefix.remove(prefix.size() - 1);
+        }
+    }
+
+    /**
+     * Inserts the path into a mutable tree where an ALL marker absorbs any longer paths.
+     */
+    @SuppressWarnings("unchecked")
+    private static void insert(@NotNull Map<String, Object> node, @NotNull List<String> path, int i) {
+        String name = path.get(i).toLowerCase();
+        Object child = node.get(name);
+        if (child == ALL) {
+            return;
+        }
+        if (i == path.size() - 1) {
+            node.put(name, ALL);
+            return;
+        }
+        if (child == null) {
+            child = new LinkedHashMap<String, Object>();
+            node.put(name, child);
+        }
+        insert((Map<String, Object>) child, path, i + 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    @NotNull
+    private static Projection build(@NotNull Map<String, Object> node) {
+        Map<String, Projection> fields = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : node.entrySet()) {
+            Object child = entry.getValue();
+            fields.put(entry.getKey(), child == ALL ? ALL : build((Map<String, Object>) child));
+        }
+        return new Projection(fields);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Projection)) return false;
+        Projection that = (Projection) o;
+        return Objects.equals(fields, that.fields);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(fields);
+    }
+
+    @Override
+    public String toString() {
+        if (fields == null) {
+            return "Projection{*}";
+        }
+        StringBuilder sb = new StringBuilder("Projection{");
+        List<List<String>> paths = getPaths();
+        for (int i = 0; i < paths.size(); i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(String.join(".", paths.get(i)));
+        }
+        return sb.append('}').toString();
+    }
+}
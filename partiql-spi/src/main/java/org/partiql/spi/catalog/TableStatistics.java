@@ -0,0 +1,148 @@
+package org.partiql.spi.catalog;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Optional statistics of a {@link Table}, used by the planner to estimate cardinalities and to order joins.
+ * <p>
+ * Statistics are estimates; the planner never relies on them for correctness. Column statistics are keyed by the path
+ * of a field within each record of the table, e.g. {@code ["address", "zip"]} for {@code t.address.zip}. Paths are
+ * matched case-insensitively.
+ *
+ * @see Table#getStatistics()
+ */
+public final class TableStatistics {
+
+    private final long rowCount;
+
+    @NotNull
+    private final Map<List<String>, ColumnStatistics> columns;
+
+    private TableStatistics(long rowCount, @NotNull Map<List<String>, ColumnStatistics> columns) {
+        this.rowCount = rowCount;
+        this.columns = columns;
+    }
+
+    /**
+     * @return the estimated number of records in the table.
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Returns the statistics of the field at the given path within each record.
+     *
+     * @param path the path of the field, e.g. {@code ["a", "b"]} for {@code t.a.b}.
+     * @return the column statistics, or null if there are none for the path.
+     */
+    @Nullable
+    public ColumnStatistics getColumn(@NotNull List<String> path) {
+        return columns.get(normalize(path));
+    }
+
+    /**
+     * @return the statistics of every field with statistics, keyed by (lowercase) path.
+     */
+    @NotNull
+    public Map<List<String>, ColumnStatistics> getColumns() {
+        return Collections.unmodifiableMap(columns);
+    }
+
+    /**
+     * @param rowCount the estimated number of records.
+     * @return statistics with only a row count.
+     */
+    @NotNull
+    public static TableStatistics of(long rowCount) {
+        return builder().rowCount(rowCount).build();
+    }
+
+    /**
+     * @return a new {@link Builder}.
+     */
+    @NotNull
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @NotNull
+    private static List<String> normalize(@NotNull List<String> path) {
+        List<String> normalized = new ArrayList<>(path.size());
+        for (String step : path) {
+            normalized.add(step.toLowerCase());
+        }
+        return normalized;
+    }
+
+    @Override
+    public String toString() {
+        return "TableStatistics{rowCount=" + rowCount + ", columns=" + columns + "}";
+    }
+
+    /**
+     * A builder for {@link TableStatistics}.
+     */
+    public static final class Builder {
+
+        private long rowCount = 0;
+
+        @NotNull
+        private final Map<List<String>, ColumnStatistics> columns = new HashMap<>();
+
+        private Builder() {
+        }
+
+        /**
+         * @param rowCount the estimated number of records; must not be negative.
+         * @return this builder.
+         */
+        @NotNull
+        public Builder rowCount(long rowCount) {
+            if (rowCount < 0) {
+                throw new IllegalArgumentException("Row count must not be negative: " + rowCount);
+            }
+            this.rowCount = rowCount;
+            return this;
+        }
+
+        /**
+         * @param path the path of the field within each record.
+         * @param statistics the field's statistics.
+         * @return this builder.
+         */
+        @NotNull
+        public Builder column(@NotNull List<String> path, @NotNull ColumnStatistics statistics) {
+            if (path.isEmpty()) {
+                throw new IllegalArgumentException("Column path must not be empty");
+            }
+            columns.put(normalize(path), statistics);
+            return this;
+        }
+
+        /**
+         * @param name the name of a top-level field of each record.
+         * @param statistics the field's statistics.
+         * @return this builder.
+         */
+        @NotNull
+        public Builder column(@NotNull String name, @NotNull ColumnStatistics statistics) {
+            return column(Collections.singletonList(name), statistics);
+        }
+
+        /**
+         * @return a new {@link TableStatistics} instance.
+         */
+        @NotNull
+        public TableStatistics build() {
+            return new TableStatistics(rowCount, new HashMap<>(columns));
+        }
+    }
+}
@@ -685,4 +685,22 @@ public final class PError extends Enum {
      * </p>
      */
     public static final int MAP_DUPLICATE_KEY = 27;
+
+    /**
+     * <p>
+     * This is a runtime error indicating that an operator exceeded the {@link org.partiql.spi.Context#getMemoryLimit()}
+     * with state that it cannot spill to the {@link org.partiql.spi.Context#getSpillDirectory()}, such as the sets of
+     * values seen by {@code DISTINCT} aggregates.
+     * </p>
+     * <p>
+     * Potentially available properties:
+     * <ul>
+     * <li><b>LIMIT</b> ({@link Long}): The memory limit, in bytes.</li>
+     * </ul>
+     * </p>
+     * <p>
+     * Example error message: <code>Memory limit of [limit] bytes exceeded.</code>
+     * </p>
+     */
+    public static final int MEMORY_LIMIT_EXCEEDED = 28;
 }
@@ -16,6 +16,38 @@ public interface Accumulator {
      */
     public void next(Datum[] args);
 
+    /**
+     * Receives a batch of values of a single {@code BIGINT} argument, e.g. from a columnar source, and updates the
+     * accumulator's state as if each value were passed to {@link #next(Datum[])} in order.
+     * <p>
+     * The default implementation wraps each value in a {@link Datum}; accumulators whose state is primitive may
+     * override it to consume the values directly.
+     * @param values the values.
+     * @param offset the index of the first value to consume.
+     * @param length the number of values to consume.
+     */
+    public default void nextValues(long[] values, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            next(new Datum[] { Datum.bigint(values[i]) });
+        }
+    }
+
+    /**
+     * Receives a batch of values of a single {@code DOUBLE PRECISION} argument, e.g. from a columnar source, and
+     * updates the accumulator's state as if each value were passed to {@link #next(Datum[])} in order.
+     * <p>
+     * The default implementation wraps each value in a {@link Datum}; accumulators whose state is primitive may
+     * override it to consume the values directly.
+     * @param values the values.
+     * @param offset the index of the first value to consume.
+     * @param length the number of values to consume.
+     */
+    public default void nextValues(double[] values, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            next(new Datum[] { Datum.doublePrecision(values[i]) });
+        }
+    }
+
     /**
      * Computes the final value of the accumulator.
      * @return the computed final value of the accumulator.
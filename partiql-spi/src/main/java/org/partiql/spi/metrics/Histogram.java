@@ -0,0 +1,130 @@
+package org.partiql.spi.metrics;
+
+import java.util.Locale;
+
+/**
+ * A histogram of non-negative values, such as latencies in nanoseconds, whose buckets grow exponentially so that a
+ * percentile is within 12.5% of the recorded value. Values below 16 are recorded exactly. Recording a value does not
+ * allocate, and is thread-safe.
+ */
+public final class Histogram {
+
+    // each power of two is split into 2^SUB_BITS buckets
+    private static final int SUB_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int EXACT = 2 * SUB_BUCKETS;
+    private static final int BUCKETS = EXACT + (63 - SUB_BITS - 1) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count = 0;
+    private long sum = 0;
+    private long min = Long.MAX_VALUE;
+    private long max = Long.MIN_VALUE;
+
+    /**
+     * @param value a non-negative value.
+     * @throws IllegalArgumentException if the value is negative.
+     */
+    public synchronized void record(long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Expected a non-negative value, found " + value);
+        }
+        counts[index(value)]++;
+        count++;
+        sum += value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * @return the number of recorded values.
+     */
+    public synchronized long getCount() {
+        return count;
+    }
+
+    /**
+     * @return the sum of the recorded values.
+     */
+    public synchronized long getSum() {
+        return sum;
+    }
+
+    /**
+     * @return the least recorded value; 0 if there is none.
+     */
+    public synchronized long getMin() {
+        return count == 0 ? 0 : min;
+    }
+
+    /**
+     * @return the greatest recorded value; 0 if there is none.
+     */
+    public synchronized long getMax() {
+        return count == 0 ? 0 : max;
+    }
+
+    /**
+     * @return the mean of the recorded values; 0 if there is none.
+     */
+    public synchronized double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * @param percentile a percentile, from 0 to 100.
+     * @return the greatest value of the bucket of the given percentile, which is at most the greatest recorded value;
+     * 0 if there is none.
+     */
+    public synchronized long getPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Expected a percentile from 0 to 100, found " + percentile);
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(Math.max(upper(i), min), max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * @return the bucket of a non-negative value.
+     */
+    private static int index(long value) {
+        if (value < EXACT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BITS)) - SUB_BUCKETS;
+        return EXACT + (exponent - SUB_BITS - 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * @return the greatest value of a bucket.
+     */
+    private static long upper(int index) {
+        if (index < EXACT) {
+            return index;
+        }
+        int exponent = (index - EXACT) / SUB_BUCKETS + SUB_BITS + 1;
+        int sub = (index - EXACT) % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BITS);
+        return (SUB_BUCKETS + sub) * width + width - 1;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format(
+                Locale.ROOT,
+                "Histogram{count=%d, min=%d, mean=%.1f, p50=%d, p99=%d, max=%d}",
+                count, getMin(), getMean(), getPercentile(50), getPercentile(99), getMax()
+        );
+    }
+}
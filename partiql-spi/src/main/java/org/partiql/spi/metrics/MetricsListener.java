@@ -0,0 +1,72 @@
+package org.partiql.spi.metrics;
+
+import org.jetbrains.annotations.NotNull;
+import org.partiql.spi.catalog.Name;
+
+/**
+ * Interface for receiving the latencies and counters of the phases of a query from the PartiQL ecosystem, i.e. its
+ * parsing, planning, compilation, and execution. Every method does nothing by default.
+ * <p>
+ * A listener may be called concurrently by the components of independent queries. A component only measures what the
+ * listener observes when the listener is not {@link #none()}, so that the default costs nothing.
+ * @see org.partiql.spi.Context#getMetricsListener()
+ * @see MetricsRecorder
+ */
+public interface MetricsListener {
+
+    /**
+     * This method is called when a statement has been parsed.
+     * @param nanos the time to parse the statement, in nanoseconds.
+     * @param tokens the number of tokens of the statement.
+     */
+    default void parsed(long nanos, int tokens) {
+    }
+
+    /**
+     * This method is called when a statement has been planned.
+     * @param nanos the time to plan the statement, in nanoseconds.
+     * @param operators the number of operators of the plan.
+     */
+    default void planned(long nanos, int operators) {
+    }
+
+    /**
+     * This method is called when a plan has been compiled to its physical operators, which for an execution plan of
+     * the VM is once per execution which does not reuse the operators of a previous one.
+     * @param nanos the time to compile the plan, in nanoseconds.
+     */
+    default void compiled(long nanos) {
+    }
+
+    /**
+     * This method is called when the result of a statement has been read in full, or its cursor has been closed.
+     * @param nanos the time spent evaluating the statement, in nanoseconds, excluding the time of the reader.
+     */
+    default void executed(long nanos) {
+    }
+
+    /**
+     * This method is called each time a scan of a table is closed, which is more than once for a table scanned by a
+     * correlated subquery.
+     * @param table the name of the scanned table.
+     * @param rows the number of rows read from the table.
+     */
+    default void scanned(@NotNull Name table, long rows) {
+    }
+
+    /**
+     * This method is called as the elements of the result of a statement are produced, possibly once per element.
+     * @param rows the number of produced elements.
+     * @param bytes the estimated size of the produced elements in memory, in bytes.
+     */
+    default void produced(long rows, long bytes) {
+    }
+
+    /**
+     * @return a {@link MetricsListener} which ignores every measurement, and which components do not measure for.
+     */
+    @NotNull
+    static MetricsListener none() {
+        return MetricsListenerNone.INSTANCE;
+    }
+}
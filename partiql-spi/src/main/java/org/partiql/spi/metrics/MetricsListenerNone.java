@@ -0,0 +1,14 @@
+package org.partiql.spi.metrics;
+
+/**
+ * The {@link MetricsListener} which ignores every measurement.
+ * This shall always be package-private (internal).
+ */
+final class MetricsListenerNone implements MetricsListener {
+
+    static final MetricsListenerNone INSTANCE = new MetricsListenerNone();
+
+    private MetricsListenerNone() {
+        // singleton
+    }
+}
@@ -0,0 +1,140 @@
+package org.partiql.spi.metrics;
+
+import org.jetbrains.annotations.NotNull;
+import org.partiql.spi.catalog.Name;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link MetricsListener} which records the latencies and sizes of each phase in a {@link Histogram}, and sums the
+ * rows scanned from each table and the rows produced, in memory; this is intended for tests and benchmarks.
+ */
+public final class MetricsRecorder implements MetricsListener {
+
+    private final Histogram parseTime = new Histogram();
+    private final Histogram planTime = new Histogram();
+    private final Histogram compileTime = new Histogram();
+    private final Histogram executeTime = new Histogram();
+    private final Histogram tokens = new Histogram();
+    private final Histogram operators = new Histogram();
+    private final ConcurrentHashMap<Name, LongAdder> scanned = new ConcurrentHashMap<>();
+    private final LongAdder producedRows = new LongAdder();
+    private final LongAdder producedBytes = new LongAdder();
+
+    @Override
+    public void parsed(long nanos, int tokens) {
+        parseTime.record(nanos);
+        this.tokens.record(tokens);
+    }
+
+    @Override
+    public void planned(long nanos, int operators) {
+        planTime.record(nanos);
+        this.operators.record(operators);
+    }
+
+    @Override
+    public void compiled(long nanos) {
+        compileTime.record(nanos);
+    }
+
+    @Override
+    public void executed(long nanos) {
+        executeTime.record(nanos);
+    }
+
+    @Override
+    public void scanned(@NotNull Name table, long rows) {
+        scanned.computeIfAbsent(table, k -> new LongAdder()).add(rows);
+    }
+
+    @Override
+    public void produced(long rows, long bytes) {
+        producedRows.add(rows);
+        producedBytes.add(bytes);
+    }
+
+    /**
+     * @return the latencies of parsing, in nanoseconds.
+     */
+    @NotNull
+    public Histogram getParseTime() {
+        return parseTime;
+    }
+
+    /**
+     * @return the latencies of planning, in nanoseconds.
+     */
+    @NotNull
+    public Histogram getPlanTime() {
+        return planTime;
+    }
+
+    /**
+     * @return the latencies of compilation, in nanoseconds.
+     */
+    @NotNull
+    public Histogram getCompileTime() {
+        return compileTime;
+    }
+
+    /**
+     * @return the latencies of execution, in nanoseconds.
+     */
+    @NotNull
+    public Histogram getExecuteTime() {
+        return executeTime;
+    }
+
+    /**
+     * @return the numbers of tokens of the parsed statements.
+     */
+    @NotNull
+    public Histogram getTokens() {
+        return tokens;
+    }
+
+    /**
+     * @return the numbers of operators of the planned statements.
+     */
+    @NotNull
+    public Histogram getOperators() {
+        return operators;
+    }
+
+    /**
+     * @param table the name of a table.
+     * @return the total number of rows scanned from the table.
+     */
+    public long getScannedRows(@NotNull Name table) {
+        LongAdder rows = scanned.get(table);
+        return rows == null ? 0 : rows.sum();
+    }
+
+    /**
+     * @return the total number of rows scanned from each table.
+     */
+    @NotNull
+    public Map<Name, Long> getScannedRows() {
+        Map<Name, Long> rows = new HashMap<>();
+        scanned.forEach((table, adder) -> rows.put(table, adder.sum()));
+        return rows;
+    }
+
+    /**
+     * @return the total number of produced rows.
+     */
+    public long getProducedRows() {
+        return producedRows.sum();
+    }
+
+    /**
+     * @return the total estimated size of the produced rows, in bytes.
+     */
+    public long getProducedBytes() {
+        return producedBytes.sum();
+    }
+}
@@ -0,0 +1,9 @@
+/**
+ * <p>
+ *     This package contains the interfaces for observing the phases of a query, and an in-memory implementation of
+ *     them for tests and benchmarks.
+ * </p>
+ * @see org.partiql.spi.metrics.MetricsListener
+ * @see org.partiql.spi.metrics.MetricsRecorder
+ */
+package org.partiql.spi.metrics;
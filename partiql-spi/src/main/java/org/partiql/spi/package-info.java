@@ -3,6 +3,7 @@
  *     This package is the root of the SPI module, which provides APIs that are used across PartiQL's libraries.
  * </p>
  * @see org.partiql.spi.errors
+ * @see org.partiql.spi.metrics
  * @see org.partiql.spi.value
  * @see org.partiql.types
  */
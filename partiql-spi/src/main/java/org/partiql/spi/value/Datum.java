@@ -458,6 +458,25 @@ public interface Datum extends Iterable<Datum> {
         throw new InvalidOperationException(getType(), "getInsensitive");
     }
 
+    /**
+     * @return the shape of a {@link PType#STRUCT} whose values are stored by position; null if its values are not
+     * stored by position, or if this is not a struct. The default implementation returns null.
+     */
+    @Nullable
+    default Shape getShape() {
+        return null;
+    }
+
+    /**
+     * @param index the position of a field in the {@link #getShape()} of this struct.
+     * @return the value of the field at the given position of a {@link PType#STRUCT} which has a shape.
+     * @throws InvalidOperationException if this value has no shape.
+     */
+    @NotNull
+    default Datum get(int index) {
+        throw new InvalidOperationException(getType(), "get");
+    }
+
     /**
      * Returns the value associated with the given key in a MAP.
      * @param key the key to look up
@@ -917,6 +936,20 @@ public interface Datum extends Iterable<Datum> {
         return new DatumStruct(values);
     }
 
+    /**
+     * Creates a struct whose values are stored by position, in the order of the field names of the given shape. Structs
+     * which share a shape store only their values, and a field is read with {@link #get(int)} at a position resolved
+     * once for the shape.
+     * @param shape the ordered field names
+     * @param values the backing values, which are not copied
+     * @return a value of type {@link PType#STRUCT}
+     * @throws IllegalArgumentException if the number of values is not the number of fields of the shape
+     */
+    @NotNull
+    static Datum struct(@NotNull Shape shape, @NotNull Datum... values) {
+        return new DatumShapedStruct(shape, values);
+    }
+
     /**
      * Creates a MAP with the given key type, value type, and entries.
      * Duplicate keys follow last-write-wins semantics.
@@ -1221,6 +1254,22 @@ public interface Datum extends Iterable<Datum> {
         return new DatumIntervalDayTime(0, 0, minutes, seconds, newNanos, precision, fractionalPrecision, IntervalCode.MINUTE_SECOND);
     }
 
+    /**
+     * Hash function for PartiQL values which is consistent with {@link #comparator()}.
+     * <p>
+     * Values which compare equal under the comparator, with null and missing treated as equivalent, have the same hash
+     * code. One may key a {@link java.util.HashMap} or {@link java.util.HashSet} by a wrapper whose
+     * {@link Object#hashCode()} is this function and whose {@link Object#equals(Object)} is a comparison of zero, e.g. to
+     * implement GROUP BY or DISTINCT without ordering the values.
+     * </p>
+     * @param datum the value to hash.
+     * @return the hash code of the value.
+     * @see #comparator()
+     */
+    static int hash(@NotNull Datum datum) {
+        return DatumHasher.hash(datum);
+    }
+
     /**
      * Comparator for PartiQL values.
      * <p>
@@ -0,0 +1,146 @@
+package org.partiql.spi.value;
+
+import org.jetbrains.annotations.NotNull;
+import org.partiql.spi.types.PType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * Computes hash codes of {@link Datum}s which are consistent with {@link DatumComparator}: values which compare equal
+ * (with null and missing equivalent) have the same hash code.
+ * <p>
+ * Values of the same type family are hashed by a normalized form of their value, since the comparator compares values
+ * of different types within a family: numbers by their double value, text by its string, datetimes by their instant
+ * at UTC, and collections by their elements (independently of order for bags, structs, and maps).
+ * <p>
+ * This shall always be package-private (internal).
+ */
+final class DatumHasher {
+
+    private static final int UNKNOWN = 0;
+
+    private DatumHasher() {
+    }
+
+    static int hash(@NotNull Datum datum) {
+        if (datum.isNull() || datum.isMissing()) {
+            return UNKNOWN;
+        }
+        if (datum.getType().code() == PType.VARIANT) {
+            return hash(datum.lower());
+        }
+        switch (datum.getType().code()) {
+            case PType.BOOL:
+                return Boolean.hashCode(datum.getBoolean());
+            case PType.TINYINT:
+                return hashDouble(datum.getByte());
+            case PType.SMALLINT:
+                return hashDouble(datum.getShort());
+            case PType.INTEGER:
+                return hashDouble(datum.getInt());
+            case PType.BIGINT:
+                return hashDouble((double) datum.getLong());
+            case PType.NUMERIC:
+            case PType.DECIMAL:
+                return hashDecimal(datum.getBigDecimal());
+            case PType.REAL:
+                return hashDouble(datum.getFloat());
+            case PType.DOUBLE:
+                return hashDouble(datum.getDouble());
+            case PType.CHAR:
+            case PType.VARCHAR:
+            case PType.STRING:
+                return datum.getString().hashCode();
+            case PType.BLOB:
+            case PType.CLOB:
+                return Arrays.hashCode(datum.getBytes());
+            case PType.DATE:
+                return hashInstant(datum.getLocalDate().atTime(LocalTime.MIN));
+            case PType.TIMESTAMP:
+                return hashInstant(datum.getLocalDateTime());
+            case PType.TIMESTAMPZ:
+                return hashInstant(datum.getOffsetDateTime().withOffsetSameInstant(ZoneOffset.UTC).toLocalDateTime());
+            case PType.TIME:
+                return Long.hashCode(datum.getLocalTime().toNanoOfDay());
+            case PType.TIMEZ:
+                return Long.hashCode(datum.getOffsetTime().withOffsetSameInstant(ZoneOffset.UTC).toLocalTime().toNanoOfDay());
+            case PType.INTERVAL_YM:
+                return Long.hashCode(datum.getTotalMonths());
+            case PType.INTERVAL_DT:
+                return 31 * Long.hashCode(datum.getTotalSeconds()) + datum.getNanos();
+            case PType.ARRAY:
+                return hashOrdered(datum.iterator());
+            case PType.BAG:
+                return hashUnordered(datum.iterator());
+            case PType.STRUCT:
+            case PType.ROW:
+                return hashFields(datum.getFields());
+            case PType.MAP:
+                return hashEntries(datum.getEntries());
+            default:
+                // every value of an unknown type is in the same bucket, which is consistent with any equality
+                return datum.getType().code();
+        }
+    }
+
+    /**
+     * Integers and decimals are compared exactly, and with approximate numbers by their double value, so equal values
+     * always convert to the same double.
+     */
+    private static int hashDecimal(BigDecimal value) {
+        return hashDouble(value.doubleValue());
+    }
+
+    private static int hashDouble(double value) {
+        // the comparator considers a decimal zero equal to both -0.0 and 0.0
+        if (value == 0.0) {
+            return 0;
+        }
+        return Double.hashCode(value);
+    }
+
+    private static int hashInstant(LocalDateTime value) {
+        LocalDate date = value.toLocalDate();
+        return 31 * Long.hashCode(date.toEpochDay()) + Long.hashCode(value.toLocalTime().toNanoOfDay());
+    }
+
+    private static int hashOrdered(Iterator<Datum> elements) {
+        int hash = 1;
+        while (elements.hasNext()) {
+            hash = 31 * hash + hash(elements.next());
+        }
+        return hash;
+    }
+
+    private static int hashUnordered(Iterator<Datum> elements) {
+        int hash = 0;
+        while (elements.hasNext()) {
+            hash += hash(elements.next());
+        }
+        return hash;
+    }
+
+    private static int hashFields(Iterator<Field> fields) {
+        int hash = 0;
+        while (fields.hasNext()) {
+            Field field = fields.next();
+            hash += 31 * field.getName().hashCode() + hash(field.getValue());
+        }
+        return hash;
+    }
+
+    private static int hashEntries(Iterator<Entry> entries) {
+        int hash = 0;
+        while (entries.hasNext()) {
+            Entry entry = entries.next();
+            hash += 31 * hash(entry.getKey()) + hash(entry.getValue());
+        }
+        return hash;
+    }
+}
@@ -2,7 +2,9 @@ package org.partiql.spi.value;
 
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.partiql.spi.catalog.Projection;
 import org.partiql.spi.internal.value.ion.IonDatumReader;
+import org.partiql.spi.internal.value.json.JsonDatumReader;
 
 import java.io.InputStream;
 import java.util.HashMap;
@@ -33,7 +35,16 @@ public interface DatumReader extends AutoCloseable {
      */
     @NotNull
     public static DatumReader ion(InputStream input) {
-        return new IonDatumReader(input, new HashMap<>());
+        return new IonDatumReader(input, new HashMap<>(), null);
+    }
+
+    /**
+     * @return a reader implementation for {@link Encoding#JSON}, which reads numbers with a fraction or an exponent as
+     * DOUBLE PRECISION.
+     */
+    @NotNull
+    public static DatumReader json(InputStream input) {
+        return new JsonDatumReader(input, false, null);
     }
 
     /**
@@ -42,6 +53,8 @@ public interface DatumReader extends AutoCloseable {
     public class Builder {
 
         private Encoding encoding;
+        private boolean exactNumbers = false;
+        private Projection projection = null;
         private final Map<Encoding, DatumReader> others = new HashMap<>();
 
         public Builder encoding(Encoding encoding) {
@@ -49,6 +62,33 @@ public interface DatumReader extends AutoCloseable {
             return this;
         }
 
+        /**
+         * Sets how numbers without a PartiQL type are read by encodings which do not distinguish exact and approximate
+         * numbers, i.e. {@link Encoding#JSON}. Integers are always read as BIGINT, or as DECIMAL if they are out of its
+         * range.
+         *
+         * @param exactNumbers true to read numbers with a fraction or an exponent as DECIMAL, rather than as DOUBLE
+         *                     PRECISION; defaults to false.
+         * @return this builder.
+         */
+        public Builder exactNumbers(boolean exactNumbers) {
+            this.exactNumbers = exactNumbers;
+            return this;
+        }
+
+        /**
+         * Reads each value as a record narrowed to the given projection, like {@link Projection#apply(Datum)}, where
+         * the elements of a top-level collection are each narrowed as a record. The fields which are not projected
+         * are skipped without being decoded; in binary Ion, a skipped field costs the same regardless of its size.
+         *
+         * @param projection the fields to read, e.g. those required by a query.
+         * @return this builder.
+         */
+        public Builder projection(Projection projection) {
+            this.projection = projection;
+            return this;
+        }
+
         public Builder register(Encoding encoding, DatumReader reader) {
             others.put(encoding, reader);
             return this;
@@ -65,7 +105,9 @@ public interface DatumReader extends AutoCloseable {
             }
             switch (encoding.code()) {
                 case Encoding.ION:
-                    return new IonDatumReader(input, others);
+                    return new IonDatumReader(input, others, projection);
+                case Encoding.JSON:
+                    return new JsonDatumReader(input, exactNumbers, projection);
                 default:
                     throw new IllegalArgumentException("no reader for encoding: " + encoding);
             }
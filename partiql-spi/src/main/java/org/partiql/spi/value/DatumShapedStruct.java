@@ -0,0 +1,97 @@
+package org.partiql.spi.value;
+
+import org.jetbrains.annotations.NotNull;
+import org.partiql.spi.types.PType;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.StringJoiner;
+
+/**
+ * A struct whose values are stored by position, in the order of the field names of its {@link Shape}.
+ * This shall always be package-private (internal).
+ */
+class DatumShapedStruct implements Datum {
+
+    @NotNull
+    private final Shape _shape;
+
+    @NotNull
+    private final Datum[] _values;
+
+    private final static PType _type = PType.struct();
+
+    DatumShapedStruct(@NotNull Shape shape, @NotNull Datum[] values) {
+        if (shape.size() != values.length) {
+            throw new IllegalArgumentException("Expected " + shape.size() + " values for " + shape + ", found " + values.length);
+        }
+        _shape = shape;
+        _values = values;
+    }
+
+    @Override
+    @NotNull
+    public Iterator<Field> getFields() {
+        return new Iterator<Field>() {
+
+            private int i = 0;
+
+            @Override
+            public boolean hasNext() {
+                return i < _values.length;
+            }
+
+            @Override
+            public Field next() {
+                if (i == _values.length) {
+                    throw new NoSuchElementException();
+                }
+                Field field = Field.of(_shape.getName(i), _values[i]);
+                i++;
+                return field;
+            }
+        };
+    }
+
+    @Override
+    public Datum get(@NotNull String name) {
+        int i = _shape.indexOf(name);
+        return (i < 0) ? null : _values[i];
+    }
+
+    @Override
+    public Datum getInsensitive(@NotNull String name) {
+        int i = _shape.indexOfInsensitive(name);
+        return (i < 0) ? null : _values[i];
+    }
+
+    @NotNull
+    @Override
+    public Shape getShape() {
+        return _shape;
+    }
+
+    @NotNull
+    @Override
+    public Datum get(int index) {
+        return _values[index];
+    }
+
+    @NotNull
+    @Override
+    public PType getType() {
+        return _type;
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner joiner = new StringJoiner(", ", "{", "}");
+        for (int i = 0; i < _values.length; i++) {
+            joiner.add(_shape.getName(i) + ": " + _values[i]);
+        }
+        return "DatumShapedStruct{" +
+                "_type=" + _type +
+                ", _value=" + joiner +
+                '}';
+    }
+}
@@ -1,5 +1,11 @@
 package org.partiql.spi.value;
 
+import org.jetbrains.annotations.NotNull;
+import org.partiql.spi.internal.value.ion.IonDatumWriter;
+import org.partiql.spi.internal.value.json.JsonDatumWriter;
+
+import java.io.OutputStream;
+
 /**
  * The {@link DatumWriter} interface is a low-level writer interface for writing streams of PartiQL data.
  * <br>
@@ -9,8 +15,83 @@ public interface DatumWriter extends AutoCloseable {
 
     /**
      * Like java.io.Reader with combined `append` and `write` since this does not implement Appendable.
+     * <br>
+     * Collections and structs are written while they are iterated, so a lazily-evaluated collection (e.g. the result
+     * of a query) is never materialized.
      *
      * @param datum to write.
+     * @return this writer.
      */
+    @NotNull
     public DatumWriter write(Datum datum);
+
+    /**
+     * Writes any buffered values to the underlying output.
+     */
+    public default void flush() {
+        // nothing is buffered by default
+    }
+
+    @NotNull
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return a text writer implementation for {@link Encoding#ION}.
+     */
+    @NotNull
+    public static DatumWriter ion(OutputStream output) {
+        return IonDatumWriter.text(output);
+    }
+
+    /**
+     * @return a writer implementation for {@link Encoding#JSON}, which writes one value per line.
+     */
+    @NotNull
+    public static DatumWriter json(OutputStream output) {
+        return new JsonDatumWriter(output);
+    }
+
+    /**
+     * A DatumWriter writes many values to the same output.
+     */
+    public class Builder {
+
+        private Encoding encoding;
+        private boolean binary = false;
+
+        public Builder encoding(Encoding encoding) {
+            this.encoding = encoding;
+            return this;
+        }
+
+        /**
+         * @param binary true to use the binary format of the encoding, if it has one; defaults to false.
+         * @return this builder.
+         */
+        public Builder binary(boolean binary) {
+            this.binary = binary;
+            return this;
+        }
+
+        /**
+         * @throws IllegalArgumentException if the encoding is not set or the encoding is not supported.
+         * @param output OutputStream
+         * @return DatumWriter
+         */
+        public DatumWriter build(OutputStream output) {
+            if (encoding == null) {
+                throw new IllegalArgumentException("encoding cannot be null, set with .encoding(..)");
+            }
+            switch (encoding.code()) {
+                case Encoding.ION:
+                    return binary ? IonDatumWriter.binary(output) : IonDatumWriter.text(output);
+                case Encoding.JSON:
+                    return new JsonDatumWriter(output);
+                default:
+                    throw new IllegalArgumentException("no writer for encoding: " + encoding);
+            }
+        }
+    }
 }
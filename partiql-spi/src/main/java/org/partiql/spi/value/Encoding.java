@@ -18,6 +18,11 @@ public class Encoding extends Enum {
      */
     public static final int ION = 1;
 
+    /**
+     * Represents the JSON encoding of PartiQL values, which does not preserve their types.
+     */
+    public static final int JSON = 2;
+
     /**
      * @return a {@link Encoding} with code {@link Encoding#ION}
      */
@@ -26,13 +31,25 @@ public class Encoding extends Enum {
         return new Encoding(ION);
     }
 
+    /**
+     * @return a {@link Encoding} with code {@link Encoding#JSON}
+     */
+    @NotNull
+    public static Encoding JSON() {
+        return new Encoding(JSON);
+    }
+
     @NotNull
     @Override
     public String name() throws UnsupportedCodeException {
         int code = code();
-        if (code == ION) {
-            return "ION";
+        switch (code) {
+            case ION:
+                return "ION";
+            case JSON:
+                return "JSON";
+            default:
+                throw new UnsupportedCodeException(code);
         }
-        throw new UnsupportedCodeException(code);
     }
 }
@@ -0,0 +1,123 @@
+package org.partiql.spi.value;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * The ordered field names of a struct whose values are stored by position, which is shared by every struct with the
+ * same field names. The position of a field is resolved once per shape, rather than once per struct, so that a field
+ * of a struct with a known shape is read with {@link Datum#get(int)}.
+ *
+ * @see Datum#struct(Shape, Datum...)
+ * @see Datum#getShape()
+ */
+public final class Shape {
+
+    @NotNull
+    private final String[] names;
+
+    @NotNull
+    private final HashMap<String, Integer> index;
+
+    @NotNull
+    private final HashMap<String, Integer> indexNormalized;
+
+    private Shape(@NotNull String[] names) {
+        this.names = names;
+        this.index = new HashMap<>();
+        this.indexNormalized = new HashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            // the first of duplicate fields is the one which is read by name
+            index.putIfAbsent(names[i], i);
+            indexNormalized.putIfAbsent(names[i].toLowerCase(), i);
+        }
+    }
+
+    /**
+     * @param names the ordered field names.
+     * @return a shape of the given field names.
+     */
+    @NotNull
+    public static Shape of(@NotNull String... names) {
+        return new Shape(names.clone());
+    }
+
+    /**
+     * @param names the ordered field names.
+     * @return a shape of the given field names.
+     */
+    @NotNull
+    public static Shape of(@NotNull List<String> names) {
+        return new Shape(names.toArray(new String[0]));
+    }
+
+    /**
+     * @return the number of fields.
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * @param index the position of a field.
+     * @return the name of the field at the given position.
+     */
+    @NotNull
+    public String getName(int index) {
+        return names[index];
+    }
+
+    /**
+     * @param name a field name.
+     * @return the position of the first field with the given name (case-sensitive); -1 if there is none.
+     */
+    public int indexOf(@NotNull String name) {
+        Integer i = index.get(name);
+        return (i == null) ? -1 : i;
+    }
+
+    /**
+     * @param name a field name.
+     * @return the position of the first field with the given name (case-insensitive); -1 if there is none.
+     */
+    public int indexOfInsensitive(@NotNull String name) {
+        Integer i = indexNormalized.get(name.toLowerCase());
+        return (i == null) ? -1 : i;
+    }
+
+    /**
+     * @param names the ordered field names.
+     * @return true if this shape has exactly the given field names.
+     */
+    public boolean matches(@NotNull List<String> names) {
+        if (names.size() != this.names.length) {
+            return false;
+        }
+        for (int i = 0; i < this.names.length; i++) {
+            if (!this.names[i].equals(names.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Shape)) return false;
+        return Arrays.equals(names, ((Shape) o).names);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(names);
+    }
+
+    @Override
+    public String toString() {
+        return "Shape" + Arrays.toString(names);
+    }
+}
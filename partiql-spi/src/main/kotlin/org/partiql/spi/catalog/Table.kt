@@ -1,5 +1,6 @@
 package org.partiql.spi.catalog
 
+import org.partiql.spi.catalog.impl.MemoryIndex
 import org.partiql.spi.catalog.impl.StandardTable
 import org.partiql.spi.types.PType
 import org.partiql.spi.value.Datum
@@ -24,6 +25,31 @@ public interface Table {
      */
     public fun getDatum(): Datum = Datum.nullValue()
 
+    /**
+     * The table's data, narrowed to the given [Projection].
+     *
+     * The planner provides a projection when a query only references some fields of each record; implementations may
+     * override this to avoid reading or decoding the unreferenced fields. Fields outside the projection may be omitted
+     * from the result, but values must be otherwise identical to [getDatum].
+     *
+     * @param projection the fields referenced by the query.
+     */
+    public fun getDatum(projection: Projection): Datum = projection.apply(getDatum())
+
+    /**
+     * The table's statistics, used by the planner for cardinality estimation and join ordering.
+     *
+     * @return the table's statistics, or null if there are none.
+     */
+    public fun getStatistics(): TableStatistics? = null
+
+    /**
+     * The table's secondary indexes, used by the planner to replace filtered scans with index lookups.
+     *
+     * @return the table's indexes, or an empty list if there are none.
+     */
+    public fun getIndexes(): List<Index> = emptyList()
+
     /**
      * Factory methods and builder.
      */
@@ -98,6 +124,8 @@ public interface Table {
         private var name: String? = null
         private var schema: PType = PType.dynamic()
         private var datum: Datum = Datum.nullValue()
+        private var statistics: TableStatistics? = null
+        private val indexes: MutableList<Pair<List<String>, Boolean>> = mutableListOf()
 
         public fun name(name: String): Builder {
             this.name = name
@@ -114,10 +142,40 @@ public interface Table {
             return this
         }
 
+        public fun statistics(statistics: TableStatistics): Builder {
+            this.statistics = statistics
+            return this
+        }
+
+        /**
+         * Adds an in-memory hash index on the given path of each record, which serves equality lookups.
+         */
+        public fun hashIndex(vararg path: String): Builder {
+            this.indexes.add(path.toList() to false)
+            return this
+        }
+
+        /**
+         * Adds an in-memory sorted index on the given path of each record, which serves equality and range lookups.
+         */
+        public fun sortedIndex(vararg path: String): Builder {
+            this.indexes.add(path.toList() to true)
+            return this
+        }
+
         public fun build(): Table {
             // Validate builder parameters
             val name = this.name ?: throw IllegalStateException("Table name cannot be null")
-            return StandardTable(Name.of(name), schema, datum)
+            val code = datum.type.code()
+            if (indexes.isNotEmpty() && (datum.isNull || (code != PType.BAG && code != PType.ARRAY))) {
+                throw IllegalStateException("Indexed table data must be a collection")
+            }
+            val indexes = this.indexes.map { (path, sorted) ->
+                if (path.isEmpty()) throw IllegalStateException("Index path cannot be empty")
+                val kind = if (sorted) "sorted" else "hash"
+                MemoryIndex("${kind}_${path.joinToString("_")}", path, sorted, datum)
+            }
+            return StandardTable(Name.of(name), schema, datum, statistics, indexes)
         }
     }
 }
@@ -0,0 +1,171 @@
+package org.partiql.spi.catalog.impl
+
+import org.partiql.spi.catalog.Index
+import org.partiql.spi.types.PType
+import org.partiql.spi.value.Datum
+import java.math.BigDecimal
+import java.util.TreeMap
+
+/**
+ * An in-memory [Index] over a collection of records, built eagerly.
+ *
+ * Keys are normalized so that values which compare equal under PartiQL's `=` share a key: exact numerics (integers and
+ * decimals) become [BigDecimal]s without trailing zeros, and variable-length strings become [String]s. Records whose
+ * indexed value is absent, null, missing, ambiguous, or of any other type are not keyed; they are returned by every
+ * lookup so that the predicate above the lookup can decide whether they match.
+ *
+ * A sorted index keeps numeric and string keys in separate ordered maps, which is consistent with the ordering of
+ * PartiQL's `<` for values of the same type. A range lookup also returns the records keyed by the other map.
+ *
+ * @param name the name of the index.
+ * @param path the path of the indexed value within each record.
+ * @param sorted true if the index supports range lookups.
+ * @param collection the indexed records, a bag or an array.
+ */
+internal class MemoryIndex(
+    private val name: String,
+    private val path: List<String>,
+    private val sorted: Boolean,
+    collection: Datum,
+) : Index {
+
+    /**
+     * A record and its position within the collection, which is used to return records in their original order.
+     */
+    private class Entry(val position: Int, val record: Datum)
+
+    private val ordered = collection.type.code() == PType.ARRAY
+    private val all = mutableListOf<Entry>()
+    private val unkeyed = mutableListOf<Entry>()
+    private val hashed = HashMap<Any, MutableList<Entry>>()
+    private val numbers = TreeMap<BigDecimal, MutableList<Entry>>()
+    private val strings = TreeMap<String, MutableList<Entry>>()
+
+    init {
+        for (record in collection) {
+            val entry = Entry(all.size, record)
+            all.add(entry)
+            val key = key(value(record))
+            when {
+                key == null -> unkeyed.add(entry)
+                !sorted -> hashed.getOrPut(key) { mutableListOf() }.add(entry)
+                key is BigDecimal -> numbers.getOrPut(key) { mutableListOf() }.add(entry)
+                key is String -> strings.getOrPut(key) { mutableListOf() }.add(entry)
+                else -> unkeyed.add(entry)
+            }
+        }
+    }
+
+    override fun getName(): String = name
+
+    override fun getPath(): List<String> = path
+
+    override fun isSorted(): Boolean = sorted
+
+    override fun lookup(key: Datum): Datum {
+        val k = key(key) ?: return result(if (key.isNull || key.isMissing) unkeyed else all)
+        val matches = when {
+            !sorted -> hashed[k]
+            k is BigDecimal -> numbers[k]
+            k is String -> strings[k]
+            else -> null
+        }
+        return result(unkeyed, matches ?: emptyList())
+    }
+
+    override fun range(lower: Datum?, lowerInclusive: Boolean, upper: Datum?, upperInclusive: Boolean): Datum {
+        if (!sorted) {
+            return super.range(lower, lowerInclusive, upper, upperInclusive)
+        }
+        if ((lower != null && (lower.isNull || lower.isMissing)) || (upper != null && (upper.isNull || upper.isMissing))) {
+            // comparisons with null are never true
+            return result(unkeyed)
+        }
+        val lo = lower?.let { key(it) ?: return result(all) }
+        val hi = upper?.let { key(it) ?: return result(all) }
+        // values of the other type are kept, as comparing them with the bounds is an error in strict mode
+        val matches = when {
+            lo is BigDecimal || hi is BigDecimal -> {
+                if ((lo != null && lo !is BigDecimal) || (hi != null && hi !is BigDecimal)) return result(all)
+                sub(numbers, lo as BigDecimal?, lowerInclusive, hi as BigDecimal?, upperInclusive).values + strings.values
+            }
+            lo is String || hi is String -> {
+                if ((lo != null && lo !is String) || (hi != null && hi !is String)) return result(all)
+                sub(strings, lo as String?, lowerInclusive, hi as String?, upperInclusive).values + numbers.values
+            }
+            // unbounded on both sides
+            else -> return result(all)
+        }
+        return result(unkeyed, matches.flatten())
+    }
+
+    private fun <K : Comparable<K>> sub(
+        map: TreeMap<K, MutableList<Entry>>,
+        lower: K?,
+        lowerInclusive: Boolean,
+        upper: K?,
+        upperInclusive: Boolean,
+    ): Map<K, List<Entry>> = when {
+        lower != null && upper != null -> {
+            if (lower > upper) emptyMap() else map.subMap(lower, lowerInclusive, upper, upperInclusive)
+        }
+        lower != null -> map.tailMap(lower, lowerInclusive)
+        upper != null -> map.headMap(upper, upperInclusive)
+        else -> map
+    }
+
+    /**
+     * Returns the given entries as a collection, in their original order.
+     */
+    private fun result(vararg entries: List<Entry>): Datum {
+        val records = when (entries.size) {
+            1 -> entries[0].map { it.record }
+            else -> entries.flatMap { it }.sortedBy { it.position }.map { it.record }
+        }
+        return if (ordered) Datum.array(records) else Datum.bag(records)
+    }
+
+    /**
+     * @return the value at the indexed path, or null if it is absent or ambiguous.
+     */
+    private fun value(record: Datum): Datum? {
+        var curr = record
+        for (step in path) {
+            if (curr.isNull || curr.isMissing || curr.type.code() != PType.STRUCT) {
+                return null
+            }
+            var match: Datum? = null
+            for (field in curr.fields) {
+                if (field.name.equals(step, ignoreCase = true)) {
+                    if (match != null) return null
+                    match = field.value
+                }
+            }
+            curr = match ?: return null
+        }
+        return curr
+    }
+
+    /**
+     * @return the normalized key of a value, or null if the value is not keyed.
+     */
+    private fun key(value: Datum?): Any? {
+        if (value == null || value.isNull || value.isMissing) {
+            return null
+        }
+        return when (value.type.code()) {
+            PType.TINYINT -> number(BigDecimal.valueOf(value.byte.toLong()))
+            PType.SMALLINT -> number(BigDecimal.valueOf(value.short.toLong()))
+            PType.INTEGER -> number(BigDecimal.valueOf(value.int.toLong()))
+            PType.BIGINT -> number(BigDecimal.valueOf(value.long))
+            PType.NUMERIC, PType.DECIMAL -> number(value.bigDecimal)
+            PType.STRING, PType.VARCHAR -> value.string
+            PType.BOOL -> if (sorted) null else value.boolean
+            else -> null
+        }
+    }
+
+    private fun number(value: BigDecimal): BigDecimal {
+        return if (value.signum() == 0) BigDecimal.ZERO else value.stripTrailingZeros()
+    }
+}
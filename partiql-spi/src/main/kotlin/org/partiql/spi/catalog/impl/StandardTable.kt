@@ -1,7 +1,9 @@
 package org.partiql.spi.catalog.impl
 
+import org.partiql.spi.catalog.Index
 import org.partiql.spi.catalog.Name
 import org.partiql.spi.catalog.Table
+import org.partiql.spi.catalog.TableStatistics
 import org.partiql.spi.types.PType
 import org.partiql.spi.value.Datum
 
@@ -14,16 +16,22 @@ import org.partiql.spi.value.Datum
  * @param name
  * @param schema
  * @param datum
+ * @param statistics
+ * @param indexes
  */
 internal class StandardTable(
     private var name: Name,
     private var schema: PType,
     private var datum: Datum,
+    private var statistics: TableStatistics? = null,
+    private var indexes: List<Index> = emptyList(),
 ) : Table {
 
     override fun getName(): Name = name
     override fun getSchema(): PType = schema
     override fun getDatum(): Datum = datum
+    override fun getStatistics(): TableStatistics? = statistics
+    override fun getIndexes(): List<Index> = indexes
 
     // TODO REMOVE ME, THIS IS REQUIRED FOR EQUALITY IN UNIT TESTS
     override fun equals(other: Any?): Boolean {
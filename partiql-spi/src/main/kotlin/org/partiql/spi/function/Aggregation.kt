@@ -27,4 +27,37 @@ internal object Aggregation {
             .body(accumulator)
             .build()
     }
+
+    /**
+     * Like [overload], but the accumulator is chosen for the types of the arguments, which are known when the
+     * aggregation is planned; e.g. to use primitive arithmetic when the arguments' precision is bounded.
+     *
+     * @param name
+     * @param parameters
+     * @param returns
+     * @param accumulator provides an accumulator for the arguments' types.
+     * @return
+     */
+    @JvmStatic
+    fun specialized(
+        name: String,
+        parameters: Array<Parameter>,
+        returns: PType,
+        accumulator: (Array<PType>) -> Accumulator,
+    ): AggOverload {
+        val types = parameters.map { it.getType() }
+        val signature = RoutineOverloadSignature(name, types)
+        val instance = RoutineSignature(name, types.mapIndexed { i, type -> Parameter("arg$i", type) }, returns)
+        return object : AggOverload() {
+
+            override fun getSignature(): RoutineOverloadSignature = signature
+
+            override fun getInstance(args: Array<PType>): Agg = object : Agg() {
+
+                override fun getAccumulator(): Accumulator = accumulator(args)
+
+                override fun getSignature(): RoutineSignature = instance
+            }
+        }
+    }
 }
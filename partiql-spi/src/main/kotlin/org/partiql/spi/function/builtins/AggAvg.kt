@@ -3,11 +3,13 @@
 
 package org.partiql.spi.function.builtins
 
+import org.partiql.spi.function.Accumulator
 import org.partiql.spi.function.Aggregation
 import org.partiql.spi.function.Parameter
 import org.partiql.spi.function.builtins.internal.AccumulatorAvgDecimal
 import org.partiql.spi.function.builtins.internal.AccumulatorAvgDouble
 import org.partiql.spi.function.builtins.internal.AccumulatorAvgDynamic
+import org.partiql.spi.function.builtins.internal.AccumulatorAvgExact
 import org.partiql.spi.types.PType
 
 /**
@@ -26,14 +28,14 @@ internal val Agg_AVG__INT8__INT8 = Aggregation.overload(
     name = "avg",
     returns = AVG_DECIMAL,
     parameters = arrayOf(Parameter("value", PType.tinyint())),
-    accumulator = ::AccumulatorAvgDecimal,
+    accumulator = ::AccumulatorAvgExact,
 )
 
 internal val Agg_AVG__INT16__INT16 = Aggregation.overload(
     name = "avg",
     returns = AVG_DECIMAL,
     parameters = arrayOf(Parameter("value", PType.smallint())),
-    accumulator = ::AccumulatorAvgDecimal,
+    accumulator = ::AccumulatorAvgExact,
 )
 
 internal val Agg_AVG__INT32__INT32 = Aggregation.overload(
@@ -43,7 +45,7 @@ internal val Agg_AVG__INT32__INT32 = Aggregation.overload(
     parameters = arrayOf(
         Parameter("value", PType.integer()),
     ),
-    accumulator = ::AccumulatorAvgDecimal,
+    accumulator = ::AccumulatorAvgExact,
 )
 
 internal val Agg_AVG__INT64__INT64 = Aggregation.overload(
@@ -53,27 +55,27 @@ internal val Agg_AVG__INT64__INT64 = Aggregation.overload(
     parameters = arrayOf(
         Parameter("value", PType.bigint()),
     ),
-    accumulator = ::AccumulatorAvgDecimal,
+    accumulator = ::AccumulatorAvgExact,
 )
 
-internal val Agg_AVG__NUMERIC__NUMERIC = Aggregation.overload(
+internal val Agg_AVG__NUMERIC__NUMERIC = Aggregation.specialized(
 
     name = "avg",
     returns = AVG_DECIMAL,
     parameters = arrayOf(
         Parameter("value", DefaultNumeric.NUMERIC),
     ),
-    accumulator = ::AccumulatorAvgDecimal,
+    accumulator = { args -> avgDecimal(args[0]) },
 )
 
-internal val Agg_AVG__DECIMAL_ARBITRARY__DECIMAL_ARBITRARY = Aggregation.overload(
+internal val Agg_AVG__DECIMAL_ARBITRARY__DECIMAL_ARBITRARY = Aggregation.specialized(
 
     name = "avg",
     returns = AVG_DECIMAL,
     parameters = arrayOf(
         Parameter("value", AVG_DECIMAL),
     ),
-    accumulator = ::AccumulatorAvgDecimal,
+    accumulator = { args -> avgDecimal(args[0]) },
 )
 
 internal val Agg_AVG__FLOAT32__FLOAT32 = Aggregation.overload(
@@ -105,3 +107,11 @@ internal val Agg_AVG__ANY__ANY = Aggregation.overload(
     ),
     accumulator = ::AccumulatorAvgDynamic,
 )
+
+/**
+ * Averages exact numerics with long arithmetic if the argument's precision is known to fit in a long.
+ */
+private fun avgDecimal(arg: PType): Accumulator = when {
+    isBoundedDecimal(arg) -> AccumulatorAvgExact()
+    else -> AccumulatorAvgDecimal()
+}
@@ -3,12 +3,14 @@
 
 package org.partiql.spi.function.builtins
 
+import org.partiql.spi.function.Accumulator
 import org.partiql.spi.function.Aggregation
 import org.partiql.spi.function.Parameter
 import org.partiql.spi.function.builtins.internal.AccumulatorSumBigInt
 import org.partiql.spi.function.builtins.internal.AccumulatorSumDecimal
 import org.partiql.spi.function.builtins.internal.AccumulatorSumDouble
 import org.partiql.spi.function.builtins.internal.AccumulatorSumDynamic
+import org.partiql.spi.function.builtins.internal.AccumulatorSumExact
 import org.partiql.spi.types.PType
 
 /**
@@ -58,25 +60,25 @@ internal val Agg_SUM__INT64__INT64 = Aggregation.overload(
     parameters = arrayOf(
         Parameter("value", PType.bigint())
     ),
-    accumulator = { AccumulatorSumDecimal(DefaultDecimal.DECIMAL) },
+    accumulator = { AccumulatorSumExact(DefaultDecimal.DECIMAL) },
 )
 
-internal val Agg_SUM__NUMERIC__NUMERIC = Aggregation.overload(
+internal val Agg_SUM__NUMERIC__NUMERIC = Aggregation.specialized(
     name = "sum",
     returns = DefaultNumeric.NUMERIC,
     parameters = arrayOf(
         Parameter("value", DefaultNumeric.NUMERIC),
     ),
-    accumulator = { AccumulatorSumDecimal(DefaultNumeric.NUMERIC) },
+    accumulator = { args -> sumDecimal(args[0], DefaultNumeric.NUMERIC) },
 )
 
-internal val Agg_SUM__DECIMAL_ARBITRARY__DECIMAL_ARBITRARY = Aggregation.overload(
+internal val Agg_SUM__DECIMAL_ARBITRARY__DECIMAL_ARBITRARY = Aggregation.specialized(
     name = "sum",
     returns = DefaultDecimal.DECIMAL,
     parameters = arrayOf(
         Parameter("value", DefaultDecimal.DECIMAL), // TODO: Rewrite aggregations using new function modeling.
     ),
-    accumulator = { AccumulatorSumDecimal(DefaultDecimal.DECIMAL) },
+    accumulator = { args -> sumDecimal(args[0], DefaultDecimal.DECIMAL) },
 )
 
 internal val Agg_SUM__FLOAT32__FLOAT32 = Aggregation.overload(
@@ -105,3 +107,19 @@ internal val Agg_SUM__ANY__ANY = Aggregation.overload(
     ),
     accumulator = ::AccumulatorSumDynamic,
 )
+
+/**
+ * Sums exact numerics with long arithmetic if the argument's precision is known to fit in a long.
+ */
+private fun sumDecimal(arg: PType, targetType: PType): Accumulator = when {
+    isBoundedDecimal(arg) -> AccumulatorSumExact(targetType)
+    else -> AccumulatorSumDecimal(targetType)
+}
+
+/**
+ * @return true if the type is an exact numeric whose unscaled values fit in a long.
+ */
+internal fun isBoundedDecimal(type: PType): Boolean = when (type.code()) {
+    PType.DECIMAL, PType.NUMERIC -> type.precision <= 18
+    else -> false
+}
@@ -8,6 +8,7 @@ import org.partiql.spi.utils.NumberUtils.AccumulatorType
 import org.partiql.spi.utils.NumberUtils.MATH_CONTEXT
 import org.partiql.spi.utils.NumberUtils.add
 import org.partiql.spi.utils.NumberUtils.bigDecimalOf
+import org.partiql.spi.utils.NumberUtils.doubleValue
 import org.partiql.spi.utils.NumberUtils.numberValue
 import org.partiql.spi.utils.NumberUtils.toTargetType
 import org.partiql.spi.value.Datum
@@ -34,6 +35,33 @@ internal class AccumulatorAvgDecimal : Accumulator() {
     }
 }
 
+/**
+ * Averages integers, or decimals of a bounded precision, with long arithmetic until the sum overflows a long; see
+ * [ExactSum]. The result is the same as that of [AccumulatorAvgDecimal].
+ */
+internal class AccumulatorAvgExact : Accumulator() {
+    private val sum = ExactSum()
+    private var count: Long = 0L
+
+    override fun nextValue(value: Datum) {
+        checkIsNumberType(funcName = "AVG", value = value)
+        sum.add(value)
+        count += 1L
+    }
+
+    override fun nextValues(values: LongArray, offset: Int, length: Int) {
+        for (i in offset until offset + length) {
+            sum.add(values[i])
+        }
+        count += length
+    }
+
+    override fun value(): Datum = when (count) {
+        0L -> Datum.nullValue(DefaultDecimal.DECIMAL)
+        else -> Datum.decimal(sum.value().divide(BigDecimal.valueOf(count), MATH_CONTEXT))
+    }
+}
+
 internal class AccumulatorAvgDouble : Accumulator() {
     private var sum: Double = 0.0
     private var count: Long = 0L
@@ -41,7 +69,7 @@ internal class AccumulatorAvgDouble : Accumulator() {
 
     override fun nextValue(value: Datum) {
         checkIsNumberType(funcName = "AVG", value = value)
-        val arg1 = value.double
+        val arg1 = value.doubleValue()
         if (!init) {
             init = true
         }
@@ -49,6 +77,13 @@ internal class AccumulatorAvgDouble : Accumulator() {
         count += 1L
     }
 
+    override fun nextValues(values: DoubleArray, offset: Int, length: Int) {
+        for (i in offset until offset + length) {
+            sum += values[i]
+        }
+        count += length
+    }
+
     override fun value(): Datum = when (count) {
         0L -> Datum.nullValue(PType.doublePrecision())
         else -> Datum.doublePrecision(sum / count.toDouble())
@@ -1,17 +1,15 @@
 package org.partiql.spi.function.builtins.internal
 
 import org.partiql.spi.value.Datum
-import java.util.TreeSet
 
 internal class AccumulatorDistinct(
     private val _delegate: Accumulator,
 ) : Accumulator() {
 
-    private val seen = TreeSet(Datum.comparator())
+    private val seen = HashSet<Key>()
 
     override fun nextValue(value: Datum) {
-        if (!seen.contains(value)) {
-            seen.add(value)
+        if (seen.add(Key(value))) {
             _delegate.nextValue(value)
         }
     }
@@ -19,4 +17,22 @@ internal class AccumulatorDistinct(
     override fun value(): Datum {
         return _delegate.value()
     }
+
+    /**
+     * Keys a hash set by the value's [Datum.hash] and equality under [Datum.comparator].
+     */
+    private class Key(private val value: Datum) {
+
+        private val hash = Datum.hash(value)
+
+        override fun hashCode(): Int = hash
+
+        override fun equals(other: Any?): Boolean {
+            return other is Key && hash == other.hash && COMPARATOR.compare(value, other.value) == 0
+        }
+    }
+
+    private companion object {
+        val COMPARATOR: Comparator<Datum> = Datum.comparator()
+    }
 }
@@ -29,6 +29,18 @@ internal class AccumulatorSumBigInt : Accumulator() {
         }
     }
 
+    override fun nextValues(values: LongArray, offset: Int, length: Int) {
+        for (i in offset until offset + length) {
+            val longValue = values[i]
+            sum = try {
+                Math.addExact(sum, longValue)
+            } catch (e: ArithmeticException) {
+                throw PErrors.numericValueOutOfRangeException("$sum + $longValue", PType.bigint())
+            }
+            init = true
+        }
+    }
+
     override fun value(): Datum {
         return if (init) Datum.bigint(sum) else Datum.nullValue(PType.bigint())
     }
@@ -54,6 +66,34 @@ internal class AccumulatorSumDecimal(
     }
 }
 
+/**
+ * Sums integers, or decimals of a bounded precision, with long arithmetic until the sum overflows a long; see [ExactSum].
+ * The result is the same as that of [AccumulatorSumDecimal].
+ */
+internal class AccumulatorSumExact(
+    private val targetType: PType,
+) : Accumulator() {
+    private val sum = ExactSum()
+    private var init = false
+
+    override fun nextValue(value: Datum) {
+        checkIsNumberType(funcName = "SUM", value = value)
+        init = true
+        sum.add(value)
+    }
+
+    override fun nextValues(values: LongArray, offset: Int, length: Int) {
+        for (i in offset until offset + length) {
+            sum.add(values[i])
+        }
+        init = init || length > 0
+    }
+
+    override fun value(): Datum {
+        return if (init) sum.value().toTargetType(targetType) else Datum.nullValue(targetType)
+    }
+}
+
 internal class AccumulatorSumDouble : Accumulator() {
     var sum: Double = 0.0
     var init = false
@@ -66,6 +106,13 @@ internal class AccumulatorSumDouble : Accumulator() {
         sum += arg1
     }
 
+    override fun nextValues(values: DoubleArray, offset: Int, length: Int) {
+        for (i in offset until offset + length) {
+            sum += values[i]
+        }
+        init = init || length > 0
+    }
+
     override fun value(): Datum {
         return if (init) Datum.doublePrecision(sum) else Datum.nullValue(PType.doublePrecision())
     }
@@ -0,0 +1,102 @@
+package org.partiql.spi.function.builtins.internal
+
+import org.partiql.spi.types.PType
+import org.partiql.spi.utils.NumberUtils.MATH_CONTEXT
+import org.partiql.spi.utils.NumberUtils.bigDecimalOf
+import org.partiql.spi.utils.NumberUtils.numberValue
+import org.partiql.spi.value.Datum
+import java.math.BigDecimal
+
+/**
+ * An exact sum of numbers, which is kept as an unscaled [Long] and a scale while it fits in a long, and as a
+ * [BigDecimal] once it overflows.
+ *
+ * The sum is equal to the sum of the terms' [BigDecimal]s with [MATH_CONTEXT], starting from [BigDecimal.ZERO],
+ * including its scale (the largest scale of the terms, and at least zero); it avoids allocating a [BigDecimal] per term
+ * while the sum and the terms fit in a long, e.g. for integers and decimals of a precision of at most 18.
+ */
+internal class ExactSum {
+
+    private var unscaled: Long = 0L
+    private var scale: Int = 0
+
+    /**
+     * The sum, once it no longer fits in a long.
+     */
+    private var big: BigDecimal? = null
+
+    /**
+     * Adds a number; approximate numerics are converted to their [BigDecimal].
+     */
+    fun add(value: Datum) {
+        when (value.type.code()) {
+            PType.TINYINT -> add(value.byte.toLong())
+            PType.SMALLINT -> add(value.short.toLong())
+            PType.INTEGER -> add(value.int.toLong())
+            PType.BIGINT -> add(value.long)
+            PType.DECIMAL, PType.NUMERIC -> add(value.bigDecimal)
+            else -> add(bigDecimalOf(value.numberValue(), MATH_CONTEXT))
+        }
+    }
+
+    fun add(value: Long) {
+        add(value, 0)
+    }
+
+    fun add(value: BigDecimal) {
+        if (big == null && value.precision() <= MAX_PRECISION) {
+            // the unscaled value, without allocating a BigInteger
+            add(value.scaleByPowerOfTen(value.scale()).longValueExact(), value.scale())
+        } else {
+            big = value().add(value, MATH_CONTEXT)
+        }
+    }
+
+    /**
+     * @return the sum.
+     */
+    fun value(): BigDecimal = big ?: BigDecimal.valueOf(unscaled, scale)
+
+    private fun add(value: Long, scale: Int) {
+        big?.let {
+            big = it.add(BigDecimal.valueOf(value, scale), MATH_CONTEXT)
+            return
+        }
+        try {
+            if (scale == this.scale) {
+                unscaled = Math.addExact(unscaled, value)
+                return
+            }
+            val target = maxOf(scale, this.scale)
+            val sum = Math.addExact(rescale(unscaled, target - this.scale), rescale(value, target - scale))
+            unscaled = sum
+            this.scale = target
+        } catch (e: ArithmeticException) {
+            big = BigDecimal.valueOf(unscaled, this.scale).add(BigDecimal.valueOf(value, scale), MATH_CONTEXT)
+        }
+    }
+
+    /**
+     * @return the unscaled value multiplied by 10^n.
+     * @throws ArithmeticException if the result does not fit in a long.
+     */
+    private fun rescale(unscaled: Long, n: Int): Long {
+        if (n >= POWERS_OF_TEN.size) {
+            throw ArithmeticException("long overflow")
+        }
+        return Math.multiplyExact(unscaled, POWERS_OF_TEN[n])
+    }
+
+    private companion object {
+
+        /**
+         * Every decimal of at most this precision has an unscaled value which fits in a long.
+         */
+        const val MAX_PRECISION = 18
+
+        val POWERS_OF_TEN = LongArray(19).also {
+            it[0] = 1L
+            for (i in 1 until it.size) it[i] = it[i - 1] * 10L
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package org.partiql.spi.internal.value
+
+import org.partiql.spi.value.Shape
+
+/**
+ * Interns the shapes of the structs read by a reader, so that records with the same field names share one [Shape].
+ *
+ * The shape of the last struct is checked first, as records are usually homogeneous; at most [LIMIT] other shapes are
+ * kept, so that heterogeneous input does not grow the cache without bound.
+ */
+internal class Shapes {
+
+    private val shapes = HashMap<List<String>, Shape>()
+    private var last: Shape? = null
+
+    /**
+     * @param names the ordered field names of a struct, which may be reused by the caller.
+     * @return the shape of the given field names.
+     */
+    fun intern(names: List<String>): Shape {
+        val last = this.last
+        if (last != null && last.matches(names)) {
+            return last
+        }
+        var shape = shapes[names]
+        if (shape == null) {
+            shape = Shape.of(names)
+            if (shapes.size < LIMIT) {
+                shapes[names.toList()] = shape
+            }
+        }
+        this.last = shape
+        return shape
+    }
+
+    private companion object {
+        const val LIMIT = 1024
+    }
+}
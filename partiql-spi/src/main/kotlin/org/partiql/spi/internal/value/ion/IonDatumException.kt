@@ -5,7 +5,7 @@ import com.amazon.ion.Span
 import com.amazon.ion.TextSpan
 
 /**
- * These are errors specific to reading Ion data.
+ * These are errors specific to reading and writing Ion data.
  *
  * TODO add DATA to PError kind.
  */
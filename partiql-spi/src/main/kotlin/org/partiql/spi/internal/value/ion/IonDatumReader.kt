@@ -6,11 +6,12 @@ import com.amazon.ion.Span
 import com.amazon.ion.SpanProvider
 import com.amazon.ion.Timestamp.Precision
 import com.amazon.ion.system.IonReaderBuilder
-import com.amazon.ionelement.api.loadSingleElement
+import com.amazon.ionelement.api.createIonElementLoader
+import org.partiql.spi.catalog.Projection
+import org.partiql.spi.internal.value.Shapes
 import org.partiql.spi.value.Datum
 import org.partiql.spi.value.DatumReader
 import org.partiql.spi.value.Encoding
-import org.partiql.spi.value.Field
 import java.io.IOException
 import java.io.InputStream
 import java.math.BigDecimal
@@ -29,10 +30,15 @@ private const val MAX_STORED_TIMESTAMP_PRECISION = 9
  * It works by either parsing a value directly, or looking up the parse method.
  *  - Closures are used for parsing of typed collections, structs, rows, and eventually maps.
  *  - Overloads are named with their argument count to avoid ambiguity.
+ *
+ * Given a [projection], each value is read as a record narrowed to it, like [Projection.apply]: the fields of a struct
+ * which are not projected are skipped by the Ion reader without being decoded, which for binary Ion skips over the
+ * field by its length. The elements of a top-level collection are each narrowed as a record.
  */
 internal class IonDatumReader internal constructor(
     private val input: InputStream,
     private val others: Map<Encoding, DatumReader>,
+    private val projection: Projection?,
 ) : DatumReader {
 
     /**
@@ -40,6 +46,21 @@ internal class IonDatumReader internal constructor(
      */
     private val reader = IonReaderBuilder.standard().build(input)
 
+    /**
+     * The projection of the next struct to read; null if it is read entirely.
+     */
+    private var required: Projection? = null
+
+    /**
+     * True while reading a top-level value, whose elements are narrowed as records if it is a collection.
+     */
+    private var top = false
+
+    /**
+     * The shapes of the structs read, which are shared by records with the same field names.
+     */
+    private val shapes = Shapes()
+
     /**
      * Helper for current span on errors.
      */
@@ -59,12 +80,9 @@ internal class IonDatumReader internal constructor(
     override fun next(): Datum? {
         return try {
             reader.next() ?: return null
-            val anno = reader.typeAnnotations
-            when (anno.size) {
-                0 -> read()
-                1 -> method(anno[0]).invoke()
-                else -> throw IonDatumException("expected 0 or 1 annotations", null, span())
-            }
+            required = projection?.takeUnless { it.isAll }
+            top = true
+            value()
         } catch (ex: IonException) {
             throw IonDatumException("data exception", ex, span())
         } catch (ex: NotImplementedError) {
@@ -72,6 +90,19 @@ internal class IonDatumReader internal constructor(
         }
     }
 
+    /**
+     * Read the current value, using its annotation (if any) as the PartiQL type; an Ion variant keeps its own annotations.
+     */
+    private fun value(): Datum {
+        val anno = reader.typeAnnotations
+        return when {
+            anno.isEmpty() -> read()
+            anno[0] == "ion" -> ion()
+            anno.size == 1 -> method(anno[0]).invoke()
+            else -> throw IonDatumException("expected 0 or 1 annotations", null, span())
+        }
+    }
+
     /**
      * Read without any explicit PartiQL type information.
      */
@@ -226,7 +257,7 @@ internal class IonDatumReader internal constructor(
 
     private fun real(): Datum {
         val v = reader.doubleValue()
-        if (v > Float.MAX_VALUE || v < Float.MIN_VALUE) {
+        if (v.isFinite() && (v > Float.MAX_VALUE || v < -Float.MAX_VALUE)) {
             throw IonDatumException("real out of range", null, span())
         }
         return Datum.real(v.toFloat())
@@ -339,43 +370,66 @@ internal class IonDatumReader internal constructor(
     }
 
     private fun array(): Datum {
+        val projection = if (top) required else null
+        top = false
         reader.stepIn()
         val elements = mutableListOf<Datum>()
-        var next = next()
+        var next = element(projection)
         while (next != null) {
             elements.add(next)
-            next = next()
+            next = element(projection)
         }
         reader.stepOut()
         return Datum.array(elements)
     }
 
     private fun bag(): Datum {
+        val projection = if (top) required else null
+        top = false
         reader.stepIn()
         val elements = mutableListOf<Datum>()
-        var next = next()
+        var next = element(projection)
         while (next != null) {
             elements.add(next)
-            next = next()
+            next = element(projection)
         }
         reader.stepOut()
         return Datum.bag(elements)
     }
 
+    /**
+     * Read the next element of a collection, narrowed to the given projection.
+     */
+    private fun element(projection: Projection?): Datum? {
+        reader.next() ?: return null
+        required = projection
+        return value()
+    }
+
     private fun struct(): Datum {
+        val projection = required
+        top = false
         reader.stepIn()
-        val fields = mutableListOf<Field>()
+        val names = mutableListOf<String>()
+        val values = mutableListOf<Datum>()
         while (reader.next() != null) {
             val name = reader.fieldName
-            val value = read()
-            fields.add(Field.of(name, value))
+            required = when (projection) {
+                null -> null
+                // an unprojected field is skipped, without being decoded, by the next call to next()
+                else -> (projection.getField(name) ?: continue).takeUnless { it.isAll }
+            }
+            values.add(value())
+            names.add(name)
         }
         reader.stepOut()
-        return Datum.struct(fields)
+        return Datum.struct(shapes.intern(names), *values.toTypedArray())
     }
 
     private fun ion(): Datum {
-        val v = loadSingleElement(reader)
-        return IonVariant(v)
+        val v = createIonElementLoader().loadCurrentElement(reader)
+        // drop the leading `ion` annotation, which is the PartiQL type
+        val annotations = v.annotations.drop(1)
+        return IonVariant(v.withoutAnnotations().withAnnotations(annotations))
     }
 }
@@ -1,15 +1,166 @@
 package org.partiql.spi.internal.value.ion
 
+import com.amazon.ion.IonException
+import com.amazon.ion.IonType
+import com.amazon.ion.IonWriter
+import com.amazon.ion.Timestamp
+import com.amazon.ion.system.IonBinaryWriterBuilder
+import com.amazon.ion.system.IonTextWriterBuilder
+import org.partiql.spi.types.PType
 import org.partiql.spi.value.Datum
 import org.partiql.spi.value.DatumWriter
+import java.io.BufferedOutputStream
+import java.io.OutputStream
+import java.math.BigDecimal
+import java.math.RoundingMode
+import java.time.LocalDateTime
 
-internal class IonDatumWriter : DatumWriter {
+/**
+ * A [DatumWriter] implementation for Ion encoded PartiQL data, which is read by [IonDatumReader].
+ *
+ * Values are written with a single [IonWriter], so the binary format shares one (appended) local symbol table across
+ * all values. Collections and structs are written while they are iterated.
+ *
+ * Types which are not the default for an Ion value are written with the annotations understood by the reader, e.g.
+ * `int::1`, `bag::[..]`, and `ion::..` for Ion variants; `missing` is the symbol `missing`. The reader does not yet
+ * support type parameters, so typed nulls, `CHAR(n)`, `VARCHAR(n)`, and `ROW` are written as `null`, strings, and
+ * structs. Time, interval, and map values cannot be written.
+ */
+internal class IonDatumWriter private constructor(
+    private val writer: IonWriter,
+) : DatumWriter {
 
+    internal companion object {
+
+        @JvmStatic
+        fun text(output: OutputStream): IonDatumWriter {
+            val writer = IonTextWriterBuilder.standard()
+                .withWriteTopLevelValuesOnNewLines(true)
+                .build(BufferedOutputStream(output))
+            return IonDatumWriter(writer)
+        }
+
+        @JvmStatic
+        fun binary(output: OutputStream): IonDatumWriter {
+            val writer = IonBinaryWriterBuilder.standard()
+                .withLocalSymbolTableAppendEnabled()
+                .build(output)
+            return IonDatumWriter(writer)
+        }
+    }
+
+    /**
+     * From AutoCloseable; finishes the Ion stream and closes the output.
+     */
     override fun close() {
-        TODO("Not yet implemented")
+        writer.close()
+    }
+
+    override fun flush() {
+        writer.flush()
+    }
+
+    override fun write(datum: Datum): DatumWriter {
+        try {
+            value(datum)
+        } catch (ex: IonException) {
+            throw IonDatumException("data exception", ex, null)
+        }
+        return this
+    }
+
+    private fun value(datum: Datum) {
+        if (datum.isMissing) {
+            writer.writeSymbol("missing")
+            return
+        }
+        if (datum.isNull) {
+            writer.writeNull()
+            return
+        }
+        val type = datum.type
+        when (type.code()) {
+            PType.BOOL -> writer.writeBool(datum.boolean)
+            PType.TINYINT -> {
+                writer.setTypeAnnotations("tinyint")
+                writer.writeInt(datum.byte.toLong())
+            }
+            PType.SMALLINT -> {
+                writer.setTypeAnnotations("smallint")
+                writer.writeInt(datum.short.toLong())
+            }
+            PType.INTEGER -> {
+                writer.setTypeAnnotations("int")
+                writer.writeInt(datum.int.toLong())
+            }
+            PType.BIGINT -> writer.writeInt(datum.long)
+            PType.NUMERIC, PType.DECIMAL -> writer.writeDecimal(datum.bigDecimal)
+            PType.REAL -> {
+                writer.setTypeAnnotations("real")
+                writer.writeFloat(datum.float.toDouble())
+            }
+            PType.DOUBLE -> writer.writeFloat(datum.double)
+            PType.CHAR, PType.VARCHAR, PType.STRING -> writer.writeString(datum.string)
+            PType.CLOB -> writer.writeClob(datum.bytes)
+            PType.BLOB -> {
+                writer.setTypeAnnotations("blob")
+                writer.writeBlob(datum.bytes)
+            }
+            PType.DATE -> {
+                val date = datum.localDate
+                writer.writeTimestamp(Timestamp.forDay(date.year, date.monthValue, date.dayOfMonth))
+            }
+            PType.TIMESTAMP -> writer.writeTimestamp(timestamp(datum.localDateTime, type.precision, null))
+            PType.TIMESTAMPZ -> {
+                val value = datum.offsetDateTime
+                val offset = value.offset.totalSeconds / 60
+                writer.writeTimestamp(timestamp(value.toLocalDateTime(), type.precision, offset))
+            }
+            PType.ARRAY -> list(datum)
+            PType.BAG -> {
+                writer.setTypeAnnotations("bag")
+                list(datum)
+            }
+            PType.ROW, PType.STRUCT -> struct(datum)
+            PType.VARIANT -> variant(datum)
+            else -> throw IonDatumException("unsupported type $type")
+        }
+    }
+
+    private fun list(datum: Datum) {
+        writer.stepIn(IonType.LIST)
+        for (element in datum) {
+            value(element)
+        }
+        writer.stepOut()
+    }
+
+    private fun struct(datum: Datum) {
+        writer.stepIn(IonType.STRUCT)
+        for (field in datum.fields) {
+            writer.setFieldName(field.name)
+            value(field.value)
+        }
+        writer.stepOut()
+    }
+
+    private fun variant(datum: Datum) {
+        if (datum is IonVariant) {
+            val element = datum.element()
+            val annotations = listOf("ion") + element.annotations
+            element.withoutAnnotations().withAnnotations(annotations).writeTo(writer)
+        } else {
+            value(datum.lower())
+        }
     }
 
-    override fun write(datum: Datum?): DatumWriter {
-        TODO("Not yet implemented")
+    /**
+     * An Ion timestamp with second precision, whose fractional seconds have the scale of the PartiQL precision.
+     */
+    private fun timestamp(value: LocalDateTime, precision: Int, offset: Int?): Timestamp {
+        val second = BigDecimal.valueOf(value.second.toLong())
+            .add(BigDecimal.valueOf(value.nano.toLong(), 9))
+            .setScale(precision, RoundingMode.DOWN)
+        return Timestamp.forSecond(value.year, value.monthValue, value.dayOfMonth, value.hour, value.minute, second, offset)
     }
 }
@@ -42,6 +42,11 @@ internal class IonVariant(private var value: AnyElement) : Datum {
      */
     private var type = PType.variant("ion")
 
+    /**
+     * The underlying Ion value, e.g. for writing it with an [IonDatumWriter].
+     */
+    internal fun element(): AnyElement = value
+
     /**
      * Pack an IonDatum into a UTF-8 string byte[] using the textual Ion encoding.
      *
@@ -200,8 +205,8 @@ internal class IonVariant(private var value: AnyElement) : Datum {
     }
 
     override fun iterator(): MutableIterator<Datum> = when (value.type) {
-        LIST -> value.listValues.map { IonVariant(it) }.toMutableList().iterator()
-        SEXP -> value.sexpValues.map { IonVariant(it) }.toMutableList().iterator()
+        LIST -> Wrapping(value.listValues.iterator()) { IonVariant(it) }
+        SEXP -> Wrapping(value.sexpValues.iterator()) { IonVariant(it) }
         else -> super.iterator()
     }
 
@@ -209,7 +214,7 @@ internal class IonVariant(private var value: AnyElement) : Datum {
         if (value.type != STRUCT) {
             return super.getFields()
         }
-        return value.structFields.map { Field.of(it.name, IonVariant(it.value)) }.toMutableList().iterator()
+        return Wrapping(value.structFields.iterator()) { Field.of(it.name, IonVariant(it.value)) }
     }
 
     override fun get(name: String): Datum {
@@ -257,4 +262,16 @@ internal class IonVariant(private var value: AnyElement) : Datum {
         val time = LocalTime.of(ts.hour, ts.minute, second, nanoOfSecond)
         return OffsetDateTime.of(date, time, tz)
     }
+
+    /**
+     * Wraps the elements or fields of a container as they are iterated, rather than copying all of them up front.
+     */
+    private class Wrapping<T, R>(private val iterator: Iterator<T>, private val wrap: (T) -> R) : MutableIterator<R> {
+
+        override fun hasNext(): Boolean = iterator.hasNext()
+
+        override fun next(): R = wrap(iterator.next())
+
+        override fun remove() = throw UnsupportedOperationException()
+    }
 }
@@ -0,0 +1,20 @@
+package org.partiql.spi.internal.value.json
+
+/**
+ * These are errors specific to reading and writing JSON data.
+ *
+ * TODO add DATA to PError kind.
+ */
+internal class JsonDatumException internal constructor(
+    public override val message: String,
+    public override val cause: Throwable?,
+    public val line: Int,
+    public val column: Int,
+) : RuntimeException() {
+
+    public constructor(message: String) : this(message, null, 0, 0)
+
+    override fun getLocalizedMessage(): String {
+        return if (line == 0) message else "$message at line $line, column $column"
+    }
+}
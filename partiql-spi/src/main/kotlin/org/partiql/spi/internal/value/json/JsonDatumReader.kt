@@ -0,0 +1,383 @@
+package org.partiql.spi.internal.value.json
+
+import org.partiql.spi.catalog.Projection
+import org.partiql.spi.internal.value.Shapes
+import org.partiql.spi.value.Datum
+import org.partiql.spi.value.DatumReader
+import java.io.IOException
+import java.io.InputStream
+import java.io.InputStreamReader
+import java.io.Reader
+import java.math.BigDecimal
+import java.math.BigInteger
+
+/**
+ * A [DatumReader] implementation for JSON encoded data, which reads a sequence of top-level values separated by
+ * whitespace; in particular, JSON Lines with one record per line.
+ *
+ * The input is tokenized as it is read, and values are built directly from the tokens, without an intermediate tree:
+ *  - objects are read as structs, which share a [org.partiql.spi.value.Shape] with the objects of the same field names,
+ *    and arrays as arrays.
+ *  - strings are read as STRING, and `true` and `false` as BOOL.
+ *  - integers are read as BIGINT, or as DECIMAL if they are out of its range.
+ *  - numbers with a fraction or an exponent are read as DOUBLE PRECISION, or as DECIMAL if [exact] is true.
+ *
+ * Given a [projection], each value is read as a record narrowed to it, like [Projection.apply]; the fields of an object
+ * which are not projected are skipped without building their values.
+ *
+ * @param exact true to read numbers with a fraction or an exponent as DECIMAL.
+ * @param projection the fields to read, if not every field.
+ */
+internal class JsonDatumReader internal constructor(
+    input: InputStream,
+    private val exact: Boolean,
+    private val projection: Projection?,
+) : DatumReader {
+
+    private val reader: Reader = InputStreamReader(input, Charsets.UTF_8)
+
+    private val buffer = CharArray(8192)
+    private var position = 0
+    private var limit = 0
+
+    // the location of the next character, for errors
+    private var line = 1
+    private var column = 1
+
+    // the characters of the current string or number
+    private var chars = CharArray(64)
+    private var length = 0
+
+    // the shapes of the objects read, which are shared by records with the same field names
+    private val shapes = Shapes()
+
+    /**
+     * From AutoCloseable.
+     */
+    override fun close() {
+        reader.close()
+    }
+
+    /**
+     * Read next Datum or null.
+     */
+    @Throws(IOException::class, JsonDatumException::class)
+    override fun next(): Datum? {
+        val c = skipWhitespace()
+        if (c == EOF) {
+            return null
+        }
+        // the elements of a top-level array are narrowed as records
+        val projection = projection?.takeUnless { it.isAll }
+        return when (c) {
+            '['.code -> array(projection)
+            else -> value(c, projection)
+        }
+    }
+
+    /**
+     * Reads a value whose first character has been read; an object is narrowed to the given projection.
+     */
+    private fun value(c: Int, projection: Projection? = null): Datum = when (c) {
+        '{'.code -> struct(projection)
+        '['.code -> array(null)
+        '"'.code -> Datum.string(string())
+        't'.code -> literal("true", Datum.bool(true))
+        'f'.code -> literal("false", Datum.bool(false))
+        'n'.code -> literal("null", Datum.nullValue())
+        '-'.code, in '0'.code..'9'.code -> number(c)
+        EOF -> throw error("expected a value, found end of input")
+        else -> throw error("unexpected character '${c.toChar()}'")
+    }
+
+    private fun struct(projection: Projection?): Datum {
+        val names = mutableListOf<String>()
+        val values = mutableListOf<Datum>()
+        var c = skipWhitespace()
+        if (c == '}'.code) {
+            return Datum.struct(shapes.intern(names))
+        }
+        while (true) {
+            if (c != '"'.code) {
+                throw error("expected a field name")
+            }
+            val name = string()
+            if (skipWhitespace() != ':'.code) {
+                throw error("expected ':' after field name")
+            }
+            val child = projection?.getField(name)
+            if (projection != null && child == null) {
+                skip(skipWhitespace())
+            } else {
+                values.add(value(skipWhitespace(), child?.takeUnless { it.isAll }))
+                names.add(name)
+            }
+            c = skipWhitespace()
+            when (c) {
+                ','.code -> c = skipWhitespace()
+                '}'.code -> return Datum.struct(shapes.intern(names), *values.toTypedArray())
+                else -> throw error("expected ',' or '}' in object")
+            }
+        }
+    }
+
+    private fun array(projection: Projection?): Datum {
+        val elements = mutableListOf<Datum>()
+        var c = skipWhitespace()
+        if (c == ']'.code) {
+            return Datum.array(elements)
+        }
+        while (true) {
+            elements.add(value(c, projection))
+            c = skipWhitespace()
+            when (c) {
+                ','.code -> c = skipWhitespace()
+                ']'.code -> return Datum.array(elements)
+                else -> throw error("expected ',' or ']' in array")
+            }
+        }
+    }
+
+    /**
+     * Reads a string whose opening quote has been read.
+     */
+    private fun string(): String {
+        length = 0
+        while (true) {
+            // copy the characters up to a quote or escape directly from the buffer
+            var i = position
+            while (i < limit) {
+                val c = buffer[i]
+                if (c == '"' || c == '\\' || c < ' ') {
+                    break
+                }
+                i++
+            }
+            append(buffer, position, i - position)
+            column += i - position
+            position = i
+            when (val c = read()) {
+                '"'.code -> return String(chars, 0, length)
+                '\\'.code -> append(escape())
+                EOF -> throw error("unterminated string")
+                else -> {
+                    if (c < ' '.code) {
+                        throw error("unescaped control character in string")
+                    }
+                    append(c.toChar())
+                }
+            }
+        }
+    }
+
+    /**
+     * Skips a value whose first character has been read, without building it.
+     */
+    private fun skip(first: Int) {
+        when (first) {
+            '"'.code -> while (true) {
+                when (read()) {
+                    '"'.code -> return
+                    '\\'.code -> escape()
+                    EOF -> throw error("unterminated string")
+                }
+            }
+            '{'.code, '['.code -> {
+                val close = if (first == '{'.code) '}'.code else ']'.code
+                var c = skipWhitespace()
+                if (c == close) {
+                    return
+                }
+                while (true) {
+                    if (close == '}'.code) {
+                        if (c != '"'.code) {
+                            throw error("expected a field name")
+                        }
+                        skip(c)
+                        if (skipWhitespace() != ':'.code) {
+                            throw error("expected ':' after field name")
+                        }
+                        c = skipWhitespace()
+                    }
+                    skip(c)
+                    c = skipWhitespace()
+                    when (c) {
+                        ','.code -> c = skipWhitespace()
+                        close -> return
+                        else -> throw error("expected ',' or '${close.toChar()}'")
+                    }
+                }
+            }
+            else -> value(first)
+        }
+    }
+
+    private fun escape(): Char = when (val c = read()) {
+        '"'.code -> '"'
+        '\\'.code -> '\\'
+        '/'.code -> '/'
+        'b'.code -> '\b'
+        'f'.code -> '\u000C'
+        'n'.code -> '\n'
+        'r'.code -> '\r'
+        't'.code -> '\t'
+        'u'.code -> {
+            var v = 0
+            repeat(4) {
+                val digit = Character.digit(read(), 16)
+                if (digit < 0) {
+                    throw error("invalid unicode escape")
+                }
+                v = v * 16 + digit
+            }
+            v.toChar()
+        }
+        else -> throw error("invalid escape character")
+    }
+
+    /**
+     * Reads a number whose first character has been read; integers of at most 18 digits are accumulated as a long.
+     */
+    private fun number(first: Int): Datum {
+        length = 0
+        append(first.toChar())
+        val negative = first == '-'.code
+        var c = first
+        if (negative) {
+            c = read()
+            if (c !in '0'.code..'9'.code) {
+                throw error("invalid number")
+            }
+            append(c.toChar())
+        }
+        // a leading zero is not followed by other digits
+        var long = (c - '0'.code).toLong()
+        var digits = 1
+        if (c != '0'.code) {
+            while (peek() in '0'.code..'9'.code) {
+                c = read()
+                append(c.toChar())
+                long = long * 10 + (c - '0'.code)
+                digits++
+            }
+        } else if (peek() in '0'.code..'9'.code) {
+            throw error("invalid number with a leading zero")
+        }
+        var integer = true
+        if (peek() == '.'.code) {
+            integer = false
+            append(read().toChar())
+            appendDigits()
+        }
+        c = peek()
+        if (c == 'e'.code || c == 'E'.code) {
+            integer = false
+            append(read().toChar())
+            c = peek()
+            if (c == '+'.code || c == '-'.code) {
+                append(read().toChar())
+            }
+            appendDigits()
+        }
+        if (integer && digits <= 18) {
+            return Datum.bigint(if (negative) -long else long)
+        }
+        val text = String(chars, 0, length)
+        if (integer) {
+            val v = BigInteger(text)
+            return when (v.bitLength() < 64) {
+                true -> Datum.bigint(v.toLong())
+                else -> decimal(BigDecimal(v))
+            }
+        }
+        return when (exact) {
+            true -> decimal(BigDecimal(text))
+            else -> Datum.doublePrecision(text.toDouble())
+        }
+    }
+
+    private fun appendDigits() {
+        if (peek() !in '0'.code..'9'.code) {
+            throw error("invalid number ${String(chars, 0, length)}")
+        }
+        while (peek() in '0'.code..'9'.code) {
+            append(read().toChar())
+        }
+    }
+
+    private fun decimal(v: BigDecimal): Datum = Datum.decimal(v, v.precision(), v.scale())
+
+    private fun literal(text: String, value: Datum): Datum {
+        for (i in 1 until text.length) {
+            if (read() != text[i].code) {
+                throw error("expected '$text'")
+            }
+        }
+        return value
+    }
+
+    //
+    // CHARACTERS
+    //
+
+    private fun skipWhitespace(): Int {
+        while (true) {
+            val c = read()
+            if (c != ' '.code && c != '\n'.code && c != '\r'.code && c != '\t'.code) {
+                return c
+            }
+        }
+    }
+
+    private fun read(): Int {
+        if (position == limit && !fill()) {
+            return EOF
+        }
+        val c = buffer[position++]
+        if (c == '\n') {
+            line++
+            column = 1
+        } else {
+            column++
+        }
+        return c.code
+    }
+
+    private fun peek(): Int {
+        if (position == limit && !fill()) {
+            return EOF
+        }
+        return buffer[position].code
+    }
+
+    private fun fill(): Boolean {
+        val n = reader.read(buffer)
+        if (n <= 0) {
+            return false
+        }
+        position = 0
+        limit = n
+        return true
+    }
+
+    private fun append(c: Char) {
+        if (length == chars.size) {
+            chars = chars.copyOf(length * 2)
+        }
+        chars[length++] = c
+    }
+
+    private fun append(src: CharArray, offset: Int, count: Int) {
+        if (length + count > chars.size) {
+            chars = chars.copyOf(maxOf(length + count, length * 2))
+        }
+        System.arraycopy(src, offset, chars, length, count)
+        length += count
+    }
+
+    private fun error(message: String) = JsonDatumException(message, null, line, column)
+
+    private companion object {
+        const val EOF = -1
+    }
+}
@@ -0,0 +1,132 @@
+package org.partiql.spi.internal.value.json
+
+import org.partiql.spi.types.PType
+import org.partiql.spi.value.Datum
+import org.partiql.spi.value.DatumWriter
+import java.io.BufferedWriter
+import java.io.OutputStream
+import java.io.OutputStreamWriter
+import java.io.Writer
+import java.util.Base64
+
+/**
+ * A [DatumWriter] implementation for JSON encoded data, which is read by [JsonDatumReader].
+ *
+ * Each value is written on its own line, as JSON Lines. Collections and structs are written while they are iterated.
+ *
+ * JSON has fewer types than PartiQL, so the type of a value is not preserved: numbers are written as JSON numbers, bags
+ * as arrays, rows as objects, CLOB values as strings, BLOB values as base64 strings, and datetime values as ISO-8601
+ * strings. `null` and `missing` are written as `null`, except that missing fields of a struct are omitted. Non-finite
+ * floating-point numbers, interval, and map values cannot be written.
+ */
+internal class JsonDatumWriter internal constructor(output: OutputStream) : DatumWriter {
+
+    private val writer: Writer = BufferedWriter(OutputStreamWriter(output, Charsets.UTF_8))
+
+    /**
+     * From AutoCloseable; flushes and closes the output.
+     */
+    override fun close() {
+        writer.close()
+    }
+
+    override fun flush() {
+        writer.flush()
+    }
+
+    override fun write(datum: Datum): DatumWriter {
+        value(datum)
+        writer.write('\n'.code)
+        return this
+    }
+
+    private fun value(datum: Datum) {
+        if (datum.isNull || datum.isMissing) {
+            writer.write("null")
+            return
+        }
+        val type = datum.type
+        when (type.code()) {
+            PType.BOOL -> writer.write(if (datum.boolean) "true" else "false")
+            PType.TINYINT -> writer.write(datum.byte.toString())
+            PType.SMALLINT -> writer.write(datum.short.toString())
+            PType.INTEGER -> writer.write(datum.int.toString())
+            PType.BIGINT -> writer.write(datum.long.toString())
+            PType.NUMERIC, PType.DECIMAL -> writer.write(datum.bigDecimal.toString())
+            PType.REAL -> float(datum.float.toDouble(), datum.float.toString())
+            PType.DOUBLE -> float(datum.double, datum.double.toString())
+            PType.CHAR, PType.VARCHAR, PType.STRING -> string(datum.string)
+            PType.CLOB -> string(String(datum.bytes, Charsets.UTF_8))
+            PType.BLOB -> string(Base64.getEncoder().encodeToString(datum.bytes))
+            PType.DATE -> string(datum.localDate.toString())
+            PType.TIME -> string(datum.localTime.toString())
+            PType.TIMEZ -> string(datum.offsetTime.toString())
+            PType.TIMESTAMP -> string(datum.localDateTime.toString())
+            PType.TIMESTAMPZ -> string(datum.offsetDateTime.toString())
+            PType.ARRAY, PType.BAG -> list(datum)
+            PType.ROW, PType.STRUCT -> struct(datum)
+            PType.VARIANT -> value(datum.lower())
+            else -> throw JsonDatumException("unsupported type $type")
+        }
+    }
+
+    private fun float(value: Double, text: String) {
+        if (!value.isFinite()) {
+            throw JsonDatumException("cannot write $text")
+        }
+        writer.write(text)
+    }
+
+    private fun list(datum: Datum) {
+        writer.write('['.code)
+        var first = true
+        for (element in datum) {
+            if (!first) {
+                writer.write(','.code)
+            }
+            value(element)
+            first = false
+        }
+        writer.write(']'.code)
+    }
+
+    private fun struct(datum: Datum) {
+        writer.write('{'.code)
+        var first = true
+        for (field in datum.fields) {
+            if (field.value.isMissing) {
+                continue
+            }
+            if (!first) {
+                writer.write(','.code)
+            }
+            string(field.name)
+            writer.write(':'.code)
+            value(field.value)
+            first = false
+        }
+        writer.write('}'.code)
+    }
+
+    private fun string(value: String) {
+        writer.write('"'.code)
+        var start = 0
+        for (i in value.indices) {
+            val c = value[i]
+            val escape = when {
+                c == '"' -> "\\\""
+                c == '\\' -> "\\\\"
+                c == '\n' -> "\\n"
+                c == '\r' -> "\\r"
+                c == '\t' -> "\\t"
+                c < ' ' -> "\\u%04x".format(c.code)
+                else -> continue
+            }
+            writer.write(value, start, i - start)
+            writer.write(escape)
+            start = i + 1
+        }
+        writer.write(value, start, value.length - start)
+        writer.write('"'.code)
+    }
+}
@@ -0,0 +1,107 @@
+package org.partiql.spi.catalog
+
+import org.junit.jupiter.api.Test
+import org.partiql.spi.types.PType
+import org.partiql.spi.value.Datum
+import org.partiql.spi.value.Field
+import org.partiql.spi.value.Shape
+import kotlin.test.assertEquals
+import kotlin.test.assertNotNull
+import kotlin.test.assertNull
+import kotlin.test.assertSame
+import kotlin.test.assertTrue
+
+class ProjectionTest {
+
+    private fun struct(vararg fields: Pair<String, Datum>): Datum {
+        return Datum.struct(fields.map { Field.of(it.first, it.second) })
+    }
+
+    private fun assertDatumEquals(expected: Datum, actual: Datum) {
+        assert(Datum.comparator().compare(expected, actual) == 0) {
+            "Expected : $expected\nActual   : $actual"
+        }
+    }
+
+    private val record = struct(
+        "a" to Datum.integer(1),
+        "B" to struct("c" to Datum.string("c"), "d" to Datum.integer(2)),
+        "e" to Datum.string("e"),
+    )
+
+    @Test
+    fun ofNormalizesPaths() {
+        val projection = Projection.of(listOf(listOf("B", "c"), listOf("b"), listOf("A")))
+        assertEquals(setOf("b", "a"), projection.fieldNames)
+        assertTrue(projection.getField("B")!!.isAll)
+        assertNull(projection.getField("e"))
+        assertEquals(setOf(listOf("b"), listOf("a")), projection.paths.toSet())
+    }
+
+    @Test
+    fun emptyPathRequiresAll() {
+        val projection = Projection.of(listOf(listOf("a"), emptyList()))
+        assertTrue(projection.isAll)
+        assertSame(record, projection.apply(record))
+    }
+
+    @Test
+    fun applyNarrowsStruct() {
+        val projection = Projection.of(listOf(listOf("a"), listOf("b", "d")))
+        val expected = struct(
+            "a" to Datum.integer(1),
+            "B" to struct("d" to Datum.integer(2)),
+        )
+        assertDatumEquals(expected, projection.apply(record))
+    }
+
+    @Test
+    fun applyNarrowsEachElementOfCollection() {
+        val projection = Projection.of(listOf(listOf("e")))
+        val actual = projection.apply(Datum.bagVararg(record, Datum.integer(3), record))
+        assertEquals(PType.BAG, actual.type.code())
+        val expected = Datum.bagVararg(struct("e" to Datum.string("e")), Datum.integer(3), struct("e" to Datum.string("e")))
+        assertDatumEquals(expected, actual)
+    }
+
+    @Test
+    fun applyPreservesNonStructFields() {
+        val projection = Projection.of(listOf(listOf("b", "c", "x")))
+        val expected = struct("B" to struct("c" to Datum.string("c")))
+        assertDatumEquals(expected, projection.apply(record))
+    }
+
+    @Test
+    fun applyNarrowsIntoSharedShape() {
+        val projection = Projection.of(listOf(listOf("a"), listOf("e")))
+        val first = projection.apply(record)
+        val second = projection.apply(struct("e" to Datum.string("f"), "a" to Datum.integer(4)))
+        val third = projection.apply(struct("a" to Datum.integer(5), "e" to Datum.string("g")))
+        assertNotNull(first.shape)
+        assertSame(first.shape, third.shape)
+        assertEquals(listOf("e", "a"), (0 until second.shape!!.size()).map { second.shape!!.getName(it) })
+        assertDatumEquals(struct("a" to Datum.integer(5), "e" to Datum.string("g")), third)
+    }
+
+    @Test
+    fun applyNarrowsShapedStruct() {
+        val shape = Shape.of("a", "B", "e")
+        val nested = struct("c" to Datum.string("c"), "d" to Datum.integer(2))
+        val shaped = Datum.struct(shape, Datum.integer(1), nested, Datum.string("e"))
+        val projection = Projection.of(listOf(listOf("e"), listOf("b", "c")))
+        val first = projection.apply(shaped)
+        val other = Datum.struct(shape, Datum.integer(3), struct("c" to Datum.string("x")), Datum.string("y"))
+        val second = projection.apply(other)
+        assertSame(first.shape, second.shape)
+        assertDatumEquals(struct("B" to struct("c" to Datum.string("c")), "e" to Datum.string("e")), first)
+        assertDatumEquals(struct("B" to struct("c" to Datum.string("x")), "e" to Datum.string("y")), second)
+    }
+
+    @Test
+    fun applyKeepsShapedStructWithEveryField() {
+        val shape = Shape.of("a", "e")
+        val shaped = Datum.struct(shape, Datum.integer(1), Datum.string("e"))
+        val projection = Projection.of(listOf(listOf("A"), listOf("e")))
+        assertSame(shaped, projection.apply(shaped))
+    }
+}
@@ -0,0 +1,47 @@
+package org.partiql.spi.catalog
+
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import org.partiql.spi.value.Datum
+import kotlin.test.assertEquals
+import kotlin.test.assertNull
+import kotlin.test.assertSame
+
+class TableStatisticsTest {
+
+    @Test
+    fun columnPathsAreCaseInsensitive() {
+        val column = ColumnStatistics.builder().distinctCount(10).build()
+        val statistics = TableStatistics.builder().rowCount(100).column(listOf("Address", "ZIP"), column).build()
+        assertSame(column, statistics.getColumn(listOf("address", "zip")))
+        assertEquals(setOf(listOf("address", "zip")), statistics.columns.keys)
+        assertNull(statistics.getColumn(listOf("address")))
+    }
+
+    @Test
+    fun unknownStatistics() {
+        val statistics = TableStatistics.of(5)
+        assertEquals(5, statistics.rowCount)
+        assertNull(statistics.getColumn(listOf("a")))
+        val column = ColumnStatistics.builder().build()
+        assertEquals(-1, column.distinctCount)
+        assertEquals(-1.0, column.nullFraction)
+        assertNull(column.min)
+        assertNull(column.max)
+    }
+
+    @Test
+    fun tableBuilderCarriesStatistics() {
+        val statistics = TableStatistics.builder().rowCount(3).column("a", ColumnStatistics.builder().min(Datum.integer(0)).build()).build()
+        val table = Table.builder().name("t").statistics(statistics).build()
+        assertSame(statistics, table.getStatistics())
+        assertNull(Table.empty("u").getStatistics())
+    }
+
+    @Test
+    fun invalidStatisticsAreRejected() {
+        assertThrows<IllegalArgumentException> { TableStatistics.builder().rowCount(-1) }
+        assertThrows<IllegalArgumentException> { ColumnStatistics.builder().nullFraction(1.5) }
+        assertThrows<IllegalArgumentException> { ColumnStatistics.builder().distinctCount(-2) }
+    }
+}
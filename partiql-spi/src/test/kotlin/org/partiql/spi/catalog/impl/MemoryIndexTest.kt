@@ -0,0 +1,87 @@
+package org.partiql.spi.catalog.impl
+
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import org.partiql.spi.catalog.Table
+import org.partiql.spi.types.PType
+import org.partiql.spi.value.Datum
+import org.partiql.spi.value.Field
+import java.math.BigDecimal
+import kotlin.test.assertEquals
+
+class MemoryIndexTest {
+
+    private fun record(id: Int, a: Datum?): Datum {
+        val fields = mutableListOf(Field.of("id", Datum.integer(id)))
+        if (a != null) {
+            fields.add(Field.of("a", a))
+        }
+        return Datum.struct(fields)
+    }
+
+    private val records = listOf(
+        record(0, Datum.integer(1)),
+        record(1, Datum.bigint(2)),
+        record(2, Datum.decimal(BigDecimal("1.00"), 3, 2)),
+        record(3, Datum.string("x")),
+        record(4, Datum.nullValue()),
+        record(5, null),
+        record(6, Datum.integer(3)),
+        record(7, Datum.string("y")),
+    )
+
+    private fun ids(result: Datum): List<Int> = result.map { record ->
+        record.fields.asSequence().first { it.name == "id" }.value.int
+    }.toList()
+
+    @Test
+    fun lookupMatchesEqualNumbersAcrossTypes() {
+        val index = MemoryIndex("hash_a", listOf("a"), false, Datum.bag(records))
+        // records without a keyed value are always returned
+        assertEquals(listOf(0, 2, 4, 5), ids(index.lookup(Datum.decimal(BigDecimal("1.0"), 2, 1))))
+        assertEquals(listOf(3, 4, 5), ids(index.lookup(Datum.string("x"))))
+        assertEquals(listOf(4, 5), ids(index.lookup(Datum.integer(42))))
+        assertEquals(listOf(4, 5), ids(index.lookup(Datum.nullValue())))
+    }
+
+    @Test
+    fun lookupWithUnsupportedKeyReturnsEverything() {
+        val index = MemoryIndex("hash_a", listOf("a"), false, Datum.bag(records))
+        assertEquals((0..7).toList(), ids(index.lookup(Datum.doublePrecision(1.0))))
+    }
+
+    @Test
+    fun rangeOnSortedIndex() {
+        val index = MemoryIndex("sorted_a", listOf("a"), true, Datum.array(records))
+        val result = index.range(Datum.integer(1), false, Datum.integer(3), true)
+        assertEquals(PType.ARRAY, result.type.code())
+        // strings are kept, since comparing them with numbers is an error in strict mode
+        assertEquals(listOf(1, 3, 4, 5, 6, 7), ids(result))
+        assertEquals(listOf(0, 1, 2, 4, 5, 6, 7), ids(index.range(Datum.string("x"), false, null, false)))
+        assertEquals(listOf(4, 5), ids(index.range(Datum.integer(1), true, Datum.nullValue(), true)))
+    }
+
+    @Test
+    fun rangeOnHashIndexIsUnsupported() {
+        val index = MemoryIndex("hash_a", listOf("a"), false, Datum.bag(records))
+        assertThrows<UnsupportedOperationException> { index.range(Datum.integer(1), true, null, false) }
+    }
+
+    @Test
+    fun nestedPathsAreCaseInsensitive() {
+        val nested = (0 until 4).map { i ->
+            Datum.struct(Field.of("id", Datum.integer(i)), Field.of("Inner", Datum.struct(Field.of("K", Datum.integer(i % 2)))))
+        }
+        val index = MemoryIndex("hash_inner_k", listOf("inner", "k"), false, Datum.bag(nested))
+        assertEquals(listOf(1, 3), ids(index.lookup(Datum.integer(1))))
+    }
+
+    @Test
+    fun tableBuilderCreatesIndexes() {
+        val table = Table.builder().name("t").datum(Datum.bag(records)).hashIndex("a").sortedIndex("x", "y").build()
+        assertEquals(listOf("hash_a", "sorted_x_y"), table.getIndexes().map { it.name })
+        assertEquals(listOf("x", "y"), table.getIndexes()[1].path)
+        assertEquals(emptyList(), Table.empty("u").getIndexes())
+        assertThrows<IllegalStateException> { Table.builder().name("t").datum(Datum.integer(1)).hashIndex("a").build() }
+    }
+}
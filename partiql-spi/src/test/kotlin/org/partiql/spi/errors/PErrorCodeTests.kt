@@ -43,6 +43,7 @@ class PErrorCodeTests {
             "MAP_KEY_NOT_FOUND" to 25,
             "MAP_KEY_TYPE_MISMATCH" to 26,
             "MAP_DUPLICATE_KEY" to 27,
+            "MEMORY_LIMIT_EXCEEDED" to 28,
         )
 
         // Preparation
@@ -0,0 +1,132 @@
+package org.partiql.spi.function.builtins
+
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+import org.partiql.spi.function.Accumulator
+import org.partiql.spi.function.AggOverload
+import org.partiql.spi.function.builtins.internal.AccumulatorAvgDecimal
+import org.partiql.spi.function.builtins.internal.AccumulatorAvgExact
+import org.partiql.spi.function.builtins.internal.AccumulatorSumDecimal
+import org.partiql.spi.function.builtins.internal.AccumulatorSumExact
+import org.partiql.spi.types.PType
+import org.partiql.spi.value.Datum
+import java.math.BigDecimal
+import kotlin.random.Random
+
+/**
+ * Tests that the primitive-specialized SUM and AVG accumulators agree with their [BigDecimal] counterparts.
+ */
+class AggSumAvgTest {
+
+    @Test
+    fun accumulatorIsChosenByPrecision() {
+        assertTrue(accumulator(Agg_SUM__DECIMAL_ARBITRARY__DECIMAL_ARBITRARY, PType.decimal(18, 2)) is AccumulatorSumExact)
+        assertTrue(accumulator(Agg_SUM__DECIMAL_ARBITRARY__DECIMAL_ARBITRARY, PType.decimal(19, 2)) is AccumulatorSumDecimal)
+        assertTrue(accumulator(Agg_SUM__NUMERIC__NUMERIC, PType.numeric(10, 0)) is AccumulatorSumExact)
+        assertTrue(accumulator(Agg_AVG__DECIMAL_ARBITRARY__DECIMAL_ARBITRARY, PType.decimal(18, 2)) is AccumulatorAvgExact)
+        assertTrue(accumulator(Agg_AVG__DECIMAL_ARBITRARY__DECIMAL_ARBITRARY, PType.decimal(38, 2)) is AccumulatorAvgDecimal)
+    }
+
+    @Test
+    fun sumOfBigintWidensOnOverflow() {
+        val acc = accumulator(Agg_SUM__INT64__INT64, PType.bigint())
+        acc.next(arrayOf(Datum.bigint(Long.MAX_VALUE)))
+        acc.next(arrayOf(Datum.bigint(Long.MAX_VALUE)))
+        acc.next(arrayOf(Datum.bigint(-1)))
+        val expected = BigDecimal.valueOf(Long.MAX_VALUE).multiply(BigDecimal(2)).subtract(BigDecimal.ONE)
+        assertEquals(expected, acc.value().bigDecimal)
+    }
+
+    @Test
+    fun sumOfDecimalsMatchesBigDecimal() {
+        val random = Random(42)
+        repeat(20) {
+            val values = List(200) { decimal(random) }
+            val exact = AccumulatorSumExact(DefaultDecimal.DECIMAL)
+            val reference = AccumulatorSumDecimal(DefaultDecimal.DECIMAL)
+            for (v in values) {
+                exact.next(arrayOf(v))
+                reference.next(arrayOf(v))
+            }
+            assertSame(reference.value(), exact.value())
+        }
+    }
+
+    @Test
+    fun avgOfDecimalsMatchesBigDecimal() {
+        val random = Random(7)
+        repeat(20) {
+            val values = List(200) { decimal(random) }
+            val exact = AccumulatorAvgExact()
+            val reference = AccumulatorAvgDecimal()
+            for (v in values) {
+                exact.next(arrayOf(v))
+                reference.next(arrayOf(v))
+            }
+            assertSame(reference.value(), exact.value())
+        }
+    }
+
+    @Test
+    fun avgOfIntegersMatchesBigDecimal() {
+        val values = listOf(Datum.integer(1), Datum.bigint(Long.MAX_VALUE), Datum.integer(2), Datum.nullValue(PType.integer()), Datum.bigint(5))
+        val exact = accumulator(Agg_AVG__INT64__INT64, PType.bigint())
+        val reference = AccumulatorAvgDecimal()
+        for (v in values) {
+            exact.next(arrayOf(v))
+            reference.next(arrayOf(v))
+        }
+        assertSame(reference.value(), exact.value())
+    }
+
+    @Test
+    fun avgOfSmallIntegers() {
+        val acc = accumulator(Agg_AVG__INT16__INT16, PType.smallint())
+        acc.next(arrayOf(Datum.smallint(1)))
+        acc.next(arrayOf(Datum.tinyint(2)))
+        assertEquals(BigDecimal("1.5"), acc.value().bigDecimal)
+    }
+
+    @Test
+    fun nextValuesMatchesNext() {
+        val longs = LongArray(100) { it * 1_000_000_000_000_000L }
+        val batched = accumulator(Agg_SUM__INT64__INT64, PType.bigint())
+        val single = accumulator(Agg_SUM__INT64__INT64, PType.bigint())
+        batched.nextValues(longs, 10, 80)
+        for (i in 10 until 90) single.next(arrayOf(Datum.bigint(longs[i])))
+        assertSame(single.value(), batched.value())
+
+        val doubles = DoubleArray(100) { it * 0.5 }
+        val avg = accumulator(Agg_AVG__FLOAT64__FLOAT64, PType.doublePrecision())
+        avg.nextValues(doubles, 0, 100)
+        assertEquals(24.75, avg.value().double)
+
+        // an empty batch leaves the result null
+        val empty = accumulator(Agg_SUM__INT64__INT64, PType.bigint())
+        empty.nextValues(longs, 0, 0)
+        assertTrue(empty.value().isNull)
+    }
+
+    private fun accumulator(overload: AggOverload, arg: PType): Accumulator {
+        return requireNotNull(overload.getInstance(arrayOf(arg))).accumulator
+    }
+
+    /**
+     * A decimal with a random scale, which is sometimes too large for a long.
+     */
+    private fun decimal(random: Random): Datum {
+        val scale = random.nextInt(-2, 6)
+        val unscaled = when (random.nextInt(10)) {
+            0 -> random.nextLong()
+            else -> random.nextLong(-1_000_000_000L, 1_000_000_000L)
+        }
+        return Datum.decimal(BigDecimal.valueOf(unscaled, scale))
+    }
+
+    private fun assertSame(expected: Datum, actual: Datum) {
+        assertEquals(expected.type, actual.type)
+        assertEquals(expected.bigDecimal, actual.bigDecimal)
+        assertEquals(expected.bigDecimal.scale(), actual.bigDecimal.scale())
+    }
+}
@@ -0,0 +1,56 @@
+package org.partiql.spi.metrics
+
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+
+class HistogramTest {
+
+    @Test
+    fun recordsSmallValuesExactly() {
+        val histogram = Histogram()
+        for (value in 0L until 10L) {
+            histogram.record(value)
+        }
+        assertEquals(10, histogram.count)
+        assertEquals(45, histogram.sum)
+        assertEquals(0, histogram.min)
+        assertEquals(9, histogram.max)
+        assertEquals(4.5, histogram.mean)
+        assertEquals(4, histogram.getPercentile(50.0))
+        assertEquals(9, histogram.getPercentile(100.0))
+        assertEquals(0, histogram.getPercentile(0.0))
+    }
+
+    @Test
+    fun approximatesPercentilesOfLargeValues() {
+        val histogram = Histogram()
+        for (value in 1L..100_000L) {
+            histogram.record(value * 1000)
+        }
+        for (percentile in listOf(1.0, 50.0, 90.0, 99.0, 99.9)) {
+            val expected = (percentile * 1000).toLong() * 1000
+            val actual = histogram.getPercentile(percentile)
+            assertTrue(actual >= expected && actual <= expected * 1.125, "p$percentile: expected about $expected, found $actual")
+        }
+        assertEquals(100_000_000, histogram.getPercentile(100.0))
+        histogram.record(Long.MAX_VALUE)
+        assertEquals(Long.MAX_VALUE, histogram.max)
+    }
+
+    @Test
+    fun emptyHistogram() {
+        val histogram = Histogram()
+        assertEquals(0, histogram.count)
+        assertEquals(0, histogram.min)
+        assertEquals(0, histogram.max)
+        assertEquals(0, histogram.getPercentile(99.0))
+    }
+
+    @Test
+    fun rejectsNegativeValues() {
+        assertThrows<IllegalArgumentException> { Histogram().record(-1) }
+        assertThrows<IllegalArgumentException> { Histogram().getPercentile(101.0) }
+    }
+}
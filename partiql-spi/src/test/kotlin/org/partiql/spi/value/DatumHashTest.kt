@@ -0,0 +1,95 @@
+package org.partiql.spi.value
+
+import org.junit.jupiter.api.Test
+import org.partiql.spi.types.PType
+import java.math.BigDecimal
+import java.time.LocalDate
+import java.time.LocalDateTime
+import java.time.LocalTime
+import java.time.OffsetDateTime
+import java.time.ZoneOffset
+import kotlin.test.assertEquals
+import kotlin.test.assertTrue
+
+/**
+ * Asserts that [Datum.hash] is consistent with [Datum.comparator].
+ */
+class DatumHashTest {
+
+    private val comparator = Datum.comparator()
+
+    private fun assertConsistent(vararg values: Datum) {
+        for (a in values) {
+            for (b in values) {
+                assertEquals(0, comparator.compare(a, b), "$a should equal $b")
+                assertEquals(Datum.hash(a), Datum.hash(b), "$a and $b should have the same hash")
+            }
+        }
+    }
+
+    @Test
+    fun numbers() {
+        assertConsistent(
+            Datum.tinyint(1),
+            Datum.smallint(1),
+            Datum.integer(1),
+            Datum.bigint(1),
+            Datum.decimal(BigDecimal("1.00"), 3, 2),
+            Datum.numeric(BigDecimal.ONE),
+            Datum.real(1.0f),
+            Datum.doublePrecision(1.0),
+        )
+        assertConsistent(Datum.decimal(BigDecimal("0.1"), 2, 1), Datum.doublePrecision(0.1))
+        assertConsistent(Datum.decimal(BigDecimal("0.0"), 2, 1), Datum.doublePrecision(-0.0))
+        assertConsistent(Datum.decimal(BigDecimal("0.0"), 2, 1), Datum.doublePrecision(0.0), Datum.integer(0))
+        assertConsistent(Datum.bigint(Long.MAX_VALUE), Datum.decimal(BigDecimal(Long.MAX_VALUE), 19, 0))
+    }
+
+    @Test
+    fun text() {
+        assertConsistent(Datum.string("abc"), Datum.varchar("abc", 3), Datum.character("abc", 3))
+    }
+
+    @Test
+    fun datetimes() {
+        val date = LocalDate.of(2024, 1, 2)
+        assertConsistent(
+            Datum.date(date),
+            Datum.timestamp(date.atTime(LocalTime.MIDNIGHT), 6),
+            Datum.timestampz(OffsetDateTime.of(LocalDateTime.of(2024, 1, 2, 2, 0), ZoneOffset.ofHours(2)), 6),
+        )
+    }
+
+    @Test
+    fun unknowns() {
+        assertConsistent(Datum.nullValue(), Datum.missing(), Datum.nullValue(PType.integer()))
+    }
+
+    @Test
+    fun collections() {
+        assertConsistent(
+            Datum.bagVararg(Datum.integer(1), Datum.string("a"), Datum.bigint(2)),
+            Datum.bagVararg(Datum.bigint(2), Datum.integer(1), Datum.string("a")),
+        )
+        assertConsistent(
+            Datum.array(listOf(Datum.integer(1), Datum.decimal(BigDecimal("2.0"), 2, 1))),
+            Datum.array(listOf(Datum.bigint(1), Datum.bigint(2))),
+        )
+        assertConsistent(
+            Datum.struct(listOf(Field.of("a", Datum.integer(1)), Field.of("b", Datum.string("x")))),
+            Datum.struct(listOf(Field.of("b", Datum.string("x")), Field.of("a", Datum.bigint(1)))),
+        )
+    }
+
+    @Test
+    fun variants() {
+        assertConsistent(Datum.ion("1"), Datum.integer(1), Datum.decimal(BigDecimal("1.0"), 2, 1))
+        assertConsistent(Datum.ion("\"abc\""), Datum.string("abc"))
+    }
+
+    @Test
+    fun differentValuesUsuallyDiffer() {
+        val hashes = (0 until 1000).map { Datum.hash(Datum.integer(it)) }.toSet()
+        assertTrue(hashes.size > 990)
+    }
+}
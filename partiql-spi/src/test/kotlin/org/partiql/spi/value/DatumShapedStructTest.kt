@@ -0,0 +1,50 @@
+package org.partiql.spi.value
+
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertNull
+import org.junit.jupiter.api.Assertions.assertSame
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+
+class DatumShapedStructTest {
+
+    private val shape = Shape.of("a", "B", "a")
+
+    @Test
+    fun readsFieldsByNameAndPosition() {
+        val struct = Datum.struct(shape, Datum.integer(1), Datum.integer(2), Datum.integer(3))
+        assertSame(shape, struct.shape)
+        // the first of duplicate fields is read by name
+        assertEquals(1, struct.get("a").int)
+        assertNull(struct.get("b"))
+        assertEquals(2, struct.getInsensitive("b").int)
+        assertEquals(3, struct.get(2).int)
+        assertEquals(listOf("a" to 1, "B" to 2, "a" to 3), struct.fields.asSequence().map { it.name to it.value.int }.toList())
+    }
+
+    @Test
+    fun equalsStructsOfTheSameFields() {
+        val struct = Datum.struct(shape, Datum.integer(1), Datum.integer(2), Datum.integer(3))
+        val expected = Datum.struct(Field.of("a", Datum.integer(1)), Field.of("B", Datum.integer(2)), Field.of("a", Datum.integer(3)))
+        assertEquals(0, Datum.comparator().compare(expected, struct))
+        assertNull(expected.shape)
+    }
+
+    @Test
+    fun rejectsValuesOfAnotherShape() {
+        assertThrows<IllegalArgumentException> { Datum.struct(shape, Datum.integer(1)) }
+    }
+
+    @Test
+    fun readersShareShapes() {
+        val input = """{ a: 1, b: 2 } { a: 3, b: 4 } { b: 5 } { a: 6, b: 7 }"""
+        val values = DatumReader.ion(input.byteInputStream()).use { reader -> generateSequence { reader.next() }.toList() }
+        assertSame(values[0].shape, values[1].shape)
+        assertSame(values[0].shape, values[3].shape)
+        assertEquals(Shape.of("b"), values[2].shape)
+        val json = """{"a": 1, "b": 2} {"a": 3, "b": 4}"""
+        val records = DatumReader.json(json.byteInputStream()).use { reader -> generateSequence { reader.next() }.toList() }
+        assertSame(records[0].shape, records[1].shape)
+        assertEquals(4, records[1].get(records[1].shape!!.indexOf("b")).long)
+    }
+}
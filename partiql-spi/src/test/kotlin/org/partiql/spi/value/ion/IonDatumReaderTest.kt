@@ -1,11 +1,18 @@
 package org.partiql.spi.value.ion
 
+import com.amazon.ion.system.IonBinaryWriterBuilder
+import com.amazon.ion.system.IonReaderBuilder
 import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertNull
 import org.junit.jupiter.api.Assertions.assertTrue
 import org.junit.jupiter.api.Test
+import org.partiql.spi.catalog.Projection
 import org.partiql.spi.types.PType
 import org.partiql.spi.value.Datum
 import org.partiql.spi.value.DatumReader
+import org.partiql.spi.value.Encoding
+import org.partiql.spi.value.Field
+import java.io.ByteArrayOutputStream
 import java.time.LocalDate
 import java.time.LocalDateTime
 import java.time.OffsetDateTime
@@ -76,6 +83,40 @@ class IonDatumReaderTest {
         }
     }
 
+    @Test
+    fun `reads projected fields`() {
+        val input = """{ a: 1, B: { c: [{ d: 2, e: 3 }], d: 4, e: { f: 5 } }, g: "skipped", h: { i: 6 } } [{ a: 7, g: 8 }, 9]"""
+        val projection = Projection.of(listOf(listOf("a"), listOf("b", "c"), listOf("b", "e"), listOf("h")))
+        // nested lists are read entirely
+        val c = Datum.struct(Field.of("d", Datum.bigint(2)), Field.of("e", Datum.bigint(3)))
+        val expected = listOf(
+            Datum.struct(
+                Field.of("a", Datum.bigint(1)),
+                Field.of("B", Datum.struct(Field.of("c", Datum.array(listOf(c))), Field.of("e", Datum.struct(Field.of("f", Datum.bigint(5)))))),
+                Field.of("h", Datum.struct(Field.of("i", Datum.bigint(6)))),
+            ),
+            // the elements of a top-level list are narrowed as records
+            Datum.array(listOf(Datum.struct(Field.of("a", Datum.bigint(7))), Datum.bigint(9))),
+        )
+        listOf(input.toByteArray(), binary(input)).forEach { bytes ->
+            DatumReader.builder().encoding(Encoding.ION()).projection(projection).build(bytes.inputStream()).use { reader ->
+                for (value in expected) {
+                    val actual = reader.next()!!
+                    assertEquals(0, Datum.comparator().compare(value, actual), "actual $actual")
+                }
+                assertNull(reader.next())
+            }
+        }
+    }
+
+    private fun binary(text: String): ByteArray {
+        val out = ByteArrayOutputStream()
+        IonBinaryWriterBuilder.standard().build(out).use { writer ->
+            writer.writeValues(IonReaderBuilder.standard().build(text))
+        }
+        return out.toByteArray()
+    }
+
     private fun read(input: String): Datum = DatumReader.ion(input.byteInputStream()).use { it.next()!! }
 
     private fun readAll(resource: String) {
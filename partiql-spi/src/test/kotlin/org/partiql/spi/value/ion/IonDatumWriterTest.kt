@@ -1,3 +1,148 @@
 package org.partiql.spi.value.ion
 
-class IonDatumWriterTest
+import com.amazon.ionelement.api.loadSingleElement
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import org.partiql.spi.types.PType
+import org.partiql.spi.value.Datum
+import org.partiql.spi.value.DatumReader
+import org.partiql.spi.value.DatumWriter
+import org.partiql.spi.value.Encoding
+import org.partiql.spi.value.Field
+import java.io.ByteArrayOutputStream
+import java.math.BigDecimal
+import java.time.LocalDate
+import java.time.LocalDateTime
+import java.time.LocalTime
+import java.time.OffsetDateTime
+import java.time.ZoneOffset
+
+class IonDatumWriterTest {
+
+    private val values = listOf(
+        Datum.nullValue(),
+        Datum.missing(),
+        Datum.bool(true),
+        Datum.tinyint(-3),
+        Datum.smallint(300),
+        Datum.integer(-70000),
+        Datum.bigint(Long.MAX_VALUE),
+        Datum.decimal(BigDecimal("1.50"), 3, 2),
+        Datum.real(-1.5f),
+        Datum.doublePrecision(1e23),
+        Datum.string("abc"),
+        Datum.clob("text".toByteArray()),
+        Datum.blob(byteArrayOf(1, 2, 3)),
+        Datum.date(LocalDate.of(2007, 2, 23)),
+        Datum.timestamp(LocalDateTime.of(2007, 2, 23, 12, 14, 33, 79_000_000), 3),
+        Datum.timestamp(LocalDateTime.of(2007, 2, 23, 0, 0), 0),
+        Datum.timestampz(OffsetDateTime.of(2007, 2, 23, 12, 14, 33, 0, ZoneOffset.ofHours(-8)), 0),
+        Datum.array(listOf(Datum.integer(1), Datum.string("a"), Datum.missing())),
+        Datum.bagVararg(Datum.tinyint(1), Datum.bagVararg()),
+        Datum.struct(
+            Field.of("a", Datum.smallint(1)),
+            Field.of("b", Datum.bagVararg(Datum.struct(Field.of("c", Datum.missing())))),
+            Field.of("a", Datum.nullValue()),
+        ),
+    )
+
+    @Test
+    fun roundTripText() = assertRoundTrip(binary = false)
+
+    @Test
+    fun roundTripBinary() = assertRoundTrip(binary = true)
+
+    private fun assertRoundTrip(binary: Boolean) {
+        val output = ByteArrayOutputStream()
+        DatumWriter.builder().encoding(Encoding.ION()).binary(binary).build(output).use { writer ->
+            values.forEach { writer.write(it) }
+        }
+        val actual = read(output.toByteArray())
+        assertEquals(values.size, actual.size)
+        for (i in values.indices) {
+            val expected = values[i]
+            assertEquals(expected.type.code(), actual[i].type.code(), "$expected")
+            assertEquals(0, Datum.comparator().compare(expected, actual[i]), "expected $expected, actual ${actual[i]}")
+        }
+        // annotations of nested values are read
+        val struct = actual.last()
+        assertEquals(PType.SMALLINT, struct.get("a").type.code())
+        assertEquals(PType.BAG, struct.get("b").type.code())
+        assertEquals(PType.TIMESTAMP, actual[14].type.code())
+        assertEquals(3, actual[14].type.precision)
+    }
+
+    @Test
+    fun writesAnnotationsUnderstoodByReader() {
+        val output = ByteArrayOutputStream()
+        DatumWriter.ion(output).use { writer ->
+            writer.write(Datum.integer(1))
+            writer.write(Datum.bagVararg(Datum.missing()))
+        }
+        assertEquals("int::1\nbag::[missing]", output.toString(Charsets.UTF_8).trim())
+    }
+
+    @Test
+    fun ionVariantKeepsItsAnnotations() {
+        val input = "ion::a::{x: b::1}".byteInputStream()
+        val variant = DatumReader.ion(input).use { it.next()!! }
+        assertEquals(PType.VARIANT, variant.type.code())
+        val output = ByteArrayOutputStream()
+        DatumWriter.ion(output).use { it.write(variant) }
+        assertEquals(loadSingleElement("ion::a::{x: b::1}"), loadSingleElement(output.toString(Charsets.UTF_8)))
+        val actual = read(output.toByteArray()).single()
+        assertEquals(PType.VARIANT, actual.type.code())
+        assertEquals(String(variant.pack(Charsets.UTF_8)), String(actual.pack(Charsets.UTF_8)))
+    }
+
+    @Test
+    fun largeBagIsStreamed() {
+        val n = 200_000
+        var produced = 0
+        val bag = Datum.bag(
+            Iterable {
+                generateSequence(0) { it + 1 }.take(n).map {
+                    produced++
+                    Datum.struct(Field.of("id", Datum.bigint(it.toLong())), Field.of("name", Datum.string("name_$it")))
+                }.iterator()
+            }
+        )
+        val output = ByteArrayOutputStream()
+        DatumWriter.builder().encoding(Encoding.ION()).binary(true).build(output).use { it.write(bag) }
+        assertEquals(n, produced)
+        val actual = read(output.toByteArray()).single()
+        var count = 0
+        for (record in actual) {
+            assertEquals(count.toLong(), record.get("id").long)
+            count++
+        }
+        assertEquals(n, count)
+    }
+
+    @Test
+    fun unsupportedTypesAreRejected() {
+        DatumWriter.ion(ByteArrayOutputStream()).use { writer ->
+            val ex = assertThrows<RuntimeException> { writer.write(Datum.time(LocalTime.NOON, 0)) }
+            assertTrue(ex.message!!.contains("unsupported type"))
+        }
+    }
+
+    @Test
+    fun builderRequiresEncoding() {
+        assertThrows<IllegalArgumentException> { DatumWriter.builder().build(ByteArrayOutputStream()) }
+    }
+
+    private fun read(bytes: ByteArray): List<Datum> {
+        val values = mutableListOf<Datum>()
+        DatumReader.ion(bytes.inputStream()).use { reader ->
+            var next = reader.next()
+            while (next != null) {
+                values.add(next)
+                next = reader.next()
+            }
+        }
+        return values
+    }
+}
@@ -0,0 +1,116 @@
+package org.partiql.spi.value.json
+
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertNull
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import org.partiql.spi.catalog.Projection
+import org.partiql.spi.types.PType
+import org.partiql.spi.value.Datum
+import org.partiql.spi.value.DatumReader
+import org.partiql.spi.value.Encoding
+import org.partiql.spi.value.Field
+import java.math.BigDecimal
+
+class JsonDatumReaderTest {
+
+    @Test
+    fun readsValues() {
+        val expected = Datum.struct(
+            Field.of("a", Datum.bigint(-12)),
+            Field.of("b", Datum.doublePrecision(1.5)),
+            Field.of("c", Datum.array(listOf(Datum.bool(true), Datum.bool(false), Datum.nullValue()))),
+            Field.of("d", Datum.string("x\"y\\z\n\u00e9\u20ac")),
+            Field.of("e", Datum.struct()),
+            Field.of("f", Datum.array(emptyList())),
+            Field.of("a", Datum.doublePrecision(-2.5e-3)),
+        )
+        val actual = read("""{"a": -12, "b": 1.5, "c": [true, false, null], "d": "x\"y\\z\n\u00e9€", "e": {}, "f": [ ], "a": -25E-4}""")
+        assertEquals(0, Datum.comparator().compare(expected, actual), "actual $actual")
+        assertEquals(PType.BIGINT, actual.get("a").type.code())
+        assertEquals(PType.DOUBLE, actual.get("b").type.code())
+        assertEquals(PType.STRING, actual.get("d").type.code())
+    }
+
+    @Test
+    fun readsNumbers() {
+        assertEquals(PType.BIGINT, read("0").type.code())
+        assertEquals(Long.MAX_VALUE, read("9223372036854775807").long)
+        assertEquals(Long.MIN_VALUE, read("-9223372036854775808").long)
+        val big = read("92233720368547758070")
+        assertEquals(PType.DECIMAL, big.type.code())
+        assertEquals(BigDecimal("92233720368547758070"), big.bigDecimal)
+        assertEquals(1e23, read("1E+23").double)
+        // numbers with a fraction or an exponent may be read exactly
+        val exact = read("12.50", exact = true)
+        assertEquals(PType.DECIMAL, exact.type.code())
+        assertEquals(BigDecimal("12.50"), exact.bigDecimal)
+        assertEquals(PType.BIGINT, read("12", exact = true).type.code())
+    }
+
+    @Test
+    fun readsJsonLines() {
+        val input = (0 until 1000).joinToString("\n") { """{"id": $it, "name": "name_$it"}""" } + "\n"
+        DatumReader.json(input.byteInputStream()).use { reader ->
+            for (i in 0 until 1000) {
+                val record = reader.next()!!
+                assertEquals(i.toLong(), record.get("id").long)
+                assertEquals("name_$i", record.get("name").string)
+            }
+            assertNull(reader.next())
+        }
+    }
+
+    @Test
+    fun readsTheSameValuesAsTheIonReader() {
+        val input = """{"a": [1, -2, 3.25, "s", null, true, {"b": {"c": []}}], "d": -1.5e3}"""
+        val json = read(input, exact = true)
+        val ion = DatumReader.ion(input.byteInputStream()).use { it.next()!! }
+        assertEquals(0, Datum.comparator().compare(ion, json), "expected $ion, actual $json")
+    }
+
+    @Test
+    fun readsProjectedFields() {
+        val input = """{"a": 1, "B": {"c": [1, {"x": "}"}], "d": {"e": [2, "]"]}}, "f": "\"}", "g": true}
+            |[{"a": 2, "g": false}, 3]
+        """.trimMargin()
+        val projection = Projection.of(listOf(listOf("a"), listOf("b", "c"), listOf("g")))
+        val expected = listOf(
+            Datum.struct(
+                Field.of("a", Datum.bigint(1)),
+                Field.of("B", Datum.struct(Field.of("c", Datum.array(listOf(Datum.bigint(1), Datum.struct(Field.of("x", Datum.string("}")))))))),
+                Field.of("g", Datum.bool(true)),
+            ),
+            // the elements of a top-level array are narrowed as records
+            Datum.array(listOf(Datum.struct(Field.of("a", Datum.bigint(2)), Field.of("g", Datum.bool(false))), Datum.bigint(3))),
+        )
+        val builder = DatumReader.builder().encoding(Encoding.JSON()).projection(projection)
+        builder.build(input.byteInputStream()).use { reader ->
+            for (value in expected) {
+                val actual = reader.next()!!
+                assertEquals(0, Datum.comparator().compare(value, actual), "actual $actual")
+            }
+            assertNull(reader.next())
+        }
+    }
+
+    @Test
+    fun rejectsInvalidInput() {
+        listOf("{\"a\" 1}", "[1 2]", "01", "1.", "-", "1e", "\"a", "tru", "{a: 1}", "[1,]", "\"\\x\"").forEach { input ->
+            val ex = assertThrows<RuntimeException>(input) {
+                DatumReader.json(input.byteInputStream()).use { reader ->
+                    while (reader.next() != null) {
+                        // read every value
+                    }
+                }
+            }
+            assertTrue(ex.localizedMessage.contains("line 1"), ex.localizedMessage)
+        }
+    }
+
+    private fun read(input: String, exact: Boolean = false): Datum {
+        val reader = DatumReader.builder().encoding(Encoding.JSON()).exactNumbers(exact).build(input.byteInputStream())
+        return reader.use { it.next()!! }
+    }
+}
@@ -0,0 +1,70 @@
+package org.partiql.spi.value.json
+
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import org.partiql.spi.value.Datum
+import org.partiql.spi.value.DatumReader
+import org.partiql.spi.value.DatumWriter
+import org.partiql.spi.value.Encoding
+import org.partiql.spi.value.Field
+import java.io.ByteArrayOutputStream
+import java.math.BigDecimal
+import java.time.LocalDate
+import java.time.LocalDateTime
+
+class JsonDatumWriterTest {
+
+    @Test
+    fun writesJsonLines() {
+        val output = ByteArrayOutputStream()
+        DatumWriter.builder().encoding(Encoding.JSON()).build(output).use { writer ->
+            writer.write(Datum.integer(1))
+            writer.write(Datum.bagVararg(Datum.missing(), Datum.nullValue(), Datum.decimal(BigDecimal("1.50"), 3, 2)))
+            writer.write(
+                Datum.struct(
+                    Field.of("a", Datum.string("x\"\n\u0001")),
+                    Field.of("b", Datum.missing()),
+                    Field.of("c", Datum.doublePrecision(1.5e10)),
+                    Field.of("d", Datum.date(LocalDate.of(2007, 2, 23))),
+                    Field.of("e", Datum.timestamp(LocalDateTime.of(2007, 2, 23, 12, 14, 33), 0)),
+                )
+            )
+        }
+        val expected = """
+            1
+            [null,null,1.50]
+            {"a":"x\"\n\u0001","c":1.5E10,"d":"2007-02-23","e":"2007-02-23T12:14:33"}
+        """.trimIndent()
+        assertEquals(expected, output.toString(Charsets.UTF_8).trim())
+    }
+
+    @Test
+    fun roundTrip() {
+        val values = listOf(
+            Datum.bigint(Long.MIN_VALUE),
+            Datum.doublePrecision(-0.125),
+            Datum.string("a\\b\tc\u00e9"),
+            Datum.bool(false),
+            Datum.array(listOf(Datum.struct(Field.of("x", Datum.array(emptyList()))), Datum.struct())),
+        )
+        val output = ByteArrayOutputStream()
+        DatumWriter.json(output).use { writer -> values.forEach { writer.write(it) } }
+        DatumReader.json(output.toByteArray().inputStream()).use { reader ->
+            for (expected in values) {
+                val actual = reader.next()!!
+                assertEquals(expected.type.code(), actual.type.code(), "$expected")
+                assertEquals(0, Datum.comparator().compare(expected, actual), "expected $expected, actual $actual")
+            }
+        }
+    }
+
+    @Test
+    fun unsupportedValuesAreRejected() {
+        DatumWriter.json(ByteArrayOutputStream()).use { writer ->
+            val ex = assertThrows<RuntimeException> { writer.write(Datum.doublePrecision(Double.NaN)) }
+            assertTrue(ex.message!!.contains("NaN"))
+        }
+    }
+}
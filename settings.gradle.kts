@@ -27,6 +27,7 @@ include(
     "partiql-spi",
     "lib:sprout",
     "test:coverage-tests",
+    "test:partiql-benchmarks",
     "test:partiql-tests-runner",
     "test:partiql-randomized-tests",
     "test:sprout-tests",
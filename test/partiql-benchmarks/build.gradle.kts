@@ -0,0 +1,48 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+plugins {
+    id(Plugins.conventions)
+    id(Plugins.jmh)
+    id(Plugins.application)
+}
+
+dependencies {
+    implementation(project(":partiql-eval"))
+    implementation(project(":partiql-parser", configuration = "shadow"))
+    implementation(project(":partiql-planner"))
+    implementation(project(":partiql-spi"))
+}
+
+// Runs the TPC-H queries, e.g.
+//   ./gradlew :test:partiql-benchmarks:run --args="--scale 0.01 --queries q1,q6"
+application {
+    mainClass.set("org.partiql.benchmarks.tpch.TpchRunner")
+    applicationDefaultJvmArgs = listOf("-Xmx4g")
+}
+
+// Runs every benchmark by default; select some with a regex, e.g.
+//   ./gradlew :test:partiql-benchmarks:jmh -Pbenchmarks=OperatorBenchmark
+jmh {
+    jmhVersion.set(Versions.jmh)
+    (findProperty("benchmarks") as String?)?.let { includes.set(listOf(it)) }
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    // the allocation rate per operation (gc.alloc.rate.norm)
+    profilers.add("gc")
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("results/jmh/results.json"))
+}
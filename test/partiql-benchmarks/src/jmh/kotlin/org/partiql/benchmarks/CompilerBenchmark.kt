@@ -0,0 +1,46 @@
+package org.partiql.benchmarks
+
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.partiql.eval.ExecutionPlan
+import org.partiql.plan.Plan
+import java.util.concurrent.TimeUnit
+import org.partiql.eval.Mode as EvalMode
+
+/**
+ * The throughput of compiling a plan of a join, an aggregation, and a sort into an [ExecutionPlan].
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+open class CompilerBenchmark {
+
+    private lateinit var workload: Workload
+    private lateinit var plan: Plan
+
+    @Setup
+    fun setup() {
+        workload = Workload(Tables.orders(0), Tables.customers(0))
+        val statement = workload.parser.parse(QUERY).statements[0]
+        plan = workload.planner.plan(statement, workload.session).plan
+    }
+
+    @Benchmark
+    fun compile(): ExecutionPlan = workload.compiler.compile(plan, EvalMode.STRICT())
+
+    private companion object {
+
+        const val QUERY = """
+            SELECT c.region AS region, COUNT(*) AS orders, SUM(o.amount) AS total
+            FROM orders AS o JOIN customers AS c ON o.customer = c.id
+            WHERE o.status = 'shipped' AND o.amount > 100e0
+            GROUP BY c.region
+            ORDER BY total DESC
+        """
+    }
+}
@@ -0,0 +1,74 @@
+package org.partiql.benchmarks
+
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.infra.Blackhole
+import org.partiql.spi.catalog.ExecutionCatalog
+import org.partiql.spi.catalog.Table
+import java.util.concurrent.TimeUnit
+
+/**
+ * The overhead of one execution of a trivial query over tiny tables, with and without reusing the operators of the
+ * previous executions. Without reuse, the catalogs resolve a new instance of each table for every execution, so that
+ * the plan is compiled to its operators each time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+open class ExecuteBenchmark {
+
+    /**
+     * The query, see [QUERIES].
+     */
+    @Param("scan", "filter", "aggregate", "join")
+    var query: String = ""
+
+    /**
+     * True to reuse the operators of the previous executions.
+     */
+    @Param("true", "false")
+    var reuse: Boolean = true
+
+    private lateinit var workload: Workload
+    private lateinit var compiled: Workload.Query
+    private lateinit var catalogs: Array<ExecutionCatalog>
+
+    @Setup
+    fun setup() {
+        workload = Workload(Tables.orders(ROWS), Tables.customers(ROWS / 10))
+        compiled = workload.Query(QUERIES.getValue(query))
+        catalogs = when (reuse) {
+            true -> compiled.catalogs
+            false -> Array(compiled.catalogs.size) { i ->
+                val catalog = compiled.catalogs[i]
+                ExecutionCatalog { id -> copy(catalog.getTable(id)) }
+            }
+        }
+    }
+
+    @Benchmark
+    fun execute(blackhole: Blackhole): Long = Workload.drain(workload.vm.execute(compiled.plan, catalogs), blackhole::consume)
+
+    /**
+     * @return a new instance of the table, with the same data.
+     */
+    private fun copy(table: Table): Table = Table.standard(table.getName(), table.getSchema(), table.getDatum())
+
+    private companion object {
+
+        const val ROWS = 100
+
+        val QUERIES = mapOf(
+            "scan" to "SELECT VALUE c.name FROM customers AS c",
+            "filter" to "SELECT VALUE o.id FROM orders AS o WHERE o.id = 7",
+            "aggregate" to "SELECT o.status AS status, COUNT(*) AS n FROM orders AS o GROUP BY o.status",
+            "join" to "SELECT o.id, c.name FROM orders AS o JOIN customers AS c ON o.customer = c.id WHERE o.id < 10",
+        )
+    }
+}
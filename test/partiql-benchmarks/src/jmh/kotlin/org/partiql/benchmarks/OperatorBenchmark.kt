@@ -0,0 +1,60 @@
+package org.partiql.benchmarks
+
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.infra.Blackhole
+import java.util.concurrent.TimeUnit
+
+/**
+ * The time to execute a query of one kind of operator over an in-memory table, and read its result; the query is
+ * compiled once. The allocations per operation are reported by the `gc` profiler.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+open class OperatorBenchmark {
+
+    /**
+     * The operator, see [QUERIES].
+     */
+    @Param("scan", "filter", "project", "join", "group_by", "sort", "distinct", "window", "path")
+    var operator: String = ""
+
+    /**
+     * The number of rows of the `orders` and `wide` tables.
+     */
+    @Param("10000")
+    var rows: Int = 0
+
+    private lateinit var query: Workload.Query
+
+    @Setup
+    fun setup() {
+        val workload = Workload(Tables.orders(rows), Tables.customers(maxOf(rows / 10, 1)), Tables.wide(100, rows))
+        query = workload.Query(QUERIES.getValue(operator))
+    }
+
+    @Benchmark
+    fun execute(blackhole: Blackhole): Long = query.execute(blackhole::consume)
+
+    private companion object {
+
+        val QUERIES = mapOf(
+            "scan" to "SELECT VALUE o FROM orders AS o",
+            "filter" to "SELECT VALUE o.id FROM orders AS o WHERE o.amount > 500e0 AND o.status = 'shipped'",
+            "project" to "SELECT o.id, o.amount * 2e0 AS twice, o.quantity - 1 AS fewer FROM orders AS o",
+            "join" to "SELECT o.id, c.name FROM orders AS o JOIN customers AS c ON o.customer = c.id",
+            "group_by" to "SELECT o.status AS status, COUNT(*) AS n, SUM(o.amount) AS total FROM orders AS o GROUP BY o.status",
+            "sort" to "SELECT VALUE o.id FROM orders AS o ORDER BY o.amount DESC",
+            "distinct" to "SELECT DISTINCT o.customer FROM orders AS o",
+            "window" to "SELECT o.id, RANK() OVER (PARTITION BY o.status ORDER BY o.amount) AS r FROM orders AS o",
+            "path" to "SELECT w.c7, w.c42, w.c99 FROM wide AS w",
+        )
+    }
+}
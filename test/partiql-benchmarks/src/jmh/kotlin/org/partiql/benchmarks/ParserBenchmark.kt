@@ -0,0 +1,52 @@
+package org.partiql.benchmarks
+
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.partiql.parser.PartiQLParser
+import java.util.concurrent.TimeUnit
+
+/**
+ * The throughput of parsing a query, by the size of the query.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+open class ParserBenchmark {
+
+    /**
+     * The number of projections and of predicates of the query.
+     */
+    @Param("1", "10", "100")
+    var size: Int = 0
+
+    private val parser = PartiQLParser.standard()
+    private lateinit var query: String
+
+    @Setup
+    fun setup() {
+        query = query(size)
+    }
+
+    @Benchmark
+    fun parse(): PartiQLParser.Result = parser.parse(query)
+
+    companion object {
+
+        /**
+         * @return a query of the `wide` table with the given number of projections and of predicates, e.g. for 2 and 2,
+         * `SELECT t.c0 + 0 AS a0, t.c1 + 1 AS a1 FROM wide AS t WHERE t.c0 > 0 AND t.c1 > 1`.
+         */
+        @JvmStatic
+        fun query(projections: Int, predicates: Int = projections): String {
+            val select = List(projections) { "t.c$it + $it AS a$it" }.joinToString()
+            val where = List(predicates) { "t.c$it > $it" }.joinToString(" AND ")
+            return "SELECT $select FROM wide AS t WHERE $where"
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package org.partiql.benchmarks
+
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.partiql.ast.Statement
+import org.partiql.planner.PartiQLPlanner
+import java.util.concurrent.TimeUnit
+
+/**
+ * The throughput of planning a parsed query over a wide schema, by the number of columns of the schema; the query reads
+ * every column, and filters on ten of them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+open class PlannerBenchmark {
+
+    @Param("10", "100", "1000")
+    var columns: Int = 0
+
+    private lateinit var workload: Workload
+    private lateinit var statement: Statement
+
+    @Setup
+    fun setup() {
+        workload = Workload(Tables.wide(columns, 0))
+        statement = workload.parser.parse(ParserBenchmark.query(columns, minOf(columns, 10))).statements[0]
+    }
+
+    @Benchmark
+    fun plan(): PartiQLPlanner.Result = workload.planner.plan(statement, workload.session)
+}
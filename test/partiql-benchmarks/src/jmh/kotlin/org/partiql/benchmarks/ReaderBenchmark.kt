@@ -0,0 +1,70 @@
+package org.partiql.benchmarks
+
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.infra.Blackhole
+import org.partiql.spi.catalog.Projection
+import org.partiql.spi.value.DatumReader
+import org.partiql.spi.value.DatumWriter
+import org.partiql.spi.value.Encoding
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
+import java.util.concurrent.TimeUnit
+
+/**
+ * The time to read a stream of wide records, by encoding, and with or without a projection of two of their fields.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+open class ReaderBenchmark {
+
+    @Param("ion_text", "ion_binary", "json")
+    var encoding: String = ""
+
+    @Param("false", "true")
+    var projected: Boolean = false
+
+    @Param("10000")
+    var rows: Int = 0
+
+    private lateinit var bytes: ByteArray
+
+    @Setup
+    fun setup() {
+        val out = ByteArrayOutputStream()
+        val writer = DatumWriter.builder()
+            .encoding(if (encoding == "json") Encoding.JSON() else Encoding.ION())
+            .binary(encoding == "ion_binary")
+            .build(out)
+        writer.use {
+            for (record in Tables.wide(20, rows).getDatum()) {
+                it.write(record)
+            }
+        }
+        bytes = out.toByteArray()
+    }
+
+    @Benchmark
+    fun read(blackhole: Blackhole): Long {
+        val builder = DatumReader.builder().encoding(if (encoding == "json") Encoding.JSON() else Encoding.ION())
+        if (projected) {
+            builder.projection(Projection.of(listOf(listOf("c1"), listOf("c17"))))
+        }
+        var n = 0L
+        builder.build(ByteArrayInputStream(bytes)).use { reader ->
+            while (true) {
+                val datum = reader.next() ?: break
+                blackhole.consume(datum)
+                n++
+            }
+        }
+        return n
+    }
+}
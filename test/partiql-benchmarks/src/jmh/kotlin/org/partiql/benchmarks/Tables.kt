@@ -0,0 +1,85 @@
+package org.partiql.benchmarks
+
+import org.partiql.spi.catalog.Name
+import org.partiql.spi.catalog.Table
+import org.partiql.spi.types.PType
+import org.partiql.spi.types.PTypeField
+import org.partiql.spi.value.Datum
+import org.partiql.spi.value.Field
+import java.util.Random
+
+/**
+ * Synthetic in-memory tables, whose rows are generated from a fixed seed so that every run reads the same data.
+ */
+object Tables {
+
+    private const val SEED = 42L
+
+    private val STATUSES = arrayOf("open", "shipped", "returned")
+    private val REGIONS = arrayOf("africa", "america", "asia", "europe", "middle east")
+
+    /**
+     * A table `orders(id INT, customer INT, amount DOUBLE PRECISION, status STRING, quantity INT)`, whose customers are
+     * the ids of the table of [customers] with a tenth as many rows.
+     */
+    @JvmStatic
+    fun orders(rows: Int): Table {
+        val random = Random(SEED)
+        val customers = maxOf(rows / 10, 1)
+        val schema = PType.bag(
+            PType.row(
+                PTypeField.of("id", PType.integer()),
+                PTypeField.of("customer", PType.integer()),
+                PTypeField.of("amount", PType.doublePrecision()),
+                PTypeField.of("status", PType.string()),
+                PTypeField.of("quantity", PType.integer()),
+            )
+        )
+        val data = List(rows) { i ->
+            Datum.struct(
+                Field.of("id", Datum.integer(i)),
+                Field.of("customer", Datum.integer(random.nextInt(customers))),
+                Field.of("amount", Datum.doublePrecision(random.nextInt(100_000) / 100.0)),
+                Field.of("status", Datum.string(STATUSES[random.nextInt(STATUSES.size)])),
+                Field.of("quantity", Datum.integer(1 + random.nextInt(50))),
+            )
+        }
+        return Table.standard(Name.of("orders"), schema, Datum.bag(data))
+    }
+
+    /**
+     * A table `customers(id INT, name STRING, region STRING)`.
+     */
+    @JvmStatic
+    fun customers(rows: Int): Table {
+        val random = Random(SEED)
+        val schema = PType.bag(
+            PType.row(
+                PTypeField.of("id", PType.integer()),
+                PTypeField.of("name", PType.string()),
+                PTypeField.of("region", PType.string()),
+            )
+        )
+        val data = List(rows) { i ->
+            Datum.struct(
+                Field.of("id", Datum.integer(i)),
+                Field.of("name", Datum.string("customer#$i")),
+                Field.of("region", Datum.string(REGIONS[random.nextInt(REGIONS.size)])),
+            )
+        }
+        return Table.standard(Name.of("customers"), schema, Datum.bag(data))
+    }
+
+    /**
+     * A table `wide(c0 INT, ..., c<n-1> INT)` of wide structs.
+     */
+    @JvmStatic
+    fun wide(columns: Int, rows: Int): Table {
+        val random = Random(SEED)
+        val schema = PType.bag(PType.row(List(columns) { PTypeField.of("c$it", PType.integer()) }))
+        val data = List(rows) {
+            Datum.struct(List(columns) { c -> Field.of("c$c", Datum.integer(random.nextInt(1_000))) })
+        }
+        return Table.standard(Name.of("wide"), schema, Datum.bag(data))
+    }
+}
@@ -0,0 +1,81 @@
+package org.partiql.benchmarks
+
+import org.partiql.eval.Mode
+import org.partiql.eval.PartiQLVM
+import org.partiql.eval.compiler.PartiQLCompiler
+import org.partiql.parser.PartiQLParser
+import org.partiql.plan.SymbolTable
+import org.partiql.planner.PartiQLPlanner
+import org.partiql.spi.catalog.Catalog
+import org.partiql.spi.catalog.ExecutionCatalog
+import org.partiql.spi.catalog.Session
+import org.partiql.spi.catalog.Table
+import org.partiql.spi.types.PType
+import org.partiql.spi.value.Datum
+
+/**
+ * The tables of a benchmark, and the phases of executing a query over them with the public API.
+ *
+ * @param tables the tables of the `memory` catalog, which is the current catalog.
+ */
+class Workload(vararg tables: Table) {
+
+    val session: Session = Session.builder()
+        .catalog("memory")
+        .catalogs(Catalog.builder().name("memory").apply { tables.forEach { define(it) } }.build())
+        .build()
+
+    val parser: PartiQLParser = PartiQLParser.standard()
+    val planner: PartiQLPlanner = PartiQLPlanner.builder().useRefs().build()
+    val compiler: PartiQLCompiler = PartiQLCompiler.standard()
+    val vm: PartiQLVM = PartiQLVM.standard()
+
+    /**
+     * A query compiled once, which is executed many times.
+     */
+    inner class Query(text: String, mode: Mode = Mode.STRICT()) {
+
+        private val result = planner.plan(parser.parse(text).statements[0], session)
+        val plan = compiler.compile(result.plan, mode)
+        val catalogs = catalogs(result.symbols)
+
+        /**
+         * Executes the query and reads every element of its result.
+         *
+         * @return the number of elements of the result.
+         */
+        fun execute(consume: (Datum) -> Unit): Long = drain(vm.execute(plan, catalogs), consume)
+    }
+
+    /**
+     * @return the execution catalogs of the tables of a plan, which are resolved by name in the session.
+     */
+    fun catalogs(symbols: SymbolTable): Array<ExecutionCatalog> = Array(symbols.catalogCount()) { catalogId ->
+        val catalog = session.getCatalogs().getCatalog(symbols.getCatalogName(catalogId))!!
+        val tables = symbols.getTables(catalogId).map { catalog.getTable(session, it.name)!! }
+        ExecutionCatalog { tables[it] }
+    }
+
+    companion object {
+
+        /**
+         * Reads every element of a collection, or the value itself if it is not a collection.
+         *
+         * @return the number of elements read.
+         */
+        @JvmStatic
+        fun drain(datum: Datum, consume: (Datum) -> Unit): Long {
+            val code = datum.type.code()
+            if (code != PType.BAG && code != PType.ARRAY) {
+                consume(datum)
+                return 1
+            }
+            var n = 0L
+            for (element in datum) {
+                consume(element)
+                n++
+            }
+            return n
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package org.partiql.benchmarks
+
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OperationsPerInvocation
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.partiql.spi.value.Datum
+import org.partiql.spi.value.DatumWriter
+import org.partiql.spi.value.Encoding
+import java.io.OutputStream
+import java.util.concurrent.TimeUnit
+
+/**
+ * The throughput, in records per second, of writing a large bag of wide records as Ion text or binary. The bag is lazy,
+ * as is the result of a query, so the writer streams its elements as they are iterated; the records themselves are
+ * generated once, so that only the writer is measured. The bytes are counted rather than kept.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+open class WriterBenchmark {
+
+    @Param("ion_text", "ion_binary")
+    var encoding: String = ""
+
+    private lateinit var bag: Datum
+
+    @Setup
+    fun setup() {
+        val records = Tables.wide(20, ROWS).getDatum().toList()
+        bag = Datum.bag(Iterable { records.iterator() })
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    fun write(): Long {
+        val out = CountingOutputStream()
+        DatumWriter.builder()
+            .encoding(Encoding.ION())
+            .binary(encoding == "ion_binary")
+            .build(out)
+            .use { it.write(bag) }
+        return out.count
+    }
+
+    /**
+     * Discards the bytes written to it, and counts them.
+     */
+    private class CountingOutputStream : OutputStream() {
+
+        var count = 0L
+
+        override fun write(b: Int) {
+            count++
+        }
+
+        override fun write(b: ByteArray, off: Int, len: Int) {
+            count += len
+        }
+    }
+
+    private companion object {
+        const val ROWS = 100_000
+    }
+}
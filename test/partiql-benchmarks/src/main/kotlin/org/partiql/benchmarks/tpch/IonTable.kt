@@ -0,0 +1,67 @@
+package org.partiql.benchmarks.tpch
+
+import org.partiql.spi.catalog.Name
+import org.partiql.spi.catalog.Projection
+import org.partiql.spi.catalog.Table
+import org.partiql.spi.catalog.TableStatistics
+import org.partiql.spi.value.Datum
+import org.partiql.spi.value.DatumReader
+import org.partiql.spi.value.Encoding
+import java.io.File
+
+/**
+ * A table of the rows of an Ion file, which are read from the file each time the table is scanned, so that a query
+ * over it measures reading as well. A scan which projects the rows reads only the projected fields.
+ *
+ * @param name the name of the table.
+ * @param file the Ion file, text or binary, of a stream of rows.
+ * @param statistics the statistics of the rows, if any.
+ */
+class IonTable(
+    private val name: Name,
+    private val file: File,
+    private val statistics: TableStatistics?,
+) : Table {
+
+    override fun getName(): Name = name
+
+    override fun getDatum(): Datum = rows(null)
+
+    override fun getDatum(projection: Projection): Datum = rows(projection)
+
+    override fun getStatistics(): TableStatistics? = statistics
+
+    private fun rows(projection: Projection?): Datum = Datum.bag(
+        Iterable {
+            val builder = DatumReader.builder().encoding(Encoding.ION())
+            if (projection != null && !projection.isAll) {
+                builder.projection(projection)
+            }
+            Rows(builder.build(file.inputStream().buffered()))
+        }
+    )
+
+    /**
+     * The rows of a reader, which is closed once they are read.
+     */
+    private class Rows(private val reader: DatumReader) : Iterator<Datum> {
+
+        private var next: Datum? = read()
+
+        override fun hasNext(): Boolean = next != null
+
+        override fun next(): Datum {
+            val row = next ?: throw NoSuchElementException()
+            next = read()
+            return row
+        }
+
+        private fun read(): Datum? {
+            val row = reader.next()
+            if (row == null) {
+                reader.close()
+            }
+            return row
+        }
+    }
+}
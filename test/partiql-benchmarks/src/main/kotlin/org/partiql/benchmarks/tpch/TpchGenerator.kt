@@ -0,0 +1,507 @@
+package org.partiql.benchmarks.tpch
+
+import org.partiql.spi.catalog.ColumnStatistics
+import org.partiql.spi.catalog.Table
+import org.partiql.spi.catalog.TableStatistics
+import org.partiql.spi.types.PType
+import org.partiql.spi.types.PTypeField
+import org.partiql.spi.value.Datum
+import org.partiql.spi.value.DatumWriter
+import org.partiql.spi.value.Encoding
+import org.partiql.spi.value.Shape
+import java.io.File
+import java.math.BigDecimal
+import java.math.RoundingMode
+import java.time.LocalDate
+import java.util.Random
+
+/**
+ * Generates the tables of TPC-H at a scale factor, whose rows are derived from a seed so that every run generates the
+ * same data. At scale factor 1, there are 150,000 customers, 1,500,000 orders, and about 6,000,000 line items; scale
+ * factors below 1 are for a laptop, e.g. 0.01 generates about 60,000 line items.
+ *
+ * The distributions follow the TPC-H specification closely enough that the standard queries select similar fractions
+ * of each table, although the text columns are built from shorter word lists. Money is a `DECIMAL(15,2)`.
+ *
+ * Besides the eight TPC-H tables, two semi-structured tables hold the same data as nested documents, and have no
+ * schema:
+ *  - `customer_orders`, a customer per document, with its nation and region under `c_address`, and its orders under
+ *    `c_orders`, each with its line items under `o_lineitems`. Customers without orders have no `c_orders` field.
+ *  - `part_attributes`, a part per document, with its brand, size, container, and the words of its type in a
+ *    `p_attributes` struct; only the parts of a polished or brushed type have a `finish`.
+ *
+ * @param scale the scale factor.
+ * @param seed the seed of the random values.
+ */
+class TpchGenerator(private val scale: Double, private val seed: Long = 42L) {
+
+    private val suppliers = count(10_000)
+    private val parts = count(200_000)
+    private val customers = count(150_000)
+    private val orders = count(1_500_000)
+
+    /**
+     * The data of each table, in the order of [TABLES], generated once.
+     */
+    private val data: Map<String, Datum> by lazy { generate() }
+
+    /**
+     * @return the tables, as in-memory tables. The TPC-H tables have a schema, and the statistics of their distinct
+     * values of the TPC-H specification, by which the planner orders their joins.
+     *
+     * @param indexes true to add hash indexes on the foreign keys which correlated subqueries look up, i.e. on
+     * `l_orderkey`, `l_partkey`, `ps_partkey`, and `o_custkey`.
+     */
+    fun tables(indexes: Boolean = true): List<Table> = TABLES.map { name ->
+        val datum = data.getValue(name)
+        val builder = Table.builder().name(name).datum(datum)
+        val schema = SCHEMAS[name] ?: return@map builder.build()
+        val statistics = TableStatistics.builder().rowCount(datum.count().toLong())
+        for ((column, distinct) in distinctCounts(name)) {
+            statistics.column(column, ColumnStatistics.builder().distinctCount(distinct).build())
+        }
+        builder.schema(schema).statistics(statistics.build())
+        if (indexes) {
+            INDEXES[name]?.forEach { builder.hashIndex(it) }
+        }
+        builder.build()
+    }
+
+    /**
+     * Writes each table into `<name>.ion` in the given directory, as a stream of its rows.
+     *
+     * @param binary true to write binary Ion rather than text.
+     * @return the written files.
+     */
+    fun write(dir: File, binary: Boolean = false): List<File> {
+        dir.mkdirs()
+        return TABLES.map { name ->
+            val file = File(dir, "$name.ion")
+            file.outputStream().buffered().use { out ->
+                DatumWriter.builder().encoding(Encoding.ION()).binary(binary).build(out).use { writer ->
+                    for (row in data.getValue(name)) {
+                        writer.write(row)
+                    }
+                }
+            }
+            file
+        }
+    }
+
+    private fun count(base: Int): Int = maxOf((base * scale).toInt(), 1)
+
+    /**
+     * @return the numbers of distinct values of the columns of a table which are joined or compared for equality.
+     */
+    private fun distinctCounts(table: String): Map<String, Long> = when (table) {
+        "region" -> mapOf("r_regionkey" to 5L, "r_name" to 5L)
+        "nation" -> mapOf("n_nationkey" to 25L, "n_name" to 25L, "n_regionkey" to 5L)
+        "supplier" -> mapOf("s_suppkey" to suppliers.toLong(), "s_nationkey" to 25L)
+        "part" -> mapOf(
+            "p_partkey" to parts.toLong(), "p_brand" to 25L, "p_type" to 150L, "p_size" to 50L, "p_container" to 40L,
+        )
+        "partsupp" -> mapOf("ps_partkey" to parts.toLong(), "ps_suppkey" to suppliers.toLong())
+        "customer" -> mapOf("c_custkey" to customers.toLong(), "c_nationkey" to 25L, "c_mktsegment" to 5L)
+        "orders" -> mapOf(
+            "o_orderkey" to orders.toLong(), "o_custkey" to maxOf(customers * 2L / 3, 1L), "o_orderstatus" to 3L,
+            "o_orderpriority" to 5L,
+        )
+        "lineitem" -> mapOf(
+            "l_orderkey" to orders.toLong(), "l_partkey" to parts.toLong(), "l_suppkey" to suppliers.toLong(),
+            "l_returnflag" to 3L, "l_linestatus" to 2L, "l_shipmode" to 7L, "l_shipinstruct" to 4L,
+        )
+        else -> emptyMap()
+    }
+
+    private fun generate(): Map<String, Datum> {
+        val data = LinkedHashMap<String, Datum>()
+        data["region"] = bag(region())
+        data["nation"] = bag(nation())
+        data["supplier"] = bag(supplier())
+        val part = part()
+        data["part"] = bag(part)
+        data["partsupp"] = bag(partsupp())
+        val customer = customer()
+        data["customer"] = bag(customer)
+        val (order, lineitem) = ordersAndLineitems(part)
+        data["orders"] = bag(order)
+        data["lineitem"] = bag(lineitem)
+        data["customer_orders"] = bag(customerOrders(customer, order, lineitem))
+        data["part_attributes"] = bag(partAttributes(part))
+        return data
+    }
+
+    private fun region(): List<Datum> {
+        val random = random(0)
+        return REGIONS.mapIndexed { i, name -> row(REGION, Datum.integer(i), Datum.string(name), comment(random)) }
+    }
+
+    private fun nation(): List<Datum> {
+        val random = random(1)
+        return NATIONS.mapIndexed { i, (name, region) ->
+            row(NATION, Datum.integer(i), Datum.string(name), Datum.integer(region), comment(random))
+        }
+    }
+
+    private fun supplier(): List<Datum> {
+        val random = random(2)
+        return List(suppliers) { i ->
+            val key = i + 1
+            val nation = random.nextInt(NATIONS.size)
+            // some suppliers have complaints, see Q16
+            val comment = when (random.nextInt(2_000)) {
+                0, 1, 2, 3, 4 -> Datum.string("${words(random, 2)} Customer ${words(random, 1)} Complaints")
+                else -> comment(random)
+            }
+            row(
+                SUPPLIER,
+                Datum.integer(key),
+                Datum.string("Supplier#%09d".format(key)),
+                Datum.string(address(random)),
+                Datum.integer(nation),
+                Datum.string(phone(random, nation)),
+                money(random.nextInt(1_099_999) - 99_999),
+                comment,
+            )
+        }
+    }
+
+    private fun part(): List<Datum> {
+        val random = random(3)
+        return List(parts) { i ->
+            val key = i + 1
+            val name = List(5) { COLORS[random.nextInt(COLORS.size)] }.joinToString(" ")
+            val mfgr = 1 + random.nextInt(5)
+            val brand = mfgr * 10 + 1 + random.nextInt(5)
+            val type = "${TYPE_SIZES[random.nextInt(6)]} ${TYPE_FINISHES[random.nextInt(5)]} ${TYPE_METALS[random.nextInt(5)]}"
+            val container = "${CONTAINER_SIZES[random.nextInt(5)]} ${CONTAINER_KINDS[random.nextInt(8)]}"
+            val price = 90_000 + (key / 10) % 20_001 + 100 * (key % 1_000)
+            row(
+                PART,
+                Datum.integer(key),
+                Datum.string(name),
+                Datum.string("Manufacturer#$mfgr"),
+                Datum.string("Brand#$brand"),
+                Datum.string(type),
+                Datum.integer(1 + random.nextInt(50)),
+                Datum.string(container),
+                money(price),
+                comment(random),
+            )
+        }
+    }
+
+    private fun partsupp(): List<Datum> {
+        val random = random(4)
+        return List(parts * 4) { i ->
+            val part = i / 4 + 1
+            row(
+                PARTSUPP,
+                Datum.integer(part),
+                Datum.integer(supplierOf(part, i % 4)),
+                Datum.integer(1 + random.nextInt(9_999)),
+                money(100 + random.nextInt(99_901)),
+                comment(random),
+            )
+        }
+    }
+
+    private fun customer(): List<Datum> {
+        val random = random(5)
+        return List(customers) { i ->
+            val key = i + 1
+            val nation = random.nextInt(NATIONS.size)
+            row(
+                CUSTOMER,
+                Datum.integer(key),
+                Datum.string("Customer#%09d".format(key)),
+                Datum.string(address(random)),
+                Datum.integer(nation),
+                Datum.string(phone(random, nation)),
+                money(random.nextInt(1_099_999) - 99_999),
+                Datum.string(SEGMENTS[random.nextInt(SEGMENTS.size)]),
+                comment(random),
+            )
+        }
+    }
+
+    private fun ordersAndLineitems(part: List<Datum>): Pair<List<Datum>, List<Datum>> {
+        val random = random(6)
+        val orders = ArrayList<Datum>(this.orders)
+        val lineitems = ArrayList<Datum>(this.orders * 4)
+        val days = (END_DATE.toEpochDay() - START_DATE.toEpochDay() - 151).toInt()
+        for (i in 0 until this.orders) {
+            val key = i + 1
+            // a third of the customers have no orders, see Q13 and Q22
+            var customer = 1 + random.nextInt(customers)
+            if (customers >= 3 && customer % 3 == 0) {
+                customer = if (customer == customers) customer - 1 else customer + 1
+            }
+            val date = START_DATE.plusDays(random.nextInt(days).toLong())
+            var total = BigDecimal.ZERO
+            var shipped = 0
+            val lines = 1 + random.nextInt(7)
+            for (line in 1..lines) {
+                val partkey = 1 + random.nextInt(parts)
+                val quantity = 1 + random.nextInt(50)
+                val price = part[partkey - 1].get(PART_PRICE).bigDecimal.multiply(BigDecimal(quantity))
+                val discount = BigDecimal.valueOf(random.nextInt(11).toLong(), 2)
+                val tax = BigDecimal.valueOf(random.nextInt(9).toLong(), 2)
+                val ship = date.plusDays(1L + random.nextInt(121))
+                val commit = date.plusDays(30L + random.nextInt(61))
+                val receipt = ship.plusDays(1L + random.nextInt(30))
+                val flag = if (!receipt.isAfter(CURRENT_DATE)) (if (random.nextBoolean()) "R" else "A") else "N"
+                val status = if (ship.isAfter(CURRENT_DATE)) "O" else "F"
+                if (status == "F") shipped++
+                total += price.multiply(BigDecimal.ONE + tax).multiply(BigDecimal.ONE - discount)
+                lineitems.add(
+                    row(
+                        LINEITEM,
+                        Datum.integer(key),
+                        Datum.integer(partkey),
+                        Datum.integer(supplierOf(partkey, random.nextInt(4))),
+                        Datum.integer(line),
+                        Datum.decimal(BigDecimal(quantity).setScale(2), 15, 2),
+                        Datum.decimal(price.setScale(2), 15, 2),
+                        Datum.decimal(discount, 15, 2),
+                        Datum.decimal(tax, 15, 2),
+                        Datum.string(flag),
+                        Datum.string(status),
+                        Datum.date(ship),
+                        Datum.date(commit),
+                        Datum.date(receipt),
+                        Datum.string(INSTRUCTIONS[random.nextInt(INSTRUCTIONS.size)]),
+                        Datum.string(MODES[random.nextInt(MODES.size)]),
+                        comment(random),
+                    )
+                )
+            }
+            val status = when (shipped) {
+                lines -> "F"
+                0 -> "O"
+                else -> "P"
+            }
+            // some orders have special requests, see Q13
+            val comment = when (random.nextInt(100)) {
+                0 -> Datum.string("${words(random, 1)} special ${words(random, 1)} requests")
+                else -> comment(random)
+            }
+            orders.add(
+                row(
+                    ORDERS,
+                    Datum.integer(key),
+                    Datum.integer(customer),
+                    Datum.string(status),
+                    Datum.decimal(total.setScale(2, RoundingMode.HALF_UP), 15, 2),
+                    Datum.date(date),
+                    Datum.string(PRIORITIES[random.nextInt(PRIORITIES.size)]),
+                    Datum.string("Clerk#%09d".format(1 + random.nextInt(count(1_000)))),
+                    Datum.integer(0),
+                    comment,
+                )
+            )
+        }
+        return orders to lineitems
+    }
+
+    private fun customerOrders(customer: List<Datum>, orders: List<Datum>, lineitems: List<Datum>): List<Datum> {
+        val lines = lineitems.groupBy { it.get(0).int }
+        val byCustomer = orders.groupBy { it.get(1).int }
+        return customer.map { c ->
+            val key = c.get(0).int
+            val (nation, region) = NATIONS[c.get(3).int]
+            val address = Datum.struct(
+                ADDRESS,
+                c.get(2),
+                c.get(4),
+                Datum.struct(NATION_REF, Datum.string(nation), Datum.string(REGIONS[region])),
+            )
+            val fields = mutableListOf(c.get(0), c.get(1), c.get(6), address)
+            val shape = byCustomer[key]?.let { orders ->
+                fields.add(
+                    Datum.array(
+                        orders.map { o ->
+                            val items = lines.getValue(o.get(0).int).map { l ->
+                                Datum.struct(NESTED_LINEITEM, l.get(1), l.get(4), l.get(5), l.get(6), l.get(8), l.get(10))
+                            }
+                            Datum.struct(NESTED_ORDER, o.get(0), o.get(4), o.get(5), o.get(3), Datum.array(items))
+                        }
+                    )
+                )
+                CUSTOMER_ORDERS
+            } ?: CUSTOMER_NO_ORDERS
+            Datum.struct(shape, *fields.toTypedArray())
+        }
+    }
+
+    private fun partAttributes(part: List<Datum>): List<Datum> = part.map { p ->
+        val (grade, finish, metal) = p.get(4).string.split(" ")
+        val attributes = if (finish == "POLISHED" || finish == "BRUSHED") {
+            Datum.struct(
+                ATTRIBUTES_FINISHED,
+                p.get(3), Datum.string(grade), Datum.string(metal), p.get(5), p.get(6), Datum.string(finish),
+            )
+        } else {
+            Datum.struct(ATTRIBUTES, p.get(3), Datum.string(grade), Datum.string(metal), p.get(5), p.get(6))
+        }
+        Datum.struct(PART_ATTRIBUTES, p.get(0), p.get(1), p.get(2), attributes)
+    }
+
+    /**
+     * @return the key of the i-th of the four suppliers of a part, as in the TPC-H generator.
+     */
+    private fun supplierOf(part: Int, i: Int): Int {
+        val s = suppliers.toLong()
+        return ((part + i * (s / 4 + (part - 1) / s)) % s + 1).toInt()
+    }
+
+    private fun random(table: Int) = Random(seed * 31 + table)
+
+    private fun words(random: Random, n: Int): String = List(n) { WORDS[random.nextInt(WORDS.size)] }.joinToString(" ")
+
+    private fun comment(random: Random): Datum = Datum.string(words(random, 3 + random.nextInt(5)))
+
+    private fun address(random: Random): String {
+        val chars = CharArray(10 + random.nextInt(20)) { ALPHABET[random.nextInt(ALPHABET.length)] }
+        return String(chars)
+    }
+
+    private fun phone(random: Random, nation: Int): String =
+        "%d-%03d-%03d-%04d".format(nation + 10, 100 + random.nextInt(900), 100 + random.nextInt(900), random.nextInt(10_000))
+
+    private companion object {
+
+        /**
+         * The names of the tables, in the order they are generated.
+         */
+        val TABLES = listOf(
+            "region", "nation", "supplier", "part", "partsupp", "customer", "orders", "lineitem",
+            "customer_orders", "part_attributes",
+        )
+
+        val START_DATE: LocalDate = LocalDate.of(1992, 1, 1)
+        val END_DATE: LocalDate = LocalDate.of(1998, 12, 31)
+        val CURRENT_DATE: LocalDate = LocalDate.of(1995, 6, 17)
+
+        val REGIONS = listOf("AFRICA", "AMERICA", "ASIA", "EUROPE", "MIDDLE EAST")
+
+        val NATIONS = listOf(
+            "ALGERIA" to 0, "ARGENTINA" to 1, "BRAZIL" to 1, "CANADA" to 1, "EGYPT" to 4, "ETHIOPIA" to 0,
+            "FRANCE" to 3, "GERMANY" to 3, "INDIA" to 2, "INDONESIA" to 2, "IRAN" to 4, "IRAQ" to 4, "JAPAN" to 2,
+            "JORDAN" to 4, "KENYA" to 0, "MOROCCO" to 0, "MOZAMBIQUE" to 0, "PERU" to 1, "CHINA" to 2, "ROMANIA" to 3,
+            "SAUDI ARABIA" to 4, "VIETNAM" to 2, "RUSSIA" to 3, "UNITED KINGDOM" to 3, "UNITED STATES" to 1,
+        )
+
+        val SEGMENTS = listOf("AUTOMOBILE", "BUILDING", "FURNITURE", "HOUSEHOLD", "MACHINERY")
+        val PRIORITIES = listOf("1-URGENT", "2-HIGH", "3-MEDIUM", "4-NOT SPECIFIED", "5-LOW")
+        val INSTRUCTIONS = listOf("DELIVER IN PERSON", "COLLECT COD", "NONE", "TAKE BACK RETURN")
+        val MODES = listOf("REG AIR", "AIR", "RAIL", "SHIP", "TRUCK", "MAIL", "FOB")
+        val TYPE_SIZES = listOf("STANDARD", "SMALL", "MEDIUM", "LARGE", "ECONOMY", "PROMO")
+        val TYPE_FINISHES = listOf("ANODIZED", "BURNISHED", "PLATED", "POLISHED", "BRUSHED")
+        val TYPE_METALS = listOf("TIN", "NICKEL", "BRASS", "STEEL", "COPPER")
+        val CONTAINER_SIZES = listOf("SM", "LG", "MED", "JUMBO", "WRAP")
+        val CONTAINER_KINDS = listOf("CASE", "BOX", "BAG", "JAR", "PKG", "PACK", "CAN", "DRUM")
+
+        val COLORS = listOf(
+            "almond", "antique", "aquamarine", "azure", "beige", "bisque", "black", "blanched", "blue", "blush",
+            "brown", "burlywood", "burnished", "chartreuse", "chiffon", "chocolate", "coral", "cornflower", "cornsilk",
+            "cream", "cyan", "dark", "deep", "dim", "dodger", "drab", "firebrick", "floral", "forest", "frosted",
+            "gainsboro", "ghost", "goldenrod", "green", "grey", "honeydew", "hot", "indian", "ivory", "khaki", "lace",
+            "lavender", "lawn", "lemon", "light", "lime", "linen", "magenta", "maroon", "medium", "metallic", "midnight",
+            "mint", "misty", "moccasin", "navajo", "navy", "olive", "orange", "orchid", "pale", "papaya", "peach",
+            "peru", "pink", "plum", "powder", "puff", "purple", "red", "rose", "rosy", "royal", "saddle", "salmon",
+            "sandy", "seashell", "sienna", "sky", "slate", "smoke", "snow", "spring", "steel", "tan", "thistle",
+            "tomato", "turquoise", "violet", "wheat", "white", "yellow",
+        )
+
+        val WORDS = listOf(
+            "furiously", "quickly", "carefully", "blithely", "slyly", "fluffily", "ironic", "final", "regular",
+            "express", "bold", "pending", "silent", "even", "unusual", "packages", "accounts", "deposits", "requests",
+            "instructions", "theodolites", "foxes", "ideas", "pinto", "beans", "asymptotes", "dependencies", "sleep",
+            "wake", "haggle", "nag", "use", "cajole", "detect", "integrate", "among", "about", "above", "along",
+        )
+
+        const val ALPHABET = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789 ,"
+
+        /**
+         * The position of `p_retailprice` in [PART].
+         */
+        const val PART_PRICE = 7
+
+        val REGION = Shape.of("r_regionkey", "r_name", "r_comment")
+        val NATION = Shape.of("n_nationkey", "n_name", "n_regionkey", "n_comment")
+        val SUPPLIER = Shape.of("s_suppkey", "s_name", "s_address", "s_nationkey", "s_phone", "s_acctbal", "s_comment")
+        val PART = Shape.of(
+            "p_partkey", "p_name", "p_mfgr", "p_brand", "p_type", "p_size", "p_container", "p_retailprice", "p_comment",
+        )
+        val PARTSUPP = Shape.of("ps_partkey", "ps_suppkey", "ps_availqty", "ps_supplycost", "ps_comment")
+        val CUSTOMER = Shape.of(
+            "c_custkey", "c_name", "c_address", "c_nationkey", "c_phone", "c_acctbal", "c_mktsegment", "c_comment",
+        )
+        val ORDERS = Shape.of(
+            "o_orderkey", "o_custkey", "o_orderstatus", "o_totalprice", "o_orderdate", "o_orderpriority", "o_clerk",
+            "o_shippriority", "o_comment",
+        )
+        val LINEITEM = Shape.of(
+            "l_orderkey", "l_partkey", "l_suppkey", "l_linenumber", "l_quantity", "l_extendedprice", "l_discount",
+            "l_tax", "l_returnflag", "l_linestatus", "l_shipdate", "l_commitdate", "l_receiptdate", "l_shipinstruct",
+            "l_shipmode", "l_comment",
+        )
+
+        val ADDRESS = Shape.of("street", "phone", "nation")
+        val NATION_REF = Shape.of("name", "region")
+        val NESTED_LINEITEM = Shape.of(
+            "l_partkey", "l_quantity", "l_extendedprice", "l_discount", "l_returnflag", "l_shipdate",
+        )
+        val NESTED_ORDER = Shape.of("o_orderkey", "o_orderdate", "o_orderpriority", "o_totalprice", "o_lineitems")
+        val CUSTOMER_ORDERS = Shape.of("c_custkey", "c_name", "c_mktsegment", "c_address", "c_orders")
+        val CUSTOMER_NO_ORDERS = Shape.of("c_custkey", "c_name", "c_mktsegment", "c_address")
+        val ATTRIBUTES = Shape.of("brand", "grade", "metal", "size", "container")
+        val ATTRIBUTES_FINISHED = Shape.of("brand", "grade", "metal", "size", "container", "finish")
+        val PART_ATTRIBUTES = Shape.of("p_partkey", "p_name", "p_mfgr", "p_attributes")
+
+        val SCHEMAS: Map<String, PType> = mapOf(
+            "region" to schema(REGION, PType.integer(), PType.string(), PType.string()),
+            "nation" to schema(NATION, PType.integer(), PType.string(), PType.integer(), PType.string()),
+            "supplier" to schema(
+                SUPPLIER, PType.integer(), PType.string(), PType.string(), PType.integer(), PType.string(), MONEY,
+                PType.string(),
+            ),
+            "part" to schema(
+                PART, PType.integer(), PType.string(), PType.string(), PType.string(), PType.string(), PType.integer(),
+                PType.string(), MONEY, PType.string(),
+            ),
+            "partsupp" to schema(PARTSUPP, PType.integer(), PType.integer(), PType.integer(), MONEY, PType.string()),
+            "customer" to schema(
+                CUSTOMER, PType.integer(), PType.string(), PType.string(), PType.integer(), PType.string(), MONEY,
+                PType.string(), PType.string(),
+            ),
+            "orders" to schema(
+                ORDERS, PType.integer(), PType.integer(), PType.string(), MONEY, PType.date(), PType.string(),
+                PType.string(), PType.integer(), PType.string(),
+            ),
+            "lineitem" to schema(
+                LINEITEM, PType.integer(), PType.integer(), PType.integer(), PType.integer(), MONEY, MONEY, MONEY,
+                MONEY, PType.string(), PType.string(), PType.date(), PType.date(), PType.date(), PType.string(),
+                PType.string(), PType.string(),
+            ),
+        )
+
+        val INDEXES = mapOf(
+            "lineitem" to listOf("l_orderkey", "l_partkey"),
+            "partsupp" to listOf("ps_partkey"),
+            "orders" to listOf("o_custkey"),
+        )
+
+        val MONEY: PType get() = PType.decimal(15, 2)
+
+        fun schema(shape: Shape, vararg types: PType): PType =
+            PType.bag(PType.row(List(types.size) { PTypeField.of(shape.getName(it), types[it]) }))
+
+        fun row(shape: Shape, vararg values: Datum): Datum = Datum.struct(shape, *values)
+
+        fun money(cents: Int): Datum = Datum.decimal(BigDecimal.valueOf(cents.toLong(), 2), 15, 2)
+
+        fun bag(rows: List<Datum>): Datum = Datum.bag(rows)
+    }
+}
@@ -0,0 +1,535 @@
+package org.partiql.benchmarks.tpch
+
+import org.partiql.eval.Mode
+
+/**
+ * The queries of the suite: PartiQL versions of the 22 TPC-H queries (`q1` to `q22`), with the substitution parameters
+ * of the TPC-H validation run, and queries of the semi-structured tables of [TpchGenerator] (`n1` onwards).
+ *
+ * The TPC-H queries qualify every column with the variable of its table, so that they also run over tables without a
+ * schema. Date arithmetic is computed ahead into date literals, a view is a `WITH` clause, and the columns of a derived
+ * table are named in its `SELECT` rather than after its alias. The joins of a query whose `WHERE` has a subquery are
+ * written with `JOIN ... ON`, since the planner only orders the joins of a `WHERE` without subqueries. An uncorrelated
+ * `IN` subquery is evaluated again for each row, so those of `q18` and `q20` are joins with derived tables instead.
+ * The `ELSE` of the `CASE`s of `q8` and `q14` is the decimal `0.00` rather than `0`, since the typer leaves an `INTEGER`
+ * branch of a `DECIMAL` `CASE` uncast and a `SUM` of decimals reads each value as a decimal.
+ */
+object TpchQueries {
+
+    /**
+     * A query of the suite.
+     *
+     * @param name the name of the query, e.g. `q1`.
+     * @param description what the query does.
+     * @param text the PartiQL text of the query.
+     * @param mode the mode of the query; the queries of semi-structured tables are permissive, so that a path to an
+     * absent field is `MISSING` rather than an error.
+     */
+    class Query(val name: String, val description: String, val text: String, val mode: Mode = Mode.STRICT())
+
+    @JvmStatic
+    val ALL: List<Query> = listOf(
+        Query(
+            "q1", "Pricing summary report",
+            """
+            SELECT l.l_returnflag AS l_returnflag, l.l_linestatus AS l_linestatus,
+                SUM(l.l_quantity) AS sum_qty,
+                SUM(l.l_extendedprice) AS sum_base_price,
+                SUM(l.l_extendedprice * (1 - l.l_discount)) AS sum_disc_price,
+                SUM(l.l_extendedprice * (1 - l.l_discount) * (1 + l.l_tax)) AS sum_charge,
+                AVG(l.l_quantity) AS avg_qty,
+                AVG(l.l_extendedprice) AS avg_price,
+                AVG(l.l_discount) AS avg_disc,
+                COUNT(*) AS count_order
+            FROM lineitem AS l
+            WHERE l.l_shipdate <= DATE '1998-09-02'
+            GROUP BY l.l_returnflag, l.l_linestatus
+            ORDER BY l_returnflag, l_linestatus
+            """
+        ),
+        Query(
+            "q2", "Minimum cost supplier",
+            """
+            SELECT s.s_acctbal AS s_acctbal, s.s_name AS s_name, n.n_name AS n_name, p.p_partkey AS p_partkey,
+                p.p_mfgr AS p_mfgr, s.s_address AS s_address, s.s_phone AS s_phone, s.s_comment AS s_comment
+            FROM part AS p
+                JOIN partsupp AS ps ON p.p_partkey = ps.ps_partkey
+                JOIN supplier AS s ON s.s_suppkey = ps.ps_suppkey
+                JOIN nation AS n ON s.s_nationkey = n.n_nationkey
+                JOIN region AS r ON n.n_regionkey = r.r_regionkey
+            WHERE p.p_size = 15
+                AND p.p_type LIKE '%BRASS'
+                AND r.r_name = 'EUROPE'
+                AND ps.ps_supplycost = (
+                    SELECT MIN(ps2.ps_supplycost)
+                    FROM partsupp AS ps2, supplier AS s2, nation AS n2, region AS r2
+                    WHERE p.p_partkey = ps2.ps_partkey
+                        AND s2.s_suppkey = ps2.ps_suppkey
+                        AND s2.s_nationkey = n2.n_nationkey
+                        AND n2.n_regionkey = r2.r_regionkey
+                        AND r2.r_name = 'EUROPE'
+                )
+            ORDER BY s_acctbal DESC, n_name, s_name, p_partkey
+            LIMIT 100
+            """
+        ),
+        Query(
+            "q3", "Shipping priority",
+            """
+            SELECT l.l_orderkey AS l_orderkey,
+                SUM(l.l_extendedprice * (1 - l.l_discount)) AS revenue,
+                o.o_orderdate AS o_orderdate, o.o_shippriority AS o_shippriority
+            FROM customer AS c, orders AS o, lineitem AS l
+            WHERE c.c_mktsegment = 'BUILDING'
+                AND c.c_custkey = o.o_custkey
+                AND l.l_orderkey = o.o_orderkey
+                AND o.o_orderdate < DATE '1995-03-15'
+                AND l.l_shipdate > DATE '1995-03-15'
+            GROUP BY l.l_orderkey, o.o_orderdate, o.o_shippriority
+            ORDER BY revenue DESC, o_orderdate
+            LIMIT 10
+            """
+        ),
+        Query(
+            "q4", "Order priority checking",
+            """
+            SELECT o.o_orderpriority AS o_orderpriority, COUNT(*) AS order_count
+            FROM orders AS o
+            WHERE o.o_orderdate >= DATE '1993-07-01'
+                AND o.o_orderdate < DATE '1993-10-01'
+                AND EXISTS (
+                    SELECT *
+                    FROM lineitem AS l
+                    WHERE l.l_orderkey = o.o_orderkey AND l.l_commitdate < l.l_receiptdate
+                )
+            GROUP BY o.o_orderpriority
+            ORDER BY o_orderpriority
+            """
+        ),
+        Query(
+            "q5", "Local supplier volume",
+            """
+            SELECT n.n_name AS n_name, SUM(l.l_extendedprice * (1 - l.l_discount)) AS revenue
+            FROM customer AS c, orders AS o, lineitem AS l, supplier AS s, nation AS n, region AS r
+            WHERE c.c_custkey = o.o_custkey
+                AND l.l_orderkey = o.o_orderkey
+                AND l.l_suppkey = s.s_suppkey
+                AND c.c_nationkey = s.s_nationkey
+                AND s.s_nationkey = n.n_nationkey
+                AND n.n_regionkey = r.r_regionkey
+                AND r.r_name = 'ASIA'
+                AND o.o_orderdate >= DATE '1994-01-01'
+                AND o.o_orderdate < DATE '1995-01-01'
+            GROUP BY n.n_name
+            ORDER BY revenue DESC
+            """
+        ),
+        Query(
+            "q6", "Forecasting revenue change",
+            """
+            SELECT SUM(l.l_extendedprice * l.l_discount) AS revenue
+            FROM lineitem AS l
+            WHERE l.l_shipdate >= DATE '1994-01-01'
+                AND l.l_shipdate < DATE '1995-01-01'
+                AND l.l_discount BETWEEN 0.05 AND 0.07
+                AND l.l_quantity < 24
+            """
+        ),
+        Query(
+            "q7", "Volume shipping",
+            """
+            SELECT shipping.supp_nation AS supp_nation, shipping.cust_nation AS cust_nation,
+                shipping.l_year AS l_year, SUM(shipping.volume) AS revenue
+            FROM (
+                SELECT n1.n_name AS supp_nation, n2.n_name AS cust_nation,
+                    EXTRACT(YEAR FROM l.l_shipdate) AS l_year,
+                    l.l_extendedprice * (1 - l.l_discount) AS volume
+                FROM supplier AS s, lineitem AS l, orders AS o, customer AS c, nation AS n1, nation AS n2
+                WHERE s.s_suppkey = l.l_suppkey
+                    AND o.o_orderkey = l.l_orderkey
+                    AND c.c_custkey = o.o_custkey
+                    AND s.s_nationkey = n1.n_nationkey
+                    AND c.c_nationkey = n2.n_nationkey
+                    AND ((n1.n_name = 'FRANCE' AND n2.n_name = 'GERMANY')
+                        OR (n1.n_name = 'GERMANY' AND n2.n_name = 'FRANCE'))
+                    AND l.l_shipdate BETWEEN DATE '1995-01-01' AND DATE '1996-12-31'
+            ) AS shipping
+            GROUP BY shipping.supp_nation, shipping.cust_nation, shipping.l_year
+            ORDER BY supp_nation, cust_nation, l_year
+            """
+        ),
+        Query(
+            "q8", "National market share",
+            """
+            SELECT all_nations.o_year AS o_year,
+                SUM(CASE WHEN all_nations.nation = 'BRAZIL' THEN all_nations.volume ELSE 0.00 END)
+                    / SUM(all_nations.volume) AS mkt_share
+            FROM (
+                SELECT EXTRACT(YEAR FROM o.o_orderdate) AS o_year,
+                    l.l_extendedprice * (1 - l.l_discount) AS volume,
+                    n2.n_name AS nation
+                FROM part AS p, supplier AS s, lineitem AS l, orders AS o, customer AS c, nation AS n1, nation AS n2,
+                    region AS r
+                WHERE p.p_partkey = l.l_partkey
+                    AND s.s_suppkey = l.l_suppkey
+                    AND l.l_orderkey = o.o_orderkey
+                    AND o.o_custkey = c.c_custkey
+                    AND c.c_nationkey = n1.n_nationkey
+                    AND n1.n_regionkey = r.r_regionkey
+                    AND r.r_name = 'AMERICA'
+                    AND s.s_nationkey = n2.n_nationkey
+                    AND o.o_orderdate BETWEEN DATE '1995-01-01' AND DATE '1996-12-31'
+                    AND p.p_type = 'ECONOMY ANODIZED STEEL'
+            ) AS all_nations
+            GROUP BY all_nations.o_year
+            ORDER BY o_year
+            """
+        ),
+        Query(
+            "q9", "Product type profit measure",
+            """
+            SELECT profit.nation AS nation, profit.o_year AS o_year, SUM(profit.amount) AS sum_profit
+            FROM (
+                SELECT n.n_name AS nation,
+                    EXTRACT(YEAR FROM o.o_orderdate) AS o_year,
+                    l.l_extendedprice * (1 - l.l_discount) - ps.ps_supplycost * l.l_quantity AS amount
+                FROM part AS p, supplier AS s, lineitem AS l, partsupp AS ps, orders AS o, nation AS n
+                WHERE s.s_suppkey = l.l_suppkey
+                    AND ps.ps_suppkey = l.l_suppkey
+                    AND ps.ps_partkey = l.l_partkey
+                    AND p.p_partkey = l.l_partkey
+                    AND o.o_orderkey = l.l_orderkey
+                    AND s.s_nationkey = n.n_nationkey
+                    AND p.p_name LIKE '%green%'
+            ) AS profit
+            GROUP BY profit.nation, profit.o_year
+            ORDER BY nation, o_year DESC
+            """
+        ),
+        Query(
+            "q10", "Returned item reporting",
+            """
+            SELECT c.c_custkey AS c_custkey, c.c_name AS c_name,
+                SUM(l.l_extendedprice * (1 - l.l_discount)) AS revenue,
+                c.c_acctbal AS c_acctbal, n.n_name AS n_name, c.c_address AS c_address, c.c_phone AS c_phone,
+                c.c_comment AS c_comment
+            FROM customer AS c, orders AS o, lineitem AS l, nation AS n
+            WHERE c.c_custkey = o.o_custkey
+                AND l.l_orderkey = o.o_orderkey
+                AND o.o_orderdate >= DATE '1993-10-01'
+                AND o.o_orderdate < DATE '1994-01-01'
+                AND l.l_returnflag = 'R'
+                AND c.c_nationkey = n.n_nationkey
+            GROUP BY c.c_custkey, c.c_name, c.c_acctbal, c.c_phone, n.n_name, c.c_address, c.c_comment
+            ORDER BY revenue DESC
+            LIMIT 20
+            """
+        ),
+        Query(
+            "q11", "Important stock identification",
+            """
+            SELECT ps.ps_partkey AS ps_partkey, SUM(ps.ps_supplycost * ps.ps_availqty) AS "value"
+            FROM partsupp AS ps, supplier AS s, nation AS n
+            WHERE ps.ps_suppkey = s.s_suppkey
+                AND s.s_nationkey = n.n_nationkey
+                AND n.n_name = 'GERMANY'
+            GROUP BY ps.ps_partkey
+            HAVING SUM(ps.ps_supplycost * ps.ps_availqty) > (
+                SELECT SUM(ps2.ps_supplycost * ps2.ps_availqty) * 0.0001
+                FROM partsupp AS ps2, supplier AS s2, nation AS n2
+                WHERE ps2.ps_suppkey = s2.s_suppkey
+                    AND s2.s_nationkey = n2.n_nationkey
+                    AND n2.n_name = 'GERMANY'
+            )
+            ORDER BY "value" DESC
+            """
+        ),
+        Query(
+            "q12", "Shipping modes and order priority",
+            """
+            SELECT l.l_shipmode AS l_shipmode,
+                SUM(CASE WHEN o.o_orderpriority = '1-URGENT' OR o.o_orderpriority = '2-HIGH' THEN 1 ELSE 0 END)
+                    AS high_line_count,
+                SUM(CASE WHEN o.o_orderpriority <> '1-URGENT' AND o.o_orderpriority <> '2-HIGH' THEN 1 ELSE 0 END)
+                    AS low_line_count
+            FROM orders AS o, lineitem AS l
+            WHERE o.o_orderkey = l.l_orderkey
+                AND l.l_shipmode IN ('MAIL', 'SHIP')
+                AND l.l_commitdate < l.l_receiptdate
+                AND l.l_shipdate < l.l_commitdate
+                AND l.l_receiptdate >= DATE '1994-01-01'
+                AND l.l_receiptdate < DATE '1995-01-01'
+            GROUP BY l.l_shipmode
+            ORDER BY l_shipmode
+            """
+        ),
+        Query(
+            "q13", "Customer distribution",
+            """
+            SELECT c_orders.c_count AS c_count, COUNT(*) AS custdist
+            FROM (
+                SELECT c.c_custkey AS c_custkey, COUNT(o.o_orderkey) AS c_count
+                FROM customer AS c LEFT OUTER JOIN orders AS o
+                    ON c.c_custkey = o.o_custkey AND o.o_comment NOT LIKE '%special%requests%'
+                GROUP BY c.c_custkey
+            ) AS c_orders
+            GROUP BY c_orders.c_count
+            ORDER BY custdist DESC, c_count DESC
+            """
+        ),
+        Query(
+            "q14", "Promotion effect",
+            """
+            SELECT 100.00 * SUM(CASE WHEN p.p_type LIKE 'PROMO%' THEN l.l_extendedprice * (1 - l.l_discount) ELSE 0.00 END)
+                / SUM(l.l_extendedprice * (1 - l.l_discount)) AS promo_revenue
+            FROM lineitem AS l, part AS p
+            WHERE l.l_partkey = p.p_partkey
+                AND l.l_shipdate >= DATE '1995-09-01'
+                AND l.l_shipdate < DATE '1995-10-01'
+            """
+        ),
+        Query(
+            "q15", "Top supplier",
+            """
+            WITH revenue AS (
+                SELECT l.l_suppkey AS supplier_no, SUM(l.l_extendedprice * (1 - l.l_discount)) AS total_revenue
+                FROM lineitem AS l
+                WHERE l.l_shipdate >= DATE '1996-01-01' AND l.l_shipdate < DATE '1996-04-01'
+                GROUP BY l.l_suppkey
+            )
+            SELECT s.s_suppkey AS s_suppkey, s.s_name AS s_name, s.s_address AS s_address, s.s_phone AS s_phone,
+                r.total_revenue AS total_revenue
+            FROM supplier AS s JOIN revenue AS r ON s.s_suppkey = r.supplier_no
+            WHERE r.total_revenue = (SELECT MAX(r2.total_revenue) FROM revenue AS r2)
+            ORDER BY s_suppkey
+            """
+        ),
+        Query(
+            "q16", "Parts/supplier relationship",
+            """
+            SELECT p.p_brand AS p_brand, p.p_type AS p_type, p.p_size AS p_size,
+                COUNT(DISTINCT ps.ps_suppkey) AS supplier_cnt
+            FROM partsupp AS ps JOIN part AS p ON p.p_partkey = ps.ps_partkey
+            WHERE p.p_brand <> 'Brand#45'
+                AND p.p_type NOT LIKE 'MEDIUM POLISHED%'
+                AND p.p_size IN (49, 14, 23, 45, 19, 3, 36, 9)
+                AND ps.ps_suppkey NOT IN (
+                    SELECT VALUE s.s_suppkey FROM supplier AS s WHERE s.s_comment LIKE '%Customer%Complaints%'
+                )
+            GROUP BY p.p_brand, p.p_type, p.p_size
+            ORDER BY supplier_cnt DESC, p_brand, p_type, p_size
+            """
+        ),
+        Query(
+            "q17", "Small-quantity-order revenue",
+            """
+            SELECT SUM(l.l_extendedprice) / 7.0 AS avg_yearly
+            FROM lineitem AS l JOIN part AS p ON p.p_partkey = l.l_partkey
+            WHERE p.p_brand = 'Brand#23'
+                AND p.p_container = 'MED BOX'
+                AND l.l_quantity < (
+                    SELECT 0.2 * AVG(l2.l_quantity) FROM lineitem AS l2 WHERE l2.l_partkey = p.p_partkey
+                )
+            """
+        ),
+        Query(
+            "q18", "Large volume customer",
+            """
+            SELECT c.c_name AS c_name, c.c_custkey AS c_custkey, o.o_orderkey AS o_orderkey,
+                o.o_orderdate AS o_orderdate, o.o_totalprice AS o_totalprice, SUM(l.l_quantity) AS sum_qty
+            FROM customer AS c
+                JOIN orders AS o ON c.c_custkey = o.o_custkey
+                JOIN lineitem AS l ON o.o_orderkey = l.l_orderkey
+                JOIN (
+                    SELECT l2.l_orderkey AS l_orderkey
+                    FROM lineitem AS l2
+                    GROUP BY l2.l_orderkey
+                    HAVING SUM(l2.l_quantity) > 300
+                ) AS big ON o.o_orderkey = big.l_orderkey
+            GROUP BY c.c_name, c.c_custkey, o.o_orderkey, o.o_orderdate, o.o_totalprice
+            ORDER BY o_totalprice DESC, o_orderdate
+            LIMIT 100
+            """
+        ),
+        Query(
+            "q19", "Discounted revenue",
+            """
+            SELECT SUM(l.l_extendedprice * (1 - l.l_discount)) AS revenue
+            FROM lineitem AS l, part AS p
+            WHERE p.p_partkey = l.l_partkey
+                AND l.l_shipmode IN ('AIR', 'REG AIR')
+                AND l.l_shipinstruct = 'DELIVER IN PERSON'
+                AND (
+                    (p.p_brand = 'Brand#12'
+                        AND p.p_container IN ('SM CASE', 'SM BOX', 'SM PACK', 'SM PKG')
+                        AND l.l_quantity >= 1 AND l.l_quantity <= 11
+                        AND p.p_size BETWEEN 1 AND 5)
+                    OR (p.p_brand = 'Brand#23'
+                        AND p.p_container IN ('MED BAG', 'MED BOX', 'MED PKG', 'MED PACK')
+                        AND l.l_quantity >= 10 AND l.l_quantity <= 20
+                        AND p.p_size BETWEEN 1 AND 10)
+                    OR (p.p_brand = 'Brand#34'
+                        AND p.p_container IN ('LG CASE', 'LG BOX', 'LG PACK', 'LG PKG')
+                        AND l.l_quantity >= 20 AND l.l_quantity <= 30
+                        AND p.p_size BETWEEN 1 AND 15)
+                )
+            """
+        ),
+        Query(
+            "q20", "Potential part promotion",
+            """
+            SELECT s.s_name AS s_name, s.s_address AS s_address
+            FROM supplier AS s
+                JOIN nation AS n ON s.s_nationkey = n.n_nationkey
+                JOIN (
+                    SELECT DISTINCT ps.ps_suppkey AS ps_suppkey
+                    FROM partsupp AS ps JOIN part AS p ON ps.ps_partkey = p.p_partkey
+                    WHERE p.p_name LIKE 'forest%'
+                        AND ps.ps_availqty > (
+                            SELECT 0.5 * SUM(l.l_quantity)
+                            FROM lineitem AS l
+                            WHERE l.l_partkey = ps.ps_partkey
+                                AND l.l_suppkey = ps.ps_suppkey
+                                AND l.l_shipdate >= DATE '1994-01-01'
+                                AND l.l_shipdate < DATE '1995-01-01'
+                        )
+                ) AS excess ON s.s_suppkey = excess.ps_suppkey
+            WHERE n.n_name = 'CANADA'
+            ORDER BY s_name
+            """
+        ),
+        Query(
+            "q21", "Suppliers who kept orders waiting",
+            """
+            SELECT s.s_name AS s_name, COUNT(*) AS numwait
+            FROM supplier AS s
+                JOIN lineitem AS l1 ON s.s_suppkey = l1.l_suppkey
+                JOIN orders AS o ON o.o_orderkey = l1.l_orderkey
+                JOIN nation AS n ON s.s_nationkey = n.n_nationkey
+            WHERE o.o_orderstatus = 'F'
+                AND l1.l_receiptdate > l1.l_commitdate
+                AND EXISTS (
+                    SELECT *
+                    FROM lineitem AS l2
+                    WHERE l2.l_orderkey = l1.l_orderkey AND l2.l_suppkey <> l1.l_suppkey
+                )
+                AND NOT EXISTS (
+                    SELECT *
+                    FROM lineitem AS l3
+                    WHERE l3.l_orderkey = l1.l_orderkey
+                        AND l3.l_suppkey <> l1.l_suppkey
+                        AND l3.l_receiptdate > l3.l_commitdate
+                )
+                AND n.n_name = 'SAUDI ARABIA'
+            GROUP BY s.s_name
+            ORDER BY numwait DESC, s_name
+            LIMIT 100
+            """
+        ),
+        Query(
+            "q22", "Global sales opportunity",
+            """
+            SELECT custsale.cntrycode AS cntrycode, COUNT(*) AS numcust, SUM(custsale.c_acctbal) AS totacctbal
+            FROM (
+                SELECT SUBSTRING(c.c_phone FROM 1 FOR 2) AS cntrycode, c.c_acctbal AS c_acctbal
+                FROM customer AS c
+                WHERE SUBSTRING(c.c_phone FROM 1 FOR 2) IN ('13', '31', '23', '29', '30', '18', '17')
+                    AND c.c_acctbal > (
+                        SELECT AVG(c2.c_acctbal)
+                        FROM customer AS c2
+                        WHERE c2.c_acctbal > 0.00
+                            AND SUBSTRING(c2.c_phone FROM 1 FOR 2) IN ('13', '31', '23', '29', '30', '18', '17')
+                    )
+                    AND NOT EXISTS (SELECT * FROM orders AS o WHERE o.o_custkey = c.c_custkey)
+            ) AS custsale
+            GROUP BY custsale.cntrycode
+            ORDER BY cntrycode
+            """
+        ),
+        Query(
+            "n1", "Revenue by region, unnesting orders and line items",
+            """
+            SELECT c.c_address.nation.region AS region, SUM(l.l_extendedprice * (1 - l.l_discount)) AS revenue
+            FROM customer_orders AS c, c.c_orders AS o, o.o_lineitems AS l
+            WHERE o.o_orderdate >= DATE '1994-01-01' AND o.o_orderdate < DATE '1995-01-01'
+            GROUP BY c.c_address.nation.region
+            ORDER BY revenue DESC
+            """,
+            Mode.PERMISSIVE(),
+        ),
+        Query(
+            "n2", "Customers with a large line item, by an EXISTS over their nested orders",
+            """
+            SELECT c.c_custkey AS c_custkey, c.c_name AS c_name, c.c_address.nation.name AS nation
+            FROM customer_orders AS c
+            WHERE EXISTS (
+                SELECT * FROM c.c_orders AS o, o.o_lineitems AS l WHERE l.l_quantity >= 50 AND l.l_discount >= 0.10
+            )
+            ORDER BY c_custkey
+            """,
+            Mode.PERMISSIVE(),
+        ),
+        Query(
+            "n3", "Nested result of each customer's urgent orders",
+            """
+            SELECT c.c_name AS c_name,
+                (SELECT VALUE {
+                        'o_orderkey': o.o_orderkey,
+                        'o_totalprice': o.o_totalprice,
+                        'returned': (SELECT VALUE l.l_partkey FROM o.o_lineitems AS l WHERE l.l_returnflag = 'R')
+                    }
+                    FROM c.c_orders AS o
+                    WHERE o.o_orderpriority = '1-URGENT') AS urgent
+            FROM customer_orders AS c
+            WHERE c.c_mktsegment = 'AUTOMOBILE' AND c.c_orders IS NOT MISSING
+            """,
+            Mode.PERMISSIVE(),
+        ),
+        Query(
+            "n4", "Customers without orders, whose nested orders are missing",
+            """
+            SELECT c.c_address.nation.region AS region, COUNT(*) AS customers
+            FROM customer_orders AS c
+            WHERE c.c_orders IS MISSING
+            GROUP BY c.c_address.nation.region
+            ORDER BY region
+            """,
+            Mode.PERMISSIVE(),
+        ),
+        Query(
+            "n5", "Frequency of each part attribute, by UNPIVOT",
+            """
+            SELECT a.name AS attribute, COUNT(*) AS parts, COUNT(DISTINCT a.v) AS "values"
+            FROM (
+                SELECT name AS name, v AS v
+                FROM part_attributes AS p, UNPIVOT p.p_attributes AS v AT name
+            ) AS a
+            GROUP BY a.name
+            ORDER BY attribute
+            """,
+            Mode.PERMISSIVE(),
+        ),
+        Query(
+            "n6", "Parts of each finish and metal, by paths of the attributes",
+            """
+            SELECT p.p_attributes.finish AS finish, p.p_attributes.metal AS metal, COUNT(*) AS parts
+            FROM part_attributes AS p
+            WHERE p.p_attributes.finish IS NOT MISSING AND p.p_attributes.size > 25
+            GROUP BY p.p_attributes.finish, p.p_attributes.metal
+            ORDER BY finish, metal
+            """,
+            Mode.PERMISSIVE(),
+        ),
+    )
+
+    /**
+     * @return the queries with the given names, in the order of [ALL].
+     * @throws IllegalArgumentException if a name is not that of a query.
+     */
+    @JvmStatic
+    fun select(names: Collection<String>): List<Query> {
+        val unknown = names.filter { name -> ALL.none { it.name == name } }
+        require(unknown.isEmpty()) { "Unknown queries: ${unknown.joinToString()}" }
+        return ALL.filter { it.name in names }
+    }
+}
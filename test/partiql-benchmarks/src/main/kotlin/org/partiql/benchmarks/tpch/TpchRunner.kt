@@ -0,0 +1,317 @@
+package org.partiql.benchmarks.tpch
+
+import org.partiql.eval.ExecutionPlan
+import org.partiql.eval.PartiQLVM
+import org.partiql.eval.compiler.PartiQLCompiler
+import org.partiql.parser.PartiQLParser
+import org.partiql.plan.SymbolTable
+import org.partiql.planner.PartiQLPlanner
+import org.partiql.spi.catalog.Catalog
+import org.partiql.spi.catalog.ExecutionCatalog
+import org.partiql.spi.catalog.Session
+import org.partiql.spi.catalog.Table
+import org.partiql.spi.types.PType
+import org.partiql.spi.value.Datum
+import org.partiql.spi.value.DatumWriter
+import org.partiql.spi.value.Encoding
+import org.partiql.spi.value.Field
+import java.io.File
+import java.lang.management.ManagementFactory
+import java.lang.management.MemoryType
+import java.util.Locale
+import kotlin.system.exitProcess
+
+/**
+ * Runs the queries of [TpchQueries] over the tables of [TpchGenerator], and reports the latency, throughput, and peak
+ * heap of each query. Everything runs in this process, without a network.
+ *
+ * Each query is planned and compiled once, then executed for the warmup iterations, then for the measured iterations.
+ * An execution reads every value of the result, including the nested collections of each row. The peak heap is that
+ * of the measured iterations, over the data itself; it includes the garbage which was not yet collected.
+ *
+ * ```
+ * Usage: TpchRunner [options]
+ *   --scale <sf>          the scale factor (default 0.01)
+ *   --seed <n>            the seed of the generator (default 42)
+ *   --queries <q1,q6,..>  the queries to run (default all)
+ *   --warmup <n>          the executions of each query before it is measured (default 1)
+ *   --iterations <n>      the measured executions of each query (default 3)
+ *   --source <source>     memory, ion, or ion-binary (default memory); the ion sources read files of each table
+ *   --data <dir>          the directory of the Ion files (default tpch-sf<sf>)
+ *   --no-indexes          do not index the foreign keys of the in-memory tables
+ *   --output <file>       also write the results as Ion, or as JSON if the file name ends with .json
+ * ```
+ */
+object TpchRunner {
+
+    @JvmStatic
+    fun main(args: Array<String>) {
+        val options = try {
+            Options.parse(args)
+        } catch (e: IllegalArgumentException) {
+            System.err.println(e.message)
+            System.err.println("See the documentation of ${TpchRunner::class.qualifiedName} for its options.")
+            exitProcess(2)
+        }
+        val results = run(options)
+        options.output?.let { write(results, it) }
+        if (results.any { it.error != null }) {
+            exitProcess(1)
+        }
+    }
+
+    /**
+     * The options of a run.
+     */
+    class Options(
+        val scale: Double = 0.01,
+        val seed: Long = 42L,
+        val queries: List<TpchQueries.Query> = TpchQueries.ALL,
+        val warmup: Int = 1,
+        val iterations: Int = 3,
+        val source: String = "memory",
+        val data: File = File("tpch-sf$scale"),
+        val indexes: Boolean = true,
+        val output: File? = null,
+    ) {
+
+        companion object {
+
+            @JvmStatic
+            fun parse(args: Array<String>): Options {
+                val values = HashMap<String, String>()
+                var i = 0
+                while (i < args.size) {
+                    val arg = args[i++]
+                    when {
+                        arg == "--no-indexes" -> values[arg] = "true"
+                        arg in OPTIONS && i < args.size -> values[arg] = args[i++]
+                        else -> throw IllegalArgumentException("Unknown or incomplete option: $arg")
+                    }
+                }
+                val scale = values["--scale"]?.toDoubleOrNull() ?: 0.01
+                val source = values["--source"] ?: "memory"
+                require(source in SOURCES) { "Unknown source: $source" }
+                return Options(
+                    scale = scale,
+                    seed = values["--seed"]?.toLong() ?: 42L,
+                    queries = values["--queries"]?.let { TpchQueries.select(it.split(",").map(String::trim)) }
+                        ?: TpchQueries.ALL,
+                    warmup = values["--warmup"]?.toInt() ?: 1,
+                    iterations = maxOf(values["--iterations"]?.toInt() ?: 3, 1),
+                    source = source,
+                    data = values["--data"]?.let(::File) ?: File("tpch-sf$scale"),
+                    indexes = "--no-indexes" !in values,
+                    output = values["--output"]?.let(::File),
+                )
+            }
+
+            private val OPTIONS = setOf(
+                "--scale", "--seed", "--queries", "--warmup", "--iterations", "--source", "--data", "--output",
+            )
+
+            private val SOURCES = setOf("memory", "ion", "ion-binary")
+        }
+    }
+
+    /**
+     * The measurements of a query; the times are in nanoseconds, and are -1 if the query failed.
+     */
+    class Result(
+        val query: TpchQueries.Query,
+        val rows: Long,
+        val prepare: Long,
+        val times: LongArray,
+        val peakHeap: Long,
+        val error: String? = null,
+    ) {
+
+        val min: Long get() = times.minOrNull() ?: -1
+
+        val median: Long get() = if (times.isEmpty()) -1 else times.sorted()[times.size / 2]
+
+        val mean: Long get() = if (times.isEmpty()) -1 else times.sum() / times.size
+
+        /**
+         * @return the executions per second.
+         */
+        val throughput: Double get() = if (times.isEmpty()) 0.0 else times.size * 1e9 / times.sum()
+    }
+
+    /**
+     * Generates the data, then runs and reports each query.
+     */
+    @JvmStatic
+    fun run(options: Options): List<Result> {
+        println(
+            "TPC-H scale ${options.scale}, seed ${options.seed}, ${options.source} source, " +
+                "${options.warmup} warmup and ${options.iterations} measured executions per query"
+        )
+        val suite = Suite(tables(options))
+        println("Heap of the data: ${mb(heap())} MB")
+        println()
+        println(HEADER)
+        return options.queries.map { query ->
+            val result = suite.run(query, options.warmup, options.iterations)
+            println(line(result))
+            result
+        }
+    }
+
+    /**
+     * @return the generated tables, or tables of the files they are written to if the source is not `memory`.
+     */
+    private fun tables(options: Options): List<Table> {
+        var start = System.nanoTime()
+        val generator = TpchGenerator(options.scale, options.seed)
+        val tables = generator.tables(options.indexes)
+        val rows = tables.filter { it.getSchema().code() != PType.DYNAMIC }.sumOf { it.getDatum().count().toLong() }
+        println("Generated $rows rows of the TPC-H tables in ${millis(System.nanoTime() - start)} ms")
+        if (options.source == "memory") {
+            return tables
+        }
+        start = System.nanoTime()
+        val files = generator.write(options.data, binary = options.source == "ion-binary")
+        println("Wrote the tables to ${options.data} in ${millis(System.nanoTime() - start)} ms")
+        return tables.zip(files) { table, file -> IonTable(table.getName(), file, table.getStatistics()) }
+    }
+
+    /**
+     * The tables and the phases of executing a query over them.
+     */
+    private class Suite(tables: List<Table>) {
+
+        private val session = Session.builder()
+            .catalog("tpch")
+            .catalogs(Catalog.builder().name("tpch").apply { tables.forEach { define(it) } }.build())
+            .build()
+        private val parser = PartiQLParser.standard()
+        private val planner = PartiQLPlanner.builder().useRefs().build()
+        private val compiler = PartiQLCompiler.standard()
+        private val vm = PartiQLVM.standard()
+
+        fun run(query: TpchQueries.Query, warmup: Int, iterations: Int): Result {
+            try {
+                var start = System.nanoTime()
+                val statement = parser.parse(query.text).statements[0]
+                val result = planner.plan(statement, session)
+                val plan = compiler.compile(result.plan, query.mode)
+                val catalogs = catalogs(result.symbols)
+                val prepare = System.nanoTime() - start
+                repeat(warmup) { execute(plan, catalogs) }
+                System.gc()
+                resetPeaks()
+                var rows = 0L
+                val times = LongArray(iterations) {
+                    start = System.nanoTime()
+                    rows = execute(plan, catalogs)
+                    System.nanoTime() - start
+                }
+                return Result(query, rows, prepare, times, peak())
+            } catch (e: Exception) {
+                return Result(query, 0, -1, LongArray(0), -1, e.message ?: e.toString())
+            }
+        }
+
+        /**
+         * @return the number of rows of the result, all of whose values are read.
+         */
+        private fun execute(plan: ExecutionPlan, catalogs: Array<ExecutionCatalog>): Long {
+            val datum = vm.execute(plan, catalogs)
+            val code = datum.type.code()
+            if (code != PType.BAG && code != PType.ARRAY) {
+                read(datum)
+                return 1
+            }
+            var rows = 0L
+            for (row in datum) {
+                read(row)
+                rows++
+            }
+            return rows
+        }
+
+        private fun catalogs(symbols: SymbolTable): Array<ExecutionCatalog> = Array(symbols.catalogCount()) { catalogId ->
+            val catalog = session.getCatalogs().getCatalog(symbols.getCatalogName(catalogId))!!
+            val tables = symbols.getTables(catalogId).map { catalog.getTable(session, it.name)!! }
+            ExecutionCatalog { tables[it] }
+        }
+    }
+
+    /**
+     * Reads the nested collections and structs of a value, which may be evaluated lazily.
+     */
+    private fun read(datum: Datum) {
+        if (datum.isNull || datum.isMissing) {
+            return
+        }
+        when (datum.type.code()) {
+            PType.BAG, PType.ARRAY -> datum.forEach { read(it) }
+            PType.STRUCT, PType.ROW -> datum.fields.forEach { read(it.value) }
+            else -> Unit
+        }
+    }
+
+    private fun write(results: List<Result>, file: File) {
+        val encoding = if (file.name.endsWith(".json")) Encoding.JSON() else Encoding.ION()
+        file.outputStream().buffered().use { out ->
+            DatumWriter.builder().encoding(encoding).build(out).use { writer ->
+                for (result in results) {
+                    val fields = mutableListOf(
+                        Field.of("query", Datum.string(result.query.name)),
+                        Field.of("rows", Datum.bigint(result.rows)),
+                        Field.of("prepare_ns", Datum.bigint(result.prepare)),
+                        Field.of("min_ns", Datum.bigint(result.min)),
+                        Field.of("median_ns", Datum.bigint(result.median)),
+                        Field.of("mean_ns", Datum.bigint(result.mean)),
+                        Field.of("throughput", Datum.doublePrecision(result.throughput)),
+                        Field.of("peak_heap_bytes", Datum.bigint(result.peakHeap)),
+                    )
+                    result.error?.let { fields.add(Field.of("error", Datum.string(it))) }
+                    writer.write(Datum.struct(fields))
+                }
+            }
+        }
+    }
+
+    private const val HEADER = "query       rows   prepare ms       min ms    median ms      mean ms   queries/s   peak heap MB"
+
+    private fun line(result: Result): String {
+        if (result.error != null) {
+            return String.format(Locale.ROOT, "%-6s  error: %s", result.query.name, result.error)
+        }
+        return String.format(
+            Locale.ROOT,
+            "%-6s %9d %12.1f %12.1f %12.1f %12.1f %11.2f %14d",
+            result.query.name,
+            result.rows,
+            result.prepare / 1e6,
+            result.min / 1e6,
+            result.median / 1e6,
+            result.mean / 1e6,
+            result.throughput,
+            mb(result.peakHeap),
+        )
+    }
+
+    private fun heapPools() = ManagementFactory.getMemoryPoolMXBeans().filter { it.type == MemoryType.HEAP }
+
+    /**
+     * @return the used heap after a collection.
+     */
+    private fun heap(): Long {
+        System.gc()
+        return heapPools().sumOf { it.usage.used }
+    }
+
+    private fun resetPeaks() = heapPools().forEach { it.resetPeakUsage() }
+
+    /**
+     * @return the sum of the peak usage of each heap pool since [resetPeaks], which bounds the peak of the heap.
+     */
+    private fun peak(): Long = heapPools().sumOf { it.peakUsage.used }
+
+    private fun millis(nanos: Long): Long = nanos / 1_000_000
+
+    private fun mb(bytes: Long): Long = bytes / (1024 * 1024)
+}